@@ -17,6 +17,7 @@
 package org.cesiumjs.cs.core;
 
 import com.google.gwt.core.client.JsArrayNumber;
+import com.google.gwt.typedarrays.shared.Float64Array;
 import jsinterop.annotations.*;
 
 /**
@@ -817,6 +818,16 @@ public class Cartesian3 implements Packable {
     @JsMethod
     public static native JsArrayNumber packArray(Cartesian3[] array, JsArrayNumber result);
 
+    /**
+     * Flattens an array of Cartesian3s into a typed array of components.
+     *
+     * @param array  The array of cartesians to pack.
+     * @param result The typed array onto which to store the result. Must have exactly array.length * 3 elements.
+     * @return The packed array.
+     */
+    @JsMethod
+    public static native Float64Array packArray(Cartesian3[] array, Float64Array result);
+
     /**
      * Projects vector a onto vector b
      *
@@ -872,6 +883,16 @@ public class Cartesian3 implements Packable {
     @JsMethod
     public static native Cartesian3[] unpackArray(JsArrayNumber array, Cartesian3[] result);
 
+    /**
+     * Unpacks a typed array of cartesian components into and array of Cartesian3s.
+     *
+     * @param array  The typed array of components to unpack.
+     * @param result The array onto which to store the result.
+     * @return The unpacked array.
+     */
+    @JsMethod
+    public static native Cartesian3[] unpackArray(Float64Array array, Cartesian3[] result);
+
     /**
      * Constrain a value to lie between two values.
      * @param cartesian The value to clamp.
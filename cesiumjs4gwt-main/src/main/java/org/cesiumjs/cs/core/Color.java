@@ -18,6 +18,7 @@ package org.cesiumjs.cs.core;
 
 import jsinterop.annotations.JsConstructor;
 import jsinterop.annotations.JsMethod;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
 import org.cesiumjs.cs.core.options.ColorRandomOptions;
@@ -1620,4 +1621,147 @@ public class Color {
      */
     @JsMethod
     public native Color withAlpha(float alpha, Color result);
+
+    /**
+     * Packs red, green, blue and alpha components, in the range 0.0 to 1.0, into a single 32-bit RGBA value. The
+     * layout is the same as {@link #toRgba()} on little-endian systems: red in the least significant byte, alpha in
+     * the most significant byte. Components are converted to bytes like {@link #floatToByte(float)}.
+     *
+     * @param red   The red component.
+     * @param green The green component.
+     * @param blue  The blue component.
+     * @param alpha The alpha component.
+     * @return The packed RGBA value.
+     */
+    @JsOverlay
+    public static int packRgba(double red, double green, double blue, double alpha) {
+        return packBytes(toByte(red), toByte(green), toByte(blue), toByte(alpha));
+    }
+
+    /**
+     * Packs red, green, blue and alpha bytes, in the range 0 to 255, into a single 32-bit RGBA value.
+     *
+     * @param red   The red component.
+     * @param green The green component.
+     * @param blue  The blue component.
+     * @param alpha The alpha component.
+     * @return The packed RGBA value.
+     * @see #packRgba(double, double, double, double)
+     */
+    @JsOverlay
+    public static int packBytes(int red, int green, int blue, int alpha) {
+        return (red & 0xFF) | (green & 0xFF) << 8 | (blue & 0xFF) << 16 | (alpha & 0xFF) << 24;
+    }
+
+    /**
+     * Gets the red byte of a packed RGBA value.
+     *
+     * @param rgba The packed RGBA value.
+     * @return The red component, in the range 0 to 255.
+     */
+    @JsOverlay
+    public static int redByte(int rgba) {
+        return rgba & 0xFF;
+    }
+
+    /**
+     * Gets the green byte of a packed RGBA value.
+     *
+     * @param rgba The packed RGBA value.
+     * @return The green component, in the range 0 to 255.
+     */
+    @JsOverlay
+    public static int greenByte(int rgba) {
+        return (rgba >>> 8) & 0xFF;
+    }
+
+    /**
+     * Gets the blue byte of a packed RGBA value.
+     *
+     * @param rgba The packed RGBA value.
+     * @return The blue component, in the range 0 to 255.
+     */
+    @JsOverlay
+    public static int blueByte(int rgba) {
+        return (rgba >>> 16) & 0xFF;
+    }
+
+    /**
+     * Gets the alpha byte of a packed RGBA value.
+     *
+     * @param rgba The packed RGBA value.
+     * @return The alpha component, in the range 0 to 255.
+     */
+    @JsOverlay
+    public static int alphaByte(int rgba) {
+        return rgba >>> 24;
+    }
+
+    /**
+     * Replaces the alpha byte of a packed RGBA value.
+     *
+     * @param rgba  The packed RGBA value.
+     * @param alpha The new alpha component, in the range 0.0 to 1.0.
+     * @return The packed RGBA value with the new alpha.
+     */
+    @JsOverlay
+    public static int withPackedAlpha(int rgba, double alpha) {
+        return (rgba & 0x00FFFFFF) | toByte(alpha) << 24;
+    }
+
+    /**
+     * Creates a Color from a packed RGBA value.
+     *
+     * @param rgba   The packed RGBA value.
+     * @param result The object to store the result in, if undefined a new instance will be created.
+     * @return The modified result parameter or a new instance if result was undefined.
+     * @see #packRgba(double, double, double, double)
+     */
+    @JsOverlay
+    public static Color fromPackedRgba(int rgba, Color result) {
+        if (result == null) {
+            result = new Color();
+        }
+        result.red = redByte(rgba) / 255.0;
+        result.green = greenByte(rgba) / 255.0;
+        result.blue = blueByte(rgba) / 255.0;
+        result.alpha = alphaByte(rgba) / 255.0;
+        return result;
+    }
+
+    /**
+     * Packs the provided colors into an array of RGBA values.
+     *
+     * @param colors The colors to pack.
+     * @param result The array to store the result in, if undefined a new array will be created.
+     * @return The modified result parameter or a new array if result was undefined.
+     */
+    @JsOverlay
+    public static int[] packRgbaArray(Color[] colors, int[] result) {
+        if (result == null) {
+            result = new int[colors.length];
+        } else if (result.length < colors.length) {
+            throw new DeveloperError("result must have at least as many elements as colors.");
+        }
+        for (int i = 0; i < colors.length; i++) {
+            result[i] = colors[i].toPackedRgba();
+        }
+        return result;
+    }
+
+    /**
+     * Converts this color to a packed RGBA value without calling into CesiumJS.
+     *
+     * @return The packed RGBA value.
+     * @see #packRgba(double, double, double, double)
+     */
+    @JsOverlay
+    public final int toPackedRgba() {
+        return packRgba(red, green, blue, alpha);
+    }
+
+    @JsOverlay
+    private static int toByte(double number) {
+        return number == 1.0 ? 255 : (int) (number * 256.0) & 0xFF;
+    }
 }
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.js.JsObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of parsed colors. CSS color strings, including named colors such as "yellow", are parsed by
+ * {@link Color#fromCssColorString(String, Color)} once and the result is interned, so styling many entities with
+ * the same few colors shares a handful of Color instances instead of creating one per entity. Packed RGBA values
+ * are interned the same way.
+ * <p>
+ * Like {@link Color#YELLOW()} and the other named color constants of CesiumJS, the shared instances are frozen and
+ * must not be modified; clone them first. The least recently used entries are evicted once the cache is full.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Color#packRgba(double, double, double, double)
+ */
+public final class ColorCache {
+    /**
+     * The default maximum number of entries of each cache.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static int maximumSize = DEFAULT_MAXIMUM_SIZE;
+    private static final Map<String, Color> CSS_COLORS = createMap();
+    private static final Map<String, Integer> CSS_PACKED = createMap();
+    private static final Map<Integer, Color> PACKED_COLORS = createMap();
+    private static int hits;
+    private static int misses;
+
+    private ColorCache() {
+    }
+
+    /**
+     * Gets a shared, frozen Color for a CSS color value.
+     *
+     * @param color The CSS color value in #rgb, #rrggbb, rgb(), rgba(), hsl(), hsla() or named format.
+     * @return The shared color, or null if the string was not a valid CSS color.
+     */
+    public static Color fromCssColorString(String color) {
+        if (color == null) {
+            throw new DeveloperError("color is required.");
+        }
+        Color result = CSS_COLORS.get(color);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        result = Color.fromCssColorString(color, null);
+        if (result == null) {
+            return null;
+        }
+        result = JsObject.freeze(result);
+        CSS_COLORS.put(color, result);
+        return result;
+    }
+
+    /**
+     * Gets the packed RGBA value of a CSS color value, without keeping a Color instance.
+     *
+     * @param color The CSS color value in #rgb, #rrggbb, rgb(), rgba(), hsl(), hsla() or named format.
+     * @return The packed RGBA value.
+     * @throws DeveloperError if the string was not a valid CSS color.
+     */
+    public static int toPackedRgba(String color) {
+        if (color == null) {
+            throw new DeveloperError("color is required.");
+        }
+        Integer result = CSS_PACKED.get(color);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        Color parsed = CSS_COLORS.get(color);
+        if (parsed == null) {
+            parsed = Color.fromCssColorString(color, null);
+            if (parsed == null) {
+                throw new DeveloperError("Invalid CSS color: " + color);
+            }
+        }
+        int rgba = parsed.toPackedRgba();
+        CSS_PACKED.put(color, rgba);
+        return rgba;
+    }
+
+    /**
+     * Gets a shared, frozen Color for a packed RGBA value.
+     *
+     * @param rgba The packed RGBA value.
+     * @return The shared color.
+     */
+    public static Color fromPackedRgba(int rgba) {
+        Integer key = rgba;
+        Color result = PACKED_COLORS.get(key);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        result = JsObject.freeze(Color.fromPackedRgba(rgba, null));
+        PACKED_COLORS.put(key, result);
+        return result;
+    }
+
+    /**
+     * Gets the maximum number of entries of each cache.
+     *
+     * @return The maximum number of entries.
+     */
+    public static int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Sets the maximum number of entries of each cache. Shrinking the cache clears it.
+     *
+     * @param maximumSize The maximum number of entries.
+     */
+    public static void setMaximumSize(int maximumSize) {
+        if (maximumSize < 1) {
+            throw new DeveloperError("maximumSize must be greater than 0.");
+        }
+        boolean shrink = maximumSize < ColorCache.maximumSize;
+        ColorCache.maximumSize = maximumSize;
+        if (shrink) {
+            clear();
+        }
+    }
+
+    /**
+     * Gets the number of entries in all caches.
+     *
+     * @return The number of entries.
+     */
+    public static int size() {
+        return CSS_COLORS.size() + CSS_PACKED.size() + PACKED_COLORS.size();
+    }
+
+    /**
+     * Gets the number of lookups answered from the cache since the last {@link #clear()}.
+     *
+     * @return The number of hits.
+     */
+    public static int getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of lookups which had to parse or create a color since the last {@link #clear()}.
+     *
+     * @return The number of misses.
+     */
+    public static int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all entries and resets the hit and miss counters.
+     */
+    public static void clear() {
+        CSS_COLORS.clear();
+        CSS_PACKED.clear();
+        PACKED_COLORS.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private static <K, V> Map<K, V> createMap() {
+        return new LinkedHashMap<K, V>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maximumSize;
+            }
+        };
+    }
+}
@@ -16,9 +16,11 @@
 
 package org.cesiumjs.cs.core;
 
+import com.google.gwt.typedarrays.shared.TypedArrays;
 import com.google.gwt.typedarrays.shared.Uint8Array;
 import jsinterop.annotations.JsConstructor;
 import jsinterop.annotations.JsMethod;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
 
@@ -154,4 +156,37 @@ public class ColorGeometryInstanceAttribute {
      */
     @JsProperty(name = "normalize")
     public native boolean normalize();
+
+    /**
+     * Creates a new ColorGeometryInstanceAttribute instance given a packed RGBA value.
+     *
+     * @param rgba The packed RGBA value.
+     * @return The new ColorGeometryInstanceAttribute instance.
+     * @see Color#packRgba(double, double, double, double)
+     */
+    @JsOverlay
+    public static ColorGeometryInstanceAttribute fromPackedRgba(int rgba) {
+        return new ColorGeometryInstanceAttribute(Color.redByte(rgba) / 255.0, Color.greenByte(rgba) / 255.0,
+                Color.blueByte(rgba) / 255.0, Color.alphaByte(rgba) / 255.0);
+    }
+
+    /**
+     * Converts a packed RGBA value to a typed array that can be used to assign a color attribute.
+     *
+     * @param rgba   The packed RGBA value.
+     * @param result The array to store the result in, if undefined a new instance will be created.
+     * @return The modified result parameter or a new instance if result was undefined.
+     * @see Color#packRgba(double, double, double, double)
+     */
+    @JsOverlay
+    public static Uint8Array packedRgbaToValue(int rgba, Uint8Array result) {
+        if (result == null) {
+            result = TypedArrays.createUint8Array(4);
+        }
+        result.set(0, Color.redByte(rgba));
+        result.set(1, Color.greenByte(rgba));
+        result.set(2, Color.blueByte(rgba));
+        result.set(3, Color.alphaByte(rgba));
+        return result;
+    }
 }
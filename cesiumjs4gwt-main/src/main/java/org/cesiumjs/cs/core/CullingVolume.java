@@ -25,6 +25,7 @@ import org.cesiumjs.cs.core.enums.Intersect;
  * The culling volume defined by planes.
  *
  * @author Serge Silaev aka iSergio
+ * @see org.cesiumjs.cs.core.math.SphereCuller
  */
 @JsType(isNative = true, namespace = "Cesium", name = "CullingVolume")
 public class CullingVolume {
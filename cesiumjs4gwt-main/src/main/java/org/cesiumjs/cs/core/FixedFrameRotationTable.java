@@ -0,0 +1,268 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.core.math.CesiumMath;
+import org.cesiumjs.cs.core.math.Matrix3d;
+import org.cesiumjs.cs.core.math.Quaterniond;
+import org.cesiumjs.cs.core.time.JulianTime;
+
+/**
+ * A table of the rotation from an inertial frame to the Earth fixed frame, sampled over a time range. The table is
+ * built once with {@link Transforms#computeIcrfToFixedMatrix(JulianDate, Matrix3)} or
+ * {@link Transforms#computeTemeToPseudoFixedMatrix(JulianDate, Matrix3)} at a fixed step and stored as packed
+ * quaternions. Later queries interpolate between the two neighbouring samples with a spherical linear
+ * interpolation, so they cost the same no matter how many objects share the frame, never allocate and never call
+ * into CesiumJS.
+ * <p>
+ * Between two samples the rotation is dominated by the steady spin of the Earth, which the spherical interpolation
+ * reproduces exactly, so a step of a minute keeps the interpolation error far below the accuracy of the Earth
+ * orientation data.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Transforms#preloadIcrfFixed(TimeInterval)
+ */
+public final class FixedFrameRotationTable {
+    /**
+     * The default step between samples, in seconds.
+     */
+    public static final double DEFAULT_STEP = 60.0;
+
+    private final JulianTime start;
+    private final JulianTime stop;
+    private final double step;
+    private final double duration;
+    private final int sampleCount;
+    // Per sample: x, y, z, w of the rotation, on the same hemisphere as the previous sample
+    private final double[] quaternions;
+    // Per segment between two samples: the angle between their quaternions
+    private final double[] angles;
+
+    private FixedFrameRotationTable(JulianTime start, JulianTime stop, double step, boolean teme) {
+        if (!(step > 0.0)) {
+            throw new DeveloperError("step must be greater than 0.");
+        }
+        duration = JulianTime.secondsDifference(stop, start);
+        if (!(duration >= 0.0)) {
+            throw new DeveloperError("stop must not be before start.");
+        }
+        this.start = JulianTime.clone(start, null);
+        this.stop = JulianTime.clone(stop, null);
+        this.step = step;
+        sampleCount = java.lang.Math.max((int) java.lang.Math.ceil(duration / step), 1) + 1;
+        quaternions = new double[4 * sampleCount];
+        angles = new double[sampleCount - 1];
+
+        JulianTime time = new JulianTime();
+        JulianDate date = new JulianDate();
+        Matrix3 matrix = new Matrix3();
+        Matrix3d rotation = new Matrix3d();
+        Quaterniond quaternion = new Quaterniond();
+        for (int i = 0; i < sampleCount; i++) {
+            double seconds = i == sampleCount - 1 ? duration : i * step;
+            JulianTime.toJulianDate(JulianTime.addSeconds(start, seconds, time), date);
+            Matrix3 sample = teme ? Transforms.computeTemeToPseudoFixedMatrix(date, matrix)
+                    : Transforms.computeIcrfToFixedMatrix(date, matrix);
+            if (sample == null) {
+                throw new DeveloperError("ICRF data is not loaded for the interval, see Transforms.preloadIcrfFixed.");
+            }
+            Quaterniond.fromRotationMatrix(Matrix3d.fromMatrix3(sample, rotation), quaternion);
+            Quaterniond.normalize(quaternion, quaternion);
+            int index = 4 * i;
+            double sign = 1.0;
+            if (i > 0) {
+                double dot = quaternions[index - 4] * quaternion.x + quaternions[index - 3] * quaternion.y
+                        + quaternions[index - 2] * quaternion.z + quaternions[index - 1] * quaternion.w;
+                if (dot < 0.0) {
+                    dot = -dot;
+                    sign = -1.0;
+                }
+                angles[i - 1] = java.lang.Math.acos(java.lang.Math.min(dot, 1.0));
+            }
+            quaternions[index] = sign * quaternion.x;
+            quaternions[index + 1] = sign * quaternion.y;
+            quaternions[index + 2] = sign * quaternion.z;
+            quaternions[index + 3] = sign * quaternion.w;
+        }
+    }
+
+    /**
+     * Samples the rotation from the International Celestial Reference Frame (GCRF/ICRF) to the Earth fixed frame
+     * (ITRF) over a time interval. The Earth orientation data must already be loaded for the interval, see
+     * {@link Transforms#preloadIcrfFixed(TimeInterval)}.
+     *
+     * @param timeInterval The time interval to sample.
+     * @param step         The step between samples, in seconds.
+     * @return The table.
+     */
+    public static FixedFrameRotationTable icrfToFixed(TimeInterval timeInterval, double step) {
+        return new FixedFrameRotationTable(JulianTime.fromJulianDate(timeInterval.start, null),
+                JulianTime.fromJulianDate(timeInterval.stop, null), step, false);
+    }
+
+    /**
+     * Samples the rotation from the International Celestial Reference Frame (GCRF/ICRF) to the Earth fixed frame
+     * (ITRF) over a time range. The Earth orientation data must already be loaded for the range, see
+     * {@link Transforms#preloadIcrfFixed(TimeInterval)}.
+     *
+     * @param start The start of the range.
+     * @param stop  The stop of the range.
+     * @param step  The step between samples, in seconds.
+     * @return The table.
+     */
+    public static FixedFrameRotationTable icrfToFixed(JulianTime start, JulianTime stop, double step) {
+        return new FixedFrameRotationTable(start, stop, step, false);
+    }
+
+    /**
+     * Samples the rotation from the True Equator Mean Equinox (TEME) frame to the pseudo-fixed frame over a time
+     * interval.
+     *
+     * @param timeInterval The time interval to sample.
+     * @param step         The step between samples, in seconds.
+     * @return The table.
+     */
+    public static FixedFrameRotationTable temeToPseudoFixed(TimeInterval timeInterval, double step) {
+        return new FixedFrameRotationTable(JulianTime.fromJulianDate(timeInterval.start, null),
+                JulianTime.fromJulianDate(timeInterval.stop, null), step, true);
+    }
+
+    /**
+     * Samples the rotation from the True Equator Mean Equinox (TEME) frame to the pseudo-fixed frame over a time
+     * range.
+     *
+     * @param start The start of the range.
+     * @param stop  The stop of the range.
+     * @param step  The step between samples, in seconds.
+     * @return The table.
+     */
+    public static FixedFrameRotationTable temeToPseudoFixed(JulianTime start, JulianTime stop, double step) {
+        return new FixedFrameRotationTable(start, stop, step, true);
+    }
+
+    /**
+     * Gets the start of the sampled range.
+     *
+     * @param result An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public JulianTime getStart(JulianTime result) {
+        return JulianTime.clone(start, result);
+    }
+
+    /**
+     * Gets the stop of the sampled range.
+     *
+     * @param result An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public JulianTime getStop(JulianTime result) {
+        return JulianTime.clone(stop, result);
+    }
+
+    /**
+     * Gets the step between samples.
+     *
+     * @return The step, in seconds.
+     */
+    public double getStep() {
+        return step;
+    }
+
+    /**
+     * Gets the number of samples, including both ends of the range.
+     *
+     * @return The number of samples.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Determines whether a time is within the sampled range.
+     *
+     * @param time The time.
+     * @return True if the table can answer queries at the time; otherwise, false.
+     */
+    public boolean contains(JulianTime time) {
+        double seconds = JulianTime.secondsDifference(time, start);
+        return seconds >= 0.0 && seconds <= duration;
+    }
+
+    /**
+     * Computes the rotation at a time.
+     *
+     * @param time   The time.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter, a new Quaterniond instance if one was not provided, or null if the
+     * time is outside the sampled range.
+     */
+    public Quaterniond computeQuaternion(JulianTime time, Quaterniond result) {
+        return computeQuaternion(JulianTime.secondsDifference(time, start), result);
+    }
+
+    /**
+     * Computes the rotation at a number of seconds after the start of the sampled range.
+     *
+     * @param seconds The seconds after the start.
+     * @param result  The object onto which to store the result.
+     * @return The modified result parameter, a new Quaterniond instance if one was not provided, or null if the
+     * time is outside the sampled range.
+     */
+    public Quaterniond computeQuaternion(double seconds, Quaterniond result) {
+        if (!(seconds >= 0.0 && seconds <= duration)) {
+            return null;
+        }
+        int segment = java.lang.Math.min((int) (seconds / step), sampleCount - 2);
+        double segmentStart = segment * step;
+        double segmentLength = segment == sampleCount - 2 ? duration - segmentStart : step;
+        double t = segmentLength > 0.0 ? (seconds - segmentStart) / segmentLength : 0.0;
+
+        double angle = angles[segment];
+        double s0;
+        double s1;
+        if (angle < CesiumMath.EPSILON6) {
+            s0 = 1.0 - t;
+            s1 = t;
+        } else {
+            double sin = java.lang.Math.sin(angle);
+            s0 = java.lang.Math.sin((1.0 - t) * angle) / sin;
+            s1 = java.lang.Math.sin(t * angle) / sin;
+        }
+        int i = 4 * segment;
+        double x = s0 * quaternions[i] + s1 * quaternions[i + 4];
+        double y = s0 * quaternions[i + 1] + s1 * quaternions[i + 5];
+        double z = s0 * quaternions[i + 2] + s1 * quaternions[i + 6];
+        double w = s0 * quaternions[i + 3] + s1 * quaternions[i + 7];
+        double magnitude = java.lang.Math.sqrt(x * x + y * y + z * z + w * w);
+        return Quaterniond.fromElements(x / magnitude, y / magnitude, z / magnitude, w / magnitude, result);
+    }
+
+    /**
+     * Computes the rotation matrix at a time.
+     *
+     * @param time    The time.
+     * @param scratch A quaternion used to compute the rotation. If undefined, a new instance is created.
+     * @param result  The object onto which to store the result.
+     * @return The modified result parameter, a new Matrix3d instance if one was not provided, or null if the time
+     * is outside the sampled range.
+     */
+    public Matrix3d computeMatrix(JulianTime time, Quaterniond scratch, Matrix3d result) {
+        scratch = computeQuaternion(JulianTime.secondsDifference(time, start), scratch);
+        return scratch == null ? null : Matrix3d.fromQuaternion(scratch, result);
+    }
+}
@@ -29,15 +29,15 @@ public class JulianDate {
     /**
      * Gets or sets the list of leap seconds used throughout Cesium.
      */
-    public LeapSecond[] leapSeconds;
+    public static LeapSecond[] leapSeconds;
     /**
-     * Gets or sets the list of leap seconds used throughout Cesium.
+     * Gets or sets the number of whole days.
      */
     public int dayNumber;
     /**
      * Gets or sets the number of seconds into the current day.
      */
-    public int secondsOfDay;
+    public double secondsOfDay;
 
     /**
      * Represents an astronomical Julian date, which is the number of days since
@@ -193,7 +193,7 @@ public class JulianDate {
      * @param right The second instance.
      * @return The difference, in days, when subtracting right from left.
      */
-    public static native int daysDifference(JulianDate left, JulianDate right);
+    public static native double daysDifference(JulianDate left, JulianDate right);
 
     /**
      * Compares two instances and returns true if they are equal, false otherwise.
@@ -323,7 +323,7 @@ public class JulianDate {
      * @param right The second instance.
      * @return The difference, in seconds, when subtracting right from left.
      */
-    public static native int secondsDifference(JulianDate left, JulianDate right);
+    public static native double secondsDifference(JulianDate left, JulianDate right);
 
     /**
      * Creates a JavaScript Date from the provided instance. Since JavaScript dates
@@ -379,7 +379,7 @@ public class JulianDate {
      * @param julianDate The date.
      * @return The Julian date as single floating point number.
      */
-    public static native int totalDays(JulianDate julianDate);
+    public static native double totalDays(JulianDate julianDate);
 
     /**
      * Duplicates this instance.
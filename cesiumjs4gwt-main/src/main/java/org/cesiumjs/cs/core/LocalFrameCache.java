@@ -0,0 +1,370 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.core.math.Ellipsoidd;
+import org.cesiumjs.cs.core.math.Matrix4d;
+import org.cesiumjs.cs.core.math.Quaterniond;
+import org.cesiumjs.cs.core.math.Transformsd;
+import org.cesiumjs.cs.js.JsObject;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of local frame transforms. Placing many models at static or slowly moving origins with
+ * {@link Transforms#eastNorthUpToFixedFrame} or {@link Transforms#headingPitchRollToFixedFrame} recomputes the same
+ * frames every frame; this cache computes each frame once with {@link Transformsd} and returns it for every later
+ * request at the same origin.
+ * <p>
+ * Origins are quantized to the position granularity and angles to the angle granularity, and the frame is computed
+ * at the quantized values, so all requests that share a cache entry get exactly the same result. Like the
+ * instances of {@link ColorCache}, the results are shared and frozen and must not be modified; clone them first.
+ * The least recently used entries are evicted once the cache is full.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Transforms
+ * @see Transformsd
+ */
+public final class LocalFrameCache {
+    /**
+     * The default maximum number of entries.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 4096;
+    /**
+     * The default position granularity, in meters.
+     */
+    public static final double DEFAULT_POSITION_GRANULARITY = 0.001;
+    /**
+     * The default angle granularity, in radians.
+     */
+    public static final double DEFAULT_ANGLE_GRANULARITY = 1.0e-6;
+
+    private static final int EAST_NORTH_UP = 0;
+    private static final int HEADING_PITCH_ROLL = 1;
+    private static final int HEADING_PITCH_ROLL_QUATERNION = 2;
+
+    private final int maximumSize;
+    private final double positionGranularity;
+    private final double angleGranularity;
+    private final Map<Key, Object> entries;
+    private final Key probe = new Key();
+    private final Matrix4d scratchMatrix = new Matrix4d();
+    private final Quaterniond scratchQuaternion = new Quaterniond();
+    private int hits;
+    private int misses;
+
+    /**
+     * Creates a cache with the default size and granularities.
+     */
+    public LocalFrameCache() {
+        this(DEFAULT_MAXIMUM_SIZE, DEFAULT_POSITION_GRANULARITY, DEFAULT_ANGLE_GRANULARITY);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize         The maximum number of entries.
+     * @param positionGranularity The distance, in meters, to which origins are quantized, or 0 to match them exactly.
+     * @param angleGranularity    The angle, in radians, to which heading, pitch and roll are quantized, or 0 to match
+     *                            them exactly.
+     */
+    public LocalFrameCache(int maximumSize, double positionGranularity, double angleGranularity) {
+        if (maximumSize < 1) {
+            throw new DeveloperError("maximumSize must be greater than 0.");
+        }
+        if (!(positionGranularity >= 0.0)) {
+            throw new DeveloperError("positionGranularity must be greater than or equal to 0.");
+        }
+        if (!(angleGranularity >= 0.0)) {
+            throw new DeveloperError("angleGranularity must be greater than or equal to 0.");
+        }
+        this.maximumSize = maximumSize;
+        this.positionGranularity = positionGranularity;
+        this.angleGranularity = angleGranularity;
+        entries = new LinkedHashMap<Key, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+                return size() > LocalFrameCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets a shared, frozen transformation matrix from an east-north-up frame centered at the provided origin to
+     * the WGS84 fixed frame.
+     *
+     * @param origin The center point of the local reference frame.
+     * @return The shared matrix.
+     * @see Transforms#eastNorthUpToFixedFrame(Cartesian3)
+     */
+    public Matrix4 eastNorthUpToFixedFrame(Cartesian3 origin) {
+        return eastNorthUpToFixedFrame(origin, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Gets a shared, frozen transformation matrix from an east-north-up frame centered at the provided origin to
+     * the fixed frame of the provided ellipsoid.
+     *
+     * @param origin    The center point of the local reference frame.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @return The shared matrix.
+     * @see Transforms#eastNorthUpToFixedFrame(Cartesian3, Ellipsoid)
+     */
+    public Matrix4 eastNorthUpToFixedFrame(Cartesian3 origin, Ellipsoidd ellipsoid) {
+        setProbe(EAST_NORTH_UP, origin, 0.0, 0.0, 0.0, ellipsoid);
+        Object result = entries.get(probe);
+        if (result != null) {
+            hits++;
+            return (Matrix4) result;
+        }
+        misses++;
+        Transformsd.eastNorthUpToFixedFrame(probe.x * positionScale(), probe.y * positionScale(),
+                probe.z * positionScale(), ellipsoid, scratchMatrix);
+        return put(JsObject.freeze(Matrix4d.toMatrix4(scratchMatrix, null)));
+    }
+
+    /**
+     * Gets a shared, frozen transformation matrix from a frame with axes computed from the heading-pitch-roll
+     * angles centered at the provided origin to the WGS84 fixed frame.
+     *
+     * @param origin           The center point of the local reference frame.
+     * @param headingPitchRoll The heading, pitch, and roll.
+     * @return The shared matrix.
+     * @see Transforms#headingPitchRollToFixedFrame(Cartesian3, HeadingPitchRoll)
+     */
+    public Matrix4 headingPitchRollToFixedFrame(Cartesian3 origin, HeadingPitchRoll headingPitchRoll) {
+        return headingPitchRollToFixedFrame(origin, headingPitchRoll, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Gets a shared, frozen transformation matrix from a frame with axes computed from the heading-pitch-roll
+     * angles centered at the provided origin to the fixed frame of the provided ellipsoid.
+     *
+     * @param origin           The center point of the local reference frame.
+     * @param headingPitchRoll The heading, pitch, and roll.
+     * @param ellipsoid        The ellipsoid whose fixed frame is used in the transformation.
+     * @return The shared matrix.
+     * @see Transforms#headingPitchRollToFixedFrame(Cartesian3, HeadingPitchRoll, Ellipsoid)
+     */
+    public Matrix4 headingPitchRollToFixedFrame(Cartesian3 origin, HeadingPitchRoll headingPitchRoll,
+                                                Ellipsoidd ellipsoid) {
+        setProbe(HEADING_PITCH_ROLL, origin, headingPitchRoll.heading, headingPitchRoll.pitch,
+                headingPitchRoll.roll, ellipsoid);
+        Object result = entries.get(probe);
+        if (result != null) {
+            hits++;
+            return (Matrix4) result;
+        }
+        misses++;
+        Transformsd.headingPitchRollToFixedFrame(probe.x * positionScale(), probe.y * positionScale(),
+                probe.z * positionScale(), probe.heading * angleScale(), probe.pitch * angleScale(),
+                probe.roll * angleScale(), ellipsoid, scratchMatrix);
+        return put(JsObject.freeze(Matrix4d.toMatrix4(scratchMatrix, null)));
+    }
+
+    /**
+     * Gets a shared, frozen quaternion of the rotation from a frame with axes computed from the heading-pitch-roll
+     * angles centered at the provided origin to the WGS84 fixed frame.
+     *
+     * @param origin           The center point of the local reference frame.
+     * @param headingPitchRoll The heading, pitch, and roll.
+     * @return The shared quaternion.
+     * @see Transforms#headingPitchRollQuaternion(Cartesian3, HeadingPitchRoll)
+     */
+    public Quaternion headingPitchRollQuaternion(Cartesian3 origin, HeadingPitchRoll headingPitchRoll) {
+        return headingPitchRollQuaternion(origin, headingPitchRoll, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Gets a shared, frozen quaternion of the rotation from a frame with axes computed from the heading-pitch-roll
+     * angles centered at the provided origin to the fixed frame of the provided ellipsoid.
+     *
+     * @param origin           The center point of the local reference frame.
+     * @param headingPitchRoll The heading, pitch, and roll.
+     * @param ellipsoid        The ellipsoid whose fixed frame is used in the transformation.
+     * @return The shared quaternion.
+     * @see Transforms#headingPitchRollQuaternion(Cartesian3, HeadingPitchRoll, Ellipsoid)
+     */
+    public Quaternion headingPitchRollQuaternion(Cartesian3 origin, HeadingPitchRoll headingPitchRoll,
+                                                 Ellipsoidd ellipsoid) {
+        setProbe(HEADING_PITCH_ROLL_QUATERNION, origin, headingPitchRoll.heading, headingPitchRoll.pitch,
+                headingPitchRoll.roll, ellipsoid);
+        Object result = entries.get(probe);
+        if (result != null) {
+            hits++;
+            return (Quaternion) result;
+        }
+        misses++;
+        Transformsd.headingPitchRollQuaternion(probe.x * positionScale(), probe.y * positionScale(),
+                probe.z * positionScale(), probe.heading * angleScale(), probe.pitch * angleScale(),
+                probe.roll * angleScale(), ellipsoid, scratchMatrix, scratchQuaternion);
+        return put(JsObject.freeze(Quaterniond.toQuaternion(scratchQuaternion, null)));
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return The maximum number of entries.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets the distance to which origins are quantized.
+     *
+     * @return The granularity, in meters.
+     */
+    public double getPositionGranularity() {
+        return positionGranularity;
+    }
+
+    /**
+     * Gets the angle to which heading, pitch and roll are quantized.
+     *
+     * @return The granularity, in radians.
+     */
+    public double getAngleGranularity() {
+        return angleGranularity;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Gets the number of requests answered from the cache since the last {@link #clear()}.
+     *
+     * @return The number of hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of requests which had to compute a frame since the last {@link #clear()}.
+     *
+     * @return The number of misses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Removes all entries and resets the hit and miss counters.
+     */
+    public void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private void setProbe(int type, Cartesian3 origin, double heading, double pitch, double roll,
+                          Ellipsoidd ellipsoid) {
+        if (origin == null) {
+            throw new DeveloperError("origin is required.");
+        }
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        probe.type = type;
+        probe.x = quantize(origin.x, positionGranularity);
+        probe.y = quantize(origin.y, positionGranularity);
+        probe.z = quantize(origin.z, positionGranularity);
+        probe.heading = quantize(heading, angleGranularity);
+        probe.pitch = quantize(pitch, angleGranularity);
+        probe.roll = quantize(roll, angleGranularity);
+        probe.ellipsoid = ellipsoid;
+    }
+
+    private <T> T put(T value) {
+        entries.put(probe.copy(), value);
+        return value;
+    }
+
+    private double positionScale() {
+        return positionGranularity > 0.0 ? positionGranularity : 1.0;
+    }
+
+    private double angleScale() {
+        return angleGranularity > 0.0 ? angleGranularity : 1.0;
+    }
+
+    private static double quantize(double value, double granularity) {
+        return granularity > 0.0 ? java.lang.Math.floor(value / granularity + 0.5) : value;
+    }
+
+    /**
+     * The quantized origin, angles and ellipsoid of a frame. Lookups reuse a single probe instance.
+     */
+    private static final class Key {
+        int type;
+        double x;
+        double y;
+        double z;
+        double heading;
+        double pitch;
+        double roll;
+        Ellipsoidd ellipsoid;
+
+        Key copy() {
+            Key key = new Key();
+            key.type = type;
+            key.x = x;
+            key.y = y;
+            key.z = z;
+            key.heading = heading;
+            key.pitch = pitch;
+            key.roll = roll;
+            key.ellipsoid = ellipsoid;
+            return key;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return type == other.type && x == other.x && y == other.y && z == other.z && heading == other.heading
+                    && pitch == other.pitch && roll == other.roll && ellipsoid.equals(other.ellipsoid);
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = type;
+            hash = 31 * hash + hash(x);
+            hash = 31 * hash + hash(y);
+            hash = 31 * hash + hash(z);
+            hash = 31 * hash + hash(heading);
+            hash = 31 * hash + hash(pitch);
+            hash = 31 * hash + hash(roll);
+            return 31 * hash + ellipsoid.hashCode();
+        }
+
+        private static int hash(double value) {
+            // Quantized positions exceed the int range, so fold them instead of casting
+            return (int) (value % 2147483647.0);
+        }
+    }
+}
@@ -24,6 +24,7 @@ import org.cesiumjs.cs.core.enums.Visibility;
 
 /**
  * @author Serge Silaev aka iSergio
+ * @see org.cesiumjs.cs.core.math.SphereCuller
  */
 @JsType(isNative = true, namespace = "Cesium", name = "Occluder")
 public class Occluder {
@@ -17,7 +17,10 @@
 package org.cesiumjs.cs.core;
 
 import jsinterop.annotations.JsConstructor;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsType;
+import org.cesiumjs.cs.core.math.ArcDensifier;
+import org.cesiumjs.cs.core.math.Cartesian3Buffer;
 import org.cesiumjs.cs.core.options.PolylinePipelineOptions;
 
 /**
@@ -36,6 +39,31 @@ public class PolylinePipeline {
      * @param options {@link PolylinePipelineOptions}
      * @return A new array of cartesian3 positions that have been subdivided and
      * raised to the surface of the ellipsoid.
+     * @see ArcDensifier
      */
     public static native Cartesian3[] generateCartesianArc(PolylinePipelineOptions options);
+
+    /**
+     * Subdivides polyline and raises all points to the specified height. Returns an
+     * array of numbers representing the positions.
+     *
+     * @param options {@link PolylinePipelineOptions}
+     * @return A new array of positions that have been subdivided and raised to the
+     * surface of the ellipsoid, packed as x, y, z components.
+     */
+    public static native double[] generateArc(PolylinePipelineOptions options);
+
+    /**
+     * Subdivides polyline and raises all points to the specified height. The packed
+     * result of {@link #generateArc(PolylinePipelineOptions)} is copied into a
+     * buffer, so no Cartesian3 objects are created for the output.
+     *
+     * @param options {@link PolylinePipelineOptions}
+     * @param result  The buffer onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3Buffer instance if one was not provided.
+     */
+    @JsOverlay
+    public static Cartesian3Buffer generateArc(PolylinePipelineOptions options, Cartesian3Buffer result) {
+        return Cartesian3Buffer.unpackArray(generateArc(options), result);
+    }
 }
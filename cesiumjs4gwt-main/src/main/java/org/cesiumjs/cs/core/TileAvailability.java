@@ -24,6 +24,7 @@ import jsinterop.annotations.JsType;
  * Reports the availability of tiles in a TilingScheme.
  *
  * @author Serge Silaev aka iSergio
+ * @see org.cesiumjs.cs.core.math.TileAvailabilityd
  */
 @JsType(isNative = true, namespace = "Cesium", name = "TileAvailability")
 public class TileAvailability {
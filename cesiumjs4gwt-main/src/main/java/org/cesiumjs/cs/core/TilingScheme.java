@@ -24,6 +24,7 @@ import org.cesiumjs.cs.core.projection.MapProjection;
 
 /**
  * @author Serge Silaev aka iSergio
+ * @see org.cesiumjs.cs.core.math.TilingSchemed
  */
 @JsType(isNative = true, namespace = "Cesium", name = "TilingScheme")
 public class TilingScheme {
@@ -26,6 +26,8 @@ import org.cesiumjs.cs.promise.Promise;
  * Contains functions for transforming positions to various reference frames.
  *
  * @author Serge Silaev aka iSergio
+ * @see LocalFrameCache
+ * @see FixedFrameRotationTable
  */
 @JsType(isNative = true, namespace = "Cesium", name = "Transforms")
 public class Transforms {
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.core.math.CesiumMath;
+import org.cesiumjs.cs.core.math.Ellipsoidd;
+import org.cesiumjs.cs.core.math.PolygonTriangulator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of polygon triangulations. Editing tools rebuild a polygon on every mouse move and static
+ * layers rebuild theirs on every reload, while most of the rings are unchanged; this cache triangulates each ring
+ * set once with {@link PolygonTriangulator} and returns the same index buffer for every later request with the
+ * same vertices.
+ * <p>
+ * Entries are keyed by a hash of the vertex coordinates and verified against a copy of them, so a hit is always
+ * an exact match. The index buffers are shared and must not be modified; copy them first. The least recently used
+ * entries are evicted once the cache is full.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see PolygonTriangulator
+ */
+public final class TriangulationCache {
+    /**
+     * The default maximum number of entries.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 1024;
+
+    private final int maximumSize;
+    private final Ellipsoidd ellipsoid;
+    private final Map<Key, int[]> entries;
+    private final Key probe = new Key();
+    private int hits;
+    private int misses;
+
+    /**
+     * Creates a cache with the default size for polygons on the WGS84 ellipsoid.
+     */
+    public TriangulationCache() {
+        this(DEFAULT_MAXIMUM_SIZE, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Creates a cache.
+     *
+     * @param maximumSize The maximum number of entries.
+     * @param ellipsoid   The ellipsoid on which polygons of 3D positions are triangulated.
+     */
+    public TriangulationCache(int maximumSize, Ellipsoidd ellipsoid) {
+        if (maximumSize < 1) {
+            throw new DeveloperError("maximumSize must be greater than 0.");
+        }
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        this.maximumSize = maximumSize;
+        this.ellipsoid = ellipsoid;
+        entries = new LinkedHashMap<Key, int[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, int[]> eldest) {
+                return size() > TriangulationCache.this.maximumSize;
+            }
+        };
+    }
+
+    /**
+     * Gets the shared triangulation of a polygon in the plane.
+     *
+     * @param coordinates The packed x and y coordinates of the vertices of the outer ring followed by the holes.
+     * @param holeIndices The index of the first vertex of each hole, or null for none.
+     * @return The shared indices of the vertices of the triangles, three per triangle.
+     * @see PolygonTriangulator#triangulate(double[], int[])
+     */
+    public int[] triangulate2D(double[] coordinates, int[] holeIndices) {
+        return triangulate(false, coordinates, holeIndices);
+    }
+
+    /**
+     * Gets the shared triangulation of a polygon on the ellipsoid of the cache.
+     *
+     * @param positions   The packed x, y and z coordinates of the vertices of the outer ring followed by the holes.
+     * @param holeIndices The index of the first vertex of each hole, or null for none.
+     * @return The shared indices of the vertices of the triangles, three per triangle.
+     * @see PolygonTriangulator#triangulate(double[], int[], Ellipsoidd)
+     */
+    public int[] triangulate(double[] positions, int[] holeIndices) {
+        return triangulate(true, positions, holeIndices);
+    }
+
+    /**
+     * Triangulates a polygon hierarchy on the ellipsoid of the cache the way {@code PolygonGeometry} does. Duplicate
+     * positions are removed from each ring, all rings are projected onto the plane tangent to the ellipsoid at the
+     * center of the outer ring, clockwise rings are reversed, each outer ring is triangulated with its holes, and
+     * the holes of the holes are triangulated as further outer rings. The triangulation of each ring set comes from
+     * the cache.
+     *
+     * @param hierarchy The polygon hierarchy.
+     * @return The indices of the triangles into the positions returned by {@link #packHierarchy(PolygonHierarchy)}.
+     */
+    public int[] triangulate(PolygonHierarchy hierarchy) {
+        List<double[]> polygons = new ArrayList<>();
+        List<double[]> polygons2D = new ArrayList<>();
+        List<int[]> holes = new ArrayList<>();
+        collectPolygons(hierarchy, polygons, polygons2D, holes);
+        int[][] parts = new int[polygons.size()][];
+        int length = 0;
+        for (int i = 0; i < parts.length; i++) {
+            parts[i] = triangulate(false, polygons2D.get(i), holes.get(i));
+            length += parts[i].length;
+        }
+        int[] result = new int[length];
+        int index = 0;
+        int base = 0;
+        for (int i = 0; i < parts.length; i++) {
+            int[] part = parts[i];
+            for (int j = 0; j < part.length; j++) {
+                result[index++] = base + part[j];
+            }
+            base += polygons.get(i).length / 3;
+        }
+        return result;
+    }
+
+    /**
+     * Packs the positions of a polygon hierarchy in the order in which {@link #triangulate(PolygonHierarchy)}
+     * indexes them: each outer ring followed by its holes, and then the polygons nested in the holes, without
+     * duplicate positions and with clockwise rings reversed.
+     *
+     * @param hierarchy The polygon hierarchy.
+     * @return The packed x, y and z coordinates.
+     */
+    public double[] packHierarchy(PolygonHierarchy hierarchy) {
+        List<double[]> polygons = new ArrayList<>();
+        collectPolygons(hierarchy, polygons, new ArrayList<double[]>(), new ArrayList<int[]>());
+        int length = 0;
+        for (double[] polygon : polygons) {
+            length += polygon.length;
+        }
+        double[] result = new double[length];
+        int index = 0;
+        for (double[] polygon : polygons) {
+            System.arraycopy(polygon, 0, result, index, polygon.length);
+            index += polygon.length;
+        }
+        return result;
+    }
+
+    /**
+     * Gets the maximum number of entries.
+     *
+     * @return The maximum number of entries.
+     */
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * Gets the number of requests answered from the cache.
+     *
+     * @return The number of hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of requests which triangulated a polygon.
+     *
+     * @return The number of misses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return The number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all entries and resets the statistics.
+     */
+    public void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    private int[] triangulate(boolean ellipsoidal, double[] coordinates, int[] holeIndices) {
+        probe.set(ellipsoidal, coordinates, holeIndices);
+        int[] result = entries.get(probe);
+        if (result != null) {
+            hits++;
+            return result;
+        }
+        misses++;
+        result = ellipsoidal ? PolygonTriangulator.triangulate(coordinates, holeIndices, ellipsoid)
+                : PolygonTriangulator.triangulate(coordinates, holeIndices);
+        // The caller may reuse its arrays, so the stored key owns copies
+        Key key = new Key();
+        key.ellipsoidal = ellipsoidal;
+        key.coordinates = Arrays.copyOf(coordinates, coordinates.length);
+        key.holeIndices = holeIndices == null ? null : Arrays.copyOf(holeIndices, holeIndices.length);
+        key.hash = probe.hash;
+        entries.put(key, result);
+        return result;
+    }
+
+    /**
+     * Splits a hierarchy into ring sets like {@code PolygonGeometryLibrary.polygonsFromHierarchy}.
+     */
+    private void collectPolygons(PolygonHierarchy hierarchy, List<double[]> polygons, List<double[]> polygons2D,
+                                 List<int[]> holes) {
+        if (hierarchy.positions == null || hierarchy.positions.length == 0) {
+            return;
+        }
+        double[] plane = pack(hierarchy.positions);
+        List<PolygonHierarchy> queue = new ArrayList<>();
+        queue.add(hierarchy);
+        for (int q = 0; q < queue.size(); q++) {
+            PolygonHierarchy outer = queue.get(q);
+            double[] outerRing = removeDuplicates(outer.positions);
+            if (outerRing.length < 9) {
+                continue;
+            }
+            List<double[]> rings = new ArrayList<>();
+            List<double[]> rings2D = new ArrayList<>();
+            addRing(plane, outerRing, rings, rings2D);
+            List<Integer> holeIndices = new ArrayList<>();
+            int vertex = outerRing.length / 3;
+            if (outer.holes != null) {
+                for (PolygonHierarchy hole : outer.holes) {
+                    double[] ring = removeDuplicates(hole.positions);
+                    if (ring.length < 9) {
+                        continue;
+                    }
+                    addRing(plane, ring, rings, rings2D);
+                    holeIndices.add(vertex);
+                    vertex += ring.length / 3;
+                    if (hole.holes != null) {
+                        queue.addAll(Arrays.asList(hole.holes));
+                    }
+                }
+            }
+            int[] indices = null;
+            if (!holeIndices.isEmpty()) {
+                indices = new int[holeIndices.size()];
+                for (int i = 0; i < indices.length; i++) {
+                    indices[i] = holeIndices.get(i);
+                }
+            }
+            polygons.add(concat(rings));
+            polygons2D.add(concat(rings2D));
+            holes.add(indices);
+        }
+    }
+
+    /**
+     * Projects a ring onto the plane and adds it, reversed if it is clockwise in the plane.
+     */
+    private void addRing(double[] plane, double[] ring, List<double[]> rings, List<double[]> rings2D) {
+        double[] ring2D = PolygonTriangulator.projectToTangentPlane(plane, ring, ellipsoid, null);
+        double area = 0.0;
+        int count = ring2D.length / 2;
+        for (int i = 0; i < count; i++) {
+            int j = (i + 1) % count;
+            area += ring2D[2 * i] * ring2D[2 * j + 1] - ring2D[2 * j] * ring2D[2 * i + 1];
+        }
+        if (area <= 0.0) {
+            reverse(ring, 3);
+            reverse(ring2D, 2);
+        }
+        rings.add(ring);
+        rings2D.add(ring2D);
+    }
+
+    /**
+     * Packs positions without consecutive duplicates or a closing duplicate, like {@code arrayRemoveDuplicates}
+     * with {@code Cartesian3.equalsEpsilon}.
+     */
+    private static double[] removeDuplicates(Cartesian3[] positions) {
+        if (positions == null) {
+            return new double[0];
+        }
+        int length = positions.length;
+        double[] result = new double[3 * length];
+        if (length == 0) {
+            return result;
+        }
+        int count = 0;
+        Cartesian3 last = positions[0];
+        copy(last, result, count++);
+        for (int i = 1; i < length; i++) {
+            Cartesian3 position = positions[i];
+            if (!equalsEpsilon(last, position)) {
+                copy(position, result, count++);
+                last = position;
+            }
+        }
+        if (length > 1 && equalsEpsilon(positions[0], positions[length - 1])) {
+            count--;
+        }
+        return count == length ? result : Arrays.copyOf(result, 3 * count);
+    }
+
+    private static boolean equalsEpsilon(Cartesian3 left, Cartesian3 right) {
+        return CesiumMath.equalsEpsilon(left.x, right.x, CesiumMath.EPSILON10)
+                && CesiumMath.equalsEpsilon(left.y, right.y, CesiumMath.EPSILON10)
+                && CesiumMath.equalsEpsilon(left.z, right.z, CesiumMath.EPSILON10);
+    }
+
+    private static void copy(Cartesian3 position, double[] result, int vertex) {
+        result[3 * vertex] = position.x;
+        result[3 * vertex + 1] = position.y;
+        result[3 * vertex + 2] = position.z;
+    }
+
+    private static double[] pack(Cartesian3[] positions) {
+        double[] result = new double[3 * positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            copy(positions[i], result, i);
+        }
+        return result;
+    }
+
+    private static void reverse(double[] values, int stride) {
+        for (int i = 0, j = values.length - stride; i < j; i += stride, j -= stride) {
+            for (int k = 0; k < stride; k++) {
+                double value = values[i + k];
+                values[i + k] = values[j + k];
+                values[j + k] = value;
+            }
+        }
+    }
+
+    private static double[] concat(List<double[]> arrays) {
+        int length = 0;
+        for (double[] array : arrays) {
+            length += array.length;
+        }
+        double[] result = new double[length];
+        int index = 0;
+        for (double[] array : arrays) {
+            System.arraycopy(array, 0, result, index, array.length);
+            index += array.length;
+        }
+        return result;
+    }
+
+    private static final class Key {
+        boolean ellipsoidal;
+        double[] coordinates;
+        int[] holeIndices;
+        int hash;
+
+        void set(boolean ellipsoidal, double[] coordinates, int[] holeIndices) {
+            this.ellipsoidal = ellipsoidal;
+            this.coordinates = coordinates;
+            this.holeIndices = holeIndices;
+            int h = ellipsoidal ? 1 : 0;
+            for (double value : coordinates) {
+                // Millimeter buckets folded into an int; equality is still exact
+                h = 31 * h + (int) ((value * 1000.0) % 2147483647.0);
+            }
+            if (holeIndices != null) {
+                for (int index : holeIndices) {
+                    h = 31 * h + index;
+                }
+            }
+            hash = h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash && ellipsoidal == other.ellipsoidal
+                    && Arrays.equals(coordinates, other.coordinates) && Arrays.equals(holeIndices, other.holeIndices);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.cesiumjs.cs.core.geometry.options;
 
 import jsinterop.annotations.JsConstructor;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsPackage;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
@@ -24,6 +25,7 @@ import org.cesiumjs.cs.core.Cartesian3;
 import org.cesiumjs.cs.core.Ellipsoid;
 import org.cesiumjs.cs.core.Math;
 import org.cesiumjs.cs.core.enums.CornerType;
+import org.cesiumjs.cs.core.math.Cartesian3Buffer;
 
 /**
  * Options for {@link org.cesiumjs.cs.core.geometry.CorridorOutlineGeometry}.
@@ -74,4 +76,17 @@ public class CorridorOutlineGeometryOptions {
     @JsConstructor
     public CorridorOutlineGeometryOptions() {
     }
+
+    /**
+     * Sets {@link #positions} from a packed buffer. The Cartesian3 objects required by CesiumJS are created with a
+     * single call to {@link Cartesian3#unpackArray}.
+     *
+     * @param positions The packed positions.
+     * @return This options object.
+     */
+    @JsOverlay
+    public final CorridorOutlineGeometryOptions setPositions(Cartesian3Buffer positions) {
+        this.positions = positions.toCartesian3Array();
+        return this;
+    }
 }
@@ -17,11 +17,13 @@
 package org.cesiumjs.cs.core.geometry.options;
 
 import jsinterop.annotations.JsConstructor;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsPackage;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
 import org.cesiumjs.cs.core.Math;
 import org.cesiumjs.cs.core.*;
+import org.cesiumjs.cs.core.math.Cartesian3Buffer;
 
 /**
  * Options for {@link org.cesiumjs.cs.core.geometry.PolygonOutlineGeometry}.
@@ -81,4 +83,35 @@ public class PolygonOutlineGeometryOptions {
     @JsConstructor
     public PolygonOutlineGeometryOptions() {
     }
+
+    /**
+     * Sets {@link #positions} from a packed buffer. The Cartesian3 objects required by CesiumJS are created with a
+     * single call to {@link Cartesian3#unpackArray}.
+     *
+     * @param positions The packed positions.
+     * @return This options object.
+     */
+    @JsOverlay
+    public final PolygonOutlineGeometryOptions setPositions(Cartesian3Buffer positions) {
+        this.positions = positions.toCartesian3Array();
+        return this;
+    }
+
+    /**
+     * Sets {@link #polygonHierarchy} from packed buffers.
+     *
+     * @param positions The packed positions of the outer ring.
+     * @param holes     The packed positions of the holes, if any.
+     * @return This options object.
+     */
+    @JsOverlay
+    public final PolygonOutlineGeometryOptions setPolygonHierarchy(Cartesian3Buffer positions,
+                                                                   Cartesian3Buffer... holes) {
+        PolygonHierarchy[] hierarchyHoles = new PolygonHierarchy[holes.length];
+        for (int i = 0; i < holes.length; i++) {
+            hierarchyHoles[i] = new PolygonHierarchy(holes[i].toCartesian3Array());
+        }
+        this.polygonHierarchy = new PolygonHierarchy(positions.toCartesian3Array(), hierarchyHoles);
+        return this;
+    }
 }
@@ -17,12 +17,14 @@
 package org.cesiumjs.cs.core.geometry.options;
 
 import jsinterop.annotations.JsConstructor;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsPackage;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
 import org.cesiumjs.cs.core.Math;
 import org.cesiumjs.cs.core.*;
 import org.cesiumjs.cs.core.enums.ArcType;
+import org.cesiumjs.cs.core.math.Cartesian3Buffer;
 
 /**
  * Options for {@link org.cesiumjs.cs.core.geometry.PolylineGeometry}
@@ -89,4 +91,17 @@ public class PolylineGeometryOptions {
     @JsConstructor
     public PolylineGeometryOptions() {
     }
+
+    /**
+     * Sets {@link #positions} from a packed buffer. The Cartesian3 objects required by CesiumJS are created with a
+     * single call to {@link Cartesian3#unpackArray}.
+     *
+     * @param positions The packed positions.
+     * @return This options object.
+     */
+    @JsOverlay
+    public final PolylineGeometryOptions setPositions(Cartesian3Buffer positions) {
+        this.positions = positions.toCartesian3Array();
+        return this;
+    }
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.interpolation;
+
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * Interpolates many tracks which share their sample times at once, implemented in pure Java.
+ * {@link LagrangePolynomialApproximation#interpolateOrderZero} and {@link HermitePolynomialApproximation#interpolate}
+ * evaluate one track per call and allocate the result; this class computes the polynomial weights for the time
+ * once and applies them to every value of a columnar table in a single pass, writing into a caller-provided array.
+ * <p>
+ * The table holds one row per sample time. A row holds the values of all tracks at that time, for example
+ * {x1, y1, z1, x2, y2, z2, ...} for the positions of several tracks. For Hermite interpolation with first
+ * derivatives, each row continues with the derivatives in the same order. The samples used for the polynomial are
+ * chosen around the time like {@code SampledProperty} does.
+ * <p>
+ * The weights computed by {@link #computeWeights(double, double[], int)} stay valid until the next call, so they
+ * can be applied to several tables which share the same sample times, for example positions and orientations.
+ * An instance keeps scratch state and must not be shared between threads.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see LagrangePolynomialApproximation
+ * @see HermitePolynomialApproximation
+ */
+public final class MultiTrackInterpolator {
+    private final int degree;
+    private final int inputOrder;
+    private final int pointCount;
+    // Weights of the values of the samples of the current window
+    private final double[] valueWeights;
+    // Weights of the first derivatives of the samples of the current window, for Hermite interpolation
+    private final double[] derivativeWeights;
+    private int firstIndex = -1;
+    private int windowSize;
+
+    private MultiTrackInterpolator(int degree, int inputOrder, int pointCount) {
+        this.degree = degree;
+        this.inputOrder = inputOrder;
+        this.pointCount = pointCount;
+        valueWeights = new double[pointCount];
+        derivativeWeights = inputOrder > 0 ? new double[pointCount] : null;
+    }
+
+    /**
+     * Creates an interpolator using Lagrange Polynomial Approximation.
+     *
+     * @param degree The degree of the polynomial.
+     * @return The interpolator.
+     */
+    public static MultiTrackInterpolator lagrange(int degree) {
+        if (degree < 0) {
+            throw new DeveloperError("degree must be greater than or equal to 0.");
+        }
+        return new MultiTrackInterpolator(degree, 0, degree + 1);
+    }
+
+    /**
+     * Creates an interpolator using Hermite Polynomial Approximation.
+     *
+     * @param degree     The degree of the polynomial.
+     * @param inputOrder The number of derivatives supplied for input, 0 or 1.
+     * @return The interpolator.
+     */
+    public static MultiTrackInterpolator hermite(int degree, int inputOrder) {
+        if (degree < 0) {
+            throw new DeveloperError("degree must be greater than or equal to 0.");
+        }
+        if (inputOrder < 0 || inputOrder > 1) {
+            throw new DeveloperError("inputOrder must be 0 or 1.");
+        }
+        // Same as HermitePolynomialApproximation.getRequiredDataPoints
+        int pointCount = Math.max((degree + 1) / (inputOrder + 1), 2);
+        return new MultiTrackInterpolator(degree, inputOrder, pointCount);
+    }
+
+    /**
+     * Gets the degree of the polynomial.
+     *
+     * @return The degree.
+     */
+    public int getDegree() {
+        return degree;
+    }
+
+    /**
+     * Gets the number of derivatives supplied for input.
+     *
+     * @return The input order.
+     */
+    public int getInputOrder() {
+        return inputOrder;
+    }
+
+    /**
+     * Gets the number of samples used for each interpolation.
+     *
+     * @return The number of samples, fewer if a table has fewer samples.
+     */
+    public int getRequiredDataPoints() {
+        return pointCount;
+    }
+
+    /**
+     * Interpolates all values of a columnar table at a time.
+     *
+     * @param x           The independent variable for which the dependent variables will be interpolated.
+     * @param xTable      The sample times, in increasing order without duplicates.
+     * @param sampleCount The number of samples.
+     * @param yTable      The values, one row per sample.
+     * @param rowLength   The number of values of each sample, excluding derivatives.
+     * @param result      The array onto which to store the rowLength interpolated values.
+     * @param offset      The index of the first interpolated value in the result array.
+     * @return The result array.
+     */
+    public double[] interpolate(double x, double[] xTable, int sampleCount, double[] yTable, int rowLength,
+                                double[] result, int offset) {
+        computeWeights(x, xTable, sampleCount);
+        return apply(yTable, rowLength, 0, rowLength, result, offset);
+    }
+
+    /**
+     * Computes the weights of the samples around a time. Followed by one or more calls to
+     * {@link #apply(double[], int, int, int, double[], int)} for tables with the same sample times.
+     *
+     * @param x           The independent variable for which the dependent variables will be interpolated.
+     * @param xTable      The sample times, in increasing order without duplicates.
+     * @param sampleCount The number of samples.
+     */
+    public void computeWeights(double x, double[] xTable, int sampleCount) {
+        if (sampleCount < 1 || sampleCount > xTable.length) {
+            throw new DeveloperError("sampleCount must be between 1 and the length of xTable.");
+        }
+        int size = Math.min(pointCount, sampleCount);
+        int first = 0;
+        if (sampleCount > size) {
+            // Centered on the insertion index of x and clamped to the table, like SampledProperty
+            int index = insertionIndex(x, xTable, sampleCount);
+            first = Math.max(index - (size + 1) / 2, 0);
+            if (first + size > sampleCount) {
+                first = sampleCount - size;
+            }
+        }
+        firstIndex = first;
+        windowSize = size;
+
+        for (int j = 0; j < size; j++) {
+            double xj = xTable[first + j];
+            double basis = 1.0;
+            double slope = 0.0;
+            for (int m = 0; m < size; m++) {
+                if (m != j) {
+                    double xm = xTable[first + m];
+                    basis *= (x - xm) / (xj - xm);
+                    slope += 1.0 / (xj - xm);
+                }
+            }
+            if (inputOrder == 0) {
+                valueWeights[j] = basis;
+            } else {
+                // Osculating interpolation through the values and first derivatives
+                double squared = basis * basis;
+                valueWeights[j] = (1.0 - 2.0 * (x - xj) * slope) * squared;
+                derivativeWeights[j] = (x - xj) * squared;
+            }
+        }
+    }
+
+    /**
+     * Applies the weights of the last {@link #computeWeights(double, double[], int)} to a range of the columns of a
+     * table.
+     *
+     * @param yTable    The values, one row per sample.
+     * @param rowLength The number of values of each sample, excluding derivatives.
+     * @param column    The first column to interpolate.
+     * @param count     The number of columns to interpolate.
+     * @param result    The array onto which to store the count interpolated values.
+     * @param offset    The index of the first interpolated value in the result array.
+     * @return The result array.
+     */
+    public double[] apply(double[] yTable, int rowLength, int column, int count, double[] result, int offset) {
+        if (firstIndex < 0) {
+            throw new DeveloperError("computeWeights must be called first.");
+        }
+        if (column < 0 || count < 0 || column + count > rowLength) {
+            throw new DeveloperError("columns are out of the row.");
+        }
+        int rowStride = rowLength * (inputOrder + 1);
+        if ((firstIndex + windowSize) * rowStride > yTable.length) {
+            throw new DeveloperError("yTable is too small for the samples.");
+        }
+        if (offset < 0 || offset + count > result.length) {
+            throw new DeveloperError("result is too small.");
+        }
+
+        // Row by row so that the table is read sequentially
+        int row = firstIndex * rowStride + column;
+        double weight = valueWeights[0];
+        for (int i = 0; i < count; i++) {
+            result[offset + i] = weight * yTable[row + i];
+        }
+        for (int j = 1; j < windowSize; j++) {
+            row += rowStride;
+            weight = valueWeights[j];
+            for (int i = 0; i < count; i++) {
+                result[offset + i] += weight * yTable[row + i];
+            }
+        }
+        if (inputOrder > 0) {
+            row = firstIndex * rowStride + rowLength + column;
+            for (int j = 0; j < windowSize; j++) {
+                weight = derivativeWeights[j];
+                for (int i = 0; i < count; i++) {
+                    result[offset + i] += weight * yTable[row + i];
+                }
+                row += rowStride;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the index of the first sample time greater than x, or of the sample time equal to x.
+     */
+    private static int insertionIndex(double x, double[] xTable, int sampleCount) {
+        int low = 0;
+        int high = sampleCount - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            double value = xTable[middle];
+            if (value < x) {
+                low = middle + 1;
+            } else if (value > x) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return low;
+    }
+}
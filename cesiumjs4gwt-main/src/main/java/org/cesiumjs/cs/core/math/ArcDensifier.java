@@ -0,0 +1,372 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.PolylinePipeline;
+
+/**
+ * Subdivides polylines along geodesics of the ellipsoid, implemented in pure Java. Unlike
+ * {@link PolylinePipeline#generateCartesianArc}, which places points at a fixed angular granularity, the densifier
+ * splits each segment only while the chord between two output points deviates from the arc, heights included, by
+ * more than a tolerance. The tolerance is either a chord height in meters or a number of pixels at a given pixel
+ * size, so a continental flight path viewed from orbit needs a few points per segment instead of one per degree.
+ * <p>
+ * Points are appended to a {@link Cartesian3Buffer} as they are produced, so paths can be streamed segment by
+ * segment with {@link #appendSegment} without intermediate arrays. A densifier may be reused for many paths but is
+ * not thread-safe.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see PolylinePipeline
+ * @see Geodesicd
+ */
+public final class ArcDensifier {
+    /**
+     * The default chord tolerance, in meters. About the largest deviation of the chords produced by
+     * {@link PolylinePipeline#generateCartesianArc} with its default granularity of one degree.
+     */
+    public static final double DEFAULT_CHORD_TOLERANCE = 250.0;
+    /**
+     * The default maximum number of times a segment is split recursively.
+     */
+    public static final int DEFAULT_MAXIMUM_DEPTH = 8;
+
+    private static final double MAXIMUM_PIECES = 4096;
+    private static final double CHORD_MARGIN = 0.9;
+
+    private final Ellipsoidd ellipsoid;
+    private final Geodesicd geodesic;
+    private final Geodesicd.Workspace workspace = new Geodesicd.Workspace();
+    private final Geodesicd.Line line = new Geodesicd.Line();
+    private final double[] scratch = new double[2];
+    private final Cartesian3d scratchCartesian = new Cartesian3d();
+
+    private double chordTolerance = DEFAULT_CHORD_TOLERANCE;
+    private double maximumSegmentLength = Double.POSITIVE_INFINITY;
+    private int maximumDepth = DEFAULT_MAXIMUM_DEPTH;
+
+    /**
+     * Creates a densifier for the WGS84 ellipsoid.
+     */
+    public ArcDensifier() {
+        this(Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Creates a densifier for an ellipsoid.
+     *
+     * @param ellipsoid The ellipsoid on which the positions lie.
+     */
+    public ArcDensifier(Ellipsoidd ellipsoid) {
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        this.ellipsoid = ellipsoid;
+        geodesic = ellipsoid == Ellipsoidd.WGS84 ? Geodesicd.WGS84 : new Geodesicd(ellipsoid);
+    }
+
+    /**
+     * Computes the size of a pixel at a distance from the camera of a perspective frustum. The same value is returned
+     * by {@link org.cesiumjs.cs.scene.Camera#getPixelSize} for a bounding sphere at that distance.
+     *
+     * @param distance            The distance from the camera, in meters.
+     * @param fovy                The vertical field of view of the frustum, in radians.
+     * @param drawingBufferHeight The drawing buffer height, in pixels.
+     * @return The pixel size, in meters.
+     */
+    public static double computePixelSize(double distance, double fovy, double drawingBufferHeight) {
+        return 2.0 * distance * Math.tan(0.5 * fovy) / drawingBufferHeight;
+    }
+
+    /**
+     * Gets the ellipsoid.
+     *
+     * @return The ellipsoid.
+     */
+    public Ellipsoidd getEllipsoid() {
+        return ellipsoid;
+    }
+
+    /**
+     * Gets the largest allowed distance between a chord and the arc it replaces.
+     *
+     * @return The chord tolerance, in meters.
+     */
+    public double getChordTolerance() {
+        return chordTolerance;
+    }
+
+    /**
+     * Sets the largest allowed distance between a chord and the arc it replaces.
+     *
+     * @param chordTolerance The chord tolerance, in meters.
+     * @return This densifier.
+     */
+    public ArcDensifier setChordTolerance(double chordTolerance) {
+        if (!(chordTolerance > 0.0)) {
+            throw new DeveloperError("chordTolerance must be greater than 0.");
+        }
+        this.chordTolerance = chordTolerance;
+        return this;
+    }
+
+    /**
+     * Sets the chord tolerance from a screen-space error.
+     *
+     * @param pixels    The largest allowed deviation, in pixels.
+     * @param pixelSize The size of a pixel, in meters, for example from
+     *                  {@link org.cesiumjs.cs.scene.Camera#getPixelSize} or {@link #computePixelSize}.
+     * @return This densifier.
+     */
+    public ArcDensifier setScreenSpaceTolerance(double pixels, double pixelSize) {
+        return setChordTolerance(pixels * pixelSize);
+    }
+
+    /**
+     * Gets the largest allowed chord length. Chords are also split when they are longer, for example to follow
+     * terrain when the polyline is clamped.
+     *
+     * @return The maximum segment length, in meters.
+     */
+    public double getMaximumSegmentLength() {
+        return maximumSegmentLength;
+    }
+
+    /**
+     * Sets the largest allowed chord length.
+     *
+     * @param maximumSegmentLength The maximum segment length, in meters. Default: unlimited
+     * @return This densifier.
+     */
+    public ArcDensifier setMaximumSegmentLength(double maximumSegmentLength) {
+        if (!(maximumSegmentLength > 0.0)) {
+            throw new DeveloperError("maximumSegmentLength must be greater than 0.");
+        }
+        this.maximumSegmentLength = maximumSegmentLength;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of times a segment is split recursively. Each split divides a chord into as many
+     * pieces as its deviation from the arc requires, so few levels are needed.
+     *
+     * @return The maximum depth.
+     */
+    public int getMaximumDepth() {
+        return maximumDepth;
+    }
+
+    /**
+     * Sets the maximum number of times a segment is split recursively.
+     *
+     * @param maximumDepth The maximum depth, between 0 and 30. Default: {@link #DEFAULT_MAXIMUM_DEPTH}
+     * @return This densifier.
+     */
+    public ArcDensifier setMaximumDepth(int maximumDepth) {
+        if (maximumDepth < 0 || maximumDepth > 30) {
+            throw new DeveloperError("maximumDepth must be between 0 and 30.");
+        }
+        this.maximumDepth = maximumDepth;
+        return this;
+    }
+
+    /**
+     * Subdivides a polyline and raises all points to the specified heights, like
+     * {@link PolylinePipeline#generateArc}. The heights of the input positions are ignored.
+     *
+     * @param positions The positions of the polyline.
+     * @param heights   The height of each position, a single height for all positions, or null for 0.0.
+     * @param result    The buffer onto which to append the result.
+     * @return The modified result parameter or a new Cartesian3Buffer instance if one was not provided.
+     */
+    public Cartesian3Buffer densify(Cartesian3Buffer positions, double[] heights, Cartesian3Buffer result) {
+        int count = positions.size();
+        if (heights != null && heights.length != 1 && heights.length != count) {
+            throw new DeveloperError("heights must have one element or one element per position.");
+        }
+        if (result == null) {
+            result = new Cartesian3Buffer(count);
+        }
+        Cartographicd previous = new Cartographicd();
+        Cartographicd current = new Cartographicd();
+        for (int i = 0; i < count; i++) {
+            if (ellipsoid.cartesianToCartographic(positions.getX(i), positions.getY(i), positions.getZ(i),
+                    current) == null) {
+                // The center of the ellipsoid has no cartographic position, skip it like CesiumJS does.
+                continue;
+            }
+            current.height = heights == null ? 0.0 : heights[heights.length == 1 ? 0 : i];
+            if (i == 0 || result.isEmpty()) {
+                appendPoint(current.longitude, current.latitude, current.height, result);
+            } else {
+                appendSegment(previous.longitude, previous.latitude, previous.height, current.longitude,
+                        current.latitude, current.height, result);
+            }
+            Cartographicd t = previous;
+            previous = current;
+            current = t;
+        }
+        return result;
+    }
+
+    /**
+     * Subdivides a polyline given by packed longitude, latitude and height values.
+     *
+     * @param positions The packed longitude and latitude, in radians, and height, in meters, of the points.
+     * @param offset    The index of the first point in the array.
+     * @param stride    The number of elements per point, at least 3.
+     * @param count     The number of points.
+     * @param result    The buffer onto which to append the result.
+     * @return The modified result parameter or a new Cartesian3Buffer instance if one was not provided.
+     */
+    public Cartesian3Buffer densifyRadiansArrayHeights(double[] positions, int offset, int stride, int count,
+                                                       Cartesian3Buffer result) {
+        if (stride < 3) {
+            throw new DeveloperError("stride must be at least 3.");
+        }
+        Geodesicd.checkRange(positions.length, offset, stride, 3, count);
+        if (result == null) {
+            result = new Cartesian3Buffer(count);
+        }
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * stride;
+            if (i == 0) {
+                appendPoint(positions[index], positions[index + 1], positions[index + 2], result);
+            } else {
+                appendSegment(positions[index - stride], positions[index - stride + 1], positions[index - stride + 2],
+                        positions[index], positions[index + 1], positions[index + 2], result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Appends the position of a point, typically the first point of a path.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param height    The height, in meters.
+     * @param result    The buffer onto which to append the point.
+     */
+    public void appendPoint(double longitude, double latitude, double height, Cartesian3Buffer result) {
+        Cartesian3d p = ellipsoid.cartographicToCartesian(longitude, latitude, height, scratchCartesian);
+        result.add(p.x, p.y, p.z);
+    }
+
+    /**
+     * Appends the subdivided segment between two points, excluding the start point, which is expected to be the
+     * last point of the buffer already. Heights are interpolated linearly along the segment.
+     *
+     * @param startLongitude The longitude of the start point, in radians.
+     * @param startLatitude  The latitude of the start point, in radians.
+     * @param startHeight    The height of the start point, in meters.
+     * @param endLongitude   The longitude of the end point, in radians.
+     * @param endLatitude    The latitude of the end point, in radians.
+     * @param endHeight      The height of the end point, in meters.
+     * @param result         The buffer onto which to append the points.
+     * @return The number of points appended, at least 1.
+     */
+    public int appendSegment(double startLongitude, double startLatitude, double startHeight, double endLongitude,
+                             double endLatitude, double endHeight, Cartesian3Buffer result) {
+        double startLatitudeDegrees = Math.toDegrees(startLatitude);
+        double startLongitudeDegrees = Math.toDegrees(startLongitude);
+        geodesic.inverse(workspace, startLatitudeDegrees, startLongitudeDegrees, Math.toDegrees(endLatitude),
+                Math.toDegrees(endLongitude));
+        double distance = workspace.s12;
+        geodesic.initializeLine(line, workspace, startLatitudeDegrees, startLongitudeDegrees, workspace.azi1);
+
+        Cartesian3d start = ellipsoid.cartographicToCartesian(startLongitude, startLatitude, startHeight,
+                scratchCartesian);
+        double x0 = start.x;
+        double y0 = start.y;
+        double z0 = start.z;
+        Cartesian3d end = ellipsoid.cartographicToCartesian(endLongitude, endLatitude, endHeight, scratchCartesian);
+        double x1 = end.x;
+        double y1 = end.y;
+        double z1 = end.z;
+
+        int before = result.size();
+        subdivide(distance, startHeight, endHeight, 0.0, 1.0, x0, y0, z0, x1, y1, z1, 0, result);
+        result.add(x1, y1, z1);
+        return result.size() - before;
+    }
+
+    private void subdivide(double distance, double startHeight, double endHeight, double t0, double t1, double x0,
+                           double y0, double z0, double x1, double y1, double z1, int depth, Cartesian3Buffer result) {
+        if (depth >= maximumDepth) {
+            return;
+        }
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double dz = z1 - z0;
+        double chordSquared = dx * dx + dy * dy + dz * dz;
+
+        evaluate(distance, startHeight, endHeight, 0.5 * (t0 + t1));
+        double mx = scratchCartesian.x - x0;
+        double my = scratchCartesian.y - y0;
+        double mz = scratchCartesian.z - z0;
+        // Distance of the arc midpoint from the chord
+        double cx = my * dz - mz * dy;
+        double cy = mz * dx - mx * dz;
+        double cz = mx * dy - my * dx;
+        double deviation = Math.sqrt(chordSquared > 0.0
+                ? (cx * cx + cy * cy + cz * cz) / chordSquared
+                : mx * mx + my * my + mz * mz);
+        double chord = Math.sqrt(chordSquared);
+        if (deviation <= chordTolerance && chord <= maximumSegmentLength) {
+            return;
+        }
+
+        // Fit a circle through the chord and the arc midpoint and split into as many equal pieces as that circle
+        // needs at once instead of bisecting. Each piece is verified, the margin avoids most second splits where
+        // the curvature of the ellipsoid varies.
+        double pieces = Math.ceil(chord / maximumSegmentLength);
+        if (deviation > chordTolerance && chord > 0.0) {
+            double radius = (0.25 * chordSquared + deviation * deviation) / (2.0 * deviation);
+            double angle = 2.0 * Math.atan2(0.5 * chord, radius - deviation);
+            double ratio = CHORD_MARGIN * chordTolerance / radius;
+            if (ratio < 1.0) {
+                pieces = Math.max(pieces, Math.ceil(angle / (2.0 * Math.acos(1.0 - ratio))));
+            }
+        }
+        pieces = Math.max(2.0, pieces);
+        int count = (int) Math.min(pieces, MAXIMUM_PIECES);
+        double step = (t1 - t0) / count;
+        double px = x0;
+        double py = y0;
+        double pz = z0;
+        for (int i = 1; i < count; i++) {
+            double t = t0 + i * step;
+            evaluate(distance, startHeight, endHeight, t);
+            double x = scratchCartesian.x;
+            double y = scratchCartesian.y;
+            double z = scratchCartesian.z;
+            subdivide(distance, startHeight, endHeight, t - step, t, px, py, pz, x, y, z, depth + 1, result);
+            result.add(x, y, z);
+            px = x;
+            py = y;
+            pz = z;
+        }
+        subdivide(distance, startHeight, endHeight, t1 - step, t1, px, py, pz, x1, y1, z1, depth + 1, result);
+    }
+
+    private void evaluate(double distance, double startHeight, double endHeight, double t) {
+        geodesic.position(line, workspace, distance * t, scratch, 0);
+        ellipsoid.cartographicToCartesian(scratch[0], scratch[1], startHeight + (endHeight - startHeight) * t,
+                scratchCartesian);
+    }
+}
@@ -0,0 +1,524 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import org.cesiumjs.cs.core.BoundingSphere;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * A bounding sphere with a center and a radius, implemented in pure Java. Builds spheres from packed x, y, z
+ * coordinates with the same algorithm as {@link BoundingSphere#fromPoints}, and packs them in the same layout as
+ * {@link BoundingSphere#pack}, so bounds can be computed ahead of time and unpacked by the client.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see BoundingSphere
+ * @see OrientedBoundingBoxd
+ */
+public final class BoundingSphered {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 4;
+
+    /**
+     * The center point of the sphere.
+     */
+    public final Cartesian3d center = new Cartesian3d();
+    /**
+     * The radius of the sphere.
+     */
+    public double radius;
+
+    /**
+     * A bounding sphere with a center of (0.0, 0.0, 0.0) and a radius of 0.0.
+     */
+    public BoundingSphered() {
+    }
+
+    /**
+     * A bounding sphere with a center and a radius.
+     *
+     * @param center The center of the bounding sphere.
+     * @param radius The radius of the bounding sphere.
+     */
+    public BoundingSphered(Cartesian3d center, double radius) {
+        Cartesian3d.clone(center, this.center);
+        this.radius = radius;
+    }
+
+    /**
+     * Computes a tight-fitting bounding sphere enclosing a list of 3D Cartesian points. The bounding sphere is
+     * computed by running two algorithms, a naive algorithm and Ritter's algorithm. The smaller of the two spheres
+     * is used to ensure a tight fit.
+     *
+     * @param positions The packed x, y, z components of the points.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if one was not provided.
+     */
+    public static BoundingSphered fromPoints(double[] positions, BoundingSphered result) {
+        if (positions.length % 3 != 0) {
+            throw new DeveloperError("positions length must be a multiple of 3.");
+        }
+        return fromPoints(positions, 0, 3, positions.length / 3, result);
+    }
+
+    /**
+     * Computes a tight-fitting bounding sphere enclosing points of a strided packed array.
+     *
+     * @param positions The packed points.
+     * @param offset    The index of the x component of the first point.
+     * @param stride    The number of elements between the x components of consecutive points, at least 3.
+     * @param count     The number of points.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if one was not provided.
+     * @see #fromPoints(double[], BoundingSphered)
+     */
+    public static BoundingSphered fromPoints(double[] positions, int offset, int stride, int count,
+                                             BoundingSphered result) {
+        checkStridedRange(positions.length, offset, stride, count);
+        if (result == null) {
+            result = new BoundingSphered();
+        }
+        if (count == 0) {
+            result.center.x = 0.0;
+            result.center.y = 0.0;
+            result.center.z = 0.0;
+            result.radius = 0.0;
+            return result;
+        }
+
+        // Find the points with the minimum and maximum x, y and z components.
+        int xMin = offset;
+        int yMin = offset;
+        int zMin = offset;
+        int xMax = offset;
+        int yMax = offset;
+        int zMax = offset;
+        int end = offset + count * stride;
+        for (int i = offset + stride; i < end; i += stride) {
+            double x = positions[i];
+            double y = positions[i + 1];
+            double z = positions[i + 2];
+            if (x < positions[xMin]) {
+                xMin = i;
+            }
+            if (x > positions[xMax]) {
+                xMax = i;
+            }
+            if (y < positions[yMin + 1]) {
+                yMin = i;
+            }
+            if (y > positions[yMax + 1]) {
+                yMax = i;
+            }
+            if (z < positions[zMin + 2]) {
+                zMin = i;
+            }
+            if (z > positions[zMax + 2]) {
+                zMax = i;
+            }
+        }
+
+        // Compute the squared distances between the pairs of points.
+        double xSpan = distanceSquared(positions, xMax, xMin);
+        double ySpan = distanceSquared(positions, yMax, yMin);
+        double zSpan = distanceSquared(positions, zMax, zMin);
+
+        // Set the diameter endpoints to the largest span.
+        int diameter1 = xMin;
+        int diameter2 = xMax;
+        double maxSpan = xSpan;
+        if (ySpan > maxSpan) {
+            maxSpan = ySpan;
+            diameter1 = yMin;
+            diameter2 = yMax;
+        }
+        if (zSpan > maxSpan) {
+            diameter1 = zMin;
+            diameter2 = zMax;
+        }
+
+        // Calculate the center of the initial sphere found by Ritter's algorithm.
+        double ritterX = (positions[diameter1] + positions[diameter2]) * 0.5;
+        double ritterY = (positions[diameter1 + 1] + positions[diameter2 + 1]) * 0.5;
+        double ritterZ = (positions[diameter1 + 2] + positions[diameter2 + 2]) * 0.5;
+
+        // Calculate the radius of the initial sphere found by Ritter's algorithm.
+        double radiusSquared = Cartesian3d.distanceSquared(positions[diameter2], positions[diameter2 + 1],
+                positions[diameter2 + 2], ritterX, ritterY, ritterZ);
+        double ritterRadius = java.lang.Math.sqrt(radiusSquared);
+
+        // Find the center of the sphere found using the Naive method.
+        double naiveX = (positions[xMin] + positions[xMax]) * 0.5;
+        double naiveY = (positions[yMin + 1] + positions[yMax + 1]) * 0.5;
+        double naiveZ = (positions[zMin + 2] + positions[zMax + 2]) * 0.5;
+
+        // Begin 2nd pass to find naive radius and modify the ritter sphere.
+        double naiveRadius = 0.0;
+        for (int i = offset; i < end; i += stride) {
+            double x = positions[i];
+            double y = positions[i + 1];
+            double z = positions[i + 2];
+
+            // Find the furthest point from the naive center to calculate the naive radius.
+            double r = Cartesian3d.distance(x, y, z, naiveX, naiveY, naiveZ);
+            if (r > naiveRadius) {
+                naiveRadius = r;
+            }
+
+            // Make adjustments to the Ritter Sphere to include all points.
+            double oldCenterToPointSquared = Cartesian3d.distanceSquared(x, y, z, ritterX, ritterY, ritterZ);
+            if (oldCenterToPointSquared > radiusSquared) {
+                double oldCenterToPoint = java.lang.Math.sqrt(oldCenterToPointSquared);
+                // Calculate new radius to include the point that lies outside.
+                ritterRadius = (ritterRadius + oldCenterToPoint) * 0.5;
+                radiusSquared = ritterRadius * ritterRadius;
+                // Calculate center of new Ritter sphere.
+                double oldToNew = oldCenterToPoint - ritterRadius;
+                ritterX = (ritterRadius * ritterX + oldToNew * x) / oldCenterToPoint;
+                ritterY = (ritterRadius * ritterY + oldToNew * y) / oldCenterToPoint;
+                ritterZ = (ritterRadius * ritterZ + oldToNew * z) / oldCenterToPoint;
+            }
+        }
+
+        if (ritterRadius < naiveRadius) {
+            Cartesian3d.fromElements(ritterX, ritterY, ritterZ, result.center);
+            result.radius = ritterRadius;
+        } else {
+            Cartesian3d.fromElements(naiveX, naiveY, naiveZ, result.center);
+            result.radius = naiveRadius;
+        }
+        return result;
+    }
+
+    /**
+     * Computes a tight-fitting bounding sphere enclosing points of a strided packed typed array.
+     *
+     * @param positions The packed points.
+     * @param offset    The index of the x component of the first point.
+     * @param stride    The number of elements between the x components of consecutive points, at least 3.
+     * @param count     The number of points.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if one was not provided.
+     * @see #fromPoints(double[], BoundingSphered)
+     */
+    public static BoundingSphered fromPoints(Float64Array positions, int offset, int stride, int count,
+                                             BoundingSphered result) {
+        checkStridedRange(positions.length(), offset, stride, count);
+        if (result == null) {
+            result = new BoundingSphered();
+        }
+        if (count == 0) {
+            result.center.x = 0.0;
+            result.center.y = 0.0;
+            result.center.z = 0.0;
+            result.radius = 0.0;
+            return result;
+        }
+
+        int xMin = offset;
+        int yMin = offset;
+        int zMin = offset;
+        int xMax = offset;
+        int yMax = offset;
+        int zMax = offset;
+        double xMinValue = positions.get(offset);
+        double yMinValue = positions.get(offset + 1);
+        double zMinValue = positions.get(offset + 2);
+        double xMaxValue = xMinValue;
+        double yMaxValue = yMinValue;
+        double zMaxValue = zMinValue;
+        int end = offset + count * stride;
+        for (int i = offset + stride; i < end; i += stride) {
+            double x = positions.get(i);
+            double y = positions.get(i + 1);
+            double z = positions.get(i + 2);
+            if (x < xMinValue) {
+                xMin = i;
+                xMinValue = x;
+            }
+            if (x > xMaxValue) {
+                xMax = i;
+                xMaxValue = x;
+            }
+            if (y < yMinValue) {
+                yMin = i;
+                yMinValue = y;
+            }
+            if (y > yMaxValue) {
+                yMax = i;
+                yMaxValue = y;
+            }
+            if (z < zMinValue) {
+                zMin = i;
+                zMinValue = z;
+            }
+            if (z > zMaxValue) {
+                zMax = i;
+                zMaxValue = z;
+            }
+        }
+
+        double xSpan = distanceSquared(positions, xMax, xMin);
+        double ySpan = distanceSquared(positions, yMax, yMin);
+        double zSpan = distanceSquared(positions, zMax, zMin);
+
+        int diameter1 = xMin;
+        int diameter2 = xMax;
+        double maxSpan = xSpan;
+        if (ySpan > maxSpan) {
+            maxSpan = ySpan;
+            diameter1 = yMin;
+            diameter2 = yMax;
+        }
+        if (zSpan > maxSpan) {
+            diameter1 = zMin;
+            diameter2 = zMax;
+        }
+
+        double ritterX = (positions.get(diameter1) + positions.get(diameter2)) * 0.5;
+        double ritterY = (positions.get(diameter1 + 1) + positions.get(diameter2 + 1)) * 0.5;
+        double ritterZ = (positions.get(diameter1 + 2) + positions.get(diameter2 + 2)) * 0.5;
+
+        double radiusSquared = Cartesian3d.distanceSquared(positions.get(diameter2), positions.get(diameter2 + 1),
+                positions.get(diameter2 + 2), ritterX, ritterY, ritterZ);
+        double ritterRadius = java.lang.Math.sqrt(radiusSquared);
+
+        double naiveX = (xMinValue + xMaxValue) * 0.5;
+        double naiveY = (yMinValue + yMaxValue) * 0.5;
+        double naiveZ = (zMinValue + zMaxValue) * 0.5;
+
+        double naiveRadius = 0.0;
+        for (int i = offset; i < end; i += stride) {
+            double x = positions.get(i);
+            double y = positions.get(i + 1);
+            double z = positions.get(i + 2);
+
+            double r = Cartesian3d.distance(x, y, z, naiveX, naiveY, naiveZ);
+            if (r > naiveRadius) {
+                naiveRadius = r;
+            }
+
+            double oldCenterToPointSquared = Cartesian3d.distanceSquared(x, y, z, ritterX, ritterY, ritterZ);
+            if (oldCenterToPointSquared > radiusSquared) {
+                double oldCenterToPoint = java.lang.Math.sqrt(oldCenterToPointSquared);
+                ritterRadius = (ritterRadius + oldCenterToPoint) * 0.5;
+                radiusSquared = ritterRadius * ritterRadius;
+                double oldToNew = oldCenterToPoint - ritterRadius;
+                ritterX = (ritterRadius * ritterX + oldToNew * x) / oldCenterToPoint;
+                ritterY = (ritterRadius * ritterY + oldToNew * y) / oldCenterToPoint;
+                ritterZ = (ritterRadius * ritterZ + oldToNew * z) / oldCenterToPoint;
+            }
+        }
+
+        if (ritterRadius < naiveRadius) {
+            Cartesian3d.fromElements(ritterX, ritterY, ritterZ, result.center);
+            result.radius = ritterRadius;
+        } else {
+            Cartesian3d.fromElements(naiveX, naiveY, naiveZ, result.center);
+            result.radius = naiveRadius;
+        }
+        return result;
+    }
+
+    /**
+     * Computes a tight-fitting bounding sphere enclosing the positions of a buffer.
+     *
+     * @param positions The positions.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if one was not provided.
+     * @see #fromPoints(double[], BoundingSphered)
+     */
+    public static BoundingSphered fromPoints(Cartesian3Buffer positions, BoundingSphered result) {
+        return fromPoints(positions.array(), 0, Cartesian3Buffer.STRIDE, positions.size(), result);
+    }
+
+    /**
+     * Computes the bounding spheres of many features whose points are stored back to back in one packed array, and
+     * packs them one after the other into the result, {@link #packedLength} elements per feature. The points of
+     * feature i are the points with indices featureOffsets[i] (inclusive) to featureOffsets[i + 1] (exclusive).
+     *
+     * @param positions      The packed x, y, z components of the points of all features.
+     * @param featureOffsets The index of the first point of each feature, followed by the total number of points.
+     * @param result         The array onto which to store the packed spheres.
+     * @param resultOffset   The index at which to store the first sphere.
+     * @return The result parameter or a new array if one was not provided.
+     */
+    public static double[] packFeatures(double[] positions, int[] featureOffsets, double[] result,
+                                        int resultOffset) {
+        int featureCount = featureOffsets.length - 1;
+        if (featureCount < 0) {
+            throw new DeveloperError("featureOffsets must have at least one element.");
+        }
+        if (result == null) {
+            result = new double[resultOffset + featureCount * packedLength];
+        }
+        BoundingSphered scratch = new BoundingSphered();
+        for (int i = 0; i < featureCount; i++) {
+            int first = featureOffsets[i];
+            int count = featureOffsets[i + 1] - first;
+            fromPoints(positions, first * 3, 3, count, scratch);
+            pack(scratch, result, resultOffset + i * packedLength);
+        }
+        return result;
+    }
+
+    /**
+     * Duplicates a BoundingSphered instance.
+     *
+     * @param sphere The bounding sphere to duplicate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if none was provided.
+     * (Returns null if sphere is null)
+     */
+    public static BoundingSphered clone(BoundingSphered sphere, BoundingSphered result) {
+        if (sphere == null) {
+            return null;
+        }
+        if (result == null) {
+            return new BoundingSphered(sphere.center, sphere.radius);
+        }
+        Cartesian3d.clone(sphere.center, result.center);
+        result.radius = sphere.radius;
+        return result;
+    }
+
+    /**
+     * Copies a native {@link BoundingSphere}. This is a single call into CesiumJS.
+     *
+     * @param sphere The native bounding sphere.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if none was provided.
+     * (Returns null if sphere is null)
+     */
+    public static BoundingSphered fromBoundingSphere(BoundingSphere sphere, BoundingSphered result) {
+        if (sphere == null) {
+            return null;
+        }
+        return unpack(BoundingSphere.pack(sphere, new double[packedLength], 0), 0, result);
+    }
+
+    /**
+     * Copies into a native {@link BoundingSphere}. This is a single call into CesiumJS.
+     *
+     * @param sphere The bounding sphere.
+     * @param result The native object onto which to store the result.
+     * @return The modified result parameter or a new BoundingSphere instance if none was provided.
+     * (Returns null if sphere is null)
+     */
+    public static BoundingSphere toBoundingSphere(BoundingSphered sphere, BoundingSphere result) {
+        if (sphere == null) {
+            return null;
+        }
+        double[] array = pack(sphere, new double[packedLength], 0);
+        if (result == null) {
+            return BoundingSphere.unpack(array, 0);
+        }
+        return BoundingSphere.unpack(array, 0, result);
+    }
+
+    /**
+     * Stores the provided instance into the provided array, in the layout of {@link BoundingSphere#pack}.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(BoundingSphered value, double[] array, int startingIndex) {
+        array[startingIndex] = value.center.x;
+        array[startingIndex + 1] = value.center.y;
+        array[startingIndex + 2] = value.center.z;
+        array[startingIndex + 3] = value.radius;
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new BoundingSphered instance if one was not provided.
+     */
+    public static BoundingSphered unpack(double[] array, int startingIndex, BoundingSphered result) {
+        if (result == null) {
+            result = new BoundingSphered();
+        }
+        result.center.x = array[startingIndex];
+        result.center.y = array[startingIndex + 1];
+        result.center.z = array[startingIndex + 2];
+        result.radius = array[startingIndex + 3];
+        return result;
+    }
+
+    /**
+     * Compares the provided BoundingSphered componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first BoundingSphered.
+     * @param right The second BoundingSphered.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(BoundingSphered left, BoundingSphered right) {
+        return left == right || (left != null && right != null && Cartesian3d.equals(left.center, right.center)
+                && left.radius == right.radius);
+    }
+
+    /**
+     * Duplicates this instance.
+     *
+     * @return A new BoundingSphered instance.
+     */
+    public BoundingSphered clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof BoundingSphered && equals(this, (BoundingSphered) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * center.hashCode() + Double.valueOf(radius).hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "(" + center + ", " + radius + ")";
+    }
+
+    private static double distanceSquared(double[] positions, int left, int right) {
+        return Cartesian3d.distanceSquared(positions[left], positions[left + 1], positions[left + 2],
+                positions[right], positions[right + 1], positions[right + 2]);
+    }
+
+    private static double distanceSquared(Float64Array positions, int left, int right) {
+        return Cartesian3d.distanceSquared(positions.get(left), positions.get(left + 1), positions.get(left + 2),
+                positions.get(right), positions.get(right + 1), positions.get(right + 2));
+    }
+
+    static void checkStridedRange(int length, int offset, int stride, int count) {
+        if (stride < 3) {
+            throw new DeveloperError("stride must be greater than or equal to 3.");
+        }
+        if (offset < 0 || count < 0 || (count > 0 && offset + (count - 1) * stride + 3 > length)) {
+            throw new DeveloperError("array is too small for " + count + " elements starting at " + offset + ".");
+        }
+    }
+}
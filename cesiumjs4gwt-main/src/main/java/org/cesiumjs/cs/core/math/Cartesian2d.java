@@ -0,0 +1,570 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.Cartesian2;
+
+/**
+ * A 2D Cartesian point implemented in pure Java. Mirrors the static API of {@link Cartesian2}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Cartesian2
+ * @see Cartesian3d
+ */
+public final class Cartesian2d {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 2;
+
+    /**
+     * The X component. Default Value: 0.0
+     */
+    public double x;
+    /**
+     * The Y component. Default Value: 0.0
+     */
+    public double y;
+
+    /**
+     * A 2D Cartesian point initialized to (0.0, 0.0).
+     */
+    public Cartesian2d() {
+    }
+
+    /**
+     * A 2D Cartesian point.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     */
+    public Cartesian2d(double x, double y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    /**
+     * Creates a Cartesian2d instance from x and y coordinates.
+     *
+     * @param x      The x coordinate.
+     * @param y      The y coordinate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian2d instance if one was not provided.
+     */
+    public static Cartesian2d fromElements(double x, double y, Cartesian2d result) {
+        if (result == null) {
+            return new Cartesian2d(x, y);
+        }
+        result.x = x;
+        result.y = y;
+        return result;
+    }
+
+    /**
+     * Duplicates a Cartesian2d instance.
+     *
+     * @param cartesian The Cartesian to duplicate.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian2d instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian2d clone(Cartesian2d cartesian, Cartesian2d result) {
+        if (cartesian == null) {
+            return null;
+        }
+        return fromElements(cartesian.x, cartesian.y, result);
+    }
+
+    /**
+     * Creates a Cartesian2d instance from an existing Cartesian3d. This simply takes the x and y properties of the
+     * Cartesian3d and drops z.
+     *
+     * @param cartesian The Cartesian3d instance to create a Cartesian2d instance from.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian2d instance if one was not provided.
+     */
+    public static Cartesian2d fromCartesian3(Cartesian3d cartesian, Cartesian2d result) {
+        return fromElements(cartesian.x, cartesian.y, result);
+    }
+
+    /**
+     * Copies the components of a native {@link Cartesian2}.
+     *
+     * @param cartesian The native Cartesian to copy.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian2d instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian2d fromCartesian2(Cartesian2 cartesian, Cartesian2d result) {
+        if (cartesian == null) {
+            return null;
+        }
+        return fromElements(cartesian.x, cartesian.y, result);
+    }
+
+    /**
+     * Copies the components into a native {@link Cartesian2}.
+     *
+     * @param cartesian The Cartesian to copy.
+     * @param result    The native object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian2 instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian2 toCartesian2(Cartesian2d cartesian, Cartesian2 result) {
+        if (cartesian == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Cartesian2();
+        }
+        result.x = cartesian.x;
+        result.y = cartesian.y;
+        return result;
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Cartesian2d value, double[] array, int startingIndex) {
+        array[startingIndex] = value.x;
+        array[startingIndex + 1] = value.y;
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Cartesian2d instance if one was not provided.
+     */
+    public static Cartesian2d unpack(double[] array, int startingIndex, Cartesian2d result) {
+        return fromElements(array[startingIndex], array[startingIndex + 1], result);
+    }
+
+    /**
+     * Computes the value of the maximum component for the supplied Cartesian.
+     *
+     * @param cartesian The cartesian to use.
+     * @return The value of the maximum component.
+     */
+    public static double maximumComponent(Cartesian2d cartesian) {
+        return java.lang.Math.max(cartesian.x, cartesian.y);
+    }
+
+    /**
+     * Computes the value of the minimum component for the supplied Cartesian.
+     *
+     * @param cartesian The cartesian to use.
+     * @return The value of the minimum component.
+     */
+    public static double minimumComponent(Cartesian2d cartesian) {
+        return java.lang.Math.min(cartesian.x, cartesian.y);
+    }
+
+    /**
+     * Compares two Cartesians and computes a Cartesian which contains the minimum components of the supplied
+     * Cartesians.
+     *
+     * @param first  A cartesian to compare.
+     * @param second A cartesian to compare.
+     * @param result The object into which to store the result.
+     * @return A cartesian with the minimum components.
+     */
+    public static Cartesian2d minimumByComponent(Cartesian2d first, Cartesian2d second, Cartesian2d result) {
+        result.x = java.lang.Math.min(first.x, second.x);
+        result.y = java.lang.Math.min(first.y, second.y);
+        return result;
+    }
+
+    /**
+     * Compares two Cartesians and computes a Cartesian which contains the maximum components of the supplied
+     * Cartesians.
+     *
+     * @param first  A cartesian to compare.
+     * @param second A cartesian to compare.
+     * @param result The object into which to store the result.
+     * @return A cartesian with the maximum components.
+     */
+    public static Cartesian2d maximumByComponent(Cartesian2d first, Cartesian2d second, Cartesian2d result) {
+        result.x = java.lang.Math.max(first.x, second.x);
+        result.y = java.lang.Math.max(first.y, second.y);
+        return result;
+    }
+
+    /**
+     * Constrain a value to lie between two values.
+     *
+     * @param value  The value to clamp.
+     * @param min    The minimum bound.
+     * @param max    The maximum bound.
+     * @param result The object into which to store the result.
+     * @return The clamped value such that min &lt;= value &lt;= max.
+     */
+    public static Cartesian2d clamp(Cartesian2d value, Cartesian2d min, Cartesian2d max, Cartesian2d result) {
+        result.x = CesiumMath.clamp(value.x, min.x, max.x);
+        result.y = CesiumMath.clamp(value.y, min.y, max.y);
+        return result;
+    }
+
+    /**
+     * Computes the provided Cartesian's squared magnitude.
+     *
+     * @param cartesian The Cartesian instance whose squared magnitude is to be computed.
+     * @return The squared magnitude.
+     */
+    public static double magnitudeSquared(Cartesian2d cartesian) {
+        return cartesian.x * cartesian.x + cartesian.y * cartesian.y;
+    }
+
+    /**
+     * Computes the Cartesian's magnitude (length).
+     *
+     * @param cartesian The Cartesian instance whose magnitude is to be computed.
+     * @return The magnitude.
+     */
+    public static double magnitude(Cartesian2d cartesian) {
+        return java.lang.Math.sqrt(magnitudeSquared(cartesian));
+    }
+
+    /**
+     * Computes the magnitude (length) of the vector (x, y).
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @return The magnitude.
+     */
+    public static double magnitude(double x, double y) {
+        return java.lang.Math.sqrt(x * x + y * y);
+    }
+
+    /**
+     * Computes the distance between two points.
+     *
+     * @param left  The first point to compute the distance from.
+     * @param right The second point to compute the distance to.
+     * @return The distance between two points.
+     */
+    public static double distance(Cartesian2d left, Cartesian2d right) {
+        return java.lang.Math.sqrt(distanceSquared(left, right));
+    }
+
+    /**
+     * Computes the distance between two points given by their components.
+     *
+     * @param x0 The X component of the first point.
+     * @param y0 The Y component of the first point.
+     * @param x1 The X component of the second point.
+     * @param y1 The Y component of the second point.
+     * @return The distance between two points.
+     */
+    public static double distance(double x0, double y0, double x1, double y1) {
+        return java.lang.Math.sqrt(distanceSquared(x0, y0, x1, y1));
+    }
+
+    /**
+     * Computes the squared distance between two points.
+     *
+     * @param left  The first point to compute the distance from.
+     * @param right The second point to compute the distance to.
+     * @return The squared distance between two points.
+     */
+    public static double distanceSquared(Cartesian2d left, Cartesian2d right) {
+        return distanceSquared(left.x, left.y, right.x, right.y);
+    }
+
+    /**
+     * Computes the squared distance between two points given by their components.
+     *
+     * @param x0 The X component of the first point.
+     * @param y0 The Y component of the first point.
+     * @param x1 The X component of the second point.
+     * @param y1 The Y component of the second point.
+     * @return The squared distance between two points.
+     */
+    public static double distanceSquared(double x0, double y0, double x1, double y1) {
+        double dx = x0 - x1;
+        double dy = y0 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * Computes the normalized form of the supplied Cartesian.
+     *
+     * @param cartesian The Cartesian to be normalized.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d normalize(Cartesian2d cartesian, Cartesian2d result) {
+        double magnitude = magnitude(cartesian);
+        result.x = cartesian.x / magnitude;
+        result.y = cartesian.y / magnitude;
+        return result;
+    }
+
+    /**
+     * Computes the dot (scalar) product of two Cartesians.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return The dot product.
+     */
+    public static double dot(Cartesian2d left, Cartesian2d right) {
+        return left.x * right.x + left.y * right.y;
+    }
+
+    /**
+     * Computes the magnitude of the cross product that would result from implicitly setting the Z coordinate of
+     * the input vectors to 0.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return The cross product.
+     */
+    public static double cross(Cartesian2d left, Cartesian2d right) {
+        return left.x * right.y - left.y * right.x;
+    }
+
+    /**
+     * Computes the componentwise product of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d multiplyComponents(Cartesian2d left, Cartesian2d right, Cartesian2d result) {
+        result.x = left.x * right.x;
+        result.y = left.y * right.y;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise quotient of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d divideComponents(Cartesian2d left, Cartesian2d right, Cartesian2d result) {
+        result.x = left.x / right.x;
+        result.y = left.y / right.y;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise sum of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d add(Cartesian2d left, Cartesian2d right, Cartesian2d result) {
+        result.x = left.x + right.x;
+        result.y = left.y + right.y;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise difference of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d subtract(Cartesian2d left, Cartesian2d right, Cartesian2d result) {
+        result.x = left.x - right.x;
+        result.y = left.y - right.y;
+        return result;
+    }
+
+    /**
+     * Multiplies the provided Cartesian componentwise by the provided scalar.
+     *
+     * @param cartesian The Cartesian to be scaled.
+     * @param scalar    The scalar to multiply with.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d multiplyByScalar(Cartesian2d cartesian, double scalar, Cartesian2d result) {
+        result.x = cartesian.x * scalar;
+        result.y = cartesian.y * scalar;
+        return result;
+    }
+
+    /**
+     * Divides the provided Cartesian componentwise by the provided scalar.
+     *
+     * @param cartesian The Cartesian to be divided.
+     * @param scalar    The scalar to divide by.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d divideByScalar(Cartesian2d cartesian, double scalar, Cartesian2d result) {
+        result.x = cartesian.x / scalar;
+        result.y = cartesian.y / scalar;
+        return result;
+    }
+
+    /**
+     * Negates the provided Cartesian.
+     *
+     * @param cartesian The Cartesian to be negated.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d negate(Cartesian2d cartesian, Cartesian2d result) {
+        result.x = -cartesian.x;
+        result.y = -cartesian.y;
+        return result;
+    }
+
+    /**
+     * Computes the absolute value of the provided Cartesian.
+     *
+     * @param cartesian The Cartesian whose absolute value is to be computed.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d abs(Cartesian2d cartesian, Cartesian2d result) {
+        result.x = java.lang.Math.abs(cartesian.x);
+        result.y = java.lang.Math.abs(cartesian.y);
+        return result;
+    }
+
+    /**
+     * Computes the linear interpolation or extrapolation at t using the provided cartesians.
+     *
+     * @param start  The value corresponding to t at 0.0.
+     * @param end    The value corresponding to t at 1.0.
+     * @param t      The point along t at which to interpolate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d lerp(Cartesian2d start, Cartesian2d end, double t, Cartesian2d result) {
+        double s = 1.0 - t;
+        result.x = start.x * s + end.x * t;
+        result.y = start.y * s + end.y * t;
+        return result;
+    }
+
+    /**
+     * Returns the angle, in radians, between the provided Cartesians.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return The angle between the Cartesians.
+     */
+    public static double angleBetween(Cartesian2d left, Cartesian2d right) {
+        double lm = magnitude(left);
+        double rm = magnitude(right);
+        return CesiumMath.acosClamped((left.x * right.x + left.y * right.y) / (lm * rm));
+    }
+
+    /**
+     * Returns the axis that is most orthogonal to the provided Cartesian.
+     *
+     * @param cartesian The Cartesian on which to find the most orthogonal axis.
+     * @param result    The object onto which to store the result.
+     * @return The most orthogonal axis.
+     */
+    public static Cartesian2d mostOrthogonalAxis(Cartesian2d cartesian, Cartesian2d result) {
+        if (java.lang.Math.abs(cartesian.x) <= java.lang.Math.abs(cartesian.y)) {
+            return fromElements(1.0, 0.0, result);
+        }
+        return fromElements(0.0, 1.0, result);
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Cartesian2d left, Cartesian2d right) {
+        return left == right || (left != null && right != null && left.x == right.x && left.y == right.y);
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they pass an absolute or relative
+     * tolerance test, false otherwise.
+     *
+     * @param left            The first Cartesian.
+     * @param right           The second Cartesian.
+     * @param relativeEpsilon The relative epsilon tolerance to use for equality testing.
+     * @param absoluteEpsilon The absolute epsilon tolerance to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Cartesian2d left, Cartesian2d right, double relativeEpsilon,
+                                        double absoluteEpsilon) {
+        return left == right || (left != null && right != null
+                && CesiumMath.equalsEpsilon(left.x, right.x, relativeEpsilon, absoluteEpsilon)
+                && CesiumMath.equalsEpsilon(left.y, right.y, relativeEpsilon, absoluteEpsilon));
+    }
+
+    /**
+     * Sets the components of this Cartesian.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @return This instance.
+     */
+    public Cartesian2d set(double x, double y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * Duplicates this Cartesian2d instance.
+     *
+     * @return A new Cartesian2d instance.
+     */
+    public Cartesian2d clone() {
+        return new Cartesian2d(x, y);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Cartesian2d && equals(this, (Cartesian2d) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.valueOf(x).hashCode() + Double.valueOf(y).hashCode();
+    }
+
+    /**
+     * Creates a string representing this Cartesian in the format '(x, y)'.
+     *
+     * @return A string representing this Cartesian in the format '(x, y)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ")";
+    }
+}
@@ -0,0 +1,432 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import com.google.gwt.typedarrays.shared.TypedArrays;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * A growable list of Cartesian3 positions stored as packed x, y, z components in a single {@link Float64Array}.
+ * The flat layout is the same as produced by {@link Cartesian3#packArray}, so a buffer with thousands of positions
+ * costs one typed array instead of thousands of JavaScript objects. Use {@link #toCartesian3Array()} to hand the
+ * positions to CesiumJS APIs which still require Cartesian3 objects; it is a single call into CesiumJS.
+ *
+ * @author Serge Silaev aka iSergio
+ */
+public final class Cartesian3Buffer {
+    /**
+     * The number of components per position.
+     */
+    public static final int STRIDE = 3;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Float64Array array;
+    private int size;
+
+    /**
+     * Creates an empty buffer with the default capacity.
+     */
+    public Cartesian3Buffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty buffer.
+     *
+     * @param capacity The number of positions the buffer can hold before it grows.
+     */
+    public Cartesian3Buffer(int capacity) {
+        if (capacity < 0) {
+            throw new DeveloperError("capacity must be greater than or equal to 0.");
+        }
+        array = TypedArrays.createFloat64Array(capacity * STRIDE);
+    }
+
+    private Cartesian3Buffer(Float64Array array, int size) {
+        this.array = array;
+        this.size = size;
+    }
+
+    /**
+     * Creates a buffer which uses the provided array as storage without copying it.
+     *
+     * @param array The packed x, y, z components. The length must be a multiple of 3.
+     * @return The new buffer.
+     */
+    public static Cartesian3Buffer wrap(Float64Array array) {
+        if (array.length() % STRIDE != 0) {
+            throw new DeveloperError("array length must be a multiple of 3.");
+        }
+        return new Cartesian3Buffer(array, array.length() / STRIDE);
+    }
+
+    /**
+     * Creates a buffer from packed x, y, z components.
+     *
+     * @param components The packed x, y, z components. The length must be a multiple of 3.
+     * @return The new buffer.
+     */
+    public static Cartesian3Buffer fromArray(double[] components) {
+        return unpackArray(components, null);
+    }
+
+    /**
+     * Creates a buffer from an array of Cartesian3 positions.
+     *
+     * @param positions The positions.
+     * @return The new buffer.
+     */
+    public static Cartesian3Buffer fromCartesian3Array(Cartesian3[] positions) {
+        Cartesian3Buffer result = new Cartesian3Buffer(positions.length);
+        for (Cartesian3 position : positions) {
+            result.add(position.x, position.y, position.z);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the number of positions in the buffer.
+     *
+     * @return The number of positions.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets whether the buffer holds no positions.
+     *
+     * @return true if the buffer is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Gets the number of positions the buffer can hold before it grows.
+     *
+     * @return The capacity in positions.
+     */
+    public int capacity() {
+        return array.length() / STRIDE;
+    }
+
+    /**
+     * Removes all positions. The storage is kept for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Grows the storage, if necessary, so it can hold at least the provided number of positions.
+     *
+     * @param capacity The minimum capacity in positions.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= capacity()) {
+            return;
+        }
+        int newCapacity = java.lang.Math.max(capacity, capacity() * 2);
+        Float64Array newArray = TypedArrays.createFloat64Array(newCapacity * STRIDE);
+        if (size > 0) {
+            newArray.set(array);
+        }
+        array = newArray;
+    }
+
+    /**
+     * Changes the number of positions. New positions are not initialized.
+     *
+     * @param size The new number of positions.
+     */
+    public void setSize(int size) {
+        if (size < 0) {
+            throw new DeveloperError("size must be greater than or equal to 0.");
+        }
+        ensureCapacity(size);
+        this.size = size;
+    }
+
+    /**
+     * Appends a position.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @return This buffer.
+     */
+    public Cartesian3Buffer add(double x, double y, double z) {
+        ensureCapacity(size + 1);
+        int offset = size * STRIDE;
+        array.set(offset, x);
+        array.set(offset + 1, y);
+        array.set(offset + 2, z);
+        size++;
+        return this;
+    }
+
+    /**
+     * Appends a position.
+     *
+     * @param cartesian The position.
+     * @return This buffer.
+     */
+    public Cartesian3Buffer add(Cartesian3d cartesian) {
+        return add(cartesian.x, cartesian.y, cartesian.z);
+    }
+
+    /**
+     * Appends a position.
+     *
+     * @param cartesian The position.
+     * @return This buffer.
+     */
+    public Cartesian3Buffer add(Cartesian3 cartesian) {
+        return add(cartesian.x, cartesian.y, cartesian.z);
+    }
+
+    /**
+     * Appends all positions of another buffer.
+     *
+     * @param other The buffer to append.
+     * @return This buffer.
+     */
+    public Cartesian3Buffer addAll(Cartesian3Buffer other) {
+        ensureCapacity(size + other.size);
+        int offset = size * STRIDE;
+        int length = other.size * STRIDE;
+        for (int i = 0; i < length; i++) {
+            array.set(offset + i, other.array.get(i));
+        }
+        size += other.size;
+        return this;
+    }
+
+    /**
+     * Replaces the position at the provided index.
+     *
+     * @param index The zero-based index of the position.
+     * @param x     The X component.
+     * @param y     The Y component.
+     * @param z     The Z component.
+     */
+    public void set(int index, double x, double y, double z) {
+        checkIndex(index);
+        int offset = index * STRIDE;
+        array.set(offset, x);
+        array.set(offset + 1, y);
+        array.set(offset + 2, z);
+    }
+
+    /**
+     * Replaces the position at the provided index.
+     *
+     * @param index     The zero-based index of the position.
+     * @param cartesian The position.
+     */
+    public void set(int index, Cartesian3d cartesian) {
+        set(index, cartesian.x, cartesian.y, cartesian.z);
+    }
+
+    /**
+     * Gets the X component of the position at the provided index.
+     *
+     * @param index The zero-based index of the position.
+     * @return The X component.
+     */
+    public double getX(int index) {
+        checkIndex(index);
+        return array.get(index * STRIDE);
+    }
+
+    /**
+     * Gets the Y component of the position at the provided index.
+     *
+     * @param index The zero-based index of the position.
+     * @return The Y component.
+     */
+    public double getY(int index) {
+        checkIndex(index);
+        return array.get(index * STRIDE + 1);
+    }
+
+    /**
+     * Gets the Z component of the position at the provided index.
+     *
+     * @param index The zero-based index of the position.
+     * @return The Z component.
+     */
+    public double getZ(int index) {
+        checkIndex(index);
+        return array.get(index * STRIDE + 2);
+    }
+
+    /**
+     * Copies the position at the provided index.
+     *
+     * @param index  The zero-based index of the position.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public Cartesian3d get(int index, Cartesian3d result) {
+        checkIndex(index);
+        int offset = index * STRIDE;
+        return Cartesian3d.fromElements(array.get(offset), array.get(offset + 1), array.get(offset + 2), result);
+    }
+
+    /**
+     * Copies the position at the provided index.
+     *
+     * @param index  The zero-based index of the position.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public Cartesian3 get(int index, Cartesian3 result) {
+        checkIndex(index);
+        int offset = index * STRIDE;
+        result.x = array.get(offset);
+        result.y = array.get(offset + 1);
+        result.z = array.get(offset + 2);
+        return result;
+    }
+
+    /**
+     * Gets the packed components of the positions. The storage is first trimmed to the current size, so the returned
+     * array is the storage itself and shares it with this buffer until the buffer grows.
+     *
+     * @return The packed x, y, z components.
+     */
+    public Float64Array array() {
+        int length = size * STRIDE;
+        if (array.length() != length) {
+            Float64Array trimmed = TypedArrays.createFloat64Array(length);
+            for (int i = 0; i < length; i++) {
+                trimmed.set(i, array.get(i));
+            }
+            array = trimmed;
+        }
+        return array;
+    }
+
+    /**
+     * Creates Cartesian3 objects for all positions with a single call to {@link Cartesian3#unpackArray}.
+     *
+     * @return The array of positions.
+     */
+    public Cartesian3[] toCartesian3Array() {
+        return Cartesian3.unpackArray(array(), null);
+    }
+
+    /**
+     * Gets the number of elements used to pack the buffer into an array with {@link #pack}: the number of
+     * positions followed by the packed components.
+     *
+     * @param value The buffer.
+     * @return The packed length.
+     */
+    public static int getPackedLength(Cartesian3Buffer value) {
+        return 1 + value.size * STRIDE;
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Cartesian3Buffer value, double[] array, int startingIndex) {
+        array[startingIndex++] = value.size;
+        int length = value.size * STRIDE;
+        for (int i = 0; i < length; i++) {
+            array[startingIndex + i] = value.array.get(i);
+        }
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Cartesian3Buffer instance if one was not provided.
+     */
+    public static Cartesian3Buffer unpack(double[] array, int startingIndex, Cartesian3Buffer result) {
+        int size = (int) array[startingIndex++];
+        if (result == null) {
+            result = new Cartesian3Buffer(size);
+        }
+        result.setSize(size);
+        int length = size * STRIDE;
+        for (int i = 0; i < length; i++) {
+            result.array.set(i, array[startingIndex + i]);
+        }
+        return result;
+    }
+
+    /**
+     * Flattens the buffer into an array of components, in the same layout as {@link Cartesian3#packArray}.
+     *
+     * @param value  The buffer to pack.
+     * @param result The array onto which to store the result.
+     * @return The packed array.
+     */
+    public static double[] packArray(Cartesian3Buffer value, double[] result) {
+        int length = value.size * STRIDE;
+        if (result == null) {
+            result = new double[length];
+        } else if (result.length != length) {
+            throw new DeveloperError("result must have exactly size * 3 elements.");
+        }
+        for (int i = 0; i < length; i++) {
+            result[i] = value.array.get(i);
+        }
+        return result;
+    }
+
+    /**
+     * Unpacks an array of cartesian components, in the same layout as {@link Cartesian3#unpackArray}.
+     *
+     * @param array  The array of components to unpack.
+     * @param result The buffer onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3Buffer instance if one was not provided.
+     */
+    public static Cartesian3Buffer unpackArray(double[] array, Cartesian3Buffer result) {
+        if (array.length % STRIDE != 0) {
+            throw new DeveloperError("array length must be a multiple of 3.");
+        }
+        int size = array.length / STRIDE;
+        if (result == null) {
+            result = new Cartesian3Buffer(size);
+        }
+        result.setSize(size);
+        result.array.set(array);
+        return result;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new DeveloperError("index out of range: " + index);
+        }
+    }
+}
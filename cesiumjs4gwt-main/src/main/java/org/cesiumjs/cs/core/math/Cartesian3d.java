@@ -0,0 +1,779 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.Cartesian3;
+
+/**
+ * A 3D Cartesian point implemented in pure Java. Mirrors the static API of {@link Cartesian3}, but never crosses
+ * into CesiumJS, so it can be used in per-frame code without allocations and on a server JVM.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Cartesian3
+ */
+public final class Cartesian3d {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 3;
+
+    /**
+     * The X component. Default Value: 0.0
+     */
+    public double x;
+    /**
+     * The Y component. Default Value: 0.0
+     */
+    public double y;
+    /**
+     * The Z component. Default Value: 0.0
+     */
+    public double z;
+
+    /**
+     * A 3D Cartesian point initialized to (0.0, 0.0, 0.0).
+     */
+    public Cartesian3d() {
+    }
+
+    /**
+     * A 3D Cartesian point.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     */
+    public Cartesian3d(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    /**
+     * Creates a Cartesian3d instance from x, y and z coordinates.
+     *
+     * @param x      The x coordinate.
+     * @param y      The y coordinate.
+     * @param z      The z coordinate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public static Cartesian3d fromElements(double x, double y, double z, Cartesian3d result) {
+        if (result == null) {
+            return new Cartesian3d(x, y, z);
+        }
+        result.x = x;
+        result.y = y;
+        result.z = z;
+        return result;
+    }
+
+    /**
+     * Duplicates a Cartesian3d instance.
+     *
+     * @param cartesian The Cartesian to duplicate.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian3d clone(Cartesian3d cartesian, Cartesian3d result) {
+        if (cartesian == null) {
+            return null;
+        }
+        return fromElements(cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Copies the components of a native {@link Cartesian3}.
+     *
+     * @param cartesian The native Cartesian to copy.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian3d fromCartesian3(Cartesian3 cartesian, Cartesian3d result) {
+        if (cartesian == null) {
+            return null;
+        }
+        return fromElements(cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Copies the components into a native {@link Cartesian3}.
+     *
+     * @param cartesian The Cartesian to copy.
+     * @param result    The native object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3 instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian3 toCartesian3(Cartesian3d cartesian, Cartesian3 result) {
+        if (cartesian == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Cartesian3();
+        }
+        result.x = cartesian.x;
+        result.y = cartesian.y;
+        result.z = cartesian.z;
+        return result;
+    }
+
+    /**
+     * Creates a Cartesian3d from three consecutive elements in an array.
+     *
+     * @param array         The array whose three consecutive elements correspond to the x, y, and z components.
+     * @param startingIndex The offset into the array of the first element.
+     * @param result        The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public static Cartesian3d fromArray(double[] array, int startingIndex, Cartesian3d result) {
+        return unpack(array, startingIndex, result);
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Cartesian3d value, double[] array, int startingIndex) {
+        array[startingIndex] = value.x;
+        array[startingIndex + 1] = value.y;
+        array[startingIndex + 2] = value.z;
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public static Cartesian3d unpack(double[] array, int startingIndex, Cartesian3d result) {
+        return fromElements(array[startingIndex], array[startingIndex + 1], array[startingIndex + 2], result);
+    }
+
+    /**
+     * Flattens an array of Cartesian3ds into an array of components.
+     *
+     * @param array  The array of cartesians to pack.
+     * @param result The array onto which to store the result. If this is a typed array, it must have
+     *               array.length * 3 components, else a new array is allocated.
+     * @return The packed array.
+     */
+    public static double[] packArray(Cartesian3d[] array, double[] result) {
+        int resultLength = array.length * 3;
+        if (result == null || result.length < resultLength) {
+            result = new double[resultLength];
+        }
+        for (int i = 0; i < array.length; ++i) {
+            pack(array[i], result, i * 3);
+        }
+        return result;
+    }
+
+    /**
+     * Unpacks an array of cartesian components into an array of Cartesian3ds.
+     *
+     * @param array  The array of components to unpack.
+     * @param result The array onto which to store the result.
+     * @return The unpacked array.
+     */
+    public static Cartesian3d[] unpackArray(double[] array, Cartesian3d[] result) {
+        int resultLength = array.length / 3;
+        if (result == null || result.length != resultLength) {
+            Cartesian3d[] newResult = new Cartesian3d[resultLength];
+            if (result != null) {
+                System.arraycopy(result, 0, newResult, 0, java.lang.Math.min(result.length, resultLength));
+            }
+            result = newResult;
+        }
+        for (int i = 0; i < resultLength; ++i) {
+            result[i] = unpack(array, i * 3, result[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the value of the maximum component for the supplied Cartesian.
+     *
+     * @param cartesian The cartesian to use.
+     * @return The value of the maximum component.
+     */
+    public static double maximumComponent(Cartesian3d cartesian) {
+        return java.lang.Math.max(cartesian.x, java.lang.Math.max(cartesian.y, cartesian.z));
+    }
+
+    /**
+     * Computes the value of the minimum component for the supplied Cartesian.
+     *
+     * @param cartesian The cartesian to use.
+     * @return The value of the minimum component.
+     */
+    public static double minimumComponent(Cartesian3d cartesian) {
+        return java.lang.Math.min(cartesian.x, java.lang.Math.min(cartesian.y, cartesian.z));
+    }
+
+    /**
+     * Compares two Cartesians and computes a Cartesian which contains the minimum components of the supplied
+     * Cartesians.
+     *
+     * @param first  A cartesian to compare.
+     * @param second A cartesian to compare.
+     * @param result The object into which to store the result.
+     * @return A cartesian with the minimum components.
+     */
+    public static Cartesian3d minimumByComponent(Cartesian3d first, Cartesian3d second, Cartesian3d result) {
+        result.x = java.lang.Math.min(first.x, second.x);
+        result.y = java.lang.Math.min(first.y, second.y);
+        result.z = java.lang.Math.min(first.z, second.z);
+        return result;
+    }
+
+    /**
+     * Compares two Cartesians and computes a Cartesian which contains the maximum components of the supplied
+     * Cartesians.
+     *
+     * @param first  A cartesian to compare.
+     * @param second A cartesian to compare.
+     * @param result The object into which to store the result.
+     * @return A cartesian with the maximum components.
+     */
+    public static Cartesian3d maximumByComponent(Cartesian3d first, Cartesian3d second, Cartesian3d result) {
+        result.x = java.lang.Math.max(first.x, second.x);
+        result.y = java.lang.Math.max(first.y, second.y);
+        result.z = java.lang.Math.max(first.z, second.z);
+        return result;
+    }
+
+    /**
+     * Constrain a value to lie between two values.
+     *
+     * @param value  The value to clamp.
+     * @param min    The minimum bound.
+     * @param max    The maximum bound.
+     * @param result The object into which to store the result.
+     * @return The clamped value such that min &lt;= value &lt;= max.
+     */
+    public static Cartesian3d clamp(Cartesian3d value, Cartesian3d min, Cartesian3d max, Cartesian3d result) {
+        result.x = CesiumMath.clamp(value.x, min.x, max.x);
+        result.y = CesiumMath.clamp(value.y, min.y, max.y);
+        result.z = CesiumMath.clamp(value.z, min.z, max.z);
+        return result;
+    }
+
+    /**
+     * Computes the provided Cartesian's squared magnitude.
+     *
+     * @param cartesian The Cartesian instance whose squared magnitude is to be computed.
+     * @return The squared magnitude.
+     */
+    public static double magnitudeSquared(Cartesian3d cartesian) {
+        return magnitudeSquared(cartesian.x, cartesian.y, cartesian.z);
+    }
+
+    /**
+     * Computes the squared magnitude of the vector (x, y, z).
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @return The squared magnitude.
+     */
+    public static double magnitudeSquared(double x, double y, double z) {
+        return x * x + y * y + z * z;
+    }
+
+    /**
+     * Computes the Cartesian's magnitude (length).
+     *
+     * @param cartesian The Cartesian instance whose magnitude is to be computed.
+     * @return The magnitude.
+     */
+    public static double magnitude(Cartesian3d cartesian) {
+        return java.lang.Math.sqrt(magnitudeSquared(cartesian));
+    }
+
+    /**
+     * Computes the magnitude (length) of the vector (x, y, z).
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @return The magnitude.
+     */
+    public static double magnitude(double x, double y, double z) {
+        return java.lang.Math.sqrt(x * x + y * y + z * z);
+    }
+
+    /**
+     * Computes the distance between two points.
+     *
+     * @param left  The first point to compute the distance from.
+     * @param right The second point to compute the distance to.
+     * @return The distance between two points.
+     */
+    public static double distance(Cartesian3d left, Cartesian3d right) {
+        return distance(left.x, left.y, left.z, right.x, right.y, right.z);
+    }
+
+    /**
+     * Computes the distance between two points given by their components.
+     *
+     * @param x0 The X component of the first point.
+     * @param y0 The Y component of the first point.
+     * @param z0 The Z component of the first point.
+     * @param x1 The X component of the second point.
+     * @param y1 The Y component of the second point.
+     * @param z1 The Z component of the second point.
+     * @return The distance between two points.
+     */
+    public static double distance(double x0, double y0, double z0, double x1, double y1, double z1) {
+        return java.lang.Math.sqrt(distanceSquared(x0, y0, z0, x1, y1, z1));
+    }
+
+    /**
+     * Computes the squared distance between two points. Comparing squared distances using this function is more
+     * efficient than comparing distances using {@link #distance}.
+     *
+     * @param left  The first point to compute the distance from.
+     * @param right The second point to compute the distance to.
+     * @return The squared distance between two points.
+     */
+    public static double distanceSquared(Cartesian3d left, Cartesian3d right) {
+        return distanceSquared(left.x, left.y, left.z, right.x, right.y, right.z);
+    }
+
+    /**
+     * Computes the squared distance between two points given by their components.
+     *
+     * @param x0 The X component of the first point.
+     * @param y0 The Y component of the first point.
+     * @param z0 The Z component of the first point.
+     * @param x1 The X component of the second point.
+     * @param y1 The Y component of the second point.
+     * @param z1 The Z component of the second point.
+     * @return The squared distance between two points.
+     */
+    public static double distanceSquared(double x0, double y0, double z0, double x1, double y1, double z1) {
+        double dx = x0 - x1;
+        double dy = y0 - y1;
+        double dz = z0 - z1;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     * Computes the normalized form of the supplied Cartesian.
+     *
+     * @param cartesian The Cartesian to be normalized.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d normalize(Cartesian3d cartesian, Cartesian3d result) {
+        double magnitude = magnitude(cartesian);
+        result.x = cartesian.x / magnitude;
+        result.y = cartesian.y / magnitude;
+        result.z = cartesian.z / magnitude;
+        return result;
+    }
+
+    /**
+     * Computes the dot (scalar) product of two Cartesians.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return The dot product.
+     */
+    public static double dot(Cartesian3d left, Cartesian3d right) {
+        return left.x * right.x + left.y * right.y + left.z * right.z;
+    }
+
+    /**
+     * Computes the dot (scalar) product of two vectors given by their components.
+     *
+     * @param x0 The X component of the first vector.
+     * @param y0 The Y component of the first vector.
+     * @param z0 The Z component of the first vector.
+     * @param x1 The X component of the second vector.
+     * @param y1 The Y component of the second vector.
+     * @param z1 The Z component of the second vector.
+     * @return The dot product.
+     */
+    public static double dot(double x0, double y0, double z0, double x1, double y1, double z1) {
+        return x0 * x1 + y0 * y1 + z0 * z1;
+    }
+
+    /**
+     * Computes the componentwise product of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyComponents(Cartesian3d left, Cartesian3d right, Cartesian3d result) {
+        result.x = left.x * right.x;
+        result.y = left.y * right.y;
+        result.z = left.z * right.z;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise quotient of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d divideComponents(Cartesian3d left, Cartesian3d right, Cartesian3d result) {
+        result.x = left.x / right.x;
+        result.y = left.y / right.y;
+        result.z = left.z / right.z;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise sum of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d add(Cartesian3d left, Cartesian3d right, Cartesian3d result) {
+        result.x = left.x + right.x;
+        result.y = left.y + right.y;
+        result.z = left.z + right.z;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise sum of a Cartesian and a vector given by its components.
+     *
+     * @param left   The first Cartesian.
+     * @param x      The X component of the second vector.
+     * @param y      The Y component of the second vector.
+     * @param z      The Z component of the second vector.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d add(Cartesian3d left, double x, double y, double z, Cartesian3d result) {
+        result.x = left.x + x;
+        result.y = left.y + y;
+        result.z = left.z + z;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise difference of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d subtract(Cartesian3d left, Cartesian3d right, Cartesian3d result) {
+        result.x = left.x - right.x;
+        result.y = left.y - right.y;
+        result.z = left.z - right.z;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise difference of a Cartesian and a vector given by its components.
+     *
+     * @param left   The first Cartesian.
+     * @param x      The X component of the second vector.
+     * @param y      The Y component of the second vector.
+     * @param z      The Z component of the second vector.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d subtract(Cartesian3d left, double x, double y, double z, Cartesian3d result) {
+        result.x = left.x - x;
+        result.y = left.y - y;
+        result.z = left.z - z;
+        return result;
+    }
+
+    /**
+     * Multiplies the provided Cartesian componentwise by the provided scalar.
+     *
+     * @param cartesian The Cartesian to be scaled.
+     * @param scalar    The scalar to multiply with.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByScalar(Cartesian3d cartesian, double scalar, Cartesian3d result) {
+        result.x = cartesian.x * scalar;
+        result.y = cartesian.y * scalar;
+        result.z = cartesian.z * scalar;
+        return result;
+    }
+
+    /**
+     * Divides the provided Cartesian componentwise by the provided scalar.
+     *
+     * @param cartesian The Cartesian to be divided.
+     * @param scalar    The scalar to divide by.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d divideByScalar(Cartesian3d cartesian, double scalar, Cartesian3d result) {
+        result.x = cartesian.x / scalar;
+        result.y = cartesian.y / scalar;
+        result.z = cartesian.z / scalar;
+        return result;
+    }
+
+    /**
+     * Negates the provided Cartesian.
+     *
+     * @param cartesian The Cartesian to be negated.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d negate(Cartesian3d cartesian, Cartesian3d result) {
+        result.x = -cartesian.x;
+        result.y = -cartesian.y;
+        result.z = -cartesian.z;
+        return result;
+    }
+
+    /**
+     * Computes the absolute value of the provided Cartesian.
+     *
+     * @param cartesian The Cartesian whose absolute value is to be computed.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d abs(Cartesian3d cartesian, Cartesian3d result) {
+        result.x = java.lang.Math.abs(cartesian.x);
+        result.y = java.lang.Math.abs(cartesian.y);
+        result.z = java.lang.Math.abs(cartesian.z);
+        return result;
+    }
+
+    /**
+     * Computes the linear interpolation or extrapolation at t using the provided cartesians.
+     *
+     * @param start  The value corresponding to t at 0.0.
+     * @param end    The value corresponding to t at 1.0.
+     * @param t      The point along t at which to interpolate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d lerp(Cartesian3d start, Cartesian3d end, double t, Cartesian3d result) {
+        double s = 1.0 - t;
+        result.x = start.x * s + end.x * t;
+        result.y = start.y * s + end.y * t;
+        result.z = start.z * s + end.z * t;
+        return result;
+    }
+
+    /**
+     * Returns the angle, in radians, between the provided Cartesians.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return The angle between the Cartesians.
+     */
+    public static double angleBetween(Cartesian3d left, Cartesian3d right) {
+        double lm = magnitude(left);
+        double rm = magnitude(right);
+        double lx = left.x / lm;
+        double ly = left.y / lm;
+        double lz = left.z / lm;
+        double rx = right.x / rm;
+        double ry = right.y / rm;
+        double rz = right.z / rm;
+        double cosine = lx * rx + ly * ry + lz * rz;
+        double cx = ly * rz - lz * ry;
+        double cy = lz * rx - lx * rz;
+        double cz = lx * ry - ly * rx;
+        double sine = magnitude(cx, cy, cz);
+        return java.lang.Math.atan2(sine, cosine);
+    }
+
+    /**
+     * Returns the axis that is most orthogonal to the provided Cartesian.
+     *
+     * @param cartesian The Cartesian on which to find the most orthogonal axis.
+     * @param result    The object onto which to store the result.
+     * @return The most orthogonal axis.
+     */
+    public static Cartesian3d mostOrthogonalAxis(Cartesian3d cartesian, Cartesian3d result) {
+        double ax = java.lang.Math.abs(cartesian.x);
+        double ay = java.lang.Math.abs(cartesian.y);
+        double az = java.lang.Math.abs(cartesian.z);
+        if (ax <= ay) {
+            if (ax <= az) {
+                return fromElements(1.0, 0.0, 0.0, result);
+            }
+            return fromElements(0.0, 0.0, 1.0, result);
+        }
+        if (ay <= az) {
+            return fromElements(0.0, 1.0, 0.0, result);
+        }
+        return fromElements(0.0, 0.0, 1.0, result);
+    }
+
+    /**
+     * Projects vector a onto vector b.
+     *
+     * @param a      The vector that needs projecting.
+     * @param b      The vector to project onto.
+     * @param result The result cartesian.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d projectVector(Cartesian3d a, Cartesian3d b, Cartesian3d result) {
+        double scalar = dot(a, b) / dot(b, b);
+        return multiplyByScalar(b, scalar, result);
+    }
+
+    /**
+     * Computes the cross (outer) product of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The cross product.
+     */
+    public static Cartesian3d cross(Cartesian3d left, Cartesian3d right, Cartesian3d result) {
+        double leftX = left.x;
+        double leftY = left.y;
+        double leftZ = left.z;
+        double rightX = right.x;
+        double rightY = right.y;
+        double rightZ = right.z;
+
+        result.x = leftY * rightZ - leftZ * rightY;
+        result.y = leftZ * rightX - leftX * rightZ;
+        result.z = leftX * rightY - leftY * rightX;
+        return result;
+    }
+
+    /**
+     * Computes the midpoint between the right and left Cartesian.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The midpoint.
+     */
+    public static Cartesian3d midpoint(Cartesian3d left, Cartesian3d right, Cartesian3d result) {
+        result.x = (left.x + right.x) * 0.5;
+        result.y = (left.y + right.y) * 0.5;
+        result.z = (left.z + right.z) * 0.5;
+        return result;
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Cartesian3d left, Cartesian3d right) {
+        return left == right
+                || (left != null && right != null && left.x == right.x && left.y == right.y && left.z == right.z);
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they pass an absolute or relative
+     * tolerance test, false otherwise.
+     *
+     * @param left            The first Cartesian.
+     * @param right           The second Cartesian.
+     * @param relativeEpsilon The relative epsilon tolerance to use for equality testing.
+     * @param absoluteEpsilon The absolute epsilon tolerance to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Cartesian3d left, Cartesian3d right, double relativeEpsilon,
+                                        double absoluteEpsilon) {
+        return left == right || (left != null && right != null
+                && CesiumMath.equalsEpsilon(left.x, right.x, relativeEpsilon, absoluteEpsilon)
+                && CesiumMath.equalsEpsilon(left.y, right.y, relativeEpsilon, absoluteEpsilon)
+                && CesiumMath.equalsEpsilon(left.z, right.z, relativeEpsilon, absoluteEpsilon));
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they pass an absolute or relative
+     * tolerance test, false otherwise.
+     *
+     * @param left            The first Cartesian.
+     * @param right           The second Cartesian.
+     * @param relativeEpsilon The relative and absolute epsilon tolerance to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Cartesian3d left, Cartesian3d right, double relativeEpsilon) {
+        return equalsEpsilon(left, right, relativeEpsilon, relativeEpsilon);
+    }
+
+    /**
+     * Sets the components of this Cartesian.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @return This instance.
+     */
+    public Cartesian3d set(double x, double y, double z) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        return this;
+    }
+
+    /**
+     * Duplicates this Cartesian3d instance.
+     *
+     * @return A new Cartesian3d instance.
+     */
+    public Cartesian3d clone() {
+        return new Cartesian3d(x, y, z);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Cartesian3d && equals(this, (Cartesian3d) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.valueOf(x).hashCode();
+        hash = 31 * hash + Double.valueOf(y).hashCode();
+        return 31 * hash + Double.valueOf(z).hashCode();
+    }
+
+    /**
+     * Creates a string representing this Cartesian in the format '(x, y, z)'.
+     *
+     * @return A string representing this Cartesian in the format '(x, y, z)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ")";
+    }
+}
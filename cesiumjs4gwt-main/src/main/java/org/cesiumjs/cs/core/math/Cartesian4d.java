@@ -0,0 +1,507 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.Cartesian4;
+
+/**
+ * A 4D Cartesian point implemented in pure Java. Mirrors the static API of {@link Cartesian4}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Cartesian4
+ * @see Cartesian3d
+ */
+public final class Cartesian4d {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 4;
+
+    /**
+     * The X component. Default Value: 0.0
+     */
+    public double x;
+    /**
+     * The Y component. Default Value: 0.0
+     */
+    public double y;
+    /**
+     * The Z component. Default Value: 0.0
+     */
+    public double z;
+    /**
+     * The W component. Default Value: 0.0
+     */
+    public double w;
+
+    /**
+     * A 4D Cartesian point initialized to (0.0, 0.0, 0.0, 0.0).
+     */
+    public Cartesian4d() {
+    }
+
+    /**
+     * A 4D Cartesian point.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @param w The W component.
+     */
+    public Cartesian4d(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    /**
+     * Creates a Cartesian4d instance from x, y, z and w coordinates.
+     *
+     * @param x      The x coordinate.
+     * @param y      The y coordinate.
+     * @param z      The z coordinate.
+     * @param w      The w coordinate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian4d instance if one was not provided.
+     */
+    public static Cartesian4d fromElements(double x, double y, double z, double w, Cartesian4d result) {
+        if (result == null) {
+            return new Cartesian4d(x, y, z, w);
+        }
+        result.x = x;
+        result.y = y;
+        result.z = z;
+        result.w = w;
+        return result;
+    }
+
+    /**
+     * Duplicates a Cartesian4d instance.
+     *
+     * @param cartesian The Cartesian to duplicate.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian4d instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian4d clone(Cartesian4d cartesian, Cartesian4d result) {
+        if (cartesian == null) {
+            return null;
+        }
+        return fromElements(cartesian.x, cartesian.y, cartesian.z, cartesian.w, result);
+    }
+
+    /**
+     * Copies the components of a native {@link Cartesian4}.
+     *
+     * @param cartesian The native Cartesian to copy.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian4d instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian4d fromCartesian4(Cartesian4 cartesian, Cartesian4d result) {
+        if (cartesian == null) {
+            return null;
+        }
+        return fromElements(cartesian.x, cartesian.y, cartesian.z, cartesian.w, result);
+    }
+
+    /**
+     * Copies the components into a native {@link Cartesian4}.
+     *
+     * @param cartesian The Cartesian to copy.
+     * @param result    The native object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian4 instance if one was not provided.
+     * (Returns null if cartesian is null)
+     */
+    public static Cartesian4 toCartesian4(Cartesian4d cartesian, Cartesian4 result) {
+        if (cartesian == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Cartesian4();
+        }
+        result.x = cartesian.x;
+        result.y = cartesian.y;
+        result.z = cartesian.z;
+        result.w = cartesian.w;
+        return result;
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Cartesian4d value, double[] array, int startingIndex) {
+        array[startingIndex] = value.x;
+        array[startingIndex + 1] = value.y;
+        array[startingIndex + 2] = value.z;
+        array[startingIndex + 3] = value.w;
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Cartesian4d instance if one was not provided.
+     */
+    public static Cartesian4d unpack(double[] array, int startingIndex, Cartesian4d result) {
+        return fromElements(array[startingIndex], array[startingIndex + 1], array[startingIndex + 2],
+                array[startingIndex + 3], result);
+    }
+
+    /**
+     * Computes the value of the maximum component for the supplied Cartesian.
+     *
+     * @param cartesian The cartesian to use.
+     * @return The value of the maximum component.
+     */
+    public static double maximumComponent(Cartesian4d cartesian) {
+        return java.lang.Math.max(java.lang.Math.max(cartesian.x, cartesian.y),
+                java.lang.Math.max(cartesian.z, cartesian.w));
+    }
+
+    /**
+     * Computes the value of the minimum component for the supplied Cartesian.
+     *
+     * @param cartesian The cartesian to use.
+     * @return The value of the minimum component.
+     */
+    public static double minimumComponent(Cartesian4d cartesian) {
+        return java.lang.Math.min(java.lang.Math.min(cartesian.x, cartesian.y),
+                java.lang.Math.min(cartesian.z, cartesian.w));
+    }
+
+    /**
+     * Computes the provided Cartesian's squared magnitude.
+     *
+     * @param cartesian The Cartesian instance whose squared magnitude is to be computed.
+     * @return The squared magnitude.
+     */
+    public static double magnitudeSquared(Cartesian4d cartesian) {
+        return cartesian.x * cartesian.x + cartesian.y * cartesian.y + cartesian.z * cartesian.z
+                + cartesian.w * cartesian.w;
+    }
+
+    /**
+     * Computes the Cartesian's magnitude (length).
+     *
+     * @param cartesian The Cartesian instance whose magnitude is to be computed.
+     * @return The magnitude.
+     */
+    public static double magnitude(Cartesian4d cartesian) {
+        return java.lang.Math.sqrt(magnitudeSquared(cartesian));
+    }
+
+    /**
+     * Computes the 4-space distance between two points.
+     *
+     * @param left  The first point to compute the distance from.
+     * @param right The second point to compute the distance to.
+     * @return The distance between two points.
+     */
+    public static double distance(Cartesian4d left, Cartesian4d right) {
+        return java.lang.Math.sqrt(distanceSquared(left, right));
+    }
+
+    /**
+     * Computes the squared distance between two points.
+     *
+     * @param left  The first point to compute the distance from.
+     * @param right The second point to compute the distance to.
+     * @return The squared distance between two points.
+     */
+    public static double distanceSquared(Cartesian4d left, Cartesian4d right) {
+        double dx = left.x - right.x;
+        double dy = left.y - right.y;
+        double dz = left.z - right.z;
+        double dw = left.w - right.w;
+        return dx * dx + dy * dy + dz * dz + dw * dw;
+    }
+
+    /**
+     * Computes the normalized form of the supplied Cartesian.
+     *
+     * @param cartesian The Cartesian to be normalized.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d normalize(Cartesian4d cartesian, Cartesian4d result) {
+        double magnitude = magnitude(cartesian);
+        result.x = cartesian.x / magnitude;
+        result.y = cartesian.y / magnitude;
+        result.z = cartesian.z / magnitude;
+        result.w = cartesian.w / magnitude;
+        return result;
+    }
+
+    /**
+     * Computes the dot (scalar) product of two Cartesians.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return The dot product.
+     */
+    public static double dot(Cartesian4d left, Cartesian4d right) {
+        return left.x * right.x + left.y * right.y + left.z * right.z + left.w * right.w;
+    }
+
+    /**
+     * Computes the dot product of a Cartesian with the point (x, y, z, w).
+     *
+     * @param left The Cartesian.
+     * @param x    The X component of the second vector.
+     * @param y    The Y component of the second vector.
+     * @param z    The Z component of the second vector.
+     * @param w    The W component of the second vector.
+     * @return The dot product.
+     */
+    public static double dot(Cartesian4d left, double x, double y, double z, double w) {
+        return left.x * x + left.y * y + left.z * z + left.w * w;
+    }
+
+    /**
+     * Computes the componentwise product of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d multiplyComponents(Cartesian4d left, Cartesian4d right, Cartesian4d result) {
+        result.x = left.x * right.x;
+        result.y = left.y * right.y;
+        result.z = left.z * right.z;
+        result.w = left.w * right.w;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise quotient of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d divideComponents(Cartesian4d left, Cartesian4d right, Cartesian4d result) {
+        result.x = left.x / right.x;
+        result.y = left.y / right.y;
+        result.z = left.z / right.z;
+        result.w = left.w / right.w;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise sum of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d add(Cartesian4d left, Cartesian4d right, Cartesian4d result) {
+        result.x = left.x + right.x;
+        result.y = left.y + right.y;
+        result.z = left.z + right.z;
+        result.w = left.w + right.w;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise difference of two Cartesians.
+     *
+     * @param left   The first Cartesian.
+     * @param right  The second Cartesian.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d subtract(Cartesian4d left, Cartesian4d right, Cartesian4d result) {
+        result.x = left.x - right.x;
+        result.y = left.y - right.y;
+        result.z = left.z - right.z;
+        result.w = left.w - right.w;
+        return result;
+    }
+
+    /**
+     * Multiplies the provided Cartesian componentwise by the provided scalar.
+     *
+     * @param cartesian The Cartesian to be scaled.
+     * @param scalar    The scalar to multiply with.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d multiplyByScalar(Cartesian4d cartesian, double scalar, Cartesian4d result) {
+        result.x = cartesian.x * scalar;
+        result.y = cartesian.y * scalar;
+        result.z = cartesian.z * scalar;
+        result.w = cartesian.w * scalar;
+        return result;
+    }
+
+    /**
+     * Divides the provided Cartesian componentwise by the provided scalar.
+     *
+     * @param cartesian The Cartesian to be divided.
+     * @param scalar    The scalar to divide by.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d divideByScalar(Cartesian4d cartesian, double scalar, Cartesian4d result) {
+        result.x = cartesian.x / scalar;
+        result.y = cartesian.y / scalar;
+        result.z = cartesian.z / scalar;
+        result.w = cartesian.w / scalar;
+        return result;
+    }
+
+    /**
+     * Negates the provided Cartesian.
+     *
+     * @param cartesian The Cartesian to be negated.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d negate(Cartesian4d cartesian, Cartesian4d result) {
+        result.x = -cartesian.x;
+        result.y = -cartesian.y;
+        result.z = -cartesian.z;
+        result.w = -cartesian.w;
+        return result;
+    }
+
+    /**
+     * Computes the absolute value of the provided Cartesian.
+     *
+     * @param cartesian The Cartesian whose absolute value is to be computed.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d abs(Cartesian4d cartesian, Cartesian4d result) {
+        result.x = java.lang.Math.abs(cartesian.x);
+        result.y = java.lang.Math.abs(cartesian.y);
+        result.z = java.lang.Math.abs(cartesian.z);
+        result.w = java.lang.Math.abs(cartesian.w);
+        return result;
+    }
+
+    /**
+     * Computes the linear interpolation or extrapolation at t using the provided cartesians.
+     *
+     * @param start  The value corresponding to t at 0.0.
+     * @param end    The value corresponding to t at 1.0.
+     * @param t      The point along t at which to interpolate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d lerp(Cartesian4d start, Cartesian4d end, double t, Cartesian4d result) {
+        double s = 1.0 - t;
+        result.x = start.x * s + end.x * t;
+        result.y = start.y * s + end.y * t;
+        result.z = start.z * s + end.z * t;
+        result.w = start.w * s + end.w * t;
+        return result;
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first Cartesian.
+     * @param right The second Cartesian.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Cartesian4d left, Cartesian4d right) {
+        return left == right || (left != null && right != null && left.x == right.x && left.y == right.y
+                && left.z == right.z && left.w == right.w);
+    }
+
+    /**
+     * Compares the provided Cartesians componentwise and returns true if they pass an absolute or relative
+     * tolerance test, false otherwise.
+     *
+     * @param left            The first Cartesian.
+     * @param right           The second Cartesian.
+     * @param relativeEpsilon The relative epsilon tolerance to use for equality testing.
+     * @param absoluteEpsilon The absolute epsilon tolerance to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Cartesian4d left, Cartesian4d right, double relativeEpsilon,
+                                        double absoluteEpsilon) {
+        return left == right || (left != null && right != null
+                && CesiumMath.equalsEpsilon(left.x, right.x, relativeEpsilon, absoluteEpsilon)
+                && CesiumMath.equalsEpsilon(left.y, right.y, relativeEpsilon, absoluteEpsilon)
+                && CesiumMath.equalsEpsilon(left.z, right.z, relativeEpsilon, absoluteEpsilon)
+                && CesiumMath.equalsEpsilon(left.w, right.w, relativeEpsilon, absoluteEpsilon));
+    }
+
+    /**
+     * Sets the components of this Cartesian.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @param w The W component.
+     * @return This instance.
+     */
+    public Cartesian4d set(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    /**
+     * Duplicates this Cartesian4d instance.
+     *
+     * @return A new Cartesian4d instance.
+     */
+    public Cartesian4d clone() {
+        return new Cartesian4d(x, y, z, w);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Cartesian4d && equals(this, (Cartesian4d) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.valueOf(x).hashCode();
+        hash = 31 * hash + Double.valueOf(y).hashCode();
+        hash = 31 * hash + Double.valueOf(z).hashCode();
+        return 31 * hash + Double.valueOf(w).hashCode();
+    }
+
+    /**
+     * Creates a string representing this Cartesian in the format '(x, y, z, w)'.
+     *
+     * @return A string representing this Cartesian in the format '(x, y, z, w)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ", " + w + ")";
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.Cartographic;
+
+/**
+ * A position defined by longitude, latitude, and height, implemented in pure Java.
+ * Mirrors the static API of {@link Cartographic}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Cartographic
+ * @see Ellipsoidd
+ */
+public final class Cartographicd {
+    /**
+     * The longitude, in radians. Default Value: 0.0
+     */
+    public double longitude;
+    /**
+     * The latitude, in radians. Default Value: 0.0
+     */
+    public double latitude;
+    /**
+     * The height, in meters, above the ellipsoid. Default Value: 0.0
+     */
+    public double height;
+
+    /**
+     * A position initialized to (0.0, 0.0, 0.0).
+     */
+    public Cartographicd() {
+    }
+
+    /**
+     * A position defined by longitude, latitude, and height.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param height    The height, in meters, above the ellipsoid.
+     */
+    public Cartographicd(double longitude, double latitude, double height) {
+        this.longitude = longitude;
+        this.latitude = latitude;
+        this.height = height;
+    }
+
+    /**
+     * Creates a new Cartographicd instance from longitude and latitude specified in radians.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param height    The height, in meters, above the ellipsoid.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartographicd instance if one was not provided.
+     */
+    public static Cartographicd fromRadians(double longitude, double latitude, double height, Cartographicd result) {
+        if (result == null) {
+            return new Cartographicd(longitude, latitude, height);
+        }
+        result.longitude = longitude;
+        result.latitude = latitude;
+        result.height = height;
+        return result;
+    }
+
+    /**
+     * Creates a new Cartographicd instance from longitude and latitude specified in degrees. The values in the
+     * resulting object will be in radians.
+     *
+     * @param longitude The longitude, in degrees.
+     * @param latitude  The latitude, in degrees.
+     * @param height    The height, in meters, above the ellipsoid.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartographicd instance if one was not provided.
+     */
+    public static Cartographicd fromDegrees(double longitude, double latitude, double height, Cartographicd result) {
+        return fromRadians(CesiumMath.toRadians(longitude), CesiumMath.toRadians(latitude), height, result);
+    }
+
+    /**
+     * Duplicates a Cartographicd instance.
+     *
+     * @param cartographic The cartographic to duplicate.
+     * @param result       The object onto which to store the result.
+     * @return The modified result parameter or a new Cartographicd instance if one was not provided.
+     * (Returns null if cartographic is null)
+     */
+    public static Cartographicd clone(Cartographicd cartographic, Cartographicd result) {
+        if (cartographic == null) {
+            return null;
+        }
+        return fromRadians(cartographic.longitude, cartographic.latitude, cartographic.height, result);
+    }
+
+    /**
+     * Copies the components of a native {@link Cartographic}.
+     *
+     * @param cartographic The native cartographic to copy.
+     * @param result       The object onto which to store the result.
+     * @return The modified result parameter or a new Cartographicd instance if one was not provided.
+     * (Returns null if cartographic is null)
+     */
+    public static Cartographicd fromCartographic(Cartographic cartographic, Cartographicd result) {
+        if (cartographic == null) {
+            return null;
+        }
+        return fromRadians(cartographic.longitude, cartographic.latitude, cartographic.height, result);
+    }
+
+    /**
+     * Copies the components into a native {@link Cartographic}.
+     *
+     * @param cartographic The cartographic to copy.
+     * @param result       The native object onto which to store the result.
+     * @return The modified result parameter or a new Cartographic instance if one was not provided.
+     * (Returns null if cartographic is null)
+     */
+    public static Cartographic toCartographic(Cartographicd cartographic, Cartographic result) {
+        if (cartographic == null) {
+            return null;
+        }
+        if (result == null) {
+            return new Cartographic(cartographic.longitude, cartographic.latitude, cartographic.height);
+        }
+        result.longitude = cartographic.longitude;
+        result.latitude = cartographic.latitude;
+        result.height = cartographic.height;
+        return result;
+    }
+
+    /**
+     * Compares the provided cartographics componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first cartographic.
+     * @param right The second cartographic.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Cartographicd left, Cartographicd right) {
+        return left == right || (left != null && right != null && left.longitude == right.longitude
+                && left.latitude == right.latitude && left.height == right.height);
+    }
+
+    /**
+     * Compares the provided cartographics componentwise and returns true if they are within the provided epsilon,
+     * false otherwise.
+     *
+     * @param left    The first cartographic.
+     * @param right   The second cartographic.
+     * @param epsilon The epsilon to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Cartographicd left, Cartographicd right, double epsilon) {
+        return left == right || (left != null && right != null
+                && java.lang.Math.abs(left.longitude - right.longitude) <= epsilon
+                && java.lang.Math.abs(left.latitude - right.latitude) <= epsilon
+                && java.lang.Math.abs(left.height - right.height) <= epsilon);
+    }
+
+    /**
+     * Sets the components of this cartographic.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param height    The height, in meters, above the ellipsoid.
+     * @return This cartographic.
+     */
+    public Cartographicd set(double longitude, double latitude, double height) {
+        this.longitude = longitude;
+        this.latitude = latitude;
+        this.height = height;
+        return this;
+    }
+
+    /**
+     * Duplicates this instance.
+     *
+     * @return A new Cartographicd instance.
+     */
+    public Cartographicd clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Cartographicd && equals(this, (Cartographicd) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.valueOf(longitude).hashCode();
+        hash = 31 * hash + Double.valueOf(latitude).hashCode();
+        return 31 * hash + Double.valueOf(height).hashCode();
+    }
+
+    /**
+     * Creates a string representing the provided cartographic in the format '(longitude, latitude, height)'.
+     *
+     * @return A string representing the provided cartographic in the format '(longitude, latitude, height)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + longitude + ", " + latitude + ", " + height + ")";
+    }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+/**
+ * Pure Java counterpart of {@link org.cesiumjs.cs.core.Math}. All members are plain Java and can be used
+ * both in GWT compiled code and on a server JVM without loading CesiumJS.
+ *
+ * @author Serge Silaev aka iSergio
+ */
+public final class CesiumMath {
+    public static final double EPSILON1 = 0.1;
+    public static final double EPSILON2 = 0.01;
+    public static final double EPSILON3 = 0.001;
+    public static final double EPSILON4 = 0.0001;
+    public static final double EPSILON5 = 0.00001;
+    public static final double EPSILON6 = 0.000001;
+    public static final double EPSILON7 = 0.0000001;
+    public static final double EPSILON8 = 0.00000001;
+    public static final double EPSILON9 = 0.000000001;
+    public static final double EPSILON10 = 0.0000000001;
+    public static final double EPSILON11 = 0.00000000001;
+    public static final double EPSILON12 = 0.000000000001;
+    public static final double EPSILON13 = 0.0000000000001;
+    public static final double EPSILON14 = 0.00000000000001;
+    public static final double EPSILON15 = 0.000000000000001;
+    public static final double EPSILON16 = 0.0000000000000001;
+    public static final double EPSILON17 = 0.00000000000000001;
+    public static final double EPSILON18 = 0.000000000000000001;
+    public static final double EPSILON19 = 0.0000000000000000001;
+    public static final double EPSILON20 = 0.00000000000000000001;
+    public static final double EPSILON21 = 0.000000000000000000001;
+
+    /**
+     * pi
+     */
+    public static final double PI = java.lang.Math.PI;
+    /**
+     * 1/pi
+     */
+    public static final double ONE_OVER_PI = 1.0 / PI;
+    /**
+     * pi/2
+     */
+    public static final double PI_OVER_TWO = PI / 2.0;
+    /**
+     * pi/3
+     */
+    public static final double PI_OVER_THREE = PI / 3.0;
+    /**
+     * pi/4
+     */
+    public static final double PI_OVER_FOUR = PI / 4.0;
+    /**
+     * pi/6
+     */
+    public static final double PI_OVER_SIX = PI / 6.0;
+    /**
+     * 3pi/2
+     */
+    public static final double THREE_PI_OVER_TWO = 3.0 * PI / 2.0;
+    /**
+     * 2pi
+     */
+    public static final double TWO_PI = 2.0 * PI;
+    /**
+     * 1/2pi
+     */
+    public static final double ONE_OVER_TWO_PI = 1.0 / (2.0 * PI);
+    /**
+     * The number of radians in a degree.
+     */
+    public static final double RADIANS_PER_DEGREE = PI / 180.0;
+    /**
+     * The number of degrees in a radian.
+     */
+    public static final double DEGREES_PER_RADIAN = 180.0 / PI;
+    /**
+     * The number of radians in an arc second.
+     */
+    public static final double RADIANS_PER_ARCSECOND = RADIANS_PER_DEGREE / 3600.0;
+
+    private CesiumMath() {
+    }
+
+    /**
+     * Returns the sign of the value; 1 if the value is positive, -1 if the value is negative, or 0 if the value is 0.
+     *
+     * @param value The value to return the sign of.
+     * @return The sign of value.
+     */
+    public static double sign(double value) {
+        if (value > 0.0) {
+            return 1.0;
+        }
+        if (value < 0.0) {
+            return -1.0;
+        }
+        return value;
+    }
+
+    /**
+     * Returns 1.0 if the given value is positive or zero, and -1.0 if it is negative.
+     *
+     * @param value The value to return the sign of.
+     * @return The sign of value.
+     */
+    public static double signNotZero(double value) {
+        return value < 0.0 ? -1.0 : 1.0;
+    }
+
+    /**
+     * Computes the linear interpolation of two values.
+     *
+     * @param p    The start value to interpolate.
+     * @param q    The end value to interpolate.
+     * @param time The time of interpolation generally in the range [0.0, 1.0].
+     * @return The linearly interpolated value.
+     */
+    public static double lerp(double p, double q, double time) {
+        return (1.0 - time) * p + time * q;
+    }
+
+    /**
+     * Converts degrees to radians.
+     *
+     * @param degrees The angle to convert in degrees.
+     * @return The corresponding angle in radians.
+     */
+    public static double toRadians(double degrees) {
+        return degrees * RADIANS_PER_DEGREE;
+    }
+
+    /**
+     * Converts radians to degrees.
+     *
+     * @param radians The angle to convert in radians.
+     * @return The corresponding angle in degrees.
+     */
+    public static double toDegrees(double radians) {
+        return radians * DEGREES_PER_RADIAN;
+    }
+
+    /**
+     * The modulo operation that also works for negative dividends.
+     *
+     * @param m The dividend.
+     * @param n The divisor.
+     * @return The remainder.
+     */
+    public static double mod(double m, double n) {
+        if (sign(m) == sign(n) && java.lang.Math.abs(m) < java.lang.Math.abs(n)) {
+            return m;
+        }
+        return ((m % n) + n) % n;
+    }
+
+    /**
+     * Produces an angle in the range -Pi &lt;= angle &lt;= Pi which is equivalent to the provided angle.
+     *
+     * @param angle in radians
+     * @return The angle in the range [-CesiumMath.PI, CesiumMath.PI].
+     */
+    public static double negativePiToPi(double angle) {
+        if (angle >= -PI && angle <= PI) {
+            return angle;
+        }
+        return zeroToTwoPi(angle + PI) - PI;
+    }
+
+    /**
+     * Produces an angle in the range 0 &lt;= angle &lt;= 2Pi which is equivalent to the provided angle.
+     *
+     * @param angle in radians
+     * @return The angle in the range [0, CesiumMath.TWO_PI].
+     */
+    public static double zeroToTwoPi(double angle) {
+        if (angle >= 0 && angle <= TWO_PI) {
+            return angle;
+        }
+        double mod = mod(angle, TWO_PI);
+        if (java.lang.Math.abs(mod) < EPSILON14 && java.lang.Math.abs(angle) > EPSILON14) {
+            return TWO_PI;
+        }
+        return mod;
+    }
+
+    /**
+     * Convenience function that clamps a latitude value, in radians, to the range [-Math.PI/2, Math.PI/2].
+     *
+     * @param angle The latitude value, in radians, to clamp to the range [-Math.PI/2, Math.PI/2].
+     * @return The latitude value clamped to the range [-Math.PI/2, Math.PI/2].
+     */
+    public static double clampToLatitudeRange(double angle) {
+        return clamp(angle, -PI_OVER_TWO, PI_OVER_TWO);
+    }
+
+    /**
+     * Converts a longitude value, in radians, to the range [-Math.PI, Math.PI).
+     *
+     * @param angle The longitude value, in radians, to convert to the range [-Math.PI, Math.PI).
+     * @return The equivalent longitude value in the range [-Math.PI, Math.PI).
+     */
+    public static double convertLongitudeRange(double angle) {
+        double simplified = angle - java.lang.Math.floor(angle / TWO_PI) * TWO_PI;
+        if (simplified < -PI) {
+            return simplified + TWO_PI;
+        }
+        if (simplified >= PI) {
+            return simplified - TWO_PI;
+        }
+        return simplified;
+    }
+
+    /**
+     * Constraint a value to lie between two values.
+     *
+     * @param value The value to constrain.
+     * @param min   The minimum value.
+     * @param max   The maximum value.
+     * @return The value clamped so that min &lt;= value &lt;= max.
+     */
+    public static double clamp(double value, double min, double max) {
+        return value < min ? min : value > max ? max : value;
+    }
+
+    /**
+     * Computes Math.acos(value), but first clamps value to the range [-1.0, 1.0] so that the function will never
+     * return NaN.
+     *
+     * @param value The value for which to compute acos.
+     * @return The acos of the value if the value is in the range [-1.0, 1.0], or the acos of -1.0 or 1.0,
+     * whichever is closer, if the value is outside the range.
+     */
+    public static double acosClamped(double value) {
+        return java.lang.Math.acos(clamp(value, -1.0, 1.0));
+    }
+
+    /**
+     * Computes Math.asin(value), but first clamps value to the range [-1.0, 1.0] so that the function will never
+     * return NaN.
+     *
+     * @param value The value for which to compute asin.
+     * @return The asin of the value if the value is in the range [-1.0, 1.0], or the asin of -1.0 or 1.0,
+     * whichever is closer, if the value is outside the range.
+     */
+    public static double asinClamped(double value) {
+        return java.lang.Math.asin(clamp(value, -1.0, 1.0));
+    }
+
+    /**
+     * Finds the chord length between two points given the circle's radius and the angle between the points.
+     *
+     * @param angle  The angle between the two points.
+     * @param radius The radius of the circle.
+     * @return The chord length.
+     */
+    public static double chordLength(double angle, double radius) {
+        return 2.0 * radius * java.lang.Math.sin(angle * 0.5);
+    }
+
+    /**
+     * Determines if two values are equal using an absolute or relative tolerance test.
+     *
+     * @param left            The first value to compare.
+     * @param right           The other value to compare.
+     * @param relativeEpsilon The maximum inclusive delta between left and right for the relative tolerance test.
+     * @return true if the values are equal within the epsilon; otherwise, false.
+     */
+    public static boolean equalsEpsilon(double left, double right, double relativeEpsilon) {
+        return equalsEpsilon(left, right, relativeEpsilon, relativeEpsilon);
+    }
+
+    /**
+     * Determines if two values are equal using an absolute or relative tolerance test.
+     *
+     * @param left            The first value to compare.
+     * @param right           The other value to compare.
+     * @param relativeEpsilon The maximum inclusive delta between left and right for the relative tolerance test.
+     * @param absoluteEpsilon The maximum inclusive delta between left and right for the absolute tolerance test.
+     * @return true if the values are equal within the epsilon; otherwise, false.
+     */
+    public static boolean equalsEpsilon(double left, double right, double relativeEpsilon, double absoluteEpsilon) {
+        double absDiff = java.lang.Math.abs(left - right);
+        return absDiff <= absoluteEpsilon
+                || absDiff <= relativeEpsilon * java.lang.Math.max(java.lang.Math.abs(left), java.lang.Math.abs(right));
+    }
+}
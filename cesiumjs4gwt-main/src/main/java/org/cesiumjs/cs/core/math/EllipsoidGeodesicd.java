@@ -0,0 +1,198 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.EllipsoidGeodesic;
+
+/**
+ * Initializes a geodesic on the ellipsoid connecting the two provided planetodetic points, implemented in pure
+ * Java. Mirrors the API of {@link EllipsoidGeodesic}, but solves the geodesic with {@link Geodesicd}, so it is
+ * accurate for nearly antipodal points and can be reused for many segments without crossing into JavaScript.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see EllipsoidGeodesic
+ * @see Geodesicd
+ */
+public final class EllipsoidGeodesicd {
+    private final Ellipsoidd ellipsoid;
+    private final Geodesicd geodesic;
+    private final Geodesicd.Workspace workspace = new Geodesicd.Workspace();
+    private final Geodesicd.Line line = new Geodesicd.Line();
+    private final double[] scratch = new double[2];
+    private final Cartographicd start = new Cartographicd();
+    private final Cartographicd end = new Cartographicd();
+    private double startHeading = Double.NaN;
+    private double endHeading = Double.NaN;
+    private double surfaceDistance = Double.NaN;
+    private boolean hasEndPoints;
+
+    /**
+     * Initializes a geodesic on the WGS84 ellipsoid. Set its end points with
+     * {@link #setEndPoints(Cartographicd, Cartographicd)} before use.
+     */
+    public EllipsoidGeodesicd() {
+        this(null, null, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Initializes a geodesic on the WGS84 ellipsoid connecting the two provided planetodetic points.
+     *
+     * @param start The initial planetodetic point on the path.
+     * @param end   The final planetodetic point on the path.
+     */
+    public EllipsoidGeodesicd(Cartographicd start, Cartographicd end) {
+        this(start, end, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Initializes a geodesic on the ellipsoid connecting the two provided planetodetic points.
+     *
+     * @param start     The initial planetodetic point on the path.
+     * @param end       The final planetodetic point on the path.
+     * @param ellipsoid The ellipsoid on which the geodesic lies.
+     */
+    public EllipsoidGeodesicd(Cartographicd start, Cartographicd end, Ellipsoidd ellipsoid) {
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        this.ellipsoid = ellipsoid;
+        geodesic = ellipsoid == Ellipsoidd.WGS84 ? Geodesicd.WGS84 : new Geodesicd(ellipsoid);
+        if (start != null && end != null) {
+            setEndPoints(start, end);
+        }
+    }
+
+    /**
+     * Gets the ellipsoid.
+     *
+     * @return The ellipsoid.
+     */
+    public Ellipsoidd getEllipsoid() {
+        return ellipsoid;
+    }
+
+    /**
+     * Gets the initial planetodetic point on the path. The returned instance must not be modified.
+     *
+     * @return The initial point.
+     */
+    public Cartographicd getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the final planetodetic point on the path. The returned instance must not be modified.
+     *
+     * @return The final point.
+     */
+    public Cartographicd getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the heading at the initial point.
+     *
+     * @return The heading, in radians.
+     */
+    public double getStartHeading() {
+        checkEndPoints();
+        return startHeading;
+    }
+
+    /**
+     * Gets the heading at the final point.
+     *
+     * @return The heading, in radians.
+     */
+    public double getEndHeading() {
+        checkEndPoints();
+        return endHeading;
+    }
+
+    /**
+     * Gets the surface distance between the start and end point.
+     *
+     * @return The distance, in meters.
+     */
+    public double getSurfaceDistance() {
+        checkEndPoints();
+        return surfaceDistance;
+    }
+
+    /**
+     * Sets the start and end points of the geodesic.
+     *
+     * @param start The initial planetodetic point on the path.
+     * @param end   The final planetodetic point on the path.
+     */
+    public void setEndPoints(Cartographicd start, Cartographicd end) {
+        if (start == null) {
+            throw new DeveloperError("start is required.");
+        }
+        if (end == null) {
+            throw new DeveloperError("end is required.");
+        }
+        Cartographicd.clone(start, this.start);
+        Cartographicd.clone(end, this.end);
+        this.start.height = 0.0;
+        this.end.height = 0.0;
+
+        double startLatitude = Math.toDegrees(start.latitude);
+        double startLongitude = Math.toDegrees(start.longitude);
+        geodesic.inverse(workspace, startLatitude, startLongitude, Math.toDegrees(end.latitude),
+                Math.toDegrees(end.longitude));
+        surfaceDistance = workspace.s12;
+        startHeading = Math.toRadians(workspace.azi1);
+        endHeading = Math.toRadians(workspace.azi2);
+        geodesic.initializeLine(line, workspace, startLatitude, startLongitude, workspace.azi1);
+        hasEndPoints = true;
+    }
+
+    /**
+     * Provides the location of a point at the indicated portion along the geodesic.
+     *
+     * @param fraction The portion of the distance between the initial and final points.
+     * @param result   The object in which to store the result.
+     * @return The location of the point along the geodesic.
+     */
+    public Cartographicd interpolateUsingFraction(double fraction, Cartographicd result) {
+        return interpolateUsingSurfaceDistance(getSurfaceDistance() * fraction, result);
+    }
+
+    /**
+     * Provides the location of a point at the indicated distance along the geodesic.
+     *
+     * @param distance The distance from the initial point to the point of interest along the geodesic.
+     * @param result   The object in which to store the result.
+     * @return The location of the point along the geodesic.
+     */
+    public Cartographicd interpolateUsingSurfaceDistance(double distance, Cartographicd result) {
+        checkEndPoints();
+        geodesic.position(line, workspace, distance, scratch, 0);
+        if (result == null) {
+            return new Cartographicd(scratch[0], scratch[1], 0.0);
+        }
+        return result.set(scratch[0], scratch[1], 0.0);
+    }
+
+    private void checkEndPoints() {
+        if (!hasEndPoints) {
+            throw new DeveloperError("start and end must be set.");
+        }
+    }
+}
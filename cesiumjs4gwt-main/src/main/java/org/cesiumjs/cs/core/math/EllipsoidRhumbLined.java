@@ -0,0 +1,464 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.EllipsoidRhumbLine;
+
+/**
+ * Initializes a rhumb line on the ellipsoid connecting the two provided planetodetic points, implemented in pure
+ * Java. Mirrors the API of {@link EllipsoidRhumbLine}. The rhumb line is a straight line in isometric latitude and
+ * longitude; distances along it are computed from the meridian arc length, expanded to fourth order in the third
+ * flattening, which is accurate to well below a millimeter on the WGS84 ellipsoid.
+ * <p>
+ * The static methods measure and densify whole paths of packed coordinates without creating a rhumb line per
+ * segment.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see EllipsoidRhumbLine
+ * @see Geodesicd
+ */
+public final class EllipsoidRhumbLined {
+    private static final double EPSILON = CesiumMath.EPSILON12;
+
+    private final Ellipsoidd ellipsoid;
+    private final double a;
+    private final double e;
+    private final double e2;
+    private final double rectifyingRadius;
+    private final double h1;
+    private final double h2;
+    private final double h3;
+    private final double h4;
+    private final double g1;
+    private final double g2;
+    private final double g3;
+    private final double g4;
+
+    private final Cartographicd start = new Cartographicd();
+    private final Cartographicd end = new Cartographicd();
+    private double heading = Double.NaN;
+    private double surfaceDistance = Double.NaN;
+    private double startIsometricLatitude;
+    private boolean hasEndPoints;
+
+    /**
+     * Initializes a rhumb line on the WGS84 ellipsoid. Set its end points with
+     * {@link #setEndPoints(Cartographicd, Cartographicd)} before use.
+     */
+    public EllipsoidRhumbLined() {
+        this(null, null, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Initializes a rhumb line on the WGS84 ellipsoid connecting the two provided planetodetic points.
+     *
+     * @param start The initial planetodetic point on the path.
+     * @param end   The final planetodetic point on the path.
+     */
+    public EllipsoidRhumbLined(Cartographicd start, Cartographicd end) {
+        this(start, end, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Initializes a rhumb line on the ellipsoid connecting the two provided planetodetic points.
+     *
+     * @param start     The initial planetodetic point on the path.
+     * @param end       The final planetodetic point on the path.
+     * @param ellipsoid The ellipsoid on which the rhumb line lies.
+     */
+    public EllipsoidRhumbLined(Cartographicd start, Cartographicd end, Ellipsoidd ellipsoid) {
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        this.ellipsoid = ellipsoid;
+        a = ellipsoid.getMaximumRadius();
+        double b = ellipsoid.getMinimumRadius();
+        e2 = (a * a - b * b) / (a * a);
+        e = Math.sqrt(e2);
+        double n = (a - b) / (a + b);
+        double n2 = n * n;
+        double n3 = n2 * n;
+        double n4 = n3 * n;
+        rectifyingRadius = a / (1 + n) * (1 + n2 / 4 + n4 / 64);
+        h1 = -3 * n / 2 + 9 * n3 / 16;
+        h2 = 15 * n2 / 16 - 15 * n4 / 32;
+        h3 = -35 * n3 / 48;
+        h4 = 315 * n4 / 512;
+        g1 = 3 * n / 2 - 27 * n3 / 32;
+        g2 = 21 * n2 / 16 - 55 * n4 / 32;
+        g3 = 151 * n3 / 96;
+        g4 = 1097 * n4 / 512;
+        if (start != null && end != null) {
+            setEndPoints(start, end);
+        }
+    }
+
+    /**
+     * Create a rhumb line using an initial position with a heading and distance.
+     *
+     * @param start     The initial planetodetic point on the path.
+     * @param heading   The heading in radians.
+     * @param distance  The rhumb line distance between the start and end point.
+     * @param ellipsoid The ellipsoid on which the rhumb line lies.
+     * @param result    The object in which to store the result.
+     * @return The modified result parameter or a new EllipsoidRhumbLined instance if one was not provided.
+     * @throws DeveloperError if the rhumb line reaches a pole before the distance.
+     */
+    public static EllipsoidRhumbLined fromStartHeadingDistance(Cartographicd start, double heading, double distance,
+                                                               Ellipsoidd ellipsoid, EllipsoidRhumbLined result) {
+        if (start == null) {
+            throw new DeveloperError("start is required.");
+        }
+        if (ellipsoid == null) {
+            ellipsoid = Ellipsoidd.WGS84;
+        }
+        if (result == null || result.ellipsoid != ellipsoid) {
+            result = new EllipsoidRhumbLined(null, null, ellipsoid);
+        }
+        double[] scratch = new double[2];
+        result.direct(start.longitude, start.latitude, heading, distance, scratch, 0);
+        result.setEndPoints(start, new Cartographicd(scratch[0], scratch[1], 0.0));
+        return result;
+    }
+
+    /**
+     * Computes the rhumb line distances between consecutive points of a path.
+     *
+     * @param positions    The packed longitude and latitude of the points, in radians. Further components, such as
+     *                     heights, are skipped according to the stride.
+     * @param offset       The index of the first point in the array.
+     * @param stride       The number of elements per point, at least 2.
+     * @param count        The number of points.
+     * @param ellipsoid    The ellipsoid on which the path lies.
+     * @param result       The array onto which to store the count - 1 distances, in meters.
+     * @param resultOffset The index of the first element to write.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public static double[] surfaceDistances(double[] positions, int offset, int stride, int count,
+                                            Ellipsoidd ellipsoid, double[] result, int resultOffset) {
+        checkPath(positions, offset, stride, count);
+        int segments = Math.max(count - 1, 0);
+        if (result == null) {
+            result = new double[resultOffset + segments];
+        }
+        Geodesicd.checkRange(result.length, resultOffset, 1, 1, segments);
+        EllipsoidRhumbLined line = new EllipsoidRhumbLined(null, null, ellipsoid);
+        for (int i = 0; i < segments; i++) {
+            int index = offset + i * stride;
+            line.solve(positions[index], positions[index + 1], positions[index + stride],
+                    positions[index + stride + 1]);
+            result[resultOffset + i] = line.surfaceDistance;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the rhumb line length of a path, the sum of the distances between its consecutive points.
+     *
+     * @param positions The packed longitude and latitude of the points, in radians. Further components, such as
+     *                  heights, are skipped according to the stride.
+     * @param offset    The index of the first point in the array.
+     * @param stride    The number of elements per point, at least 2.
+     * @param count     The number of points.
+     * @param ellipsoid The ellipsoid on which the path lies.
+     * @return The length of the path, in meters.
+     */
+    public static double pathLength(double[] positions, int offset, int stride, int count, Ellipsoidd ellipsoid) {
+        checkPath(positions, offset, stride, count);
+        EllipsoidRhumbLined line = new EllipsoidRhumbLined(null, null, ellipsoid);
+        double sum = 0.0;
+        for (int i = 0; i < count - 1; i++) {
+            int index = offset + i * stride;
+            line.solve(positions[index], positions[index + 1], positions[index + stride],
+                    positions[index + stride + 1]);
+            sum += line.surfaceDistance;
+        }
+        return sum;
+    }
+
+    /**
+     * Gets the ellipsoid.
+     *
+     * @return The ellipsoid.
+     */
+    public Ellipsoidd getEllipsoid() {
+        return ellipsoid;
+    }
+
+    /**
+     * Gets the initial planetodetic point on the path. The returned instance must not be modified.
+     *
+     * @return The initial point.
+     */
+    public Cartographicd getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the final planetodetic point on the path. The returned instance must not be modified.
+     *
+     * @return The final point.
+     */
+    public Cartographicd getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the heading from the start point to the end point.
+     *
+     * @return The heading, in radians.
+     */
+    public double getHeading() {
+        checkEndPoints();
+        return heading;
+    }
+
+    /**
+     * Gets the surface distance between the start and end point.
+     *
+     * @return The distance, in meters.
+     */
+    public double getSurfaceDistance() {
+        checkEndPoints();
+        return surfaceDistance;
+    }
+
+    /**
+     * Sets the start and end points of the rhumb line.
+     *
+     * @param start The initial planetodetic point on the path.
+     * @param end   The final planetodetic point on the path.
+     */
+    public void setEndPoints(Cartographicd start, Cartographicd end) {
+        if (start == null) {
+            throw new DeveloperError("start is required.");
+        }
+        if (end == null) {
+            throw new DeveloperError("end is required.");
+        }
+        solve(start.longitude, start.latitude, end.longitude, end.latitude);
+        this.start.set(start.longitude, start.latitude, 0.0);
+        this.end.set(end.longitude, end.latitude, 0.0);
+        hasEndPoints = true;
+    }
+
+    /**
+     * Provides the location of a point at the indicated portion along the rhumb line.
+     *
+     * @param fraction The portion of the distance between the initial and final points.
+     * @param result   The object in which to store the result.
+     * @return The location of the point along the rhumb line.
+     */
+    public Cartographicd interpolateUsingFraction(double fraction, Cartographicd result) {
+        return interpolateUsingSurfaceDistance(getSurfaceDistance() * fraction, result);
+    }
+
+    /**
+     * Provides the location of a point at the indicated distance along the rhumb line.
+     *
+     * @param distance The distance from the initial point to the point of interest along the rhumb line.
+     * @param result   The object in which to store the result.
+     * @return The location of the point along the rhumb line.
+     * @throws DeveloperError if the rhumb line reaches a pole before the distance.
+     */
+    public Cartographicd interpolateUsingSurfaceDistance(double distance, Cartographicd result) {
+        checkEndPoints();
+        double[] scratch = new double[2];
+        direct(start.longitude, start.latitude, heading, distance, scratch, 0);
+        if (result == null) {
+            return new Cartographicd(scratch[0], scratch[1], 0.0);
+        }
+        return result.set(scratch[0], scratch[1], 0.0);
+    }
+
+    /**
+     * Computes evenly spaced points along the rhumb line, including both end points.
+     *
+     * @param count        The number of points, at least 2.
+     * @param result       The array onto which to store the packed longitude and latitude of the points, in radians.
+     * @param resultOffset The index of the first element to write.
+     * @param resultStride The number of elements per point, at least 2. Further elements are left unchanged, so a
+     *                     stride of 3 keeps room for heights.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] interpolate(int count, double[] result, int resultOffset, int resultStride) {
+        checkEndPoints();
+        if (count < 2) {
+            throw new DeveloperError("count must be at least 2.");
+        }
+        if (resultStride < 2) {
+            throw new DeveloperError("resultStride must be at least 2.");
+        }
+        if (result == null) {
+            result = new double[resultOffset + resultStride * count];
+        }
+        Geodesicd.checkRange(result.length, resultOffset, resultStride, 2, count);
+        for (int i = 0; i < count; i++) {
+            direct(start.longitude, start.latitude, heading, surfaceDistance * i / (count - 1), result,
+                    resultOffset + i * resultStride);
+        }
+        int last = resultOffset + (count - 1) * resultStride;
+        result[last] = end.longitude;
+        result[last + 1] = end.latitude;
+        return result;
+    }
+
+    /**
+     * Provides the location of a point at the indicated latitude along the rhumb line. If the latitude is outside
+     * the range of start and end points, the intersection with the latitude on the extension of the rhumb line is
+     * returned.
+     *
+     * @param intersectionLatitude The latitude, in radians, at which to find the intersection point.
+     * @param result               The object in which to store the result.
+     * @return The location of the intersection point along the rhumb line, null if there is no intersection or
+     * infinite intersections.
+     */
+    public Cartographicd findIntersectionWithLatitude(double intersectionLatitude, Cartographicd result) {
+        checkEndPoints();
+        if (Math.abs(Math.cos(heading)) < EPSILON || Math.abs(intersectionLatitude) > CesiumMath.PI_OVER_TWO) {
+            return null;
+        }
+        double deltaPsi = isometricLatitude(intersectionLatitude) - startIsometricLatitude;
+        double longitude = CesiumMath.negativePiToPi(start.longitude + Math.tan(heading) * deltaPsi);
+        if (result == null) {
+            return new Cartographicd(longitude, intersectionLatitude, 0.0);
+        }
+        return result.set(longitude, intersectionLatitude, 0.0);
+    }
+
+    /**
+     * Provides the location of a point at the indicated longitude along the rhumb line. If the longitude is outside
+     * the range of start and end points, the first intersection with the longitude from the start point in the
+     * direction of the heading is returned. This follows the spiral property of a rhumb line.
+     *
+     * @param intersectionLongitude The longitude, in radians, at which to find the intersection point.
+     * @param result                The object in which to store the result.
+     * @return The location of the intersection point along the rhumb line, null if there is no intersection or
+     * infinite intersections.
+     */
+    public Cartographicd findIntersectionWithLongitude(double intersectionLongitude, Cartographicd result) {
+        checkEndPoints();
+        double sinHeading = Math.sin(heading);
+        if (Math.abs(sinHeading) < EPSILON) {
+            return null;
+        }
+        double deltaLongitude = CesiumMath.zeroToTwoPi(intersectionLongitude - start.longitude);
+        if (sinHeading < 0 && deltaLongitude != 0.0) {
+            deltaLongitude -= CesiumMath.TWO_PI;
+        }
+        double latitude = inverseIsometricLatitude(startIsometricLatitude + deltaLongitude / Math.tan(heading));
+        double longitude = CesiumMath.negativePiToPi(intersectionLongitude);
+        if (result == null) {
+            return new Cartographicd(longitude, latitude, 0.0);
+        }
+        return result.set(longitude, latitude, 0.0);
+    }
+
+    private void solve(double startLongitude, double startLatitude, double endLongitude, double endLatitude) {
+        startIsometricLatitude = isometricLatitude(startLatitude);
+        double deltaPsi = isometricLatitude(endLatitude) - startIsometricLatitude;
+        double deltaLongitude = CesiumMath.negativePiToPi(endLongitude - startLongitude);
+        double deltaArcLength = meridianArcLength(endLatitude) - meridianArcLength(startLatitude);
+        // scale = dM / dPsi, which tends to the radius of the parallel for lines close to east-west
+        double scale = Math.abs(deltaPsi) > EPSILON ? deltaArcLength / deltaPsi : parallelRadius(startLatitude);
+        heading = Math.atan2(deltaLongitude, deltaPsi);
+        surfaceDistance = Math.abs(scale) * Math.sqrt(deltaPsi * deltaPsi + deltaLongitude * deltaLongitude);
+        if (Double.isInfinite(deltaPsi)) {
+            // One end point is a pole: the line is a meridian.
+            heading = deltaPsi > 0 ? 0.0 : Math.PI;
+            surfaceDistance = Math.abs(deltaArcLength);
+        }
+    }
+
+    private void direct(double startLongitude, double startLatitude, double heading, double distance,
+                        double[] result, int resultOffset) {
+        double cosHeading = Math.cos(heading);
+        double sinHeading = Math.sin(heading);
+        double startArc = meridianArcLength(startLatitude);
+        double mu = (startArc + distance * cosHeading) / rectifyingRadius;
+        if (Math.abs(mu) > CesiumMath.PI_OVER_TWO + EPSILON) {
+            throw new DeveloperError("The rhumb line reaches a pole before the distance.");
+        }
+        double latitude = CesiumMath.clampToLatitudeRange(rectifyingToGeodeticLatitude(mu));
+        double deltaPsi = isometricLatitude(latitude) - isometricLatitude(startLatitude);
+        double localScale = Math.abs(deltaPsi) > EPSILON
+                ? (meridianArcLength(latitude) - startArc) / deltaPsi
+                : parallelRadius(startLatitude);
+        double longitude = startLongitude;
+        if (localScale != 0.0 && !Double.isInfinite(deltaPsi)) {
+            longitude = CesiumMath.negativePiToPi(startLongitude + distance * sinHeading / localScale);
+        }
+        result[resultOffset] = longitude;
+        result[resultOffset + 1] = latitude;
+    }
+
+    private double isometricLatitude(double latitude) {
+        double sinLatitude = Math.sin(latitude);
+        double t = Math.abs(Math.tan(latitude));
+        double conformal = Math.log(t + Math.sqrt(t * t + 1));
+        if (latitude < 0) {
+            conformal = -conformal;
+        }
+        return conformal - e * atanh(e * sinLatitude);
+    }
+
+    private double inverseIsometricLatitude(double psi) {
+        double sinhPsi = 0.5 * (Math.exp(psi) - Math.exp(-psi));
+        double latitude = Math.atan(sinhPsi);
+        for (int i = 0; i < 10; i++) {
+            double shifted = psi + e * atanh(e * Math.sin(latitude));
+            double next = Math.atan(0.5 * (Math.exp(shifted) - Math.exp(-shifted)));
+            if (Math.abs(next - latitude) < CesiumMath.EPSILON15) {
+                return next;
+            }
+            latitude = next;
+        }
+        return latitude;
+    }
+
+    private double meridianArcLength(double latitude) {
+        return rectifyingRadius * (latitude + h1 * Math.sin(2 * latitude) + h2 * Math.sin(4 * latitude)
+                + h3 * Math.sin(6 * latitude) + h4 * Math.sin(8 * latitude));
+    }
+
+    private double rectifyingToGeodeticLatitude(double mu) {
+        return mu + g1 * Math.sin(2 * mu) + g2 * Math.sin(4 * mu) + g3 * Math.sin(6 * mu) + g4 * Math.sin(8 * mu);
+    }
+
+    private double parallelRadius(double latitude) {
+        double sinLatitude = Math.sin(latitude);
+        return a * Math.cos(latitude) / Math.sqrt(1 - e2 * sinLatitude * sinLatitude);
+    }
+
+    private static double atanh(double x) {
+        return 0.5 * Math.log((1 + x) / (1 - x));
+    }
+
+    private static void checkPath(double[] positions, int offset, int stride, int count) {
+        if (stride < 2) {
+            throw new DeveloperError("stride must be at least 2.");
+        }
+        Geodesicd.checkRange(positions.length, offset, stride, 2, count);
+    }
+
+    private void checkEndPoints() {
+        if (!hasEndPoints) {
+            throw new DeveloperError("start and end must be set.");
+        }
+    }
+}
@@ -0,0 +1,740 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Ellipsoid;
+
+/**
+ * A quadratic surface defined in Cartesian coordinates by the equation (x / a)^2 + (y / b)^2 + (z / c)^2 = 1,
+ * implemented in pure Java. Mirrors the conversions of {@link Ellipsoid} and adds bulk variants which convert
+ * packed longitude, latitude, height or x, y, z triples between caller-supplied arrays without allocating.
+ * Instances are immutable.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Ellipsoid
+ */
+public final class Ellipsoidd {
+    /**
+     * An Ellipsoid instance initialized to the WGS84 standard.
+     */
+    public static final Ellipsoidd WGS84 = new Ellipsoidd(6378137.0, 6378137.0, 6356752.3142451793);
+    /**
+     * An Ellipsoid instance initialized to radii of (1.0, 1.0, 1.0).
+     */
+    public static final Ellipsoidd UNIT_SPHERE = new Ellipsoidd(1.0, 1.0, 1.0);
+    /**
+     * An Ellipsoid instance initialized to a sphere with the lunar radius.
+     */
+    public static final Ellipsoidd MOON = new Ellipsoidd(1737400.0, 1737400.0, 1737400.0);
+
+    private static final double CENTER_TOLERANCE_SQUARED = CesiumMath.EPSILON1;
+
+    private final double radiiX;
+    private final double radiiY;
+    private final double radiiZ;
+    private final double radiiSquaredX;
+    private final double radiiSquaredY;
+    private final double radiiSquaredZ;
+    private final double oneOverRadiiX;
+    private final double oneOverRadiiY;
+    private final double oneOverRadiiZ;
+    final double oneOverRadiiSquaredX;
+    final double oneOverRadiiSquaredY;
+    final double oneOverRadiiSquaredZ;
+    private final double minimumRadius;
+    private final double maximumRadius;
+
+    /**
+     * A quadratic surface defined in Cartesian coordinates.
+     *
+     * @param x The radius in the x direction.
+     * @param y The radius in the y direction.
+     * @param z The radius in the z direction.
+     */
+    public Ellipsoidd(double x, double y, double z) {
+        if (x < 0.0 || y < 0.0 || z < 0.0) {
+            throw new DeveloperError("All radii components must be greater than or equal to zero.");
+        }
+        radiiX = x;
+        radiiY = y;
+        radiiZ = z;
+        radiiSquaredX = x * x;
+        radiiSquaredY = y * y;
+        radiiSquaredZ = z * z;
+        oneOverRadiiX = x == 0.0 ? 0.0 : 1.0 / x;
+        oneOverRadiiY = y == 0.0 ? 0.0 : 1.0 / y;
+        oneOverRadiiZ = z == 0.0 ? 0.0 : 1.0 / z;
+        oneOverRadiiSquaredX = x == 0.0 ? 0.0 : 1.0 / (x * x);
+        oneOverRadiiSquaredY = y == 0.0 ? 0.0 : 1.0 / (y * y);
+        oneOverRadiiSquaredZ = z == 0.0 ? 0.0 : 1.0 / (z * z);
+        minimumRadius = java.lang.Math.min(x, java.lang.Math.min(y, z));
+        maximumRadius = java.lang.Math.max(x, java.lang.Math.max(y, z));
+    }
+
+    /**
+     * Computes an Ellipsoidd from a Cartesian specifying the radii in x, y, and z directions.
+     *
+     * @param radii The ellipsoid's radius in the x, y, and z directions.
+     * @return A new Ellipsoidd instance.
+     */
+    public static Ellipsoidd fromCartesian3(Cartesian3d radii) {
+        return new Ellipsoidd(radii.x, radii.y, radii.z);
+    }
+
+    /**
+     * Copies the radii of a native {@link Ellipsoid}.
+     *
+     * @param ellipsoid The native ellipsoid.
+     * @return A new Ellipsoidd instance.
+     */
+    public static Ellipsoidd fromEllipsoid(Ellipsoid ellipsoid) {
+        Cartesian3 radii = ellipsoid.radii();
+        return new Ellipsoidd(radii.x, radii.y, radii.z);
+    }
+
+    /**
+     * Creates a native {@link Ellipsoid} with the same radii.
+     *
+     * @return A new Ellipsoid instance.
+     */
+    public Ellipsoid toEllipsoid() {
+        return Ellipsoid.fromCartesian3(new Cartesian3(radiiX, radiiY, radiiZ));
+    }
+
+    /**
+     * Gets the radii of the ellipsoid.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public Cartesian3d getRadii(Cartesian3d result) {
+        return Cartesian3d.fromElements(radiiX, radiiY, radiiZ, result);
+    }
+
+    /**
+     * Gets the squared radii of the ellipsoid.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public Cartesian3d getRadiiSquared(Cartesian3d result) {
+        return Cartesian3d.fromElements(radiiSquaredX, radiiSquaredY, radiiSquaredZ, result);
+    }
+
+    /**
+     * Gets one over the radii of the ellipsoid.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public Cartesian3d getOneOverRadii(Cartesian3d result) {
+        return Cartesian3d.fromElements(oneOverRadiiX, oneOverRadiiY, oneOverRadiiZ, result);
+    }
+
+    /**
+     * Gets one over the squared radii of the ellipsoid.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if one was not provided.
+     */
+    public Cartesian3d getOneOverRadiiSquared(Cartesian3d result) {
+        return Cartesian3d.fromElements(oneOverRadiiSquaredX, oneOverRadiiSquaredY, oneOverRadiiSquaredZ, result);
+    }
+
+    /**
+     * Gets the minimum radius of the ellipsoid.
+     *
+     * @return The minimum radius.
+     */
+    public double getMinimumRadius() {
+        return minimumRadius;
+    }
+
+    /**
+     * Gets the maximum radius of the ellipsoid.
+     *
+     * @return The maximum radius.
+     */
+    public double getMaximumRadius() {
+        return maximumRadius;
+    }
+
+    /**
+     * Computes the unit vector directed from the center of this ellipsoid toward the provided Cartesian position.
+     *
+     * @param cartesian The Cartesian for which to to determine the geocentric normal.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided.
+     */
+    public Cartesian3d geocentricSurfaceNormal(Cartesian3d cartesian, Cartesian3d result) {
+        return Cartesian3d.normalize(cartesian, result == null ? new Cartesian3d() : result);
+    }
+
+    /**
+     * Computes the normal of the plane tangent to the surface of the ellipsoid at the provided position.
+     *
+     * @param cartographic The cartographic position for which to to determine the geodetic normal.
+     * @param result       The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided.
+     */
+    public Cartesian3d geodeticSurfaceNormalCartographic(Cartographicd cartographic, Cartesian3d result) {
+        return geodeticSurfaceNormalCartographic(cartographic.longitude, cartographic.latitude, result);
+    }
+
+    /**
+     * Computes the normal of the plane tangent to the surface of the ellipsoid at the provided position.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided.
+     */
+    public Cartesian3d geodeticSurfaceNormalCartographic(double longitude, double latitude, Cartesian3d result) {
+        double cosLatitude = java.lang.Math.cos(latitude);
+        double x = cosLatitude * java.lang.Math.cos(longitude);
+        double y = cosLatitude * java.lang.Math.sin(longitude);
+        double z = java.lang.Math.sin(latitude);
+        double magnitude = java.lang.Math.sqrt(x * x + y * y + z * z);
+        return Cartesian3d.fromElements(x / magnitude, y / magnitude, z / magnitude, result);
+    }
+
+    /**
+     * Computes the normal of the plane tangent to the surface of the ellipsoid at the provided position.
+     *
+     * @param cartesian The Cartesian position for which to to determine the surface normal.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided, or null if a
+     * normal cannot be found.
+     */
+    public Cartesian3d geodeticSurfaceNormal(Cartesian3d cartesian, Cartesian3d result) {
+        if (java.lang.Math.abs(cartesian.x) <= CesiumMath.EPSILON14
+                && java.lang.Math.abs(cartesian.y) <= CesiumMath.EPSILON14
+                && java.lang.Math.abs(cartesian.z) <= CesiumMath.EPSILON14) {
+            return null;
+        }
+        double x = cartesian.x * oneOverRadiiSquaredX;
+        double y = cartesian.y * oneOverRadiiSquaredY;
+        double z = cartesian.z * oneOverRadiiSquaredZ;
+        double magnitude = java.lang.Math.sqrt(x * x + y * y + z * z);
+        return Cartesian3d.fromElements(x / magnitude, y / magnitude, z / magnitude, result);
+    }
+
+    /**
+     * Converts the provided cartographic to Cartesian representation.
+     *
+     * @param cartographic The cartographic position.
+     * @param result       The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided.
+     */
+    public Cartesian3d cartographicToCartesian(Cartographicd cartographic, Cartesian3d result) {
+        return cartographicToCartesian(cartographic.longitude, cartographic.latitude, cartographic.height, result);
+    }
+
+    /**
+     * Converts the provided cartographic to Cartesian representation.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param height    The height, in meters, above the ellipsoid.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided.
+     */
+    public Cartesian3d cartographicToCartesian(double longitude, double latitude, double height, Cartesian3d result) {
+        if (result == null) {
+            result = new Cartesian3d();
+        }
+        double cosLatitude = java.lang.Math.cos(latitude);
+        double nX = cosLatitude * java.lang.Math.cos(longitude);
+        double nY = cosLatitude * java.lang.Math.sin(longitude);
+        double nZ = java.lang.Math.sin(latitude);
+        double magnitude = java.lang.Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+        nX /= magnitude;
+        nY /= magnitude;
+        nZ /= magnitude;
+
+        double kX = radiiSquaredX * nX;
+        double kY = radiiSquaredY * nY;
+        double kZ = radiiSquaredZ * nZ;
+        double gamma = java.lang.Math.sqrt(nX * kX + nY * kY + nZ * kZ);
+
+        result.x = kX / gamma + nX * height;
+        result.y = kY / gamma + nY * height;
+        result.z = kZ / gamma + nZ * height;
+        return result;
+    }
+
+    /**
+     * Converts the provided cartesian to cartographic representation. The cartesian is undefined at the center of
+     * the ellipsoid.
+     *
+     * @param cartesian The Cartesian position to convert to cartographic representation.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter, new Cartographicd instance if none was provided, or null if the
+     * cartesian is at the center of the ellipsoid.
+     */
+    public Cartographicd cartesianToCartographic(Cartesian3d cartesian, Cartographicd result) {
+        return cartesianToCartographic(cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Converts the provided cartesian to cartographic representation. The cartesian is undefined at the center of
+     * the ellipsoid.
+     *
+     * @param x      The X component of the Cartesian position.
+     * @param y      The Y component of the Cartesian position.
+     * @param z      The Z component of the Cartesian position.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter, new Cartographicd instance if none was provided, or null if the
+     * cartesian is at the center of the ellipsoid.
+     */
+    public Cartographicd cartesianToCartographic(double x, double y, double z, Cartographicd result) {
+        Cartesian3d p = scaleToGeodeticSurface(x, y, z, new Cartesian3d());
+        if (p == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Cartographicd();
+        }
+        toCartographic(x, y, z, p, result);
+        return result;
+    }
+
+    /**
+     * Scales the provided Cartesian position along the geodetic surface normal so that it is on the surface of
+     * this ellipsoid. If the position is at the center of the ellipsoid, this function returns null.
+     *
+     * @param cartesian The Cartesian position to scale.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter, a new Cartesian3d instance if none was provided, or null if the
+     * position is at the center.
+     */
+    public Cartesian3d scaleToGeodeticSurface(Cartesian3d cartesian, Cartesian3d result) {
+        return scaleToGeodeticSurface(cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Scales the provided Cartesian position along the geodetic surface normal so that it is on the surface of
+     * this ellipsoid. If the position is at the center of the ellipsoid, this function returns null.
+     *
+     * @param positionX The X component of the Cartesian position.
+     * @param positionY The Y component of the Cartesian position.
+     * @param positionZ The Z component of the Cartesian position.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter, a new Cartesian3d instance if none was provided, or null if the
+     * position is at the center.
+     */
+    public Cartesian3d scaleToGeodeticSurface(double positionX, double positionY, double positionZ,
+                                              Cartesian3d result) {
+        // Compute the squared ellipsoid norm.
+        double x2 = positionX * positionX * oneOverRadiiX * oneOverRadiiX;
+        double y2 = positionY * positionY * oneOverRadiiY * oneOverRadiiY;
+        double z2 = positionZ * positionZ * oneOverRadiiZ * oneOverRadiiZ;
+
+        double squaredNorm = x2 + y2 + z2;
+        double ratio = java.lang.Math.sqrt(1.0 / squaredNorm);
+
+        // As an initial approximation, assume that the radial intersection is the projection point.
+        double intersectionX = positionX * ratio;
+        double intersectionY = positionY * ratio;
+        double intersectionZ = positionZ * ratio;
+
+        // If the position is near the center, the iteration will not converge.
+        if (squaredNorm < CENTER_TOLERANCE_SQUARED) {
+            if (Double.isInfinite(ratio) || Double.isNaN(ratio)) {
+                return null;
+            }
+            return Cartesian3d.fromElements(intersectionX, intersectionY, intersectionZ, result);
+        }
+
+        // Use the gradient at the intersection point in place of the true unit normal.
+        // The difference in magnitude will be absorbed in the multiplier.
+        double gradientX = intersectionX * oneOverRadiiSquaredX * 2.0;
+        double gradientY = intersectionY * oneOverRadiiSquaredY * 2.0;
+        double gradientZ = intersectionZ * oneOverRadiiSquaredZ * 2.0;
+
+        // Compute the initial guess at the normal vector multiplier, lambda.
+        double lambda = ((1.0 - ratio) * Cartesian3d.magnitude(positionX, positionY, positionZ))
+                / (0.5 * Cartesian3d.magnitude(gradientX, gradientY, gradientZ));
+        double correction = 0.0;
+
+        double func;
+        double xMultiplier;
+        double yMultiplier;
+        double zMultiplier;
+        do {
+            lambda -= correction;
+
+            xMultiplier = 1.0 / (1.0 + lambda * oneOverRadiiSquaredX);
+            yMultiplier = 1.0 / (1.0 + lambda * oneOverRadiiSquaredY);
+            zMultiplier = 1.0 / (1.0 + lambda * oneOverRadiiSquaredZ);
+
+            double xMultiplier2 = xMultiplier * xMultiplier;
+            double yMultiplier2 = yMultiplier * yMultiplier;
+            double zMultiplier2 = zMultiplier * zMultiplier;
+
+            double xMultiplier3 = xMultiplier2 * xMultiplier;
+            double yMultiplier3 = yMultiplier2 * yMultiplier;
+            double zMultiplier3 = zMultiplier2 * zMultiplier;
+
+            func = x2 * xMultiplier2 + y2 * yMultiplier2 + z2 * zMultiplier2 - 1.0;
+
+            // "denominator" here refers to the use of this expression in the velocity and acceleration
+            // computations in the sections to follow.
+            double denominator = x2 * xMultiplier3 * oneOverRadiiSquaredX + y2 * yMultiplier3 * oneOverRadiiSquaredY
+                    + z2 * zMultiplier3 * oneOverRadiiSquaredZ;
+
+            double derivative = -2.0 * denominator;
+
+            correction = func / derivative;
+        } while (java.lang.Math.abs(func) > CesiumMath.EPSILON12);
+
+        return Cartesian3d.fromElements(positionX * xMultiplier, positionY * yMultiplier, positionZ * zMultiplier,
+                result);
+    }
+
+    /**
+     * Scales the provided Cartesian position along the geocentric surface normal so that it is on the surface of
+     * this ellipsoid.
+     *
+     * @param cartesian The Cartesian position to scale.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3d instance if none was provided.
+     */
+    public Cartesian3d scaleToGeocentricSurface(Cartesian3d cartesian, Cartesian3d result) {
+        double positionX = cartesian.x;
+        double positionY = cartesian.y;
+        double positionZ = cartesian.z;
+
+        double beta = 1.0 / java.lang.Math.sqrt(positionX * positionX * oneOverRadiiSquaredX
+                + positionY * positionY * oneOverRadiiSquaredY + positionZ * positionZ * oneOverRadiiSquaredZ);
+
+        return Cartesian3d.multiplyByScalar(cartesian, beta, result == null ? new Cartesian3d() : result);
+    }
+
+    /**
+     * Converts packed longitude, latitude, height triples with longitude and latitude in radians to packed x, y, z
+     * triples.
+     *
+     * @param cartographics The packed longitude, latitude, height triples.
+     * @param sourceOffset  The index of the first element to read.
+     * @param result        The array onto which to store the packed x, y, z triples. May be the same array as
+     *                      cartographics.
+     * @param resultOffset  The index of the first element to write.
+     * @param count         The number of positions to convert.
+     * @return The result parameter.
+     */
+    public double[] fromRadiansArrayHeights(double[] cartographics, int sourceOffset, double[] result,
+                                            int resultOffset, int count) {
+        return cartographicArrayToCartesianArray(cartographics, sourceOffset, 1.0, result, resultOffset, count);
+    }
+
+    /**
+     * Converts packed longitude, latitude, height triples with longitude and latitude in degrees to packed x, y, z
+     * triples.
+     *
+     * @param cartographics The packed longitude, latitude, height triples.
+     * @param sourceOffset  The index of the first element to read.
+     * @param result        The array onto which to store the packed x, y, z triples. May be the same array as
+     *                      cartographics.
+     * @param resultOffset  The index of the first element to write.
+     * @param count         The number of positions to convert.
+     * @return The result parameter.
+     */
+    public double[] fromDegreesArrayHeights(double[] cartographics, int sourceOffset, double[] result,
+                                            int resultOffset, int count) {
+        return cartographicArrayToCartesianArray(cartographics, sourceOffset, CesiumMath.RADIANS_PER_DEGREE, result,
+                resultOffset, count);
+    }
+
+    /**
+     * Converts packed x, y, z triples to packed longitude, latitude, height triples with longitude and latitude in
+     * radians. Positions at the center of the ellipsoid are converted to NaN triples.
+     *
+     * @param cartesians   The packed x, y, z triples.
+     * @param sourceOffset The index of the first element to read.
+     * @param result       The array onto which to store the packed longitude, latitude, height triples. May be the
+     *                     same array as cartesians.
+     * @param resultOffset The index of the first element to write.
+     * @param count        The number of positions to convert.
+     * @return The result parameter.
+     */
+    public double[] toRadiansArrayHeights(double[] cartesians, int sourceOffset, double[] result, int resultOffset,
+                                          int count) {
+        return cartesianArrayToCartographicArray(cartesians, sourceOffset, 1.0, result, resultOffset, count);
+    }
+
+    /**
+     * Converts packed x, y, z triples to packed longitude, latitude, height triples with longitude and latitude in
+     * degrees. Positions at the center of the ellipsoid are converted to NaN triples.
+     *
+     * @param cartesians   The packed x, y, z triples.
+     * @param sourceOffset The index of the first element to read.
+     * @param result       The array onto which to store the packed longitude, latitude, height triples. May be the
+     *                     same array as cartesians.
+     * @param resultOffset The index of the first element to write.
+     * @param count        The number of positions to convert.
+     * @return The result parameter.
+     */
+    public double[] toDegreesArrayHeights(double[] cartesians, int sourceOffset, double[] result, int resultOffset,
+                                          int count) {
+        return cartesianArrayToCartographicArray(cartesians, sourceOffset, CesiumMath.DEGREES_PER_RADIAN, result,
+                resultOffset, count);
+    }
+
+    /**
+     * Converts packed longitude, latitude, height triples with longitude and latitude in radians to packed x, y, z
+     * triples.
+     *
+     * @param cartographics The packed longitude, latitude, height triples.
+     * @param sourceOffset  The index of the first element to read.
+     * @param result        The array onto which to store the packed x, y, z triples. May be the same array as
+     *                      cartographics.
+     * @param resultOffset  The index of the first element to write.
+     * @param count         The number of positions to convert.
+     * @return The result parameter.
+     */
+    public Float64Array fromRadiansArrayHeights(Float64Array cartographics, int sourceOffset, Float64Array result,
+                                                int resultOffset, int count) {
+        return cartographicArrayToCartesianArray(cartographics, sourceOffset, 1.0, result, resultOffset, count);
+    }
+
+    /**
+     * Converts packed longitude, latitude, height triples with longitude and latitude in degrees to packed x, y, z
+     * triples.
+     *
+     * @param cartographics The packed longitude, latitude, height triples.
+     * @param sourceOffset  The index of the first element to read.
+     * @param result        The array onto which to store the packed x, y, z triples. May be the same array as
+     *                      cartographics.
+     * @param resultOffset  The index of the first element to write.
+     * @param count         The number of positions to convert.
+     * @return The result parameter.
+     */
+    public Float64Array fromDegreesArrayHeights(Float64Array cartographics, int sourceOffset, Float64Array result,
+                                                int resultOffset, int count) {
+        return cartographicArrayToCartesianArray(cartographics, sourceOffset, CesiumMath.RADIANS_PER_DEGREE, result,
+                resultOffset, count);
+    }
+
+    /**
+     * Converts packed x, y, z triples to packed longitude, latitude, height triples with longitude and latitude in
+     * radians. Positions at the center of the ellipsoid are converted to NaN triples.
+     *
+     * @param cartesians   The packed x, y, z triples.
+     * @param sourceOffset The index of the first element to read.
+     * @param result       The array onto which to store the packed longitude, latitude, height triples. May be the
+     *                     same array as cartesians.
+     * @param resultOffset The index of the first element to write.
+     * @param count        The number of positions to convert.
+     * @return The result parameter.
+     */
+    public Float64Array toRadiansArrayHeights(Float64Array cartesians, int sourceOffset, Float64Array result,
+                                              int resultOffset, int count) {
+        return cartesianArrayToCartographicArray(cartesians, sourceOffset, 1.0, result, resultOffset, count);
+    }
+
+    /**
+     * Converts packed x, y, z triples to packed longitude, latitude, height triples with longitude and latitude in
+     * degrees. Positions at the center of the ellipsoid are converted to NaN triples.
+     *
+     * @param cartesians   The packed x, y, z triples.
+     * @param sourceOffset The index of the first element to read.
+     * @param result       The array onto which to store the packed longitude, latitude, height triples. May be the
+     *                     same array as cartesians.
+     * @param resultOffset The index of the first element to write.
+     * @param count        The number of positions to convert.
+     * @return The result parameter.
+     */
+    public Float64Array toDegreesArrayHeights(Float64Array cartesians, int sourceOffset, Float64Array result,
+                                              int resultOffset, int count) {
+        return cartesianArrayToCartographicArray(cartesians, sourceOffset, CesiumMath.DEGREES_PER_RADIAN, result,
+                resultOffset, count);
+    }
+
+    /**
+     * Converts a packed buffer of longitude, latitude, height triples with longitude and latitude in degrees, as
+     * stored in a {@link Cartesian3Buffer}, to Cartesian positions in place.
+     *
+     * @param buffer The buffer to convert.
+     * @return The buffer parameter.
+     */
+    public Cartesian3Buffer fromDegreesArrayHeights(Cartesian3Buffer buffer) {
+        Float64Array array = buffer.array();
+        fromDegreesArrayHeights(array, 0, array, 0, buffer.size());
+        return buffer;
+    }
+
+    /**
+     * Converts a packed buffer of longitude, latitude, height triples with longitude and latitude in radians, as
+     * stored in a {@link Cartesian3Buffer}, to Cartesian positions in place.
+     *
+     * @param buffer The buffer to convert.
+     * @return The buffer parameter.
+     */
+    public Cartesian3Buffer fromRadiansArrayHeights(Cartesian3Buffer buffer) {
+        Float64Array array = buffer.array();
+        fromRadiansArrayHeights(array, 0, array, 0, buffer.size());
+        return buffer;
+    }
+
+    private double[] cartographicArrayToCartesianArray(double[] source, int sourceOffset, double toRadians,
+                                                       double[] result, int resultOffset, int count) {
+        checkRange(source.length, sourceOffset, count);
+        checkRange(result.length, resultOffset, count);
+        Cartesian3d scratch = new Cartesian3d();
+        for (int i = 0; i < count; i++) {
+            int s = sourceOffset + i * 3;
+            cartographicToCartesian(source[s] * toRadians, source[s + 1] * toRadians, source[s + 2], scratch);
+            int r = resultOffset + i * 3;
+            result[r] = scratch.x;
+            result[r + 1] = scratch.y;
+            result[r + 2] = scratch.z;
+        }
+        return result;
+    }
+
+    private Float64Array cartographicArrayToCartesianArray(Float64Array source, int sourceOffset, double toRadians,
+                                                           Float64Array result, int resultOffset, int count) {
+        checkRange(source.length(), sourceOffset, count);
+        checkRange(result.length(), resultOffset, count);
+        Cartesian3d scratch = new Cartesian3d();
+        for (int i = 0; i < count; i++) {
+            int s = sourceOffset + i * 3;
+            cartographicToCartesian(source.get(s) * toRadians, source.get(s + 1) * toRadians, source.get(s + 2),
+                    scratch);
+            int r = resultOffset + i * 3;
+            result.set(r, scratch.x);
+            result.set(r + 1, scratch.y);
+            result.set(r + 2, scratch.z);
+        }
+        return result;
+    }
+
+    private double[] cartesianArrayToCartographicArray(double[] source, int sourceOffset, double fromRadians,
+                                                       double[] result, int resultOffset, int count) {
+        checkRange(source.length, sourceOffset, count);
+        checkRange(result.length, resultOffset, count);
+        Cartesian3d p = new Cartesian3d();
+        Cartographicd scratch = new Cartographicd();
+        for (int i = 0; i < count; i++) {
+            int s = sourceOffset + i * 3;
+            double x = source[s];
+            double y = source[s + 1];
+            double z = source[s + 2];
+            if (scaleToGeodeticSurface(x, y, z, p) == null) {
+                scratch.set(Double.NaN, Double.NaN, Double.NaN);
+            } else {
+                toCartographic(x, y, z, p, scratch);
+            }
+            int r = resultOffset + i * 3;
+            result[r] = scratch.longitude * fromRadians;
+            result[r + 1] = scratch.latitude * fromRadians;
+            result[r + 2] = scratch.height;
+        }
+        return result;
+    }
+
+    private Float64Array cartesianArrayToCartographicArray(Float64Array source, int sourceOffset, double fromRadians,
+                                                           Float64Array result, int resultOffset, int count) {
+        checkRange(source.length(), sourceOffset, count);
+        checkRange(result.length(), resultOffset, count);
+        Cartesian3d p = new Cartesian3d();
+        Cartographicd scratch = new Cartographicd();
+        for (int i = 0; i < count; i++) {
+            int s = sourceOffset + i * 3;
+            double x = source.get(s);
+            double y = source.get(s + 1);
+            double z = source.get(s + 2);
+            if (scaleToGeodeticSurface(x, y, z, p) == null) {
+                scratch.set(Double.NaN, Double.NaN, Double.NaN);
+            } else {
+                toCartographic(x, y, z, p, scratch);
+            }
+            int r = resultOffset + i * 3;
+            result.set(r, scratch.longitude * fromRadians);
+            result.set(r + 1, scratch.latitude * fromRadians);
+            result.set(r + 2, scratch.height);
+        }
+        return result;
+    }
+
+    /**
+     * Completes the cartesian to cartographic conversion once the position has been scaled to the surface.
+     */
+    private void toCartographic(double x, double y, double z, Cartesian3d p, Cartographicd result) {
+        double nX = p.x * oneOverRadiiSquaredX;
+        double nY = p.y * oneOverRadiiSquaredY;
+        double nZ = p.z * oneOverRadiiSquaredZ;
+        double magnitude = java.lang.Math.sqrt(nX * nX + nY * nY + nZ * nZ);
+        nX /= magnitude;
+        nY /= magnitude;
+        nZ /= magnitude;
+
+        double hX = x - p.x;
+        double hY = y - p.y;
+        double hZ = z - p.z;
+
+        result.longitude = java.lang.Math.atan2(nY, nX);
+        result.latitude = java.lang.Math.asin(nZ);
+        result.height = CesiumMath.sign(hX * x + hY * y + hZ * z) * java.lang.Math.sqrt(hX * hX + hY * hY + hZ * hZ);
+    }
+
+    private static void checkRange(int length, int offset, int count) {
+        if (offset < 0 || count < 0 || offset + count * 3 > length) {
+            throw new DeveloperError("array is too small for " + count + " positions starting at " + offset + ".");
+        }
+    }
+
+    /**
+     * Compares this Ellipsoid against the provided Ellipsoid componentwise and returns true if they are equal,
+     * false otherwise.
+     *
+     * @param obj The other Ellipsoid.
+     * @return true if they are equal, false otherwise.
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Ellipsoidd)) {
+            return false;
+        }
+        Ellipsoidd other = (Ellipsoidd) obj;
+        return radiiX == other.radiiX && radiiY == other.radiiY && radiiZ == other.radiiZ;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.valueOf(radiiX).hashCode();
+        hash = 31 * hash + Double.valueOf(radiiY).hashCode();
+        return 31 * hash + Double.valueOf(radiiZ).hashCode();
+    }
+
+    /**
+     * Creates a string representing this Ellipsoid in the format '(radii.x, radii.y, radii.z)'.
+     *
+     * @return A string representing this ellipsoid in the format '(radii.x, radii.y, radii.z)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + radiiX + ", " + radiiY + ", " + radiiZ + ")";
+    }
+}
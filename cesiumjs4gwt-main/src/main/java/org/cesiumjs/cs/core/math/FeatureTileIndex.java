@@ -0,0 +1,831 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A tile index of point, line and polygon features, sliced and simplified per tile of the Web Mercator tile pyramid
+ * the way geojson-vt slices GeoJSON for vector tiles. Features are added once in longitude and latitude degrees,
+ * {@link #build()} slices them into the tiles of the first levels, and deeper tiles are sliced on demand from their
+ * nearest ancestor by {@link #getTile(int, int, int)}. The geometry of a tile is clipped to the tile with a small
+ * buffer and simplified with {@link LineSimplifier} to a tolerance in pixels at the level of the tile, so the
+ * number of vertices of a tile stays about the same at every level.
+ * <p>
+ * The index is pure Java, so it may be built on a server as well as in the client. Each feature keeps the id it was
+ * added with, and a feature crossing several tiles appears in each of them, clipped.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see TileKey
+ * @see LineSimplifier
+ */
+public final class FeatureTileIndex {
+    /**
+     * The type of a point feature.
+     */
+    public static final int POINT = 1;
+    /**
+     * The type of a line feature.
+     */
+    public static final int LINE = 2;
+    /**
+     * The type of a polygon feature, an outer ring followed by its holes.
+     */
+    public static final int POLYGON = 3;
+
+    private static final double[][] NO_RINGS = new double[0][];
+
+    private int maximumZoom = 14;
+    private int indexMaximumZoom = 5;
+    private int indexMaximumPoints = 100000;
+    private double tolerance = 3.0;
+    private int extent = 4096;
+    private int buffer = 64;
+
+    private final LineSimplifier simplifier = new LineSimplifier(LineSimplifier.DOUGLAS_PEUCKER);
+    private List<Feature> features = new ArrayList<>();
+    private final Map<Long, Tile> tiles = new HashMap<>();
+    private boolean built;
+
+    /**
+     * Creates an empty index with the defaults of geojson-vt: tiles down to level 14, an index of the first 5
+     * levels, and a tolerance of 3 pixels on tiles of 4096 pixels with a buffer of 64 pixels.
+     */
+    public FeatureTileIndex() {
+    }
+
+    /**
+     * Sets the deepest level of the tiles.
+     *
+     * @param maximumZoom The level, from 0 to 24.
+     * @return This index.
+     */
+    public FeatureTileIndex setMaximumZoom(int maximumZoom) {
+        checkNotBuilt();
+        if (maximumZoom < 0 || maximumZoom > 24) {
+            throw new DeveloperError("maximumZoom must be between 0 and 24.");
+        }
+        this.maximumZoom = maximumZoom;
+        return this;
+    }
+
+    /**
+     * Gets the deepest level of the tiles.
+     *
+     * @return The level.
+     */
+    public int getMaximumZoom() {
+        return maximumZoom;
+    }
+
+    /**
+     * Sets the deepest level sliced by {@link #build()}, and the number of vertices below which a tile is not
+     * sliced further by it. Deeper tiles are sliced on demand.
+     *
+     * @param indexMaximumZoom   The level.
+     * @param indexMaximumPoints The number of vertices.
+     * @return This index.
+     */
+    public FeatureTileIndex setIndexLimits(int indexMaximumZoom, int indexMaximumPoints) {
+        checkNotBuilt();
+        if (indexMaximumZoom < 0 || indexMaximumPoints < 0) {
+            throw new DeveloperError("indexMaximumZoom and indexMaximumPoints must not be negative.");
+        }
+        this.indexMaximumZoom = indexMaximumZoom;
+        this.indexMaximumPoints = indexMaximumPoints;
+        return this;
+    }
+
+    /**
+     * Sets the simplification tolerance.
+     *
+     * @param tolerance The tolerance, in pixels of a tile. 0 disables simplification.
+     * @param extent    The size of a tile, in pixels.
+     * @param buffer    The width of the margin around each tile kept when clipping, in pixels.
+     * @return This index.
+     */
+    public FeatureTileIndex setTolerance(double tolerance, int extent, int buffer) {
+        checkNotBuilt();
+        if (!(tolerance >= 0.0) || extent < 1 || buffer < 0) {
+            throw new DeveloperError("tolerance and buffer must not be negative and extent must be positive.");
+        }
+        this.tolerance = tolerance;
+        this.extent = extent;
+        this.buffer = buffer;
+        return this;
+    }
+
+    /**
+     * Gets the width of the margin around each tile kept when clipping.
+     *
+     * @return The width, in pixels.
+     */
+    public int getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * Adds a point.
+     *
+     * @param id        The id of the feature.
+     * @param longitude The longitude, in degrees.
+     * @param latitude  The latitude, in degrees.
+     */
+    public void addPoint(int id, double longitude, double latitude) {
+        checkNotBuilt();
+        double[] point = {projectX(longitude), projectY(latitude), Double.POSITIVE_INFINITY};
+        features.add(new Feature(id, POINT, new double[][]{point}, new double[]{0.0}));
+    }
+
+    /**
+     * Adds a line.
+     *
+     * @param id          The id of the feature.
+     * @param coordinates The packed longitudes and latitudes of the vertices, in degrees.
+     * @param offset      The index of the first coordinate in the array.
+     * @param count       The number of vertices.
+     */
+    public void addLine(int id, double[] coordinates, int offset, int count) {
+        checkNotBuilt();
+        Geodesicd.checkRange(coordinates.length, offset, 2, 2, count);
+        if (count < 2) {
+            return;
+        }
+        double[] line = project(coordinates, offset, count, false);
+        features.add(new Feature(id, LINE, new double[][]{line}, new double[]{computeLength(line)}));
+    }
+
+    /**
+     * Adds a polygon.
+     *
+     * @param id          The id of the feature.
+     * @param coordinates The packed longitudes and latitudes of the vertices of the outer ring followed by the
+     *                    holes, in degrees. Rings may or may not repeat their first vertex.
+     * @param holeIndices The index of the first vertex of each hole, or null for none.
+     */
+    public void addPolygon(int id, double[] coordinates, int[] holeIndices) {
+        checkNotBuilt();
+        int vertexCount = coordinates.length / 2;
+        int ringCount = holeIndices == null ? 1 : holeIndices.length + 1;
+        double[][] rings = new double[ringCount][];
+        double[] sizes = new double[ringCount];
+        for (int r = 0; r < ringCount; r++) {
+            int start = r == 0 ? 0 : holeIndices[r - 1];
+            int end = r == ringCount - 1 ? vertexCount : holeIndices[r];
+            if (start < 0 || end > vertexCount || end - start < 3) {
+                if (r == 0) {
+                    return;
+                }
+                rings[r] = null;
+                continue;
+            }
+            rings[r] = project(coordinates, 2 * start, end - start, true);
+            sizes[r] = Math.abs(computeArea(rings[r]));
+        }
+        features.add(new Feature(id, POLYGON, compact(rings), compact(rings, sizes)));
+    }
+
+    /**
+     * Slices the features into the tiles of the first levels. No feature may be added afterwards.
+     *
+     * @return This index.
+     */
+    public FeatureTileIndex build() {
+        checkNotBuilt();
+        built = true;
+        List<Feature> all = features;
+        features = null;
+        splitTile(all, 0, 0, 0, -1, 0, 0);
+        return this;
+    }
+
+    /**
+     * Gets a tile, slicing it from its nearest ancestor if needed.
+     *
+     * @param z The level of the tile.
+     * @param x The column of the tile, wrapped around the antimeridian.
+     * @param y The row of the tile, from the north.
+     * @return The tile, or null if it is outside of the pyramid or no feature intersects its area.
+     */
+    public Tile getTile(int z, int x, int y) {
+        if (!built) {
+            throw new DeveloperError("The index must be built first.");
+        }
+        if (z < 0 || z > maximumZoom) {
+            return null;
+        }
+        int z2 = 1 << z;
+        if (y < 0 || y >= z2) {
+            return null;
+        }
+        x = ((x % z2) + z2) % z2;
+        Tile tile = tiles.get(TileKey.fromTileXY(x, y, z));
+        if (tile != null) {
+            return tile;
+        }
+        int z0 = z;
+        int x0 = x;
+        int y0 = y;
+        Tile parent = null;
+        while (parent == null && z0 > 0) {
+            z0--;
+            x0 >>= 1;
+            y0 >>= 1;
+            parent = tiles.get(TileKey.fromTileXY(x0, y0, z0));
+        }
+        if (parent == null || parent.source == null) {
+            return null;
+        }
+        splitTile(parent.source, z0, x0, y0, z, x, y);
+        return tiles.get(TileKey.fromTileXY(x, y, z));
+    }
+
+    /**
+     * Gets the number of tiles sliced so far.
+     *
+     * @return The number of tiles.
+     */
+    public int getTileCount() {
+        return tiles.size();
+    }
+
+    /**
+     * Projects a longitude to the x coordinate of the unit Web Mercator square, from 0 at the antimeridian in the
+     * west to 1 in the east.
+     *
+     * @param longitude The longitude, in degrees.
+     * @return The x coordinate.
+     */
+    public static double projectX(double longitude) {
+        return longitude / 360.0 + 0.5;
+    }
+
+    /**
+     * Projects a latitude to the y coordinate of the unit Web Mercator square, from 0 in the north to 1 in the
+     * south, clamped at the latitudes of the square.
+     *
+     * @param latitude The latitude, in degrees.
+     * @return The y coordinate.
+     */
+    public static double projectY(double latitude) {
+        double sin = Math.sin(Math.toRadians(latitude));
+        double y = 0.5 - 0.25 * Math.log((1.0 + sin) / (1.0 - sin)) / Math.PI;
+        return y < 0.0 ? 0.0 : y > 1.0 ? 1.0 : y;
+    }
+
+    /**
+     * Computes the longitude of an x coordinate of the unit Web Mercator square.
+     *
+     * @param x The x coordinate.
+     * @return The longitude, in degrees.
+     */
+    public static double unprojectX(double x) {
+        return (x - 0.5) * 360.0;
+    }
+
+    /**
+     * Computes the latitude of a y coordinate of the unit Web Mercator square.
+     *
+     * @param y The y coordinate.
+     * @return The latitude, in degrees.
+     */
+    public static double unprojectY(double y) {
+        return Math.toDegrees(2.0 * Math.atan(Math.exp((1.0 - 2.0 * y) * Math.PI))) - 90.0;
+    }
+
+    private void checkNotBuilt() {
+        if (built) {
+            throw new DeveloperError("The index is already built.");
+        }
+    }
+
+    /**
+     * Projects vertices to x, y and significance triples, closing rings.
+     */
+    private double[] project(double[] coordinates, int offset, int count, boolean ring) {
+        int last = offset + 2 * (count - 1);
+        boolean open = ring && (coordinates[last] != coordinates[offset]
+                || coordinates[last + 1] != coordinates[offset + 1]);
+        double[] result = new double[3 * (open ? count + 1 : count)];
+        for (int i = 0; i < count; i++) {
+            result[3 * i] = projectX(coordinates[offset + 2 * i]);
+            result[3 * i + 1] = projectY(coordinates[offset + 2 * i + 1]);
+        }
+        if (open) {
+            // Clipping needs the closing segment of the ring
+            result[3 * count] = result[0];
+            result[3 * count + 1] = result[1];
+            count++;
+        }
+        double[] significance = simplifier.computeSignificance(result, 0, 3, 2, count, ring, null);
+        for (int i = 0; i < count; i++) {
+            result[3 * i + 2] = significance[i];
+        }
+        return result;
+    }
+
+    private static double computeLength(double[] line) {
+        double length = 0.0;
+        for (int i = 3; i < line.length; i += 3) {
+            double dx = line[i] - line[i - 3];
+            double dy = line[i + 1] - line[i - 2];
+            length += Math.sqrt(dx * dx + dy * dy);
+        }
+        return length;
+    }
+
+    private static double computeArea(double[] ring) {
+        double area = 0.0;
+        for (int i = 0, j = ring.length - 3; i < ring.length; j = i, i += 3) {
+            area += (ring[j] - ring[i]) * (ring[i + 1] + ring[j + 1]);
+        }
+        return area / 2.0;
+    }
+
+    private static double[][] compact(double[][] rings) {
+        int count = 0;
+        for (double[] ring : rings) {
+            if (ring != null) {
+                count++;
+            }
+        }
+        double[][] result = new double[count][];
+        count = 0;
+        for (double[] ring : rings) {
+            if (ring != null) {
+                result[count++] = ring;
+            }
+        }
+        return result;
+    }
+
+    private static double[] compact(double[][] rings, double[] sizes) {
+        double[] result = new double[sizes.length];
+        int count = 0;
+        for (int i = 0; i < rings.length; i++) {
+            if (rings[i] != null) {
+                result[count++] = sizes[i];
+            }
+        }
+        double[] trimmed = new double[count];
+        System.arraycopy(result, 0, trimmed, 0, count);
+        return trimmed;
+    }
+
+    /**
+     * Slices features into a tile and its descendants, down to the index limits, or down to the target tile cz,
+     * cx, cy along its ancestors if cz is not negative.
+     */
+    private void splitTile(List<Feature> features, int z, int x, int y, int cz, int cx, int cy) {
+        List<Object> stack = new ArrayList<>();
+        stack.add(features);
+        stack.add(new int[]{z, x, y});
+        while (!stack.isEmpty()) {
+            int[] coordinates = (int[]) stack.remove(stack.size() - 1);
+            @SuppressWarnings("unchecked")
+            List<Feature> current = (List<Feature>) stack.remove(stack.size() - 1);
+            z = coordinates[0];
+            x = coordinates[1];
+            y = coordinates[2];
+            long key = TileKey.fromTileXY(x, y, z);
+            Tile tile = tiles.get(key);
+            if (tile == null) {
+                tile = createTile(current, z, x, y);
+                tiles.put(key, tile);
+            }
+            tile.source = current;
+            if (cz < 0) {
+                // Building the index: stop at the index limits
+                if (z == indexMaximumZoom || tile.pointCount <= indexMaximumPoints) {
+                    continue;
+                }
+            } else if (z == maximumZoom || z == cz) {
+                continue;
+            } else {
+                int zoomSteps = cz - z;
+                if (x != cx >> zoomSteps || y != cy >> zoomSteps) {
+                    continue;
+                }
+            }
+            if (z == maximumZoom) {
+                continue;
+            }
+            tile.source = null;
+            if (current.isEmpty()) {
+                continue;
+            }
+            double z2 = 1 << z;
+            double k1 = 0.5 * buffer / extent;
+            double k2 = 0.5 - k1;
+            double k3 = 0.5 + k1;
+            double k4 = 1.0 + k1;
+            List<Feature> left = clip(current, z2, x - k1, x + k3, 0, tile.minX, tile.maxX);
+            List<Feature> right = clip(current, z2, x + k2, x + k4, 0, tile.minX, tile.maxX);
+            List<Feature> topLeft = null;
+            List<Feature> bottomLeft = null;
+            List<Feature> topRight = null;
+            List<Feature> bottomRight = null;
+            if (left != null) {
+                topLeft = clip(left, z2, y - k1, y + k3, 1, tile.minY, tile.maxY);
+                bottomLeft = clip(left, z2, y + k2, y + k4, 1, tile.minY, tile.maxY);
+            }
+            if (right != null) {
+                topRight = clip(right, z2, y - k1, y + k3, 1, tile.minY, tile.maxY);
+                bottomRight = clip(right, z2, y + k2, y + k4, 1, tile.minY, tile.maxY);
+            }
+            push(stack, topLeft, z + 1, 2 * x, 2 * y);
+            push(stack, bottomLeft, z + 1, 2 * x, 2 * y + 1);
+            push(stack, topRight, z + 1, 2 * x + 1, 2 * y);
+            push(stack, bottomRight, z + 1, 2 * x + 1, 2 * y + 1);
+        }
+    }
+
+    private static void push(List<Object> stack, List<Feature> features, int z, int x, int y) {
+        stack.add(features == null ? new ArrayList<Feature>() : features);
+        stack.add(new int[]{z, x, y});
+    }
+
+    /**
+     * Clips features to the band k1 &lt;= coordinate &lt; k2 of an axis, in units of tiles of the level of scale.
+     */
+    private static List<Feature> clip(List<Feature> features, double scale, double k1, double k2, int axis,
+                                      double minAll, double maxAll) {
+        k1 /= scale;
+        k2 /= scale;
+        if (minAll >= k1 && maxAll < k2) {
+            return features;
+        }
+        if (maxAll < k1 || minAll >= k2) {
+            return null;
+        }
+        List<Feature> clipped = new ArrayList<>();
+        List<double[]> pieces = new ArrayList<>();
+        List<Double> sizes = new ArrayList<>();
+        for (Feature feature : features) {
+            double min = axis == 0 ? feature.minX : feature.minY;
+            double max = axis == 0 ? feature.maxX : feature.maxY;
+            if (min >= k1 && max < k2) {
+                clipped.add(feature);
+                continue;
+            }
+            if (max < k1 || min >= k2) {
+                continue;
+            }
+            if (feature.type == POINT) {
+                // A point feature is entirely inside or outside of the band
+                continue;
+            }
+            if (feature.type == LINE) {
+                pieces.clear();
+                clipLine(feature.rings[0], pieces, k1, k2, axis, false);
+                for (double[] piece : pieces) {
+                    clipped.add(new Feature(feature.id, LINE, new double[][]{piece}, new double[]{feature.sizes[0]}));
+                }
+            } else {
+                pieces.clear();
+                sizes.clear();
+                for (int r = 0; r < feature.rings.length; r++) {
+                    int before = pieces.size();
+                    clipLine(feature.rings[r], pieces, k1, k2, axis, true);
+                    if (pieces.size() == before) {
+                        if (r == 0) {
+                            break;
+                        }
+                    } else {
+                        sizes.add(feature.sizes[r]);
+                    }
+                }
+                if (!pieces.isEmpty()) {
+                    double[] ringSizes = new double[sizes.size()];
+                    for (int i = 0; i < ringSizes.length; i++) {
+                        ringSizes[i] = sizes.get(i);
+                    }
+                    clipped.add(new Feature(feature.id, POLYGON, pieces.toArray(new double[0][]), ringSizes));
+                }
+            }
+        }
+        return clipped.isEmpty() ? null : clipped;
+    }
+
+    /**
+     * Clips a line or ring of x, y and significance triples to a band, adding the pieces of a line, or the clipped
+     * ring, to the result.
+     */
+    private static void clipLine(double[] line, List<double[]> result, double k1, double k2, int axis,
+                                 boolean polygon) {
+        Slice slice = new Slice(line.length);
+        for (int i = 0; i < line.length - 3; i += 3) {
+            double ax = line[i];
+            double ay = line[i + 1];
+            double az = line[i + 2];
+            double bx = line[i + 3];
+            double by = line[i + 4];
+            double a = axis == 0 ? ax : ay;
+            double b = axis == 0 ? bx : by;
+            boolean exited = false;
+            if (a < k1) {
+                // ---|-->  |
+                if (b > k1) {
+                    slice.intersect(ax, ay, bx, by, k1, axis);
+                }
+            } else if (a > k2) {
+                // |  <--|---
+                if (b < k2) {
+                    slice.intersect(ax, ay, bx, by, k2, axis);
+                }
+            } else {
+                slice.add(ax, ay, az);
+            }
+            if (b < k1 && a >= k1) {
+                // <--|---  |
+                slice.intersect(ax, ay, bx, by, k1, axis);
+                exited = true;
+            }
+            if (b > k2 && a <= k2) {
+                // |  ---|-->
+                slice.intersect(ax, ay, bx, by, k2, axis);
+                exited = true;
+            }
+            if (!polygon && exited) {
+                slice.flush(result, 2);
+                slice = new Slice(line.length);
+            }
+        }
+        int last = line.length - 3;
+        double a = axis == 0 ? line[last] : line[last + 1];
+        if (a >= k1 && a <= k2) {
+            slice.add(line[last], line[last + 1], line[last + 2]);
+        }
+        if (polygon && slice.length >= 6) {
+            // Close the ring if clipping opened it
+            int end = slice.length - 3;
+            if (slice.values[end] != slice.values[0] || slice.values[end + 1] != slice.values[1]) {
+                slice.add(slice.values[0], slice.values[1], slice.values[2]);
+            }
+        }
+        slice.flush(result, polygon ? 4 : 2);
+    }
+
+    private Tile createTile(List<Feature> features, int z, int x, int y) {
+        double tileTolerance = z == maximumZoom ? 0.0 : tolerance / ((1 << z) * (double) extent);
+        Tile tile = new Tile(z, x, y);
+        int[] indices = new int[16];
+        List<double[]> rings = new ArrayList<>();
+        for (Feature feature : features) {
+            tile.pointCount += feature.pointCount;
+            tile.minX = Math.min(tile.minX, feature.minX);
+            tile.minY = Math.min(tile.minY, feature.minY);
+            tile.maxX = Math.max(tile.maxX, feature.maxX);
+            tile.maxY = Math.max(tile.maxY, feature.maxY);
+            rings.clear();
+            for (int r = 0; r < feature.rings.length; r++) {
+                double[] ring = feature.rings[r];
+                int count = ring.length / 3;
+                int minimum = feature.type == POINT ? 1 : feature.type == LINE ? 2 : 4;
+                boolean tooSmall = feature.type == LINE ? feature.sizes[r] < tileTolerance
+                        : feature.type == POLYGON && feature.sizes[r] < tileTolerance * tileTolerance;
+                if (tileTolerance > 0.0 && tooSmall) {
+                    if (r == 0) {
+                        break;
+                    }
+                    continue;
+                }
+                if (indices.length < count) {
+                    indices = new int[count];
+                }
+                int kept = 0;
+                for (int i = 0; i < count; i++) {
+                    if (tileTolerance == 0.0 || ring[3 * i + 2] > tileTolerance) {
+                        indices[kept++] = i;
+                    }
+                }
+                if (kept < minimum) {
+                    if (r == 0) {
+                        break;
+                    }
+                    continue;
+                }
+                double[] degrees = new double[2 * kept];
+                for (int i = 0; i < kept; i++) {
+                    degrees[2 * i] = unprojectX(ring[3 * indices[i]]);
+                    degrees[2 * i + 1] = unprojectY(ring[3 * indices[i] + 1]);
+                }
+                tile.vertexCount += kept;
+                rings.add(degrees);
+            }
+            if (!rings.isEmpty()) {
+                tile.ids.add(feature.id);
+                tile.types.add(feature.type);
+                tile.rings.add(rings.toArray(NO_RINGS));
+            }
+        }
+        return tile;
+    }
+
+    /**
+     * A feature in the unit Web Mercator square, with a significance per vertex.
+     */
+    private static final class Feature {
+        final int id;
+        final int type;
+        final double[][] rings;
+        final double[] sizes;
+        final int pointCount;
+        double minX = Double.POSITIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+
+        Feature(int id, int type, double[][] rings, double[] sizes) {
+            this.id = id;
+            this.type = type;
+            this.rings = rings;
+            this.sizes = sizes;
+            int points = 0;
+            for (double[] ring : rings) {
+                points += ring.length / 3;
+                for (int i = 0; i < ring.length; i += 3) {
+                    minX = Math.min(minX, ring[i]);
+                    minY = Math.min(minY, ring[i + 1]);
+                    maxX = Math.max(maxX, ring[i]);
+                    maxY = Math.max(maxY, ring[i + 1]);
+                }
+            }
+            pointCount = points;
+        }
+    }
+
+    /**
+     * A growing piece of a clipped line.
+     */
+    private static final class Slice {
+        double[] values;
+        int length;
+
+        Slice(int capacity) {
+            values = new double[Math.max(capacity, 12)];
+        }
+
+        void add(double x, double y, double significance) {
+            if (length + 3 > values.length) {
+                double[] grown = new double[2 * values.length];
+                System.arraycopy(values, 0, grown, 0, length);
+                values = grown;
+            }
+            values[length++] = x;
+            values[length++] = y;
+            values[length++] = significance;
+        }
+
+        /**
+         * Adds the intersection of a segment with a line of constant coordinate; it is always kept.
+         */
+        void intersect(double ax, double ay, double bx, double by, double value, int axis) {
+            if (axis == 0) {
+                add(value, ay + (by - ay) * (value - ax) / (bx - ax), Double.POSITIVE_INFINITY);
+            } else {
+                add(ax + (bx - ax) * (value - ay) / (by - ay), value, Double.POSITIVE_INFINITY);
+            }
+        }
+
+        void flush(List<double[]> result, int minimumCount) {
+            if (length >= 3 * minimumCount) {
+                double[] piece = new double[length];
+                System.arraycopy(values, 0, piece, 0, length);
+                result.add(piece);
+            }
+        }
+    }
+
+    /**
+     * A tile of the index, with the features which intersect it clipped to it and simplified for its level.
+     * Coordinates are longitudes and latitudes in degrees.
+     */
+    public static final class Tile {
+        private final int z;
+        private final int x;
+        private final int y;
+        private final List<Integer> ids = new ArrayList<>();
+        private final List<Integer> types = new ArrayList<>();
+        private final List<double[][]> rings = new ArrayList<>();
+        private int pointCount;
+        private int vertexCount;
+        private double minX = 2.0;
+        private double minY = 1.0;
+        private double maxX = -1.0;
+        private double maxY = 0.0;
+        // The features from which descendants are sliced on demand, if this tile is not sliced yet
+        private List<Feature> source;
+
+        Tile(int z, int x, int y) {
+            this.z = z;
+            this.x = x;
+            this.y = y;
+        }
+
+        /**
+         * Gets the level of the tile.
+         *
+         * @return The level.
+         */
+        public int getZ() {
+            return z;
+        }
+
+        /**
+         * Gets the column of the tile.
+         *
+         * @return The column.
+         */
+        public int getX() {
+            return x;
+        }
+
+        /**
+         * Gets the row of the tile.
+         *
+         * @return The row.
+         */
+        public int getY() {
+            return y;
+        }
+
+        /**
+         * Gets the key of the tile.
+         *
+         * @return The key, as {@link TileKey#fromTileXY(int, int, int)}.
+         */
+        public long getKey() {
+            return TileKey.fromTileXY(x, y, z);
+        }
+
+        /**
+         * Gets the number of features of the tile.
+         *
+         * @return The number of features.
+         */
+        public int getFeatureCount() {
+            return ids.size();
+        }
+
+        /**
+         * Gets the id of a feature.
+         *
+         * @param feature The index of the feature in the tile.
+         * @return The id the feature was added with.
+         */
+        public int getFeatureId(int feature) {
+            return ids.get(feature);
+        }
+
+        /**
+         * Gets the type of a feature.
+         *
+         * @param feature The index of the feature in the tile.
+         * @return {@link #POINT}, {@link #LINE} or {@link #POLYGON}.
+         */
+        public int getFeatureType(int feature) {
+            return types.get(feature);
+        }
+
+        /**
+         * Gets the rings of a feature: the point, the line, or the outer ring of the polygon followed by its holes.
+         * Clipped polygon rings are closed.
+         *
+         * @param feature The index of the feature in the tile.
+         * @return The packed longitudes and latitudes of the vertices of each ring, in degrees. Must not be
+         * modified.
+         */
+        public double[][] getRings(int feature) {
+            return rings.get(feature);
+        }
+
+        /**
+         * Gets the number of vertices of the features of the tile after simplification.
+         *
+         * @return The number of vertices.
+         */
+        public int getVertexCount() {
+            return vertexCount;
+        }
+    }
+}
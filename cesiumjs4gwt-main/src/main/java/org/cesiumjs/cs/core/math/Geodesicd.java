@@ -0,0 +1,1298 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.EllipsoidGeodesic;
+
+/**
+ * Solves the inverse and direct geodesic problems on an ellipsoid of revolution, implemented in pure Java. The
+ * solution follows C. F. F. Karney, Algorithms for geodesics, J. Geodesy 87, 43-55 (2013), with the series
+ * expanded to sixth order as in GeographicLib, so distances are accurate to about 15 nanometers on the WGS84
+ * ellipsoid and the inverse problem converges for nearly antipodal points, where the Vincenty iteration used by
+ * {@link EllipsoidGeodesic} fails.
+ * <p>
+ * Longitudes, latitudes and headings are in radians and distances in meters. Headings are measured clockwise from
+ * north, like {@link EllipsoidGeodesic#startHeading()}. Besides the single segment methods, the solver has batch
+ * methods over packed arrays which do not allocate per segment, which makes it suitable for measuring long routes
+ * both in the browser and on a server. Instances are immutable and may be shared between threads.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see EllipsoidGeodesicd
+ * @see EllipsoidRhumbLined
+ */
+public final class Geodesicd {
+    private static final int ORDER = 6;
+    private static final int MAXIMUM_ITERATIONS_NEWTON = 20;
+    private static final int MAXIMUM_ITERATIONS = MAXIMUM_ITERATIONS_NEWTON + 53 + 10;
+    private static final double TINY = Math.sqrt(Double.MIN_NORMAL);
+    private static final double TOLERANCE0 = Math.pow(0.5, 52);
+    private static final double TOLERANCE1 = 200 * TOLERANCE0;
+    private static final double TOLERANCE2 = Math.sqrt(TOLERANCE0);
+    private static final double TOLERANCE_BISECTION = TOLERANCE0 * TOLERANCE2;
+    private static final double X_THRESHOLD = 1000 * TOLERANCE2;
+
+    private static final int DISTANCE = 1;
+    private static final int REDUCED_LENGTH = 2;
+
+    // Coefficients of the series expansions in eps and n, see Karney (2013), eqs. (17), (18), (24), (25) and (42).
+
+    private static final double[] A1M1_COEFFICIENTS = {1, 4, 64, 0, 256};
+
+    private static final double[] C1_COEFFICIENTS = {
+            -1, 6, -16, 32,
+            -9, 64, -128, 2048,
+            9, -16, 768,
+            3, -5, 512,
+            -7, 1280,
+            -7, 2048,
+    };
+
+    private static final double[] C1P_COEFFICIENTS = {
+            205, -432, 768, 1536,
+            4005, -4736, 3840, 12288,
+            -225, 116, 384,
+            -7173, 2695, 7680,
+            3467, 7680,
+            38081, 61440,
+    };
+
+    private static final double[] A2M1_COEFFICIENTS = {-11, -28, -192, 0, 256};
+
+    private static final double[] C2_COEFFICIENTS = {
+            1, 2, 16, 32,
+            35, 64, 384, 2048,
+            15, 80, 768,
+            7, 35, 512,
+            63, 1280,
+            77, 2048,
+    };
+
+    private static final double[] A3_COEFFICIENTS = {
+            -3, 128,
+            -2, -3, 64,
+            -1, -3, -1, 16,
+            3, -1, -2, 8,
+            1, -1, 2,
+            1, 1,
+    };
+
+    private static final double[] C3_COEFFICIENTS = {
+            3, 128,
+            2, 5, 128,
+            -1, 3, 3, 64,
+            -1, 0, 1, 8,
+            -1, 1, 4,
+            5, 256,
+            1, 3, 128,
+            -3, -2, 3, 64,
+            1, -3, 2, 32,
+            7, 512,
+            -10, 9, 384,
+            5, -9, 5, 192,
+            7, 512,
+            -14, 7, 512,
+            21, 2560,
+    };
+
+    /**
+     * The solver for the WGS84 ellipsoid.
+     */
+    public static final Geodesicd WGS84 = new Geodesicd(Ellipsoidd.WGS84);
+
+    private final double a;
+    private final double f;
+    private final double f1;
+    private final double b;
+    private final double ep2;
+    private final double n;
+    private final double etol2;
+    private final double[] a3x = new double[ORDER];
+    private final double[] c3x = new double[(ORDER * (ORDER - 1)) / 2];
+
+    /**
+     * Creates a solver for an ellipsoid of revolution. The equatorial radius is the maximum radius of the ellipsoid
+     * and the polar radius its minimum radius.
+     *
+     * @param ellipsoid The ellipsoid.
+     */
+    public Geodesicd(Ellipsoidd ellipsoid) {
+        this(ellipsoid.getMaximumRadius(),
+                (ellipsoid.getMaximumRadius() - ellipsoid.getMinimumRadius()) / ellipsoid.getMaximumRadius());
+    }
+
+    /**
+     * Creates a solver for an ellipsoid of revolution.
+     *
+     * @param equatorialRadius The equatorial radius, in meters.
+     * @param flattening       The flattening, 0.0 for a sphere.
+     */
+    public Geodesicd(double equatorialRadius, double flattening) {
+        if (!(equatorialRadius > 0.0) || Double.isInfinite(equatorialRadius)) {
+            throw new DeveloperError("equatorialRadius must be positive.");
+        }
+        if (!(flattening < 1.0) || Double.isNaN(flattening)) {
+            throw new DeveloperError("flattening must be less than 1.0.");
+        }
+        a = equatorialRadius;
+        f = flattening;
+        f1 = 1 - f;
+        b = a * f1;
+        double e2 = f * (2 - f);
+        ep2 = e2 / (f1 * f1);
+        n = f / (2 - f);
+        etol2 = 0.1 * TOLERANCE2 / Math.sqrt(Math.max(0.001, Math.abs(f)) * Math.min(1.0, 1 - f / 2) / 2);
+        computeA3Coefficients();
+        computeC3Coefficients();
+    }
+
+    /**
+     * Gets the equatorial radius of the ellipsoid.
+     *
+     * @return The equatorial radius, in meters.
+     */
+    public double getEquatorialRadius() {
+        return a;
+    }
+
+    /**
+     * Gets the flattening of the ellipsoid.
+     *
+     * @return The flattening.
+     */
+    public double getFlattening() {
+        return f;
+    }
+
+    /**
+     * Computes the length of the shortest geodesic between two points.
+     *
+     * @param startLongitude The longitude of the first point, in radians.
+     * @param startLatitude  The latitude of the first point, in radians.
+     * @param endLongitude   The longitude of the second point, in radians.
+     * @param endLatitude    The latitude of the second point, in radians.
+     * @return The distance, in meters.
+     */
+    public double surfaceDistance(double startLongitude, double startLatitude, double endLongitude,
+                                  double endLatitude) {
+        Workspace workspace = new Workspace();
+        inverse(workspace, Math.toDegrees(startLatitude), Math.toDegrees(startLongitude),
+                Math.toDegrees(endLatitude), Math.toDegrees(endLongitude));
+        return workspace.s12;
+    }
+
+    /**
+     * Solves the inverse problem: the distance and headings of the shortest geodesic between two points.
+     *
+     * @param startLongitude The longitude of the first point, in radians.
+     * @param startLatitude  The latitude of the first point, in radians.
+     * @param endLongitude   The longitude of the second point, in radians.
+     * @param endLatitude    The latitude of the second point, in radians.
+     * @param result         The array onto which to store the distance, the heading at the first point and the
+     *                       heading at the second point.
+     * @param resultOffset   The index of the first element to write.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] inverse(double startLongitude, double startLatitude, double endLongitude, double endLatitude,
+                            double[] result, int resultOffset) {
+        if (result == null) {
+            result = new double[resultOffset + 3];
+        }
+        Workspace workspace = new Workspace();
+        inverse(workspace, Math.toDegrees(startLatitude), Math.toDegrees(startLongitude),
+                Math.toDegrees(endLatitude), Math.toDegrees(endLongitude));
+        result[resultOffset] = workspace.s12;
+        result[resultOffset + 1] = Math.toRadians(workspace.azi1);
+        result[resultOffset + 2] = Math.toRadians(workspace.azi2);
+        return result;
+    }
+
+    /**
+     * Solves the inverse problem for many pairs of points.
+     *
+     * @param endPoints    The packed start longitude, start latitude, end longitude and end latitude of each pair,
+     *                     in radians.
+     * @param offset       The index of the first pair in the array.
+     * @param count        The number of pairs.
+     * @param result       The array onto which to store the packed distance, start heading and end heading of each
+     *                     pair.
+     * @param resultOffset The index of the first element to write.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] inverse(double[] endPoints, int offset, int count, double[] result, int resultOffset) {
+        checkRange(endPoints.length, offset, 4, 4, count);
+        if (result == null) {
+            result = new double[resultOffset + 3 * count];
+        }
+        checkRange(result.length, resultOffset, 3, 3, count);
+        Workspace workspace = new Workspace();
+        for (int i = 0; i < count; i++) {
+            int index = offset + 4 * i;
+            inverse(workspace, Math.toDegrees(endPoints[index + 1]), Math.toDegrees(endPoints[index]),
+                    Math.toDegrees(endPoints[index + 3]), Math.toDegrees(endPoints[index + 2]));
+            int target = resultOffset + 3 * i;
+            result[target] = workspace.s12;
+            result[target + 1] = Math.toRadians(workspace.azi1);
+            result[target + 2] = Math.toRadians(workspace.azi2);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the geodesic distances between consecutive points of a path.
+     *
+     * @param positions    The packed longitude and latitude of the points, in radians. Further components, such as
+     *                     heights, are skipped according to the stride.
+     * @param offset       The index of the first point in the array.
+     * @param stride       The number of elements per point, at least 2.
+     * @param count        The number of points.
+     * @param result       The array onto which to store the count - 1 distances, in meters.
+     * @param resultOffset The index of the first element to write.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] surfaceDistances(double[] positions, int offset, int stride, int count, double[] result,
+                                     int resultOffset) {
+        checkPath(positions, offset, stride, count);
+        int segments = Math.max(count - 1, 0);
+        if (result == null) {
+            result = new double[resultOffset + segments];
+        }
+        checkRange(result.length, resultOffset, 1, 1, segments);
+        Workspace workspace = new Workspace();
+        for (int i = 0; i < segments; i++) {
+            int index = offset + i * stride;
+            inverse(workspace, Math.toDegrees(positions[index + 1]), Math.toDegrees(positions[index]),
+                    Math.toDegrees(positions[index + stride + 1]), Math.toDegrees(positions[index + stride]));
+            result[resultOffset + i] = workspace.s12;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the geodesic length of a path, the sum of the distances between its consecutive points.
+     *
+     * @param positions The packed longitude and latitude of the points, in radians. Further components, such as
+     *                  heights, are skipped according to the stride.
+     * @param offset    The index of the first point in the array.
+     * @param stride    The number of elements per point, at least 2.
+     * @param count     The number of points.
+     * @return The length of the path, in meters.
+     */
+    public double pathLength(double[] positions, int offset, int stride, int count) {
+        checkPath(positions, offset, stride, count);
+        Workspace workspace = new Workspace();
+        double sum = 0.0;
+        double compensation = 0.0;
+        for (int i = 0; i < count - 1; i++) {
+            int index = offset + i * stride;
+            inverse(workspace, Math.toDegrees(positions[index + 1]), Math.toDegrees(positions[index]),
+                    Math.toDegrees(positions[index + stride + 1]), Math.toDegrees(positions[index + stride]));
+            // Kahan summation, routes may have millions of short segments
+            double y = workspace.s12 - compensation;
+            double t = sum + y;
+            compensation = (t - sum) - y;
+            sum = t;
+        }
+        return sum;
+    }
+
+    /**
+     * Solves the direct problem: the end point and heading of the geodesic with a given start point, start heading
+     * and length.
+     *
+     * @param startLongitude The longitude of the start point, in radians.
+     * @param startLatitude  The latitude of the start point, in radians.
+     * @param startHeading   The heading at the start point, in radians.
+     * @param distance       The length of the geodesic, in meters. May be negative.
+     * @param result         The array onto which to store the longitude and latitude of the end point and the
+     *                       heading at the end point.
+     * @param resultOffset   The index of the first element to write.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] direct(double startLongitude, double startLatitude, double startHeading, double distance,
+                           double[] result, int resultOffset) {
+        if (result == null) {
+            result = new double[resultOffset + 3];
+        }
+        Workspace workspace = new Workspace();
+        Line line = new Line();
+        initializeLine(line, workspace, Math.toDegrees(startLatitude), Math.toDegrees(startLongitude),
+                Math.toDegrees(startHeading));
+        position(line, workspace, distance, result, resultOffset);
+        result[resultOffset + 2] = Math.toRadians(workspace.azi2);
+        return result;
+    }
+
+    /**
+     * Solves the direct problem for many start points.
+     *
+     * @param starts       The packed start longitude, start latitude, start heading, in radians, and distance, in
+     *                     meters, of each geodesic.
+     * @param offset       The index of the first geodesic in the array.
+     * @param count        The number of geodesics.
+     * @param result       The array onto which to store the packed end longitude, end latitude and end heading of
+     *                     each geodesic.
+     * @param resultOffset The index of the first element to write.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] direct(double[] starts, int offset, int count, double[] result, int resultOffset) {
+        checkRange(starts.length, offset, 4, 4, count);
+        if (result == null) {
+            result = new double[resultOffset + 3 * count];
+        }
+        checkRange(result.length, resultOffset, 3, 3, count);
+        Workspace workspace = new Workspace();
+        Line line = new Line();
+        for (int i = 0; i < count; i++) {
+            int index = offset + 4 * i;
+            int target = resultOffset + 3 * i;
+            initializeLine(line, workspace, Math.toDegrees(starts[index + 1]), Math.toDegrees(starts[index]),
+                    Math.toDegrees(starts[index + 2]));
+            position(line, workspace, starts[index + 3], result, target);
+            result[target + 2] = Math.toRadians(workspace.azi2);
+        }
+        return result;
+    }
+
+    /**
+     * Computes evenly spaced points along the shortest geodesic between two points, including both end points.
+     *
+     * @param startLongitude The longitude of the first point, in radians.
+     * @param startLatitude  The latitude of the first point, in radians.
+     * @param endLongitude   The longitude of the second point, in radians.
+     * @param endLatitude    The latitude of the second point, in radians.
+     * @param count          The number of points, at least 2.
+     * @param result         The array onto which to store the packed longitude and latitude of the points, in
+     *                       radians.
+     * @param resultOffset   The index of the first element to write.
+     * @param resultStride   The number of elements per point, at least 2. Further elements are left unchanged,
+     *                       so a stride of 3 keeps room for heights.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] interpolate(double startLongitude, double startLatitude, double endLongitude,
+                                double endLatitude, int count, double[] result, int resultOffset, int resultStride) {
+        if (count < 2) {
+            throw new DeveloperError("count must be at least 2.");
+        }
+        if (resultStride < 2) {
+            throw new DeveloperError("resultStride must be at least 2.");
+        }
+        if (result == null) {
+            result = new double[resultOffset + resultStride * count];
+        }
+        checkRange(result.length, resultOffset, resultStride, 2, count);
+        Workspace workspace = new Workspace();
+        double startLatitudeDegrees = Math.toDegrees(startLatitude);
+        double startLongitudeDegrees = Math.toDegrees(startLongitude);
+        inverse(workspace, startLatitudeDegrees, startLongitudeDegrees, Math.toDegrees(endLatitude),
+                Math.toDegrees(endLongitude));
+        double distance = workspace.s12;
+        Line line = new Line();
+        initializeLine(line, workspace, startLatitudeDegrees, startLongitudeDegrees, workspace.azi1);
+        for (int i = 0; i < count; i++) {
+            position(line, workspace, distance * i / (count - 1), result, resultOffset + i * resultStride);
+        }
+        // Avoid round-off at the end points
+        result[resultOffset] = startLongitude;
+        result[resultOffset + 1] = startLatitude;
+        int last = resultOffset + (count - 1) * resultStride;
+        result[last] = CesiumMath.negativePiToPi(endLongitude);
+        result[last + 1] = endLatitude;
+        return result;
+    }
+
+    /**
+     * Computes the points at given distances along a geodesic.
+     *
+     * @param startLongitude The longitude of the start point, in radians.
+     * @param startLatitude  The latitude of the start point, in radians.
+     * @param startHeading   The heading at the start point, in radians.
+     * @param distances      The distances of the points from the start point, in meters.
+     * @param result         The array onto which to store the packed longitude and latitude of the points, in
+     *                       radians.
+     * @param resultOffset   The index of the first element to write.
+     * @param resultStride   The number of elements per point, at least 2. Further elements are left unchanged.
+     * @return The modified result parameter or a new array if none was provided.
+     */
+    public double[] interpolateUsingSurfaceDistances(double startLongitude, double startLatitude,
+                                                     double startHeading, double[] distances, double[] result,
+                                                     int resultOffset, int resultStride) {
+        if (resultStride < 2) {
+            throw new DeveloperError("resultStride must be at least 2.");
+        }
+        int count = distances.length;
+        if (result == null) {
+            result = new double[resultOffset + resultStride * count];
+        }
+        checkRange(result.length, resultOffset, resultStride, 2, count);
+        Workspace workspace = new Workspace();
+        Line line = new Line();
+        initializeLine(line, workspace, Math.toDegrees(startLatitude), Math.toDegrees(startLongitude),
+                Math.toDegrees(startHeading));
+        for (int i = 0; i < count; i++) {
+            position(line, workspace, distances[i], result, resultOffset + i * resultStride);
+        }
+        return result;
+    }
+
+    private static void checkPath(double[] positions, int offset, int stride, int count) {
+        if (stride < 2) {
+            throw new DeveloperError("stride must be at least 2.");
+        }
+        checkRange(positions.length, offset, stride, 2, count);
+    }
+
+    static void checkRange(int length, int offset, int stride, int width, int count) {
+        if (offset < 0 || count < 0 || (count > 0 && offset + (count - 1) * stride + width > length)) {
+            throw new DeveloperError("array is too small for " + count + " elements starting at " + offset + ".");
+        }
+    }
+
+    /**
+     * Solves the inverse problem in degrees, storing s12, azi1 and azi2 in the workspace.
+     */
+    void inverse(Workspace w, double lat1, double lon1, double lat2, double lon2) {
+        lat1 = latFix(lat1);
+        lat2 = latFix(lat2);
+        // Compute longitude difference carefully. Result is in [-180, 180], -180 only for west-going geodesics.
+        angleDifference(w, lon1, lon2);
+        double lon12 = w.first;
+        double lon12s = w.second;
+        int lonsign = lon12 >= 0 ? 1 : -1;
+        // If very close to being on the same half-meridian, then make it so.
+        lon12 = lonsign * angleRound(lon12);
+        lon12s = angleRound((180 - lon12) - lonsign * lon12s);
+        double lam12 = Math.toRadians(lon12);
+        sinCosDegrees(w, lon12 > 90 ? lon12s : lon12);
+        double slam12 = w.first;
+        double clam12 = (lon12 > 90 ? -1 : 1) * w.second;
+
+        // If really close to the equator, treat as on equator.
+        lat1 = angleRound(lat1);
+        lat2 = angleRound(lat2);
+        // Swap points so that point with higher (abs) latitude is point 1.
+        int swapp = Math.abs(lat1) < Math.abs(lat2) ? -1 : 1;
+        if (swapp < 0) {
+            lonsign *= -1;
+            double t = lat1;
+            lat1 = lat2;
+            lat2 = t;
+        }
+        // Make lat1 <= 0
+        int latsign = lat1 < 0 ? 1 : -1;
+        lat1 *= latsign;
+        lat2 *= latsign;
+
+        sinCosDegrees(w, lat1);
+        double sbet1 = f1 * w.first;
+        double cbet1 = w.second;
+        double r = Math.hypot(sbet1, cbet1);
+        sbet1 /= r;
+        cbet1 /= r;
+        // Ensure cbet1 = +epsilon at poles
+        cbet1 = Math.max(TINY, cbet1);
+
+        sinCosDegrees(w, lat2);
+        double sbet2 = f1 * w.first;
+        double cbet2 = w.second;
+        r = Math.hypot(sbet2, cbet2);
+        sbet2 /= r;
+        cbet2 /= r;
+        cbet2 = Math.max(TINY, cbet2);
+
+        // If cbet1 < -sbet1, then cbet2 - cbet1 is a sensitive measure of |bet1| - |bet2|, otherwise
+        // abs(sbet2) + sbet1 is. When these vanish, force bet2 = +/- bet1 exactly.
+        if (cbet1 < -sbet1) {
+            if (cbet2 == cbet1) {
+                sbet2 = sbet2 < 0 ? sbet1 : -sbet1;
+            }
+        } else {
+            if (Math.abs(sbet2) == -sbet1) {
+                cbet2 = cbet1;
+            }
+        }
+
+        double dn1 = Math.sqrt(1 + ep2 * sbet1 * sbet1);
+        double dn2 = Math.sqrt(1 + ep2 * sbet2 * sbet2);
+
+        double sig12 = Double.NaN;
+        double salp1 = Double.NaN;
+        double calp1 = Double.NaN;
+        double salp2 = Double.NaN;
+        double calp2 = Double.NaN;
+        double s12x = Double.NaN;
+        double m12x;
+
+        boolean meridian = lat1 == -90 || slam12 == 0;
+
+        if (meridian) {
+            // Endpoints are on a single full meridian, so the geodesic might lie on a meridian.
+            calp1 = clam12;
+            salp1 = slam12;
+            calp2 = 1;
+            salp2 = 0;
+
+            double ssig1 = sbet1;
+            double csig1 = calp1 * cbet1;
+            double ssig2 = sbet2;
+            double csig2 = calp2 * cbet2;
+
+            sig12 = Math.atan2(Math.max(0.0, csig1 * ssig2 - ssig1 * csig2), csig1 * csig2 + ssig1 * ssig2);
+            lengths(w, n, sig12, ssig1, csig1, dn1, ssig2, csig2, dn2, DISTANCE | REDUCED_LENGTH);
+            s12x = w.s12b;
+            m12x = w.m12b;
+            // sig12 > pi/2 for a meridional geodesic which is not a shortest path.
+            if (sig12 < 1 || m12x >= 0) {
+                // Prevent negative s12 or m12 for short lines
+                if (sig12 < 3 * TINY || (sig12 < TOLERANCE0 && (s12x < 0 || m12x < 0))) {
+                    sig12 = 0;
+                    s12x = 0;
+                }
+                s12x *= b;
+            } else {
+                // m12 < 0, i.e., prolate and too close to anti-podal
+                meridian = false;
+            }
+        }
+
+        if (!meridian && sbet1 == 0 && (f <= 0 || lon12s >= f * 180)) {
+            // Geodesic runs along equator
+            calp1 = 0;
+            calp2 = 0;
+            salp1 = 1;
+            salp2 = 1;
+            s12x = a * lam12;
+        } else if (!meridian) {
+            // Now point1 and point2 belong within a hemisphere bounded by a meridian and geodesic is neither
+            // meridional nor equatorial. Figure a starting point for Newton's method.
+            inverseStart(w, sbet1, cbet1, dn1, sbet2, cbet2, dn2, lam12, slam12, clam12);
+            sig12 = w.startSig12;
+            salp1 = w.startSalp1;
+            calp1 = w.startCalp1;
+
+            if (sig12 >= 0) {
+                // Short lines, inverseStart sets salp2, calp2 and dnm
+                salp2 = w.startSalp2;
+                calp2 = w.startCalp2;
+                s12x = sig12 * b * w.startDnm;
+            } else {
+                // Newton's method on f(alp1) = lambda12(alp1) - lam12 = 0, keeping a bracket (alp1a, alp1b)
+                // around the single root in (0, pi) and falling back to bisection when a step leaves it.
+                int iteration = 0;
+                double salp1a = TINY;
+                double calp1a = 1;
+                double salp1b = TINY;
+                double calp1b = -1;
+                boolean tripn = false;
+                boolean tripb = false;
+                for (; iteration < MAXIMUM_ITERATIONS; iteration++) {
+                    lambda12(w, sbet1, cbet1, dn1, sbet2, cbet2, dn2, salp1, calp1, slam12, clam12,
+                            iteration < MAXIMUM_ITERATIONS_NEWTON);
+                    double v = w.lam12;
+                    double dv = w.dlam12;
+                    salp2 = w.salp2;
+                    calp2 = w.calp2;
+                    sig12 = w.sig12;
+
+                    // Reversed test to allow escape with NaNs
+                    if (tripb || !(Math.abs(v) >= (tripn ? 8 : 1) * TOLERANCE0)) {
+                        break;
+                    }
+                    // Update bracketing values
+                    if (v > 0 && (iteration > MAXIMUM_ITERATIONS_NEWTON || calp1 / salp1 > calp1b / salp1b)) {
+                        salp1b = salp1;
+                        calp1b = calp1;
+                    } else if (v < 0
+                            && (iteration > MAXIMUM_ITERATIONS_NEWTON || calp1 / salp1 < calp1a / salp1a)) {
+                        salp1a = salp1;
+                        calp1a = calp1;
+                    }
+                    if (iteration < MAXIMUM_ITERATIONS_NEWTON && dv > 0) {
+                        double dalp1 = -v / dv;
+                        double sdalp1 = Math.sin(dalp1);
+                        double cdalp1 = Math.cos(dalp1);
+                        double nsalp1 = salp1 * cdalp1 + calp1 * sdalp1;
+                        if (nsalp1 > 0 && Math.abs(dalp1) < Math.PI) {
+                            calp1 = calp1 * cdalp1 - salp1 * sdalp1;
+                            salp1 = nsalp1;
+                            r = Math.hypot(salp1, calp1);
+                            salp1 /= r;
+                            calp1 /= r;
+                            // Convergence may not be quadratic when the slope vanishes, so test against epsilon
+                            tripn = Math.abs(v) <= 16 * TOLERANCE0;
+                            continue;
+                        }
+                    }
+                    // Either dv was not positive or the updated value left the bracket, use its midpoint.
+                    salp1 = (salp1a + salp1b) / 2;
+                    calp1 = (calp1a + calp1b) / 2;
+                    r = Math.hypot(salp1, calp1);
+                    salp1 /= r;
+                    calp1 /= r;
+                    tripn = false;
+                    tripb = Math.abs(salp1a - salp1) + (calp1a - calp1) < TOLERANCE_BISECTION
+                            || Math.abs(salp1 - salp1b) + (calp1 - calp1b) < TOLERANCE_BISECTION;
+                }
+                lengths(w, w.eps, sig12, w.ssig1, w.csig1, dn1, w.ssig2, w.csig2, dn2, DISTANCE);
+                s12x = w.s12b * b;
+            }
+        }
+
+        // Convert -0 to 0
+        w.s12 = 0 + s12x;
+
+        // Convert calp, salp to azimuth accounting for lonsign, swapp, latsign.
+        if (swapp < 0) {
+            double t = salp1;
+            salp1 = salp2;
+            salp2 = t;
+            t = calp1;
+            calp1 = calp2;
+            calp2 = t;
+        }
+        salp1 *= swapp * lonsign;
+        calp1 *= swapp * latsign;
+        salp2 *= swapp * lonsign;
+        calp2 *= swapp * latsign;
+        w.azi1 = atan2Degrees(salp1, calp1);
+        w.azi2 = atan2Degrees(salp2, calp2);
+    }
+
+    /**
+     * Initializes a geodesic line from a start point and azimuth, in degrees.
+     */
+    void initializeLine(Line line, Workspace w, double lat1, double lon1, double azi1) {
+        azi1 = angleNormalize(azi1);
+        sinCosDegrees(w, angleRound(azi1));
+        double salp1 = w.first;
+        double calp1 = w.second;
+
+        line.lat1 = latFix(lat1);
+        line.lon1 = lon1;
+        sinCosDegrees(w, angleRound(line.lat1));
+        double sbet1 = f1 * w.first;
+        double cbet1 = w.second;
+        double r = Math.hypot(sbet1, cbet1);
+        sbet1 /= r;
+        cbet1 = Math.max(TINY, cbet1 / r);
+
+        // Evaluate alp0 from sin(alp1) * cos(bet1) = sin(alp0)
+        line.salp0 = salp1 * cbet1;
+        line.calp0 = Math.hypot(calp1, salp1 * sbet1);
+        // Evaluate sig with tan(bet1) = tan(sig1) * cos(alp1) and omg1 with tan(omg1) = sin(alp0) * tan(sig1).
+        line.ssig1 = sbet1;
+        line.somg1 = line.salp0 * sbet1;
+        line.csig1 = sbet1 != 0 || calp1 != 0 ? cbet1 * calp1 : 1;
+        line.comg1 = line.csig1;
+        r = Math.hypot(line.ssig1, line.csig1);
+        line.ssig1 /= r;
+        line.csig1 /= r;
+
+        line.k2 = line.calp0 * line.calp0 * ep2;
+        double eps = line.k2 / (2 * (1 + Math.sqrt(1 + line.k2)) + line.k2);
+
+        line.a1m1 = a1m1f(eps);
+        c1f(eps, line.c1a);
+        line.b11 = sinCosSeries(true, line.ssig1, line.csig1, line.c1a);
+        double s = Math.sin(line.b11);
+        double c = Math.cos(line.b11);
+        // tau1 = sig1 + B11
+        line.stau1 = line.ssig1 * c + line.csig1 * s;
+        line.ctau1 = line.csig1 * c - line.ssig1 * s;
+
+        c1pf(eps, line.c1pa);
+
+        c3f(eps, line.c3a);
+        line.a3c = -f * line.salp0 * a3f(eps);
+        line.b31 = sinCosSeries(true, line.ssig1, line.csig1, line.c3a);
+    }
+
+    /**
+     * Computes the point at a distance along a line. Stores the longitude and latitude, in radians, into the result
+     * array and the azimuth at the point, in degrees, into the workspace.
+     */
+    void position(Line line, Workspace w, double s12, double[] result, int resultOffset) {
+        double tau12 = s12 / (b * (1 + line.a1m1));
+        double s = Math.sin(tau12);
+        double c = Math.cos(tau12);
+        // tau2 = tau1 + tau12
+        double b12 = -sinCosSeries(true, line.stau1 * c + line.ctau1 * s, line.ctau1 * c - line.stau1 * s,
+                line.c1pa);
+        double sig12 = tau12 - (b12 - line.b11);
+        double ssig12 = Math.sin(sig12);
+        double csig12 = Math.cos(sig12);
+        if (Math.abs(f) > 0.01) {
+            // The reverted distance series is inaccurate for |f| > 1/100, correct sig12 with one Newton step.
+            double ssig2 = line.ssig1 * csig12 + line.csig1 * ssig12;
+            double csig2 = line.csig1 * csig12 - line.ssig1 * ssig12;
+            b12 = sinCosSeries(true, ssig2, csig2, line.c1a);
+            double serr = (1 + line.a1m1) * (sig12 + (b12 - line.b11)) - s12 / b;
+            sig12 = sig12 - serr / Math.sqrt(1 + line.k2 * ssig2 * ssig2);
+            ssig12 = Math.sin(sig12);
+            csig12 = Math.cos(sig12);
+        }
+
+        // sig2 = sig1 + sig12
+        double ssig2 = line.ssig1 * csig12 + line.csig1 * ssig12;
+        double csig2 = line.csig1 * csig12 - line.ssig1 * ssig12;
+        // sin(bet2) = cos(alp0) * sin(sig2)
+        double sbet2 = line.calp0 * ssig2;
+        double cbet2 = Math.hypot(line.salp0, line.calp0 * csig2);
+        if (cbet2 == 0) {
+            // I.e., salp0 = 0, csig2 = 0. Break the degeneracy in this case
+            cbet2 = TINY;
+            csig2 = TINY;
+        }
+        // tan(alp0) = cos(sig2) * tan(alp2)
+        double salp2 = line.salp0;
+        double calp2 = line.calp0 * csig2;
+
+        // tan(omg2) = sin(alp0) * tan(sig2)
+        double somg2 = line.salp0 * ssig2;
+        double comg2 = csig2;
+        double omg12 = Math.atan2(somg2 * line.comg1 - comg2 * line.somg1, comg2 * line.comg1 + somg2 * line.somg1);
+        double lam12 = omg12 + line.a3c * (sig12 + (sinCosSeries(true, ssig2, csig2, line.c3a) - line.b31));
+        double lon2 = angleNormalize(line.lon1 + angleNormalize(Math.toDegrees(lam12)));
+
+        result[resultOffset] = Math.toRadians(lon2);
+        result[resultOffset + 1] = Math.toRadians(atan2Degrees(sbet2, f1 * cbet2));
+        w.azi2 = atan2Degrees(salp2, calp2);
+    }
+
+    private void lengths(Workspace w, double eps, double sig12, double ssig1, double csig1, double dn1,
+                         double ssig2, double csig2, double dn2, int outmask) {
+        // Return m12b = (reduced length) / b; also calculate s12b = distance / b, and m0 = coefficient of secular
+        // term in expression for reduced length.
+        double[] c1a = w.c1a;
+        double[] c2a = w.c2a;
+        double a1 = a1m1f(eps);
+        c1f(eps, c1a);
+        double m0x = 0.0;
+        double a2 = 0.0;
+        if ((outmask & REDUCED_LENGTH) != 0) {
+            a2 = a2m1f(eps);
+            c2f(eps, c2a);
+            m0x = a1 - a2;
+            a2 = 1 + a2;
+        }
+        a1 = 1 + a1;
+        double j12 = 0.0;
+        if ((outmask & DISTANCE) != 0) {
+            double b1 = sinCosSeries(true, ssig2, csig2, c1a) - sinCosSeries(true, ssig1, csig1, c1a);
+            // Missing a factor of b
+            w.s12b = a1 * (sig12 + b1);
+            if ((outmask & REDUCED_LENGTH) != 0) {
+                double b2 = sinCosSeries(true, ssig2, csig2, c2a) - sinCosSeries(true, ssig1, csig1, c2a);
+                j12 = m0x * sig12 + (a1 * b1 - a2 * b2);
+            }
+        } else if ((outmask & REDUCED_LENGTH) != 0) {
+            for (int l = 1; l <= ORDER; l++) {
+                c2a[l] = a1 * c1a[l] - a2 * c2a[l];
+            }
+            j12 = m0x * sig12 + (sinCosSeries(true, ssig2, csig2, c2a) - sinCosSeries(true, ssig1, csig1, c2a));
+        }
+        if ((outmask & REDUCED_LENGTH) != 0) {
+            w.m0 = m0x;
+            // Missing a factor of b. The parentheses ensure accurate cancellation for coincident points.
+            w.m12b = dn2 * (csig1 * ssig2) - dn1 * (ssig1 * csig2) - csig1 * csig2 * j12;
+        }
+    }
+
+    private void inverseStart(Workspace w, double sbet1, double cbet1, double dn1, double sbet2, double cbet2,
+                              double dn2, double lam12, double slam12, double clam12) {
+        // Return a starting point for Newton's method in salp1 and calp1 (sig12 = -1). If Newton's method doesn't
+        // need to be used, return also salp2, calp2, dnm and sig12.
+        w.startSig12 = -1;
+        // bet12 = bet2 - bet1 in [0, pi); bet12a = bet2 + bet1 in (-pi, 0]
+        double sbet12 = sbet2 * cbet1 - cbet2 * sbet1;
+        double cbet12 = cbet2 * cbet1 + sbet2 * sbet1;
+        double sbet12a = sbet2 * cbet1 + cbet2 * sbet1;
+        boolean shortline = cbet12 >= 0 && sbet12 < 0.5 && cbet2 * lam12 < 0.5;
+        double somg12;
+        double comg12;
+        if (shortline) {
+            double sbetm2 = (sbet1 + sbet2) * (sbet1 + sbet2);
+            // sin((bet1 + bet2) / 2)^2 = (sbet1 + sbet2)^2 / ((sbet1 + sbet2)^2 + (cbet1 + cbet2)^2)
+            sbetm2 /= sbetm2 + (cbet1 + cbet2) * (cbet1 + cbet2);
+            w.startDnm = Math.sqrt(1 + ep2 * sbetm2);
+            double omg12 = lam12 / (f1 * w.startDnm);
+            somg12 = Math.sin(omg12);
+            comg12 = Math.cos(omg12);
+        } else {
+            somg12 = slam12;
+            comg12 = clam12;
+        }
+
+        double salp1 = cbet2 * somg12;
+        double calp1 = comg12 >= 0
+                ? sbet12 + cbet2 * sbet1 * somg12 * somg12 / (1 + comg12)
+                : sbet12a - cbet2 * sbet1 * somg12 * somg12 / (1 - comg12);
+
+        double ssig12 = Math.hypot(salp1, calp1);
+        double csig12 = sbet1 * sbet2 + cbet1 * cbet2 * comg12;
+
+        if (shortline && ssig12 < etol2) {
+            // Really short lines
+            double salp2 = cbet1 * somg12;
+            double calp2 = sbet12 - cbet1 * sbet2 * (comg12 >= 0 ? somg12 * somg12 / (1 + comg12) : 1 - comg12);
+            double r = Math.hypot(salp2, calp2);
+            w.startSalp2 = salp2 / r;
+            w.startCalp2 = calp2 / r;
+            w.startSig12 = Math.atan2(ssig12, csig12);
+        } else if (Math.abs(n) > 0.1 || csig12 >= 0 || ssig12 >= 6 * Math.abs(n) * Math.PI * cbet1 * cbet1) {
+            // Nothing to do, zeroth order spherical approximation is OK
+        } else {
+            // Scale lam12 and bet2 to x, y coordinate system where antipodal point is at origin and singular point
+            // is at y = 0, x = -1.
+            double x;
+            double y;
+            double lamscale;
+            double betscale;
+            double lam12x = Math.atan2(-slam12, -clam12);
+            if (f >= 0) {
+                // x = dlong, y = dlat
+                double k2 = sbet1 * sbet1 * ep2;
+                double eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+                lamscale = f * cbet1 * a3f(eps) * Math.PI;
+                betscale = lamscale * cbet1;
+                x = lam12x / lamscale;
+                y = sbet12a / betscale;
+            } else {
+                // x = dlat, y = dlong
+                double cbet12a = cbet2 * cbet1 - sbet2 * sbet1;
+                double bet12a = Math.atan2(sbet12a, cbet12a);
+                lengths(w, n, Math.PI + bet12a, sbet1, -cbet1, dn1, sbet2, cbet2, dn2, REDUCED_LENGTH);
+                x = -1 + w.m12b / (cbet1 * cbet2 * w.m0 * Math.PI);
+                betscale = x < -0.01 ? sbet12a / x : -f * cbet1 * cbet1 * Math.PI;
+                lamscale = betscale / cbet1;
+                y = lam12x / lamscale;
+            }
+
+            if (y > -TOLERANCE1 && x > -1 - X_THRESHOLD) {
+                // Strip near cut
+                if (f >= 0) {
+                    salp1 = Math.min(1.0, -x);
+                    calp1 = -Math.sqrt(1 - salp1 * salp1);
+                } else {
+                    calp1 = Math.max(x > -TOLERANCE1 ? 0.0 : -1.0, x);
+                    salp1 = Math.sqrt(1 - calp1 * calp1);
+                }
+            } else {
+                // Estimate alp1 by solving the astroid problem.
+                double k = astroid(x, y);
+                double omg12a = lamscale * (f >= 0 ? -x * k / (1 + k) : -y * (1 + k) / k);
+                somg12 = Math.sin(omg12a);
+                comg12 = -Math.cos(omg12a);
+                // Update spherical estimate of alp1 using omg12 instead of lam12
+                salp1 = cbet2 * somg12;
+                calp1 = sbet12a - cbet2 * sbet1 * somg12 * somg12 / (1 - comg12);
+            }
+        }
+        // Sanity check on starting guess. Backwards check allows NaN through.
+        if (!(salp1 <= 0)) {
+            double r = Math.hypot(salp1, calp1);
+            w.startSalp1 = salp1 / r;
+            w.startCalp1 = calp1 / r;
+        } else {
+            w.startSalp1 = 1;
+            w.startCalp1 = 0;
+        }
+    }
+
+    private void lambda12(Workspace w, double sbet1, double cbet1, double dn1, double sbet2, double cbet2,
+                          double dn2, double salp1, double calp1, double slam120, double clam120, boolean diffp) {
+        if (sbet1 == 0 && calp1 == 0) {
+            // Break degeneracy of equatorial line. This case has already been handled.
+            calp1 = -TINY;
+        }
+        // sin(alp1) * cos(bet1) = sin(alp0)
+        double salp0 = salp1 * cbet1;
+        double calp0 = Math.hypot(calp1, salp1 * sbet1);
+
+        // tan(bet1) = tan(sig1) * cos(alp1), tan(omg1) = sin(alp0) * tan(sig1)
+        double ssig1 = sbet1;
+        double somg1 = salp0 * sbet1;
+        double csig1 = calp1 * cbet1;
+        double comg1 = csig1;
+        double r = Math.hypot(ssig1, csig1);
+        ssig1 /= r;
+        csig1 /= r;
+
+        // Enforce symmetries in the case abs(bet2) = -bet1, which can yield singularities in the Newton iteration.
+        // sin(alp2) * cos(bet2) = sin(alp0)
+        double salp2 = cbet2 != cbet1 ? salp0 / cbet2 : salp1;
+        // calp2 = sqrt(1 - sq(salp2)) = sqrt(sq(calp0) - sq(sbet2)) / cbet2, positive to give alp2 in [0, pi/2].
+        double calp2 = cbet2 != cbet1 || Math.abs(sbet2) != -sbet1
+                ? Math.sqrt(calp1 * cbet1 * calp1 * cbet1
+                + (cbet1 < -sbet1 ? (cbet2 - cbet1) * (cbet1 + cbet2) : (sbet1 - sbet2) * (sbet1 + sbet2))) / cbet2
+                : Math.abs(calp1);
+        // tan(bet2) = tan(sig2) * cos(alp2), tan(omg2) = sin(alp0) * tan(sig2)
+        double ssig2 = sbet2;
+        double somg2 = salp0 * sbet2;
+        double csig2 = calp2 * cbet2;
+        double comg2 = csig2;
+        r = Math.hypot(ssig2, csig2);
+        ssig2 /= r;
+        csig2 /= r;
+
+        // sig12 = sig2 - sig1, limit to [0, pi]
+        double sig12 = Math.atan2(Math.max(0.0, csig1 * ssig2 - ssig1 * csig2), csig1 * csig2 + ssig1 * ssig2);
+        // omg12 = omg2 - omg1, limit to [0, pi]
+        double somg12 = Math.max(0.0, comg1 * somg2 - somg1 * comg2);
+        double comg12 = comg1 * comg2 + somg1 * somg2;
+        // eta = omg12 - lam120
+        double eta = Math.atan2(somg12 * clam120 - comg12 * slam120, comg12 * clam120 + somg12 * slam120);
+        double k2 = calp0 * calp0 * ep2;
+        double eps = k2 / (2 * (1 + Math.sqrt(1 + k2)) + k2);
+        c3f(eps, w.c3a);
+        double b312 = sinCosSeries(true, ssig2, csig2, w.c3a) - sinCosSeries(true, ssig1, csig1, w.c3a);
+        double domg12 = -f * a3f(eps) * salp0 * (sig12 + b312);
+
+        w.lam12 = eta + domg12;
+        w.salp2 = salp2;
+        w.calp2 = calp2;
+        w.sig12 = sig12;
+        w.ssig1 = ssig1;
+        w.csig1 = csig1;
+        w.ssig2 = ssig2;
+        w.csig2 = csig2;
+        w.eps = eps;
+        if (diffp) {
+            if (calp2 == 0) {
+                w.dlam12 = -2 * f1 * dn1 / sbet1;
+            } else {
+                lengths(w, eps, sig12, ssig1, csig1, dn1, ssig2, csig2, dn2, REDUCED_LENGTH);
+                w.dlam12 = w.m12b * f1 / (calp2 * cbet2);
+            }
+        }
+    }
+
+    private static double astroid(double x, double y) {
+        // Solve k^4 + 2 * k^3 - (x^2 + y^2 - 1) * k^2 - 2 * y^2 * k - y^2 = 0 for positive root k.
+        double p = x * x;
+        double q = y * y;
+        double r = (p + q - 1) / 6;
+        if (q == 0 && r <= 0) {
+            return 0;
+        }
+        double s = p * q / 4;
+        double r2 = r * r;
+        double r3 = r * r2;
+        // The discriminant of the quadratic equation for T3
+        double disc = s * (s + 2 * r3);
+        double u = r;
+        if (disc >= 0) {
+            double t3 = s + r3;
+            // Pick the sign on the sqrt to maximize abs(T3), minimizing loss of precision due to cancellation.
+            t3 += t3 < 0 ? -Math.sqrt(disc) : Math.sqrt(disc);
+            double t = Math.cbrt(t3);
+            // T can be zero; but then r2 / T -> 0.
+            u += t + (t != 0 ? r2 / t : 0);
+        } else {
+            // T is complex, but the way u is defined the result is real.
+            double ang = Math.atan2(Math.sqrt(-disc), -(s + r3));
+            // There are three possible cube roots. We choose the root which avoids cancellation.
+            u += 2 * r * Math.cos(ang / 3);
+        }
+        double v = Math.sqrt(u * u + q);
+        // Avoid loss of accuracy when u < 0.
+        double uv = u < 0 ? q / (v - u) : u + v;
+        double w = (uv - q) / (2 * v);
+        // Rearrange expression for k to avoid loss of accuracy due to subtraction.
+        return uv / (Math.sqrt(uv + w * w) + w);
+    }
+
+    private static double polyval(int degree, double[] p, int s, double x) {
+        double y = degree < 0 ? 0 : p[s++];
+        while (--degree >= 0) {
+            y = y * x + p[s++];
+        }
+        return y;
+    }
+
+    private static double sinCosSeries(boolean sinp, double sinx, double cosx, double[] c) {
+        // Evaluate sum(c[i] * sin(2 * i * x), i, 1, n) or sum(c[i] * cos((2 * i + 1) * x), i, 0, n - 1) using
+        // Clenshaw summation.
+        int k = c.length;
+        int count = k - (sinp ? 1 : 0);
+        double ar = 2 * (cosx - sinx) * (cosx + sinx);
+        double y0 = (count & 1) != 0 ? c[--k] : 0;
+        double y1 = 0;
+        count /= 2;
+        while (count-- > 0) {
+            y1 = ar * y0 - y1 + c[--k];
+            y0 = ar * y1 - y0 + c[--k];
+        }
+        return sinp ? 2 * sinx * cosx * y0 : cosx * (y0 - y1);
+    }
+
+    private static double a1m1f(double eps) {
+        // The scale factor A1 - 1 = mean value of (d/dsigma)I1 - 1
+        double t = polyval(3, A1M1_COEFFICIENTS, 0, eps * eps) / A1M1_COEFFICIENTS[4];
+        return (t + eps) / (1 - eps);
+    }
+
+    private static void c1f(double eps, double[] c) {
+        // The coefficients C1[l] in the Fourier expansion of B1
+        double eps2 = eps * eps;
+        double d = eps;
+        int o = 0;
+        for (int l = 1; l <= ORDER; l++) {
+            int m = (ORDER - l) / 2;
+            c[l] = d * polyval(m, C1_COEFFICIENTS, o, eps2) / C1_COEFFICIENTS[o + m + 1];
+            o += m + 2;
+            d *= eps;
+        }
+    }
+
+    private static void c1pf(double eps, double[] c) {
+        // The coefficients C1p[l] in the Fourier expansion of B1p
+        double eps2 = eps * eps;
+        double d = eps;
+        int o = 0;
+        for (int l = 1; l <= ORDER; l++) {
+            int m = (ORDER - l) / 2;
+            c[l] = d * polyval(m, C1P_COEFFICIENTS, o, eps2) / C1P_COEFFICIENTS[o + m + 1];
+            o += m + 2;
+            d *= eps;
+        }
+    }
+
+    private static double a2m1f(double eps) {
+        // The scale factor A2 - 1 = mean value of (d/dsigma)I2 - 1
+        double t = polyval(3, A2M1_COEFFICIENTS, 0, eps * eps) / A2M1_COEFFICIENTS[4];
+        return (t - eps) / (1 + eps);
+    }
+
+    private static void c2f(double eps, double[] c) {
+        // The coefficients C2[l] in the Fourier expansion of B2
+        double eps2 = eps * eps;
+        double d = eps;
+        int o = 0;
+        for (int l = 1; l <= ORDER; l++) {
+            int m = (ORDER - l) / 2;
+            c[l] = d * polyval(m, C2_COEFFICIENTS, o, eps2) / C2_COEFFICIENTS[o + m + 1];
+            o += m + 2;
+            d *= eps;
+        }
+    }
+
+    private void computeA3Coefficients() {
+        int o = 0;
+        int k = 0;
+        for (int j = ORDER - 1; j >= 0; j--) {
+            // Coefficient of eps^j
+            int m = Math.min(ORDER - j - 1, j);
+            a3x[k++] = polyval(m, A3_COEFFICIENTS, o, n) / A3_COEFFICIENTS[o + m + 1];
+            o += m + 2;
+        }
+    }
+
+    private double a3f(double eps) {
+        // Evaluate A3
+        return polyval(ORDER - 1, a3x, 0, eps);
+    }
+
+    private void computeC3Coefficients() {
+        int o = 0;
+        int k = 0;
+        for (int l = 1; l < ORDER; l++) {
+            for (int j = ORDER - 1; j >= l; j--) {
+                // Coefficient of eps^j in C3[l]
+                int m = Math.min(ORDER - j - 1, j);
+                c3x[k++] = polyval(m, C3_COEFFICIENTS, o, n) / C3_COEFFICIENTS[o + m + 1];
+                o += m + 2;
+            }
+        }
+    }
+
+    private void c3f(double eps, double[] c) {
+        // Evaluate C3 coefficients
+        double mult = 1;
+        int o = 0;
+        for (int l = 1; l < ORDER; l++) {
+            int m = ORDER - l - 1;
+            mult *= eps;
+            c[l] = mult * polyval(m, c3x, o, eps);
+            o += m + 1;
+        }
+    }
+
+    // Angle helpers in degrees, exact for multiples of 90 degrees.
+
+    private static double latFix(double x) {
+        return Math.abs(x) > 90 ? Double.NaN : x;
+    }
+
+    private static double angleRound(double x) {
+        // Rounds tiny values so that 1 / 16 - x does not lose precision, so that small angles are treated as 0.
+        double z = 1 / 16.0;
+        double y = Math.abs(x);
+        y = y < z ? z - (z - y) : y;
+        return x < 0 ? -y : y;
+    }
+
+    static double angleNormalize(double x) {
+        x = x % 360.0;
+        return x <= -180 ? x + 360 : (x <= 180 ? x : x - 360);
+    }
+
+    private static void sum(Workspace w, double u, double v) {
+        // Error free transformation of a sum
+        double s = u + v;
+        double up = s - v;
+        double vpp = s - up;
+        up -= u;
+        vpp -= v;
+        w.first = s;
+        w.second = -(up + vpp);
+    }
+
+    private static void angleDifference(Workspace w, double x, double y) {
+        sum(w, angleNormalize(-x), angleNormalize(y));
+        double d = angleNormalize(w.first);
+        double t = w.second;
+        sum(w, d == 180 && t > 0 ? -180 : d, t);
+    }
+
+    private static void sinCosDegrees(Workspace w, double x) {
+        // Reduce the argument to [-45, 45] before converting to radians, so that multiples of 90 are exact.
+        double r = x % 360.0;
+        int q = (int) Math.floor(r / 90 + 0.5);
+        r -= 90 * q;
+        r = Math.toRadians(r);
+        double s = Math.sin(r);
+        double c = Math.cos(r);
+        double sinx;
+        double cosx;
+        switch (q & 3) {
+            case 0:
+                sinx = s;
+                cosx = c;
+                break;
+            case 1:
+                sinx = c;
+                cosx = -s;
+                break;
+            case 2:
+                sinx = -s;
+                cosx = -c;
+                break;
+            default:
+                sinx = -c;
+                cosx = s;
+                break;
+        }
+        if (x != 0) {
+            sinx += 0.0;
+            cosx += 0.0;
+        }
+        w.first = sinx;
+        w.second = cosx;
+    }
+
+    private static double atan2Degrees(double y, double x) {
+        // Reduce to the first octant before calling atan2, so that multiples of 90 are exact.
+        int q = 0;
+        if (Math.abs(y) > Math.abs(x)) {
+            double t = x;
+            x = y;
+            y = t;
+            q = 2;
+        }
+        if (x < 0) {
+            x = -x;
+            ++q;
+        }
+        double ang = Math.toDegrees(Math.atan2(y, x));
+        switch (q) {
+            case 1:
+                ang = (y >= 0 ? 180 : -180) - ang;
+                break;
+            case 2:
+                ang = 90 - ang;
+                break;
+            case 3:
+                ang = -90 + ang;
+                break;
+            default:
+                break;
+        }
+        return ang;
+    }
+
+    /**
+     * Scratch values of one solve. Not shared between threads.
+     */
+    static final class Workspace {
+        double first;
+        double second;
+        double s12;
+        double azi1;
+        double azi2;
+
+        double s12b;
+        double m12b;
+        double m0;
+
+        double startSig12;
+        double startSalp1;
+        double startCalp1;
+        double startSalp2;
+        double startCalp2;
+        double startDnm;
+
+        double lam12;
+        double dlam12;
+        double salp2;
+        double calp2;
+        double sig12;
+        double ssig1;
+        double csig1;
+        double ssig2;
+        double csig2;
+        double eps;
+
+        final double[] c1a = new double[ORDER + 1];
+        final double[] c2a = new double[ORDER + 1];
+        final double[] c3a = new double[ORDER];
+    }
+
+    /**
+     * The constants of a geodesic through a point with a given azimuth.
+     */
+    static final class Line {
+        double lat1;
+        double lon1;
+        double salp0;
+        double calp0;
+        double ssig1;
+        double csig1;
+        double somg1;
+        double comg1;
+        double k2;
+        double a1m1;
+        double b11;
+        double stau1;
+        double ctau1;
+        double a3c;
+        double b31;
+        final double[] c1a = new double[ORDER + 1];
+        final double[] c1pa = new double[ORDER + 1];
+        final double[] c3a = new double[ORDER];
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.GeographicTilingScheme;
+
+/**
+ * A tiling scheme for geometry referenced to a simple geographic projection where longitude and latitude are
+ * directly mapped to X and Y, implemented in pure Java. Mirrors {@link GeographicTilingScheme}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see GeographicTilingScheme
+ */
+public final class GeographicTilingSchemed extends TilingSchemed {
+    /**
+     * Creates the default scheme: the whole WGS84 ellipsoid with two level zero tiles in X and one in Y.
+     */
+    public GeographicTilingSchemed() {
+        this(Ellipsoidd.WGS84, -CesiumMath.PI, -CesiumMath.PI_OVER_TWO, CesiumMath.PI, CesiumMath.PI_OVER_TWO, 2, 1);
+    }
+
+    /**
+     * Creates a scheme.
+     *
+     * @param ellipsoid               The ellipsoid whose surface is being tiled.
+     * @param west                    The westernmost longitude covered by the tiling scheme, in radians.
+     * @param south                   The southernmost latitude covered by the tiling scheme, in radians.
+     * @param east                    The easternmost longitude covered by the tiling scheme, in radians.
+     * @param north                   The northernmost latitude covered by the tiling scheme, in radians.
+     * @param numberOfLevelZeroTilesX The number of tiles in the X direction at level zero, 1 or 2.
+     * @param numberOfLevelZeroTilesY The number of tiles in the Y direction at level zero, 1 or 2.
+     */
+    public GeographicTilingSchemed(Ellipsoidd ellipsoid, double west, double south, double east, double north,
+                                   int numberOfLevelZeroTilesX, int numberOfLevelZeroTilesY) {
+        super(ellipsoid, numberOfLevelZeroTilesX, numberOfLevelZeroTilesY, west, south, east, north);
+    }
+
+    @Override
+    public double[] tileXYToNativeRectangle(int x, int y, int level, double[] result, int offset) {
+        tileXYToRectangle(x, y, level, result, offset);
+        for (int i = offset; i < offset + 4; i++) {
+            result[i] = Math.toDegrees(result[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public double[] tileXYToRectangle(int x, int y, int level, double[] result, int offset) {
+        double xTileWidth = width() / getNumberOfXTilesAtLevel(level);
+        double yTileHeight = (north - south) / getNumberOfYTilesAtLevel(level);
+        return setRectangle(x * xTileWidth + west, north - (y + 1) * yTileHeight, (x + 1) * xTileWidth + west,
+                north - y * yTileHeight, result, offset);
+    }
+
+    @Override
+    public long positionToTileKey(double longitude, double latitude, int level) {
+        if (!contains(longitude, latitude)) {
+            return TileKey.NONE;
+        }
+        int xTiles = getNumberOfXTilesAtLevel(level);
+        int yTiles = getNumberOfYTilesAtLevel(level);
+        double xTileWidth = width() / xTiles;
+        double yTileHeight = (north - south) / yTiles;
+        if (east < west) {
+            longitude += CesiumMath.TWO_PI;
+        }
+        int x = (int) ((longitude - west) / xTileWidth);
+        if (x >= xTiles) {
+            x = xTiles - 1;
+        }
+        int y = (int) ((north - latitude) / yTileHeight);
+        if (y >= yTiles) {
+            y = yTiles - 1;
+        }
+        return TileKey.fromTileXY(x, y, level);
+    }
+
+    @Override
+    double longitudeToTileX(double longitude) {
+        if (east < west && longitude < west) {
+            longitude += CesiumMath.TWO_PI;
+        }
+        return (longitude - west) / width() * numberOfLevelZeroTilesX;
+    }
+
+    @Override
+    double latitudeToTileY(double latitude) {
+        return (north - latitude) / (north - south) * numberOfLevelZeroTilesY;
+    }
+
+    private double width() {
+        return east < west ? east + CesiumMath.TWO_PI - west : east - west;
+    }
+}
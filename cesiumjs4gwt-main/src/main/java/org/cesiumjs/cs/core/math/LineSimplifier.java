@@ -0,0 +1,741 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * Removes vertices from over-sampled polylines and polygon rings before geometry is built from them, implemented
+ * in pure Java. Two algorithms are available: Douglas-Peucker, which keeps every vertex farther than the tolerance
+ * from the simplified line, and Visvalingam-Whyatt, which repeatedly removes the vertex forming the smallest
+ * triangle with its neighbours and gives smoother results for natural features.
+ * <p>
+ * Both algorithms first compute a significance for each vertex, a length in the units of the coordinates, and
+ * then keep the vertices more significant than the tolerance. The significance does not depend on the tolerance,
+ * so it can be computed once and selected at the tolerance of each zoom level with
+ * {@link #selectLevels(double[], int, double[])}; the vertices kept at a tolerance are always a subset of those
+ * kept at a smaller one. For Visvalingam-Whyatt the significance is the square root of the effective area.
+ * <p>
+ * A ring never loses its last three distinct vertices. With Visvalingam-Whyatt, a vertex of a ring is also not
+ * removed while another vertex of the ring lies in the triangle it forms with its neighbours, so simplification
+ * does not make a simple ring intersect itself. A simplifier may be reused for many lines but is not thread-safe.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see ArcDensifier
+ */
+public final class LineSimplifier {
+    /**
+     * Keeps the vertices whose distance to the simplified line exceeds the tolerance.
+     */
+    public static final int DOUGLAS_PEUCKER = 0;
+    /**
+     * Removes the vertices forming the smallest triangles with their neighbours first.
+     */
+    public static final int VISVALINGAM_WHYATT = 1;
+    /**
+     * The default tolerance, in meters.
+     */
+    public static final double DEFAULT_TOLERANCE = 1.0;
+
+    private final int algorithm;
+    private double tolerance = DEFAULT_TOLERANCE;
+    private double[] significance = new double[0];
+    private int[] previous = new int[0];
+    private int[] next = new int[0];
+    private int[] heap = new int[0];
+    private int[] heapIndex = new int[0];
+
+    /**
+     * Creates a Douglas-Peucker simplifier with the default tolerance.
+     */
+    public LineSimplifier() {
+        this(DOUGLAS_PEUCKER);
+    }
+
+    /**
+     * Creates a simplifier with the default tolerance.
+     *
+     * @param algorithm {@link #DOUGLAS_PEUCKER} or {@link #VISVALINGAM_WHYATT}.
+     */
+    public LineSimplifier(int algorithm) {
+        if (algorithm != DOUGLAS_PEUCKER && algorithm != VISVALINGAM_WHYATT) {
+            throw new DeveloperError("algorithm must be DOUGLAS_PEUCKER or VISVALINGAM_WHYATT.");
+        }
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Computes the size of a pixel of a Web Mercator map at a zoom level, for 256 pixel tiles.
+     *
+     * @param latitude The latitude, in radians.
+     * @param zoom     The zoom level.
+     * @return The pixel size, in meters.
+     */
+    public static double computeWebMercatorPixelSize(double latitude, double zoom) {
+        double circumference = CesiumMath.TWO_PI * Ellipsoidd.WGS84.getMaximumRadius();
+        return Math.cos(latitude) * circumference / (256.0 * Math.pow(2.0, zoom));
+    }
+
+    /**
+     * Gets the algorithm.
+     *
+     * @return {@link #DOUGLAS_PEUCKER} or {@link #VISVALINGAM_WHYATT}.
+     */
+    public int getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Gets the tolerance.
+     *
+     * @return The tolerance, in the units of the coordinates, usually meters.
+     */
+    public double getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * Sets the tolerance.
+     *
+     * @param tolerance The tolerance, in the units of the coordinates, usually meters.
+     * @return This simplifier.
+     */
+    public LineSimplifier setTolerance(double tolerance) {
+        if (!(tolerance >= 0.0)) {
+            throw new DeveloperError("tolerance must be greater than or equal to 0.");
+        }
+        this.tolerance = tolerance;
+        return this;
+    }
+
+    /**
+     * Sets the tolerance from a screen-space error.
+     *
+     * @param pixels    The largest allowed error, in pixels.
+     * @param pixelSize The size of a pixel, in meters, for example from {@link ArcDensifier#computePixelSize} or
+     *                  {@link #computeWebMercatorPixelSize}.
+     * @return This simplifier.
+     */
+    public LineSimplifier setScreenSpaceTolerance(double pixels, double pixelSize) {
+        return setTolerance(pixels * pixelSize);
+    }
+
+    /**
+     * Simplifies a line at the tolerance of this simplifier.
+     *
+     * @param positions  The packed coordinates.
+     * @param dimensions The number of coordinates per vertex, 2 or 3.
+     * @param ring       Whether the line is a closed ring; it may or may not repeat its first vertex at the end.
+     * @return The packed coordinates of the kept vertices.
+     */
+    public double[] simplify(double[] positions, int dimensions, boolean ring) {
+        int count = positions.length / dimensions;
+        int[] indices = new int[count];
+        int kept = simplify(positions, 0, dimensions, dimensions, count, ring, indices);
+        double[] result = new double[kept * dimensions];
+        for (int i = 0; i < kept; i++) {
+            System.arraycopy(positions, indices[i] * dimensions, result, i * dimensions, dimensions);
+        }
+        return result;
+    }
+
+    /**
+     * Simplifies a line at the tolerance of this simplifier.
+     *
+     * @param positions  The packed coordinates.
+     * @param offset     The index of the first coordinate in the array.
+     * @param stride     The number of values per vertex, at least the number of dimensions.
+     * @param dimensions The number of coordinates per vertex used for the simplification, 2 or 3.
+     * @param count      The number of vertices.
+     * @param ring       Whether the line is a closed ring; it may or may not repeat its first vertex at the end.
+     * @param result     The array onto which to store the indices of the kept vertices, in order.
+     * @return The number of kept vertices.
+     */
+    public int simplify(double[] positions, int offset, int stride, int dimensions, int count, boolean ring,
+                        int[] result) {
+        computeSignificance(positions, offset, stride, dimensions, count, ring, ensureSignificance(count));
+        return select(significance, count, tolerance, result);
+    }
+
+    /**
+     * Computes the significance of each vertex of a line with the algorithm of this simplifier.
+     *
+     * @param positions  The packed coordinates.
+     * @param offset     The index of the first coordinate in the array.
+     * @param stride     The number of values per vertex, at least the number of dimensions.
+     * @param dimensions The number of coordinates per vertex used for the simplification, 2 or 3.
+     * @param count      The number of vertices.
+     * @param ring       Whether the line is a closed ring; it may or may not repeat its first vertex at the end.
+     * @param result     The array onto which to store the significance of each vertex, infinite for vertices
+     *                   which are always kept.
+     * @return The result array.
+     */
+    public double[] computeSignificance(double[] positions, int offset, int stride, int dimensions, int count,
+                                        boolean ring, double[] result) {
+        if (dimensions != 2 && dimensions != 3) {
+            throw new DeveloperError("dimensions must be 2 or 3.");
+        }
+        if (stride < dimensions) {
+            throw new DeveloperError("stride must be at least the number of dimensions.");
+        }
+        Geodesicd.checkRange(positions.length, offset, stride, dimensions, count);
+        if (result == null) {
+            result = new double[count];
+        } else if (result.length < count) {
+            throw new DeveloperError("result is too small for " + count + " vertices.");
+        }
+        // A ring may repeat its first vertex, which is then kept with it
+        int distinct = count;
+        if (ring && count > 1 && same(positions, offset, offset + (count - 1) * stride, dimensions)) {
+            distinct--;
+            result[count - 1] = Double.POSITIVE_INFINITY;
+        }
+        int minimum = ring ? 3 : 2;
+        if (distinct <= minimum) {
+            for (int i = 0; i < distinct; i++) {
+                result[i] = Double.POSITIVE_INFINITY;
+            }
+            return result;
+        }
+        if (algorithm == DOUGLAS_PEUCKER) {
+            douglasPeucker(positions, offset, stride, dimensions, distinct, ring, result);
+        } else {
+            visvalingamWhyatt(positions, offset, stride, dimensions, distinct, ring, result);
+        }
+        if (distinct < count) {
+            // The repeated first vertex goes with the first vertex, which Visvalingam-Whyatt may remove
+            result[count - 1] = result[0];
+        }
+        return result;
+    }
+
+    /**
+     * Selects the vertices more significant than a tolerance.
+     *
+     * @param significance The significance of each vertex.
+     * @param count        The number of vertices.
+     * @param tolerance    The tolerance.
+     * @param result       The array onto which to store the indices of the kept vertices, in order.
+     * @return The number of kept vertices.
+     */
+    public static int select(double[] significance, int count, double tolerance, int[] result) {
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (significance[i] > tolerance) {
+                result[kept++] = i;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Selects the vertices more significant than each of several tolerances, for example the tolerances of the
+     * zoom levels of a tile pyramid.
+     *
+     * @param significance The significance of each vertex.
+     * @param count        The number of vertices.
+     * @param tolerances   The tolerances.
+     * @return The indices of the kept vertices for each tolerance.
+     */
+    public static int[][] selectLevels(double[] significance, int count, double[] tolerances) {
+        int[][] result = new int[tolerances.length][];
+        int[] scratch = new int[count];
+        for (int level = 0; level < tolerances.length; level++) {
+            int kept = select(significance, count, tolerances[level], scratch);
+            result[level] = new int[kept];
+            System.arraycopy(scratch, 0, result[level], 0, kept);
+        }
+        return result;
+    }
+
+    /**
+     * Projects longitudes and latitudes in degrees onto a local plane in meters, with an equirectangular projection
+     * at their mean latitude, so that lines from GeoJSON or GPX can be simplified with a tolerance in meters.
+     *
+     * @param positions The packed longitude and latitude values, in degrees.
+     * @param offset    The index of the first longitude in the array.
+     * @param stride    The number of values per position, at least 2.
+     * @param count     The number of positions.
+     * @param result    The array onto which to store the x and y coordinates, two per position, or null to create
+     *                  a new array.
+     * @return The result array.
+     */
+    public static double[] projectDegrees(double[] positions, int offset, int stride, int count, double[] result) {
+        Geodesicd.checkRange(positions.length, offset, stride, 2, count);
+        if (result == null) {
+            result = new double[2 * count];
+        } else if (result.length < 2 * count) {
+            throw new DeveloperError("result is too small for " + count + " positions.");
+        }
+        double latitude = 0.0;
+        for (int i = 0; i < count; i++) {
+            latitude += positions[offset + i * stride + 1];
+        }
+        double radius = Ellipsoidd.WGS84.getMaximumRadius();
+        double scaleY = radius * CesiumMath.PI / 180.0;
+        double scaleX = count > 0 ? scaleY * Math.cos(latitude / count * CesiumMath.PI / 180.0) : scaleY;
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * stride;
+            result[2 * i] = positions[index] * scaleX;
+            result[2 * i + 1] = positions[index + 1] * scaleY;
+        }
+        return result;
+    }
+
+    private double[] ensureSignificance(int count) {
+        if (significance.length < count) {
+            significance = new double[count];
+        }
+        return significance;
+    }
+
+    private void ensureWorkspace(int count) {
+        if (previous.length < count) {
+            previous = new int[count];
+            next = new int[count];
+            heap = new int[count];
+            heapIndex = new int[count];
+        }
+    }
+
+    private void douglasPeucker(double[] positions, int offset, int stride, int dimensions, int count,
+                                boolean ring, double[] result) {
+        ensureWorkspace(count + 1);
+        // Pending segments as first and last vertex, with the significance of the split which created them
+        int[] stack = heap;
+        double[] bounds = new double[count];
+        int size = 0;
+        if (ring) {
+            // Split the ring at the vertex farthest from the first one; vertex count stands for the first vertex
+            int farthest = 1;
+            double maximum = -1.0;
+            for (int i = 1; i < count; i++) {
+                double distance = distanceSquared(positions, offset, offset + i * stride, dimensions);
+                if (distance > maximum) {
+                    maximum = distance;
+                    farthest = i;
+                }
+            }
+            result[0] = Double.POSITIVE_INFINITY;
+            result[farthest] = Double.POSITIVE_INFINITY;
+            stack[size] = 0;
+            previous[size] = farthest;
+            bounds[size++] = Double.POSITIVE_INFINITY;
+            stack[size] = farthest;
+            previous[size] = count;
+            bounds[size++] = Double.POSITIVE_INFINITY;
+        } else {
+            result[0] = Double.POSITIVE_INFINITY;
+            result[count - 1] = Double.POSITIVE_INFINITY;
+            stack[size] = 0;
+            previous[size] = count - 1;
+            bounds[size++] = Double.POSITIVE_INFINITY;
+        }
+        // The first split of each half of a ring, the more significant of which is always kept
+        int firstSplit = -1;
+        int secondSplit = -1;
+        while (size > 0) {
+            size--;
+            int first = stack[size];
+            int end = previous[size];
+            double bound = bounds[size];
+            int a = offset + first * stride;
+            int b = offset + (end == count ? 0 : end) * stride;
+            int split = -1;
+            double maximum = -1.0;
+            for (int i = first + 1; i < end; i++) {
+                double distance = segmentDistanceSquared(positions, offset + i * stride, a, b, dimensions);
+                if (distance > maximum) {
+                    maximum = distance;
+                    split = i;
+                }
+            }
+            if (split < 0) {
+                continue;
+            }
+            double value = Math.min(Math.sqrt(maximum), bound);
+            result[split] = value;
+            if (ring && bound == Double.POSITIVE_INFINITY) {
+                if (firstSplit < 0) {
+                    firstSplit = split;
+                } else {
+                    secondSplit = split;
+                }
+            }
+            stack[size] = first;
+            previous[size] = split;
+            bounds[size++] = value;
+            stack[size] = split;
+            previous[size] = end;
+            bounds[size++] = value;
+        }
+        if (ring) {
+            int kept = firstSplit;
+            if (secondSplit >= 0 && (kept < 0 || result[secondSplit] > result[kept])) {
+                kept = secondSplit;
+            }
+            if (kept >= 0) {
+                result[kept] = Double.POSITIVE_INFINITY;
+            }
+        }
+    }
+
+    private void visvalingamWhyatt(double[] positions, int offset, int stride, int dimensions, int count,
+                                   boolean ring, double[] result) {
+        ensureWorkspace(count);
+        double[] areas = result;
+        for (int i = 0; i < count; i++) {
+            previous[i] = i > 0 ? i - 1 : (ring ? count - 1 : -1);
+            next[i] = i < count - 1 ? i + 1 : (ring ? 0 : -1);
+        }
+        RingIndex index = ring ? new RingIndex(positions, offset, stride, dimensions, count) : null;
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            heapIndex[i] = -1;
+            if (previous[i] < 0 || next[i] < 0) {
+                areas[i] = Double.POSITIVE_INFINITY;
+                continue;
+            }
+            areas[i] = area(positions, offset, stride, dimensions, previous[i], i, next[i]);
+            heap[heapSize] = i;
+            siftUp(areas, heapSize, heapSize);
+            heapSize++;
+        }
+        int alive = count;
+        int minimum = ring ? 3 : 2;
+        double effective = 0.0;
+        while (heapSize > 0 && alive > minimum) {
+            int vertex = heap[0];
+            heapSize = removeTop(areas, heapSize);
+            int before = previous[vertex];
+            int after = next[vertex];
+            if (index != null && index.blocks(before, vertex, after)) {
+                // Kept until one of its neighbours changes
+                continue;
+            }
+            effective = Math.max(effective, areas[vertex]);
+            // Removed vertices hold their significance; the others keep their area in the heap
+            areas[vertex] = -Math.sqrt(effective) - 1.0;
+            next[before] = after;
+            previous[after] = before;
+            alive--;
+            if (index != null) {
+                index.remove(vertex);
+            }
+            heapSize = update(positions, offset, stride, dimensions, areas, before, heapSize);
+            heapSize = update(positions, offset, stride, dimensions, areas, after, heapSize);
+        }
+        for (int i = 0; i < count; i++) {
+            result[i] = areas[i] < 0.0 ? -areas[i] - 1.0 : Double.POSITIVE_INFINITY;
+        }
+    }
+
+    private int update(double[] positions, int offset, int stride, int dimensions, double[] areas, int vertex,
+                       int heapSize) {
+        if (previous[vertex] < 0 || next[vertex] < 0) {
+            return heapSize;
+        }
+        areas[vertex] = area(positions, offset, stride, dimensions, previous[vertex], vertex, next[vertex]);
+        int position = heapIndex[vertex];
+        if (position < 0) {
+            heap[heapSize] = vertex;
+            heapIndex[vertex] = heapSize;
+            siftUp(areas, heapSize, heapSize);
+            return heapSize + 1;
+        }
+        siftDown(areas, siftUp(areas, position, heapSize), heapSize);
+        return heapSize;
+    }
+
+    private int siftUp(double[] areas, int position, int heapSize) {
+        int vertex = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >> 1;
+            if (areas[heap[parent]] <= areas[vertex]) {
+                break;
+            }
+            heap[position] = heap[parent];
+            heapIndex[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = vertex;
+        heapIndex[vertex] = position;
+        return position;
+    }
+
+    private void siftDown(double[] areas, int position, int heapSize) {
+        int vertex = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && areas[heap[child + 1]] < areas[heap[child]]) {
+                child++;
+            }
+            if (areas[heap[child]] >= areas[vertex]) {
+                break;
+            }
+            heap[position] = heap[child];
+            heapIndex[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = vertex;
+        heapIndex[vertex] = position;
+    }
+
+    private int removeTop(double[] areas, int heapSize) {
+        heapIndex[heap[0]] = -1;
+        heapSize--;
+        if (heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            siftDown(areas, 0, heapSize);
+        }
+        return heapSize;
+    }
+
+    private static double area(double[] positions, int offset, int stride, int dimensions, int a, int b, int c) {
+        int ia = offset + a * stride;
+        int ib = offset + b * stride;
+        int ic = offset + c * stride;
+        double ux = positions[ia] - positions[ib];
+        double uy = positions[ia + 1] - positions[ib + 1];
+        double vx = positions[ic] - positions[ib];
+        double vy = positions[ic + 1] - positions[ib + 1];
+        if (dimensions == 2) {
+            return 0.5 * Math.abs(ux * vy - uy * vx);
+        }
+        double uz = positions[ia + 2] - positions[ib + 2];
+        double vz = positions[ic + 2] - positions[ib + 2];
+        double x = uy * vz - uz * vy;
+        double y = uz * vx - ux * vz;
+        double z = ux * vy - uy * vx;
+        return 0.5 * Math.sqrt(x * x + y * y + z * z);
+    }
+
+    private static boolean same(double[] positions, int a, int b, int dimensions) {
+        for (int i = 0; i < dimensions; i++) {
+            if (positions[a + i] != positions[b + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static double distanceSquared(double[] positions, int a, int b, int dimensions) {
+        double sum = 0.0;
+        for (int i = 0; i < dimensions; i++) {
+            double d = positions[b + i] - positions[a + i];
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    /**
+     * The squared distance from a point to a segment.
+     */
+    private static double segmentDistanceSquared(double[] positions, int p, int a, int b, int dimensions) {
+        double dot = 0.0;
+        double lengthSquared = 0.0;
+        for (int i = 0; i < dimensions; i++) {
+            double segment = positions[b + i] - positions[a + i];
+            dot += (positions[p + i] - positions[a + i]) * segment;
+            lengthSquared += segment * segment;
+        }
+        double t = lengthSquared > 0.0 ? Math.max(0.0, Math.min(1.0, dot / lengthSquared)) : 0.0;
+        double sum = 0.0;
+        for (int i = 0; i < dimensions; i++) {
+            double d = positions[p + i] - (positions[a + i] + t * (positions[b + i] - positions[a + i]));
+            sum += d * d;
+        }
+        return sum;
+    }
+
+    /**
+     * A uniform grid of the vertices of a ring in its plane, to find the vertices inside the triangle a vertex
+     * forms with its neighbours.
+     */
+    private static final class RingIndex {
+        private final double[] x;
+        private final double[] y;
+        private final boolean[] removed;
+        private final int[] cellStart;
+        private final int[] cellVertices;
+        private final int columns;
+        private final int rows;
+        private final double minX;
+        private final double minY;
+        private final double inverseCellSize;
+
+        RingIndex(double[] positions, int offset, int stride, int dimensions, int count) {
+            x = new double[count];
+            y = new double[count];
+            removed = new boolean[count];
+            project(positions, offset, stride, dimensions, count);
+
+            double maxX = x[0];
+            double maxY = y[0];
+            double lowX = x[0];
+            double lowY = y[0];
+            for (int i = 1; i < count; i++) {
+                lowX = Math.min(lowX, x[i]);
+                lowY = Math.min(lowY, y[i]);
+                maxX = Math.max(maxX, x[i]);
+                maxY = Math.max(maxY, y[i]);
+            }
+            minX = lowX;
+            minY = lowY;
+            double size = Math.max(maxX - lowX, maxY - lowY);
+            int side = Math.max(1, (int) Math.ceil(Math.sqrt(count)));
+            inverseCellSize = size > 0.0 ? side / size : 0.0;
+            columns = Math.min(side, (int) ((maxX - lowX) * inverseCellSize) + 1);
+            rows = Math.min(side, (int) ((maxY - lowY) * inverseCellSize) + 1);
+
+            // Counting sort of the vertices by cell
+            cellStart = new int[columns * rows + 1];
+            for (int i = 0; i < count; i++) {
+                cellStart[cell(i) + 1]++;
+            }
+            for (int c = 0; c < columns * rows; c++) {
+                cellStart[c + 1] += cellStart[c];
+            }
+            cellVertices = new int[count];
+            int[] fill = new int[columns * rows];
+            for (int i = 0; i < count; i++) {
+                int c = cell(i);
+                cellVertices[cellStart[c] + fill[c]++] = i;
+            }
+        }
+
+        void remove(int vertex) {
+            removed[vertex] = true;
+        }
+
+        boolean blocks(int a, int b, int c) {
+            double x0 = Math.min(x[a], Math.min(x[b], x[c]));
+            double y0 = Math.min(y[a], Math.min(y[b], y[c]));
+            double x1 = Math.max(x[a], Math.max(x[b], x[c]));
+            double y1 = Math.max(y[a], Math.max(y[b], y[c]));
+            int column0 = column(x0);
+            int column1 = column(x1);
+            int row0 = row(y0);
+            int row1 = row(y1);
+            double orientation = (x[b] - x[a]) * (y[c] - y[a]) - (y[b] - y[a]) * (x[c] - x[a]);
+            for (int row = row0; row <= row1; row++) {
+                for (int column = column0; column <= column1; column++) {
+                    int cellIndex = row * columns + column;
+                    for (int k = cellStart[cellIndex]; k < cellStart[cellIndex + 1]; k++) {
+                        int p = cellVertices[k];
+                        if (removed[p] || p == a || p == b || p == c) {
+                            continue;
+                        }
+                        double px = x[p];
+                        double py = y[p];
+                        if (px < x0 || px > x1 || py < y0 || py > y1) {
+                            continue;
+                        }
+                        if (inside(a, b, c, px, py, orientation)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private boolean inside(int a, int b, int c, double px, double py, double orientation) {
+            double sign = orientation >= 0.0 ? 1.0 : -1.0;
+            double ab = sign * ((x[b] - x[a]) * (py - y[a]) - (y[b] - y[a]) * (px - x[a]));
+            double bc = sign * ((x[c] - x[b]) * (py - y[b]) - (y[c] - y[b]) * (px - x[b]));
+            double ca = sign * ((x[a] - x[c]) * (py - y[c]) - (y[a] - y[c]) * (px - x[c]));
+            return ab >= 0.0 && bc >= 0.0 && ca >= 0.0;
+        }
+
+        private int cell(int vertex) {
+            return row(y[vertex]) * columns + column(x[vertex]);
+        }
+
+        private int column(double value) {
+            return Math.max(0, Math.min(columns - 1, (int) ((value - minX) * inverseCellSize)));
+        }
+
+        private int row(double value) {
+            return Math.max(0, Math.min(rows - 1, (int) ((value - minY) * inverseCellSize)));
+        }
+
+        /**
+         * Copies 2D rings, and projects 3D rings onto the plane of their Newell normal.
+         */
+        private void project(double[] positions, int offset, int stride, int dimensions, int count) {
+            if (dimensions == 2) {
+                for (int i = 0; i < count; i++) {
+                    x[i] = positions[offset + i * stride];
+                    y[i] = positions[offset + i * stride + 1];
+                }
+                return;
+            }
+            double nx = 0.0;
+            double ny = 0.0;
+            double nz = 0.0;
+            for (int i = 0; i < count; i++) {
+                int p = offset + i * stride;
+                int q = offset + ((i + 1) % count) * stride;
+                nx += (positions[p + 1] - positions[q + 1]) * (positions[p + 2] + positions[q + 2]);
+                ny += (positions[p + 2] - positions[q + 2]) * (positions[p] + positions[q]);
+                nz += (positions[p] - positions[q]) * (positions[p + 1] + positions[q + 1]);
+            }
+            double length = Math.sqrt(nx * nx + ny * ny + nz * nz);
+            if (length == 0.0) {
+                nz = 1.0;
+            } else {
+                nx /= length;
+                ny /= length;
+                nz /= length;
+            }
+            // An axis perpendicular to the normal, from the least aligned coordinate axis
+            double ux;
+            double uy;
+            double uz;
+            if (Math.abs(nx) <= Math.abs(ny) && Math.abs(nx) <= Math.abs(nz)) {
+                ux = 0.0;
+                uy = nz;
+                uz = -ny;
+            } else if (Math.abs(ny) <= Math.abs(nz)) {
+                ux = -nz;
+                uy = 0.0;
+                uz = nx;
+            } else {
+                ux = ny;
+                uy = -nx;
+                uz = 0.0;
+            }
+            double uLength = Math.sqrt(ux * ux + uy * uy + uz * uz);
+            ux /= uLength;
+            uy /= uLength;
+            uz /= uLength;
+            double vx = ny * uz - nz * uy;
+            double vy = nz * ux - nx * uz;
+            double vz = nx * uy - ny * ux;
+            for (int i = 0; i < count; i++) {
+                int p = offset + i * stride;
+                x[i] = positions[p] * ux + positions[p + 1] * uy + positions[p + 2] * uz;
+                y[i] = positions[p] * vx + positions[p + 1] * vy + positions[p + 2] * vz;
+            }
+        }
+    }
+}
@@ -0,0 +1,597 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Matrix2;
+
+/**
+ * A 2x2 matrix implemented in pure Java, indexable as a column-major order array through {@link #values}.
+ * Mirrors the static API of {@link Matrix2}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Matrix2
+ */
+public final class Matrix2d {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 4;
+
+    public static final int COLUMN0ROW0 = 0;
+    public static final int COLUMN0ROW1 = 1;
+    public static final int COLUMN1ROW0 = 2;
+    public static final int COLUMN1ROW1 = 3;
+
+    /**
+     * The matrix elements in column-major order.
+     */
+    public final double[] values = new double[4];
+
+    /**
+     * A 2x2 matrix initialized to zero.
+     */
+    public Matrix2d() {
+    }
+
+    /**
+     * A 2x2 matrix. Constructor parameters are in row-major order for code readability.
+     *
+     * @param column0Row0 The value for column 0, row 0.
+     * @param column1Row0 The value for column 1, row 0.
+     * @param column0Row1 The value for column 0, row 1.
+     * @param column1Row1 The value for column 1, row 1.
+     */
+    public Matrix2d(double column0Row0, double column1Row0, double column0Row1, double column1Row1) {
+        values[0] = column0Row0;
+        values[1] = column0Row1;
+        values[2] = column1Row0;
+        values[3] = column1Row1;
+    }
+
+    /**
+     * Computes the array index of the element at the provided row and column.
+     *
+     * @param column The zero-based index of the column.
+     * @param row    The zero-based index of the row.
+     * @return The index of the element at the provided row and column.
+     */
+    public static int getElementIndex(int column, int row) {
+        return column * 2 + row;
+    }
+
+    /**
+     * Sets the result to the identity matrix.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d identity(Matrix2d result) {
+        return fromUniformScale(1.0, result);
+    }
+
+    /**
+     * Duplicates a Matrix2d instance.
+     *
+     * @param matrix The matrix to duplicate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix2d clone(Matrix2d matrix, Matrix2d result) {
+        if (matrix == null) {
+            return null;
+        }
+        return unpack(matrix.values, 0, result);
+    }
+
+    /**
+     * Copies the elements of a native {@link Matrix2}. This is a single call into CesiumJS.
+     *
+     * @param matrix The native matrix to copy.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix2d fromMatrix2(Matrix2 matrix, Matrix2d result) {
+        if (matrix == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Matrix2d();
+        }
+        Matrix2.pack(matrix, result.values, 0);
+        return result;
+    }
+
+    /**
+     * Copies the elements into a native {@link Matrix2}. This is a single call into CesiumJS.
+     *
+     * @param matrix The matrix to copy.
+     * @param result The native object onto which to store the result.
+     * @return The modified result parameter or a new Matrix2 instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix2 toMatrix2(Matrix2d matrix, Matrix2 result) {
+        if (matrix == null) {
+            return null;
+        }
+        if (result == null) {
+            return Matrix2.unpack(matrix.values, 0);
+        }
+        return Matrix2.unpack(matrix.values, 0, result);
+    }
+
+    /**
+     * Computes a Matrix2d instance from a column-major order array.
+     *
+     * @param values The column-major order array.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d fromColumnMajorArray(double[] values, Matrix2d result) {
+        return unpack(values, 0, result);
+    }
+
+    /**
+     * Creates a Matrix2d instance from a row-major order array. The resulting matrix will be in column-major
+     * order.
+     *
+     * @param values The row-major order array.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d fromRowMajorArray(double[] values, Matrix2d result) {
+        if (result == null) {
+            result = new Matrix2d();
+        }
+        double v1 = values[1];
+        result.values[0] = values[0];
+        result.values[1] = values[2];
+        result.values[2] = v1;
+        result.values[3] = values[3];
+        return result;
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Matrix2d value, double[] array, int startingIndex) {
+        System.arraycopy(value.values, 0, array, startingIndex, 4);
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d unpack(double[] array, int startingIndex, Matrix2d result) {
+        if (result == null) {
+            result = new Matrix2d();
+        }
+        if (array != result.values || startingIndex != 0) {
+            System.arraycopy(array, startingIndex, result.values, 0, 4);
+        }
+        return result;
+    }
+
+    /**
+     * Computes a Matrix2d instance representing a non-uniform scale.
+     *
+     * @param scale  The x and y scale factors.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d fromScale(Cartesian2d scale, Matrix2d result) {
+        return fromScale(scale.x, scale.y, result);
+    }
+
+    /**
+     * Computes a Matrix2d instance representing a non-uniform scale.
+     *
+     * @param scaleX The x scale factor.
+     * @param scaleY The y scale factor.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d fromScale(double scaleX, double scaleY, Matrix2d result) {
+        if (result == null) {
+            result = new Matrix2d();
+        }
+        result.values[0] = scaleX;
+        result.values[1] = 0.0;
+        result.values[2] = 0.0;
+        result.values[3] = scaleY;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix2d instance representing a uniform scale.
+     *
+     * @param scale  The uniform scale factor.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d fromUniformScale(double scale, Matrix2d result) {
+        return fromScale(scale, scale, result);
+    }
+
+    /**
+     * Creates a rotation matrix.
+     *
+     * @param angle  The angle, in radians, of the rotation. Positive angles are counterclockwise.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix2d instance if one was not provided.
+     */
+    public static Matrix2d fromRotation(double angle, Matrix2d result) {
+        double cosAngle = java.lang.Math.cos(angle);
+        double sinAngle = java.lang.Math.sin(angle);
+        if (result == null) {
+            result = new Matrix2d();
+        }
+        result.values[0] = cosAngle;
+        result.values[1] = sinAngle;
+        result.values[2] = -sinAngle;
+        result.values[3] = cosAngle;
+        return result;
+    }
+
+    /**
+     * Retrieves a copy of the matrix column at the provided index as a Cartesian2d instance.
+     *
+     * @param matrix The matrix to use.
+     * @param index  The zero-based index of the column to retrieve.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d getColumn(Matrix2d matrix, int index, Cartesian2d result) {
+        checkIndex(index);
+        int startIndex = index * 2;
+        return Cartesian2d.fromElements(matrix.values[startIndex], matrix.values[startIndex + 1], result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the specified column in the provided matrix with the provided
+     * Cartesian2d instance.
+     *
+     * @param matrix    The matrix to use.
+     * @param index     The zero-based index of the column to set.
+     * @param cartesian The Cartesian whose values will be assigned to the specified column.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d setColumn(Matrix2d matrix, int index, Cartesian2d cartesian, Matrix2d result) {
+        checkIndex(index);
+        result = clone(matrix, result);
+        int startIndex = index * 2;
+        result.values[startIndex] = cartesian.x;
+        result.values[startIndex + 1] = cartesian.y;
+        return result;
+    }
+
+    /**
+     * Retrieves a copy of the matrix row at the provided index as a Cartesian2d instance.
+     *
+     * @param matrix The matrix to use.
+     * @param index  The zero-based index of the row to retrieve.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d getRow(Matrix2d matrix, int index, Cartesian2d result) {
+        checkIndex(index);
+        return Cartesian2d.fromElements(matrix.values[index], matrix.values[index + 2], result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the specified row in the provided matrix with the provided Cartesian2d
+     * instance.
+     *
+     * @param matrix    The matrix to use.
+     * @param index     The zero-based index of the row to set.
+     * @param cartesian The Cartesian whose values will be assigned to the specified row.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d setRow(Matrix2d matrix, int index, Cartesian2d cartesian, Matrix2d result) {
+        checkIndex(index);
+        result = clone(matrix, result);
+        result.values[index] = cartesian.x;
+        result.values[index + 2] = cartesian.y;
+        return result;
+    }
+
+    /**
+     * Extracts the non-uniform scale assuming the matrix is an affine transformation.
+     *
+     * @param matrix The matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d getScale(Matrix2d matrix, Cartesian2d result) {
+        double[] m = matrix.values;
+        return Cartesian2d.fromElements(Cartesian2d.magnitude(m[0], m[1]), Cartesian2d.magnitude(m[2], m[3]),
+                result);
+    }
+
+    /**
+     * Computes the maximum scale assuming the matrix is an affine transformation. The maximum scale is the maximum
+     * length of the column vectors.
+     *
+     * @param matrix The matrix.
+     * @return The maximum scale.
+     */
+    public static double getMaximumScale(Matrix2d matrix) {
+        double[] m = matrix.values;
+        return java.lang.Math.max(Cartesian2d.magnitude(m[0], m[1]), Cartesian2d.magnitude(m[2], m[3]));
+    }
+
+    /**
+     * Computes the product of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d multiply(Matrix2d left, Matrix2d right, Matrix2d result) {
+        double[] l = left.values;
+        double[] r = right.values;
+        double column0Row0 = l[0] * r[0] + l[2] * r[1];
+        double column1Row0 = l[0] * r[2] + l[2] * r[3];
+        double column0Row1 = l[1] * r[0] + l[3] * r[1];
+        double column1Row1 = l[1] * r[2] + l[3] * r[3];
+
+        result.values[0] = column0Row0;
+        result.values[1] = column0Row1;
+        result.values[2] = column1Row0;
+        result.values[3] = column1Row1;
+        return result;
+    }
+
+    /**
+     * Computes the sum of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d add(Matrix2d left, Matrix2d right, Matrix2d result) {
+        for (int i = 0; i < 4; i++) {
+            result.values[i] = left.values[i] + right.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the difference of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d subtract(Matrix2d left, Matrix2d right, Matrix2d result) {
+        for (int i = 0; i < 4; i++) {
+            result.values[i] = left.values[i] - right.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and a column vector.
+     *
+     * @param matrix    The matrix.
+     * @param cartesian The column.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d multiplyByVector(Matrix2d matrix, Cartesian2d cartesian, Cartesian2d result) {
+        return multiplyByVector(matrix, cartesian.x, cartesian.y, result);
+    }
+
+    /**
+     * Computes the product of a matrix and a column vector given by its components.
+     *
+     * @param matrix The matrix.
+     * @param x      The X component of the column.
+     * @param y      The Y component of the column.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian2d multiplyByVector(Matrix2d matrix, double x, double y, Cartesian2d result) {
+        double[] m = matrix.values;
+        result.x = m[0] * x + m[2] * y;
+        result.y = m[1] * x + m[3] * y;
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and a scalar.
+     *
+     * @param matrix The matrix.
+     * @param scalar The number to multiply by.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d multiplyByScalar(Matrix2d matrix, double scalar, Matrix2d result) {
+        for (int i = 0; i < 4; i++) {
+            result.values[i] = matrix.values[i] * scalar;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix times a (non-uniform) scale, as if the scale were a scale matrix.
+     *
+     * @param matrix The matrix on the left-hand side.
+     * @param scale  The non-uniform scale on the right-hand side.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d multiplyByScale(Matrix2d matrix, Cartesian2d scale, Matrix2d result) {
+        result.values[0] = matrix.values[0] * scale.x;
+        result.values[1] = matrix.values[1] * scale.x;
+        result.values[2] = matrix.values[2] * scale.y;
+        result.values[3] = matrix.values[3] * scale.y;
+        return result;
+    }
+
+    /**
+     * Creates a negated copy of the provided matrix.
+     *
+     * @param matrix The matrix to negate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d negate(Matrix2d matrix, Matrix2d result) {
+        for (int i = 0; i < 4; i++) {
+            result.values[i] = -matrix.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the transpose of the provided matrix.
+     *
+     * @param matrix The matrix to transpose.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d transpose(Matrix2d matrix, Matrix2d result) {
+        double column0Row0 = matrix.values[0];
+        double column0Row1 = matrix.values[2];
+        double column1Row0 = matrix.values[1];
+        double column1Row1 = matrix.values[3];
+
+        result.values[0] = column0Row0;
+        result.values[1] = column0Row1;
+        result.values[2] = column1Row0;
+        result.values[3] = column1Row1;
+        return result;
+    }
+
+    /**
+     * Computes a matrix, which contains the absolute (unsigned) values of the provided matrix's elements.
+     *
+     * @param matrix The matrix with signed elements.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix2d abs(Matrix2d matrix, Matrix2d result) {
+        for (int i = 0; i < 4; i++) {
+            result.values[i] = java.lang.Math.abs(matrix.values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Compares the provided matrices componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first matrix.
+     * @param right The second matrix.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Matrix2d left, Matrix2d right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (left.values[i] != right.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the provided matrices componentwise and returns true if they are within the provided epsilon,
+     * false otherwise.
+     *
+     * @param left    The first matrix.
+     * @param right   The second matrix.
+     * @param epsilon The epsilon to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Matrix2d left, Matrix2d right, double epsilon) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        for (int i = 0; i < 4; i++) {
+            if (java.lang.Math.abs(left.values[i] - right.values[i]) > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0 || index > 1) {
+            throw new DeveloperError("index must be 0 or 1.");
+        }
+    }
+
+    /**
+     * Duplicates this Matrix2d instance.
+     *
+     * @return A new Matrix2d instance.
+     */
+    public Matrix2d clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Matrix2d && equals(this, (Matrix2d) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < 4; i++) {
+            hash = 31 * hash + Double.valueOf(values[i]).hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Computes a string representing this Matrix with each row being on a separate line and in the format
+     * '(column0, column1)'.
+     *
+     * @return A string representing the provided Matrix with each row being on a separate line and in the format
+     * '(column0, column1)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + values[0] + ", " + values[2] + ")\n" + "(" + values[1] + ", " + values[3] + ")";
+    }
+}
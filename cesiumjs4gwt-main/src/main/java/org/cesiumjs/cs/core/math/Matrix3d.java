@@ -0,0 +1,1084 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Matrix3;
+
+/**
+ * A 3x3 matrix implemented in pure Java, indexable as a column-major order array through {@link #values}.
+ * Mirrors the static API of {@link Matrix3}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Matrix3
+ */
+public final class Matrix3d {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 9;
+
+    public static final int COLUMN0ROW0 = 0;
+    public static final int COLUMN0ROW1 = 1;
+    public static final int COLUMN0ROW2 = 2;
+    public static final int COLUMN1ROW0 = 3;
+    public static final int COLUMN1ROW1 = 4;
+    public static final int COLUMN1ROW2 = 5;
+    public static final int COLUMN2ROW0 = 6;
+    public static final int COLUMN2ROW1 = 7;
+    public static final int COLUMN2ROW2 = 8;
+
+    /**
+     * The matrix elements in column-major order.
+     */
+    public final double[] values = new double[9];
+
+    /**
+     * A 3x3 matrix initialized to zero.
+     */
+    public Matrix3d() {
+    }
+
+    /**
+     * A 3x3 matrix. Constructor parameters are in row-major order for code readability.
+     *
+     * @param column0Row0 The value for column 0, row 0.
+     * @param column1Row0 The value for column 1, row 0.
+     * @param column2Row0 The value for column 2, row 0.
+     * @param column0Row1 The value for column 0, row 1.
+     * @param column1Row1 The value for column 1, row 1.
+     * @param column2Row1 The value for column 2, row 1.
+     * @param column0Row2 The value for column 0, row 2.
+     * @param column1Row2 The value for column 1, row 2.
+     * @param column2Row2 The value for column 2, row 2.
+     */
+    public Matrix3d(double column0Row0, double column1Row0, double column2Row0,
+                    double column0Row1, double column1Row1, double column2Row1,
+                    double column0Row2, double column1Row2, double column2Row2) {
+        values[0] = column0Row0;
+        values[1] = column0Row1;
+        values[2] = column0Row2;
+        values[3] = column1Row0;
+        values[4] = column1Row1;
+        values[5] = column1Row2;
+        values[6] = column2Row0;
+        values[7] = column2Row1;
+        values[8] = column2Row2;
+    }
+
+    /**
+     * Computes the array index of the element at the provided row and column.
+     *
+     * @param column The zero-based index of the column.
+     * @param row    The zero-based index of the row.
+     * @return The index of the element at the provided row and column.
+     */
+    public static int getElementIndex(int column, int row) {
+        return column * 3 + row;
+    }
+
+    /**
+     * Sets the result to the identity matrix.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d identity(Matrix3d result) {
+        return fromUniformScale(1.0, result);
+    }
+
+    /**
+     * Duplicates a Matrix3d instance.
+     *
+     * @param matrix The matrix to duplicate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix3d clone(Matrix3d matrix, Matrix3d result) {
+        if (matrix == null) {
+            return null;
+        }
+        return fromColumnMajorArray(matrix.values, result);
+    }
+
+    /**
+     * Copies the elements of a native {@link Matrix3}. This is a single call into CesiumJS.
+     *
+     * @param matrix The native matrix to copy.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix3d fromMatrix3(Matrix3 matrix, Matrix3d result) {
+        if (matrix == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        Matrix3.pack(matrix, result.values, 0);
+        return result;
+    }
+
+    /**
+     * Copies the elements into a native {@link Matrix3}. This is a single call into CesiumJS.
+     *
+     * @param matrix The matrix to copy.
+     * @param result The native object onto which to store the result.
+     * @return The modified result parameter or a new Matrix3 instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix3 toMatrix3(Matrix3d matrix, Matrix3 result) {
+        if (matrix == null) {
+            return null;
+        }
+        if (result == null) {
+            return Matrix3.unpack(matrix.values, 0);
+        }
+        return Matrix3.unpack(matrix.values, 0, result);
+    }
+
+    /**
+     * Creates a Matrix3d from 9 consecutive elements in a column-major array.
+     *
+     * @param values The column-major order array.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromColumnMajorArray(double[] values, Matrix3d result) {
+        return unpack(values, 0, result);
+    }
+
+    /**
+     * Creates a Matrix3d instance from a row-major order array.
+     *
+     * @param values The row-major order array.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromRowMajorArray(double[] values, Matrix3d result) {
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        double v1 = values[1];
+        double v2 = values[2];
+        double v5 = values[5];
+        r[0] = values[0];
+        r[1] = values[3];
+        r[2] = values[6];
+        r[3] = v1;
+        r[4] = values[4];
+        r[5] = values[7];
+        r[6] = v2;
+        r[7] = v5;
+        r[8] = values[8];
+        return result;
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Matrix3d value, double[] array, int startingIndex) {
+        System.arraycopy(value.values, 0, array, startingIndex, 9);
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d unpack(double[] array, int startingIndex, Matrix3d result) {
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        if (array != result.values || startingIndex != 0) {
+            System.arraycopy(array, startingIndex, result.values, 0, 9);
+        }
+        return result;
+    }
+
+    /**
+     * Computes a 3x3 rotation matrix from the provided quaternion.
+     *
+     * @param quaternion the quaternion to use.
+     * @param result     The object onto which to store the result.
+     * @return The 3x3 rotation matrix from this quaternion.
+     */
+    public static Matrix3d fromQuaternion(Quaterniond quaternion, Matrix3d result) {
+        double x2 = quaternion.x * quaternion.x;
+        double xy = quaternion.x * quaternion.y;
+        double xz = quaternion.x * quaternion.z;
+        double xw = quaternion.x * quaternion.w;
+        double y2 = quaternion.y * quaternion.y;
+        double yz = quaternion.y * quaternion.z;
+        double yw = quaternion.y * quaternion.w;
+        double z2 = quaternion.z * quaternion.z;
+        double zw = quaternion.z * quaternion.w;
+        double w2 = quaternion.w * quaternion.w;
+
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = x2 - y2 - z2 + w2;
+        r[1] = 2.0 * (xy + zw);
+        r[2] = 2.0 * (xz - yw);
+        r[3] = 2.0 * (xy - zw);
+        r[4] = -x2 + y2 - z2 + w2;
+        r[5] = 2.0 * (yz + xw);
+        r[6] = 2.0 * (xz + yw);
+        r[7] = 2.0 * (yz - xw);
+        r[8] = -x2 - y2 + z2 + w2;
+        return result;
+    }
+
+    /**
+     * Computes a 3x3 rotation matrix from the provided headingPitchRoll.
+     *
+     * @param heading The heading angle in radians.
+     * @param pitch   The pitch angle in radians.
+     * @param roll    The roll angle in radians.
+     * @param result  The object onto which to store the result.
+     * @return The 3x3 rotation matrix from this headingPitchRoll.
+     */
+    public static Matrix3d fromHeadingPitchRoll(double heading, double pitch, double roll, Matrix3d result) {
+        double cosTheta = java.lang.Math.cos(-pitch);
+        double cosPsi = java.lang.Math.cos(-heading);
+        double cosPhi = java.lang.Math.cos(roll);
+        double sinTheta = java.lang.Math.sin(-pitch);
+        double sinPsi = java.lang.Math.sin(-heading);
+        double sinPhi = java.lang.Math.sin(roll);
+
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = cosTheta * cosPsi;
+        r[1] = cosTheta * sinPsi;
+        r[2] = -sinTheta;
+        r[3] = -cosPhi * sinPsi + sinPhi * sinTheta * cosPsi;
+        r[4] = cosPhi * cosPsi + sinPhi * sinTheta * sinPsi;
+        r[5] = sinPhi * cosTheta;
+        r[6] = sinPhi * sinPsi + cosPhi * sinTheta * cosPsi;
+        r[7] = -sinPhi * cosPsi + cosPhi * sinTheta * sinPsi;
+        r[8] = cosPhi * cosTheta;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix3d instance representing a non-uniform scale.
+     *
+     * @param scale  The x, y, and z scale factors.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromScale(Cartesian3d scale, Matrix3d result) {
+        return fromScale(scale.x, scale.y, scale.z, result);
+    }
+
+    /**
+     * Computes a Matrix3d instance representing a non-uniform scale.
+     *
+     * @param scaleX The x scale factor.
+     * @param scaleY The y scale factor.
+     * @param scaleZ The z scale factor.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromScale(double scaleX, double scaleY, double scaleZ, Matrix3d result) {
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = scaleX;
+        r[1] = 0.0;
+        r[2] = 0.0;
+        r[3] = 0.0;
+        r[4] = scaleY;
+        r[5] = 0.0;
+        r[6] = 0.0;
+        r[7] = 0.0;
+        r[8] = scaleZ;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix3d instance representing a uniform scale.
+     *
+     * @param scale  The uniform scale factor.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromUniformScale(double scale, Matrix3d result) {
+        return fromScale(scale, scale, scale, result);
+    }
+
+    /**
+     * Computes a Matrix3d instance representing the cross product equivalent matrix of a Cartesian3d vector.
+     *
+     * @param vector The vector on the left hand side of the cross product operation.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromCrossProduct(Cartesian3d vector, Matrix3d result) {
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = 0.0;
+        r[1] = vector.z;
+        r[2] = -vector.y;
+        r[3] = -vector.z;
+        r[4] = 0.0;
+        r[5] = vector.x;
+        r[6] = vector.y;
+        r[7] = -vector.x;
+        r[8] = 0.0;
+        return result;
+    }
+
+    /**
+     * Creates a rotation matrix around the x-axis.
+     *
+     * @param angle  The angle, in radians, of the rotation. Positive angles are counterclockwise.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromRotationX(double angle, Matrix3d result) {
+        double c = java.lang.Math.cos(angle);
+        double s = java.lang.Math.sin(angle);
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = 1.0;
+        r[1] = 0.0;
+        r[2] = 0.0;
+        r[3] = 0.0;
+        r[4] = c;
+        r[5] = s;
+        r[6] = 0.0;
+        r[7] = -s;
+        r[8] = c;
+        return result;
+    }
+
+    /**
+     * Creates a rotation matrix around the y-axis.
+     *
+     * @param angle  The angle, in radians, of the rotation. Positive angles are counterclockwise.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromRotationY(double angle, Matrix3d result) {
+        double c = java.lang.Math.cos(angle);
+        double s = java.lang.Math.sin(angle);
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = c;
+        r[1] = 0.0;
+        r[2] = -s;
+        r[3] = 0.0;
+        r[4] = 1.0;
+        r[5] = 0.0;
+        r[6] = s;
+        r[7] = 0.0;
+        r[8] = c;
+        return result;
+    }
+
+    /**
+     * Creates a rotation matrix around the z-axis.
+     *
+     * @param angle  The angle, in radians, of the rotation. Positive angles are counterclockwise.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix3d instance if one was not provided.
+     */
+    public static Matrix3d fromRotationZ(double angle, Matrix3d result) {
+        double c = java.lang.Math.cos(angle);
+        double s = java.lang.Math.sin(angle);
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] r = result.values;
+        r[0] = c;
+        r[1] = s;
+        r[2] = 0.0;
+        r[3] = -s;
+        r[4] = c;
+        r[5] = 0.0;
+        r[6] = 0.0;
+        r[7] = 0.0;
+        r[8] = 1.0;
+        return result;
+    }
+
+    /**
+     * Retrieves a copy of the matrix column at the provided index as a Cartesian3d instance.
+     *
+     * @param matrix The matrix to use.
+     * @param index  The zero-based index of the column to retrieve.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d getColumn(Matrix3d matrix, int index, Cartesian3d result) {
+        checkIndex(index);
+        int startIndex = index * 3;
+        double[] m = matrix.values;
+        return Cartesian3d.fromElements(m[startIndex], m[startIndex + 1], m[startIndex + 2], result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the specified column in the provided matrix with the provided
+     * Cartesian3d instance.
+     *
+     * @param matrix    The matrix to use.
+     * @param index     The zero-based index of the column to set.
+     * @param cartesian The Cartesian whose values will be assigned to the specified column.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d setColumn(Matrix3d matrix, int index, Cartesian3d cartesian, Matrix3d result) {
+        checkIndex(index);
+        result = clone(matrix, result);
+        int startIndex = index * 3;
+        result.values[startIndex] = cartesian.x;
+        result.values[startIndex + 1] = cartesian.y;
+        result.values[startIndex + 2] = cartesian.z;
+        return result;
+    }
+
+    /**
+     * Retrieves a copy of the matrix row at the provided index as a Cartesian3d instance.
+     *
+     * @param matrix The matrix to use.
+     * @param index  The zero-based index of the row to retrieve.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d getRow(Matrix3d matrix, int index, Cartesian3d result) {
+        checkIndex(index);
+        double[] m = matrix.values;
+        return Cartesian3d.fromElements(m[index], m[index + 3], m[index + 6], result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the specified row in the provided matrix with the provided Cartesian3d
+     * instance.
+     *
+     * @param matrix    The matrix to use.
+     * @param index     The zero-based index of the row to set.
+     * @param cartesian The Cartesian whose values will be assigned to the specified row.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d setRow(Matrix3d matrix, int index, Cartesian3d cartesian, Matrix3d result) {
+        checkIndex(index);
+        result = clone(matrix, result);
+        result.values[index] = cartesian.x;
+        result.values[index + 3] = cartesian.y;
+        result.values[index + 6] = cartesian.z;
+        return result;
+    }
+
+    /**
+     * Extracts the non-uniform scale assuming the matrix is an affine transformation.
+     *
+     * @param matrix The matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d getScale(Matrix3d matrix, Cartesian3d result) {
+        double[] m = matrix.values;
+        return Cartesian3d.fromElements(Cartesian3d.magnitude(m[0], m[1], m[2]),
+                Cartesian3d.magnitude(m[3], m[4], m[5]), Cartesian3d.magnitude(m[6], m[7], m[8]), result);
+    }
+
+    /**
+     * Computes the maximum scale assuming the matrix is an affine transformation. The maximum scale is the maximum
+     * length of the column vectors.
+     *
+     * @param matrix The matrix.
+     * @return The maximum scale.
+     */
+    public static double getMaximumScale(Matrix3d matrix) {
+        double[] m = matrix.values;
+        return java.lang.Math.max(Cartesian3d.magnitude(m[0], m[1], m[2]),
+                java.lang.Math.max(Cartesian3d.magnitude(m[3], m[4], m[5]), Cartesian3d.magnitude(m[6], m[7], m[8])));
+    }
+
+    /**
+     * Extracts the rotation matrix assuming the matrix is an affine transformation.
+     *
+     * @param matrix The matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d getRotation(Matrix3d matrix, Matrix3d result) {
+        double[] m = matrix.values;
+        double inverseScaleX = 1.0 / Cartesian3d.magnitude(m[0], m[1], m[2]);
+        double inverseScaleY = 1.0 / Cartesian3d.magnitude(m[3], m[4], m[5]);
+        double inverseScaleZ = 1.0 / Cartesian3d.magnitude(m[6], m[7], m[8]);
+        result = clone(matrix, result);
+        double[] r = result.values;
+        r[0] *= inverseScaleX;
+        r[1] *= inverseScaleX;
+        r[2] *= inverseScaleX;
+        r[3] *= inverseScaleY;
+        r[4] *= inverseScaleY;
+        r[5] *= inverseScaleY;
+        r[6] *= inverseScaleZ;
+        r[7] *= inverseScaleZ;
+        r[8] *= inverseScaleZ;
+        return result;
+    }
+
+    /**
+     * Computes the product of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d multiply(Matrix3d left, Matrix3d right, Matrix3d result) {
+        double[] l = left.values;
+        double[] rt = right.values;
+        double column0Row0 = l[0] * rt[0] + l[3] * rt[1] + l[6] * rt[2];
+        double column0Row1 = l[1] * rt[0] + l[4] * rt[1] + l[7] * rt[2];
+        double column0Row2 = l[2] * rt[0] + l[5] * rt[1] + l[8] * rt[2];
+
+        double column1Row0 = l[0] * rt[3] + l[3] * rt[4] + l[6] * rt[5];
+        double column1Row1 = l[1] * rt[3] + l[4] * rt[4] + l[7] * rt[5];
+        double column1Row2 = l[2] * rt[3] + l[5] * rt[4] + l[8] * rt[5];
+
+        double column2Row0 = l[0] * rt[6] + l[3] * rt[7] + l[6] * rt[8];
+        double column2Row1 = l[1] * rt[6] + l[4] * rt[7] + l[7] * rt[8];
+        double column2Row2 = l[2] * rt[6] + l[5] * rt[7] + l[8] * rt[8];
+
+        double[] r = result.values;
+        r[0] = column0Row0;
+        r[1] = column0Row1;
+        r[2] = column0Row2;
+        r[3] = column1Row0;
+        r[4] = column1Row1;
+        r[5] = column1Row2;
+        r[6] = column2Row0;
+        r[7] = column2Row1;
+        r[8] = column2Row2;
+        return result;
+    }
+
+    /**
+     * Computes the sum of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d add(Matrix3d left, Matrix3d right, Matrix3d result) {
+        for (int i = 0; i < 9; i++) {
+            result.values[i] = left.values[i] + right.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the difference of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d subtract(Matrix3d left, Matrix3d right, Matrix3d result) {
+        for (int i = 0; i < 9; i++) {
+            result.values[i] = left.values[i] - right.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and a column vector.
+     *
+     * @param matrix    The matrix.
+     * @param cartesian The column.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByVector(Matrix3d matrix, Cartesian3d cartesian, Cartesian3d result) {
+        return multiplyByVector(matrix, cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Computes the product of a matrix and a column vector given by its components.
+     *
+     * @param matrix The matrix.
+     * @param vX     The X component of the column.
+     * @param vY     The Y component of the column.
+     * @param vZ     The Z component of the column.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByVector(Matrix3d matrix, double vX, double vY, double vZ,
+                                               Cartesian3d result) {
+        double[] m = matrix.values;
+        result.x = m[0] * vX + m[3] * vY + m[6] * vZ;
+        result.y = m[1] * vX + m[4] * vY + m[7] * vZ;
+        result.z = m[2] * vX + m[5] * vY + m[8] * vZ;
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and each vector of a strided packed array, optionally adding a translation
+     * to each result. The source and result may be the same array with the same offset and stride to transform
+     * the vectors in place.
+     *
+     * @param matrix       The matrix.
+     * @param translation  The translation to add to each result, or null for none.
+     * @param source       The packed vectors.
+     * @param sourceOffset The index of the x component of the first vector.
+     * @param sourceStride The number of elements between the x components of consecutive vectors, at least 3.
+     * @param result       The array onto which to store the transformed vectors.
+     * @param resultOffset The index of the x component of the first result.
+     * @param resultStride The number of elements between the x components of consecutive results, at least 3.
+     * @param count        The number of vectors to transform.
+     * @return The result parameter.
+     * @see Matrix4d#multiplyByPoints(Matrix4d, double[], int, int, double[], int, int, int)
+     */
+    public static double[] multiplyByVectors(Matrix3d matrix, Cartesian3d translation, double[] source,
+                                             int sourceOffset, int sourceStride, double[] result, int resultOffset,
+                                             int resultStride, int count) {
+        return Matrix4d.multiplyByPoints(Matrix4d.fromRotationTranslation(matrix, translation, null), source,
+                sourceOffset, sourceStride, result, resultOffset, resultStride, count);
+    }
+
+    /**
+     * Computes the product of a matrix and each vector of a strided packed array, optionally adding a translation
+     * to each result. The source and result may be the same array with the same offset and stride to transform
+     * the vectors in place.
+     *
+     * @param matrix       The matrix.
+     * @param translation  The translation to add to each result, or null for none.
+     * @param source       The packed vectors.
+     * @param sourceOffset The index of the x component of the first vector.
+     * @param sourceStride The number of elements between the x components of consecutive vectors, at least 3.
+     * @param result       The array onto which to store the transformed vectors.
+     * @param resultOffset The index of the x component of the first result.
+     * @param resultStride The number of elements between the x components of consecutive results, at least 3.
+     * @param count        The number of vectors to transform.
+     * @return The result parameter.
+     * @see Matrix4d#multiplyByPoints(Matrix4d, Float64Array, int, int, Float64Array, int, int, int)
+     */
+    public static Float64Array multiplyByVectors(Matrix3d matrix, Cartesian3d translation, Float64Array source,
+                                                 int sourceOffset, int sourceStride, Float64Array result,
+                                                 int resultOffset, int resultStride, int count) {
+        return Matrix4d.multiplyByPoints(Matrix4d.fromRotationTranslation(matrix, translation, null), source,
+                sourceOffset, sourceStride, result, resultOffset, resultStride, count);
+    }
+
+    /**
+     * Computes the product of a matrix and a scalar.
+     *
+     * @param matrix The matrix.
+     * @param scalar The number to multiply by.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d multiplyByScalar(Matrix3d matrix, double scalar, Matrix3d result) {
+        for (int i = 0; i < 9; i++) {
+            result.values[i] = matrix.values[i] * scalar;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix times a (non-uniform) scale, as if the scale were a scale matrix.
+     *
+     * @param matrix The matrix on the left-hand side.
+     * @param scale  The non-uniform scale on the right-hand side.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d multiplyByScale(Matrix3d matrix, Cartesian3d scale, Matrix3d result) {
+        double[] m = matrix.values;
+        double[] r = result.values;
+        r[0] = m[0] * scale.x;
+        r[1] = m[1] * scale.x;
+        r[2] = m[2] * scale.x;
+        r[3] = m[3] * scale.y;
+        r[4] = m[4] * scale.y;
+        r[5] = m[5] * scale.y;
+        r[6] = m[6] * scale.z;
+        r[7] = m[7] * scale.z;
+        r[8] = m[8] * scale.z;
+        return result;
+    }
+
+    /**
+     * Creates a negated copy of the provided matrix.
+     *
+     * @param matrix The matrix to negate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d negate(Matrix3d matrix, Matrix3d result) {
+        for (int i = 0; i < 9; i++) {
+            result.values[i] = -matrix.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the transpose of the provided matrix.
+     *
+     * @param matrix The matrix to transpose.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d transpose(Matrix3d matrix, Matrix3d result) {
+        double[] m = matrix.values;
+        double column0Row0 = m[0];
+        double column0Row1 = m[3];
+        double column0Row2 = m[6];
+        double column1Row0 = m[1];
+        double column1Row1 = m[4];
+        double column1Row2 = m[7];
+        double column2Row0 = m[2];
+        double column2Row1 = m[5];
+        double column2Row2 = m[8];
+
+        double[] r = result.values;
+        r[0] = column0Row0;
+        r[1] = column0Row1;
+        r[2] = column0Row2;
+        r[3] = column1Row0;
+        r[4] = column1Row1;
+        r[5] = column1Row2;
+        r[6] = column2Row0;
+        r[7] = column2Row1;
+        r[8] = column2Row2;
+        return result;
+    }
+
+    /**
+     * Computes a matrix, which contains the absolute (unsigned) values of the provided matrix's elements.
+     *
+     * @param matrix The matrix with signed elements.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d abs(Matrix3d matrix, Matrix3d result) {
+        for (int i = 0; i < 9; i++) {
+            result.values[i] = java.lang.Math.abs(matrix.values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the determinant of the provided matrix.
+     *
+     * @param matrix The matrix to use.
+     * @return The value of the determinant of the matrix.
+     */
+    public static double determinant(Matrix3d matrix) {
+        double[] m = matrix.values;
+        double a00 = m[0];
+        double a10 = m[1];
+        double a20 = m[2];
+        double a01 = m[3];
+        double a11 = m[4];
+        double a21 = m[5];
+        double a02 = m[6];
+        double a12 = m[7];
+        double a22 = m[8];
+        return a00 * (a11 * a22 - a12 * a21) - a01 * (a10 * a22 - a12 * a20) + a02 * (a10 * a21 - a11 * a20);
+    }
+
+    /**
+     * Computes the inverse of the provided matrix.
+     *
+     * @param matrix The matrix to invert.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     * @throws DeveloperError matrix is not invertible.
+     */
+    public static Matrix3d inverse(Matrix3d matrix, Matrix3d result) {
+        double[] m = matrix.values;
+        double a00 = m[0];
+        double a10 = m[1];
+        double a20 = m[2];
+        double a01 = m[3];
+        double a11 = m[4];
+        double a21 = m[5];
+        double a02 = m[6];
+        double a12 = m[7];
+        double a22 = m[8];
+
+        double determinant = determinant(matrix);
+        if (java.lang.Math.abs(determinant) <= CesiumMath.EPSILON15) {
+            throw new DeveloperError("matrix is not invertible");
+        }
+        double scale = 1.0 / determinant;
+
+        double[] r = result.values;
+        r[0] = (a11 * a22 - a12 * a21) * scale;
+        r[1] = (a12 * a20 - a10 * a22) * scale;
+        r[2] = (a10 * a21 - a11 * a20) * scale;
+        r[3] = (a02 * a21 - a01 * a22) * scale;
+        r[4] = (a00 * a22 - a02 * a20) * scale;
+        r[5] = (a01 * a20 - a00 * a21) * scale;
+        r[6] = (a01 * a12 - a02 * a11) * scale;
+        r[7] = (a02 * a10 - a00 * a12) * scale;
+        r[8] = (a00 * a11 - a01 * a10) * scale;
+        return result;
+    }
+
+    /**
+     * Computes the inverse transpose of a matrix.
+     *
+     * @param matrix The matrix to transpose and invert.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d inverseTranspose(Matrix3d matrix, Matrix3d result) {
+        return inverse(transpose(matrix, result), result);
+    }
+
+    /**
+     * Computes the eigenvectors and eigenvalues of a symmetric matrix.
+     * <p>
+     * Returns a diagonal matrix and unitary matrix such that:
+     * <code>matrix = unitary matrix * diagonal matrix * transpose(unitary matrix)</code>
+     * </p>
+     * <p>
+     * The values along the diagonal of the diagonal matrix are the eigenvalues. The columns of the unitary matrix
+     * are the corresponding eigenvectors. This is the cyclic Jacobi method used by CesiumJS.
+     * </p>
+     *
+     * @param matrix   The matrix to decompose into diagonal and unitary matrix. Expected to be symmetric.
+     * @param unitary  The object onto which to store the unitary matrix.
+     * @param diagonal The object onto which to store the diagonal matrix.
+     */
+    public static void computeEigenDecomposition(Matrix3d matrix, Matrix3d unitary, Matrix3d diagonal) {
+        // This routine was created based upon Matrix Computations, 3rd ed., by Golub and Van Loan,
+        // section 8.4.3 The Classical Jacobi Algorithm
+        double tolerance = CesiumMath.EPSILON20;
+        int maxSweeps = 10;
+
+        int count = 0;
+        int sweep = 0;
+
+        identity(unitary);
+        clone(matrix, diagonal);
+
+        Matrix3d jMatrix = new Matrix3d();
+        Matrix3d jMatrixTranspose = new Matrix3d();
+
+        double epsilon = tolerance * computeFrobeniusNorm(diagonal);
+        while (sweep < maxSweeps && offDiagonalFrobeniusNorm(diagonal) > epsilon) {
+            shurDecomposition(diagonal, jMatrix);
+            transpose(jMatrix, jMatrixTranspose);
+            multiply(diagonal, jMatrix, diagonal);
+            multiply(jMatrixTranspose, diagonal, diagonal);
+            multiply(unitary, jMatrix, unitary);
+
+            if (++count > 2) {
+                ++sweep;
+                count = 0;
+            }
+        }
+    }
+
+    private static double computeFrobeniusNorm(Matrix3d matrix) {
+        double norm = 0.0;
+        for (int i = 0; i < 9; ++i) {
+            double temp = matrix.values[i];
+            norm += temp * temp;
+        }
+        return java.lang.Math.sqrt(norm);
+    }
+
+    private static final int[] ROW_VAL = {1, 0, 0};
+    private static final int[] COL_VAL = {2, 2, 1};
+
+    private static double offDiagonalFrobeniusNorm(Matrix3d matrix) {
+        // Computes the "off-diagonal" Frobenius norm. Assumes matrix is symmetric.
+        double norm = 0.0;
+        for (int i = 0; i < 3; ++i) {
+            double temp = matrix.values[getElementIndex(COL_VAL[i], ROW_VAL[i])];
+            norm += 2.0 * temp * temp;
+        }
+        return java.lang.Math.sqrt(norm);
+    }
+
+    private static void shurDecomposition(Matrix3d matrix, Matrix3d result) {
+        // This routine was created based upon Matrix Computations, 3rd ed., by Golub and Van Loan,
+        // section 8.4.2 The 2by2 Symmetric Schur Decomposition.
+        //
+        // The routine takes a matrix, which is assumed to be symmetric, and finds the largest off-diagonal term,
+        // and then creates a matrix (result) which can be used to help reduce it
+        double tolerance = CesiumMath.EPSILON15;
+
+        double maxDiagonal = 0.0;
+        int rotAxis = 1;
+
+        // find pivot (rotAxis) based on max diagonal of matrix
+        for (int i = 0; i < 3; ++i) {
+            double temp = java.lang.Math.abs(matrix.values[getElementIndex(COL_VAL[i], ROW_VAL[i])]);
+            if (temp > maxDiagonal) {
+                rotAxis = i;
+                maxDiagonal = temp;
+            }
+        }
+
+        double c = 1.0;
+        double s = 0.0;
+
+        int p = ROW_VAL[rotAxis];
+        int q = COL_VAL[rotAxis];
+
+        if (java.lang.Math.abs(matrix.values[getElementIndex(q, p)]) > tolerance) {
+            double qq = matrix.values[getElementIndex(q, q)];
+            double pp = matrix.values[getElementIndex(p, p)];
+            double qp = matrix.values[getElementIndex(q, p)];
+
+            double tau = (qq - pp) / 2.0 / qp;
+            double t;
+
+            if (tau < 0.0) {
+                t = -1.0 / (-tau + java.lang.Math.sqrt(1.0 + tau * tau));
+            } else {
+                t = 1.0 / (tau + java.lang.Math.sqrt(1.0 + tau * tau));
+            }
+
+            c = 1.0 / java.lang.Math.sqrt(1.0 + t * t);
+            s = t * c;
+        }
+
+        identity(result);
+
+        result.values[getElementIndex(p, p)] = c;
+        result.values[getElementIndex(q, q)] = c;
+        result.values[getElementIndex(q, p)] = s;
+        result.values[getElementIndex(p, q)] = -s;
+    }
+
+    /**
+     * Compares the provided matrices componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first matrix.
+     * @param right The second matrix.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Matrix3d left, Matrix3d right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        for (int i = 0; i < 9; i++) {
+            if (left.values[i] != right.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the provided matrices componentwise and returns true if they are within the provided epsilon,
+     * false otherwise.
+     *
+     * @param left    The first matrix.
+     * @param right   The second matrix.
+     * @param epsilon The epsilon to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Matrix3d left, Matrix3d right, double epsilon) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        for (int i = 0; i < 9; i++) {
+            if (java.lang.Math.abs(left.values[i] - right.values[i]) > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0 || index > 2) {
+            throw new DeveloperError("index must be 0, 1, or 2.");
+        }
+    }
+
+    /**
+     * Duplicates this Matrix3d instance.
+     *
+     * @return A new Matrix3d instance.
+     */
+    public Matrix3d clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Matrix3d && equals(this, (Matrix3d) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < 9; i++) {
+            hash = 31 * hash + Double.valueOf(values[i]).hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Creates a string representing this Matrix with each row being on a separate line and in the format
+     * '(column0, column1, column2)'.
+     *
+     * @return A string representing the provided Matrix with each row being on a separate line and in the format
+     * '(column0, column1, column2)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + values[0] + ", " + values[3] + ", " + values[6] + ")\n"
+                + "(" + values[1] + ", " + values[4] + ", " + values[7] + ")\n"
+                + "(" + values[2] + ", " + values[5] + ", " + values[8] + ")";
+    }
+}
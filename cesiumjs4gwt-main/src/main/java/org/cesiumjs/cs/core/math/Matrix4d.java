@@ -0,0 +1,1563 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Matrix4;
+
+/**
+ * A 4x4 matrix implemented in pure Java, indexable as a column-major order array through {@link #values}.
+ * Mirrors the static API of {@link Matrix4}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Matrix4
+ */
+public final class Matrix4d {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 16;
+
+    public static final int COLUMN0ROW0 = 0;
+    public static final int COLUMN0ROW1 = 1;
+    public static final int COLUMN0ROW2 = 2;
+    public static final int COLUMN0ROW3 = 3;
+    public static final int COLUMN1ROW0 = 4;
+    public static final int COLUMN1ROW1 = 5;
+    public static final int COLUMN1ROW2 = 6;
+    public static final int COLUMN1ROW3 = 7;
+    public static final int COLUMN2ROW0 = 8;
+    public static final int COLUMN2ROW1 = 9;
+    public static final int COLUMN2ROW2 = 10;
+    public static final int COLUMN2ROW3 = 11;
+    public static final int COLUMN3ROW0 = 12;
+    public static final int COLUMN3ROW1 = 13;
+    public static final int COLUMN3ROW2 = 14;
+    public static final int COLUMN3ROW3 = 15;
+
+    /**
+     * The matrix elements in column-major order.
+     */
+    public final double[] values = new double[16];
+
+    /**
+     * A 4x4 matrix initialized to zero.
+     */
+    public Matrix4d() {
+    }
+
+    /**
+     * A 4x4 matrix. Constructor parameters are in row-major order for code readability.
+     *
+     * @param column0Row0 The value for column 0, row 0.
+     * @param column1Row0 The value for column 1, row 0.
+     * @param column2Row0 The value for column 2, row 0.
+     * @param column3Row0 The value for column 3, row 0.
+     * @param column0Row1 The value for column 0, row 1.
+     * @param column1Row1 The value for column 1, row 1.
+     * @param column2Row1 The value for column 2, row 1.
+     * @param column3Row1 The value for column 3, row 1.
+     * @param column0Row2 The value for column 0, row 2.
+     * @param column1Row2 The value for column 1, row 2.
+     * @param column2Row2 The value for column 2, row 2.
+     * @param column3Row2 The value for column 3, row 2.
+     * @param column0Row3 The value for column 0, row 3.
+     * @param column1Row3 The value for column 1, row 3.
+     * @param column2Row3 The value for column 2, row 3.
+     * @param column3Row3 The value for column 3, row 3.
+     */
+    public Matrix4d(double column0Row0, double column1Row0, double column2Row0, double column3Row0,
+                    double column0Row1, double column1Row1, double column2Row1, double column3Row1,
+                    double column0Row2, double column1Row2, double column2Row2, double column3Row2,
+                    double column0Row3, double column1Row3, double column2Row3, double column3Row3) {
+        values[0] = column0Row0;
+        values[1] = column0Row1;
+        values[2] = column0Row2;
+        values[3] = column0Row3;
+        values[4] = column1Row0;
+        values[5] = column1Row1;
+        values[6] = column1Row2;
+        values[7] = column1Row3;
+        values[8] = column2Row0;
+        values[9] = column2Row1;
+        values[10] = column2Row2;
+        values[11] = column2Row3;
+        values[12] = column3Row0;
+        values[13] = column3Row1;
+        values[14] = column3Row2;
+        values[15] = column3Row3;
+    }
+
+    /**
+     * Computes the array index of the element at the provided row and column.
+     *
+     * @param column The zero-based index of the column.
+     * @param row    The zero-based index of the row.
+     * @return The index of the element at the provided row and column.
+     */
+    public static int getElementIndex(int column, int row) {
+        return column * 4 + row;
+    }
+
+    /**
+     * Sets the result to the identity matrix.
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d identity(Matrix4d result) {
+        return fromUniformScale(1.0, result);
+    }
+
+    /**
+     * Duplicates a Matrix4d instance.
+     *
+     * @param matrix The matrix to duplicate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix4d clone(Matrix4d matrix, Matrix4d result) {
+        if (matrix == null) {
+            return null;
+        }
+        return unpack(matrix.values, 0, result);
+    }
+
+    /**
+     * Copies the elements of a native {@link Matrix4}. This is a single call into CesiumJS.
+     *
+     * @param matrix The native matrix to copy.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix4d fromMatrix4(Matrix4 matrix, Matrix4d result) {
+        if (matrix == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Matrix4d();
+        }
+        Matrix4.pack(matrix, result.values, 0);
+        return result;
+    }
+
+    /**
+     * Copies the elements into a native {@link Matrix4}. This is a single call into CesiumJS.
+     *
+     * @param matrix The matrix to copy.
+     * @param result The native object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4 instance if one was not provided.
+     * (Returns null if matrix is null)
+     */
+    public static Matrix4 toMatrix4(Matrix4d matrix, Matrix4 result) {
+        if (matrix == null) {
+            return null;
+        }
+        if (result == null) {
+            return Matrix4.unpack(matrix.values, 0);
+        }
+        return Matrix4.unpack(matrix.values, 0, result);
+    }
+
+    /**
+     * Computes a Matrix4d instance from a column-major order array.
+     *
+     * @param values The column-major order array.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromColumnMajorArray(double[] values, Matrix4d result) {
+        return unpack(values, 0, result);
+    }
+
+    /**
+     * Computes a Matrix4d instance from a row-major order array. The resulting matrix will be in column-major
+     * order.
+     *
+     * @param values The row-major order array.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromRowMajorArray(double[] values, Matrix4d result) {
+        if (result == null) {
+            result = new Matrix4d();
+        }
+        double[] r = result.values;
+        for (int column = 0; column < 4; column++) {
+            for (int row = 0; row < 4; row++) {
+                r[column * 4 + row] = values[row * 4 + column];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Matrix4d value, double[] array, int startingIndex) {
+        System.arraycopy(value.values, 0, array, startingIndex, 16);
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d unpack(double[] array, int startingIndex, Matrix4d result) {
+        if (result == null) {
+            result = new Matrix4d();
+        }
+        if (array != result.values || startingIndex != 0) {
+            System.arraycopy(array, startingIndex, result.values, 0, 16);
+        }
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance from a Matrix3d representing the rotation and a Cartesian3d representing the
+     * translation.
+     *
+     * @param rotation    The upper left portion of the matrix representing the rotation.
+     * @param translation The upper right portion of the matrix representing the translation.
+     * @param result      The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromRotationTranslation(Matrix3d rotation, Cartesian3d translation, Matrix4d result) {
+        if (result == null) {
+            result = new Matrix4d();
+        }
+        double[] m = rotation.values;
+        double[] r = result.values;
+        r[0] = m[0];
+        r[1] = m[1];
+        r[2] = m[2];
+        r[3] = 0.0;
+        r[4] = m[3];
+        r[5] = m[4];
+        r[6] = m[5];
+        r[7] = 0.0;
+        r[8] = m[6];
+        r[9] = m[7];
+        r[10] = m[8];
+        r[11] = 0.0;
+        r[12] = translation == null ? 0.0 : translation.x;
+        r[13] = translation == null ? 0.0 : translation.y;
+        r[14] = translation == null ? 0.0 : translation.z;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance from a translation, rotation, and scale (TRS) representation with the rotation
+     * represented as a quaternion.
+     *
+     * @param translation The translation transformation.
+     * @param rotation    The rotation transformation.
+     * @param scale       The non-uniform scale transformation.
+     * @param result      The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromTranslationQuaternionRotationScale(Cartesian3d translation, Quaterniond rotation,
+                                                                  Cartesian3d scale, Matrix4d result) {
+        if (result == null) {
+            result = new Matrix4d();
+        }
+
+        double scaleX = scale.x;
+        double scaleY = scale.y;
+        double scaleZ = scale.z;
+
+        double x2 = rotation.x * rotation.x;
+        double xy = rotation.x * rotation.y;
+        double xz = rotation.x * rotation.z;
+        double xw = rotation.x * rotation.w;
+        double y2 = rotation.y * rotation.y;
+        double yz = rotation.y * rotation.z;
+        double yw = rotation.y * rotation.w;
+        double z2 = rotation.z * rotation.z;
+        double zw = rotation.z * rotation.w;
+        double w2 = rotation.w * rotation.w;
+
+        double m00 = x2 - y2 - z2 + w2;
+        double m01 = 2.0 * (xy - zw);
+        double m02 = 2.0 * (xz + yw);
+
+        double m10 = 2.0 * (xy + zw);
+        double m11 = -x2 + y2 - z2 + w2;
+        double m12 = 2.0 * (yz - xw);
+
+        double m20 = 2.0 * (xz - yw);
+        double m21 = 2.0 * (yz + xw);
+        double m22 = -x2 - y2 + z2 + w2;
+
+        double[] r = result.values;
+        r[0] = m00 * scaleX;
+        r[1] = m10 * scaleX;
+        r[2] = m20 * scaleX;
+        r[3] = 0.0;
+        r[4] = m01 * scaleY;
+        r[5] = m11 * scaleY;
+        r[6] = m21 * scaleY;
+        r[7] = 0.0;
+        r[8] = m02 * scaleZ;
+        r[9] = m12 * scaleZ;
+        r[10] = m22 * scaleZ;
+        r[11] = 0.0;
+        r[12] = translation.x;
+        r[13] = translation.y;
+        r[14] = translation.z;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Creates a Matrix4d instance from a Cartesian3d representing the translation.
+     *
+     * @param translation The upper right portion of the matrix representing the translation.
+     * @param result      The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromTranslation(Cartesian3d translation, Matrix4d result) {
+        result = identity(result);
+        result.values[12] = translation.x;
+        result.values[13] = translation.y;
+        result.values[14] = translation.z;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance representing a non-uniform scale.
+     *
+     * @param scale  The x, y, and z scale factors.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromScale(Cartesian3d scale, Matrix4d result) {
+        return fromScale(scale.x, scale.y, scale.z, result);
+    }
+
+    /**
+     * Computes a Matrix4d instance representing a non-uniform scale.
+     *
+     * @param scaleX The x scale factor.
+     * @param scaleY The y scale factor.
+     * @param scaleZ The z scale factor.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromScale(double scaleX, double scaleY, double scaleZ, Matrix4d result) {
+        if (result == null) {
+            result = new Matrix4d();
+        }
+        double[] r = result.values;
+        for (int i = 0; i < 16; i++) {
+            r[i] = 0.0;
+        }
+        r[0] = scaleX;
+        r[5] = scaleY;
+        r[10] = scaleZ;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance representing a uniform scale.
+     *
+     * @param scale  The uniform scale factor.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter or a new Matrix4d instance if one was not provided.
+     */
+    public static Matrix4d fromUniformScale(double scale, Matrix4d result) {
+        return fromScale(scale, scale, scale, result);
+    }
+
+    /**
+     * Computes a Matrix4d instance representing a perspective transformation matrix.
+     *
+     * @param fovY        The field of view along the Y axis in radians.
+     * @param aspectRatio The aspect ratio.
+     * @param near        The distance to the near plane in meters.
+     * @param far         The distance to the far plane in meters.
+     * @param result      The object in which the result will be stored.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d computePerspectiveFieldOfView(double fovY, double aspectRatio, double near, double far,
+                                                         Matrix4d result) {
+        if (fovY <= 0.0 || fovY > java.lang.Math.PI) {
+            throw new DeveloperError("fovY must be in (0, PI].");
+        }
+        if (aspectRatio <= 0.0) {
+            throw new DeveloperError("aspectRatio must be greater than zero.");
+        }
+        if (near <= 0.0) {
+            throw new DeveloperError("near must be greater than zero.");
+        }
+        if (far <= 0.0) {
+            throw new DeveloperError("far must be greater than zero.");
+        }
+        double bottom = java.lang.Math.tan(fovY * 0.5);
+        double column1Row1 = 1.0 / bottom;
+        double column0Row0 = column1Row1 / aspectRatio;
+        double column2Row2 = (far + near) / (near - far);
+        double column3Row2 = (2.0 * far * near) / (near - far);
+
+        double[] r = result.values;
+        for (int i = 0; i < 16; i++) {
+            r[i] = 0.0;
+        }
+        r[0] = column0Row0;
+        r[5] = column1Row1;
+        r[10] = column2Row2;
+        r[11] = -1.0;
+        r[14] = column3Row2;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance representing an orthographic transformation matrix.
+     *
+     * @param left   The number of meters to the left of the camera that will be in view.
+     * @param right  The number of meters to the right of the camera that will be in view.
+     * @param bottom The number of meters below of the camera that will be in view.
+     * @param top    The number of meters above of the camera that will be in view.
+     * @param near   The distance to the near plane in meters.
+     * @param far    The distance to the far plane in meters.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d computeOrthographicOffCenter(double left, double right, double bottom, double top,
+                                                        double near, double far, Matrix4d result) {
+        double a = 1.0 / (right - left);
+        double b = 1.0 / (top - bottom);
+        double c = 1.0 / (far - near);
+
+        double tx = -(right + left) * a;
+        double ty = -(top + bottom) * b;
+        double tz = -(far + near) * c;
+        a *= 2.0;
+        b *= 2.0;
+        c *= -2.0;
+
+        double[] r = result.values;
+        for (int i = 0; i < 16; i++) {
+            r[i] = 0.0;
+        }
+        r[0] = a;
+        r[5] = b;
+        r[10] = c;
+        r[12] = tx;
+        r[13] = ty;
+        r[14] = tz;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance representing an off center perspective transformation.
+     *
+     * @param left   The number of meters to the left of the camera that will be in view.
+     * @param right  The number of meters to the right of the camera that will be in view.
+     * @param bottom The number of meters below of the camera that will be in view.
+     * @param top    The number of meters above of the camera that will be in view.
+     * @param near   The distance to the near plane in meters.
+     * @param far    The distance to the far plane in meters.
+     * @param result The object in which the result will be stored.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d computePerspectiveOffCenter(double left, double right, double bottom, double top,
+                                                       double near, double far, Matrix4d result) {
+        double column0Row0 = (2.0 * near) / (right - left);
+        double column1Row1 = (2.0 * near) / (top - bottom);
+        double column2Row0 = (right + left) / (right - left);
+        double column2Row1 = (top + bottom) / (top - bottom);
+        double column2Row2 = -(far + near) / (far - near);
+        double column3Row2 = -(2.0 * far * near) / (far - near);
+
+        double[] r = result.values;
+        for (int i = 0; i < 16; i++) {
+            r[i] = 0.0;
+        }
+        r[0] = column0Row0;
+        r[5] = column1Row1;
+        r[8] = column2Row0;
+        r[9] = column2Row1;
+        r[10] = column2Row2;
+        r[11] = -1.0;
+        r[14] = column3Row2;
+        return result;
+    }
+
+    /**
+     * Computes a Matrix4d instance that transforms from world space to view space.
+     *
+     * @param position  The position of the camera.
+     * @param direction The forward direction.
+     * @param up        The up direction.
+     * @param right     The right direction.
+     * @param result    The object in which the result will be stored.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d computeView(Cartesian3d position, Cartesian3d direction, Cartesian3d up,
+                                       Cartesian3d right, Matrix4d result) {
+        double[] r = result.values;
+        r[0] = right.x;
+        r[1] = up.x;
+        r[2] = -direction.x;
+        r[3] = 0.0;
+        r[4] = right.y;
+        r[5] = up.y;
+        r[6] = -direction.y;
+        r[7] = 0.0;
+        r[8] = right.z;
+        r[9] = up.z;
+        r[10] = -direction.z;
+        r[11] = 0.0;
+        r[12] = -Cartesian3d.dot(right, position);
+        r[13] = -Cartesian3d.dot(up, position);
+        r[14] = Cartesian3d.dot(direction, position);
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Retrieves a copy of the matrix column at the provided index as a Cartesian4d instance.
+     *
+     * @param matrix The matrix to use.
+     * @param index  The zero-based index of the column to retrieve.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d getColumn(Matrix4d matrix, int index, Cartesian4d result) {
+        checkIndex(index);
+        int startIndex = index * 4;
+        double[] m = matrix.values;
+        return Cartesian4d.fromElements(m[startIndex], m[startIndex + 1], m[startIndex + 2], m[startIndex + 3],
+                result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the specified column in the provided matrix with the provided
+     * Cartesian4d instance.
+     *
+     * @param matrix    The matrix to use.
+     * @param index     The zero-based index of the column to set.
+     * @param cartesian The Cartesian whose values will be assigned to the specified column.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d setColumn(Matrix4d matrix, int index, Cartesian4d cartesian, Matrix4d result) {
+        checkIndex(index);
+        result = clone(matrix, result);
+        int startIndex = index * 4;
+        result.values[startIndex] = cartesian.x;
+        result.values[startIndex + 1] = cartesian.y;
+        result.values[startIndex + 2] = cartesian.z;
+        result.values[startIndex + 3] = cartesian.w;
+        return result;
+    }
+
+    /**
+     * Retrieves a copy of the matrix row at the provided index as a Cartesian4d instance.
+     *
+     * @param matrix The matrix to use.
+     * @param index  The zero-based index of the row to retrieve.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d getRow(Matrix4d matrix, int index, Cartesian4d result) {
+        checkIndex(index);
+        double[] m = matrix.values;
+        return Cartesian4d.fromElements(m[index], m[index + 4], m[index + 8], m[index + 12], result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the specified row in the provided matrix with the provided Cartesian4d
+     * instance.
+     *
+     * @param matrix    The matrix to use.
+     * @param index     The zero-based index of the row to set.
+     * @param cartesian The Cartesian whose values will be assigned to the specified row.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d setRow(Matrix4d matrix, int index, Cartesian4d cartesian, Matrix4d result) {
+        checkIndex(index);
+        result = clone(matrix, result);
+        result.values[index] = cartesian.x;
+        result.values[index + 4] = cartesian.y;
+        result.values[index + 8] = cartesian.z;
+        result.values[index + 12] = cartesian.w;
+        return result;
+    }
+
+    /**
+     * Gets the translation portion of the provided matrix, assuming the matrix is an affine transformation
+     * matrix.
+     *
+     * @param matrix The matrix to use.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d getTranslation(Matrix4d matrix, Cartesian3d result) {
+        return Cartesian3d.fromElements(matrix.values[12], matrix.values[13], matrix.values[14], result);
+    }
+
+    /**
+     * Computes a new matrix that replaces the translation in the rightmost column of the provided matrix with the
+     * provided translation. This assumes the matrix is an affine transformation.
+     *
+     * @param matrix      The matrix to use.
+     * @param translation The translation that replaces the translation of the provided matrix.
+     * @param result      The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d setTranslation(Matrix4d matrix, Cartesian3d translation, Matrix4d result) {
+        result = clone(matrix, result);
+        result.values[12] = translation.x;
+        result.values[13] = translation.y;
+        result.values[14] = translation.z;
+        result.values[15] = matrix.values[15];
+        return result;
+    }
+
+    /**
+     * Gets the upper left 3x3 matrix of the provided matrix.
+     *
+     * @param matrix The matrix to use.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d getMatrix3(Matrix4d matrix, Matrix3d result) {
+        if (result == null) {
+            result = new Matrix3d();
+        }
+        double[] m = matrix.values;
+        double[] r = result.values;
+        r[0] = m[0];
+        r[1] = m[1];
+        r[2] = m[2];
+        r[3] = m[4];
+        r[4] = m[5];
+        r[5] = m[6];
+        r[6] = m[8];
+        r[7] = m[9];
+        r[8] = m[10];
+        return result;
+    }
+
+    /**
+     * Extracts the non-uniform scale assuming the matrix is an affine transformation.
+     *
+     * @param matrix The matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d getScale(Matrix4d matrix, Cartesian3d result) {
+        double[] m = matrix.values;
+        return Cartesian3d.fromElements(Cartesian3d.magnitude(m[0], m[1], m[2]),
+                Cartesian3d.magnitude(m[4], m[5], m[6]), Cartesian3d.magnitude(m[8], m[9], m[10]), result);
+    }
+
+    /**
+     * Computes the maximum scale assuming the matrix is an affine transformation. The maximum scale is the maximum
+     * length of the column vectors in the upper-left 3x3 matrix.
+     *
+     * @param matrix The matrix.
+     * @return The maximum scale.
+     */
+    public static double getMaximumScale(Matrix4d matrix) {
+        double[] m = matrix.values;
+        return java.lang.Math.max(Cartesian3d.magnitude(m[0], m[1], m[2]),
+                java.lang.Math.max(Cartesian3d.magnitude(m[4], m[5], m[6]), Cartesian3d.magnitude(m[8], m[9], m[10])));
+    }
+
+    /**
+     * Extracts the rotation matrix assuming the matrix is an affine transformation.
+     *
+     * @param matrix The matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix3d getRotation(Matrix4d matrix, Matrix3d result) {
+        return Matrix3d.getRotation(getMatrix3(matrix, result), result);
+    }
+
+    /**
+     * Computes the product of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiply(Matrix4d left, Matrix4d right, Matrix4d result) {
+        double[] l = left.values;
+        double[] rt = right.values;
+
+        double left0 = l[0];
+        double left1 = l[1];
+        double left2 = l[2];
+        double left3 = l[3];
+        double left4 = l[4];
+        double left5 = l[5];
+        double left6 = l[6];
+        double left7 = l[7];
+        double left8 = l[8];
+        double left9 = l[9];
+        double left10 = l[10];
+        double left11 = l[11];
+        double left12 = l[12];
+        double left13 = l[13];
+        double left14 = l[14];
+        double left15 = l[15];
+
+        double right0 = rt[0];
+        double right1 = rt[1];
+        double right2 = rt[2];
+        double right3 = rt[3];
+        double right4 = rt[4];
+        double right5 = rt[5];
+        double right6 = rt[6];
+        double right7 = rt[7];
+        double right8 = rt[8];
+        double right9 = rt[9];
+        double right10 = rt[10];
+        double right11 = rt[11];
+        double right12 = rt[12];
+        double right13 = rt[13];
+        double right14 = rt[14];
+        double right15 = rt[15];
+
+        double[] r = result.values;
+        r[0] = left0 * right0 + left4 * right1 + left8 * right2 + left12 * right3;
+        r[1] = left1 * right0 + left5 * right1 + left9 * right2 + left13 * right3;
+        r[2] = left2 * right0 + left6 * right1 + left10 * right2 + left14 * right3;
+        r[3] = left3 * right0 + left7 * right1 + left11 * right2 + left15 * right3;
+
+        r[4] = left0 * right4 + left4 * right5 + left8 * right6 + left12 * right7;
+        r[5] = left1 * right4 + left5 * right5 + left9 * right6 + left13 * right7;
+        r[6] = left2 * right4 + left6 * right5 + left10 * right6 + left14 * right7;
+        r[7] = left3 * right4 + left7 * right5 + left11 * right6 + left15 * right7;
+
+        r[8] = left0 * right8 + left4 * right9 + left8 * right10 + left12 * right11;
+        r[9] = left1 * right8 + left5 * right9 + left9 * right10 + left13 * right11;
+        r[10] = left2 * right8 + left6 * right9 + left10 * right10 + left14 * right11;
+        r[11] = left3 * right8 + left7 * right9 + left11 * right10 + left15 * right11;
+
+        r[12] = left0 * right12 + left4 * right13 + left8 * right14 + left12 * right15;
+        r[13] = left1 * right12 + left5 * right13 + left9 * right14 + left13 * right15;
+        r[14] = left2 * right12 + left6 * right13 + left10 * right14 + left14 * right15;
+        r[15] = left3 * right12 + left7 * right13 + left11 * right14 + left15 * right15;
+        return result;
+    }
+
+    /**
+     * Computes the product of two matrices assuming the matrices are affine transformation matrices, where the
+     * upper left 3x3 elements are any matrix, and the upper three elements in the fourth column are the
+     * translation. The bottom row is assumed to be [0, 0, 0, 1].
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiplyTransformation(Matrix4d left, Matrix4d right, Matrix4d result) {
+        double[] l = left.values;
+        double[] rt = right.values;
+
+        double left0 = l[0];
+        double left1 = l[1];
+        double left2 = l[2];
+        double left4 = l[4];
+        double left5 = l[5];
+        double left6 = l[6];
+        double left8 = l[8];
+        double left9 = l[9];
+        double left10 = l[10];
+        double left12 = l[12];
+        double left13 = l[13];
+        double left14 = l[14];
+
+        double right0 = rt[0];
+        double right1 = rt[1];
+        double right2 = rt[2];
+        double right4 = rt[4];
+        double right5 = rt[5];
+        double right6 = rt[6];
+        double right8 = rt[8];
+        double right9 = rt[9];
+        double right10 = rt[10];
+        double right12 = rt[12];
+        double right13 = rt[13];
+        double right14 = rt[14];
+
+        double[] r = result.values;
+        r[0] = left0 * right0 + left4 * right1 + left8 * right2;
+        r[1] = left1 * right0 + left5 * right1 + left9 * right2;
+        r[2] = left2 * right0 + left6 * right1 + left10 * right2;
+        r[3] = 0.0;
+        r[4] = left0 * right4 + left4 * right5 + left8 * right6;
+        r[5] = left1 * right4 + left5 * right5 + left9 * right6;
+        r[6] = left2 * right4 + left6 * right5 + left10 * right6;
+        r[7] = 0.0;
+        r[8] = left0 * right8 + left4 * right9 + left8 * right10;
+        r[9] = left1 * right8 + left5 * right9 + left9 * right10;
+        r[10] = left2 * right8 + left6 * right9 + left10 * right10;
+        r[11] = 0.0;
+        r[12] = left0 * right12 + left4 * right13 + left8 * right14 + left12;
+        r[13] = left1 * right12 + left5 * right13 + left9 * right14 + left13;
+        r[14] = left2 * right12 + left6 * right13 + left10 * right14 + left14;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Multiplies a transformation matrix (with a bottom row of [0.0, 0.0, 0.0, 1.0]) by a 3x3 rotation matrix.
+     *
+     * @param matrix   The matrix on the left-hand side.
+     * @param rotation The 3x3 rotation matrix on the right-hand side.
+     * @param result   The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiplyByMatrix3(Matrix4d matrix, Matrix3d rotation, Matrix4d result) {
+        double[] m = matrix.values;
+        double[] rt = rotation.values;
+
+        double left0 = m[0];
+        double left1 = m[1];
+        double left2 = m[2];
+        double left4 = m[4];
+        double left5 = m[5];
+        double left6 = m[6];
+        double left8 = m[8];
+        double left9 = m[9];
+        double left10 = m[10];
+
+        double right0 = rt[0];
+        double right1 = rt[1];
+        double right2 = rt[2];
+        double right4 = rt[3];
+        double right5 = rt[4];
+        double right6 = rt[5];
+        double right8 = rt[6];
+        double right9 = rt[7];
+        double right10 = rt[8];
+
+        double[] r = result.values;
+        r[0] = left0 * right0 + left4 * right1 + left8 * right2;
+        r[1] = left1 * right0 + left5 * right1 + left9 * right2;
+        r[2] = left2 * right0 + left6 * right1 + left10 * right2;
+        r[3] = 0.0;
+        r[4] = left0 * right4 + left4 * right5 + left8 * right6;
+        r[5] = left1 * right4 + left5 * right5 + left9 * right6;
+        r[6] = left2 * right4 + left6 * right5 + left10 * right6;
+        r[7] = 0.0;
+        r[8] = left0 * right8 + left4 * right9 + left8 * right10;
+        r[9] = left1 * right8 + left5 * right9 + left9 * right10;
+        r[10] = left2 * right8 + left6 * right9 + left10 * right10;
+        r[11] = 0.0;
+        r[12] = m[12];
+        r[13] = m[13];
+        r[14] = m[14];
+        r[15] = m[15];
+        return result;
+    }
+
+    /**
+     * Multiplies a transformation matrix (with a bottom row of [0.0, 0.0, 0.0, 1.0]) by an implicit translation
+     * matrix defined by a Cartesian3d.
+     *
+     * @param matrix      The matrix on the left-hand side.
+     * @param translation The translation on the right-hand side.
+     * @param result      The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiplyByTranslation(Matrix4d matrix, Cartesian3d translation, Matrix4d result) {
+        double[] m = matrix.values;
+        double x = translation.x;
+        double y = translation.y;
+        double z = translation.z;
+
+        double tx = x * m[0] + y * m[4] + z * m[8] + m[12];
+        double ty = x * m[1] + y * m[5] + z * m[9] + m[13];
+        double tz = x * m[2] + y * m[6] + z * m[10] + m[14];
+
+        result = clone(matrix, result);
+        result.values[12] = tx;
+        result.values[13] = ty;
+        result.values[14] = tz;
+        return result;
+    }
+
+    /**
+     * Multiplies an affine transformation matrix (with a bottom row of [0.0, 0.0, 0.0, 1.0]) by an implicit
+     * non-uniform scale matrix.
+     *
+     * @param matrix The affine matrix on the left-hand side.
+     * @param scale  The non-uniform scale on the right-hand side.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiplyByScale(Matrix4d matrix, Cartesian3d scale, Matrix4d result) {
+        double scaleX = scale.x;
+        double scaleY = scale.y;
+        double scaleZ = scale.z;
+
+        result = clone(matrix, result);
+        if (scaleX == 1.0 && scaleY == 1.0 && scaleZ == 1.0) {
+            return result;
+        }
+
+        double[] r = result.values;
+        r[0] *= scaleX;
+        r[1] *= scaleX;
+        r[2] *= scaleX;
+        r[3] = 0.0;
+        r[4] *= scaleY;
+        r[5] *= scaleY;
+        r[6] *= scaleY;
+        r[7] = 0.0;
+        r[8] *= scaleZ;
+        r[9] *= scaleZ;
+        r[10] *= scaleZ;
+        r[11] = 0.0;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix times a uniform scale, as if the scale were a scale matrix.
+     *
+     * @param matrix The matrix on the left-hand side.
+     * @param scale  The uniform scale on the right-hand side.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiplyByUniformScale(Matrix4d matrix, double scale, Matrix4d result) {
+        return multiplyByScale(matrix, new Cartesian3d(scale, scale, scale), result);
+    }
+
+    /**
+     * Computes the product of a matrix and a column vector.
+     *
+     * @param matrix    The matrix.
+     * @param cartesian The vector.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian4d multiplyByVector(Matrix4d matrix, Cartesian4d cartesian, Cartesian4d result) {
+        double[] m = matrix.values;
+        double vX = cartesian.x;
+        double vY = cartesian.y;
+        double vZ = cartesian.z;
+        double vW = cartesian.w;
+
+        result.x = m[0] * vX + m[4] * vY + m[8] * vZ + m[12] * vW;
+        result.y = m[1] * vX + m[5] * vY + m[9] * vZ + m[13] * vW;
+        result.z = m[2] * vX + m[6] * vY + m[10] * vZ + m[14] * vW;
+        result.w = m[3] * vX + m[7] * vY + m[11] * vZ + m[15] * vW;
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and a Cartesian3d. This is equivalent to calling
+     * {@link #multiplyByVector} with a Cartesian4d with a w component of zero.
+     *
+     * @param matrix    The matrix.
+     * @param cartesian The point.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByPointAsVector(Matrix4d matrix, Cartesian3d cartesian, Cartesian3d result) {
+        return multiplyByPointAsVector(matrix, cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Computes the product of a matrix and a vector given by its components, ignoring the translation.
+     *
+     * @param matrix The matrix.
+     * @param vX     The X component of the vector.
+     * @param vY     The Y component of the vector.
+     * @param vZ     The Z component of the vector.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByPointAsVector(Matrix4d matrix, double vX, double vY, double vZ,
+                                                      Cartesian3d result) {
+        double[] m = matrix.values;
+        result.x = m[0] * vX + m[4] * vY + m[8] * vZ;
+        result.y = m[1] * vX + m[5] * vY + m[9] * vZ;
+        result.z = m[2] * vX + m[6] * vY + m[10] * vZ;
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and a Cartesian3d. This is equivalent to calling
+     * {@link #multiplyByVector} with a Cartesian4d with a w component of 1, but returns a Cartesian3d instead of
+     * a Cartesian4d.
+     *
+     * @param matrix    The matrix.
+     * @param cartesian The point.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByPoint(Matrix4d matrix, Cartesian3d cartesian, Cartesian3d result) {
+        return multiplyByPoint(matrix, cartesian.x, cartesian.y, cartesian.z, result);
+    }
+
+    /**
+     * Computes the product of a matrix and a point given by its components.
+     *
+     * @param matrix The matrix.
+     * @param vX     The X component of the point.
+     * @param vY     The Y component of the point.
+     * @param vZ     The Z component of the point.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d multiplyByPoint(Matrix4d matrix, double vX, double vY, double vZ,
+                                              Cartesian3d result) {
+        double[] m = matrix.values;
+        result.x = m[0] * vX + m[4] * vY + m[8] * vZ + m[12];
+        result.y = m[1] * vX + m[5] * vY + m[9] * vZ + m[13];
+        result.z = m[2] * vX + m[6] * vY + m[10] * vZ + m[14];
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and a scalar.
+     *
+     * @param matrix The matrix.
+     * @param scalar The number to multiply by.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d multiplyByScalar(Matrix4d matrix, double scalar, Matrix4d result) {
+        for (int i = 0; i < 16; i++) {
+            result.values[i] = matrix.values[i] * scalar;
+        }
+        return result;
+    }
+
+    /**
+     * Computes the product of a matrix and each point of a strided packed array. This is equivalent to calling
+     * {@link #multiplyByPoint} for every point, without allocating. The source and result may be the same array
+     * with the same offset and stride to transform the points in place.
+     *
+     * @param matrix       The matrix.
+     * @param source       The packed points.
+     * @param sourceOffset The index of the x component of the first point.
+     * @param sourceStride The number of elements between the x components of consecutive points, at least 3.
+     * @param result       The array onto which to store the transformed points.
+     * @param resultOffset The index of the x component of the first result.
+     * @param resultStride The number of elements between the x components of consecutive results, at least 3.
+     * @param count        The number of points to transform.
+     * @return The result parameter.
+     */
+    public static double[] multiplyByPoints(Matrix4d matrix, double[] source, int sourceOffset, int sourceStride,
+                                            double[] result, int resultOffset, int resultStride, int count) {
+        return transform(matrix, 1.0, source, sourceOffset, sourceStride, result, resultOffset, resultStride, count);
+    }
+
+    /**
+     * Computes the product of a matrix and each vector of a strided packed array, ignoring the translation. This is
+     * equivalent to calling {@link #multiplyByPointAsVector} for every vector, without allocating. The source and
+     * result may be the same array with the same offset and stride to transform the vectors in place.
+     *
+     * @param matrix       The matrix.
+     * @param source       The packed vectors.
+     * @param sourceOffset The index of the x component of the first vector.
+     * @param sourceStride The number of elements between the x components of consecutive vectors, at least 3.
+     * @param result       The array onto which to store the transformed vectors.
+     * @param resultOffset The index of the x component of the first result.
+     * @param resultStride The number of elements between the x components of consecutive results, at least 3.
+     * @param count        The number of vectors to transform.
+     * @return The result parameter.
+     */
+    public static double[] multiplyByPointsAsVectors(Matrix4d matrix, double[] source, int sourceOffset,
+                                                     int sourceStride, double[] result, int resultOffset,
+                                                     int resultStride, int count) {
+        return transform(matrix, 0.0, source, sourceOffset, sourceStride, result, resultOffset, resultStride, count);
+    }
+
+    /**
+     * Computes the product of a matrix and each point of a strided packed array. This is equivalent to calling
+     * {@link #multiplyByPoint} for every point, without allocating. The source and result may be the same array
+     * with the same offset and stride to transform the points in place.
+     *
+     * @param matrix       The matrix.
+     * @param source       The packed points.
+     * @param sourceOffset The index of the x component of the first point.
+     * @param sourceStride The number of elements between the x components of consecutive points, at least 3.
+     * @param result       The array onto which to store the transformed points.
+     * @param resultOffset The index of the x component of the first result.
+     * @param resultStride The number of elements between the x components of consecutive results, at least 3.
+     * @param count        The number of points to transform.
+     * @return The result parameter.
+     */
+    public static Float64Array multiplyByPoints(Matrix4d matrix, Float64Array source, int sourceOffset,
+                                                int sourceStride, Float64Array result, int resultOffset,
+                                                int resultStride, int count) {
+        return transform(matrix, 1.0, source, sourceOffset, sourceStride, result, resultOffset, resultStride, count);
+    }
+
+    /**
+     * Computes the product of a matrix and each vector of a strided packed array, ignoring the translation. This is
+     * equivalent to calling {@link #multiplyByPointAsVector} for every vector, without allocating. The source and
+     * result may be the same array with the same offset and stride to transform the vectors in place.
+     *
+     * @param matrix       The matrix.
+     * @param source       The packed vectors.
+     * @param sourceOffset The index of the x component of the first vector.
+     * @param sourceStride The number of elements between the x components of consecutive vectors, at least 3.
+     * @param result       The array onto which to store the transformed vectors.
+     * @param resultOffset The index of the x component of the first result.
+     * @param resultStride The number of elements between the x components of consecutive results, at least 3.
+     * @param count        The number of vectors to transform.
+     * @return The result parameter.
+     */
+    public static Float64Array multiplyByPointsAsVectors(Matrix4d matrix, Float64Array source, int sourceOffset,
+                                                         int sourceStride, Float64Array result, int resultOffset,
+                                                         int resultStride, int count) {
+        return transform(matrix, 0.0, source, sourceOffset, sourceStride, result, resultOffset, resultStride, count);
+    }
+
+    /**
+     * Computes the product of a matrix and each point of a buffer, in place.
+     *
+     * @param matrix The matrix.
+     * @param buffer The points to transform.
+     * @return The buffer parameter.
+     */
+    public static Cartesian3Buffer multiplyByPoints(Matrix4d matrix, Cartesian3Buffer buffer) {
+        Float64Array array = buffer.array();
+        transform(matrix, 1.0, array, 0, 3, array, 0, 3, buffer.size());
+        return buffer;
+    }
+
+    /**
+     * Computes the product of a matrix and each point of a buffer, storing the transformed points in another buffer.
+     *
+     * @param matrix The matrix.
+     * @param buffer The points to transform.
+     * @param result The buffer onto which to store the result.
+     * @return The modified result parameter or a new Cartesian3Buffer instance if one was not provided.
+     */
+    public static Cartesian3Buffer multiplyByPoints(Matrix4d matrix, Cartesian3Buffer buffer,
+                                                    Cartesian3Buffer result) {
+        if (result == null) {
+            result = new Cartesian3Buffer(buffer.size());
+        }
+        result.setSize(buffer.size());
+        transform(matrix, 1.0, buffer.array(), 0, 3, result.array(), 0, 3, buffer.size());
+        return result;
+    }
+
+    private static double[] transform(Matrix4d matrix, double w, double[] source, int sourceOffset, int sourceStride,
+                                      double[] result, int resultOffset, int resultStride, int count) {
+        checkStridedRange(source.length, sourceOffset, sourceStride, count);
+        checkStridedRange(result.length, resultOffset, resultStride, count);
+        double[] m = matrix.values;
+        double m0 = m[0];
+        double m1 = m[1];
+        double m2 = m[2];
+        double m4 = m[4];
+        double m5 = m[5];
+        double m6 = m[6];
+        double m8 = m[8];
+        double m9 = m[9];
+        double m10 = m[10];
+        double m12 = m[12] * w;
+        double m13 = m[13] * w;
+        double m14 = m[14] * w;
+
+        int s = sourceOffset;
+        int r = resultOffset;
+        for (int i = 0; i < count; i++) {
+            double x = source[s];
+            double y = source[s + 1];
+            double z = source[s + 2];
+            result[r] = m0 * x + m4 * y + m8 * z + m12;
+            result[r + 1] = m1 * x + m5 * y + m9 * z + m13;
+            result[r + 2] = m2 * x + m6 * y + m10 * z + m14;
+            s += sourceStride;
+            r += resultStride;
+        }
+        return result;
+    }
+
+    private static Float64Array transform(Matrix4d matrix, double w, Float64Array source, int sourceOffset,
+                                          int sourceStride, Float64Array result, int resultOffset, int resultStride,
+                                          int count) {
+        checkStridedRange(source.length(), sourceOffset, sourceStride, count);
+        checkStridedRange(result.length(), resultOffset, resultStride, count);
+        double[] m = matrix.values;
+        double m0 = m[0];
+        double m1 = m[1];
+        double m2 = m[2];
+        double m4 = m[4];
+        double m5 = m[5];
+        double m6 = m[6];
+        double m8 = m[8];
+        double m9 = m[9];
+        double m10 = m[10];
+        double m12 = m[12] * w;
+        double m13 = m[13] * w;
+        double m14 = m[14] * w;
+
+        int s = sourceOffset;
+        int r = resultOffset;
+        for (int i = 0; i < count; i++) {
+            double x = source.get(s);
+            double y = source.get(s + 1);
+            double z = source.get(s + 2);
+            result.set(r, m0 * x + m4 * y + m8 * z + m12);
+            result.set(r + 1, m1 * x + m5 * y + m9 * z + m13);
+            result.set(r + 2, m2 * x + m6 * y + m10 * z + m14);
+            s += sourceStride;
+            r += resultStride;
+        }
+        return result;
+    }
+
+    private static void checkStridedRange(int length, int offset, int stride, int count) {
+        if (stride < 3) {
+            throw new DeveloperError("stride must be greater than or equal to 3.");
+        }
+        if (offset < 0 || count < 0 || (count > 0 && offset + (count - 1) * stride + 3 > length)) {
+            throw new DeveloperError("array is too small for " + count + " elements starting at " + offset + ".");
+        }
+    }
+
+    /**
+     * Computes the sum of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d add(Matrix4d left, Matrix4d right, Matrix4d result) {
+        for (int i = 0; i < 16; i++) {
+            result.values[i] = left.values[i] + right.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes the difference of two matrices.
+     *
+     * @param left   The first matrix.
+     * @param right  The second matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d subtract(Matrix4d left, Matrix4d right, Matrix4d result) {
+        for (int i = 0; i < 16; i++) {
+            result.values[i] = left.values[i] - right.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes a negated copy of the provided matrix.
+     *
+     * @param matrix The matrix to negate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d negate(Matrix4d matrix, Matrix4d result) {
+        for (int i = 0; i < 16; i++) {
+            result.values[i] = -matrix.values[i];
+        }
+        return result;
+    }
+
+    /**
+     * Computes a matrix, which contains the absolute (unsigned) values of the provided matrix's elements.
+     *
+     * @param matrix The matrix with signed elements.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d abs(Matrix4d matrix, Matrix4d result) {
+        for (int i = 0; i < 16; i++) {
+            result.values[i] = java.lang.Math.abs(matrix.values[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes the transpose of the provided matrix.
+     *
+     * @param matrix The matrix to transpose.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d transpose(Matrix4d matrix, Matrix4d result) {
+        double[] m = matrix.values;
+        double[] r = result.values;
+        double matrix1 = m[1];
+        double matrix2 = m[2];
+        double matrix3 = m[3];
+        double matrix6 = m[6];
+        double matrix7 = m[7];
+        double matrix11 = m[11];
+
+        r[0] = m[0];
+        r[1] = m[4];
+        r[2] = m[8];
+        r[3] = m[12];
+        r[4] = matrix1;
+        r[5] = m[5];
+        r[6] = m[9];
+        r[7] = m[13];
+        r[8] = matrix2;
+        r[9] = matrix6;
+        r[10] = m[10];
+        r[11] = m[14];
+        r[12] = matrix3;
+        r[13] = matrix7;
+        r[14] = matrix11;
+        r[15] = m[15];
+        return result;
+    }
+
+    /**
+     * Computes the inverse of the provided matrix using Cramer's Rule. If the determinant is zero, the matrix can
+     * not be inverted and a {@link DeveloperError} is thrown. If the matrix is a proper rigid transformation, it is
+     * more efficient to invert it with {@link #inverseTransformation}.
+     *
+     * @param matrix The matrix to invert.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     * @throws DeveloperError matrix is not invertible because its determinate is zero.
+     */
+    public static Matrix4d inverse(Matrix4d matrix, Matrix4d result) {
+        double[] a = matrix.values;
+        double a00 = a[0];
+        double a01 = a[1];
+        double a02 = a[2];
+        double a03 = a[3];
+        double a10 = a[4];
+        double a11 = a[5];
+        double a12 = a[6];
+        double a13 = a[7];
+        double a20 = a[8];
+        double a21 = a[9];
+        double a22 = a[10];
+        double a23 = a[11];
+        double a30 = a[12];
+        double a31 = a[13];
+        double a32 = a[14];
+        double a33 = a[15];
+
+        double b00 = a00 * a11 - a01 * a10;
+        double b01 = a00 * a12 - a02 * a10;
+        double b02 = a00 * a13 - a03 * a10;
+        double b03 = a01 * a12 - a02 * a11;
+        double b04 = a01 * a13 - a03 * a11;
+        double b05 = a02 * a13 - a03 * a12;
+        double b06 = a20 * a31 - a21 * a30;
+        double b07 = a20 * a32 - a22 * a30;
+        double b08 = a20 * a33 - a23 * a30;
+        double b09 = a21 * a32 - a22 * a31;
+        double b10 = a21 * a33 - a23 * a31;
+        double b11 = a22 * a33 - a23 * a32;
+
+        double det = b00 * b11 - b01 * b10 + b02 * b09 + b03 * b08 - b04 * b07 + b05 * b06;
+        if (java.lang.Math.abs(det) < CesiumMath.EPSILON21) {
+            throw new DeveloperError("matrix is not invertible because its determinate is zero.");
+        }
+        det = 1.0 / det;
+
+        double[] r = result.values;
+        r[0] = (a11 * b11 - a12 * b10 + a13 * b09) * det;
+        r[1] = (a02 * b10 - a01 * b11 - a03 * b09) * det;
+        r[2] = (a31 * b05 - a32 * b04 + a33 * b03) * det;
+        r[3] = (a22 * b04 - a21 * b05 - a23 * b03) * det;
+        r[4] = (a12 * b08 - a10 * b11 - a13 * b07) * det;
+        r[5] = (a00 * b11 - a02 * b08 + a03 * b07) * det;
+        r[6] = (a32 * b02 - a30 * b05 - a33 * b01) * det;
+        r[7] = (a20 * b05 - a22 * b02 + a23 * b01) * det;
+        r[8] = (a10 * b10 - a11 * b08 + a13 * b06) * det;
+        r[9] = (a01 * b08 - a00 * b10 - a03 * b06) * det;
+        r[10] = (a30 * b04 - a31 * b02 + a33 * b00) * det;
+        r[11] = (a21 * b02 - a20 * b04 - a23 * b00) * det;
+        r[12] = (a11 * b07 - a10 * b09 - a12 * b06) * det;
+        r[13] = (a00 * b09 - a01 * b07 + a02 * b06) * det;
+        r[14] = (a31 * b01 - a30 * b03 - a32 * b00) * det;
+        r[15] = (a20 * b03 - a21 * b01 + a22 * b00) * det;
+        return result;
+    }
+
+    /**
+     * Computes the inverse of the provided matrix assuming it is a proper rigid matrix, where the upper left 3x3
+     * elements are a rotation matrix, and the upper three elements in the fourth column are the translation. The
+     * bottom row is assumed to be [0, 0, 0, 1].
+     *
+     * @param matrix The matrix to invert.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Matrix4d inverseTransformation(Matrix4d matrix, Matrix4d result) {
+        double[] m = matrix.values;
+        // This function is an optimized version of the below 4 lines.
+        // const rT = Matrix3.transpose(Matrix4.getMatrix3(matrix));
+        // const rTN = Matrix3.negate(rT);
+        // const rTT = Matrix3.multiplyByVector(rTN, Matrix4.getTranslation(matrix));
+        // return Matrix4.fromRotationTranslation(rT, rTT, result);
+        double matrix0 = m[0];
+        double matrix1 = m[1];
+        double matrix2 = m[2];
+        double matrix4 = m[4];
+        double matrix5 = m[5];
+        double matrix6 = m[6];
+        double matrix8 = m[8];
+        double matrix9 = m[9];
+        double matrix10 = m[10];
+
+        double vX = m[12];
+        double vY = m[13];
+        double vZ = m[14];
+
+        double x = -matrix0 * vX - matrix1 * vY - matrix2 * vZ;
+        double y = -matrix4 * vX - matrix5 * vY - matrix6 * vZ;
+        double z = -matrix8 * vX - matrix9 * vY - matrix10 * vZ;
+
+        double[] r = result.values;
+        r[0] = matrix0;
+        r[1] = matrix4;
+        r[2] = matrix8;
+        r[3] = 0.0;
+        r[4] = matrix1;
+        r[5] = matrix5;
+        r[6] = matrix9;
+        r[7] = 0.0;
+        r[8] = matrix2;
+        r[9] = matrix6;
+        r[10] = matrix10;
+        r[11] = 0.0;
+        r[12] = x;
+        r[13] = y;
+        r[14] = z;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Compares the provided matrices componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first matrix.
+     * @param right The second matrix.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Matrix4d left, Matrix4d right) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        for (int i = 0; i < 16; i++) {
+            if (left.values[i] != right.values[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Compares the provided matrices componentwise and returns true if they are within the provided epsilon,
+     * false otherwise.
+     *
+     * @param left    The first matrix.
+     * @param right   The second matrix.
+     * @param epsilon The epsilon to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Matrix4d left, Matrix4d right, double epsilon) {
+        if (left == right) {
+            return true;
+        }
+        if (left == null || right == null) {
+            return false;
+        }
+        for (int i = 0; i < 16; i++) {
+            if (java.lang.Math.abs(left.values[i] - right.values[i]) > epsilon) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void checkIndex(int index) {
+        if (index < 0 || index > 3) {
+            throw new DeveloperError("index must be 0, 1, 2, or 3.");
+        }
+    }
+
+    /**
+     * Duplicates this Matrix4d instance.
+     *
+     * @return A new Matrix4d instance.
+     */
+    public Matrix4d clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Matrix4d && equals(this, (Matrix4d) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < 16; i++) {
+            hash = 31 * hash + Double.valueOf(values[i]).hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Computes a string representing this Matrix with each row being on a separate line and in the format
+     * '(column0, column1, column2, column3)'.
+     *
+     * @return A string representing the provided Matrix with each row being on a separate line and in the format
+     * '(column0, column1, column2, column3)'.
+     */
+    @Override
+    public String toString() {
+        return "(" + values[0] + ", " + values[4] + ", " + values[8] + ", " + values[12] + ")\n"
+                + "(" + values[1] + ", " + values[5] + ", " + values[9] + ", " + values[13] + ")\n"
+                + "(" + values[2] + ", " + values[6] + ", " + values[10] + ", " + values[14] + ")\n"
+                + "(" + values[3] + ", " + values[7] + ", " + values[11] + ", " + values[15] + ")";
+    }
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.OrientedBoundingBox;
+
+import java.util.Arrays;
+
+/**
+ * An oriented bounding box with a center and three orthogonal half-axes, implemented in pure Java. Builds boxes
+ * from packed x, y, z coordinates with the same principal component analysis as
+ * {@link OrientedBoundingBox#fromPoints}, and packs them in the same layout as {@link OrientedBoundingBox#pack}:
+ * the center followed by the column-major half-axes matrix.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see OrientedBoundingBox
+ * @see BoundingSphered
+ */
+public final class OrientedBoundingBoxd {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = Cartesian3d.packedLength + Matrix3d.packedLength;
+
+    /**
+     * The center of the box.
+     */
+    public final Cartesian3d center = new Cartesian3d();
+    /**
+     * The transformation matrix, to rotate the box to the right position. The columns are the half-axes.
+     */
+    public final Matrix3d halfAxes = new Matrix3d();
+
+    /**
+     * A box with a center of (0.0, 0.0, 0.0) and zero half-axes.
+     */
+    public OrientedBoundingBoxd() {
+    }
+
+    /**
+     * An oriented bounding box.
+     *
+     * @param center   The center of the box.
+     * @param halfAxes The three orthogonal half-axes of the bounding box.
+     */
+    public OrientedBoundingBoxd(Cartesian3d center, Matrix3d halfAxes) {
+        Cartesian3d.clone(center, this.center);
+        Matrix3d.clone(halfAxes, this.halfAxes);
+    }
+
+    /**
+     * Computes an instance of an OrientedBoundingBoxd of the given positions. This is an implementation of Stefan
+     * Gottschalk's Collision Queries using Oriented Bounding Boxes solution (PHD thesis).
+     *
+     * @param positions The packed x, y, z components of the points.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if one was not provided.
+     */
+    public static OrientedBoundingBoxd fromPoints(double[] positions, OrientedBoundingBoxd result) {
+        if (positions.length % 3 != 0) {
+            throw new DeveloperError("positions length must be a multiple of 3.");
+        }
+        return fromPoints(positions, 0, 3, positions.length / 3, result);
+    }
+
+    /**
+     * Computes an OrientedBoundingBoxd of the points of a strided packed array.
+     *
+     * @param positions The packed points.
+     * @param offset    The index of the x component of the first point.
+     * @param stride    The number of elements between the x components of consecutive points, at least 3.
+     * @param count     The number of points.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if one was not provided.
+     * @see #fromPoints(double[], OrientedBoundingBoxd)
+     */
+    public static OrientedBoundingBoxd fromPoints(double[] positions, int offset, int stride, int count,
+                                                  OrientedBoundingBoxd result) {
+        BoundingSphered.checkStridedRange(positions.length, offset, stride, count);
+        if (result == null) {
+            result = new OrientedBoundingBoxd();
+        }
+        if (count == 0) {
+            return setZero(result);
+        }
+
+        int end = offset + count * stride;
+        double meanX = 0.0;
+        double meanY = 0.0;
+        double meanZ = 0.0;
+        for (int i = offset; i < end; i += stride) {
+            meanX += positions[i];
+            meanY += positions[i + 1];
+            meanZ += positions[i + 2];
+        }
+        double invLength = 1.0 / count;
+        meanX *= invLength;
+        meanY *= invLength;
+        meanZ *= invLength;
+
+        double exx = 0.0;
+        double exy = 0.0;
+        double exz = 0.0;
+        double eyy = 0.0;
+        double eyz = 0.0;
+        double ezz = 0.0;
+        for (int i = offset; i < end; i += stride) {
+            double x = positions[i] - meanX;
+            double y = positions[i + 1] - meanY;
+            double z = positions[i + 2] - meanZ;
+            exx += x * x;
+            exy += x * y;
+            exz += x * z;
+            eyy += y * y;
+            eyz += y * z;
+            ezz += z * z;
+        }
+        Matrix3d rotation = computeRotation(exx * invLength, exy * invLength, exz * invLength, eyy * invLength,
+                eyz * invLength, ezz * invLength);
+        double[] r = rotation.values;
+
+        double u1 = -Double.MAX_VALUE;
+        double u2 = -Double.MAX_VALUE;
+        double u3 = -Double.MAX_VALUE;
+        double l1 = Double.MAX_VALUE;
+        double l2 = Double.MAX_VALUE;
+        double l3 = Double.MAX_VALUE;
+        for (int i = offset; i < end; i += stride) {
+            double x = positions[i];
+            double y = positions[i + 1];
+            double z = positions[i + 2];
+            double d1 = r[0] * x + r[1] * y + r[2] * z;
+            double d2 = r[3] * x + r[4] * y + r[5] * z;
+            double d3 = r[6] * x + r[7] * y + r[8] * z;
+            u1 = java.lang.Math.max(d1, u1);
+            u2 = java.lang.Math.max(d2, u2);
+            u3 = java.lang.Math.max(d3, u3);
+            l1 = java.lang.Math.min(d1, l1);
+            l2 = java.lang.Math.min(d2, l2);
+            l3 = java.lang.Math.min(d3, l3);
+        }
+        return setFromRotationAndExtents(rotation, l1, u1, l2, u2, l3, u3, result);
+    }
+
+    /**
+     * Computes an OrientedBoundingBoxd of the points of a strided packed typed array.
+     *
+     * @param positions The packed points.
+     * @param offset    The index of the x component of the first point.
+     * @param stride    The number of elements between the x components of consecutive points, at least 3.
+     * @param count     The number of points.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if one was not provided.
+     * @see #fromPoints(double[], OrientedBoundingBoxd)
+     */
+    public static OrientedBoundingBoxd fromPoints(Float64Array positions, int offset, int stride, int count,
+                                                  OrientedBoundingBoxd result) {
+        BoundingSphered.checkStridedRange(positions.length(), offset, stride, count);
+        if (result == null) {
+            result = new OrientedBoundingBoxd();
+        }
+        if (count == 0) {
+            return setZero(result);
+        }
+
+        int end = offset + count * stride;
+        double meanX = 0.0;
+        double meanY = 0.0;
+        double meanZ = 0.0;
+        for (int i = offset; i < end; i += stride) {
+            meanX += positions.get(i);
+            meanY += positions.get(i + 1);
+            meanZ += positions.get(i + 2);
+        }
+        double invLength = 1.0 / count;
+        meanX *= invLength;
+        meanY *= invLength;
+        meanZ *= invLength;
+
+        double exx = 0.0;
+        double exy = 0.0;
+        double exz = 0.0;
+        double eyy = 0.0;
+        double eyz = 0.0;
+        double ezz = 0.0;
+        for (int i = offset; i < end; i += stride) {
+            double x = positions.get(i) - meanX;
+            double y = positions.get(i + 1) - meanY;
+            double z = positions.get(i + 2) - meanZ;
+            exx += x * x;
+            exy += x * y;
+            exz += x * z;
+            eyy += y * y;
+            eyz += y * z;
+            ezz += z * z;
+        }
+        Matrix3d rotation = computeRotation(exx * invLength, exy * invLength, exz * invLength, eyy * invLength,
+                eyz * invLength, ezz * invLength);
+        double[] r = rotation.values;
+
+        double u1 = -Double.MAX_VALUE;
+        double u2 = -Double.MAX_VALUE;
+        double u3 = -Double.MAX_VALUE;
+        double l1 = Double.MAX_VALUE;
+        double l2 = Double.MAX_VALUE;
+        double l3 = Double.MAX_VALUE;
+        for (int i = offset; i < end; i += stride) {
+            double x = positions.get(i);
+            double y = positions.get(i + 1);
+            double z = positions.get(i + 2);
+            double d1 = r[0] * x + r[1] * y + r[2] * z;
+            double d2 = r[3] * x + r[4] * y + r[5] * z;
+            double d3 = r[6] * x + r[7] * y + r[8] * z;
+            u1 = java.lang.Math.max(d1, u1);
+            u2 = java.lang.Math.max(d2, u2);
+            u3 = java.lang.Math.max(d3, u3);
+            l1 = java.lang.Math.min(d1, l1);
+            l2 = java.lang.Math.min(d2, l2);
+            l3 = java.lang.Math.min(d3, l3);
+        }
+        return setFromRotationAndExtents(rotation, l1, u1, l2, u2, l3, u3, result);
+    }
+
+    /**
+     * Computes an OrientedBoundingBoxd of the positions of a buffer.
+     *
+     * @param positions The positions.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if one was not provided.
+     * @see #fromPoints(double[], OrientedBoundingBoxd)
+     */
+    public static OrientedBoundingBoxd fromPoints(Cartesian3Buffer positions, OrientedBoundingBoxd result) {
+        return fromPoints(positions.array(), 0, Cartesian3Buffer.STRIDE, positions.size(), result);
+    }
+
+    /**
+     * Computes the oriented bounding boxes of many features whose points are stored back to back in one packed
+     * array, and packs them one after the other into the result, {@link #packedLength} elements per feature. The
+     * points of feature i are the points with indices featureOffsets[i] (inclusive) to featureOffsets[i + 1]
+     * (exclusive).
+     *
+     * @param positions      The packed x, y, z components of the points of all features.
+     * @param featureOffsets The index of the first point of each feature, followed by the total number of points.
+     * @param result         The array onto which to store the packed boxes.
+     * @param resultOffset   The index at which to store the first box.
+     * @return The result parameter or a new array if one was not provided.
+     */
+    public static double[] packFeatures(double[] positions, int[] featureOffsets, double[] result,
+                                        int resultOffset) {
+        int featureCount = featureOffsets.length - 1;
+        if (featureCount < 0) {
+            throw new DeveloperError("featureOffsets must have at least one element.");
+        }
+        if (result == null) {
+            result = new double[resultOffset + featureCount * packedLength];
+        }
+        OrientedBoundingBoxd scratch = new OrientedBoundingBoxd();
+        for (int i = 0; i < featureCount; i++) {
+            int first = featureOffsets[i];
+            int count = featureOffsets[i + 1] - first;
+            fromPoints(positions, first * 3, 3, count, scratch);
+            pack(scratch, result, resultOffset + i * packedLength);
+        }
+        return result;
+    }
+
+    /**
+     * Duplicates an OrientedBoundingBoxd instance.
+     *
+     * @param box    The bounding box to duplicate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if none was provided.
+     * (Returns null if box is null)
+     */
+    public static OrientedBoundingBoxd clone(OrientedBoundingBoxd box, OrientedBoundingBoxd result) {
+        if (box == null) {
+            return null;
+        }
+        if (result == null) {
+            return new OrientedBoundingBoxd(box.center, box.halfAxes);
+        }
+        Cartesian3d.clone(box.center, result.center);
+        Matrix3d.clone(box.halfAxes, result.halfAxes);
+        return result;
+    }
+
+    /**
+     * Copies a native {@link OrientedBoundingBox}. This is a single call into CesiumJS.
+     *
+     * @param box    The native bounding box.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if none was provided.
+     * (Returns null if box is null)
+     */
+    public static OrientedBoundingBoxd fromOrientedBoundingBox(OrientedBoundingBox box, OrientedBoundingBoxd result) {
+        if (box == null) {
+            return null;
+        }
+        return unpack(OrientedBoundingBox.pack(box, new double[packedLength], 0), 0, result);
+    }
+
+    /**
+     * Copies into a native {@link OrientedBoundingBox}. This is a single call into CesiumJS.
+     *
+     * @param box    The bounding box.
+     * @param result The native object onto which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBox instance if none was provided.
+     * (Returns null if box is null)
+     */
+    public static OrientedBoundingBox toOrientedBoundingBox(OrientedBoundingBoxd box, OrientedBoundingBox result) {
+        if (box == null) {
+            return null;
+        }
+        return OrientedBoundingBox.unpack(pack(box, new double[packedLength], 0), 0, result);
+    }
+
+    /**
+     * Stores the provided instance into the provided array, in the layout of {@link OrientedBoundingBox#pack}.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(OrientedBoundingBoxd value, double[] array, int startingIndex) {
+        Cartesian3d.pack(value.center, array, startingIndex);
+        Matrix3d.pack(value.halfAxes, array, startingIndex + Cartesian3d.packedLength);
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new OrientedBoundingBoxd instance if one was not provided.
+     */
+    public static OrientedBoundingBoxd unpack(double[] array, int startingIndex, OrientedBoundingBoxd result) {
+        if (result == null) {
+            result = new OrientedBoundingBoxd();
+        }
+        Cartesian3d.unpack(array, startingIndex, result.center);
+        Matrix3d.unpack(array, startingIndex + Cartesian3d.packedLength, result.halfAxes);
+        return result;
+    }
+
+    /**
+     * Compares the provided OrientedBoundingBoxd componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first OrientedBoundingBoxd.
+     * @param right The second OrientedBoundingBoxd.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(OrientedBoundingBoxd left, OrientedBoundingBoxd right) {
+        return left == right || (left != null && right != null && Cartesian3d.equals(left.center, right.center)
+                && Matrix3d.equals(left.halfAxes, right.halfAxes));
+    }
+
+    /**
+     * Duplicates this instance.
+     *
+     * @return A new OrientedBoundingBoxd instance.
+     */
+    public OrientedBoundingBoxd clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof OrientedBoundingBoxd && equals(this, (OrientedBoundingBoxd) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * center.hashCode() + halfAxes.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "(" + center + ", " + halfAxes + ")";
+    }
+
+    private static OrientedBoundingBoxd setZero(OrientedBoundingBoxd result) {
+        Cartesian3d.fromElements(0.0, 0.0, 0.0, result.center);
+        Arrays.fill(result.halfAxes.values, 0.0);
+        return result;
+    }
+
+    /**
+     * Computes the principal axes of a covariance matrix, as the columns of a rotation matrix.
+     */
+    private static Matrix3d computeRotation(double exx, double exy, double exz, double eyy, double eyz, double ezz) {
+        Matrix3d covariance = new Matrix3d(exx, exy, exz, exy, eyy, eyz, exz, eyz, ezz);
+        Matrix3d rotation = new Matrix3d();
+        Matrix3d.computeEigenDecomposition(covariance, rotation, new Matrix3d());
+        return rotation;
+    }
+
+    private static OrientedBoundingBoxd setFromRotationAndExtents(Matrix3d rotation, double l1, double u1,
+                                                                  double l2, double u2, double l3, double u3,
+                                                                  OrientedBoundingBoxd result) {
+        double[] r = rotation.values;
+        double s1 = 0.5 * (l1 + u1);
+        double s2 = 0.5 * (l2 + u2);
+        double s3 = 0.5 * (l3 + u3);
+        result.center.x = r[0] * s1 + r[3] * s2 + r[6] * s3;
+        result.center.y = r[1] * s1 + r[4] * s2 + r[7] * s3;
+        result.center.z = r[2] * s1 + r[5] * s2 + r[8] * s3;
+
+        double[] h = result.halfAxes.values;
+        double scaleX = (u1 - l1) * 0.5;
+        double scaleY = (u2 - l2) * 0.5;
+        double scaleZ = (u3 - l3) * 0.5;
+        h[0] = r[0] * scaleX;
+        h[1] = r[1] * scaleX;
+        h[2] = r[2] * scaleX;
+        h[3] = r[3] * scaleY;
+        h[4] = r[4] * scaleY;
+        h[5] = r[5] * scaleY;
+        h[6] = r[6] * scaleZ;
+        h[7] = r[7] * scaleZ;
+        h[8] = r[8] * scaleZ;
+        return result;
+    }
+}
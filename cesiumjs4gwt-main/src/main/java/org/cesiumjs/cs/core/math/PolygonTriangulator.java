@@ -0,0 +1,816 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Triangulates polygons with holes by ear clipping, implemented in pure Java. This is a port of the earcut
+ * algorithm which CesiumJS uses in {@code PolygonPipeline.triangulate}, so it yields the same triangles for the same
+ * coordinates in the plane, and it runs on a server JVM to triangulate polygons ahead of time as well as in the
+ * client. Large polygons are indexed along a Z-order curve so that the test of each ear only visits the nearby
+ * vertices.
+ * <p>
+ * Unlike {@code PolygonGeometry}, this class neither removes duplicate positions nor reorders rings; see
+ * {@link org.cesiumjs.cs.core.TriangulationCache#triangulate(org.cesiumjs.cs.core.PolygonHierarchy)} for a
+ * triangulation of a polygon hierarchy which does.
+ * <p>
+ * Vertices are passed as one packed array. The outer ring comes first and each hole follows it; the holes are
+ * given as the indices of their first vertex. The rings may be in either winding order and must not repeat their
+ * first vertex at the end.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see org.cesiumjs.cs.core.TriangulationCache
+ */
+public final class PolygonTriangulator {
+    // Above this number of vertices, ears are tested against a Z-order index of the vertices
+    private static final int HASH_THRESHOLD = 80;
+
+    private static final Comparator<Node> LEFT_TO_RIGHT = new Comparator<Node>() {
+        @Override
+        public int compare(Node a, Node b) {
+            return Double.compare(a.x, b.x);
+        }
+    };
+
+    private static final int[] NO_HOLES = new int[0];
+    private int[] triangles;
+    private int triangleCount;
+    private double minX;
+    private double minY;
+    private double invSize;
+
+    private PolygonTriangulator() {
+    }
+
+    /**
+     * Triangulates a polygon with holes in the plane.
+     *
+     * @param coordinates The packed x and y coordinates of the vertices of the outer ring followed by the holes.
+     * @param holeIndices The index of the first vertex of each hole, in increasing order, or null for none.
+     * @return The indices of the vertices of the triangles, three per triangle.
+     */
+    public static int[] triangulate(double[] coordinates, int[] holeIndices) {
+        if (coordinates.length % 2 != 0) {
+            throw new DeveloperError("coordinates must hold an x and y for each vertex.");
+        }
+        return new PolygonTriangulator().run(coordinates, holeIndices);
+    }
+
+    /**
+     * Triangulates a polygon with holes on the surface of an ellipsoid. Like {@code PolygonGeometry}, the vertices
+     * are projected onto the plane tangent to the ellipsoid at the center of the bounding box of the outer ring
+     * before the triangulation.
+     *
+     * @param positions   The packed x, y and z coordinates of the vertices of the outer ring followed by the holes.
+     * @param holeIndices The index of the first vertex of each hole, in increasing order, or null for none.
+     * @param ellipsoid   The ellipsoid to use for the tangent plane.
+     * @return The indices of the vertices of the triangles, three per triangle.
+     */
+    public static int[] triangulate(double[] positions, int[] holeIndices, Ellipsoidd ellipsoid) {
+        if (positions.length % 3 != 0) {
+            throw new DeveloperError("positions must hold an x, y and z for each vertex.");
+        }
+        int outerLength = holeIndices != null && holeIndices.length > 0
+                ? Math.min(3 * holeIndices[0], positions.length) : positions.length;
+        return triangulate(project(positions, outerLength, positions, ellipsoid, null), holeIndices);
+    }
+
+    /**
+     * Projects positions onto the plane tangent to an ellipsoid at the center of their bounding box, like
+     * {@code EllipsoidTangentPlane.fromPoints} followed by {@code projectPointsOntoPlane}.
+     *
+     * @param positions The packed x, y and z coordinates of the positions.
+     * @param ellipsoid The ellipsoid to use for the tangent plane.
+     * @param result    The array onto which to store the x and y coordinates in the plane, two per position, or
+     *                  null to create a new array.
+     * @return The result array.
+     */
+    public static double[] projectToTangentPlane(double[] positions, Ellipsoidd ellipsoid, double[] result) {
+        return projectToTangentPlane(positions, positions, ellipsoid, result);
+    }
+
+    /**
+     * Projects positions onto the plane tangent to an ellipsoid at the center of the bounding box of other
+     * positions, like {@code EllipsoidTangentPlane.fromPoints(planePositions)} followed by
+     * {@code projectPointsOntoPlane(positions)}. {@code PolygonGeometry} projects all of its rings onto the plane of
+     * the outer ring of the hierarchy.
+     *
+     * @param planePositions The packed x, y and z coordinates of the positions which define the plane.
+     * @param positions      The packed x, y and z coordinates of the positions to project.
+     * @param ellipsoid      The ellipsoid to use for the tangent plane.
+     * @param result         The array onto which to store the x and y coordinates in the plane, two per position,
+     *                       or null to create a new array.
+     * @return The result array.
+     */
+    public static double[] projectToTangentPlane(double[] planePositions, double[] positions, Ellipsoidd ellipsoid,
+                                                 double[] result) {
+        if (planePositions.length % 3 != 0 || positions.length % 3 != 0) {
+            throw new DeveloperError("positions must hold an x, y and z for each vertex.");
+        }
+        return project(planePositions, planePositions.length, positions, ellipsoid, result);
+    }
+
+    private static double[] project(double[] planePositions, int planeLength, double[] positions,
+                                    Ellipsoidd ellipsoid, double[] result) {
+        int count = positions.length / 3;
+        if (result == null) {
+            result = new double[2 * count];
+        } else if (result.length < 2 * count) {
+            throw new DeveloperError("result is too small for " + count + " positions.");
+        }
+        if (count == 0 || planeLength <= 0) {
+            return result;
+        }
+        double minimumX = Double.POSITIVE_INFINITY;
+        double minimumY = Double.POSITIVE_INFINITY;
+        double minimumZ = Double.POSITIVE_INFINITY;
+        double maximumX = Double.NEGATIVE_INFINITY;
+        double maximumY = Double.NEGATIVE_INFINITY;
+        double maximumZ = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < planeLength; i += 3) {
+            minimumX = Math.min(minimumX, planePositions[i]);
+            minimumY = Math.min(minimumY, planePositions[i + 1]);
+            minimumZ = Math.min(minimumZ, planePositions[i + 2]);
+            maximumX = Math.max(maximumX, planePositions[i]);
+            maximumY = Math.max(maximumY, planePositions[i + 1]);
+            maximumZ = Math.max(maximumZ, planePositions[i + 2]);
+        }
+        Cartesian3d origin = ellipsoid.scaleToGeodeticSurface(0.5 * (minimumX + maximumX),
+                0.5 * (minimumY + maximumY), 0.5 * (minimumZ + maximumZ), new Cartesian3d());
+        if (origin == null) {
+            throw new DeveloperError("the positions must not be centered at the center of the ellipsoid.");
+        }
+        double[] m = Transformsd.eastNorthUpToFixedFrame(origin, ellipsoid, new Matrix4d()).values;
+        double normalDotOrigin = m[8] * origin.x + m[9] * origin.y + m[10] * origin.z;
+        for (int i = 0; i < count; i++) {
+            double x = positions[3 * i];
+            double y = positions[3 * i + 1];
+            double z = positions[3 * i + 2];
+            // Intersect the line through the center of the ellipsoid and the position with the plane
+            double denominator = m[8] * x + m[9] * y + m[10] * z;
+            if (Math.abs(denominator) < CesiumMath.EPSILON14) {
+                throw new DeveloperError("position " + i + " cannot be projected onto the tangent plane.");
+            }
+            double t = normalDotOrigin / denominator;
+            double dx = x * t - origin.x;
+            double dy = y * t - origin.y;
+            double dz = z * t - origin.z;
+            result[2 * i] = m[0] * dx + m[1] * dy + m[2] * dz;
+            result[2 * i + 1] = m[4] * dx + m[5] * dy + m[6] * dz;
+        }
+        return result;
+    }
+
+    private int[] run(double[] data, int[] holeIndices) {
+        if (holeIndices == null) {
+            holeIndices = NO_HOLES;
+        }
+        int vertexCount = data.length / 2;
+        for (int i = 0; i < holeIndices.length; i++) {
+            if (holeIndices[i] < 0 || holeIndices[i] > vertexCount || (i > 0 && holeIndices[i] < holeIndices[i - 1])) {
+                throw new DeveloperError("holeIndices must be increasing vertex indices.");
+            }
+        }
+        triangles = new int[Math.max(3 * (vertexCount + 2 * holeIndices.length - 2), 0)];
+        triangleCount = 0;
+
+        int outerLength = holeIndices.length > 0 ? 2 * holeIndices[0] : data.length;
+        Node outerNode = linkedList(data, 0, outerLength, true);
+        if (outerNode == null || outerNode.next == outerNode.prev) {
+            return new int[0];
+        }
+        if (holeIndices.length > 0) {
+            outerNode = eliminateHoles(data, holeIndices, outerNode);
+        }
+        invSize = 0.0;
+        if (data.length > 2 * HASH_THRESHOLD) {
+            double maxX = minX = data[0];
+            double maxY = minY = data[1];
+            for (int i = 2; i < outerLength; i += 2) {
+                double x = data[i];
+                double y = data[i + 1];
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            // The Z-order curve uses 15 bits per coordinate
+            invSize = Math.max(maxX - minX, maxY - minY);
+            invSize = invSize != 0.0 ? 32767.0 / invSize : 0.0;
+        }
+        earcutLinked(outerNode, 0);
+        return triangleCount == triangles.length ? triangles : Arrays.copyOf(triangles, triangleCount);
+    }
+
+    /**
+     * Creates a circular doubly linked list from the vertices of a ring in the specified winding order.
+     */
+    private static Node linkedList(double[] data, int start, int end, boolean clockwise) {
+        Node last = null;
+        if (clockwise == (signedArea(data, start, end) > 0.0)) {
+            for (int i = start; i < end; i += 2) {
+                last = insertNode(i / 2, data[i], data[i + 1], last);
+            }
+        } else {
+            for (int i = end - 2; i >= start; i -= 2) {
+                last = insertNode(i / 2, data[i], data[i + 1], last);
+            }
+        }
+        if (last != null && equals(last, last.next)) {
+            removeNode(last);
+            last = last.next;
+        }
+        return last;
+    }
+
+    /**
+     * Eliminates colinear or duplicate points.
+     */
+    private static Node filterPoints(Node start, Node end) {
+        if (start == null) {
+            return null;
+        }
+        if (end == null) {
+            end = start;
+        }
+        Node p = start;
+        boolean again;
+        do {
+            again = false;
+            if (!p.steiner && (equals(p, p.next) || area(p.prev, p, p.next) == 0.0)) {
+                removeNode(p);
+                p = end = p.prev;
+                if (p == p.next) {
+                    break;
+                }
+                again = true;
+            } else {
+                p = p.next;
+            }
+        } while (again || p != end);
+        return end;
+    }
+
+    /**
+     * The main ear slicing loop, which triangulates a polygon given as a linked list.
+     */
+    private void earcutLinked(Node ear, int pass) {
+        if (ear == null) {
+            return;
+        }
+        if (pass == 0 && invSize != 0.0) {
+            indexCurve(ear);
+        }
+        Node stop = ear;
+        while (ear.prev != ear.next) {
+            Node prev = ear.prev;
+            Node next = ear.next;
+            if (invSize != 0.0 ? isEarHashed(ear) : isEar(ear)) {
+                addTriangle(prev.i, ear.i, next.i);
+                removeNode(ear);
+                // Skipping the next vertex leads to less sliver triangles
+                ear = next.next;
+                stop = next.next;
+                continue;
+            }
+            ear = next;
+            if (ear == stop) {
+                if (pass == 0) {
+                    // Try again after filtering points
+                    earcutLinked(filterPoints(ear, null), 1);
+                } else if (pass == 1) {
+                    // Clip the remaining triangles at local self-intersections
+                    ear = cureLocalIntersections(filterPoints(ear, null));
+                    earcutLinked(ear, 2);
+                } else {
+                    // As a last resort, split the remaining polygon in two and triangulate each half
+                    splitEarcut(ear);
+                }
+                break;
+            }
+        }
+    }
+
+    /**
+     * Checks whether a polygon node forms a valid ear with adjacent nodes.
+     */
+    private static boolean isEar(Node ear) {
+        Node a = ear.prev;
+        Node b = ear;
+        Node c = ear.next;
+        if (area(a, b, c) >= 0.0) {
+            return false;
+        }
+        double x0 = Math.min(a.x, Math.min(b.x, c.x));
+        double y0 = Math.min(a.y, Math.min(b.y, c.y));
+        double x1 = Math.max(a.x, Math.max(b.x, c.x));
+        double y1 = Math.max(a.y, Math.max(b.y, c.y));
+        Node p = c.next;
+        while (p != a) {
+            if (p.x >= x0 && p.x <= x1 && p.y >= y0 && p.y <= y1 && pointInTriangle(a, b, c, p.x, p.y)
+                    && area(p.prev, p, p.next) >= 0.0) {
+                return false;
+            }
+            p = p.next;
+        }
+        return true;
+    }
+
+    private boolean isEarHashed(Node ear) {
+        Node a = ear.prev;
+        Node b = ear;
+        Node c = ear.next;
+        if (area(a, b, c) >= 0.0) {
+            return false;
+        }
+        double x0 = Math.min(a.x, Math.min(b.x, c.x));
+        double y0 = Math.min(a.y, Math.min(b.y, c.y));
+        double x1 = Math.max(a.x, Math.max(b.x, c.x));
+        double y1 = Math.max(a.y, Math.max(b.y, c.y));
+        // Z-order range for the bounding box of the triangle
+        int minZ = zOrder(x0, y0);
+        int maxZ = zOrder(x1, y1);
+
+        // Look for points inside the triangle in both directions
+        Node p = ear.prevZ;
+        Node n = ear.nextZ;
+        while (p != null && p.z >= minZ && n != null && n.z <= maxZ) {
+            if (blocks(p, a, b, c, x0, y0, x1, y1)) {
+                return false;
+            }
+            p = p.prevZ;
+            if (blocks(n, a, b, c, x0, y0, x1, y1)) {
+                return false;
+            }
+            n = n.nextZ;
+        }
+        while (p != null && p.z >= minZ) {
+            if (blocks(p, a, b, c, x0, y0, x1, y1)) {
+                return false;
+            }
+            p = p.prevZ;
+        }
+        while (n != null && n.z <= maxZ) {
+            if (blocks(n, a, b, c, x0, y0, x1, y1)) {
+                return false;
+            }
+            n = n.nextZ;
+        }
+        return true;
+    }
+
+    private static boolean blocks(Node p, Node a, Node b, Node c, double x0, double y0, double x1, double y1) {
+        return p.x >= x0 && p.x <= x1 && p.y >= y0 && p.y <= y1 && p != a && p != c
+                && pointInTriangle(a, b, c, p.x, p.y) && area(p.prev, p, p.next) >= 0.0;
+    }
+
+    /**
+     * Goes through all polygon nodes and cures small local self-intersections.
+     */
+    private Node cureLocalIntersections(Node start) {
+        Node p = start;
+        do {
+            Node a = p.prev;
+            Node b = p.next.next;
+            if (!equals(a, b) && intersects(a, p, p.next, b) && locallyInside(a, b) && locallyInside(b, a)) {
+                addTriangle(a.i, p.i, b.i);
+                // Remove the two nodes involved
+                removeNode(p);
+                removeNode(p.next);
+                p = start = b;
+            }
+            p = p.next;
+        } while (p != start);
+        return filterPoints(p, null);
+    }
+
+    /**
+     * Tries splitting a polygon into two and triangulates them independently.
+     */
+    private void splitEarcut(Node start) {
+        // Look for a valid diagonal that divides the polygon into two
+        Node a = start;
+        do {
+            Node b = a.next.next;
+            while (b != a.prev) {
+                if (a.i != b.i && isValidDiagonal(a, b)) {
+                    Node c = splitPolygon(a, b);
+                    a = filterPoints(a, a.next);
+                    c = filterPoints(c, c.next);
+                    earcutLinked(a, 0);
+                    earcutLinked(c, 0);
+                    return;
+                }
+                b = b.next;
+            }
+            a = a.next;
+        } while (a != start);
+    }
+
+    /**
+     * Links every hole into the outer loop, producing a single-ring polygon without holes.
+     */
+    private static Node eliminateHoles(double[] data, int[] holeIndices, Node outerNode) {
+        Node[] queue = new Node[holeIndices.length];
+        int queueLength = 0;
+        for (int i = 0; i < holeIndices.length; i++) {
+            int start = 2 * holeIndices[i];
+            int end = i < holeIndices.length - 1 ? 2 * holeIndices[i + 1] : data.length;
+            Node list = linkedList(data, start, end, false);
+            if (list == null) {
+                continue;
+            }
+            if (list == list.next) {
+                list.steiner = true;
+            }
+            queue[queueLength++] = getLeftmost(list);
+        }
+        Arrays.sort(queue, 0, queueLength, LEFT_TO_RIGHT);
+        // Process holes from left to right
+        for (int i = 0; i < queueLength; i++) {
+            outerNode = eliminateHole(queue[i], outerNode);
+        }
+        return outerNode;
+    }
+
+    /**
+     * Finds a bridge between vertices that connects a hole with the outer ring and links it.
+     */
+    private static Node eliminateHole(Node hole, Node outerNode) {
+        Node bridge = findHoleBridge(hole, outerNode);
+        if (bridge == null) {
+            return outerNode;
+        }
+        Node bridgeReverse = splitPolygon(bridge, hole);
+        // Filter collinear points around the cuts
+        filterPoints(bridgeReverse, bridgeReverse.next);
+        return filterPoints(bridge, bridge.next);
+    }
+
+    /**
+     * David Eberly's algorithm for finding a bridge between a hole and the outer polygon.
+     */
+    private static Node findHoleBridge(Node hole, Node outerNode) {
+        Node p = outerNode;
+        double hx = hole.x;
+        double hy = hole.y;
+        double qx = Double.NEGATIVE_INFINITY;
+        Node m = null;
+
+        // Find a segment intersected by a ray from the hole's leftmost point to the left; the segment's endpoint
+        // with the lesser x will be a potential connection point
+        do {
+            if (hy <= p.y && hy >= p.next.y && p.next.y != p.y) {
+                double x = p.x + (hy - p.y) * (p.next.x - p.x) / (p.next.y - p.y);
+                if (x <= hx && x > qx) {
+                    qx = x;
+                    m = p.x < p.next.x ? p : p.next;
+                    if (x == hx) {
+                        // The hole touches the outer segment; pick the leftmost endpoint
+                        return m;
+                    }
+                }
+            }
+            p = p.next;
+        } while (p != outerNode);
+        if (m == null) {
+            return null;
+        }
+
+        // Look for points inside the triangle of the hole point, the segment intersection and the endpoint; if there
+        // are none, the endpoint is the connection point, otherwise take the point of the minimum angle with the ray
+        Node stop = m;
+        double mx = m.x;
+        double my = m.y;
+        double tanMin = Double.POSITIVE_INFINITY;
+        p = m;
+        do {
+            if (hx >= p.x && p.x >= mx && hx != p.x
+                    && pointInTriangle(hy < my ? hx : qx, hy, mx, my, hy < my ? qx : hx, hy, p.x, p.y)) {
+                double tan = Math.abs(hy - p.y) / (hx - p.x);
+                if (locallyInside(p, hole) && (tan < tanMin
+                        || (tan == tanMin && (p.x > m.x || (p.x == m.x && sectorContainsSector(m, p)))))) {
+                    m = p;
+                    tanMin = tan;
+                }
+            }
+            p = p.next;
+        } while (p != stop);
+        return m;
+    }
+
+    /**
+     * Whether the sector in vertex m contains the sector in vertex p in the same coordinates.
+     */
+    private static boolean sectorContainsSector(Node m, Node p) {
+        return area(m.prev, m, p.prev) < 0.0 && area(p.next, m, m.next) < 0.0;
+    }
+
+    /**
+     * Interlinks polygon nodes in Z-order.
+     */
+    private void indexCurve(Node start) {
+        Node p = start;
+        do {
+            if (p.z == 0) {
+                p.z = zOrder(p.x, p.y);
+            }
+            p.prevZ = p.prev;
+            p.nextZ = p.next;
+            p = p.next;
+        } while (p != start);
+        p.prevZ.nextZ = null;
+        p.prevZ = null;
+        sortLinked(p);
+    }
+
+    /**
+     * Simon Tatham's linked list merge sort algorithm.
+     */
+    private static Node sortLinked(Node list) {
+        int inSize = 1;
+        int numMerges;
+        do {
+            Node p = list;
+            Node tail = null;
+            list = null;
+            numMerges = 0;
+            while (p != null) {
+                numMerges++;
+                Node q = p;
+                int pSize = 0;
+                for (int i = 0; i < inSize; i++) {
+                    pSize++;
+                    q = q.nextZ;
+                    if (q == null) {
+                        break;
+                    }
+                }
+                int qSize = inSize;
+                while (pSize > 0 || (qSize > 0 && q != null)) {
+                    Node e;
+                    if (pSize != 0 && (qSize == 0 || q == null || p.z <= q.z)) {
+                        e = p;
+                        p = p.nextZ;
+                        pSize--;
+                    } else {
+                        e = q;
+                        q = q.nextZ;
+                        qSize--;
+                    }
+                    if (tail != null) {
+                        tail.nextZ = e;
+                    } else {
+                        list = e;
+                    }
+                    e.prevZ = tail;
+                    tail = e;
+                }
+                p = q;
+            }
+            tail.nextZ = null;
+            inSize *= 2;
+        } while (numMerges > 1);
+        return list;
+    }
+
+    /**
+     * Z-order of a point, from coordinates shifted to the minimum of the bounding box and scaled to 15 bits.
+     */
+    private int zOrder(double px, double py) {
+        int x = (int) ((px - minX) * invSize);
+        int y = (int) ((py - minY) * invSize);
+        x = (x | (x << 8)) & 0x00FF00FF;
+        x = (x | (x << 4)) & 0x0F0F0F0F;
+        x = (x | (x << 2)) & 0x33333333;
+        x = (x | (x << 1)) & 0x55555555;
+        y = (y | (y << 8)) & 0x00FF00FF;
+        y = (y | (y << 4)) & 0x0F0F0F0F;
+        y = (y | (y << 2)) & 0x33333333;
+        y = (y | (y << 1)) & 0x55555555;
+        return x | (y << 1);
+    }
+
+    private static Node getLeftmost(Node start) {
+        Node p = start;
+        Node leftmost = start;
+        do {
+            if (p.x < leftmost.x || (p.x == leftmost.x && p.y < leftmost.y)) {
+                leftmost = p;
+            }
+            p = p.next;
+        } while (p != start);
+        return leftmost;
+    }
+
+    private static boolean pointInTriangle(Node a, Node b, Node c, double px, double py) {
+        return pointInTriangle(a.x, a.y, b.x, b.y, c.x, c.y, px, py);
+    }
+
+    private static boolean pointInTriangle(double ax, double ay, double bx, double by, double cx, double cy,
+                                           double px, double py) {
+        return (cx - px) * (ay - py) >= (ax - px) * (cy - py)
+                && (ax - px) * (by - py) >= (bx - px) * (ay - py)
+                && (bx - px) * (cy - py) >= (cx - px) * (by - py);
+    }
+
+    /**
+     * Checks whether a diagonal between two polygon nodes is valid, i.e. lies in the polygon interior.
+     */
+    private static boolean isValidDiagonal(Node a, Node b) {
+        // Does not intersect other edges, is locally visible and does not create opposite-facing sectors, or is a
+        // valid zero-length case
+        return a.next.i != b.i && a.prev.i != b.i && !intersectsPolygon(a, b)
+                && (locallyInside(a, b) && locallyInside(b, a) && middleInside(a, b)
+                && (area(a.prev, a, b.prev) != 0.0 || area(a, b.prev, b) != 0.0)
+                || equals(a, b) && area(a.prev, a, a.next) > 0.0 && area(b.prev, b, b.next) > 0.0);
+    }
+
+    /**
+     * Signed area of a triangle.
+     */
+    private static double area(Node p, Node q, Node r) {
+        return (q.y - p.y) * (r.x - q.x) - (q.x - p.x) * (r.y - q.y);
+    }
+
+    private static boolean equals(Node p1, Node p2) {
+        return p1.x == p2.x && p1.y == p2.y;
+    }
+
+    /**
+     * Checks whether two segments intersect.
+     */
+    private static boolean intersects(Node p1, Node q1, Node p2, Node q2) {
+        int o1 = sign(area(p1, q1, p2));
+        int o2 = sign(area(p1, q1, q2));
+        int o3 = sign(area(p2, q2, p1));
+        int o4 = sign(area(p2, q2, q1));
+        if (o1 != o2 && o3 != o4) {
+            return true;
+        }
+        // Collinear cases
+        return o1 == 0 && onSegment(p1, p2, q1) || o2 == 0 && onSegment(p1, q2, q1)
+                || o3 == 0 && onSegment(p2, p1, q2) || o4 == 0 && onSegment(p2, q1, q2);
+    }
+
+    /**
+     * For collinear points p, q, r, checks if point q lies on segment pr.
+     */
+    private static boolean onSegment(Node p, Node q, Node r) {
+        return q.x <= Math.max(p.x, r.x) && q.x >= Math.min(p.x, r.x)
+                && q.y <= Math.max(p.y, r.y) && q.y >= Math.min(p.y, r.y);
+    }
+
+    private static int sign(double value) {
+        return value > 0.0 ? 1 : value < 0.0 ? -1 : 0;
+    }
+
+    /**
+     * Checks whether a polygon diagonal intersects any polygon segments.
+     */
+    private static boolean intersectsPolygon(Node a, Node b) {
+        Node p = a;
+        do {
+            if (p.i != a.i && p.next.i != a.i && p.i != b.i && p.next.i != b.i && intersects(p, p.next, a, b)) {
+                return true;
+            }
+            p = p.next;
+        } while (p != a);
+        return false;
+    }
+
+    /**
+     * Checks whether a polygon diagonal is locally inside the polygon.
+     */
+    private static boolean locallyInside(Node a, Node b) {
+        return area(a.prev, a, a.next) < 0.0
+                ? area(a, b, a.next) >= 0.0 && area(a, a.prev, b) >= 0.0
+                : area(a, b, a.prev) < 0.0 || area(a, a.next, b) < 0.0;
+    }
+
+    /**
+     * Checks whether the middle point of a polygon diagonal is inside the polygon.
+     */
+    private static boolean middleInside(Node a, Node b) {
+        Node p = a;
+        boolean inside = false;
+        double px = (a.x + b.x) / 2.0;
+        double py = (a.y + b.y) / 2.0;
+        do {
+            if (((p.y > py) != (p.next.y > py)) && p.next.y != p.y
+                    && (px < (p.next.x - p.x) * (py - p.y) / (p.next.y - p.y) + p.x)) {
+                inside = !inside;
+            }
+            p = p.next;
+        } while (p != a);
+        return inside;
+    }
+
+    /**
+     * Links two polygon vertices with a bridge. If the vertices belong to the same ring, it splits the polygon into
+     * two; if one belongs to the outer ring and the other to a hole, it merges the hole into the outer ring.
+     */
+    private static Node splitPolygon(Node a, Node b) {
+        Node a2 = new Node(a.i, a.x, a.y);
+        Node b2 = new Node(b.i, b.x, b.y);
+        Node an = a.next;
+        Node bp = b.prev;
+        a.next = b;
+        b.prev = a;
+        a2.next = an;
+        an.prev = a2;
+        b2.next = a2;
+        a2.prev = b2;
+        bp.next = b2;
+        b2.prev = bp;
+        return b2;
+    }
+
+    /**
+     * Creates a node and optionally links it with the previous one in a circular doubly linked list.
+     */
+    private static Node insertNode(int i, double x, double y, Node last) {
+        Node p = new Node(i, x, y);
+        if (last == null) {
+            p.prev = p;
+            p.next = p;
+        } else {
+            p.next = last.next;
+            p.prev = last;
+            last.next.prev = p;
+            last.next = p;
+        }
+        return p;
+    }
+
+    private static void removeNode(Node p) {
+        p.next.prev = p.prev;
+        p.prev.next = p.next;
+        if (p.prevZ != null) {
+            p.prevZ.nextZ = p.nextZ;
+        }
+        if (p.nextZ != null) {
+            p.nextZ.prevZ = p.prevZ;
+        }
+    }
+
+    private static double signedArea(double[] data, int start, int end) {
+        double sum = 0.0;
+        for (int i = start, j = end - 2; i < end; i += 2) {
+            sum += (data[j] - data[i]) * (data[i + 1] + data[j + 1]);
+            j = i;
+        }
+        return sum;
+    }
+
+    private void addTriangle(int a, int b, int c) {
+        if (triangleCount + 3 > triangles.length) {
+            triangles = Arrays.copyOf(triangles, Math.max(2 * triangles.length, triangleCount + 3));
+        }
+        triangles[triangleCount++] = a;
+        triangles[triangleCount++] = b;
+        triangles[triangleCount++] = c;
+    }
+
+    /**
+     * A vertex of a ring in a circular doubly linked list.
+     */
+    private static final class Node {
+        // The index of the vertex
+        final int i;
+        final double x;
+        final double y;
+        Node prev;
+        Node next;
+        // Z-order curve value and the previous and next nodes in Z-order
+        int z;
+        Node prevZ;
+        Node nextZ;
+        // Indicates whether this is a Steiner point, a hole of a single vertex
+        boolean steiner;
+
+        Node(int i, double x, double y) {
+            this.i = i;
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
@@ -0,0 +1,653 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.Quaternion;
+
+/**
+ * A set of 4-dimensional coordinates used to represent rotation in 3-dimensional space, implemented in pure Java.
+ * Mirrors the static API of {@link Quaternion}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Quaternion
+ */
+public final class Quaterniond {
+    /**
+     * The number of elements used to pack the object into an array.
+     */
+    public static final int packedLength = 4;
+
+    /**
+     * The X component. Default Value: 0.0
+     */
+    public double x;
+    /**
+     * The Y component. Default Value: 0.0
+     */
+    public double y;
+    /**
+     * The Z component. Default Value: 0.0
+     */
+    public double z;
+    /**
+     * The W component. Default Value: 0.0
+     */
+    public double w;
+
+    /**
+     * A quaternion initialized to (0.0, 0.0, 0.0, 0.0).
+     */
+    public Quaterniond() {
+    }
+
+    /**
+     * A set of 4-dimensional coordinates used to represent rotation in 3-dimensional space.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @param w The W component.
+     */
+    public Quaterniond(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+    }
+
+    /**
+     * Creates a Quaterniond instance from its components.
+     *
+     * @param x      The X component.
+     * @param y      The Y component.
+     * @param z      The Z component.
+     * @param w      The W component.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond fromElements(double x, double y, double z, double w, Quaterniond result) {
+        if (result == null) {
+            return new Quaterniond(x, y, z, w);
+        }
+        result.x = x;
+        result.y = y;
+        result.z = z;
+        result.w = w;
+        return result;
+    }
+
+    /**
+     * Sets the result to the identity quaternion (0.0, 0.0, 0.0, 1.0).
+     *
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond identity(Quaterniond result) {
+        return fromElements(0.0, 0.0, 0.0, 1.0, result);
+    }
+
+    /**
+     * Duplicates a Quaterniond instance.
+     *
+     * @param quaternion The quaternion to duplicate.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     * (Returns null if quaternion is null)
+     */
+    public static Quaterniond clone(Quaterniond quaternion, Quaterniond result) {
+        if (quaternion == null) {
+            return null;
+        }
+        return fromElements(quaternion.x, quaternion.y, quaternion.z, quaternion.w, result);
+    }
+
+    /**
+     * Copies the components of a native {@link Quaternion}.
+     *
+     * @param quaternion The native quaternion to copy.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     * (Returns null if quaternion is null)
+     */
+    public static Quaterniond fromQuaternion(Quaternion quaternion, Quaterniond result) {
+        if (quaternion == null) {
+            return null;
+        }
+        return fromElements(quaternion.x, quaternion.y, quaternion.z, quaternion.w, result);
+    }
+
+    /**
+     * Copies the components into a native {@link Quaternion}.
+     *
+     * @param quaternion The quaternion to copy.
+     * @param result     The native object onto which to store the result.
+     * @return The modified result parameter or a new Quaternion instance if one was not provided.
+     * (Returns null if quaternion is null)
+     */
+    public static Quaternion toQuaternion(Quaterniond quaternion, Quaternion result) {
+        if (quaternion == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new Quaternion();
+        }
+        result.x = quaternion.x;
+        result.y = quaternion.y;
+        result.z = quaternion.z;
+        result.w = quaternion.w;
+        return result;
+    }
+
+    /**
+     * Computes a quaternion representing a rotation around an axis.
+     *
+     * @param axis   The axis of rotation.
+     * @param angle  The angle in radians to rotate around the axis.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond fromAxisAngle(Cartesian3d axis, double angle, Quaterniond result) {
+        return fromAxisAngle(axis.x, axis.y, axis.z, angle, result);
+    }
+
+    /**
+     * Computes a quaternion representing a rotation around an axis given by its components.
+     *
+     * @param axisX  The X component of the axis of rotation.
+     * @param axisY  The Y component of the axis of rotation.
+     * @param axisZ  The Z component of the axis of rotation.
+     * @param angle  The angle in radians to rotate around the axis.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond fromAxisAngle(double axisX, double axisY, double axisZ, double angle,
+                                            Quaterniond result) {
+        double halfAngle = angle / 2.0;
+        double s = java.lang.Math.sin(halfAngle);
+        double magnitude = Cartesian3d.magnitude(axisX, axisY, axisZ);
+        s /= magnitude;
+        return fromElements(axisX * s, axisY * s, axisZ * s, java.lang.Math.cos(halfAngle), result);
+    }
+
+    /**
+     * Computes a Quaternion from the provided Matrix3d instance.
+     *
+     * @param matrix The rotation matrix.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond fromRotationMatrix(Matrix3d matrix, Quaterniond result) {
+        double[] m = matrix.values;
+        double m00 = m[Matrix3d.COLUMN0ROW0];
+        double m11 = m[Matrix3d.COLUMN1ROW1];
+        double m22 = m[Matrix3d.COLUMN2ROW2];
+        double trace = m00 + m11 + m22;
+
+        double x;
+        double y;
+        double z;
+        double w;
+        if (trace > 0.0) {
+            double root = java.lang.Math.sqrt(trace + 1.0);
+            w = 0.5 * root;
+            root = 0.5 / root;
+            x = (m[Matrix3d.COLUMN1ROW2] - m[Matrix3d.COLUMN2ROW1]) * root;
+            y = (m[Matrix3d.COLUMN2ROW0] - m[Matrix3d.COLUMN0ROW2]) * root;
+            z = (m[Matrix3d.COLUMN0ROW1] - m[Matrix3d.COLUMN1ROW0]) * root;
+        } else {
+            int i = 0;
+            if (m11 > m00) {
+                i = 1;
+            }
+            if (m22 > m00 && m22 > m11) {
+                i = 2;
+            }
+            int j = (i + 1) % 3;
+            int k = (j + 1) % 3;
+
+            double root = java.lang.Math.sqrt(m[Matrix3d.getElementIndex(i, i)] - m[Matrix3d.getElementIndex(j, j)]
+                    - m[Matrix3d.getElementIndex(k, k)] + 1.0);
+            double qi = 0.5 * root;
+            root = 0.5 / root;
+            w = (m[Matrix3d.getElementIndex(k, j)] - m[Matrix3d.getElementIndex(j, k)]) * root;
+            double qj = (m[Matrix3d.getElementIndex(j, i)] + m[Matrix3d.getElementIndex(i, j)]) * root;
+            double qk = (m[Matrix3d.getElementIndex(k, i)] + m[Matrix3d.getElementIndex(i, k)]) * root;
+
+            double[] quat = {0.0, 0.0, 0.0};
+            quat[i] = qi;
+            quat[j] = qj;
+            quat[k] = qk;
+            x = -quat[0];
+            y = -quat[1];
+            z = -quat[2];
+        }
+        return fromElements(x, y, z, w, result);
+    }
+
+    /**
+     * Computes a rotation from the given heading, pitch and roll angles. Heading is the rotation about the
+     * negative z axis. Pitch is the rotation about the negative y axis. Roll is the rotation about the positive
+     * x axis.
+     *
+     * @param heading The heading angle in radians.
+     * @param pitch   The pitch angle in radians.
+     * @param roll    The roll angle in radians.
+     * @param result  The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond fromHeadingPitchRoll(double heading, double pitch, double roll, Quaterniond result) {
+        // Expanded form of multiply(multiply(Rz(-heading), Ry(-pitch)), Rx(roll))
+        double hs = java.lang.Math.sin(-heading * 0.5);
+        double hc = java.lang.Math.cos(-heading * 0.5);
+        double ps = java.lang.Math.sin(-pitch * 0.5);
+        double pc = java.lang.Math.cos(-pitch * 0.5);
+        double rs = java.lang.Math.sin(roll * 0.5);
+        double rc = java.lang.Math.cos(roll * 0.5);
+
+        // (0, 0, hs, hc) * (0, ps, 0, pc)
+        double hpX = -hs * ps;
+        double hpY = hc * ps;
+        double hpZ = hs * pc;
+        double hpW = hc * pc;
+
+        // hp * (rs, 0, 0, rc)
+        return fromElements(hpW * rs + hpX * rc, hpY * rc + hpZ * rs, hpZ * rc - hpY * rs, hpW * rc - hpX * rs,
+                result);
+    }
+
+    /**
+     * Stores the provided instance into the provided array.
+     *
+     * @param value         The value to pack.
+     * @param array         The array to pack into.
+     * @param startingIndex The index into the array at which to start packing the elements.
+     * @return The array that was packed into
+     */
+    public static double[] pack(Quaterniond value, double[] array, int startingIndex) {
+        array[startingIndex] = value.x;
+        array[startingIndex + 1] = value.y;
+        array[startingIndex + 2] = value.z;
+        array[startingIndex + 3] = value.w;
+        return array;
+    }
+
+    /**
+     * Retrieves an instance from a packed array.
+     *
+     * @param array         The packed array.
+     * @param startingIndex The starting index of the element to be unpacked.
+     * @param result        The object into which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if one was not provided.
+     */
+    public static Quaterniond unpack(double[] array, int startingIndex, Quaterniond result) {
+        return fromElements(array[startingIndex], array[startingIndex + 1], array[startingIndex + 2],
+                array[startingIndex + 3], result);
+    }
+
+    /**
+     * Computes the conjugate of the provided quaternion.
+     *
+     * @param quaternion The quaternion to conjugate.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond conjugate(Quaterniond quaternion, Quaterniond result) {
+        result.x = -quaternion.x;
+        result.y = -quaternion.y;
+        result.z = -quaternion.z;
+        result.w = quaternion.w;
+        return result;
+    }
+
+    /**
+     * Computes magnitude squared for the provided quaternion.
+     *
+     * @param quaternion The quaternion to conjugate.
+     * @return The magnitude squared.
+     */
+    public static double magnitudeSquared(Quaterniond quaternion) {
+        return quaternion.x * quaternion.x + quaternion.y * quaternion.y + quaternion.z * quaternion.z
+                + quaternion.w * quaternion.w;
+    }
+
+    /**
+     * Computes magnitude for the provided quaternion.
+     *
+     * @param quaternion The quaternion to conjugate.
+     * @return The magnitude.
+     */
+    public static double magnitude(Quaterniond quaternion) {
+        return java.lang.Math.sqrt(magnitudeSquared(quaternion));
+    }
+
+    /**
+     * Computes the normalized form of the provided quaternion.
+     *
+     * @param quaternion The quaternion to normalize.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond normalize(Quaterniond quaternion, Quaterniond result) {
+        double inverseMagnitude = 1.0 / magnitude(quaternion);
+        result.x = quaternion.x * inverseMagnitude;
+        result.y = quaternion.y * inverseMagnitude;
+        result.z = quaternion.z * inverseMagnitude;
+        result.w = quaternion.w * inverseMagnitude;
+        return result;
+    }
+
+    /**
+     * Computes the inverse of the provided quaternion.
+     *
+     * @param quaternion The quaternion to normalize.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond inverse(Quaterniond quaternion, Quaterniond result) {
+        double magnitudeSquared = magnitudeSquared(quaternion);
+        conjugate(quaternion, result);
+        return multiplyByScalar(result, 1.0 / magnitudeSquared, result);
+    }
+
+    /**
+     * Computes the componentwise sum of two quaternions.
+     *
+     * @param left   The first quaternion.
+     * @param right  The second quaternion.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond add(Quaterniond left, Quaterniond right, Quaterniond result) {
+        result.x = left.x + right.x;
+        result.y = left.y + right.y;
+        result.z = left.z + right.z;
+        result.w = left.w + right.w;
+        return result;
+    }
+
+    /**
+     * Computes the componentwise difference of two quaternions.
+     *
+     * @param left   The first quaternion.
+     * @param right  The second quaternion.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond subtract(Quaterniond left, Quaterniond right, Quaterniond result) {
+        result.x = left.x - right.x;
+        result.y = left.y - right.y;
+        result.z = left.z - right.z;
+        result.w = left.w - right.w;
+        return result;
+    }
+
+    /**
+     * Negates the provided quaternion.
+     *
+     * @param quaternion The quaternion to be negated.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond negate(Quaterniond quaternion, Quaterniond result) {
+        result.x = -quaternion.x;
+        result.y = -quaternion.y;
+        result.z = -quaternion.z;
+        result.w = -quaternion.w;
+        return result;
+    }
+
+    /**
+     * Computes the dot (scalar) product of two quaternions.
+     *
+     * @param left  The first quaternion.
+     * @param right The second quaternion.
+     * @return The dot product.
+     */
+    public static double dot(Quaterniond left, Quaterniond right) {
+        return left.x * right.x + left.y * right.y + left.z * right.z + left.w * right.w;
+    }
+
+    /**
+     * Computes the product of two quaternions.
+     *
+     * @param left   The first quaternion.
+     * @param right  The second quaternion.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond multiply(Quaterniond left, Quaterniond right, Quaterniond result) {
+        double leftX = left.x;
+        double leftY = left.y;
+        double leftZ = left.z;
+        double leftW = left.w;
+
+        double rightX = right.x;
+        double rightY = right.y;
+        double rightZ = right.z;
+        double rightW = right.w;
+
+        result.x = leftW * rightX + leftX * rightW + leftY * rightZ - leftZ * rightY;
+        result.y = leftW * rightY - leftX * rightZ + leftY * rightW + leftZ * rightX;
+        result.z = leftW * rightZ + leftX * rightY - leftY * rightX + leftZ * rightW;
+        result.w = leftW * rightW - leftX * rightX - leftY * rightY - leftZ * rightZ;
+        return result;
+    }
+
+    /**
+     * Multiplies the provided quaternion componentwise by the provided scalar.
+     *
+     * @param quaternion The quaternion to be scaled.
+     * @param scalar     The scalar to multiply with.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond multiplyByScalar(Quaterniond quaternion, double scalar, Quaterniond result) {
+        result.x = quaternion.x * scalar;
+        result.y = quaternion.y * scalar;
+        result.z = quaternion.z * scalar;
+        result.w = quaternion.w * scalar;
+        return result;
+    }
+
+    /**
+     * Divides the provided quaternion componentwise by the provided scalar.
+     *
+     * @param quaternion The quaternion to be divided.
+     * @param scalar     The scalar to divide by.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond divideByScalar(Quaterniond quaternion, double scalar, Quaterniond result) {
+        result.x = quaternion.x / scalar;
+        result.y = quaternion.y / scalar;
+        result.z = quaternion.z / scalar;
+        result.w = quaternion.w / scalar;
+        return result;
+    }
+
+    /**
+     * Computes the axis of rotation of the provided quaternion.
+     *
+     * @param quaternion The quaternion to use.
+     * @param result     The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Cartesian3d computeAxis(Quaterniond quaternion, Cartesian3d result) {
+        double w = quaternion.w;
+        if (java.lang.Math.abs(w - 1.0) < CesiumMath.EPSILON6 || java.lang.Math.abs(w + 1.0) < CesiumMath.EPSILON6) {
+            return Cartesian3d.fromElements(1.0, 0.0, 0.0, result);
+        }
+        double scalar = 1.0 / java.lang.Math.sqrt(1.0 - w * w);
+        return Cartesian3d.fromElements(quaternion.x * scalar, quaternion.y * scalar, quaternion.z * scalar, result);
+    }
+
+    /**
+     * Computes the angle of rotation of the provided quaternion.
+     *
+     * @param quaternion The quaternion to use.
+     * @return The angle of rotation.
+     */
+    public static double computeAngle(Quaterniond quaternion) {
+        if (java.lang.Math.abs(quaternion.w - 1.0) < CesiumMath.EPSILON6) {
+            return 0.0;
+        }
+        return 2.0 * java.lang.Math.acos(quaternion.w);
+    }
+
+    /**
+     * Computes the linear interpolation or extrapolation at t using the provided quaternions.
+     *
+     * @param start  The value corresponding to t at 0.0.
+     * @param end    The value corresponding to t at 1.0.
+     * @param t      The point along t at which to interpolate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond lerp(Quaterniond start, Quaterniond end, double t, Quaterniond result) {
+        double s = 1.0 - t;
+        result.x = start.x * s + end.x * t;
+        result.y = start.y * s + end.y * t;
+        result.z = start.z * s + end.z * t;
+        result.w = start.w * s + end.w * t;
+        return result;
+    }
+
+    /**
+     * Computes the spherical linear interpolation or extrapolation at t using the provided quaternions.
+     *
+     * @param start  The value corresponding to t at 0.0.
+     * @param end    The value corresponding to t at 1.0.
+     * @param t      The point along t at which to interpolate.
+     * @param result The object onto which to store the result.
+     * @return The modified result parameter.
+     */
+    public static Quaterniond slerp(Quaterniond start, Quaterniond end, double t, Quaterniond result) {
+        double dot = dot(start, end);
+
+        // The quaternions are on opposite hemispheres, so take the shortest path.
+        double sign = 1.0;
+        if (dot < 0.0) {
+            dot = -dot;
+            sign = -1.0;
+        }
+
+        double endX = end.x * sign;
+        double endY = end.y * sign;
+        double endZ = end.z * sign;
+        double endW = end.w * sign;
+
+        double scale0;
+        double scale1;
+        if (1.0 - dot < CesiumMath.EPSILON6) {
+            scale0 = 1.0 - t;
+            scale1 = t;
+        } else {
+            double theta = java.lang.Math.acos(dot);
+            double inverseSin = 1.0 / java.lang.Math.sin(theta);
+            scale0 = java.lang.Math.sin((1.0 - t) * theta) * inverseSin;
+            scale1 = java.lang.Math.sin(t * theta) * inverseSin;
+        }
+
+        double startX = start.x;
+        double startY = start.y;
+        double startZ = start.z;
+        double startW = start.w;
+        result.x = startX * scale0 + endX * scale1;
+        result.y = startY * scale0 + endY * scale1;
+        result.z = startZ * scale0 + endZ * scale1;
+        result.w = startW * scale0 + endW * scale1;
+        return result;
+    }
+
+    /**
+     * Compares the provided quaternions componentwise and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first quaternion.
+     * @param right The second quaternion.
+     * @return true if left and right are equal, false otherwise.
+     */
+    public static boolean equals(Quaterniond left, Quaterniond right) {
+        return left == right || (left != null && right != null && left.x == right.x && left.y == right.y
+                && left.z == right.z && left.w == right.w);
+    }
+
+    /**
+     * Compares the provided quaternions componentwise and returns true if they are within the provided epsilon,
+     * false otherwise.
+     *
+     * @param left    The first quaternion.
+     * @param right   The second quaternion.
+     * @param epsilon The epsilon to use for equality testing.
+     * @return true if left and right are within the provided epsilon, false otherwise.
+     */
+    public static boolean equalsEpsilon(Quaterniond left, Quaterniond right, double epsilon) {
+        return left == right || (left != null && right != null
+                && java.lang.Math.abs(left.x - right.x) <= epsilon
+                && java.lang.Math.abs(left.y - right.y) <= epsilon
+                && java.lang.Math.abs(left.z - right.z) <= epsilon
+                && java.lang.Math.abs(left.w - right.w) <= epsilon);
+    }
+
+    /**
+     * Sets the components of this quaternion.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @param w The W component.
+     * @return This instance.
+     */
+    public Quaterniond set(double x, double y, double z, double w) {
+        this.x = x;
+        this.y = y;
+        this.z = z;
+        this.w = w;
+        return this;
+    }
+
+    /**
+     * Duplicates this Quaterniond instance.
+     *
+     * @return A new Quaterniond instance.
+     */
+    public Quaterniond clone() {
+        return new Quaterniond(x, y, z, w);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Quaterniond && equals(this, (Quaterniond) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Double.valueOf(x).hashCode();
+        hash = 31 * hash + Double.valueOf(y).hashCode();
+        hash = 31 * hash + Double.valueOf(z).hashCode();
+        return 31 * hash + Double.valueOf(w).hashCode();
+    }
+
+    /**
+     * Returns a string representing this quaternion in the format (x, y, z, w).
+     *
+     * @return A string representing this Quaternion.
+     */
+    @Override
+    public String toString() {
+        return "(" + x + ", " + y + ", " + z + ", " + w + ")";
+    }
+}
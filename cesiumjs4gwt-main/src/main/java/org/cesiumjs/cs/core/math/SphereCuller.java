@@ -0,0 +1,390 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.Cartesian4;
+import org.cesiumjs.cs.core.CullingVolume;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Occluder;
+
+/**
+ * Frustum and horizon culling of packed bounding spheres, implemented in pure Java. Classifies many spheres in one
+ * pass against the planes of a culling volume and the horizon of an ellipsoid, instead of one call to
+ * {@link CullingVolume#computeVisibility} and {@link Occluder#isBoundingSphereVisible} per sphere.
+ * <p>
+ * Spheres are packed as x, y, z and radius, as written by {@link BoundingSphered#pack} and
+ * {@link BoundingSphered#packFeatures}. The plane test is the one of {@code BoundingSphere.intersectPlane}. The
+ * horizon test is exact for a sphere occluder and conservative for an ellipsoid: the test runs in the space where
+ * the ellipsoid is the unit sphere, and each sphere is grown by the largest scale of that space, so a sphere is
+ * never culled while any part of it may be above the horizon.
+ * <pre>
+ * SphereCuller culler = new SphereCuller();
+ * culler.setPerspectiveFrustum(position, direction, up, fovy, aspectRatio, near, far);
+ * culler.setHorizon(position, Ellipsoidd.WGS84);
+ * int visibleCount = culler.cull(spheres, 0, sphereCount, visible);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see CullingVolume
+ * @see Occluder
+ * @see BoundingSphered
+ */
+public final class SphereCuller {
+    /**
+     * A sphere outside of the culling volume or below the horizon, as {@code Intersect.OUTSIDE}.
+     */
+    public static final int OUTSIDE = -1;
+    /**
+     * A sphere which intersects a plane of the culling volume, as {@code Intersect.INTERSECTING}.
+     */
+    public static final int INTERSECTING = 0;
+    /**
+     * A sphere inside of the culling volume and above the horizon, as {@code Intersect.INSIDE}.
+     */
+    public static final int INSIDE = 1;
+
+    private double[] planes = new double[24];
+    private int planeCount;
+
+    private boolean horizon;
+    private double oneOverRadiusX;
+    private double oneOverRadiusY;
+    private double oneOverRadiusZ;
+    private double maximumScale;
+    // The camera in the scaled space and the squares of its distance to the center and to the horizon
+    private double cameraX;
+    private double cameraY;
+    private double cameraZ;
+    private double cameraMagnitude;
+    private double horizonDistanceSquared;
+
+    /**
+     * Creates a culler with no planes and no horizon, for which every sphere is inside.
+     */
+    public SphereCuller() {
+    }
+
+    /**
+     * Sets the planes of the culling volume.
+     *
+     * @param planes The packed planes, with the x, y and z components of the unit normal pointing into the volume
+     *               followed by the distance of the plane from the origin.
+     * @param offset The index of the first plane in the array.
+     * @param count  The number of planes.
+     * @return This culler.
+     */
+    public SphereCuller setPlanes(double[] planes, int offset, int count) {
+        Geodesicd.checkRange(planes.length, offset, 4, 4, count);
+        if (this.planes.length < 4 * count) {
+            this.planes = new double[4 * count];
+        }
+        System.arraycopy(planes, offset, this.planes, 0, 4 * count);
+        planeCount = count;
+        return this;
+    }
+
+    /**
+     * Sets the planes of the culling volume from a culling volume of the camera, such as returned by
+     * {@code camera.frustum.computeCullingVolume(camera.positionWC, camera.directionWC, camera.upWC)}.
+     *
+     * @param cullingVolume The culling volume.
+     * @return This culler.
+     */
+    public SphereCuller setCullingVolume(CullingVolume cullingVolume) {
+        Cartesian4[] source = cullingVolume.planes;
+        int count = source == null ? 0 : source.length;
+        if (planes.length < 4 * count) {
+            planes = new double[4 * count];
+        }
+        for (int i = 0; i < count; i++) {
+            planes[4 * i] = source[i].x;
+            planes[4 * i + 1] = source[i].y;
+            planes[4 * i + 2] = source[i].z;
+            planes[4 * i + 3] = source[i].w;
+        }
+        planeCount = count;
+        return this;
+    }
+
+    /**
+     * Sets the planes of the culling volume of a perspective frustum, with the same planes as
+     * {@code PerspectiveFrustum.computeCullingVolume}.
+     *
+     * @param position    The position of the camera.
+     * @param direction   The unit view direction of the camera.
+     * @param up          The unit up direction of the camera.
+     * @param fov         The angle of the field of view, in radians, along the larger of the width and height.
+     * @param aspectRatio The aspect ratio of the frustum's width to its height.
+     * @param near        The distance of the near plane.
+     * @param far         The distance of the far plane, or infinity for no far plane.
+     * @return This culler.
+     */
+    public SphereCuller setPerspectiveFrustum(Cartesian3d position, Cartesian3d direction, Cartesian3d up,
+                                              double fov, double aspectRatio, double near, double far) {
+        if (!(fov > 0.0 && fov < Math.PI)) {
+            throw new DeveloperError("fov must be in the range (0, PI).");
+        }
+        if (!(aspectRatio > 0.0)) {
+            throw new DeveloperError("aspectRatio must be positive.");
+        }
+        if (!(near > 0.0 && near < far)) {
+            throw new DeveloperError("near must be greater than zero and less than far.");
+        }
+        double fovy = aspectRatio <= 1.0 ? fov : Math.atan(Math.tan(fov * 0.5) / aspectRatio) * 2.0;
+        double top = near * Math.tan(0.5 * fovy);
+        double right = aspectRatio * top;
+
+        Cartesian3d rightAxis = Cartesian3d.cross(direction, up, new Cartesian3d());
+        Cartesian3d.normalize(rightAxis, rightAxis);
+        Cartesian3d nearOffset = Cartesian3d.multiplyByScalar(direction, near, new Cartesian3d());
+        Cartesian3d edge = new Cartesian3d();
+        Cartesian3d normal = new Cartesian3d();
+        boolean hasFar = far < Double.POSITIVE_INFINITY;
+        if (planes.length < 24) {
+            planes = new double[24];
+        }
+
+        // Left and right planes
+        Cartesian3d.add(nearOffset, Cartesian3d.multiplyByScalar(rightAxis, -right, edge), edge);
+        Cartesian3d.normalize(Cartesian3d.cross(edge, up, normal), normal);
+        setPlane(0, normal, position);
+        Cartesian3d.add(nearOffset, Cartesian3d.multiplyByScalar(rightAxis, right, edge), edge);
+        Cartesian3d.normalize(Cartesian3d.cross(up, edge, normal), normal);
+        setPlane(1, normal, position);
+        // Bottom and top planes
+        Cartesian3d.add(nearOffset, Cartesian3d.multiplyByScalar(up, -top, edge), edge);
+        Cartesian3d.normalize(Cartesian3d.cross(rightAxis, edge, normal), normal);
+        setPlane(2, normal, position);
+        Cartesian3d.add(nearOffset, Cartesian3d.multiplyByScalar(up, top, edge), edge);
+        Cartesian3d.normalize(Cartesian3d.cross(edge, rightAxis, normal), normal);
+        setPlane(3, normal, position);
+        // Near and far planes
+        Cartesian3d.add(position, nearOffset, edge);
+        setPlane(4, direction, edge);
+        if (hasFar) {
+            Cartesian3d.add(position, Cartesian3d.multiplyByScalar(direction, far, edge), edge);
+            Cartesian3d.negate(direction, normal);
+            setPlane(5, normal, edge);
+        }
+        planeCount = hasFar ? 6 : 5;
+        return this;
+    }
+
+    /**
+     * Sets the horizon of an ellipsoid seen from the camera. Spheres entirely below the horizon are outside. There
+     * is no horizon while the camera is inside the ellipsoid.
+     *
+     * @param cameraPosition The position of the camera.
+     * @param ellipsoid      The occluding ellipsoid, usually the globe.
+     * @return This culler.
+     */
+    public SphereCuller setHorizon(Cartesian3d cameraPosition, Ellipsoidd ellipsoid) {
+        Cartesian3d radii = ellipsoid.getRadii(new Cartesian3d());
+        oneOverRadiusX = 1.0 / radii.x;
+        oneOverRadiusY = 1.0 / radii.y;
+        oneOverRadiusZ = 1.0 / radii.z;
+        maximumScale = 1.0 / ellipsoid.getMinimumRadius();
+        cameraX = cameraPosition.x * oneOverRadiusX;
+        cameraY = cameraPosition.y * oneOverRadiusY;
+        cameraZ = cameraPosition.z * oneOverRadiusZ;
+        double magnitudeSquared = cameraX * cameraX + cameraY * cameraY + cameraZ * cameraZ;
+        cameraMagnitude = Math.sqrt(magnitudeSquared);
+        horizonDistanceSquared = magnitudeSquared - 1.0;
+        horizon = horizonDistanceSquared > 0.0;
+        return this;
+    }
+
+    /**
+     * Removes the horizon, so that spheres are culled by the planes only.
+     *
+     * @return This culler.
+     */
+    public SphereCuller clearHorizon() {
+        horizon = false;
+        return this;
+    }
+
+    /**
+     * Gets the number of planes of the culling volume.
+     *
+     * @return The number of planes.
+     */
+    public int getPlaneCount() {
+        return planeCount;
+    }
+
+    /**
+     * Determines whether there is a horizon, that is whether one was set and the camera is outside the ellipsoid.
+     *
+     * @return true if spheres may be culled by the horizon.
+     */
+    public boolean hasHorizon() {
+        return horizon;
+    }
+
+    /**
+     * Determines whether a sphere is inside, outside or intersecting the culling volume, and whether it is below
+     * the horizon.
+     *
+     * @param x      The x component of the center.
+     * @param y      The y component of the center.
+     * @param z      The z component of the center.
+     * @param radius The radius.
+     * @return {@link #INSIDE}, {@link #INTERSECTING} or {@link #OUTSIDE}.
+     */
+    public int computeVisibility(double x, double y, double z, double radius) {
+        double[] planes = this.planes;
+        boolean intersecting = false;
+        for (int p = 0, end = 4 * planeCount; p < end; p += 4) {
+            double distance = planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3];
+            if (distance < -radius) {
+                return OUTSIDE;
+            }
+            if (distance < radius) {
+                intersecting = true;
+            }
+        }
+        if (horizon && isBelowHorizon(x, y, z, radius)) {
+            return OUTSIDE;
+        }
+        return intersecting ? INTERSECTING : INSIDE;
+    }
+
+    /**
+     * Classifies packed bounding spheres with {@link #computeVisibility(double, double, double, double)}.
+     *
+     * @param spheres      The packed x, y, z and radius of the spheres.
+     * @param offset       The index of the first sphere in the array.
+     * @param stride       The number of elements from one sphere to the next, at least 4.
+     * @param count        The number of spheres.
+     * @param result       The array onto which to store the visibility of each sphere.
+     * @param resultOffset The index at which to store the visibility of the first sphere.
+     * @return The result parameter or a new array if one was not provided.
+     */
+    public byte[] classify(double[] spheres, int offset, int stride, int count, byte[] result, int resultOffset) {
+        checkStride(stride);
+        Geodesicd.checkRange(spheres.length, offset, stride, BoundingSphered.packedLength, count);
+        if (result == null) {
+            result = new byte[resultOffset + count];
+        }
+        Geodesicd.checkRange(result.length, resultOffset, 1, 1, count);
+        for (int i = 0, index = offset; i < count; i++, index += stride) {
+            result[resultOffset + i] = (byte) computeVisibility(spheres[index], spheres[index + 1],
+                    spheres[index + 2], spheres[index + 3]);
+        }
+        return result;
+    }
+
+    /**
+     * Culls packed bounding spheres, keeping those which are not {@link #OUTSIDE}.
+     *
+     * @param spheres The packed x, y, z and radius of the spheres, {@link BoundingSphered#packedLength} elements
+     *                per sphere.
+     * @param offset  The index of the first sphere in the array.
+     * @param count   The number of spheres.
+     * @param result  The array onto which to store the indices, from 0 to count - 1, of the visible spheres in
+     *                increasing order. Must have room for count indices.
+     * @return The number of visible spheres.
+     */
+    public int cull(double[] spheres, int offset, int count, int[] result) {
+        return cull(spheres, offset, BoundingSphered.packedLength, count, result);
+    }
+
+    /**
+     * Culls packed bounding spheres, keeping those which are not {@link #OUTSIDE}.
+     *
+     * @param spheres The packed x, y, z and radius of the spheres.
+     * @param offset  The index of the first sphere in the array.
+     * @param stride  The number of elements from one sphere to the next, at least 4.
+     * @param count   The number of spheres.
+     * @param result  The array onto which to store the indices, from 0 to count - 1, of the visible spheres in
+     *                increasing order. Must have room for count indices.
+     * @return The number of visible spheres.
+     */
+    public int cull(double[] spheres, int offset, int stride, int count, int[] result) {
+        checkStride(stride);
+        Geodesicd.checkRange(spheres.length, offset, stride, BoundingSphered.packedLength, count);
+        if (result.length < count) {
+            throw new DeveloperError("result must have room for " + count + " indices.");
+        }
+        double[] planes = this.planes;
+        int end = 4 * planeCount;
+        boolean horizon = this.horizon;
+        int visibleCount = 0;
+        next:
+        for (int i = 0, index = offset; i < count; i++, index += stride) {
+            double x = spheres[index];
+            double y = spheres[index + 1];
+            double z = spheres[index + 2];
+            double radius = spheres[index + 3];
+            for (int p = 0; p < end; p += 4) {
+                if (planes[p] * x + planes[p + 1] * y + planes[p + 2] * z + planes[p + 3] < -radius) {
+                    continue next;
+                }
+            }
+            if (horizon && isBelowHorizon(x, y, z, radius)) {
+                continue;
+            }
+            result[visibleCount++] = i;
+        }
+        return visibleCount;
+    }
+
+    /**
+     * Determines whether a sphere is entirely in the shadow cone of the unit sphere in the scaled space, behind the
+     * plane of the horizon circle.
+     */
+    private boolean isBelowHorizon(double x, double y, double z, double radius) {
+        double cx = x * oneOverRadiusX;
+        double cy = y * oneOverRadiusY;
+        double cz = z * oneOverRadiusZ;
+        double r = radius * maximumScale;
+        double d = cameraMagnitude;
+        // The component of the center along the camera, from the center of the ellipsoid
+        double along = (cx * cameraX + cy * cameraY + cz * cameraZ) / d;
+        // Behind the horizon plane, at 1 / d from the center
+        if (along + r >= 1.0 / d) {
+            return false;
+        }
+        // Inside the cone of half-angle asin(1 / d), with a margin of r from its surface:
+        // axial * sin - lateral * cos >= r, scaled by d
+        double axial = d - along;
+        double margin = axial - r * d;
+        if (margin < 0.0) {
+            return false;
+        }
+        double dx = cx - cameraX;
+        double dy = cy - cameraY;
+        double dz = cz - cameraZ;
+        double lateralSquared = dx * dx + dy * dy + dz * dz - axial * axial;
+        return margin * margin >= lateralSquared * horizonDistanceSquared;
+    }
+
+    private void setPlane(int index, Cartesian3d normal, Cartesian3d point) {
+        int p = 4 * index;
+        planes[p] = normal.x;
+        planes[p + 1] = normal.y;
+        planes[p + 2] = normal.z;
+        planes[p + 3] = -Cartesian3d.dot(normal, point);
+    }
+
+    private static void checkStride(int stride) {
+        if (stride < BoundingSphered.packedLength) {
+            throw new DeveloperError("stride must be at least " + BoundingSphered.packedLength + ".");
+        }
+    }
+}
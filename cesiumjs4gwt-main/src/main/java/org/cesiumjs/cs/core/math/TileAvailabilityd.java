@@ -0,0 +1,647 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.TileAvailability;
+
+/**
+ * Reports the availability of tiles in a {@link TilingSchemed}, implemented in pure Java. Mirrors
+ * {@link TileAvailability}, which keeps a list of rectangles per node and tests each of them, while this class
+ * stores the available ranges as a compressed quadtree in tile coordinates: each node records the highest level
+ * of the ranges covering the whole node, and a node is only split where the ranges cover part of it. Queries walk
+ * a single path of the quadtree, so their cost depends on the level and not on the number of ranges.
+ * <p>
+ * Like {@link TileAvailability}, a tile is available if a range at its level or deeper contains the center of
+ * the tile, and the edges of ranges are inclusive. The center is that of the rectangle of the tile in longitude and
+ * latitude, as {@code Rectangle.center} computes it; with a {@link WebMercatorTilingSchemed} it is not the center
+ * of the tile in tile coordinates. The quadtree can be written to a compact byte array with
+ * {@link #toBytes()} and restored with {@link #fromBytes(TilingSchemed, byte[])}, so availability does not have to
+ * be rebuilt from the ranges of a layer.json on every load.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see TileAvailability
+ * @see TileKey
+ */
+public final class TileAvailabilityd {
+    private static final int VERSION = 1;
+    private static final int HAS_CHILDREN = 0x80;
+
+    private final TilingSchemed tilingScheme;
+    private final int maximumLevel;
+    private final int rootCount;
+    // Per node: the highest level of the ranges covering the whole node, or -1
+    private int[] levels;
+    // Per node: the index of the first of the four children, numbered like TileKey.child, or -1 for a leaf
+    private int[] children;
+    private int nodeCount;
+    private final double[] scratchRectangle = new double[4];
+
+    /**
+     * Creates an empty availability.
+     *
+     * @param tilingScheme The tiling scheme in which to report availability.
+     * @param maximumLevel The maximum tile level that is potentially available.
+     */
+    public TileAvailabilityd(TilingSchemed tilingScheme, int maximumLevel) {
+        this(tilingScheme, maximumLevel, 64);
+    }
+
+    private TileAvailabilityd(TilingSchemed tilingScheme, int maximumLevel, int capacity) {
+        if (tilingScheme == null) {
+            throw new DeveloperError("tilingScheme is required.");
+        }
+        if (maximumLevel < 0 || maximumLevel > TileKey.MAXIMUM_LEVEL) {
+            throw new DeveloperError("maximumLevel must be between 0 and " + TileKey.MAXIMUM_LEVEL + ".");
+        }
+        this.tilingScheme = tilingScheme;
+        this.maximumLevel = maximumLevel;
+        rootCount = tilingScheme.numberOfLevelZeroTilesX * tilingScheme.numberOfLevelZeroTilesY;
+        levels = new int[Math.max(capacity, rootCount)];
+        children = new int[levels.length];
+        for (int i = 0; i < rootCount; i++) {
+            levels[i] = -1;
+            children[i] = -1;
+        }
+        nodeCount = rootCount;
+    }
+
+    /**
+     * Gets the tiling scheme in which availability is reported.
+     *
+     * @return The tiling scheme.
+     */
+    public TilingSchemed getTilingScheme() {
+        return tilingScheme;
+    }
+
+    /**
+     * Gets the maximum tile level that is potentially available.
+     *
+     * @return The maximum level.
+     */
+    public int getMaximumLevel() {
+        return maximumLevel;
+    }
+
+    /**
+     * Gets the number of nodes of the quadtree, a measure of its memory use.
+     *
+     * @return The number of nodes.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Marks a rectangular range of tiles in a particular level as being available. For best performance, add your
+     * ranges in order of increasing level.
+     *
+     * @param level  The level.
+     * @param startX The X coordinate of the first available tiles at the level.
+     * @param startY The Y coordinate of the first available tiles at the level.
+     * @param endX   The X coordinate of the last available tiles at the level.
+     * @param endY   The Y coordinate of the last available tiles at the level.
+     */
+    public void addAvailableTileRange(int level, int startX, int startY, int endX, int endY) {
+        if (level < 0 || level > TileKey.MAXIMUM_LEVEL) {
+            throw new DeveloperError("level must be between 0 and " + TileKey.MAXIMUM_LEVEL + ".");
+        }
+        startX = Math.max(startX, 0);
+        startY = Math.max(startY, 0);
+        endX = Math.min(endX, tilingScheme.getNumberOfXTilesAtLevel(level) - 1);
+        endY = Math.min(endY, tilingScheme.getNumberOfYTilesAtLevel(level) - 1);
+        if (startX > endX || startY > endY) {
+            return;
+        }
+        int root = 0;
+        for (int y = 0; y < tilingScheme.numberOfLevelZeroTilesY; y++) {
+            for (int x = 0; x < tilingScheme.numberOfLevelZeroTilesX; x++) {
+                add(root++, x, y, 0, level, startX, startY, endX, endY);
+            }
+        }
+    }
+
+    /**
+     * Determines if a particular tile is available.
+     *
+     * @param level The tile level to check.
+     * @param x     The X coordinate of the tile to check.
+     * @param y     The Y coordinate of the tile to check.
+     * @return True if the tile is available; otherwise, false.
+     */
+    public boolean isTileAvailable(int level, int x, int y) {
+        if (level < 0 || level > TileKey.MAXIMUM_LEVEL) {
+            return false;
+        }
+        // The geodetic center of the tile, in level zero tiles
+        double[] rectangle = tilingScheme.tileXYToRectangle(x, y, level, scratchRectangle, 0);
+        double longitude = 0.5 * (rectangle[0] + rectangle[2]);
+        double latitude = 0.5 * (rectangle[1] + rectangle[3]);
+        return reaches(tilingScheme.longitudeToTileX(longitude), tilingScheme.latitudeToTileY(latitude), level);
+    }
+
+    /**
+     * Determines if a particular tile is available.
+     *
+     * @param key The key of the tile to check.
+     * @return True if the tile is available; otherwise, false.
+     */
+    public boolean isTileAvailable(long key) {
+        return isTileAvailable(TileKey.getLevel(key), TileKey.getX(key), TileKey.getY(key));
+    }
+
+    /**
+     * Determines if many tiles are available.
+     *
+     * @param keys         The keys of the tiles to check.
+     * @param offset       The index of the first key in the array.
+     * @param count        The number of keys.
+     * @param result       The array onto which to store the availability of the tiles.
+     * @param resultOffset The index of the first availability in the result array.
+     * @return The result array.
+     */
+    public boolean[] isTileAvailable(long[] keys, int offset, int count, boolean[] result, int resultOffset) {
+        checkBatch(keys.length, offset, count, result.length, resultOffset);
+        for (int i = 0; i < count; i++) {
+            result[resultOffset + i] = isTileAvailable(keys[offset + i]);
+        }
+        return result;
+    }
+
+    /**
+     * Computes a bit mask indicating which of a tile's four children exist. If a child's bit is set, a tile is
+     * available for that child. If it is cleared, the tile is not available. The bit values are as follows:
+     * <table>
+     * <tr><th>Bit Position</th><th>Bit Value</th><th>Child Tile</th></tr>
+     * <tr><td>0</td><td>1</td><td>Southwest</td></tr>
+     * <tr><td>1</td><td>2</td><td>Southeast</td></tr>
+     * <tr><td>2</td><td>4</td><td>Northwest</td></tr>
+     * <tr><td>3</td><td>8</td><td>Northeast</td></tr>
+     * </table>
+     *
+     * @param level The level of the parent tile.
+     * @param x     The X coordinate of the parent tile.
+     * @param y     The Y coordinate of the parent tile.
+     * @return The bit mask indicating child availability.
+     */
+    public int computeChildMaskForTile(int level, int x, int y) {
+        int childLevel = level + 1;
+        if (childLevel >= maximumLevel) {
+            return 0;
+        }
+        int mask = 0;
+        mask |= isTileAvailable(childLevel, 2 * x, 2 * y + 1) ? 1 : 0;
+        mask |= isTileAvailable(childLevel, 2 * x + 1, 2 * y + 1) ? 2 : 0;
+        mask |= isTileAvailable(childLevel, 2 * x, 2 * y) ? 4 : 0;
+        mask |= isTileAvailable(childLevel, 2 * x + 1, 2 * y) ? 8 : 0;
+        return mask;
+    }
+
+    /**
+     * Computes the bit masks indicating which of the four children of many tiles exist, see
+     * {@link #computeChildMaskForTile(int, int, int)}.
+     *
+     * @param keys         The keys of the parent tiles.
+     * @param offset       The index of the first key in the array.
+     * @param count        The number of keys.
+     * @param result       The array onto which to store the bit masks.
+     * @param resultOffset The index of the first bit mask in the result array.
+     * @return The result array.
+     */
+    public int[] computeChildMaskForTile(long[] keys, int offset, int count, int[] result, int resultOffset) {
+        checkBatch(keys.length, offset, count, result.length, resultOffset);
+        for (int i = 0; i < count; i++) {
+            long key = keys[offset + i];
+            result[resultOffset + i] = computeChildMaskForTile(TileKey.getLevel(key), TileKey.getX(key),
+                    TileKey.getY(key));
+        }
+        return result;
+    }
+
+    /**
+     * Determines the level of the most detailed tile covering the position.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @return The level of the most detailed tile covering the position, or -1 if no tile covers it.
+     */
+    public int computeMaximumLevelAtPosition(double longitude, double latitude) {
+        if (!tilingScheme.contains(longitude, latitude)) {
+            return -1;
+        }
+        return maximumLevelAt(tilingScheme.longitudeToTileX(longitude), tilingScheme.latitudeToTileY(latitude));
+    }
+
+    /**
+     * Determines the level of the most detailed tile covering the position.
+     *
+     * @param position The position for which to determine the maximum available level.
+     * @return The level of the most detailed tile covering the position, or -1 if no tile covers it.
+     */
+    public int computeMaximumLevelAtPosition(Cartographicd position) {
+        return computeMaximumLevelAtPosition(position.longitude, position.latitude);
+    }
+
+    /**
+     * Determines the levels of the most detailed tiles covering many positions.
+     *
+     * @param positions    The packed longitude and latitude values, in radians.
+     * @param offset       The index of the first longitude in the array.
+     * @param stride       The number of values per position, at least 2.
+     * @param count        The number of positions.
+     * @param result       The array onto which to store the levels, -1 for positions no tile covers.
+     * @param resultOffset The index of the first level in the result array.
+     * @return The result array.
+     */
+    public int[] computeMaximumLevelAtPosition(double[] positions, int offset, int stride, int count, int[] result,
+                                               int resultOffset) {
+        Geodesicd.checkRange(positions.length, offset, stride, 2, count);
+        if (resultOffset < 0 || resultOffset + count > result.length) {
+            throw new DeveloperError("result is too small for " + count + " levels.");
+        }
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * stride;
+            result[resultOffset + i] = computeMaximumLevelAtPosition(positions[index], positions[index + 1]);
+        }
+        return result;
+    }
+
+    /**
+     * Finds the most detailed level that is available <em>everywhere</em> within a given rectangle. More detailed
+     * tiles may be available in parts of the rectangle, but not the whole thing.
+     *
+     * @param west  The westernmost longitude, in radians.
+     * @param south The southernmost latitude, in radians.
+     * @param east  The easternmost longitude, in radians.
+     * @param north The northernmost latitude, in radians.
+     * @return The best available level for the entire rectangle, or 0 if part of it is not available at all, like
+     * {@link TileAvailability#computeBestAvailableLevelOverRectangle(org.cesiumjs.cs.core.Rectangle)}.
+     */
+    public int computeBestAvailableLevelOverRectangle(double west, double south, double east, double north) {
+        double[] bounds = new double[4];
+        tilingScheme.getRectangle(bounds, 0);
+        south = Math.max(south, bounds[1]);
+        north = Math.min(north, bounds[3]);
+        if (south > north) {
+            return 0;
+        }
+        double minY = tilingScheme.latitudeToTileY(north);
+        double maxY = tilingScheme.latitudeToTileY(south);
+        int xTiles = tilingScheme.numberOfLevelZeroTilesX;
+        double minX;
+        double maxX;
+        if (tilingScheme.coversAllLongitudes() && (east < west || east - west >= CesiumMath.TWO_PI)) {
+            if (east - west >= CesiumMath.TWO_PI) {
+                return bestLevelOver(0.0, minY, xTiles, maxY);
+            }
+            // Crosses the antimeridian of the tiling scheme
+            minX = tilingScheme.longitudeToTileX(west);
+            maxX = tilingScheme.longitudeToTileX(east);
+            if (maxX < minX) {
+                return Math.min(bestLevelOver(minX, minY, xTiles, maxY), bestLevelOver(0.0, minY, maxX, maxY));
+            }
+        } else {
+            west = Math.max(west, bounds[0]);
+            east = Math.min(east, bounds[2]);
+            if (west > east) {
+                return 0;
+            }
+            minX = tilingScheme.longitudeToTileX(west);
+            maxX = tilingScheme.longitudeToTileX(east);
+        }
+        return bestLevelOver(Math.min(minX, maxX), minY, Math.max(minX, maxX), maxY);
+    }
+
+    /**
+     * Finds the most detailed level that is available <em>everywhere</em> within many rectangles.
+     *
+     * @param rectangles   The packed west, south, east and north values, in radians.
+     * @param offset       The index of the first west value in the array.
+     * @param count        The number of rectangles.
+     * @param result       The array onto which to store the levels.
+     * @param resultOffset The index of the first level in the result array.
+     * @return The result array.
+     * @see #computeBestAvailableLevelOverRectangle(double, double, double, double)
+     */
+    public int[] computeBestAvailableLevelOverRectangle(double[] rectangles, int offset, int count, int[] result,
+                                                        int resultOffset) {
+        Geodesicd.checkRange(rectangles.length, offset, 4, 4, count);
+        if (resultOffset < 0 || resultOffset + count > result.length) {
+            throw new DeveloperError("result is too small for " + count + " levels.");
+        }
+        for (int i = 0; i < count; i++) {
+            int index = offset + 4 * i;
+            result[resultOffset + i] = computeBestAvailableLevelOverRectangle(rectangles[index],
+                    rectangles[index + 1], rectangles[index + 2], rectangles[index + 3]);
+        }
+        return result;
+    }
+
+    /**
+     * Writes the availability to a compact byte array: a header followed by one byte per node of the quadtree in
+     * depth-first order.
+     *
+     * @return The bytes.
+     * @see #fromBytes(TilingSchemed, byte[])
+     */
+    public byte[] toBytes() {
+        if (rootCount > 0xFF) {
+            throw new DeveloperError("the tiling scheme has too many level zero tiles to be written.");
+        }
+        byte[] result = new byte[3 + countReachable()];
+        result[0] = (byte) VERSION;
+        result[1] = (byte) maximumLevel;
+        result[2] = (byte) rootCount;
+        int index = 3;
+        for (int i = 0; i < rootCount; i++) {
+            index = write(i, result, index);
+        }
+        return result;
+    }
+
+    /**
+     * Reads an availability written by {@link #toBytes()}.
+     *
+     * @param tilingScheme The tiling scheme of the availability which was written.
+     * @param bytes        The bytes.
+     * @return The availability.
+     */
+    public static TileAvailabilityd fromBytes(TilingSchemed tilingScheme, byte[] bytes) {
+        if (bytes.length < 3 || bytes[0] != VERSION) {
+            throw new DeveloperError("bytes do not hold a tile availability.");
+        }
+        TileAvailabilityd result = new TileAvailabilityd(tilingScheme, bytes[1], bytes.length - 3);
+        if ((bytes[2] & 0xFF) != result.rootCount) {
+            throw new DeveloperError("bytes were written for a different tiling scheme.");
+        }
+        int index = 3;
+        for (int i = 0; i < result.rootCount; i++) {
+            index = result.read(i, bytes, index, 0);
+        }
+        if (index != bytes.length) {
+            throw new DeveloperError("bytes do not hold a tile availability.");
+        }
+        return result;
+    }
+
+    private void add(int node, int x, int y, int level, int rangeLevel, int startX, int startY, int endX,
+                     int endY) {
+        if (levels[node] >= rangeLevel) {
+            return;
+        }
+        // The extent of the node in tiles of the level of the range
+        int shift = rangeLevel - level;
+        int minX = x << shift;
+        int minY = y << shift;
+        int maxX = minX + (1 << shift) - 1;
+        int maxY = minY + (1 << shift) - 1;
+        if (maxX < startX || minX > endX || maxY < startY || minY > endY) {
+            return;
+        }
+        if (minX >= startX && maxX <= endX && minY >= startY && maxY <= endY) {
+            levels[node] = rangeLevel;
+            prune(node);
+            return;
+        }
+        int first = children[node];
+        if (first < 0) {
+            first = allocateChildren(node);
+        }
+        for (int i = 0; i < 4; i++) {
+            add(first + i, 2 * x + (i & 1), 2 * y + (i >> 1), level + 1, rangeLevel, startX, startY, endX, endY);
+        }
+    }
+
+    /**
+     * Drops the children of a node when they are leaves that are no more detailed than the node itself.
+     */
+    private void prune(int node) {
+        int first = children[node];
+        if (first < 0) {
+            return;
+        }
+        for (int i = first; i < first + 4; i++) {
+            if (children[i] >= 0 || levels[i] > levels[node]) {
+                return;
+            }
+        }
+        // The four slots are left unused until the next toBytes and fromBytes
+        children[node] = -1;
+    }
+
+    private int allocateChildren(int node) {
+        if (nodeCount + 4 > levels.length) {
+            int capacity = Math.max(2 * levels.length, nodeCount + 4);
+            int[] newLevels = new int[capacity];
+            int[] newChildren = new int[capacity];
+            System.arraycopy(levels, 0, newLevels, 0, nodeCount);
+            System.arraycopy(children, 0, newChildren, 0, nodeCount);
+            levels = newLevels;
+            children = newChildren;
+        }
+        int first = nodeCount;
+        for (int i = first; i < first + 4; i++) {
+            levels[i] = -1;
+            children[i] = -1;
+        }
+        nodeCount += 4;
+        children[node] = first;
+        return first;
+    }
+
+    /**
+     * Determines whether a point, in level zero tiles, is covered by a range at a level or deeper.
+     */
+    private boolean reaches(double u, double v, int level) {
+        for (int root = 0; root < rootCount; root++) {
+            int x = root % tilingScheme.numberOfLevelZeroTilesX;
+            int y = root / tilingScheme.numberOfLevelZeroTilesX;
+            if (u >= x && u <= x + 1 && v >= y && v <= y + 1 && reaches(root, u - x, v - y, level)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Determines whether a point, in the unit square of a node, is covered by a range at a level or deeper. A point
+     * on the edge between children is tested against each of them, as the edges of ranges are inclusive.
+     */
+    private boolean reaches(int node, double u, double v, int level) {
+        while (levels[node] < level) {
+            int first = children[node];
+            if (first < 0) {
+                return false;
+            }
+            // Scaling by two is exact, so points on the edges of tiles stay exactly on the edges
+            u *= 2.0;
+            v *= 2.0;
+            int column = u < 1.0 ? 0 : 1;
+            int row = v < 1.0 ? 0 : 1;
+            if (u == 1.0 || v == 1.0) {
+                for (int i = 0; i < 4; i++) {
+                    int dx = i & 1;
+                    int dy = i >> 1;
+                    if (u >= dx && u <= dx + 1 && v >= dy && v <= dy + 1
+                            && reaches(first + i, u - dx, v - dy, level)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+            node = first + (row << 1) + column;
+            u -= column;
+            v -= row;
+        }
+        return true;
+    }
+
+    private int maximumLevelAt(double u, double v) {
+        int result = -1;
+        for (int root = 0; root < rootCount; root++) {
+            int x = root % tilingScheme.numberOfLevelZeroTilesX;
+            int y = root / tilingScheme.numberOfLevelZeroTilesX;
+            if (u >= x && u <= x + 1 && v >= y && v <= y + 1) {
+                result = Math.max(result, maximumLevelAt(root, u - x, v - y, -1));
+            }
+        }
+        return result;
+    }
+
+    private int maximumLevelAt(int node, double u, double v, int level) {
+        level = Math.max(level, levels[node]);
+        int first = children[node];
+        if (first < 0) {
+            return level;
+        }
+        u *= 2.0;
+        v *= 2.0;
+        int result = level;
+        for (int i = 0; i < 4; i++) {
+            int dx = i & 1;
+            int dy = i >> 1;
+            if (u >= dx && u <= dx + 1 && v >= dy && v <= dy + 1) {
+                result = Math.max(result, maximumLevelAt(first + i, u - dx, v - dy, level));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Finds the lowest level over a rectangle in level zero tiles, ignoring nodes which only touch its edges unless
+     * the rectangle is degenerate. Returns 0 if part of the rectangle is not covered at all.
+     */
+    private int bestLevelOver(double minX, double minY, double maxX, double maxY) {
+        int result = Integer.MAX_VALUE;
+        for (int root = 0; root < rootCount; root++) {
+            int x = root % tilingScheme.numberOfLevelZeroTilesX;
+            int y = root / tilingScheme.numberOfLevelZeroTilesX;
+            if (overlaps(x, x + 1, minX, maxX) && overlaps(y, y + 1, minY, maxY)) {
+                result = Math.min(result, bestLevelOver(root, minX - x, minY - y, maxX - x, maxY - y, -1));
+            }
+        }
+        return result == Integer.MAX_VALUE || result < 0 ? 0 : result;
+    }
+
+    private int bestLevelOver(int node, double minX, double minY, double maxX, double maxY, int level) {
+        level = Math.max(level, levels[node]);
+        int first = children[node];
+        if (first < 0) {
+            return level;
+        }
+        minX *= 2.0;
+        minY *= 2.0;
+        maxX *= 2.0;
+        maxY *= 2.0;
+        int result = Integer.MAX_VALUE;
+        for (int i = 0; i < 4; i++) {
+            int dx = i & 1;
+            int dy = i >> 1;
+            if (overlaps(dx, dx + 1, minX, maxX) && overlaps(dy, dy + 1, minY, maxY)) {
+                result = Math.min(result, bestLevelOver(first + i, minX - dx, minY - dy, maxX - dx, maxY - dy,
+                        level));
+                if (result <= level) {
+                    break;
+                }
+            }
+        }
+        return result == Integer.MAX_VALUE ? level : result;
+    }
+
+    private static void checkBatch(int length, int offset, int count, int resultLength, int resultOffset) {
+        if (offset < 0 || count < 0 || offset + count > length) {
+            throw new DeveloperError("keys are out of the array.");
+        }
+        if (resultOffset < 0 || resultOffset + count > resultLength) {
+            throw new DeveloperError("result is too small for " + count + " tiles.");
+        }
+    }
+
+    private static boolean overlaps(double min, double max, double rangeMin, double rangeMax) {
+        if (rangeMin == rangeMax) {
+            return rangeMin >= min && rangeMin <= max;
+        }
+        return rangeMin < max && rangeMax > min;
+    }
+
+    private int countReachable() {
+        int count = 0;
+        for (int i = 0; i < rootCount; i++) {
+            count += countReachable(i);
+        }
+        return count;
+    }
+
+    private int countReachable(int node) {
+        int count = 1;
+        int first = children[node];
+        if (first >= 0) {
+            for (int i = 0; i < 4; i++) {
+                count += countReachable(first + i);
+            }
+        }
+        return count;
+    }
+
+    private int write(int node, byte[] bytes, int index) {
+        int first = children[node];
+        bytes[index++] = (byte) ((levels[node] + 1) | (first >= 0 ? HAS_CHILDREN : 0));
+        if (first >= 0) {
+            for (int i = 0; i < 4; i++) {
+                index = write(first + i, bytes, index);
+            }
+        }
+        return index;
+    }
+
+    private int read(int node, byte[] bytes, int index, int depth) {
+        if (index >= bytes.length || depth > TileKey.MAXIMUM_LEVEL) {
+            throw new DeveloperError("bytes do not hold a tile availability.");
+        }
+        int value = bytes[index++] & 0xFF;
+        levels[node] = (value & ~HAS_CHILDREN) - 1;
+        children[node] = -1;
+        if ((value & HAS_CHILDREN) != 0) {
+            int first = allocateChildren(node);
+            for (int i = 0; i < 4; i++) {
+                index = read(first + i, bytes, index, depth + 1);
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,275 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * Functions for 64-bit tile keys, to key tile caches and availability maps by a {@code long} instead of strings
+ * like "x/y/level". A key holds the level in its highest bits and the Morton (Z-order) interleave of the tile x and
+ * y coordinates in the lower bits, so sorting keys groups tiles by level and then by spatial proximity.
+ * <p>
+ * Levels up to {@link #MAXIMUM_LEVEL} are supported with up to two level zero tiles in each direction, as used by
+ * {@link GeographicTilingSchemed} and {@link WebMercatorTilingSchemed}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see TilingSchemed
+ */
+public final class TileKey {
+    /**
+     * The maximum level of a key.
+     */
+    public static final int MAXIMUM_LEVEL = 28;
+    /**
+     * A value which is never a valid key, returned for tiles that do not exist.
+     */
+    public static final long NONE = -1L;
+
+    private static final int COORDINATE_BITS = MAXIMUM_LEVEL + 1;
+    private static final int LEVEL_SHIFT = 2 * COORDINATE_BITS;
+    private static final int MAXIMUM_COORDINATE = (1 << COORDINATE_BITS) - 1;
+    private static final long MORTON_MASK = (1L << LEVEL_SHIFT) - 1L;
+
+    private TileKey() {
+    }
+
+    /**
+     * Creates the key of a tile.
+     *
+     * @param x     The x coordinate of the tile.
+     * @param y     The y coordinate of the tile.
+     * @param level The level of the tile.
+     * @return The key.
+     */
+    public static long fromTileXY(int x, int y, int level) {
+        if (level < 0 || level > MAXIMUM_LEVEL) {
+            throw new DeveloperError("level must be between 0 and " + MAXIMUM_LEVEL + ".");
+        }
+        if (x < 0 || y < 0 || x > MAXIMUM_COORDINATE || y > MAXIMUM_COORDINATE) {
+            throw new DeveloperError("x and y must be between 0 and " + MAXIMUM_COORDINATE + ".");
+        }
+        return ((long) level << LEVEL_SHIFT) | interleave(x, y);
+    }
+
+    /**
+     * Gets the x coordinate of a tile.
+     *
+     * @param key The key.
+     * @return The x coordinate.
+     */
+    public static int getX(long key) {
+        return compact(key & MORTON_MASK);
+    }
+
+    /**
+     * Gets the y coordinate of a tile.
+     *
+     * @param key The key.
+     * @return The y coordinate.
+     */
+    public static int getY(long key) {
+        return compact((key & MORTON_MASK) >>> 1);
+    }
+
+    /**
+     * Gets the level of a tile.
+     *
+     * @param key The key.
+     * @return The level.
+     */
+    public static int getLevel(long key) {
+        return (int) (key >>> LEVEL_SHIFT);
+    }
+
+    /**
+     * Gets the Morton (Z-order) code of a tile, the interleaved x and y coordinates without the level.
+     *
+     * @param key The key.
+     * @return The Morton code.
+     */
+    public static long getMortonCode(long key) {
+        return key & MORTON_MASK;
+    }
+
+    /**
+     * Gets the key of the parent of a tile.
+     *
+     * @param key The key.
+     * @return The key of the parent, or {@link #NONE} for a level zero tile.
+     */
+    public static long parent(long key) {
+        int level = getLevel(key);
+        if (level == 0) {
+            return NONE;
+        }
+        return ((long) (level - 1) << LEVEL_SHIFT) | ((key & MORTON_MASK) >>> 2);
+    }
+
+    /**
+     * Gets the key of the ancestor of a tile at a level.
+     *
+     * @param key   The key.
+     * @param level The level of the ancestor, not greater than the level of the tile.
+     * @return The key of the ancestor.
+     */
+    public static long ancestor(long key, int level) {
+        int tileLevel = getLevel(key);
+        if (level < 0 || level > tileLevel) {
+            throw new DeveloperError("level must be between 0 and the level of the tile.");
+        }
+        return ((long) level << LEVEL_SHIFT) | ((key & MORTON_MASK) >>> (2 * (tileLevel - level)));
+    }
+
+    /**
+     * Gets the key of a child of a tile. Children are numbered like the quadtree of CesiumJS: 0 is north-west,
+     * 1 is north-east, 2 is south-west and 3 is south-east, as y increases southward.
+     *
+     * @param key   The key.
+     * @param index The index of the child, from 0 to 3.
+     * @return The key of the child.
+     */
+    public static long child(long key, int index) {
+        if (index < 0 || index > 3) {
+            throw new DeveloperError("index must be between 0 and 3.");
+        }
+        int level = getLevel(key);
+        if (level == MAXIMUM_LEVEL) {
+            throw new DeveloperError("the tile is at the maximum level.");
+        }
+        // Bit 0 of the Morton code is x, bit 1 is y
+        return ((long) (level + 1) << LEVEL_SHIFT) | ((key & MORTON_MASK) << 2) | index;
+    }
+
+    /**
+     * Determines whether a tile contains another tile or is the same tile.
+     *
+     * @param ancestor The key of the possible ancestor.
+     * @param key      The key of the tile.
+     * @return True if the first tile contains the second; otherwise, false.
+     */
+    public static boolean contains(long ancestor, long key) {
+        int ancestorLevel = getLevel(ancestor);
+        int level = getLevel(key);
+        return ancestorLevel <= level
+                && (ancestor & MORTON_MASK) == ((key & MORTON_MASK) >>> (2 * (level - ancestorLevel)));
+    }
+
+    /**
+     * Gets the key of a neighbour of a tile. The x coordinate wraps around the antimeridian, the y coordinate
+     * does not.
+     *
+     * @param key    The key.
+     * @param dx     The offset in x, positive eastward.
+     * @param dy     The offset in y, positive southward.
+     * @param xTiles The number of tiles in x at the level of the tile.
+     * @param yTiles The number of tiles in y at the level of the tile.
+     * @return The key of the neighbour, or {@link #NONE} if it is beyond the north or south edge.
+     * @see TilingSchemed#neighbor(long, int, int)
+     */
+    public static long neighbor(long key, int dx, int dy, int xTiles, int yTiles) {
+        int y = getY(key) + dy;
+        if (y < 0 || y >= yTiles) {
+            return NONE;
+        }
+        int x = (getX(key) + dx) % xTiles;
+        if (x < 0) {
+            x += xTiles;
+        }
+        return ((long) getLevel(key) << LEVEL_SHIFT) | interleave(x, y);
+    }
+
+    /**
+     * Converts a key to a Bing Maps quadkey, one digit per level. Only for tiling schemes with a single level
+     * zero tile, such as the default {@link WebMercatorTilingSchemed}.
+     *
+     * @param key The key.
+     * @return The quadkey, empty for the level zero tile.
+     */
+    public static String toQuadkey(long key) {
+        int level = getLevel(key);
+        long morton = key & MORTON_MASK;
+        if ((morton >>> (2 * level)) != 0L) {
+            throw new DeveloperError("the tiling scheme of the tile has more than one level zero tile.");
+        }
+        char[] digits = new char[level];
+        for (int i = 0; i < level; i++) {
+            digits[level - 1 - i] = (char) ('0' + (int) ((morton >>> (2 * i)) & 3L));
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Converts a Bing Maps quadkey to a key.
+     *
+     * @param quadkey The quadkey.
+     * @return The key.
+     */
+    public static long fromQuadkey(String quadkey) {
+        int level = quadkey.length();
+        if (level > MAXIMUM_LEVEL) {
+            throw new DeveloperError("quadkey is longer than " + MAXIMUM_LEVEL + " digits.");
+        }
+        long morton = 0L;
+        for (int i = 0; i < level; i++) {
+            int digit = quadkey.charAt(i) - '0';
+            if (digit < 0 || digit > 3) {
+                throw new DeveloperError("Invalid quadkey: " + quadkey);
+            }
+            morton = (morton << 2) | digit;
+        }
+        return ((long) level << LEVEL_SHIFT) | morton;
+    }
+
+    /**
+     * Formats a key as "x/y/level".
+     *
+     * @param key The key.
+     * @return The string.
+     */
+    public static String toString(long key) {
+        return getX(key) + "/" + getY(key) + "/" + getLevel(key);
+    }
+
+    /**
+     * Interleaves the bits of x and y, x in the even bits. Spreads 16-bit halves with int arithmetic, which is much
+     * cheaper than long arithmetic when compiled to JavaScript.
+     */
+    private static long interleave(int x, int y) {
+        int low = spread(x & 0xFFFF) | (spread(y & 0xFFFF) << 1);
+        int high = spread(x >>> 16) | (spread(y >>> 16) << 1);
+        return ((long) high << 32) | (low & 0xFFFFFFFFL);
+    }
+
+    private static int compact(long morton) {
+        return compact((int) morton) | (compact((int) (morton >>> 32)) << 16);
+    }
+
+    private static int spread(int value) {
+        value = (value | (value << 8)) & 0x00FF00FF;
+        value = (value | (value << 4)) & 0x0F0F0F0F;
+        value = (value | (value << 2)) & 0x33333333;
+        return (value | (value << 1)) & 0x55555555;
+    }
+
+    private static int compact(int value) {
+        value &= 0x55555555;
+        value = (value | (value >>> 1)) & 0x33333333;
+        value = (value | (value >>> 2)) & 0x0F0F0F0F;
+        value = (value | (value >>> 4)) & 0x00FF00FF;
+        return (value | (value >>> 8)) & 0x0000FFFF;
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Rectangle;
+import org.cesiumjs.cs.core.TilingScheme;
+
+/**
+ * A tiling scheme for geometry or imagery on the surface of an ellipsoid, implemented in pure Java. Mirrors
+ * {@link TilingScheme}, but identifies tiles by {@link TileKey} keys and returns rectangles as packed west, south,
+ * east and north values in radians, so tile bookkeeping does not cross into JavaScript or allocate per tile.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see TilingScheme
+ * @see TileKey
+ */
+public abstract class TilingSchemed {
+    final Ellipsoidd ellipsoid;
+    final int numberOfLevelZeroTilesX;
+    final int numberOfLevelZeroTilesY;
+    final double west;
+    final double south;
+    final double east;
+    final double north;
+
+    TilingSchemed(Ellipsoidd ellipsoid, int numberOfLevelZeroTilesX, int numberOfLevelZeroTilesY, double west,
+                  double south, double east, double north) {
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        if (numberOfLevelZeroTilesX < 1 || numberOfLevelZeroTilesX > 2 || numberOfLevelZeroTilesY < 1
+                || numberOfLevelZeroTilesY > 2) {
+            throw new DeveloperError("the number of level zero tiles must be 1 or 2 in each direction.");
+        }
+        this.ellipsoid = ellipsoid;
+        this.numberOfLevelZeroTilesX = numberOfLevelZeroTilesX;
+        this.numberOfLevelZeroTilesY = numberOfLevelZeroTilesY;
+        this.west = west;
+        this.south = south;
+        this.east = east;
+        this.north = north;
+    }
+
+    /**
+     * Gets the ellipsoid that is tiled by the tiling scheme.
+     *
+     * @return The ellipsoid.
+     */
+    public Ellipsoidd getEllipsoid() {
+        return ellipsoid;
+    }
+
+    /**
+     * Gets the rectangle, in radians, covered by this tiling scheme.
+     *
+     * @param result The array onto which to store the west, south, east and north values.
+     * @param offset The index of the west value in the result array.
+     * @return The result array.
+     */
+    public double[] getRectangle(double[] result, int offset) {
+        return setRectangle(west, south, east, north, result, offset);
+    }
+
+    /**
+     * Gets the total number of tiles in the X direction at a specified level-of-detail.
+     *
+     * @param level The level-of-detail.
+     * @return The number of tiles in the X direction at the given level.
+     */
+    public int getNumberOfXTilesAtLevel(int level) {
+        return numberOfLevelZeroTilesX << level;
+    }
+
+    /**
+     * Gets the total number of tiles in the Y direction at a specified level-of-detail.
+     *
+     * @param level The level-of-detail.
+     * @return The number of tiles in the Y direction at the given level.
+     */
+    public int getNumberOfYTilesAtLevel(int level) {
+        return numberOfLevelZeroTilesY << level;
+    }
+
+    /**
+     * Gets the keys of the level zero tiles.
+     *
+     * @return The keys.
+     */
+    public long[] getLevelZeroTiles() {
+        long[] result = new long[numberOfLevelZeroTilesX * numberOfLevelZeroTilesY];
+        int i = 0;
+        for (int y = 0; y < numberOfLevelZeroTilesY; y++) {
+            for (int x = 0; x < numberOfLevelZeroTilesX; x++) {
+                result[i++] = TileKey.fromTileXY(x, y, 0);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the key of a neighbour of a tile. The x coordinate wraps around the antimeridian when the tiling scheme
+     * covers all longitudes.
+     *
+     * @param key The key of the tile.
+     * @param dx  The offset in x, positive eastward.
+     * @param dy  The offset in y, positive southward.
+     * @return The key of the neighbour, or {@link TileKey#NONE} if it is beyond the edge of the tiling scheme.
+     */
+    public long neighbor(long key, int dx, int dy) {
+        int level = TileKey.getLevel(key);
+        int xTiles = getNumberOfXTilesAtLevel(level);
+        if (!coversAllLongitudes()) {
+            int x = TileKey.getX(key) + dx;
+            if (x < 0 || x >= xTiles) {
+                return TileKey.NONE;
+            }
+        }
+        return TileKey.neighbor(key, dx, dy, xTiles, getNumberOfYTilesAtLevel(level));
+    }
+
+    /**
+     * Converts tile x, y coordinates and level to a rectangle expressed in the native coordinates of the tiling
+     * scheme.
+     *
+     * @param x      The integer x coordinate of the tile.
+     * @param y      The integer y coordinate of the tile.
+     * @param level  The tile level-of-detail. Zero is the least detailed.
+     * @param result The array onto which to store the west, south, east and north values.
+     * @param offset The index of the west value in the result array.
+     * @return The result array.
+     */
+    public abstract double[] tileXYToNativeRectangle(int x, int y, int level, double[] result, int offset);
+
+    /**
+     * Converts tile x, y coordinates and level to a cartographic rectangle in radians.
+     *
+     * @param x      The integer x coordinate of the tile.
+     * @param y      The integer y coordinate of the tile.
+     * @param level  The tile level-of-detail. Zero is the least detailed.
+     * @param result The array onto which to store the west, south, east and north values.
+     * @param offset The index of the west value in the result array.
+     * @return The result array.
+     */
+    public abstract double[] tileXYToRectangle(int x, int y, int level, double[] result, int offset);
+
+    /**
+     * Converts a tile key to a cartographic rectangle in radians.
+     *
+     * @param key    The key of the tile.
+     * @param result The array onto which to store the west, south, east and north values.
+     * @param offset The index of the west value in the result array.
+     * @return The result array.
+     */
+    public double[] tileKeyToRectangle(long key, double[] result, int offset) {
+        return tileXYToRectangle(TileKey.getX(key), TileKey.getY(key), TileKey.getLevel(key), result, offset);
+    }
+
+    /**
+     * Converts tile x, y coordinates and level to a native cartographic {@link Rectangle} in radians.
+     *
+     * @param x      The integer x coordinate of the tile.
+     * @param y      The integer y coordinate of the tile.
+     * @param level  The tile level-of-detail. Zero is the least detailed.
+     * @param result The native object onto which to store the result.
+     * @return The modified result parameter or a new Rectangle instance if none was provided.
+     */
+    public Rectangle tileXYToRectangle(int x, int y, int level, Rectangle result) {
+        double[] rectangle = tileXYToRectangle(x, y, level, new double[4], 0);
+        if (result == null) {
+            return new Rectangle(rectangle[0], rectangle[1], rectangle[2], rectangle[3]);
+        }
+        result.west = rectangle[0];
+        result.south = rectangle[1];
+        result.east = rectangle[2];
+        result.north = rectangle[3];
+        return result;
+    }
+
+    /**
+     * Calculates the key of the tile containing a given cartographic position.
+     *
+     * @param longitude The longitude, in radians.
+     * @param latitude  The latitude, in radians.
+     * @param level     The tile level-of-detail. Zero is the least detailed.
+     * @return The key of the tile, or {@link TileKey#NONE} if the position is outside the tiling scheme.
+     */
+    public abstract long positionToTileKey(double longitude, double latitude, int level);
+
+    /**
+     * Calculates the key of the tile containing a given cartographic position.
+     *
+     * @param position The position.
+     * @param level    The tile level-of-detail. Zero is the least detailed.
+     * @return The key of the tile, or {@link TileKey#NONE} if the position is outside the tiling scheme.
+     */
+    public long positionToTileKey(Cartographicd position, int level) {
+        return positionToTileKey(position.longitude, position.latitude, level);
+    }
+
+    /**
+     * Calculates the keys of the tiles containing many cartographic positions.
+     *
+     * @param positions    The packed longitude and latitude values, in radians.
+     * @param offset       The index of the first longitude in the array.
+     * @param stride       The number of values per position, at least 2, e.g. 3 for longitude, latitude and
+     *                     height.
+     * @param count        The number of positions.
+     * @param level        The tile level-of-detail. Zero is the least detailed.
+     * @param result       The array onto which to store the keys, {@link TileKey#NONE} for positions outside the
+     *                     tiling scheme.
+     * @param resultOffset The index of the first key in the result array.
+     * @return The result array.
+     */
+    public long[] positionsToTileKeys(double[] positions, int offset, int stride, int count, int level,
+                                      long[] result, int resultOffset) {
+        Geodesicd.checkRange(positions.length, offset, stride, 2, count);
+        if (resultOffset < 0 || resultOffset + count > result.length) {
+            throw new DeveloperError("result is too small for " + count + " keys.");
+        }
+        for (int i = 0; i < count; i++) {
+            int index = offset + i * stride;
+            result[resultOffset + i] = positionToTileKey(positions[index], positions[index + 1], level);
+        }
+        return result;
+    }
+
+    /**
+     * Converts a longitude to a fractional x coordinate in level zero tiles.
+     */
+    abstract double longitudeToTileX(double longitude);
+
+    /**
+     * Converts a latitude to a fractional y coordinate in level zero tiles, increasing southward.
+     */
+    abstract double latitudeToTileY(double latitude);
+
+    /**
+     * Determines whether a position is within the rectangle of the tiling scheme, like {@link Rectangle#contains}.
+     */
+    boolean contains(double longitude, double latitude) {
+        double rectangleEast = east;
+        if (rectangleEast < west) {
+            rectangleEast += CesiumMath.TWO_PI;
+            if (longitude < 0.0) {
+                longitude += CesiumMath.TWO_PI;
+            }
+        }
+        return (longitude > west || Math.abs(longitude - west) <= CesiumMath.EPSILON14)
+                && (longitude < rectangleEast || Math.abs(longitude - rectangleEast) <= CesiumMath.EPSILON14)
+                && latitude >= south && latitude <= north;
+    }
+
+    boolean coversAllLongitudes() {
+        double width = east < west ? east + CesiumMath.TWO_PI - west : east - west;
+        return Math.abs(width - CesiumMath.TWO_PI) <= CesiumMath.EPSILON14;
+    }
+
+    static double[] setRectangle(double west, double south, double east, double north, double[] result,
+                                 int offset) {
+        result[offset] = west;
+        result[offset + 1] = south;
+        result[offset + 2] = east;
+        result[offset + 3] = north;
+        return result;
+    }
+}
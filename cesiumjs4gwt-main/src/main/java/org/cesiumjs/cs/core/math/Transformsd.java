@@ -0,0 +1,306 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Transforms;
+
+/**
+ * Local frame transforms implemented in pure Java. Mirrors {@link Transforms#eastNorthUpToFixedFrame},
+ * {@link Transforms#headingPitchRollToFixedFrame} and {@link Transforms#headingPitchRollQuaternion} with the
+ * default east-north-up fixed frame, including the special cases at the poles and at the center of the ellipsoid.
+ * None of the methods allocate when a result is provided.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see Transforms
+ */
+public final class Transformsd {
+    private Transformsd() {
+    }
+
+    /**
+     * Computes a 4x4 transformation matrix from a reference frame with an east-north-up axes centered at the
+     * provided origin to the provided ellipsoid's fixed reference frame.
+     *
+     * @param origin    The center point of the local reference frame.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if none was provided.
+     */
+    public static Matrix4d eastNorthUpToFixedFrame(Cartesian3d origin, Ellipsoidd ellipsoid, Matrix4d result) {
+        return eastNorthUpToFixedFrame(origin.x, origin.y, origin.z, ellipsoid, result);
+    }
+
+    /**
+     * Computes a 4x4 transformation matrix from a reference frame with an east-north-up axes centered at the
+     * provided origin to the provided ellipsoid's fixed reference frame.
+     *
+     * @param x         The x component of the center point of the local reference frame.
+     * @param y         The y component of the center point of the local reference frame.
+     * @param z         The z component of the center point of the local reference frame.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if none was provided.
+     */
+    public static Matrix4d eastNorthUpToFixedFrame(double x, double y, double z, Ellipsoidd ellipsoid,
+                                                   Matrix4d result) {
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        if (result == null) {
+            result = new Matrix4d();
+        }
+        double[] r = result.values;
+        setEastNorthUp(x, y, z, ellipsoid, r);
+        r[3] = 0.0;
+        r[7] = 0.0;
+        r[11] = 0.0;
+        r[12] = x;
+        r[13] = y;
+        r[14] = z;
+        r[15] = 1.0;
+        return result;
+    }
+
+    /**
+     * Computes a 4x4 transformation matrix from a reference frame with axes computed from the heading-pitch-roll
+     * angles centered at the provided origin to the provided ellipsoid's fixed reference frame. Heading is the
+     * rotation from the local north direction where a positive angle is increasing eastward. Pitch is the rotation
+     * from the local east-north plane. Positive pitch angles are above the plane. Roll is the first rotation
+     * applied about the local east axis.
+     *
+     * @param origin    The center point of the local reference frame.
+     * @param heading   The heading angle in radians.
+     * @param pitch     The pitch angle in radians.
+     * @param roll      The roll angle in radians.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if none was provided.
+     */
+    public static Matrix4d headingPitchRollToFixedFrame(Cartesian3d origin, double heading, double pitch,
+                                                        double roll, Ellipsoidd ellipsoid, Matrix4d result) {
+        return headingPitchRollToFixedFrame(origin.x, origin.y, origin.z, heading, pitch, roll, ellipsoid, result);
+    }
+
+    /**
+     * Computes a 4x4 transformation matrix from a reference frame with axes computed from the heading-pitch-roll
+     * angles centered at the provided origin to the provided ellipsoid's fixed reference frame.
+     *
+     * @param x         The x component of the center point of the local reference frame.
+     * @param y         The y component of the center point of the local reference frame.
+     * @param z         The z component of the center point of the local reference frame.
+     * @param heading   The heading angle in radians.
+     * @param pitch     The pitch angle in radians.
+     * @param roll      The roll angle in radians.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Matrix4d instance if none was provided.
+     * @see #headingPitchRollToFixedFrame(Cartesian3d, double, double, double, Ellipsoidd, Matrix4d)
+     */
+    public static Matrix4d headingPitchRollToFixedFrame(double x, double y, double z, double heading, double pitch,
+                                                        double roll, Ellipsoidd ellipsoid, Matrix4d result) {
+        result = eastNorthUpToFixedFrame(x, y, z, ellipsoid, result);
+        double[] r = result.values;
+        double e0 = r[0];
+        double e1 = r[1];
+        double e2 = r[2];
+        double n0 = r[4];
+        double n1 = r[5];
+        double n2 = r[6];
+        double u0 = r[8];
+        double u1 = r[9];
+        double u2 = r[10];
+
+        // Rotation of Quaterniond.fromHeadingPitchRoll, as in Matrix4d.fromTranslationQuaternionRotationScale
+        double hs = Math.sin(-heading * 0.5);
+        double hc = Math.cos(-heading * 0.5);
+        double ps = Math.sin(-pitch * 0.5);
+        double pc = Math.cos(-pitch * 0.5);
+        double rs = Math.sin(roll * 0.5);
+        double rc = Math.cos(roll * 0.5);
+        double hpX = -hs * ps;
+        double hpY = hc * ps;
+        double hpZ = hs * pc;
+        double hpW = hc * pc;
+        double qx = hpW * rs + hpX * rc;
+        double qy = hpY * rc + hpZ * rs;
+        double qz = hpZ * rc - hpY * rs;
+        double qw = hpW * rc - hpX * rs;
+
+        double x2 = qx * qx;
+        double xy = qx * qy;
+        double xz = qx * qz;
+        double xw = qx * qw;
+        double y2 = qy * qy;
+        double yz = qy * qz;
+        double yw = qy * qw;
+        double z2 = qz * qz;
+        double zw = qz * qw;
+        double w2 = qw * qw;
+        double m00 = x2 - y2 - z2 + w2;
+        double m01 = 2.0 * (xy - zw);
+        double m02 = 2.0 * (xz + yw);
+        double m10 = 2.0 * (xy + zw);
+        double m11 = -x2 + y2 - z2 + w2;
+        double m12 = 2.0 * (yz - xw);
+        double m20 = 2.0 * (xz - yw);
+        double m21 = 2.0 * (yz + xw);
+        double m22 = -x2 - y2 + z2 + w2;
+
+        // Each column of the result is the east-north-up frame applied to a column of the rotation
+        r[0] = e0 * m00 + n0 * m10 + u0 * m20;
+        r[1] = e1 * m00 + n1 * m10 + u1 * m20;
+        r[2] = e2 * m00 + n2 * m10 + u2 * m20;
+        r[4] = e0 * m01 + n0 * m11 + u0 * m21;
+        r[5] = e1 * m01 + n1 * m11 + u1 * m21;
+        r[6] = e2 * m01 + n2 * m11 + u2 * m21;
+        r[8] = e0 * m02 + n0 * m12 + u0 * m22;
+        r[9] = e1 * m02 + n1 * m12 + u1 * m22;
+        r[10] = e2 * m02 + n2 * m12 + u2 * m22;
+        return result;
+    }
+
+    /**
+     * Computes a quaternion from a reference frame with axes computed from the heading-pitch-roll angles centered
+     * at the provided origin to the provided ellipsoid's fixed reference frame.
+     *
+     * @param origin    The center point of the local reference frame.
+     * @param heading   The heading angle in radians.
+     * @param pitch     The pitch angle in radians.
+     * @param roll      The roll angle in radians.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @param scratch   A matrix used to compute the rotation. If undefined, a new instance is created.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if none was provided.
+     */
+    public static Quaterniond headingPitchRollQuaternion(Cartesian3d origin, double heading, double pitch,
+                                                         double roll, Ellipsoidd ellipsoid, Matrix4d scratch,
+                                                         Quaterniond result) {
+        return headingPitchRollQuaternion(origin.x, origin.y, origin.z, heading, pitch, roll, ellipsoid, scratch,
+                result);
+    }
+
+    /**
+     * Computes a quaternion from a reference frame with axes computed from the heading-pitch-roll angles centered
+     * at the provided origin to the provided ellipsoid's fixed reference frame.
+     *
+     * @param x         The x component of the center point of the local reference frame.
+     * @param y         The y component of the center point of the local reference frame.
+     * @param z         The z component of the center point of the local reference frame.
+     * @param heading   The heading angle in radians.
+     * @param pitch     The pitch angle in radians.
+     * @param roll      The roll angle in radians.
+     * @param ellipsoid The ellipsoid whose fixed frame is used in the transformation.
+     * @param scratch   A matrix used to compute the rotation. If undefined, a new instance is created.
+     * @param result    The object onto which to store the result.
+     * @return The modified result parameter or a new Quaterniond instance if none was provided.
+     */
+    public static Quaterniond headingPitchRollQuaternion(double x, double y, double z, double heading, double pitch,
+                                                         double roll, Ellipsoidd ellipsoid, Matrix4d scratch,
+                                                         Quaterniond result) {
+        scratch = headingPitchRollToFixedFrame(x, y, z, heading, pitch, roll, ellipsoid, scratch);
+        return fromRotation(scratch.values, result);
+    }
+
+    /**
+     * Computes a quaternion from the upper left 3x3 rotation of a column-major 4x4 matrix, like
+     * {@link Quaterniond#fromRotationMatrix(Matrix3d, Quaterniond)}.
+     */
+    private static Quaterniond fromRotation(double[] m, Quaterniond result) {
+        double m00 = m[0];
+        double m11 = m[5];
+        double m22 = m[10];
+        double trace = m00 + m11 + m22;
+        double x;
+        double y;
+        double z;
+        double w;
+        if (trace > 0.0) {
+            double root = Math.sqrt(trace + 1.0);
+            w = 0.5 * root;
+            root = 0.5 / root;
+            x = (m[6] - m[9]) * root;
+            y = (m[8] - m[2]) * root;
+            z = (m[1] - m[4]) * root;
+        } else if (m00 >= m11 && m00 >= m22) {
+            double root = Math.sqrt(m00 - m11 - m22 + 1.0);
+            x = -0.5 * root;
+            root = 0.5 / root;
+            w = (m[9] - m[6]) * root;
+            y = -(m[1] + m[4]) * root;
+            z = -(m[2] + m[8]) * root;
+        } else if (m11 >= m22) {
+            double root = Math.sqrt(m11 - m22 - m00 + 1.0);
+            y = -0.5 * root;
+            root = 0.5 / root;
+            w = (m[2] - m[8]) * root;
+            z = -(m[6] + m[9]) * root;
+            x = -(m[4] + m[1]) * root;
+        } else {
+            double root = Math.sqrt(m22 - m00 - m11 + 1.0);
+            z = -0.5 * root;
+            root = 0.5 / root;
+            w = (m[4] - m[1]) * root;
+            x = -(m[8] + m[2]) * root;
+            y = -(m[9] + m[6]) * root;
+        }
+        return Quaterniond.fromElements(x, y, z, w, result);
+    }
+
+    /**
+     * Writes the east, north and up axes into the first three columns of a column-major 4x4 matrix.
+     */
+    private static void setEastNorthUp(double x, double y, double z, Ellipsoidd ellipsoid, double[] r) {
+        boolean onAxis = Math.abs(x) <= CesiumMath.EPSILON14 && Math.abs(y) <= CesiumMath.EPSILON14;
+        if (onAxis) {
+            // At the center use the degenerate frame, at the poles flip north and up with the sign of z
+            double sign = Math.abs(z) <= CesiumMath.EPSILON14 ? 1.0 : Math.signum(z);
+            r[0] = 0.0;
+            r[1] = 1.0;
+            r[2] = 0.0;
+            r[4] = -sign;
+            r[5] = 0.0;
+            r[6] = 0.0;
+            r[8] = 0.0;
+            r[9] = 0.0;
+            r[10] = sign;
+            return;
+        }
+        double ux = x * ellipsoid.oneOverRadiiSquaredX;
+        double uy = y * ellipsoid.oneOverRadiiSquaredY;
+        double uz = z * ellipsoid.oneOverRadiiSquaredZ;
+        double magnitude = Math.sqrt(ux * ux + uy * uy + uz * uz);
+        ux /= magnitude;
+        uy /= magnitude;
+        uz /= magnitude;
+
+        magnitude = Math.sqrt(x * x + y * y);
+        double ex = -y / magnitude;
+        double ey = x / magnitude;
+
+        // north = up x east, east has no z component
+        r[0] = ex;
+        r[1] = ey;
+        r[2] = 0.0;
+        r[4] = -uz * ey;
+        r[5] = uz * ex;
+        r[6] = ux * ey - uy * ex;
+        r[8] = ux;
+        r[9] = uy;
+        r[10] = uz;
+    }
+}
@@ -0,0 +1,791 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.IntersectionTests;
+import org.cesiumjs.cs.core.Ray;
+
+import java.util.Arrays;
+
+/**
+ * A bounding volume hierarchy over a triangle soup, implemented in pure Java. Answers ray, line segment and sphere
+ * queries in logarithmic time instead of testing every triangle with {@link IntersectionTests#rayTriangle} or
+ * {@link IntersectionTests#lineSegmentTriangle}.
+ * <p>
+ * The triangle tests have the same semantics as those of {@link IntersectionTests}: a ray hits a triangle at
+ * the parameter t &gt;= 0 of {@code origin + t * direction}, back faces are skipped when requested, and a segment
+ * is tested as a ray along its normalized direction limited to its length. The hierarchy is immutable once built
+ * and may be queried from several threads.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see IntersectionTests
+ */
+public final class TriangleBvh {
+    private static final int LEAF_SIZE = 4;
+    private static final int STACK_SIZE = 64;
+
+    private final int triangleCount;
+    private final int nodeCount;
+    // Per node: minimum x, y, z and maximum x, y, z
+    private final double[] nodeBounds;
+    // Per node: the first triangle of a leaf or the left child of an inner node, whose right child follows it
+    private final int[] nodeStart;
+    // Per node: the number of triangles of a leaf, 0 for inner nodes
+    private final int[] nodeSize;
+    // Per triangle in leaf order: the x, y, z components of its three vertices
+    private final double[] triangles;
+    // Per triangle in leaf order: the index of the triangle in the input
+    private final int[] triangleIds;
+
+    private TriangleBvh(int triangleCount, int nodeCount, double[] nodeBounds, int[] nodeStart, int[] nodeSize,
+                        double[] triangles, int[] triangleIds) {
+        this.triangleCount = triangleCount;
+        this.nodeCount = nodeCount;
+        this.nodeBounds = nodeBounds;
+        this.nodeStart = nodeStart;
+        this.nodeSize = nodeSize;
+        this.triangles = triangles;
+        this.triangleIds = triangleIds;
+    }
+
+    /**
+     * Builds a hierarchy from an indexed triangle mesh.
+     *
+     * @param positions The packed x, y, z components of the vertices.
+     * @param indices   The vertex indices, three per triangle.
+     * @return The hierarchy.
+     */
+    public static TriangleBvh fromIndexedTriangles(double[] positions, int[] indices) {
+        if (positions.length % 3 != 0) {
+            throw new DeveloperError("positions length must be a multiple of 3.");
+        }
+        if (indices.length % 3 != 0) {
+            throw new DeveloperError("indices length must be a multiple of 3.");
+        }
+        int vertexCount = positions.length / 3;
+        double[] soup = new double[indices.length * 3];
+        for (int i = 0; i < indices.length; i++) {
+            int index = indices[i];
+            if (index < 0 || index >= vertexCount) {
+                throw new DeveloperError("index " + index + " is out of range.");
+            }
+            soup[3 * i] = positions[3 * index];
+            soup[3 * i + 1] = positions[3 * index + 1];
+            soup[3 * i + 2] = positions[3 * index + 2];
+        }
+        return build(soup);
+    }
+
+    /**
+     * Builds a hierarchy from a triangle soup.
+     *
+     * @param positions The packed x, y, z components of the vertices, nine per triangle.
+     * @return The hierarchy.
+     */
+    public static TriangleBvh fromTriangles(double[] positions) {
+        if (positions.length % 9 != 0) {
+            throw new DeveloperError("positions length must be a multiple of 9.");
+        }
+        return build(Arrays.copyOf(positions, positions.length));
+    }
+
+    /**
+     * Gets the number of triangles.
+     *
+     * @return The number of triangles.
+     */
+    public int getTriangleCount() {
+        return triangleCount;
+    }
+
+    /**
+     * Gets the number of nodes of the hierarchy.
+     *
+     * @return The number of nodes.
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Finds the nearest intersection of a ray with the triangles.
+     *
+     * @param origin        The origin of the ray.
+     * @param direction     The direction of the ray.
+     * @param cullBackFaces If true, will only compute an intersection with the front face of the triangles.
+     * @param result        The object onto which to store the result.
+     * @return The modified result parameter, a new Intersection instance if one was not provided, or null if
+     * there is no intersection.
+     */
+    public Intersection rayTriangles(Cartesian3d origin, Cartesian3d direction, boolean cullBackFaces,
+                                     Intersection result) {
+        double[] hitT = new double[1];
+        int hit = closestHit(origin.x, origin.y, origin.z, direction.x, direction.y, direction.z,
+                Double.MAX_VALUE, cullBackFaces, new int[STACK_SIZE], new double[STACK_SIZE], hitT);
+        return toIntersection(hit, hitT[0], origin.x, origin.y, origin.z, direction.x, direction.y, direction.z,
+                result);
+    }
+
+    /**
+     * Finds the nearest intersection of a ray with the triangles.
+     *
+     * @param ray           The ray.
+     * @param cullBackFaces If true, will only compute an intersection with the front face of the triangles.
+     * @param result        The object onto which to store the result.
+     * @return The modified result parameter, a new Intersection instance if one was not provided, or null if
+     * there is no intersection.
+     */
+    public Intersection rayTriangles(Ray ray, boolean cullBackFaces, Intersection result) {
+        return rayTriangles(Cartesian3d.fromCartesian3(ray.origin, null),
+                Cartesian3d.fromCartesian3(ray.direction, null), cullBackFaces, result);
+    }
+
+    /**
+     * Finds the intersection of a line segment with the triangles nearest to its first end point.
+     *
+     * @param v0            The first end point of the line segment.
+     * @param v1            The other end point of the line segment.
+     * @param cullBackFaces If true, will only compute an intersection with the front face of the triangles.
+     * @param result        The object onto which to store the result. Its t is the distance from v0.
+     * @return The modified result parameter, a new Intersection instance if one was not provided, or null if
+     * there is no intersection.
+     */
+    public Intersection lineSegmentTriangles(Cartesian3d v0, Cartesian3d v1, boolean cullBackFaces,
+                                             Intersection result) {
+        double dx = v1.x - v0.x;
+        double dy = v1.y - v0.y;
+        double dz = v1.z - v0.z;
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length == 0.0) {
+            return null;
+        }
+        dx /= length;
+        dy /= length;
+        dz /= length;
+        double[] hitT = new double[1];
+        int hit = closestHit(v0.x, v0.y, v0.z, dx, dy, dz, length, cullBackFaces, new int[STACK_SIZE],
+                new double[STACK_SIZE], hitT);
+        return toIntersection(hit, hitT[0], v0.x, v0.y, v0.z, dx, dy, dz, result);
+    }
+
+    /**
+     * Determines whether a line segment intersects any triangle, for example to test a line of sight. Stops at the
+     * first intersection found, which is faster than {@link #lineSegmentTriangles}.
+     *
+     * @param v0            The first end point of the line segment.
+     * @param v1            The other end point of the line segment.
+     * @param cullBackFaces If true, will only compute an intersection with the front face of the triangles.
+     * @return True if the segment intersects a triangle; otherwise, false.
+     */
+    public boolean lineSegmentIntersects(Cartesian3d v0, Cartesian3d v1, boolean cullBackFaces) {
+        return anyHit(v0.x, v0.y, v0.z, v1.x, v1.y, v1.z, cullBackFaces, new int[STACK_SIZE]);
+    }
+
+    /**
+     * Finds the triangles intersecting a sphere.
+     *
+     * @param center The center of the sphere.
+     * @param radius The radius of the sphere.
+     * @param result The array onto which to store the indices of the triangles in the input, as many as fit.
+     * @return The number of intersecting triangles, which may be larger than the length of the result array.
+     */
+    public int sphereTriangles(Cartesian3d center, double radius, int[] result) {
+        return sphereTriangles(center.x, center.y, center.z, radius, result, new int[STACK_SIZE]);
+    }
+
+    /**
+     * Finds the nearest intersections of many rays with the triangles.
+     *
+     * @param rays          The packed origin x, y, z and direction x, y, z components of the rays.
+     * @param offset        The index of the first ray in the array.
+     * @param count         The number of rays.
+     * @param cullBackFaces If true, will only compute an intersection with the front face of the triangles.
+     * @param triangles     The array onto which to store the index of the intersected triangle of each ray, or -1
+     *                      if it does not intersect.
+     * @param t             The array onto which to store the parameter of the intersection of each ray, or NaN if
+     *                      it does not intersect. May be null.
+     * @return The number of rays which intersect a triangle.
+     */
+    public int rayTriangles(double[] rays, int offset, int count, boolean cullBackFaces, int[] triangles,
+                            double[] t) {
+        Geodesicd.checkRange(rays.length, offset, 6, 6, count);
+        if (triangles.length < count || (t != null && t.length < count)) {
+            throw new DeveloperError("result arrays are too small for " + count + " rays.");
+        }
+        int[] stack = new int[STACK_SIZE];
+        double[] stackT = new double[STACK_SIZE];
+        double[] hitT = new double[1];
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            int index = offset + 6 * i;
+            int hit = closestHit(rays[index], rays[index + 1], rays[index + 2], rays[index + 3], rays[index + 4],
+                    rays[index + 5], Double.MAX_VALUE, cullBackFaces, stack, stackT, hitT);
+            triangles[i] = hit < 0 ? -1 : triangleIds[hit];
+            if (t != null) {
+                t[i] = hit < 0 ? Double.NaN : hitT[0];
+            }
+            if (hit >= 0) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Determines for many line segments whether they intersect any triangle, for example to test lines of sight
+     * from one observer to many targets.
+     *
+     * @param segments      The packed x, y, z components of the first and second end point of the segments.
+     * @param offset        The index of the first segment in the array.
+     * @param count         The number of segments.
+     * @param cullBackFaces If true, will only compute an intersection with the front face of the triangles.
+     * @param result        The array onto which to store whether each segment intersects a triangle.
+     * @return The number of segments which intersect a triangle.
+     */
+    public int lineSegmentsIntersect(double[] segments, int offset, int count, boolean cullBackFaces,
+                                     boolean[] result) {
+        Geodesicd.checkRange(segments.length, offset, 6, 6, count);
+        if (result.length < count) {
+            throw new DeveloperError("result array is too small for " + count + " segments.");
+        }
+        int[] stack = new int[STACK_SIZE];
+        int hits = 0;
+        for (int i = 0; i < count; i++) {
+            int index = offset + 6 * i;
+            result[i] = anyHit(segments[index], segments[index + 1], segments[index + 2], segments[index + 3],
+                    segments[index + 4], segments[index + 5], cullBackFaces, stack);
+            if (result[i]) {
+                hits++;
+            }
+        }
+        return hits;
+    }
+
+    private Intersection toIntersection(int hit, double t, double ox, double oy, double oz, double dx, double dy, double dz,
+                                        Intersection result) {
+        if (hit < 0) {
+            return null;
+        }
+        if (result == null) {
+            result = new Intersection();
+        }
+        result.triangle = triangleIds[hit];
+        result.t = t;
+        result.position.x = ox + t * dx;
+        result.position.y = oy + t * dy;
+        result.position.z = oz + t * dz;
+        return result;
+    }
+
+    /**
+     * Returns the nearest triangle hit at a parameter of at most maximumT, which must be finite since misses are
+     * reported as positive infinity, or -1 if there is none.
+     */
+    private int closestHit(double ox, double oy, double oz, double dx, double dy, double dz, double maximumT,
+                           boolean cullBackFaces, int[] stack, double[] stackT, double[] hitT) {
+        if (nodeCount == 0) {
+            return -1;
+        }
+        double ix = dx == 0.0 ? Double.MAX_VALUE : 1.0 / dx;
+        double iy = dy == 0.0 ? Double.MAX_VALUE : 1.0 / dy;
+        double iz = dz == 0.0 ? Double.MAX_VALUE : 1.0 / dz;
+        double best = maximumT;
+        int bestTriangle = -1;
+        double entry = boxEntry(0, ox, oy, oz, ix, iy, iz, best);
+        if (entry > best) {
+            return -1;
+        }
+        int size = 0;
+        stack[size] = 0;
+        stackT[size++] = entry;
+        while (size > 0) {
+            size--;
+            int node = stack[size];
+            if (stackT[size] > best) {
+                continue;
+            }
+            int count = nodeSize[node];
+            if (count > 0) {
+                int first = nodeStart[node];
+                for (int i = first; i < first + count; i++) {
+                    double t = rayTriangle(i, ox, oy, oz, dx, dy, dz, cullBackFaces);
+                    if (t <= best) {
+                        best = t;
+                        bestTriangle = i;
+                    }
+                }
+                continue;
+            }
+            int left = nodeStart[node];
+            int right = left + 1;
+            double leftT = boxEntry(left, ox, oy, oz, ix, iy, iz, best);
+            double rightT = boxEntry(right, ox, oy, oz, ix, iy, iz, best);
+            // Push the farther child first so that the nearer one is visited first
+            if (leftT <= rightT) {
+                if (rightT <= best) {
+                    stack[size] = right;
+                    stackT[size++] = rightT;
+                }
+                if (leftT <= best) {
+                    stack[size] = left;
+                    stackT[size++] = leftT;
+                }
+            } else {
+                if (leftT <= best) {
+                    stack[size] = left;
+                    stackT[size++] = leftT;
+                }
+                if (rightT <= best) {
+                    stack[size] = right;
+                    stackT[size++] = rightT;
+                }
+            }
+        }
+        hitT[0] = best;
+        return bestTriangle;
+    }
+
+    private boolean anyHit(double x0, double y0, double z0, double x1, double y1, double z1, boolean cullBackFaces,
+                           int[] stack) {
+        if (nodeCount == 0) {
+            return false;
+        }
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double dz = z1 - z0;
+        double length = Math.sqrt(dx * dx + dy * dy + dz * dz);
+        if (length == 0.0) {
+            return false;
+        }
+        dx /= length;
+        dy /= length;
+        dz /= length;
+        double ix = dx == 0.0 ? Double.MAX_VALUE : 1.0 / dx;
+        double iy = dy == 0.0 ? Double.MAX_VALUE : 1.0 / dy;
+        double iz = dz == 0.0 ? Double.MAX_VALUE : 1.0 / dz;
+        int size = 0;
+        stack[size++] = 0;
+        while (size > 0) {
+            int node = stack[--size];
+            if (boxEntry(node, x0, y0, z0, ix, iy, iz, length) > length) {
+                continue;
+            }
+            int count = nodeSize[node];
+            if (count > 0) {
+                int first = nodeStart[node];
+                for (int i = first; i < first + count; i++) {
+                    if (rayTriangle(i, x0, y0, z0, dx, dy, dz, cullBackFaces) <= length) {
+                        return true;
+                    }
+                }
+            } else {
+                stack[size++] = nodeStart[node] + 1;
+                stack[size++] = nodeStart[node];
+            }
+        }
+        return false;
+    }
+
+    private int sphereTriangles(double cx, double cy, double cz, double radius, int[] result, int[] stack) {
+        if (nodeCount == 0) {
+            return 0;
+        }
+        double radiusSquared = radius * radius;
+        int found = 0;
+        int size = 0;
+        stack[size++] = 0;
+        while (size > 0) {
+            int node = stack[--size];
+            if (boxDistanceSquared(node, cx, cy, cz) > radiusSquared) {
+                continue;
+            }
+            int count = nodeSize[node];
+            if (count > 0) {
+                int first = nodeStart[node];
+                for (int i = first; i < first + count; i++) {
+                    if (triangleDistanceSquared(i, cx, cy, cz) <= radiusSquared) {
+                        if (found < result.length) {
+                            result[found] = triangleIds[i];
+                        }
+                        found++;
+                    }
+                }
+            } else {
+                stack[size++] = nodeStart[node] + 1;
+                stack[size++] = nodeStart[node];
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the parameter at which the ray enters the box of a node, or positive infinity if it misses the box or
+     * enters it after the maximum.
+     */
+    private double boxEntry(int node, double ox, double oy, double oz, double ix, double iy, double iz,
+                            double maximumT) {
+        int b = 6 * node;
+        double t0 = (nodeBounds[b] - ox) * ix;
+        double t1 = (nodeBounds[b + 3] - ox) * ix;
+        double near = Math.min(t0, t1);
+        double far = Math.max(t0, t1);
+        t0 = (nodeBounds[b + 1] - oy) * iy;
+        t1 = (nodeBounds[b + 4] - oy) * iy;
+        near = Math.max(near, Math.min(t0, t1));
+        far = Math.min(far, Math.max(t0, t1));
+        t0 = (nodeBounds[b + 2] - oz) * iz;
+        t1 = (nodeBounds[b + 5] - oz) * iz;
+        near = Math.max(near, Math.min(t0, t1));
+        far = Math.min(far, Math.max(t0, t1));
+        if (far < near || far < 0.0 || near > maximumT) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return Math.max(near, 0.0);
+    }
+
+    private double boxDistanceSquared(int node, double x, double y, double z) {
+        int b = 6 * node;
+        double d = 0.0;
+        double v = Math.max(Math.max(nodeBounds[b] - x, x - nodeBounds[b + 3]), 0.0);
+        d += v * v;
+        v = Math.max(Math.max(nodeBounds[b + 1] - y, y - nodeBounds[b + 4]), 0.0);
+        d += v * v;
+        v = Math.max(Math.max(nodeBounds[b + 2] - z, z - nodeBounds[b + 5]), 0.0);
+        d += v * v;
+        return d;
+    }
+
+    /**
+     * Intersects a ray with a triangle like IntersectionTests.rayTriangleParametric. Returns positive infinity if
+     * there is no intersection at t &gt;= 0.
+     */
+    private double rayTriangle(int triangle, double ox, double oy, double oz, double dx, double dy, double dz,
+                               boolean cullBackFaces) {
+        int v = 9 * triangle;
+        double p0x = triangles[v];
+        double p0y = triangles[v + 1];
+        double p0z = triangles[v + 2];
+        double e0x = triangles[v + 3] - p0x;
+        double e0y = triangles[v + 4] - p0y;
+        double e0z = triangles[v + 5] - p0z;
+        double e1x = triangles[v + 6] - p0x;
+        double e1y = triangles[v + 7] - p0y;
+        double e1z = triangles[v + 8] - p0z;
+
+        // p = direction x edge1
+        double px = dy * e1z - dz * e1y;
+        double py = dz * e1x - dx * e1z;
+        double pz = dx * e1y - dy * e1x;
+        double det = e0x * px + e0y * py + e0z * pz;
+        double tx = ox - p0x;
+        double ty = oy - p0y;
+        double tz = oz - p0z;
+        double t;
+        if (cullBackFaces) {
+            if (det < CesiumMath.EPSILON6) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double u = tx * px + ty * py + tz * pz;
+            if (u < 0.0 || u > det) {
+                return Double.POSITIVE_INFINITY;
+            }
+            // q = tvec x edge0
+            double qx = ty * e0z - tz * e0y;
+            double qy = tz * e0x - tx * e0z;
+            double qz = tx * e0y - ty * e0x;
+            double w = dx * qx + dy * qy + dz * qz;
+            if (w < 0.0 || u + w > det) {
+                return Double.POSITIVE_INFINITY;
+            }
+            t = (e1x * qx + e1y * qy + e1z * qz) / det;
+        } else {
+            if (Math.abs(det) < CesiumMath.EPSILON6) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double invDet = 1.0 / det;
+            double u = (tx * px + ty * py + tz * pz) * invDet;
+            if (u < 0.0 || u > 1.0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            double qx = ty * e0z - tz * e0y;
+            double qy = tz * e0x - tx * e0z;
+            double qz = tx * e0y - ty * e0x;
+            double w = (dx * qx + dy * qy + dz * qz) * invDet;
+            if (w < 0.0 || u + w > 1.0) {
+                return Double.POSITIVE_INFINITY;
+            }
+            t = (e1x * qx + e1y * qy + e1z * qz) * invDet;
+        }
+        return t < 0.0 ? Double.POSITIVE_INFINITY : t;
+    }
+
+    /**
+     * Squared distance from a point to the closest point of a triangle, see C. Ericson, Real-Time Collision
+     * Detection, 5.1.5.
+     */
+    private double triangleDistanceSquared(int triangle, double x, double y, double z) {
+        int v = 9 * triangle;
+        double ax = triangles[v];
+        double ay = triangles[v + 1];
+        double az = triangles[v + 2];
+        double abx = triangles[v + 3] - ax;
+        double aby = triangles[v + 4] - ay;
+        double abz = triangles[v + 5] - az;
+        double acx = triangles[v + 6] - ax;
+        double acy = triangles[v + 7] - ay;
+        double acz = triangles[v + 8] - az;
+        double apx = x - ax;
+        double apy = y - ay;
+        double apz = z - az;
+
+        double d1 = abx * apx + aby * apy + abz * apz;
+        double d2 = acx * apx + acy * apy + acz * apz;
+        double cx;
+        double cy;
+        double cz;
+        if (d1 <= 0.0 && d2 <= 0.0) {
+            return apx * apx + apy * apy + apz * apz;
+        }
+        double bpx = x - triangles[v + 3];
+        double bpy = y - triangles[v + 4];
+        double bpz = z - triangles[v + 5];
+        double d3 = abx * bpx + aby * bpy + abz * bpz;
+        double d4 = acx * bpx + acy * bpy + acz * bpz;
+        if (d3 >= 0.0 && d4 <= d3) {
+            return bpx * bpx + bpy * bpy + bpz * bpz;
+        }
+        double vc = d1 * d4 - d3 * d2;
+        if (vc <= 0.0 && d1 >= 0.0 && d3 <= 0.0) {
+            double s = d1 / (d1 - d3);
+            cx = apx - s * abx;
+            cy = apy - s * aby;
+            cz = apz - s * abz;
+            return cx * cx + cy * cy + cz * cz;
+        }
+        double cpx = x - triangles[v + 6];
+        double cpy = y - triangles[v + 7];
+        double cpz = z - triangles[v + 8];
+        double d5 = abx * cpx + aby * cpy + abz * cpz;
+        double d6 = acx * cpx + acy * cpy + acz * cpz;
+        if (d6 >= 0.0 && d5 <= d6) {
+            return cpx * cpx + cpy * cpy + cpz * cpz;
+        }
+        double vb = d5 * d2 - d1 * d6;
+        if (vb <= 0.0 && d2 >= 0.0 && d6 <= 0.0) {
+            double s = d2 / (d2 - d6);
+            cx = apx - s * acx;
+            cy = apy - s * acy;
+            cz = apz - s * acz;
+            return cx * cx + cy * cy + cz * cz;
+        }
+        double va = d3 * d6 - d5 * d4;
+        if (va <= 0.0 && (d4 - d3) >= 0.0 && (d5 - d6) >= 0.0) {
+            double s = (d4 - d3) / ((d4 - d3) + (d5 - d6));
+            cx = bpx - s * (acx - abx);
+            cy = bpy - s * (acy - aby);
+            cz = bpz - s * (acz - abz);
+            return cx * cx + cy * cy + cz * cz;
+        }
+        double denominator = 1.0 / (va + vb + vc);
+        double s = vb * denominator;
+        double w = vc * denominator;
+        cx = apx - abx * s - acx * w;
+        cy = apy - aby * s - acy * w;
+        cz = apz - abz * s - acz * w;
+        return cx * cx + cy * cy + cz * cz;
+    }
+
+    private static TriangleBvh build(double[] soup) {
+        int count = soup.length / 9;
+        double[] centroids = new double[3 * count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            int v = 9 * i;
+            centroids[3 * i] = (soup[v] + soup[v + 3] + soup[v + 6]) / 3.0;
+            centroids[3 * i + 1] = (soup[v + 1] + soup[v + 4] + soup[v + 7]) / 3.0;
+            centroids[3 * i + 2] = (soup[v + 2] + soup[v + 5] + soup[v + 8]) / 3.0;
+            order[i] = i;
+        }
+        int maximumNodes = Math.max(2 * count - 1, 0);
+        Builder builder = new Builder(soup, centroids, order, maximumNodes);
+        if (count > 0) {
+            builder.nodeCount = 1;
+            builder.build(0, 0, count);
+        }
+        int nodeCount = builder.nodeCount;
+
+        double[] triangles = new double[9 * count];
+        for (int i = 0; i < count; i++) {
+            System.arraycopy(soup, 9 * order[i], triangles, 9 * i, 9);
+        }
+        double[] nodeBounds = new double[6 * nodeCount];
+        int[] nodeStart = new int[nodeCount];
+        int[] nodeSize = new int[nodeCount];
+        System.arraycopy(builder.nodeBounds, 0, nodeBounds, 0, nodeBounds.length);
+        System.arraycopy(builder.nodeStart, 0, nodeStart, 0, nodeCount);
+        System.arraycopy(builder.nodeSize, 0, nodeSize, 0, nodeCount);
+        return new TriangleBvh(count, nodeCount, nodeBounds, nodeStart, nodeSize, triangles, order);
+    }
+
+    /**
+     * Top-down construction with median splits along the longest axis of the triangle centroids.
+     */
+    private static final class Builder {
+        final double[] soup;
+        final double[] centroids;
+        final int[] order;
+        final double[] nodeBounds;
+        final int[] nodeStart;
+        final int[] nodeSize;
+        int nodeCount;
+
+        Builder(double[] soup, double[] centroids, int[] order, int maximumNodes) {
+            this.soup = soup;
+            this.centroids = centroids;
+            this.order = order;
+            nodeBounds = new double[6 * maximumNodes];
+            nodeStart = new int[maximumNodes];
+            nodeSize = new int[maximumNodes];
+        }
+
+        void build(int node, int start, int end) {
+            double minX = Double.POSITIVE_INFINITY;
+            double minY = Double.POSITIVE_INFINITY;
+            double minZ = Double.POSITIVE_INFINITY;
+            double maxX = Double.NEGATIVE_INFINITY;
+            double maxY = Double.NEGATIVE_INFINITY;
+            double maxZ = Double.NEGATIVE_INFINITY;
+            double cMinX = Double.POSITIVE_INFINITY;
+            double cMinY = Double.POSITIVE_INFINITY;
+            double cMinZ = Double.POSITIVE_INFINITY;
+            double cMaxX = Double.NEGATIVE_INFINITY;
+            double cMaxY = Double.NEGATIVE_INFINITY;
+            double cMaxZ = Double.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                int triangle = order[i];
+                for (int v = 9 * triangle; v < 9 * triangle + 9; v += 3) {
+                    minX = Math.min(minX, soup[v]);
+                    minY = Math.min(minY, soup[v + 1]);
+                    minZ = Math.min(minZ, soup[v + 2]);
+                    maxX = Math.max(maxX, soup[v]);
+                    maxY = Math.max(maxY, soup[v + 1]);
+                    maxZ = Math.max(maxZ, soup[v + 2]);
+                }
+                double x = centroids[3 * triangle];
+                double y = centroids[3 * triangle + 1];
+                double z = centroids[3 * triangle + 2];
+                cMinX = Math.min(cMinX, x);
+                cMinY = Math.min(cMinY, y);
+                cMinZ = Math.min(cMinZ, z);
+                cMaxX = Math.max(cMaxX, x);
+                cMaxY = Math.max(cMaxY, y);
+                cMaxZ = Math.max(cMaxZ, z);
+            }
+            int b = 6 * node;
+            nodeBounds[b] = minX;
+            nodeBounds[b + 1] = minY;
+            nodeBounds[b + 2] = minZ;
+            nodeBounds[b + 3] = maxX;
+            nodeBounds[b + 4] = maxY;
+            nodeBounds[b + 5] = maxZ;
+
+            int count = end - start;
+            if (count <= LEAF_SIZE) {
+                nodeStart[node] = start;
+                nodeSize[node] = count;
+                return;
+            }
+            double extentX = cMaxX - cMinX;
+            double extentY = cMaxY - cMinY;
+            double extentZ = cMaxZ - cMinZ;
+            int axis = extentX >= extentY && extentX >= extentZ ? 0 : (extentY >= extentZ ? 1 : 2);
+            int middle = (start + end) >>> 1;
+            select(start, end - 1, middle, axis);
+
+            int left = nodeCount;
+            nodeCount += 2;
+            nodeStart[node] = left;
+            nodeSize[node] = 0;
+            build(left, start, middle);
+            build(left + 1, middle, end);
+        }
+
+        /**
+         * Reorders order[left..right] so that the element at k has the k-th smallest centroid along the axis, with
+         * smaller centroids before it and larger after it.
+         */
+        private void select(int left, int right, int k, int axis) {
+            while (right > left) {
+                int middle = (left + right) >>> 1;
+                // Median of three as the pivot, moved to the right end
+                if (key(middle, axis) < key(left, axis)) {
+                    swap(middle, left);
+                }
+                if (key(right, axis) < key(left, axis)) {
+                    swap(right, left);
+                }
+                if (key(middle, axis) < key(right, axis)) {
+                    swap(middle, right);
+                }
+                double pivot = key(right, axis);
+                int store = left;
+                for (int i = left; i < right; i++) {
+                    if (key(i, axis) < pivot) {
+                        swap(i, store++);
+                    }
+                }
+                swap(store, right);
+                if (store == k) {
+                    return;
+                } else if (store < k) {
+                    left = store + 1;
+                } else {
+                    right = store - 1;
+                }
+            }
+        }
+
+        private double key(int i, int axis) {
+            return centroids[3 * order[i] + axis];
+        }
+
+        private void swap(int i, int j) {
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+    }
+
+    /**
+     * The intersection of a ray or line segment with a triangle.
+     */
+    public static final class Intersection {
+        /**
+         * The index of the intersected triangle in the input of the hierarchy.
+         */
+        public int triangle = -1;
+        /**
+         * The parameter of the intersection along the ray, or the distance from the first end point of a segment.
+         */
+        public double t = Double.NaN;
+        /**
+         * The intersection point.
+         */
+        public final Cartesian3d position = new Cartesian3d();
+    }
+}
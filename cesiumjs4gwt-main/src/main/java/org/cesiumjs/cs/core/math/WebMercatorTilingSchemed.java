@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.core.WebMercatorTilingScheme;
+import org.cesiumjs.cs.core.projection.WebMercatorProjection;
+
+/**
+ * A tiling scheme for geometry referenced to a {@link WebMercatorProjection}, EPSG:3857, implemented in pure
+ * Java. Mirrors {@link WebMercatorTilingScheme}. This is the tiling scheme used by Google Maps, Microsoft Bing Maps,
+ * and most of ESRI ArcGIS Online.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see WebMercatorTilingScheme
+ */
+public final class WebMercatorTilingSchemed extends TilingSchemed {
+    /**
+     * The maximum latitude (both North and South) supported by a Web Mercator projection, in radians.
+     */
+    public static final double MAXIMUM_LATITUDE = mercatorAngleToGeodeticLatitude(CesiumMath.PI);
+
+    private final double semimajorAxis;
+    private final double southwestX;
+    private final double southwestY;
+    private final double northeastX;
+    private final double northeastY;
+
+    /**
+     * Creates the default scheme: the whole WGS84 ellipsoid up to the maximum latitude with a single level zero
+     * tile.
+     */
+    public WebMercatorTilingSchemed() {
+        this(Ellipsoidd.WGS84, 1, 1);
+    }
+
+    /**
+     * Creates a scheme covering the whole ellipsoid up to the maximum latitude.
+     *
+     * @param ellipsoid               The ellipsoid whose surface is being tiled.
+     * @param numberOfLevelZeroTilesX The number of tiles in the X direction at level zero, 1 or 2.
+     * @param numberOfLevelZeroTilesY The number of tiles in the Y direction at level zero, 1 or 2.
+     */
+    public WebMercatorTilingSchemed(Ellipsoidd ellipsoid, int numberOfLevelZeroTilesX, int numberOfLevelZeroTilesY) {
+        this(ellipsoid, -ellipsoid.getMaximumRadius() * CesiumMath.PI, -ellipsoid.getMaximumRadius() * CesiumMath.PI,
+                ellipsoid.getMaximumRadius() * CesiumMath.PI, ellipsoid.getMaximumRadius() * CesiumMath.PI,
+                numberOfLevelZeroTilesX, numberOfLevelZeroTilesY);
+    }
+
+    /**
+     * Creates a scheme covering a rectangle in Web Mercator meters.
+     *
+     * @param ellipsoid               The ellipsoid whose surface is being tiled.
+     * @param southwestX              The x of the southwest corner of the rectangle, in meters.
+     * @param southwestY              The y of the southwest corner of the rectangle, in meters.
+     * @param northeastX              The x of the northeast corner of the rectangle, in meters.
+     * @param northeastY              The y of the northeast corner of the rectangle, in meters.
+     * @param numberOfLevelZeroTilesX The number of tiles in the X direction at level zero, 1 or 2.
+     * @param numberOfLevelZeroTilesY The number of tiles in the Y direction at level zero, 1 or 2.
+     */
+    public WebMercatorTilingSchemed(Ellipsoidd ellipsoid, double southwestX, double southwestY, double northeastX,
+                                    double northeastY, int numberOfLevelZeroTilesX, int numberOfLevelZeroTilesY) {
+        super(ellipsoid, numberOfLevelZeroTilesX, numberOfLevelZeroTilesY,
+                southwestX / ellipsoid.getMaximumRadius(),
+                mercatorAngleToGeodeticLatitude(southwestY / ellipsoid.getMaximumRadius()),
+                northeastX / ellipsoid.getMaximumRadius(),
+                mercatorAngleToGeodeticLatitude(northeastY / ellipsoid.getMaximumRadius()));
+        semimajorAxis = ellipsoid.getMaximumRadius();
+        this.southwestX = southwestX;
+        this.southwestY = southwestY;
+        this.northeastX = northeastX;
+        this.northeastY = northeastY;
+    }
+
+    /**
+     * Converts a Mercator angle, in the range -PI to PI, to a geodetic latitude in the range -PI/2 to PI/2.
+     *
+     * @param mercatorAngle The angle to convert.
+     * @return The geodetic latitude in radians.
+     */
+    public static double mercatorAngleToGeodeticLatitude(double mercatorAngle) {
+        return CesiumMath.PI_OVER_TWO - 2.0 * Math.atan(Math.exp(-mercatorAngle));
+    }
+
+    /**
+     * Converts a geodetic latitude in radians, in the range -PI/2 to PI/2, to a Mercator angle in the range -PI to
+     * PI.
+     *
+     * @param latitude The geodetic latitude in radians.
+     * @return The Mercator angle.
+     */
+    public static double geodeticLatitudeToMercatorAngle(double latitude) {
+        // Clamp the latitude coordinate to the valid Mercator bounds.
+        if (latitude > MAXIMUM_LATITUDE) {
+            latitude = MAXIMUM_LATITUDE;
+        } else if (latitude < -MAXIMUM_LATITUDE) {
+            latitude = -MAXIMUM_LATITUDE;
+        }
+        double sinLatitude = Math.sin(latitude);
+        return 0.5 * Math.log((1.0 + sinLatitude) / (1.0 - sinLatitude));
+    }
+
+    @Override
+    public double[] tileXYToNativeRectangle(int x, int y, int level, double[] result, int offset) {
+        double xTileWidth = (northeastX - southwestX) / getNumberOfXTilesAtLevel(level);
+        double yTileHeight = (northeastY - southwestY) / getNumberOfYTilesAtLevel(level);
+        return setRectangle(southwestX + x * xTileWidth, northeastY - (y + 1) * yTileHeight,
+                southwestX + (x + 1) * xTileWidth, northeastY - y * yTileHeight, result, offset);
+    }
+
+    @Override
+    public double[] tileXYToRectangle(int x, int y, int level, double[] result, int offset) {
+        tileXYToNativeRectangle(x, y, level, result, offset);
+        double oneOverSemimajorAxis = 1.0 / semimajorAxis;
+        result[offset] *= oneOverSemimajorAxis;
+        result[offset + 1] = mercatorAngleToGeodeticLatitude(result[offset + 1] * oneOverSemimajorAxis);
+        result[offset + 2] *= oneOverSemimajorAxis;
+        result[offset + 3] = mercatorAngleToGeodeticLatitude(result[offset + 3] * oneOverSemimajorAxis);
+        return result;
+    }
+
+    @Override
+    public long positionToTileKey(double longitude, double latitude, int level) {
+        if (!contains(longitude, latitude)) {
+            return TileKey.NONE;
+        }
+        int xTiles = getNumberOfXTilesAtLevel(level);
+        int yTiles = getNumberOfYTilesAtLevel(level);
+        double xTileWidth = (northeastX - southwestX) / xTiles;
+        double yTileHeight = (northeastY - southwestY) / yTiles;
+
+        double projectedX = longitude * semimajorAxis;
+        double projectedY = geodeticLatitudeToMercatorAngle(latitude) * semimajorAxis;
+        int x = (int) ((projectedX - southwestX) / xTileWidth);
+        if (x >= xTiles) {
+            x = xTiles - 1;
+        }
+        int y = (int) ((northeastY - projectedY) / yTileHeight);
+        if (y >= yTiles) {
+            y = yTiles - 1;
+        }
+        return TileKey.fromTileXY(x, y, level);
+    }
+
+    @Override
+    double longitudeToTileX(double longitude) {
+        return (longitude * semimajorAxis - southwestX) / (northeastX - southwestX) * numberOfLevelZeroTilesX;
+    }
+
+    @Override
+    double latitudeToTileY(double latitude) {
+        return (northeastY - geodeticLatitudeToMercatorAngle(latitude) * semimajorAxis) / (northeastY - southwestY)
+                * numberOfLevelZeroTilesY;
+    }
+}
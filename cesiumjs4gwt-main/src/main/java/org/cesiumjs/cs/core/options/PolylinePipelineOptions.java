@@ -17,11 +17,13 @@
 package org.cesiumjs.cs.core.options;
 
 import jsinterop.annotations.JsConstructor;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsPackage;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
 import org.cesiumjs.cs.core.Cartesian3;
 import org.cesiumjs.cs.core.Ellipsoid;
+import org.cesiumjs.cs.core.math.Cartesian3Buffer;
 
 /**
  * @author Serge Silaev aka iSergio
@@ -58,4 +60,17 @@ public class PolylinePipelineOptions {
     @JsConstructor
     public PolylinePipelineOptions() {
     }
+
+    /**
+     * Sets {@link #positions} from a packed buffer. The Cartesian3 objects required by CesiumJS are created with a
+     * single call to {@link Cartesian3#unpackArray}.
+     *
+     * @param positions The packed positions.
+     * @return This options object.
+     */
+    @JsOverlay
+    public final PolylinePipelineOptions setPositions(Cartesian3Buffer positions) {
+        this.positions = positions.toCartesian3Array();
+        return this;
+    }
 }
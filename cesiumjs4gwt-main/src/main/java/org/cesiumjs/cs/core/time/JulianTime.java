@@ -0,0 +1,896 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.time;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.JulianDate;
+
+import java.util.Date;
+
+/**
+ * An astronomical Julian date implemented in pure Java, stored as a whole day number and the seconds into that
+ * day. Like {@link JulianDate} the date is always stored in the International Atomic Time standard (TAI), so the
+ * two fields map one to one and conversion in either direction is two field copies. Comparison and arithmetic
+ * never allocate and never call into JavaScript. UTC input and output go through the current {@link LeapSeconds}
+ * table.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see JulianDate
+ */
+public final class JulianTime implements Comparable<JulianTime> {
+    public static final double SECONDS_PER_MILLISECOND = 0.001;
+    public static final double SECONDS_PER_MINUTE = 60.0;
+    public static final double MINUTES_PER_HOUR = 60.0;
+    public static final double HOURS_PER_DAY = 24.0;
+    public static final double SECONDS_PER_HOUR = 3600.0;
+    public static final double MINUTES_PER_DAY = 1440.0;
+    public static final double SECONDS_PER_DAY = 86400.0;
+    /**
+     * The Julian date of the Unix epoch, January 1, 1970 00:00:00 UTC.
+     */
+    public static final double UNIX_EPOCH_JULIAN_DATE = 2440587.5;
+
+    private static final String ISO8601_ERROR_MESSAGE = "Invalid ISO 8601 date.";
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    /**
+     * The number of whole days, in TAI.
+     */
+    public int dayNumber;
+    /**
+     * The number of seconds into the current day, in TAI, in the range [0, 86400).
+     */
+    public double secondsOfDay;
+
+    /**
+     * Creates a date at Julian day number 0 TAI.
+     */
+    public JulianTime() {
+    }
+
+    /**
+     * Creates a date from TAI components. Fractional days, negative seconds and seconds greater than a day are
+     * normalized.
+     *
+     * @param julianDayNumber The Julian Day Number representing the number of whole days.
+     * @param secondsOfDay    The number of seconds into the current Julian Day Number.
+     */
+    public JulianTime(double julianDayNumber, double secondsOfDay) {
+        setComponents(julianDayNumber, secondsOfDay, this);
+    }
+
+    /**
+     * Creates a date from components in the TAI time standard.
+     *
+     * @param julianDayNumber The Julian Day Number representing the number of whole days.
+     * @param secondsOfDay    The number of seconds into the current Julian Day Number.
+     * @param result          An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime fromTai(double julianDayNumber, double secondsOfDay, JulianTime result) {
+        if (result == null) {
+            result = new JulianTime();
+        }
+        return setComponents(julianDayNumber, secondsOfDay, result);
+    }
+
+    /**
+     * Creates a date from components in the UTC time standard, the default of the {@link JulianDate} constructor.
+     *
+     * @param julianDayNumber The Julian Day Number representing the number of whole days.
+     * @param secondsOfDay    The number of seconds into the current Julian Day Number.
+     * @param result          An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime fromUtc(double julianDayNumber, double secondsOfDay, JulianTime result) {
+        return convertUtcToTai(fromTai(julianDayNumber, secondsOfDay, result));
+    }
+
+    /**
+     * Creates a date from the number of milliseconds since the Unix epoch, as returned by
+     * {@link Date#getTime()} or {@link System#currentTimeMillis()}.
+     *
+     * @param millis The milliseconds since January 1, 1970 00:00:00 UTC.
+     * @param result An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime fromEpochMillis(double millis, JulianTime result) {
+        double days = java.lang.Math.floor(millis / 86400000.0);
+        double secondsOfDay = (millis - days * 86400000.0) * SECONDS_PER_MILLISECOND;
+        return fromUtc(UNIX_EPOCH_JULIAN_DATE + days, secondsOfDay, result);
+    }
+
+    /**
+     * Creates a date for the current time.
+     *
+     * @param result An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime now(JulianTime result) {
+        return fromEpochMillis(System.currentTimeMillis(), result);
+    }
+
+    /**
+     * Copies the components of a native {@link JulianDate}.
+     *
+     * @param julianDate The native date.
+     * @param result     An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     * (Returns null if julianDate is null)
+     */
+    public static JulianTime fromJulianDate(JulianDate julianDate, JulianTime result) {
+        if (julianDate == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new JulianTime();
+        }
+        result.dayNumber = julianDate.dayNumber;
+        result.secondsOfDay = julianDate.secondsOfDay;
+        return result;
+    }
+
+    /**
+     * Copies the components into a native {@link JulianDate}.
+     *
+     * @param julianTime The date.
+     * @param result     An existing native instance to use for the result.
+     * @return The modified result parameter or a new JulianDate instance if none was provided.
+     * (Returns null if julianTime is null)
+     */
+    public static JulianDate toJulianDate(JulianTime julianTime, JulianDate result) {
+        if (julianTime == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new JulianDate();
+        }
+        result.dayNumber = julianTime.dayNumber;
+        result.secondsOfDay = julianTime.secondsOfDay;
+        return result;
+    }
+
+    /**
+     * Creates a date from a Gregorian date in UTC.
+     *
+     * @param year        The year.
+     * @param month       The month, in the range [1, 12].
+     * @param day         The day of the month, starting at 1.
+     * @param hour        The hour, in the range [0, 23].
+     * @param minute      The minute, in the range [0, 59].
+     * @param second      The second, in the range [0, 60], with 60 representing a leap second.
+     * @param millisecond The millisecond, in the range [0.0, 1000.0).
+     * @param result      An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime fromGregorianDate(int year, int month, int day, int hour, int minute, int second,
+                                               double millisecond, JulianTime result) {
+        boolean isLeapSecond = second == 60;
+        if (isLeapSecond) {
+            second--;
+        }
+        double seconds = hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second
+                + millisecond * SECONDS_PER_MILLISECOND;
+        result = fromUtc(computeJulianDayNumber(year, month, day), seconds - SECONDS_PER_DAY / 2.0, result);
+        if (isLeapSecond) {
+            addSeconds(result, 1.0, result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a date from an ISO 8601 date. This method is superior to Date.parse because it will handle all valid
+     * formats defined by the ISO 8601 specification, including leap seconds and sub-millisecond times, which
+     * discarded by most JavaScript implementations. Dates without a time are midnight UTC; times without a time
+     * zone designator are local time.
+     *
+     * @param iso8601String An ISO 8601 date.
+     * @param result        An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     * @throws DeveloperError if the string is not a valid ISO 8601 date.
+     */
+    public static JulianTime fromIso8601(String iso8601String, JulianTime result) {
+        if (iso8601String == null) {
+            throw new DeveloperError("iso8601String is required.");
+        }
+        String value = iso8601String.replace(',', '.');
+        int timeIndex = value.indexOf('T');
+        String date = timeIndex < 0 ? value : value.substring(0, timeIndex);
+        String time = timeIndex < 0 ? null : value.substring(timeIndex + 1);
+
+        // Date part: YYYY, YYYY-MM, YYYY-MM-DD, YYYYMMDD, YYYY-DDD, YYYYDDD, YYYY-Www[-D], YYYYWww[D].
+        int year = parseDigits(date, 0, 4);
+        if (year < 0) {
+            throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+        }
+        String rest = date.substring(4);
+        boolean extended = rest.startsWith("-");
+        if (extended) {
+            rest = rest.substring(1);
+        }
+        int julianDayNumber;
+        if (rest.isEmpty() && !extended) {
+            julianDayNumber = computeJulianDayNumber(year, 1, 1);
+        } else if (rest.startsWith("W")) {
+            int week = parseDigits(rest, 1, 2);
+            String dayString = rest.substring(java.lang.Math.min(3, rest.length()));
+            if (extended && dayString.startsWith("-")) {
+                dayString = dayString.substring(1);
+            }
+            int dayOfWeek = dayString.isEmpty() ? 1 : parseDigits(dayString, 0, dayString.length() == 1 ? 1 : -1);
+            if (week < 1 || week > 53 || dayOfWeek < 1 || dayOfWeek > 7) {
+                throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+            }
+            int january4th = computeJulianDayNumber(year, 1, 4);
+            int firstMonday = january4th - floorMod(january4th, 7);
+            julianDayNumber = firstMonday + (week - 1) * 7 + (dayOfWeek - 1);
+        } else if (rest.length() == 3) {
+            int dayOfYear = parseDigits(rest, 0, 3);
+            if (dayOfYear < 1 || dayOfYear > (isLeapYear(year) ? 366 : 365)) {
+                throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+            }
+            julianDayNumber = computeJulianDayNumber(year, 1, 1) + dayOfYear - 1;
+        } else {
+            int month;
+            int day;
+            if (extended && rest.length() == 2) {
+                month = parseDigits(rest, 0, 2);
+                day = 1;
+            } else if (extended && rest.length() == 5 && rest.charAt(2) == '-') {
+                month = parseDigits(rest, 0, 2);
+                day = parseDigits(rest, 3, 2);
+            } else if (!extended && rest.length() == 4) {
+                month = parseDigits(rest, 0, 2);
+                day = parseDigits(rest, 2, 2);
+            } else {
+                throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+            }
+            if (month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+                throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+            }
+            julianDayNumber = computeJulianDayNumber(year, month, day);
+        }
+
+        double secondsOfDay = 0.0;
+        boolean isLeapSecond = false;
+        if (time != null) {
+            // Time zone designator: Z, +hh, +hh:mm, +hhmm or none for local time.
+            int zoneIndex = indexOfZone(time);
+            String zone = zoneIndex < 0 ? null : time.substring(zoneIndex);
+            if (zoneIndex >= 0) {
+                time = time.substring(0, zoneIndex);
+            }
+
+            // Time part: hh, hh:mm, hhmm, hh:mm:ss, hhmmss, each with an optional fraction of the last component.
+            String fraction = null;
+            int fractionIndex = time.indexOf('.');
+            if (fractionIndex >= 0) {
+                fraction = time.substring(fractionIndex);
+                time = time.substring(0, fractionIndex);
+                if (!isDigits(fraction, 1)) {
+                    throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+                }
+            }
+            int hour;
+            int minute = 0;
+            int second = 0;
+            int components;
+            if (time.length() == 2) {
+                hour = parseDigits(time, 0, 2);
+                components = 1;
+            } else if (time.length() == 4 || (time.length() == 5 && time.charAt(2) == ':')) {
+                hour = parseDigits(time, 0, 2);
+                minute = parseDigits(time, time.length() - 2, 2);
+                components = 2;
+            } else if (time.length() == 6
+                    || (time.length() == 8 && time.charAt(2) == ':' && time.charAt(5) == ':')) {
+                hour = parseDigits(time, 0, 2);
+                minute = parseDigits(time, time.length() == 6 ? 2 : 3, 2);
+                second = parseDigits(time, time.length() - 2, 2);
+                components = 3;
+            } else {
+                throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+            }
+            double fractionValue = fraction == null ? 0.0 : Double.parseDouble("0" + fraction);
+            if (hour < 0 || minute < 0 || second < 0 || hour > 24 || minute > 59 || second > 60
+                    || (hour == 24 && (minute > 0 || second > 0 || fractionValue > 0.0))) {
+                throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+            }
+            isLeapSecond = second == 60;
+            if (isLeapSecond) {
+                second--;
+            }
+            double componentScale = components == 1 ? SECONDS_PER_HOUR
+                    : components == 2 ? SECONDS_PER_MINUTE : 1.0;
+            secondsOfDay = hour * SECONDS_PER_HOUR + minute * SECONDS_PER_MINUTE + second
+                    + fractionValue * componentScale;
+
+            if (zone == null) {
+                int[] gregorian = computeGregorianDate(julianDayNumber);
+                @SuppressWarnings("deprecation")
+                int offset = new Date(gregorian[0] - 1900, gregorian[1] - 1, gregorian[2], hour, minute)
+                        .getTimezoneOffset();
+                secondsOfDay += offset * SECONDS_PER_MINUTE;
+            } else {
+                secondsOfDay -= parseZoneOffsetMinutes(zone) * SECONDS_PER_MINUTE;
+            }
+        }
+
+        result = fromUtc(julianDayNumber, secondsOfDay - SECONDS_PER_DAY / 2.0, result);
+        if (isLeapSecond) {
+            addSeconds(result, 1.0, result);
+        }
+        return result;
+    }
+
+    /**
+     * Creates an ISO 8601 representation of the provided date in UTC, with as many fractional digits as needed.
+     *
+     * @param julianTime The date to be converted.
+     * @return The ISO 8601 representation of the provided date.
+     */
+    public static String toIso8601(JulianTime julianTime) {
+        return toIso8601(julianTime, -1);
+    }
+
+    /**
+     * Creates an ISO 8601 representation of the provided date in UTC.
+     *
+     * @param julianTime The date to be converted.
+     * @param precision  The number of fractional digits used to represent the seconds component, or -1 to use as
+     *                   many as needed.
+     * @return The ISO 8601 representation of the provided date.
+     */
+    public static String toIso8601(JulianTime julianTime, int precision) {
+        JulianTime utc = new JulianTime();
+        boolean isLeapSecond = false;
+        if (!convertTaiToUtc(julianTime, utc)) {
+            addSeconds(julianTime, -1.0, utc);
+            convertTaiToUtc(utc, utc);
+            isLeapSecond = true;
+        }
+        int julianDayNumber = utc.dayNumber;
+        double secondsOfDay = utc.secondsOfDay + SECONDS_PER_DAY / 2.0;
+        if (secondsOfDay >= SECONDS_PER_DAY) {
+            julianDayNumber++;
+            secondsOfDay -= SECONDS_PER_DAY;
+        }
+        int[] gregorian = computeGregorianDate(julianDayNumber);
+        int hour = (int) (secondsOfDay / SECONDS_PER_HOUR);
+        double remainingSeconds = secondsOfDay - hour * SECONDS_PER_HOUR;
+        int minute = (int) (remainingSeconds / SECONDS_PER_MINUTE);
+        remainingSeconds -= minute * SECONDS_PER_MINUTE;
+        int second = (int) remainingSeconds;
+        // Round away binary noise before truncating to the requested precision.
+        long nanos = java.lang.Math.round((remainingSeconds - second) * 1e9);
+        if (nanos >= 1000000000L) {
+            nanos = 999999999L;
+        }
+        if (isLeapSecond) {
+            second++;
+        }
+
+        int year = gregorian[0];
+        int month = gregorian[1];
+        int day = gregorian[2];
+        // Special case - Iso8601.MAXIMUM_VALUE.
+        if (year == 10000 && month == 1 && day == 1 && hour == 0 && minute == 0 && second == 0 && nanos == 0) {
+            return "9999-12-31T24:00:00Z";
+        }
+
+        StringBuilder builder = new StringBuilder(32);
+        pad(builder, year, 4).append('-');
+        pad(builder, month, 2).append('-');
+        pad(builder, day, 2).append('T');
+        pad(builder, hour, 2).append(':');
+        pad(builder, minute, 2).append(':');
+        pad(builder, second, 2);
+        if (precision != 0 && (precision > 0 || nanos != 0)) {
+            StringBuilder digits = new StringBuilder(9);
+            pad(digits, (int) nanos, 9);
+            int length;
+            if (precision > 0) {
+                while (digits.length() < precision) {
+                    digits.append('0');
+                }
+                length = precision;
+            } else {
+                length = digits.length();
+                while (length > 3 && digits.charAt(length - 1) == '0') {
+                    length--;
+                }
+            }
+            builder.append('.').append(digits, 0, length);
+        }
+        return builder.append('Z').toString();
+    }
+
+    /**
+     * Converts a date given by its UTC components, as stored in the provided instance, to TAI in place.
+     *
+     * @param julianTime The date whose components are in UTC.
+     * @return The julianTime parameter, now in TAI.
+     */
+    public static JulianTime convertUtcToTai(JulianTime julianTime) {
+        LeapSeconds leapSeconds = LeapSeconds.getCurrent();
+        int index = leapSeconds.binarySearch(julianTime.dayNumber, julianTime.secondsOfDay);
+        if (index < 0) {
+            index = ~index;
+        }
+        if (index >= leapSeconds.size()) {
+            index = leapSeconds.size() - 1;
+        }
+        int offset = leapSeconds.getOffset(index);
+        if (index > 0) {
+            // Now we have the index of the closest leap second that comes on or after our UTC time.
+            // However, if the difference between the UTC date being converted and the TAI
+            // defined leap second is greater than the offset, we are off by one and need to use
+            // the previous leap second.
+            double difference = (leapSeconds.getDayNumber(index) - julianTime.dayNumber) * SECONDS_PER_DAY
+                    + (leapSeconds.getSecondsOfDay(index) - julianTime.secondsOfDay);
+            if (difference > offset) {
+                index--;
+                offset = leapSeconds.getOffset(index);
+            }
+        }
+        return addSeconds(julianTime, offset, julianTime);
+    }
+
+    /**
+     * Converts a TAI date to its UTC components.
+     *
+     * @param julianTime The date in TAI.
+     * @param result     The instance onto which to store the UTC components. May be the same as julianTime.
+     * @return true if the conversion succeeded, false if the date is during a leap second, which cannot be
+     * represented in UTC components.
+     */
+    public static boolean convertTaiToUtc(JulianTime julianTime, JulianTime result) {
+        LeapSeconds leapSeconds = LeapSeconds.getCurrent();
+        int index = leapSeconds.binarySearch(julianTime.dayNumber, julianTime.secondsOfDay);
+        if (index < 0) {
+            index = ~index;
+        }
+        // All dates before our leap second table are the same offset as the first leap second.
+        if (index == 0) {
+            addSeconds(julianTime, -leapSeconds.getOffset(0), result);
+            return true;
+        }
+        // All dates after our leap second table are the same offset as the last leap second.
+        if (index >= leapSeconds.size()) {
+            addSeconds(julianTime, -leapSeconds.getOffset(index - 1), result);
+            return true;
+        }
+        // Convert the date to UTC and then check if it's a leap second.
+        double difference = (leapSeconds.getDayNumber(index) - julianTime.dayNumber) * SECONDS_PER_DAY
+                + (leapSeconds.getSecondsOfDay(index) - julianTime.secondsOfDay);
+        if (difference == 0) {
+            // The date is in our leap second table.
+            addSeconds(julianTime, -leapSeconds.getOffset(index), result);
+            return true;
+        }
+        if (difference <= 1.0) {
+            // The requested date is during the moment of a leap second, then we cannot convert to UTC.
+            return false;
+        }
+        // The time is in between two leap seconds, index is the leap second after the date
+        // we're converting, so we subtract one to get the correct offset.
+        addSeconds(julianTime, -leapSeconds.getOffset(index - 1), result);
+        return true;
+    }
+
+    /**
+     * Computes the number of seconds the provided instance is ahead of UTC.
+     *
+     * @param julianTime The date.
+     * @return The number of seconds the provided instance is ahead of UTC.
+     */
+    public static int computeTaiMinusUtc(JulianTime julianTime) {
+        return LeapSeconds.getCurrent().computeTaiMinusUtc(julianTime.dayNumber, julianTime.secondsOfDay);
+    }
+
+    /**
+     * Computes the number of milliseconds since the Unix epoch, as used by {@link Date#getTime()}. A date during a
+     * leap second is reported as the last millisecond before it, as JavaScript dates cannot represent leap seconds.
+     *
+     * @param julianTime The date.
+     * @return The number of milliseconds since January 1, 1970 00:00:00 UTC.
+     */
+    public static double toEpochMillis(JulianTime julianTime) {
+        JulianTime utc = new JulianTime();
+        if (!convertTaiToUtc(julianTime, utc)) {
+            addSeconds(julianTime, -1.0, utc);
+            convertTaiToUtc(utc, utc);
+        }
+        double days = utc.dayNumber - UNIX_EPOCH_JULIAN_DATE;
+        return java.lang.Math.round((days * SECONDS_PER_DAY + utc.secondsOfDay) * 1000.0 * 1000.0) / 1000.0;
+    }
+
+    /**
+     * Adds the provided number of seconds to the provided date instance.
+     *
+     * @param julianTime The date.
+     * @param seconds    The number of seconds to add or subtract.
+     * @param result     An existing instance to use for the result. May be the same as julianTime.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime addSeconds(JulianTime julianTime, double seconds, JulianTime result) {
+        if (result == null) {
+            result = new JulianTime();
+        }
+        return setComponents(julianTime.dayNumber, julianTime.secondsOfDay + seconds, result);
+    }
+
+    /**
+     * Adds the provided number of minutes to the provided date instance.
+     *
+     * @param julianTime The date.
+     * @param minutes    The number of minutes to add or subtract.
+     * @param result     An existing instance to use for the result. May be the same as julianTime.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime addMinutes(JulianTime julianTime, double minutes, JulianTime result) {
+        return addSeconds(julianTime, minutes * SECONDS_PER_MINUTE, result);
+    }
+
+    /**
+     * Adds the provided number of hours to the provided date instance.
+     *
+     * @param julianTime The date.
+     * @param hours      The number of hours to add or subtract.
+     * @param result     An existing instance to use for the result. May be the same as julianTime.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime addHours(JulianTime julianTime, double hours, JulianTime result) {
+        return addSeconds(julianTime, hours * SECONDS_PER_HOUR, result);
+    }
+
+    /**
+     * Adds the provided number of days to the provided date instance.
+     *
+     * @param julianTime The date.
+     * @param days       The number of days to add or subtract.
+     * @param result     An existing instance to use for the result. May be the same as julianTime.
+     * @return The modified result parameter or a new instance if none was provided.
+     */
+    public static JulianTime addDays(JulianTime julianTime, double days, JulianTime result) {
+        if (result == null) {
+            result = new JulianTime();
+        }
+        return setComponents(julianTime.dayNumber + days, julianTime.secondsOfDay, result);
+    }
+
+    /**
+     * Computes the difference in seconds between the provided instances, keeping sub-second precision.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return The difference, in seconds, when subtracting right from left.
+     */
+    public static double secondsDifference(JulianTime left, JulianTime right) {
+        return (left.dayNumber - right.dayNumber) * SECONDS_PER_DAY + (left.secondsOfDay - right.secondsOfDay);
+    }
+
+    /**
+     * Computes the difference in days between the provided instances.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return The difference, in days, when subtracting right from left.
+     */
+    public static double daysDifference(JulianTime left, JulianTime right) {
+        return (left.dayNumber - right.dayNumber) + (left.secondsOfDay - right.secondsOfDay) / SECONDS_PER_DAY;
+    }
+
+    /**
+     * Computes the total number of whole and fractional days represented by the provided instance.
+     *
+     * @param julianTime The date.
+     * @return The Julian date as single floating point number.
+     */
+    public static double totalDays(JulianTime julianTime) {
+        return julianTime.dayNumber + julianTime.secondsOfDay / SECONDS_PER_DAY;
+    }
+
+    /**
+     * Compares two instances.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return A negative value if left is less than right, a positive value if left is greater than right, or zero
+     * if left and right are equal.
+     */
+    public static int compare(JulianTime left, JulianTime right) {
+        if (left.dayNumber != right.dayNumber) {
+            return left.dayNumber < right.dayNumber ? -1 : 1;
+        }
+        if (left.secondsOfDay != right.secondsOfDay) {
+            return left.secondsOfDay < right.secondsOfDay ? -1 : 1;
+        }
+        return 0;
+    }
+
+    /**
+     * Compares two instances and returns true if they are equal, false otherwise.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return true if the dates are equal; otherwise, false.
+     */
+    public static boolean equals(JulianTime left, JulianTime right) {
+        return left == right || (left != null && right != null && left.dayNumber == right.dayNumber
+                && left.secondsOfDay == right.secondsOfDay);
+    }
+
+    /**
+     * Compares two instances and returns true if they are within epsilon seconds of each other.
+     *
+     * @param left    The first instance.
+     * @param right   The second instance.
+     * @param epsilon The maximum number of seconds that should separate the two instances.
+     * @return true if the two dates are within epsilon seconds of each other; otherwise false.
+     */
+    public static boolean equalsEpsilon(JulianTime left, JulianTime right, double epsilon) {
+        return left == right || (left != null && right != null
+                && java.lang.Math.abs(secondsDifference(left, right)) <= epsilon);
+    }
+
+    /**
+     * Compares the provided instances and returns true if left is earlier than right, false otherwise.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return true if left is earlier than right, false otherwise.
+     */
+    public static boolean lessThan(JulianTime left, JulianTime right) {
+        return compare(left, right) < 0;
+    }
+
+    /**
+     * Compares the provided instances and returns true if left is earlier than or equal to right, false otherwise.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return true if left is earlier than or equal to right, false otherwise.
+     */
+    public static boolean lessThanOrEquals(JulianTime left, JulianTime right) {
+        return compare(left, right) <= 0;
+    }
+
+    /**
+     * Compares the provided instances and returns true if left is later than right, false otherwise.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return true if left is later than right, false otherwise.
+     */
+    public static boolean greaterThan(JulianTime left, JulianTime right) {
+        return compare(left, right) > 0;
+    }
+
+    /**
+     * Compares the provided instances and returns true if left is later than or equal to right, false otherwise.
+     *
+     * @param left  The first instance.
+     * @param right The second instance.
+     * @return true if left is later than or equal to right, false otherwise.
+     */
+    public static boolean greaterThanOrEquals(JulianTime left, JulianTime right) {
+        return compare(left, right) >= 0;
+    }
+
+    /**
+     * Duplicates a JulianTime instance.
+     *
+     * @param julianTime The date to duplicate.
+     * @param result     An existing instance to use for the result.
+     * @return The modified result parameter or a new instance if none was provided.
+     * (Returns null if julianTime is null)
+     */
+    public static JulianTime clone(JulianTime julianTime, JulianTime result) {
+        if (julianTime == null) {
+            return null;
+        }
+        if (result == null) {
+            result = new JulianTime();
+        }
+        result.dayNumber = julianTime.dayNumber;
+        result.secondsOfDay = julianTime.secondsOfDay;
+        return result;
+    }
+
+    /**
+     * Sets the TAI components of this instance, normalizing them.
+     *
+     * @param julianDayNumber The Julian Day Number representing the number of whole days.
+     * @param secondsOfDay    The number of seconds into the current Julian Day Number.
+     * @return This instance.
+     */
+    public JulianTime set(double julianDayNumber, double secondsOfDay) {
+        return setComponents(julianDayNumber, secondsOfDay, this);
+    }
+
+    /**
+     * Duplicates this instance.
+     *
+     * @return A new JulianTime instance.
+     */
+    public JulianTime clone() {
+        return clone(this, null);
+    }
+
+    @Override
+    public int compareTo(JulianTime other) {
+        return compare(this, other);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof JulianTime && equals(this, (JulianTime) obj);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * dayNumber + Double.valueOf(secondsOfDay).hashCode();
+    }
+
+    /**
+     * Creates a string representing this date in ISO8601 format.
+     *
+     * @return A string representing this date in ISO8601 format.
+     */
+    @Override
+    public String toString() {
+        return toIso8601(this);
+    }
+
+    private static JulianTime setComponents(double julianDayNumber, double secondsOfDay, JulianTime result) {
+        double wholeDays = julianDayNumber < 0 ? java.lang.Math.ceil(julianDayNumber)
+                : java.lang.Math.floor(julianDayNumber);
+        secondsOfDay += (julianDayNumber - wholeDays) * SECONDS_PER_DAY;
+
+        double extraDays = secondsOfDay / SECONDS_PER_DAY;
+        extraDays = extraDays < 0 ? java.lang.Math.ceil(extraDays) : java.lang.Math.floor(extraDays);
+        wholeDays += extraDays;
+        secondsOfDay -= SECONDS_PER_DAY * extraDays;
+
+        if (secondsOfDay < 0) {
+            wholeDays--;
+            secondsOfDay += SECONDS_PER_DAY;
+        }
+
+        result.dayNumber = (int) wholeDays;
+        result.secondsOfDay = secondsOfDay;
+        return result;
+    }
+
+    /**
+     * Computes the noon-based Julian Day Number of a Gregorian calendar date. Algorithm from page 604 of the
+     * Explanatory Supplement to the Astronomical Almanac (Seidelmann 1992).
+     */
+    static int computeJulianDayNumber(int year, int month, int day) {
+        int a = (month - 14) / 12;
+        int b = year + 4800 + a;
+        return (1461 * b) / 4 + (367 * (month - 2 - 12 * a)) / 12 - (3 * ((b + 100) / 100)) / 4 + day - 32075;
+    }
+
+    /**
+     * Computes the Gregorian calendar date { year, month, day } of a noon-based Julian Day Number. Algorithm from
+     * page 604 of the Explanatory Supplement to the Astronomical Almanac (Seidelmann 1992).
+     */
+    static int[] computeGregorianDate(int julianDayNumber) {
+        int l = julianDayNumber + 68569;
+        int n = (4 * l) / 146097;
+        l = l - (146097 * n + 3) / 4;
+        int i = (4000 * (l + 1)) / 1461001;
+        l = l - (1461 * i) / 4 + 31;
+        int j = (80 * l) / 2447;
+        int day = l - (2447 * j) / 80;
+        l = j / 11;
+        int month = j + 2 - 12 * l;
+        int year = 100 * (n - 49) + i + l;
+        return new int[]{year, month, day};
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return month == 2 && isLeapYear(year) ? 29 : DAYS_IN_MONTH[month - 1];
+    }
+
+    private static int floorMod(int value, int divisor) {
+        int mod = value % divisor;
+        return mod < 0 ? mod + divisor : mod;
+    }
+
+    /**
+     * Parses exactly count decimal digits starting at start, or all remaining characters if count is negative.
+     * Returns -1 if the characters are missing or not digits.
+     */
+    private static int parseDigits(String value, int start, int count) {
+        int end = count < 0 ? value.length() : start + count;
+        if (start < 0 || end > value.length() || end <= start) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            result = result * 10 + (c - '0');
+        }
+        return result;
+    }
+
+    private static boolean isDigits(String value, int start) {
+        if (start >= value.length()) {
+            return false;
+        }
+        for (int i = start; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOfZone(String time) {
+        for (int i = 0; i < time.length(); i++) {
+            char c = time.charAt(i);
+            if (c == 'Z' || c == '+' || c == '-') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int parseZoneOffsetMinutes(String zone) {
+        if (zone.equals("Z")) {
+            return 0;
+        }
+        int sign = zone.charAt(0) == '-' ? -1 : 1;
+        String offset = zone.substring(1);
+        int hours;
+        int minutes = 0;
+        if (offset.length() == 2) {
+            hours = parseDigits(offset, 0, 2);
+        } else if (offset.length() == 4) {
+            hours = parseDigits(offset, 0, 2);
+            minutes = parseDigits(offset, 2, 2);
+        } else if (offset.length() == 5 && offset.charAt(2) == ':') {
+            hours = parseDigits(offset, 0, 2);
+            minutes = parseDigits(offset, 3, 2);
+        } else {
+            throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+        }
+        if (hours < 0 || minutes < 0 || hours > 23 || minutes > 59) {
+            throw new DeveloperError(ISO8601_ERROR_MESSAGE);
+        }
+        return sign * (hours * 60 + minutes);
+    }
+
+    private static StringBuilder pad(StringBuilder builder, int value, int width) {
+        String digits = Integer.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            builder.append('0');
+        }
+        return builder.append(digits);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.time;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.JulianDate;
+import org.cesiumjs.cs.core.LeapSecond;
+
+/**
+ * An immutable, sorted table of leap seconds used by {@link JulianTime} to convert between the UTC and TAI time
+ * standards. Each entry is the TAI date at which a leap second occurs and the cumulative number of seconds TAI is
+ * ahead of UTC from that date on. The default table matches the one shipped with CesiumJS and can be replaced with
+ * {@link #setCurrent(LeapSeconds)}, for example with {@link #fromLeapSeconds(LeapSecond[])} of
+ * {@link JulianDate#leapSeconds}.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see LeapSecond
+ */
+public final class LeapSeconds {
+    /**
+     * The leap seconds known to CesiumJS, from January 1, 1972 through January 1, 2017.
+     */
+    public static final LeapSeconds DEFAULT = new LeapSeconds(
+            new int[]{2441317, 2441499, 2441683, 2442048, 2442413, 2442778, 2443144, 2443509, 2443874, 2444239,
+                    2444786, 2445151, 2445516, 2446247, 2447161, 2447892, 2448257, 2448804, 2449169, 2449534,
+                    2450083, 2450630, 2451179, 2453736, 2454832, 2456109, 2457204, 2457754},
+            new double[]{43210.0, 43211.0, 43212.0, 43213.0, 43214.0, 43215.0, 43216.0, 43217.0, 43218.0, 43219.0,
+                    43220.0, 43221.0, 43222.0, 43223.0, 43224.0, 43225.0, 43226.0, 43227.0, 43228.0, 43229.0,
+                    43230.0, 43231.0, 43232.0, 43233.0, 43234.0, 43235.0, 43236.0, 43237.0},
+            new int[]{10, 11, 12, 13, 14, 15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27, 28, 29, 30, 31, 32, 33,
+                    34, 35, 36, 37});
+
+    private static LeapSeconds current = DEFAULT;
+
+    private final int[] dayNumbers;
+    private final double[] secondsOfDay;
+    private final int[] offsets;
+
+    /**
+     * Creates a leap second table.
+     *
+     * @param dayNumbers   The TAI day numbers of the leap seconds, in ascending order.
+     * @param secondsOfDay The TAI seconds of day of the leap seconds.
+     * @param offsets      The number of seconds TAI is ahead of UTC at each leap second.
+     */
+    public LeapSeconds(int[] dayNumbers, double[] secondsOfDay, int[] offsets) {
+        if (dayNumbers.length == 0 || dayNumbers.length != secondsOfDay.length
+                || dayNumbers.length != offsets.length) {
+            throw new DeveloperError("dayNumbers, secondsOfDay and offsets must be non-empty and of equal length.");
+        }
+        for (int i = 1; i < dayNumbers.length; i++) {
+            if (compare(dayNumbers[i - 1], secondsOfDay[i - 1], dayNumbers[i], secondsOfDay[i]) >= 0) {
+                throw new DeveloperError("leap seconds must be sorted in ascending order.");
+            }
+        }
+        this.dayNumbers = copy(dayNumbers);
+        this.secondsOfDay = copy(secondsOfDay);
+        this.offsets = copy(offsets);
+    }
+
+    /**
+     * Creates a leap second table from native leap seconds, for example {@link JulianDate#leapSeconds}.
+     *
+     * @param leapSeconds The leap seconds, in ascending order.
+     * @return A new table.
+     */
+    public static LeapSeconds fromLeapSeconds(LeapSecond[] leapSeconds) {
+        int length = leapSeconds.length;
+        int[] dayNumbers = new int[length];
+        double[] secondsOfDay = new double[length];
+        int[] offsets = new int[length];
+        for (int i = 0; i < length; i++) {
+            dayNumbers[i] = leapSeconds[i].julianDate.dayNumber;
+            secondsOfDay[i] = leapSeconds[i].julianDate.secondsOfDay;
+            offsets[i] = leapSeconds[i].offset;
+        }
+        return new LeapSeconds(dayNumbers, secondsOfDay, offsets);
+    }
+
+    /**
+     * Gets the table used by {@link JulianTime}.
+     *
+     * @return The current table.
+     */
+    public static LeapSeconds getCurrent() {
+        return current;
+    }
+
+    /**
+     * Sets the table used by {@link JulianTime}.
+     *
+     * @param leapSeconds The new table.
+     */
+    public static void setCurrent(LeapSeconds leapSeconds) {
+        if (leapSeconds == null) {
+            throw new DeveloperError("leapSeconds is required.");
+        }
+        current = leapSeconds;
+    }
+
+    /**
+     * Gets the number of leap seconds in the table.
+     *
+     * @return The number of leap seconds.
+     */
+    public int size() {
+        return dayNumbers.length;
+    }
+
+    /**
+     * Gets the TAI day number of the leap second at the provided index.
+     *
+     * @param index The index of the leap second.
+     * @return The day number.
+     */
+    public int getDayNumber(int index) {
+        return dayNumbers[index];
+    }
+
+    /**
+     * Gets the TAI seconds of day of the leap second at the provided index.
+     *
+     * @param index The index of the leap second.
+     * @return The seconds of day.
+     */
+    public double getSecondsOfDay(int index) {
+        return secondsOfDay[index];
+    }
+
+    /**
+     * Gets the number of seconds TAI is ahead of UTC at the leap second at the provided index.
+     *
+     * @param index The index of the leap second.
+     * @return The offset in seconds.
+     */
+    public int getOffset(int index) {
+        return offsets[index];
+    }
+
+    /**
+     * Finds the leap second at the provided TAI date.
+     *
+     * @param dayNumber    The TAI day number.
+     * @param secondsOfDay The TAI seconds of day.
+     * @return The index of the leap second, if found; otherwise the bitwise complement of the index at which it
+     * would be inserted.
+     */
+    public int binarySearch(int dayNumber, double secondsOfDay) {
+        int low = 0;
+        int high = dayNumbers.length - 1;
+        while (low <= high) {
+            int i = (low + high) >>> 1;
+            int comparison = compare(dayNumbers[i], this.secondsOfDay[i], dayNumber, secondsOfDay);
+            if (comparison < 0) {
+                low = i + 1;
+            } else if (comparison > 0) {
+                high = i - 1;
+            } else {
+                return i;
+            }
+        }
+        return ~(high + 1);
+    }
+
+    /**
+     * Computes the number of seconds the provided TAI date is ahead of UTC.
+     *
+     * @param dayNumber    The TAI day number.
+     * @param secondsOfDay The TAI seconds of day.
+     * @return The number of seconds TAI is ahead of UTC.
+     */
+    public int computeTaiMinusUtc(int dayNumber, double secondsOfDay) {
+        int index = binarySearch(dayNumber, secondsOfDay);
+        if (index < 0) {
+            index = ~index;
+            --index;
+            if (index < 0) {
+                index = 0;
+            }
+        }
+        return offsets[index];
+    }
+
+    private static int compare(int leftDayNumber, double leftSecondsOfDay, int rightDayNumber,
+                               double rightSecondsOfDay) {
+        if (leftDayNumber != rightDayNumber) {
+            return leftDayNumber < rightDayNumber ? -1 : 1;
+        }
+        return Double.compare(leftSecondsOfDay, rightSecondsOfDay);
+    }
+
+    private static int[] copy(int[] array) {
+        int[] result = new int[array.length];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+
+    private static double[] copy(double[] array) {
+        double[] result = new double[array.length];
+        System.arraycopy(array, 0, result, 0, array.length);
+        return result;
+    }
+}
@@ -25,6 +25,7 @@ import org.cesiumjs.cs.promise.Promise;
 
 /**
  * @author Serge Silaev aka iSergio
+ * @see CzmlStreamIngester
  */
 @JsType(isNative = true, namespace = "Cesium", name = "CzmlDataSource")
 public class CzmlDataSource implements DataSource {
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * Splits CZML text into the text of its packets as the text arrives in chunks. A CZML document is an array of
+ * packets, so each packet is a complete JSON object as soon as its closing brace arrives, long before the end of
+ * the document. Packets are found by counting braces and brackets outside of strings; they are neither parsed nor
+ * validated, so a malformed packet is only reported when it is parsed.
+ * <p>
+ * Both a document, that is one array of packets, and a stream of packets separated by white space or commas, such
+ * as newline-delimited CZML, are accepted. Chunks may be split anywhere, even inside a string or an escape.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see CzmlStreamIngester
+ */
+public final class CzmlPacketTokenizer {
+    private final StringBuilder buffer = new StringBuilder();
+    // The index of the next character to scan and of the first character of the current packet, or -1
+    private int scan;
+    private int packetStart = -1;
+    // The nesting depth inside the current packet, 0 between packets
+    private int depth;
+    private boolean inString;
+    private boolean escape;
+    private boolean inDocument;
+    private int packetCount;
+
+    /**
+     * Creates a tokenizer.
+     */
+    public CzmlPacketTokenizer() {
+    }
+
+    /**
+     * Appends the next chunk of text.
+     *
+     * @param chunk The text.
+     */
+    public void append(String chunk) {
+        buffer.append(chunk);
+    }
+
+    /**
+     * Gets the text of the next complete packet.
+     *
+     * @return The text of the packet, or null if no further packet is complete yet.
+     * @throws DeveloperError if a character other than white space or a comma is found between packets; it is
+     *                        skipped, so calling again goes on after it.
+     */
+    public String next() {
+        StringBuilder buffer = this.buffer;
+        int length = buffer.length();
+        for (int i = scan; i < length; i++) {
+            char c = buffer.charAt(i);
+            if (inString) {
+                if (escape) {
+                    escape = false;
+                } else if (c == '\\') {
+                    escape = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (depth > 0) {
+                if (c == '"') {
+                    inString = true;
+                } else if (c == '{' || c == '[') {
+                    depth++;
+                } else if ((c == '}' || c == ']') && --depth == 0) {
+                    String packet = buffer.substring(packetStart, i + 1);
+                    scan = i + 1;
+                    packetStart = -1;
+                    packetCount++;
+                    return packet;
+                }
+            } else if (c == '{') {
+                packetStart = i;
+                depth = 1;
+            } else if (c == '[' && !inDocument) {
+                inDocument = true;
+            } else if (c == ']' && inDocument) {
+                inDocument = false;
+            } else if (c != ',' && c != ' ' && c != '\n' && c != '\r' && c != '\t' && c != '\uFEFF') {
+                // Skip the character, so that the next call goes on with the rest of the text
+                scan = i + 1;
+                throw new DeveloperError("Unexpected character '" + c + "' between CZML packets.");
+            }
+        }
+        // Drop the returned packets and keep the start of the partial one, if any
+        int start = depth > 0 ? packetStart : length;
+        buffer.delete(0, start);
+        scan = length - start;
+        if (depth > 0) {
+            packetStart = 0;
+        }
+        return null;
+    }
+
+    /**
+     * Determines whether text of an incomplete packet is waiting for further chunks.
+     *
+     * @return true if a packet has started but not ended.
+     */
+    public boolean hasPartialPacket() {
+        return depth > 0;
+    }
+
+    /**
+     * Gets the number of packets returned so far.
+     *
+     * @return The number of packets.
+     */
+    public int getPacketCount() {
+        return packetCount;
+    }
+
+    /**
+     * Discards all text and restarts as if nothing was appended.
+     */
+    public void reset() {
+        buffer.setLength(0);
+        scan = 0;
+        packetStart = -1;
+        depth = 0;
+        inString = false;
+        escape = false;
+        inDocument = false;
+        packetCount = 0;
+    }
+}
@@ -0,0 +1,632 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import com.google.gwt.core.client.Duration;
+import com.google.gwt.core.client.JavaScriptObject;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Event;
+import org.cesiumjs.cs.core.JulianDate;
+import org.cesiumjs.cs.js.JsJSON;
+import org.cesiumjs.cs.promise.Executor;
+import org.cesiumjs.cs.promise.Fulfill;
+import org.cesiumjs.cs.promise.Promise;
+import org.cesiumjs.cs.promise.Reject;
+import org.cesiumjs.cs.scene.Scene;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streams CZML into a {@link CzmlDataSource} a few packets per frame. {@link CzmlDataSource#process(Object)}
+ * processes a whole document at once, which freezes the application for seconds on a large document; this
+ * ingester splits the text into packets as it arrives with a {@link CzmlPacketTokenizer}, and hands them to
+ * {@code process} in batches sized to a time budget per frame.
+ * <p>
+ * A batch is started by the {@link Scene#preUpdate()} event and processed by the data source right after the
+ * frame, so only one batch is in flight at a time. The size of the next batch is the frame budget divided by the
+ * average time per packet of the previous batches. While a batch is in flight, or if packets arrive faster than
+ * they are processed, packets queue up; once the queue reaches the high-water mark the ingester is backpressured:
+ * {@link #append(String)} returns false, a streaming {@link #load(String)} stops reading, and the backpressure
+ * listeners are notified. Reading resumes once the queue has drained to half of the high-water mark.
+ * <pre>
+ * CzmlStreamIngester ingester = new CzmlStreamIngester(dataSource, viewer.scene());
+ * ingester.setFrameBudget(6.0);
+ * ingester.load("data/tracks.czml").then(...);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see CzmlPacketTokenizer
+ */
+public final class CzmlStreamIngester {
+    /**
+     * The default time budget per frame, in milliseconds.
+     */
+    public static final double DEFAULT_FRAME_BUDGET = 8.0;
+    /**
+     * The default maximum number of packets processed per batch.
+     */
+    public static final int DEFAULT_MAXIMUM_BATCH_SIZE = 2000;
+    /**
+     * The default number of queued packets at which the ingester is backpressured.
+     */
+    public static final int DEFAULT_HIGH_WATER_MARK = 20000;
+    /**
+     * The number of packets of the first batch, which measures the time per packet.
+     */
+    private static final int INITIAL_BATCH_SIZE = 16;
+
+    private final CzmlDataSource dataSource;
+    private final Scene scene;
+    private final CzmlPacketTokenizer tokenizer = new CzmlPacketTokenizer();
+    private final ArrayDeque<String> queue = new ArrayDeque<>();
+    private final List<Listener> progressListeners = new ArrayList<>();
+    private final List<BackpressureListener> backpressureListeners = new ArrayList<>();
+    private final Promise<CzmlDataSource, Object> readyPromise;
+    private Fulfill<CzmlDataSource> fulfill;
+    private Reject<Object> reject;
+    private Event.RemoveCallback removeCallback;
+
+    private double frameBudget = DEFAULT_FRAME_BUDGET;
+    private int maximumBatchSize = DEFAULT_MAXIMUM_BATCH_SIZE;
+    private int highWaterMark = DEFAULT_HIGH_WATER_MARK;
+
+    private boolean ended;
+    private boolean done;
+    private boolean inFlight;
+    private int inFlightCount;
+    private boolean backpressured;
+    // The reader of a streaming load and the function which reads its next chunk while backpressured
+    private JavaScriptObject reader;
+    private JavaScriptObject pendingRead;
+
+    private double millisecondsPerPacket = -1.0;
+    private int processedPacketCount;
+    private int batchCount;
+    private int deferredFrameCount;
+    private double receivedBytes;
+    private double totalBytes = -1.0;
+
+    /**
+     * Creates an ingester.
+     *
+     * @param dataSource The data source which processes the packets.
+     * @param scene      The scene whose frames process the batches.
+     */
+    public CzmlStreamIngester(CzmlDataSource dataSource, Scene scene) {
+        if (dataSource == null) {
+            throw new DeveloperError("dataSource is required.");
+        }
+        if (scene == null) {
+            throw new DeveloperError("scene is required.");
+        }
+        this.dataSource = dataSource;
+        this.scene = scene;
+        readyPromise = new Promise<CzmlDataSource, Object>(new Executor<CzmlDataSource, Object>() {
+            @Override
+            public void function(Fulfill<CzmlDataSource> fulfill, Reject<Object> reject) {
+                CzmlStreamIngester.this.fulfill = fulfill;
+                CzmlStreamIngester.this.reject = reject;
+            }
+        });
+    }
+
+    /**
+     * Sets the time per frame spent parsing and processing packets. At least one packet is processed per frame.
+     *
+     * @param milliseconds The budget, in milliseconds.
+     * @return This ingester.
+     */
+    public CzmlStreamIngester setFrameBudget(double milliseconds) {
+        if (!(milliseconds > 0.0)) {
+            throw new DeveloperError("milliseconds must be greater than 0.");
+        }
+        frameBudget = milliseconds;
+        return this;
+    }
+
+    /**
+     * Gets the time per frame spent parsing and processing packets.
+     *
+     * @return The budget, in milliseconds.
+     */
+    public double getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * Sets the maximum number of packets processed per frame, whatever the budget.
+     *
+     * @param maximumBatchSize The maximum number of packets.
+     * @return This ingester.
+     */
+    public CzmlStreamIngester setMaximumBatchSize(int maximumBatchSize) {
+        if (maximumBatchSize < 1) {
+            throw new DeveloperError("maximumBatchSize must be greater than 0.");
+        }
+        this.maximumBatchSize = maximumBatchSize;
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of packets processed per frame.
+     *
+     * @return The maximum number of packets.
+     */
+    public int getMaximumBatchSize() {
+        return maximumBatchSize;
+    }
+
+    /**
+     * Sets the number of queued packets at which the ingester is backpressured. It is relieved once half of them
+     * remain.
+     *
+     * @param highWaterMark The number of packets.
+     * @return This ingester.
+     */
+    public CzmlStreamIngester setHighWaterMark(int highWaterMark) {
+        if (highWaterMark < 2) {
+            throw new DeveloperError("highWaterMark must be at least 2.");
+        }
+        this.highWaterMark = highWaterMark;
+        updateBackpressure();
+        return this;
+    }
+
+    /**
+     * Gets the number of queued packets at which the ingester is backpressured.
+     *
+     * @return The number of packets.
+     */
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    /**
+     * Appends the next chunk of CZML text. The packets completed by the chunk are queued and processed over the
+     * next frames.
+     *
+     * @param chunk The text.
+     * @return false if the ingester is backpressured and no further chunk should be appended until the
+     * backpressure listeners are notified of relief.
+     * @throws DeveloperError if the input has ended, or if the text between two packets is malformed; the packets
+     *                        before the error are still processed.
+     */
+    public boolean append(String chunk) {
+        if (ended) {
+            throw new DeveloperError("The input has ended.");
+        }
+        tokenizer.append(chunk);
+        try {
+            String packet;
+            while ((packet = tokenizer.next()) != null) {
+                queue.add(packet);
+            }
+        } finally {
+            // Packets completed before a malformed one are still processed
+            if (!queue.isEmpty()) {
+                start();
+            }
+            updateBackpressure();
+        }
+        return !backpressured;
+    }
+
+    /**
+     * Ends the input. The promise resolves once every packet has been processed.
+     *
+     * @return The promise, as returned by {@link #getReadyPromise()}.
+     */
+    public Promise<CzmlDataSource, Object> end() {
+        if (!ended) {
+            ended = true;
+            if (tokenizer.hasPartialPacket()) {
+                fail("The CZML ends inside a packet.");
+            } else if (queue.isEmpty() && !inFlight) {
+                complete();
+            }
+        }
+        return readyPromise;
+    }
+
+    /**
+     * Streams a CZML document from a URL. Chunks are read as they arrive, and reading pauses while the ingester is
+     * backpressured.
+     *
+     * @param url The URL of the document.
+     * @return The promise, as returned by {@link #getReadyPromise()}.
+     */
+    public Promise<CzmlDataSource, Object> load(String url) {
+        if (ended || reader != null) {
+            throw new DeveloperError("The ingester already has an input.");
+        }
+        fetch(url);
+        return readyPromise;
+    }
+
+    /**
+     * Stops ingesting. Queued packets are discarded, a streaming load is canceled and the promise is rejected.
+     * Packets already processed stay in the data source.
+     */
+    public void cancel() {
+        if (done) {
+            return;
+        }
+        queue.clear();
+        if (reader != null) {
+            cancelReader(reader);
+        }
+        fail("Canceled.");
+    }
+
+    /**
+     * Gets a promise which resolves to the data source once every packet has been processed, and is rejected if
+     * the input fails or the ingestion is canceled.
+     *
+     * @return The promise.
+     */
+    public Promise<CzmlDataSource, Object> getReadyPromise() {
+        return readyPromise;
+    }
+
+    /**
+     * Gets the number of packets processed by the data source.
+     *
+     * @return The number of packets.
+     */
+    public int getProcessedPacketCount() {
+        return processedPacketCount;
+    }
+
+    /**
+     * Gets the number of packets waiting to be processed, including the batch in flight.
+     *
+     * @return The number of packets.
+     */
+    public int getQueuedPacketCount() {
+        return queue.size() + inFlightCount;
+    }
+
+    /**
+     * Gets the number of bytes received by a streaming load.
+     *
+     * @return The number of bytes.
+     */
+    public double getReceivedBytes() {
+        return receivedBytes;
+    }
+
+    /**
+     * Gets the size of the document of a streaming load, as announced by the server.
+     *
+     * @return The number of bytes, or -1 if unknown.
+     */
+    public double getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Gets the fraction of the document processed so far: the fraction of bytes received, times the fraction of
+     * the received packets processed.
+     *
+     * @return The fraction, from 0 to 1, or -1 if the size of the document is unknown.
+     */
+    public double getProgress() {
+        if (done) {
+            return 1.0;
+        }
+        if (totalBytes <= 0.0) {
+            return -1.0;
+        }
+        int received = tokenizer.getPacketCount();
+        double processed = received == 0 ? 0.0 : (double) processedPacketCount / received;
+        return Math.min(1.0, receivedBytes / totalBytes) * processed;
+    }
+
+    /**
+     * Determines whether the ingester is backpressured, that is whether the queue has reached the high-water mark
+     * and has not yet drained to half of it.
+     *
+     * @return true if no further chunk should be appended.
+     */
+    public boolean isBackpressured() {
+        return backpressured;
+    }
+
+    /**
+     * Gets the average time spent per packet, in milliseconds, from which the size of the batches is computed.
+     *
+     * @return The time per packet, or -1 before the first batch has been processed.
+     */
+    public double getMillisecondsPerPacket() {
+        return millisecondsPerPacket;
+    }
+
+    /**
+     * Gets the number of batches processed.
+     *
+     * @return The number of batches.
+     */
+    public int getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Gets the number of frames which could not start a batch because the data source was still processing the
+     * previous one.
+     *
+     * @return The number of frames.
+     */
+    public int getDeferredFrameCount() {
+        return deferredFrameCount;
+    }
+
+    /**
+     * Adds a listener notified after each processed batch.
+     *
+     * @param listener The listener.
+     */
+    public void addProgressListener(Listener listener) {
+        progressListeners.add(listener);
+    }
+
+    /**
+     * Removes a progress listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeProgressListener(Listener listener) {
+        progressListeners.remove(listener);
+    }
+
+    /**
+     * Adds a listener notified whenever the ingester becomes backpressured or is relieved.
+     *
+     * @param listener The listener.
+     */
+    public void addBackpressureListener(BackpressureListener listener) {
+        backpressureListeners.add(listener);
+    }
+
+    /**
+     * Removes a backpressure listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeBackpressureListener(BackpressureListener listener) {
+        backpressureListeners.remove(listener);
+    }
+
+    private void start() {
+        if (removeCallback == null && !done) {
+            removeCallback = scene.preUpdate().addEventListener(new Scene.Listener() {
+                @Override
+                public void function(Scene scene, JulianDate time) {
+                    processBatch();
+                }
+            });
+        }
+        if (scene.requestRenderMode) {
+            scene.requestRender();
+        }
+    }
+
+    private void stop() {
+        if (removeCallback != null) {
+            removeCallback.function();
+            removeCallback = null;
+        }
+    }
+
+    private void processBatch() {
+        if (inFlight) {
+            deferredFrameCount++;
+            return;
+        }
+        if (queue.isEmpty()) {
+            stop();
+            return;
+        }
+        int count = INITIAL_BATCH_SIZE;
+        if (millisecondsPerPacket > 0.0) {
+            count = (int) Math.min(maximumBatchSize, Math.max(1.0, frameBudget / millisecondsPerPacket));
+        }
+        count = Math.min(count, queue.size());
+
+        final double startTime = Duration.currentTimeMillis();
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                batch.append(',');
+            }
+            batch.append(queue.poll());
+        }
+        batch.append(']');
+        Object packets;
+        try {
+            packets = JsJSON.parse(batch.toString());
+        } catch (Exception e) {
+            fail(e.getMessage());
+            return;
+        }
+        final double parseTime = Duration.currentTimeMillis() - startTime;
+        final int batchSize = count;
+        final double[] processStart = new double[1];
+        inFlight = true;
+        inFlightCount = count;
+        // The data source processes the packets in a promise job after the frame; this job runs just before it
+        new Promise<Object, Object>(new Executor<Object, Object>() {
+            @Override
+            public void function(Fulfill<Object> fulfill, Reject<Object> reject) {
+                fulfill.onFulfilled(null);
+            }
+        }).then(new Fulfill<Object>() {
+            @Override
+            public void onFulfilled(Object value) {
+                processStart[0] = Duration.currentTimeMillis();
+            }
+        });
+        dataSource.process(packets).then(new Fulfill<CzmlDataSource>() {
+            @Override
+            public void onFulfilled(CzmlDataSource value) {
+                double time = parseTime + Duration.currentTimeMillis() - processStart[0];
+                onBatchProcessed(batchSize, time);
+            }
+        }, new Reject<Void>() {
+            @Override
+            public void onRejected(Void value) {
+                fail("The data source failed to process the CZML.");
+            }
+        });
+    }
+
+    private void onBatchProcessed(int count, double time) {
+        inFlight = false;
+        inFlightCount = 0;
+        if (done) {
+            return;
+        }
+        batchCount++;
+        processedPacketCount += count;
+        double perPacket = Math.max(time, 0.01) / count;
+        millisecondsPerPacket = millisecondsPerPacket < 0.0 ? perPacket : 0.7 * millisecondsPerPacket + 0.3 * perPacket;
+        updateBackpressure();
+        for (Listener listener : new ArrayList<>(progressListeners)) {
+            listener.onProgress(this);
+        }
+        if (queue.isEmpty()) {
+            if (ended) {
+                complete();
+            }
+        } else if (scene.requestRenderMode) {
+            scene.requestRender();
+        }
+    }
+
+    private void updateBackpressure() {
+        boolean value = backpressured ? queue.size() > highWaterMark / 2 : queue.size() >= highWaterMark;
+        if (value == backpressured) {
+            return;
+        }
+        backpressured = value;
+        for (BackpressureListener listener : new ArrayList<>(backpressureListeners)) {
+            listener.onBackpressure(this, value);
+        }
+        if (!value && pendingRead != null) {
+            JavaScriptObject read = pendingRead;
+            pendingRead = null;
+            call(read);
+        }
+    }
+
+    private void complete() {
+        done = true;
+        stop();
+        fulfill.onFulfilled(dataSource);
+    }
+
+    private void fail(Object error) {
+        if (done) {
+            return;
+        }
+        done = true;
+        ended = true;
+        queue.clear();
+        pendingRead = null;
+        stop();
+        reject.onRejected(error);
+    }
+
+    private void onChunk(String text, double bytes) {
+        receivedBytes += bytes;
+        if (!done) {
+            try {
+                append(text);
+            } catch (RuntimeException e) {
+                // Thrown inside the read callback, the error would only reject the promise of the read
+                cancelReader(reader);
+                fail(e.getMessage());
+            }
+        }
+    }
+
+    private void onEnd() {
+        if (!done) {
+            end();
+        }
+    }
+
+    private native void fetch(String url) /*-{
+        var self = this;
+        var decoder = new $wnd.TextDecoder();
+        $wnd.fetch(url).then(function (response) {
+            if (!response.ok) {
+                throw new $wnd.Error("Failed to load " + url + ": " + response.status);
+            }
+            var length = Number(response.headers.get("Content-Length"));
+            self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::totalBytes = length > 0 ? length : -1;
+            var reader = response.body.getReader();
+            self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::reader = reader;
+            var read = function () {
+                reader.read().then(function (result) {
+                    if (self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::done) {
+                        return;
+                    }
+                    if (result.done) {
+                        self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::onChunk(Ljava/lang/String;D)(decoder.decode(), 0);
+                        self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::onEnd()();
+                        return;
+                    }
+                    var text = decoder.decode(result.value, {stream: true});
+                    self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::onChunk(Ljava/lang/String;D)(text, result.value.length);
+                    if (self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::backpressured) {
+                        self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::pendingRead = read;
+                    } else {
+                        read();
+                    }
+                }).then(null, fail);
+            };
+            read();
+        }).then(null, fail);
+        function fail(error) {
+            self.@org.cesiumjs.cs.datasources.CzmlStreamIngester::fail(Ljava/lang/Object;)(error);
+        }
+    }-*/;
+
+    private static native void call(JavaScriptObject callback) /*-{
+        callback();
+    }-*/;
+
+    private static native void cancelReader(JavaScriptObject reader) /*-{
+        reader.cancel();
+    }-*/;
+
+    /**
+     * A listener notified of the progress of an ingester.
+     */
+    public interface Listener {
+        void onProgress(CzmlStreamIngester ingester);
+    }
+
+    /**
+     * A listener notified when an ingester becomes backpressured or is relieved.
+     */
+    public interface BackpressureListener {
+        void onBackpressure(CzmlStreamIngester ingester, boolean backpressured);
+    }
+}
@@ -0,0 +1,608 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.PolygonHierarchy;
+import org.cesiumjs.cs.core.math.Ellipsoidd;
+import org.cesiumjs.cs.core.math.LineSimplifier;
+import org.cesiumjs.cs.core.math.PolygonTriangulator;
+import org.cesiumjs.cs.datasources.properties.ConstantProperty;
+import org.cesiumjs.cs.datasources.properties.Property;
+import org.cesiumjs.cs.promise.Executor;
+import org.cesiumjs.cs.promise.Fulfill;
+import org.cesiumjs.cs.promise.Promise;
+import org.cesiumjs.cs.promise.Reject;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Simplifies the polylines, walls, corridors and polygons of loaded entities with a {@link LineSimplifier}, so that
+ * over-sampled GPX, KML or GeoJSON imports do not turn every vertex into geometry. Data sources create their
+ * geometry on the first update after loading, so simplifying the entities as soon as loading completes saves the
+ * geometry construction of every removed vertex.
+ * <p>
+ * Only constant positions are simplified; time-dynamic positions are left as they are. Polygon rings keep at least
+ * three vertices and their topology: the rings of a hierarchy are projected onto the plane tangent to the ellipsoid
+ * at its outer ring, and a removed vertex is restored while a simplified edge crosses another edge of the
+ * hierarchy. A ring which ends up outside its parent ring, or inside a sibling, is restored with that ring. Opt in
+ * on a load path by wrapping its promise:
+ * <pre>
+ * DataSourceSimplifier simplifier = new DataSourceSimplifier(5.0);
+ * simplifier.simplify(KmlDataSource.load(url, options)).then(...);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see LineSimplifier
+ */
+public final class DataSourceSimplifier {
+    private final LineSimplifier simplifier;
+    private final Ellipsoidd ellipsoid;
+    private double[] packed = new double[0];
+    private int[] indices = new int[0];
+    private int inputVertexCount;
+    private int outputVertexCount;
+
+    /**
+     * Creates a Visvalingam-Whyatt simplifier for entities on the WGS84 ellipsoid.
+     *
+     * @param tolerance The tolerance, in meters.
+     */
+    public DataSourceSimplifier(double tolerance) {
+        this(new LineSimplifier(LineSimplifier.VISVALINGAM_WHYATT).setTolerance(tolerance));
+    }
+
+    /**
+     * Creates a simplifier for entities on the WGS84 ellipsoid.
+     *
+     * @param simplifier The simplifier of the lines, with its algorithm and tolerance in meters.
+     */
+    public DataSourceSimplifier(LineSimplifier simplifier) {
+        this(simplifier, Ellipsoidd.WGS84);
+    }
+
+    /**
+     * Creates a simplifier.
+     *
+     * @param simplifier The simplifier of the lines, with its algorithm and tolerance in meters.
+     * @param ellipsoid  The ellipsoid of the positions, on whose tangent plane polygon rings are checked.
+     */
+    public DataSourceSimplifier(LineSimplifier simplifier, Ellipsoidd ellipsoid) {
+        if (simplifier == null) {
+            throw new DeveloperError("simplifier is required.");
+        }
+        if (ellipsoid == null) {
+            throw new DeveloperError("ellipsoid is required.");
+        }
+        this.simplifier = simplifier;
+        this.ellipsoid = ellipsoid;
+    }
+
+    /**
+     * Gets the simplifier of the lines, whose tolerance may be changed between loads.
+     *
+     * @return The simplifier.
+     */
+    public LineSimplifier getSimplifier() {
+        return simplifier;
+    }
+
+    /**
+     * Gets the number of vertices of the lines simplified so far.
+     *
+     * @return The number of input vertices.
+     */
+    public int getInputVertexCount() {
+        return inputVertexCount;
+    }
+
+    /**
+     * Gets the number of vertices kept from the lines simplified so far.
+     *
+     * @return The number of output vertices.
+     */
+    public int getOutputVertexCount() {
+        return outputVertexCount;
+    }
+
+    /**
+     * Simplifies the entities of a data source once it has loaded.
+     *
+     * @param loading The promise of a loading data source, such as returned by {@link GeoJsonDataSource#load(String)}
+     *                or {@link KmlDataSource#load(String)}.
+     * @param <T>     The type of the data source.
+     * @param <E>     The type of the error.
+     * @return A promise of the same data source, resolved after its entities are simplified.
+     */
+    public <T extends DataSource, E> Promise<T, E> simplify(final Promise<T, E> loading) {
+        return new Promise<T, E>(new Executor<T, E>() {
+            @Override
+            public void function(final Fulfill<T> fulfill, final Reject<E> reject) {
+                loading.then(new Fulfill<T>() {
+                    @Override
+                    public void onFulfilled(T dataSource) {
+                        simplify(entitiesOf(dataSource));
+                        fulfill.onFulfilled(dataSource);
+                    }
+                }, reject);
+            }
+        });
+    }
+
+    /**
+     * Simplifies the entities of a collection. Events are suspended while the entities change.
+     *
+     * @param entities The entities.
+     * @return The number of removed vertices.
+     */
+    public int simplify(EntityCollection entities) {
+        int removed = 0;
+        entities.suspendEvents();
+        try {
+            for (Entity entity : entities.values()) {
+                removed += simplify(entity);
+            }
+        } finally {
+            entities.resumeEvents();
+        }
+        return removed;
+    }
+
+    /**
+     * Simplifies the polyline, wall, corridor and polygon of an entity.
+     *
+     * @param entity The entity.
+     * @return The number of removed vertices.
+     */
+    @SuppressWarnings("unchecked")
+    public int simplify(Entity entity) {
+        int before = inputVertexCount - outputVertexCount;
+        if (entity.polyline != null) {
+            entity.polyline.positions = simplifyPositions(entity.polyline.positions);
+        }
+        if (entity.wall != null) {
+            entity.wall.positions = simplifyPositions(entity.wall.positions);
+        }
+        if (entity.corridor != null) {
+            entity.corridor.positions = simplifyPositions(entity.corridor.positions);
+        }
+        if (entity.polygon != null && entity.polygon.hierarchy != null && entity.polygon.hierarchy.isConstant()) {
+            Object value = entity.polygon.hierarchy.getValue(null);
+            if (value != null) {
+                int removed = inputVertexCount - outputVertexCount;
+                PolygonHierarchy hierarchy = simplifyHierarchy((PolygonHierarchy) value);
+                if (inputVertexCount - outputVertexCount > removed) {
+                    entity.polygon.hierarchy = new ConstantProperty<PolygonHierarchy>(hierarchy);
+                }
+            }
+        }
+        return inputVertexCount - outputVertexCount - before;
+    }
+
+    /**
+     * Simplifies constant positions, returning the property itself if no vertex was removed.
+     */
+    private Property<Cartesian3[]> simplifyPositions(Property<Cartesian3[]> property) {
+        if (property == null || !property.isConstant()) {
+            return property;
+        }
+        Cartesian3[] value = property.getValue(null);
+        if (value == null) {
+            return property;
+        }
+        Cartesian3[] positions = simplifyRing(value, false);
+        if (positions == null) {
+            return property;
+        }
+        return new ConstantProperty<Cartesian3[]>(positions);
+    }
+
+    private PolygonHierarchy simplifyHierarchy(PolygonHierarchy hierarchy) {
+        List<Ring> rings = new ArrayList<>();
+        collectRings(hierarchy, -1, rings);
+        if (rings.isEmpty()) {
+            return hierarchy;
+        }
+        double[] plane = pack(rings.get(0).positions);
+        for (Ring ring : rings) {
+            ring.simplify(simplifier, plane, ellipsoid);
+        }
+        // Each pass restores at least one vertex, so the original rings are reached at worst
+        boolean restored;
+        do {
+            restored = restoreCrossings(rings) || restoreContainment(rings);
+        } while (restored);
+        for (Ring ring : rings) {
+            inputVertexCount += ring.positions.length;
+            outputVertexCount += ring.getKeptCount();
+        }
+        return rebuild(hierarchy, rings, new int[1]);
+    }
+
+    private static void collectRings(PolygonHierarchy hierarchy, int parent, List<Ring> rings) {
+        if (hierarchy.positions != null) {
+            rings.add(new Ring(hierarchy.positions, parent));
+            parent = rings.size() - 1;
+        }
+        if (hierarchy.holes != null) {
+            for (PolygonHierarchy hole : hierarchy.holes) {
+                collectRings(hole, parent, rings);
+            }
+        }
+    }
+
+    private static PolygonHierarchy rebuild(PolygonHierarchy hierarchy, List<Ring> rings, int[] cursor) {
+        Cartesian3[] positions = hierarchy.positions;
+        if (positions != null) {
+            positions = rings.get(cursor[0]++).getKeptPositions();
+        }
+        PolygonHierarchy[] holes = hierarchy.holes;
+        if (holes != null) {
+            PolygonHierarchy[] simplifiedHoles = new PolygonHierarchy[holes.length];
+            for (int i = 0; i < holes.length; i++) {
+                simplifiedHoles[i] = rebuild(holes[i], rings, cursor);
+            }
+            holes = simplifiedHoles;
+        }
+        return new PolygonHierarchy(positions, holes);
+    }
+
+    /**
+     * Restores a vertex of every simplified edge crossing another edge of the hierarchy. Edges sharing an end point
+     * are not considered crossing, and crossings of original edges are left as they are.
+     */
+    private static boolean restoreCrossings(List<Ring> rings) {
+        List<Edge> edges = new ArrayList<>();
+        for (Ring ring : rings) {
+            ring.addEdges(edges);
+        }
+        Collections.sort(edges, new Comparator<Edge>() {
+            @Override
+            public int compare(Edge a, Edge b) {
+                return Double.compare(a.minX, b.minX);
+            }
+        });
+        int size = edges.size();
+        for (int i = 0; i < size; i++) {
+            Edge edge = edges.get(i);
+            for (int j = i + 1; j < size; j++) {
+                Edge other = edges.get(j);
+                if (other.minX > edge.maxX) {
+                    break;
+                }
+                if ((edge.simplified || other.simplified) && edge.crosses(other)) {
+                    edge.crossing = true;
+                    other.crossing = true;
+                }
+            }
+        }
+        boolean restored = false;
+        for (Edge edge : edges) {
+            if (edge.crossing && edge.simplified) {
+                edge.ring.restore(edge.start, edge.end);
+                restored = true;
+            }
+        }
+        return restored;
+    }
+
+    /**
+     * Restores a ring and its parent if the ring is no longer inside its parent, and two siblings if one is inside
+     * the other. Without crossings, one vertex of a ring tells on which side of another ring it lies.
+     */
+    private static boolean restoreContainment(List<Ring> rings) {
+        boolean restored = false;
+        int count = rings.size();
+        for (int i = 0; i < count; i++) {
+            Ring ring = rings.get(i);
+            if (ring.parent >= 0) {
+                Ring parent = rings.get(ring.parent);
+                if (!parent.contains(ring.getFirstX(), ring.getFirstY())) {
+                    restored |= ring.restoreAll() | parent.restoreAll();
+                }
+            }
+            for (int j = i + 1; j < count; j++) {
+                Ring sibling = rings.get(j);
+                if (sibling.parent != ring.parent) {
+                    continue;
+                }
+                if (ring.contains(sibling.getFirstX(), sibling.getFirstY())
+                        || sibling.contains(ring.getFirstX(), ring.getFirstY())) {
+                    restored |= ring.restoreAll() | sibling.restoreAll();
+                }
+            }
+        }
+        return restored;
+    }
+
+    private static double[] pack(Cartesian3[] positions) {
+        double[] packed = new double[3 * positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            packed[3 * i] = positions[i].x;
+            packed[3 * i + 1] = positions[i].y;
+            packed[3 * i + 2] = positions[i].z;
+        }
+        return packed;
+    }
+
+    /**
+     * Simplifies positions, returning null if no vertex was removed.
+     */
+    private Cartesian3[] simplifyRing(Cartesian3[] positions, boolean ring) {
+        int count = positions.length;
+        if (count < 3) {
+            return null;
+        }
+        if (packed.length < 3 * count) {
+            packed = new double[3 * count];
+            indices = new int[count];
+        }
+        for (int i = 0; i < count; i++) {
+            packed[3 * i] = positions[i].x;
+            packed[3 * i + 1] = positions[i].y;
+            packed[3 * i + 2] = positions[i].z;
+        }
+        int kept = simplifier.simplify(packed, 0, 3, 3, count, ring, indices);
+        inputVertexCount += count;
+        outputVertexCount += kept;
+        if (kept == count) {
+            return null;
+        }
+        Cartesian3[] result = new Cartesian3[kept];
+        for (int i = 0; i < kept; i++) {
+            result[i] = positions[indices[i]];
+        }
+        return result;
+    }
+
+    /**
+     * Gets the entities of a data source from the {@code entities} property each data source binding declares.
+     */
+    private static EntityCollection entitiesOf(DataSource dataSource) {
+        if (dataSource instanceof GeoJsonDataSource) {
+            return ((GeoJsonDataSource) dataSource).entities;
+        }
+        if (dataSource instanceof KmlDataSource) {
+            return ((KmlDataSource) dataSource).entities;
+        }
+        if (dataSource instanceof CzmlDataSource) {
+            return ((CzmlDataSource) dataSource).entities;
+        }
+        if (dataSource instanceof GpxDataSource) {
+            return ((GpxDataSource) dataSource).entities;
+        }
+        if (dataSource instanceof CustomDataSource) {
+            return ((CustomDataSource) dataSource).entities;
+        }
+        throw new DeveloperError("dataSource has no entities.");
+    }
+
+    /**
+     * A polygon ring projected onto the plane of its hierarchy, with the vertices kept by the simplification.
+     */
+    private static final class Ring {
+        private final Cartesian3[] positions;
+        private final int parent;
+        private double[] coordinates;
+        private double[] significance;
+        private boolean[] kept;
+        // The number of vertices without the repeated first vertex, if any
+        private int distinct;
+
+        private Ring(Cartesian3[] positions, int parent) {
+            this.positions = positions;
+            this.parent = parent;
+        }
+
+        private void simplify(LineSimplifier simplifier, double[] plane, Ellipsoidd ellipsoid) {
+            int count = positions.length;
+            double[] packed = pack(positions);
+            coordinates = PolygonTriangulator.projectToTangentPlane(plane, packed, ellipsoid, null);
+            kept = new boolean[count];
+            distinct = count;
+            if (count > 1 && positions[0].x == positions[count - 1].x && positions[0].y == positions[count - 1].y
+                    && positions[0].z == positions[count - 1].z) {
+                distinct--;
+            }
+            if (count < 3) {
+                restoreAll();
+                return;
+            }
+            significance = simplifier.computeSignificance(packed, 0, 3, 3, count, true, null);
+            double tolerance = simplifier.getTolerance();
+            for (int i = 0; i < count; i++) {
+                kept[i] = significance[i] > tolerance;
+            }
+        }
+
+        private int getKeptCount() {
+            int result = 0;
+            for (boolean k : kept) {
+                if (k) {
+                    result++;
+                }
+            }
+            return result;
+        }
+
+        private Cartesian3[] getKeptPositions() {
+            int count = getKeptCount();
+            if (count == positions.length) {
+                return positions;
+            }
+            Cartesian3[] result = new Cartesian3[count];
+            int index = 0;
+            for (int i = 0; i < positions.length; i++) {
+                if (kept[i]) {
+                    result[index++] = positions[i];
+                }
+            }
+            return result;
+        }
+
+        private int getFirstKept() {
+            for (int i = 0; i < distinct; i++) {
+                if (kept[i]) {
+                    return i;
+                }
+            }
+            return 0;
+        }
+
+        private double getFirstX() {
+            return coordinates[2 * getFirstKept()];
+        }
+
+        private double getFirstY() {
+            return coordinates[2 * getFirstKept() + 1];
+        }
+
+        private void addEdges(List<Edge> edges) {
+            int first = getFirstKept();
+            int start = first;
+            do {
+                int end = (start + 1) % distinct;
+                while (!kept[end]) {
+                    end = (end + 1) % distinct;
+                }
+                if (end != start) {
+                    edges.add(new Edge(this, start, end));
+                }
+                start = end;
+            } while (start != first);
+        }
+
+        /**
+         * Restores the most significant removed vertex between two kept vertices.
+         */
+        private void restore(int start, int end) {
+            int best = -1;
+            for (int i = (start + 1) % distinct; i != end; i = (i + 1) % distinct) {
+                if (!kept[i] && (best < 0 || significance[i] > significance[best])) {
+                    best = i;
+                }
+            }
+            if (best >= 0) {
+                kept[best] = true;
+            }
+        }
+
+        private boolean restoreAll() {
+            boolean restored = false;
+            for (int i = 0; i < kept.length; i++) {
+                restored |= !kept[i];
+                kept[i] = true;
+            }
+            return restored;
+        }
+
+        /**
+         * Determines whether a point is inside the simplified ring, with the even-odd rule.
+         */
+        private boolean contains(double x, double y) {
+            boolean inside = false;
+            int first = getFirstKept();
+            int previous = first;
+            int i = first;
+            do {
+                i = (i + 1) % distinct;
+                while (!kept[i]) {
+                    i = (i + 1) % distinct;
+                }
+                double x0 = coordinates[2 * previous];
+                double y0 = coordinates[2 * previous + 1];
+                double x1 = coordinates[2 * i];
+                double y1 = coordinates[2 * i + 1];
+                if ((y0 > y) != (y1 > y) && x < x0 + (y - y0) * (x1 - x0) / (y1 - y0)) {
+                    inside = !inside;
+                }
+                previous = i;
+            } while (i != first);
+            return inside;
+        }
+    }
+
+    /**
+     * An edge between two consecutive kept vertices of a ring.
+     */
+    private static final class Edge {
+        private final Ring ring;
+        private final int start;
+        private final int end;
+        private final double ax;
+        private final double ay;
+        private final double bx;
+        private final double by;
+        private final double minX;
+        private final double maxX;
+        // Whether vertices between the end points were removed
+        private final boolean simplified;
+        private boolean crossing;
+
+        private Edge(Ring ring, int start, int end) {
+            this.ring = ring;
+            this.start = start;
+            this.end = end;
+            ax = ring.coordinates[2 * start];
+            ay = ring.coordinates[2 * start + 1];
+            bx = ring.coordinates[2 * end];
+            by = ring.coordinates[2 * end + 1];
+            minX = Math.min(ax, bx);
+            maxX = Math.max(ax, bx);
+            simplified = (start + 1) % ring.distinct != end;
+        }
+
+        private boolean crosses(Edge other) {
+            double cx = other.ax;
+            double cy = other.ay;
+            double dx = other.bx;
+            double dy = other.by;
+            if (Math.min(ay, by) > Math.max(cy, dy) || Math.max(ay, by) < Math.min(cy, dy)) {
+                return false;
+            }
+            if ((ax == cx && ay == cy) || (ax == dx && ay == dy) || (bx == cx && by == cy)
+                    || (bx == dx && by == dy)) {
+                return false;
+            }
+            double d1 = orient(cx, cy, dx, dy, ax, ay);
+            double d2 = orient(cx, cy, dx, dy, bx, by);
+            double d3 = orient(ax, ay, bx, by, cx, cy);
+            double d4 = orient(ax, ay, bx, by, dx, dy);
+            if (((d1 > 0.0 && d2 < 0.0) || (d1 < 0.0 && d2 > 0.0))
+                    && ((d3 > 0.0 && d4 < 0.0) || (d3 < 0.0 && d4 > 0.0))) {
+                return true;
+            }
+            return (d1 == 0.0 && between(cx, cy, dx, dy, ax, ay)) || (d2 == 0.0 && between(cx, cy, dx, dy, bx, by))
+                    || (d3 == 0.0 && between(ax, ay, bx, by, cx, cy))
+                    || (d4 == 0.0 && between(ax, ay, bx, by, dx, dy));
+        }
+
+        private static double orient(double ax, double ay, double bx, double by, double cx, double cy) {
+            return (bx - ax) * (cy - ay) - (by - ay) * (cx - ax);
+        }
+
+        private static boolean between(double ax, double ay, double bx, double by, double cx, double cy) {
+            return Math.min(ax, bx) <= cx && cx <= Math.max(ax, bx)
+                    && Math.min(ay, by) <= cy && cy <= Math.max(ay, by);
+        }
+    }
+}
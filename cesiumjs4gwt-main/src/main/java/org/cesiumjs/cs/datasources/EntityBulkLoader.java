@@ -0,0 +1,381 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import com.google.gwt.core.client.Duration;
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Event;
+import org.cesiumjs.cs.core.JulianDate;
+import org.cesiumjs.cs.datasources.options.EntityOptions;
+import org.cesiumjs.cs.promise.Executor;
+import org.cesiumjs.cs.promise.Fulfill;
+import org.cesiumjs.cs.promise.Promise;
+import org.cesiumjs.cs.promise.Reject;
+import org.cesiumjs.cs.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Adds a large number of entities to an {@link EntityCollection} a chunk per frame. Adding them in one loop blocks
+ * the application even with the events of the collection suspended, because the visualizers still process every
+ * entity at once when the events resume; this loader adds a chunk of entities on each {@link Scene#preRender()}
+ * event with the events suspended, and resumes them at the end of the chunk, so the visualizers process the chunk
+ * within the same frame.
+ * <p>
+ * The size of a chunk is the frame budget divided by the average time per entity of the previous chunks, including
+ * the time to resume the events; a chunk also ends as soon as the budget is spent. Options are taken from an
+ * iterator, so they may be created lazily, for instance from a stream with {@code stream.iterator()}.
+ * <pre>
+ * EntityBulkLoader loader = new EntityBulkLoader(viewer.entities(), viewer.scene());
+ * loader.load(options).then(...);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see CzmlStreamIngester
+ */
+public final class EntityBulkLoader {
+    /**
+     * The default time budget per frame, in milliseconds.
+     */
+    public static final double DEFAULT_FRAME_BUDGET = 8.0;
+    /**
+     * The number of entities of the first chunk, which measures the time per entity.
+     */
+    private static final int INITIAL_CHUNK_SIZE = 32;
+    /**
+     * The number of entities added between two readings of the clock.
+     */
+    private static final int CLOCK_INTERVAL = 16;
+
+    private final EntityCollection entities;
+    private final Scene scene;
+    private final List<Listener> progressListeners = new ArrayList<>();
+    private final Promise<EntityCollection, Object> readyPromise;
+    private Fulfill<EntityCollection> fulfill;
+    private Reject<Object> reject;
+    private Event.RemoveCallback removeCallback;
+
+    private double frameBudget = DEFAULT_FRAME_BUDGET;
+    private Iterator<? extends EntityOptions> iterator;
+    private int totalCount = -1;
+    private boolean done;
+
+    private double millisecondsPerEntity = -1.0;
+    private int loadedCount;
+    private int chunkCount;
+    private int frameCount;
+    private double loadingTime;
+    private double startTime;
+    private double endTime;
+
+    /**
+     * Creates a loader.
+     *
+     * @param entities The collection to which the entities are added.
+     * @param scene    The scene whose frames add the chunks.
+     */
+    public EntityBulkLoader(EntityCollection entities, Scene scene) {
+        if (entities == null) {
+            throw new DeveloperError("entities is required.");
+        }
+        if (scene == null) {
+            throw new DeveloperError("scene is required.");
+        }
+        this.entities = entities;
+        this.scene = scene;
+        readyPromise = new Promise<EntityCollection, Object>(new Executor<EntityCollection, Object>() {
+            @Override
+            public void function(Fulfill<EntityCollection> fulfill, Reject<Object> reject) {
+                EntityBulkLoader.this.fulfill = fulfill;
+                EntityBulkLoader.this.reject = reject;
+            }
+        });
+    }
+
+    /**
+     * Sets the time per frame spent adding entities. At least one entity is added per frame.
+     *
+     * @param milliseconds The budget, in milliseconds.
+     * @return This loader.
+     */
+    public EntityBulkLoader setFrameBudget(double milliseconds) {
+        if (!(milliseconds > 0.0)) {
+            throw new DeveloperError("milliseconds must be greater than 0.");
+        }
+        frameBudget = milliseconds;
+        return this;
+    }
+
+    /**
+     * Gets the time per frame spent adding entities.
+     *
+     * @return The budget, in milliseconds.
+     */
+    public double getFrameBudget() {
+        return frameBudget;
+    }
+
+    /**
+     * Starts adding the entities of a collection of options.
+     *
+     * @param options The options of the entities.
+     * @return A promise which resolves to the entity collection once every entity is added.
+     */
+    public Promise<EntityCollection, Object> load(Collection<? extends EntityOptions> options) {
+        return load(options.iterator(), options.size());
+    }
+
+    /**
+     * Starts adding the entities of an iterator of options. The iterator is advanced from the frames of the scene.
+     *
+     * @param options    The options of the entities.
+     * @param totalCount The number of options, or -1 if unknown; it only serves {@link #getProgress()}.
+     * @return A promise which resolves to the entity collection once every entity is added.
+     */
+    public Promise<EntityCollection, Object> load(Iterator<? extends EntityOptions> options, int totalCount) {
+        if (options == null) {
+            throw new DeveloperError("options is required.");
+        }
+        if (iterator != null || done) {
+            throw new DeveloperError("The loader already has an input.");
+        }
+        iterator = options;
+        this.totalCount = totalCount;
+        startTime = Duration.currentTimeMillis();
+        removeCallback = scene.preRender().addEventListener(new Scene.Listener() {
+            @Override
+            public void function(Scene scene, JulianDate time) {
+                addChunk();
+            }
+        });
+        if (scene.requestRenderMode) {
+            scene.requestRender();
+        }
+        return readyPromise;
+    }
+
+    /**
+     * Stops loading and rejects the promise. Entities already added stay in the collection.
+     */
+    public void cancel() {
+        fail("Canceled.");
+    }
+
+    /**
+     * Gets a promise which resolves to the entity collection once every entity is added, and is rejected if adding
+     * an entity fails or the loading is canceled.
+     *
+     * @return The promise.
+     */
+    public Promise<EntityCollection, Object> getReadyPromise() {
+        return readyPromise;
+    }
+
+    /**
+     * Determines whether loading is complete, failed or canceled.
+     *
+     * @return true if no further entity is added.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Gets the number of entities added.
+     *
+     * @return The number of entities.
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Gets the number of entities to add.
+     *
+     * @return The number of entities, or -1 if unknown.
+     */
+    public int getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * Gets the fraction of the entities added.
+     *
+     * @return The fraction, from 0 to 1, or -1 if the number of entities is unknown.
+     */
+    public double getProgress() {
+        if (totalCount < 0) {
+            return done ? 1.0 : -1.0;
+        }
+        return totalCount == 0 ? 1.0 : Math.min(1.0, (double) loadedCount / totalCount);
+    }
+
+    /**
+     * Gets the number of chunks added.
+     *
+     * @return The number of chunks.
+     */
+    public int getChunkCount() {
+        return chunkCount;
+    }
+
+    /**
+     * Gets the number of frames since loading started.
+     *
+     * @return The number of frames.
+     */
+    public int getFrameCount() {
+        return frameCount;
+    }
+
+    /**
+     * Gets the average time to add an entity, including its share of resuming the events.
+     *
+     * @return The time, in milliseconds, or -1 before the first chunk.
+     */
+    public double getMillisecondsPerEntity() {
+        return millisecondsPerEntity;
+    }
+
+    /**
+     * Gets the time spent adding entities, excluding the rest of the frames.
+     *
+     * @return The time, in milliseconds.
+     */
+    public double getLoadingTime() {
+        return loadingTime;
+    }
+
+    /**
+     * Gets the time since loading started, until it is done.
+     *
+     * @return The time, in milliseconds.
+     */
+    public double getElapsedTime() {
+        if (iterator == null) {
+            return 0.0;
+        }
+        return (done ? endTime : Duration.currentTimeMillis()) - startTime;
+    }
+
+    /**
+     * Gets the number of entities added per second since loading started.
+     *
+     * @return The throughput.
+     */
+    public double getEntitiesPerSecond() {
+        double elapsed = getElapsedTime();
+        return elapsed > 0.0 ? 1000.0 * loadedCount / elapsed : 0.0;
+    }
+
+    /**
+     * Adds a listener notified after each chunk.
+     *
+     * @param listener The listener.
+     */
+    public void addProgressListener(Listener listener) {
+        progressListeners.add(listener);
+    }
+
+    /**
+     * Removes a progress listener.
+     *
+     * @param listener The listener.
+     */
+    public void removeProgressListener(Listener listener) {
+        progressListeners.remove(listener);
+    }
+
+    private void addChunk() {
+        if (done) {
+            return;
+        }
+        frameCount++;
+        int size = INITIAL_CHUNK_SIZE;
+        if (millisecondsPerEntity > 0.0) {
+            size = (int) Math.max(1.0, frameBudget / millisecondsPerEntity);
+        }
+        double chunkStart = Duration.currentTimeMillis();
+        int count = 0;
+        entities.suspendEvents();
+        try {
+            while (count < size && iterator.hasNext()) {
+                entities.add(iterator.next());
+                count++;
+                if (count % CLOCK_INTERVAL == 0 && Duration.currentTimeMillis() - chunkStart >= frameBudget) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            loadedCount += count;
+            entities.resumeEvents();
+            fail(e);
+            return;
+        }
+        entities.resumeEvents();
+        double time = Duration.currentTimeMillis() - chunkStart;
+        loadingTime += time;
+        loadedCount += count;
+        if (count > 0) {
+            chunkCount++;
+            double perEntity = Math.max(time, 0.01) / count;
+            millisecondsPerEntity = millisecondsPerEntity < 0.0
+                    ? perEntity : 0.7 * millisecondsPerEntity + 0.3 * perEntity;
+        }
+        for (Listener listener : new ArrayList<>(progressListeners)) {
+            listener.onProgress(this);
+        }
+        if (done) {
+            // Canceled by a listener
+            return;
+        }
+        if (!iterator.hasNext()) {
+            finish();
+            fulfill.onFulfilled(entities);
+        } else if (scene.requestRenderMode) {
+            scene.requestRender();
+        }
+    }
+
+    private void fail(Object error) {
+        if (done) {
+            return;
+        }
+        finish();
+        reject.onRejected(error);
+    }
+
+    private void finish() {
+        done = true;
+        endTime = Duration.currentTimeMillis();
+        if (removeCallback != null) {
+            removeCallback.function();
+            removeCallback = null;
+        }
+    }
+
+    /**
+     * A listener notified of the progress of a loader.
+     */
+    public interface Listener {
+        void onProgress(EntityBulkLoader loader);
+    }
+}
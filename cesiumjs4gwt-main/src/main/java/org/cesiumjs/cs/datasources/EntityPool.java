@@ -0,0 +1,437 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.datasources.properties.ConstantPositionProperty;
+import org.cesiumjs.cs.datasources.properties.ConstantProperty;
+import org.cesiumjs.cs.datasources.properties.Property;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A pool of entities for tracks which come and go all the time. Removing an entity from an {@link EntityCollection}
+ * and adding a new one for the next track fires the events of the collection, and makes the visualizers drop and
+ * rebuild their state for the entity; a released entity is instead hidden and kept in the collection, and handed out
+ * again to the next track of the same shape, so that showing a new track costs property updates only. Hiding an
+ * entity does not keep its primitives: the billboard, label and point visualizers hand the primitive of a hidden
+ * entity back to the {@code EntityCluster}, which reuses it for the next entity shown.
+ * <p>
+ * The shape of an entity is a key chosen by the application for the set of graphics it has, such as
+ * {@code "billboard+label"}; only entities of the same shape are interchangeable. Released entities are reset by
+ * the {@link Resetter} and wait in the pool; once more than the maximum number of entities wait, the ones released
+ * first are removed from the collection. Properties of a reused entity should be updated in place with
+ * {@link #setPosition(Entity, Cartesian3)} and {@link #setConstant(Property, Object)} rather than replaced, so that
+ * an update does not create a property.
+ * <pre>
+ * EntityPool pool = new EntityPool(viewer.entities(), new EntityPool.Factory() {
+ *     public Entity create(String shape) {
+ *         return createTrackEntity();
+ *     }
+ * });
+ * Entity entity = pool.acquire("track");
+ * EntityPool.setPosition(entity, position);
+ * ...
+ * pool.release(entity);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see EntityBulkLoader
+ */
+public final class EntityPool {
+    /**
+     * The default maximum number of released entities kept in the pool.
+     */
+    public static final int DEFAULT_MAXIMUM_IDLE_COUNT = 1000;
+
+    private final EntityCollection entities;
+    private final Factory factory;
+    private Resetter resetter;
+    private int maximumIdleCount = DEFAULT_MAXIMUM_IDLE_COUNT;
+
+    // The shape of each entity handed out, by id
+    private final Map<String, String> active = new HashMap<>();
+    // The released entities by shape and all of them, both in the order of release
+    private final Map<String, LinkedHashMap<String, Entity>> idleByShape = new HashMap<>();
+    private final LinkedHashMap<String, Entity> idle = new LinkedHashMap<>();
+    private final Map<String, String> idleShapes = new HashMap<>();
+
+    private int createdCount;
+    private int reusedCount;
+    private int evictedCount;
+
+    /**
+     * Creates a pool.
+     *
+     * @param entities The collection to which the entities belong.
+     * @param factory  The factory of the entities of each shape when the pool has none.
+     */
+    public EntityPool(EntityCollection entities, Factory factory) {
+        if (entities == null) {
+            throw new DeveloperError("entities is required.");
+        }
+        if (factory == null) {
+            throw new DeveloperError("factory is required.");
+        }
+        this.entities = entities;
+        this.factory = factory;
+        resetter = new DefaultResetter(factory);
+    }
+
+    /**
+     * Sets how released entities are reset. By default, they lose their name, description and availability, and
+     * their position, billboard and label get back the values of a new entity of their shape.
+     *
+     * @param resetter The resetter.
+     * @return This pool.
+     */
+    public EntityPool setResetter(Resetter resetter) {
+        if (resetter == null) {
+            throw new DeveloperError("resetter is required.");
+        }
+        this.resetter = resetter;
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of released entities kept in the pool, evicting the ones released first if needed.
+     *
+     * @param maximumIdleCount The number of entities.
+     * @return This pool.
+     */
+    public EntityPool setMaximumIdleCount(int maximumIdleCount) {
+        if (maximumIdleCount < 0) {
+            throw new DeveloperError("maximumIdleCount must not be negative.");
+        }
+        this.maximumIdleCount = maximumIdleCount;
+        evict();
+        return this;
+    }
+
+    /**
+     * Gets the maximum number of released entities kept in the pool.
+     *
+     * @return The number of entities.
+     */
+    public int getMaximumIdleCount() {
+        return maximumIdleCount;
+    }
+
+    /**
+     * Gets an entity of a shape, shown, reusing a released one if any or else created by the factory and added to
+     * the collection.
+     *
+     * @param shape The shape.
+     * @return The entity.
+     */
+    public Entity acquire(String shape) {
+        if (shape == null) {
+            throw new DeveloperError("shape is required.");
+        }
+        Entity entity = null;
+        LinkedHashMap<String, Entity> shapeIdle = idleByShape.get(shape);
+        if (shapeIdle != null && !shapeIdle.isEmpty()) {
+            Iterator<Entity> iterator = shapeIdle.values().iterator();
+            entity = iterator.next();
+            iterator.remove();
+            idle.remove(entity.id);
+            idleShapes.remove(entity.id);
+            reusedCount++;
+        } else {
+            entity = factory.create(shape);
+            if (entity == null) {
+                throw new DeveloperError("The factory created no entity for shape " + shape + ".");
+            }
+            entity = entities.add(entity);
+            createdCount++;
+        }
+        entity.show = true;
+        active.put(entity.id, shape);
+        return entity;
+    }
+
+    /**
+     * Hides and resets an entity and keeps it for the next {@link #acquire(String)} of its shape.
+     *
+     * @param entity The entity, acquired from this pool.
+     * @return true if the entity was released, false if it was not handed out by this pool.
+     */
+    public boolean release(Entity entity) {
+        if (entity == null) {
+            return false;
+        }
+        String shape = active.remove(entity.id);
+        if (shape == null) {
+            return false;
+        }
+        entity.show = false;
+        resetter.reset(entity, shape);
+        LinkedHashMap<String, Entity> shapeIdle = idleByShape.get(shape);
+        if (shapeIdle == null) {
+            shapeIdle = new LinkedHashMap<>();
+            idleByShape.put(shape, shapeIdle);
+        }
+        shapeIdle.put(entity.id, entity);
+        idle.put(entity.id, entity);
+        idleShapes.put(entity.id, shape);
+        evict();
+        return true;
+    }
+
+    /**
+     * Removes all released entities from the collection. Entities handed out are not affected.
+     */
+    public void clear() {
+        entities.suspendEvents();
+        try {
+            for (Entity entity : idle.values()) {
+                entities.remove(entity);
+            }
+        } finally {
+            entities.resumeEvents();
+        }
+        idle.clear();
+        idleShapes.clear();
+        idleByShape.clear();
+    }
+
+    private void evict() {
+        Iterator<Entity> iterator = idle.values().iterator();
+        while (idle.size() > maximumIdleCount && iterator.hasNext()) {
+            Entity entity = iterator.next();
+            iterator.remove();
+            idleByShape.get(idleShapes.remove(entity.id)).remove(entity.id);
+            entities.remove(entity);
+            evictedCount++;
+        }
+    }
+
+    /**
+     * Gets the number of entities handed out and not released.
+     *
+     * @return The number of entities.
+     */
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    /**
+     * Gets the number of released entities in the pool.
+     *
+     * @return The number of entities.
+     */
+    public int getIdleCount() {
+        return idle.size();
+    }
+
+    /**
+     * Gets the number of released entities of a shape in the pool.
+     *
+     * @param shape The shape.
+     * @return The number of entities.
+     */
+    public int getIdleCount(String shape) {
+        LinkedHashMap<String, Entity> shapeIdle = idleByShape.get(shape);
+        return shapeIdle == null ? 0 : shapeIdle.size();
+    }
+
+    /**
+     * Gets the number of entities created by the factory.
+     *
+     * @return The number of entities.
+     */
+    public int getCreatedCount() {
+        return createdCount;
+    }
+
+    /**
+     * Gets the number of times a released entity was handed out again.
+     *
+     * @return The number of reuses.
+     */
+    public int getReusedCount() {
+        return reusedCount;
+    }
+
+    /**
+     * Gets the number of released entities removed because the pool was full.
+     *
+     * @return The number of entities.
+     */
+    public int getEvictedCount() {
+        return evictedCount;
+    }
+
+    /**
+     * Gets the fraction of acquisitions served by a released entity.
+     *
+     * @return The fraction, from 0 to 1.
+     */
+    public double getReuseRate() {
+        int count = createdCount + reusedCount;
+        return count == 0 ? 0.0 : (double) reusedCount / count;
+    }
+
+    /**
+     * Sets the position of an entity, updating its {@link ConstantPositionProperty} in place if it has one.
+     *
+     * @param entity   The entity.
+     * @param position The position.
+     */
+    public static void setPosition(Entity entity, Cartesian3 position) {
+        if (entity.position instanceof ConstantPositionProperty) {
+            ((ConstantPositionProperty) entity.position).setValue(position);
+        } else {
+            entity.position = new ConstantPositionProperty(position);
+        }
+    }
+
+    /**
+     * Sets the value of a constant property in place, such as the text of a label:
+     * {@code entity.label.text = EntityPool.setConstant(entity.label.text, text)}.
+     *
+     * @param property The property, or null.
+     * @param value    The value.
+     * @param <T>      The type of the value.
+     * @return The property if it is a {@link ConstantProperty}, or else a new one.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> Property setConstant(Property property, T value) {
+        if (property instanceof ConstantProperty) {
+            ((ConstantProperty<T>) property).setValue(value);
+            return property;
+        }
+        return new ConstantProperty<>(value);
+    }
+
+    /**
+     * Creates the entities of a shape.
+     */
+    public interface Factory {
+        /**
+         * Creates an entity with the graphics of a shape. The entity is added to the collection by the pool.
+         *
+         * @param shape The shape.
+         * @return The entity.
+         */
+        Entity create(String shape);
+    }
+
+    /**
+     * Resets released entities so that nothing of their track shows through when they are reused.
+     */
+    public interface Resetter {
+        /**
+         * Resets a released entity, already hidden.
+         *
+         * @param entity The entity.
+         * @param shape  The shape of the entity.
+         */
+        void reset(Entity entity, String shape);
+    }
+
+    /**
+     * Clears the name, description and availability, and resets the position, billboard and label to those of a
+     * template entity of the shape created by the factory. Constant properties are reset in place.
+     */
+    private static final class DefaultResetter implements Resetter {
+        private static final String[] BILLBOARD_PROPERTIES = {"alignedAxis", "color", "disableDepthTestDistance",
+                "distanceDisplayCondition", "eyeOffset", "height", "heightReference", "horizontalOrigin", "image",
+                "imageSubRegion", "pixelOffset", "pixelOffsetScaleByDistance", "rotation", "scale", "scaleByDistance",
+                "show", "sizeInMeters", "translucencyByDistance", "verticalOrigin", "width"};
+        private static final String[] LABEL_PROPERTIES = {"text", "font", "style", "fillColor", "outlineColor",
+                "outlineWidth", "show", "showBackground", "backgroundColor", "backgroundPadding",
+                "disableDepthTestDistance", "scale", "horizontalOrigin", "verticalOrigin", "eyeOffset", "pixelOffset",
+                "translucencyByDistance", "pixelOffsetScaleByDistance", "heightReference", "distanceDisplayCondition"};
+
+        private final Factory factory;
+        // A never shown entity of each shape, as the factory creates it
+        private final Map<String, Entity> templates = new HashMap<>();
+
+        private DefaultResetter(Factory factory) {
+            this.factory = factory;
+        }
+
+        @Override
+        public void reset(Entity entity, String shape) {
+            entity.name = null;
+            entity.description = null;
+            entity.availability = null;
+            Entity template = templates.get(shape);
+            if (template == null) {
+                template = factory.create(shape);
+                templates.put(shape, template);
+            }
+            resetPosition(entity, template);
+            resetGraphics(entity, template, "billboard", BILLBOARD_PROPERTIES);
+            resetGraphics(entity, template, "label", LABEL_PROPERTIES);
+        }
+
+        private static native void resetPosition(Entity entity, Entity template) /*-{
+            var Cesium = $wnd.Cesium;
+            var position = entity.position;
+            var value = template.position;
+            if (position instanceof Cesium.ConstantPositionProperty
+                && (value == null || value instanceof Cesium.ConstantPositionProperty)) {
+                position.setValue(value == null ? undefined : value.getValue(new Cesium.JulianDate()));
+            } else if (value instanceof Cesium.ConstantPositionProperty) {
+                entity.position = new Cesium.ConstantPositionProperty(value.getValue(new Cesium.JulianDate()),
+                    value.referenceFrame);
+            } else {
+                entity.position = value;
+            }
+        }-*/;
+
+        /**
+         * Copies the properties of the graphics of the template, copying constant values so that no property is
+         * shared with the template.
+         */
+        private static native void resetGraphics(Entity entity, Entity template, String name,
+                                                 String[] properties) /*-{
+            var Cesium = $wnd.Cesium;
+            var source = template[name];
+            if (source == null) {
+                entity[name] = undefined;
+                return;
+            }
+            var target = entity[name];
+            if (target == null) {
+                target = new source.constructor();
+                entity[name] = target;
+            }
+            for (var i = 0; i < properties.length; i++) {
+                var key = properties[i];
+                var property = target[key];
+                var value = source[key];
+                if (value instanceof Cesium.ConstantProperty) {
+                    if (property instanceof Cesium.ConstantProperty) {
+                        property.setValue(value.getValue());
+                    } else {
+                        target[key] = new Cesium.ConstantProperty(value.getValue());
+                    }
+                } else {
+                    target[key] = value;
+                }
+            }
+        }-*/;
+    }
+}
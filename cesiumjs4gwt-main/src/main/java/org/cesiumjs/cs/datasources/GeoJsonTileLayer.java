@@ -0,0 +1,547 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Event;
+import org.cesiumjs.cs.core.PolygonHierarchy;
+import org.cesiumjs.cs.core.Rectangle;
+import org.cesiumjs.cs.core.math.FeatureTileIndex;
+import org.cesiumjs.cs.datasources.graphics.PointGraphics;
+import org.cesiumjs.cs.datasources.graphics.PolygonGraphics;
+import org.cesiumjs.cs.datasources.graphics.PolylineGraphics;
+import org.cesiumjs.cs.datasources.graphics.options.PolygonGraphicsOptions;
+import org.cesiumjs.cs.datasources.graphics.options.PolylineGraphicsOptions;
+import org.cesiumjs.cs.datasources.properties.ConstantPositionProperty;
+import org.cesiumjs.cs.datasources.properties.ConstantProperty;
+import org.cesiumjs.cs.js.JsObject;
+import org.cesiumjs.cs.scene.Scene;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Shows the features of a {@link FeatureTileIndex} as entities, creating the entities of the tiles in view only.
+ * Loading a large GeoJSON document with {@link GeoJsonDataSource} creates an entity per feature with every vertex;
+ * this layer picks a level of the index from the extent of the view each time the camera stops moving, and creates
+ * the entities of the visible tiles of that level, clipped and simplified for it.
+ * <p>
+ * The index must be built without a buffer, as by {@link #createIndex()}: the pieces of a feature in adjacent
+ * tiles are shown side by side, so a buffer would make them overlap. Without a buffer, each point of a feature is in
+ * exactly one tile.
+ * <p>
+ * The entities of tiles which leave the view are hidden and kept in a least recently used cache, so moving back is
+ * cheap; once the cache holds more tiles than its maximum, the entities of the least recently visible tiles are
+ * removed from the collection.
+ * <pre>
+ * FeatureTileIndex index = GeoJsonTileLayer.createIndex();
+ * GeoJsonTileLayer.addGeoJson(index, geoJson);
+ * GeoJsonTileLayer layer = new GeoJsonTileLayer(index.build(), dataSource.entities, viewer.scene(), null);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see FeatureTileIndex
+ */
+public final class GeoJsonTileLayer {
+    /**
+     * The default maximum number of tiles whose entities are kept.
+     */
+    public static final int DEFAULT_MAXIMUM_CACHED_TILES = 128;
+    /**
+     * The default maximum number of tiles in view; a coarser level is used when the view covers more.
+     */
+    public static final int DEFAULT_MAXIMUM_VISIBLE_TILES = 64;
+
+    private static final Entity[] NO_ENTITIES = new Entity[0];
+
+    private final FeatureTileIndex index;
+    private final EntityCollection entities;
+    private final Scene scene;
+    private final EntityFactory factory;
+    private final LinkedHashMap<Long, Entity[]> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Long> visible = new HashSet<>();
+    private final Event.RemoveCallback removeCallback;
+
+    private int maximumCachedTiles = DEFAULT_MAXIMUM_CACHED_TILES;
+    private int maximumVisibleTiles = DEFAULT_MAXIMUM_VISIBLE_TILES;
+    private int zoom = -1;
+    private int entityCount;
+    private int hits;
+    private int misses;
+    private int evictionCount;
+    private boolean destroyed;
+
+    /**
+     * Creates a layer and shows the tiles in view.
+     *
+     * @param index    The built index, without a buffer.
+     * @param entities The collection to which the entities are added.
+     * @param scene    The scene whose camera selects the tiles.
+     * @param factory  The factory of the entities, or null for a polyline, polygon or point per feature.
+     */
+    public GeoJsonTileLayer(FeatureTileIndex index, EntityCollection entities, Scene scene, EntityFactory factory) {
+        if (index == null) {
+            throw new DeveloperError("index is required.");
+        }
+        if (index.getBuffer() != 0) {
+            throw new DeveloperError("index must be built with a buffer of 0.");
+        }
+        if (entities == null) {
+            throw new DeveloperError("entities is required.");
+        }
+        if (scene == null) {
+            throw new DeveloperError("scene is required.");
+        }
+        this.index = index;
+        this.entities = entities;
+        this.scene = scene;
+        this.factory = factory == null ? new DefaultEntityFactory() : factory;
+        removeCallback = scene.camera().moveEnd().addEventListener(new Event.Listener() {
+            @Override
+            public void function(Object... o) {
+                update();
+            }
+        });
+        update();
+    }
+
+    /**
+     * Creates an index for a layer: the defaults of {@link FeatureTileIndex} without a buffer.
+     *
+     * @return The index, empty.
+     */
+    public static FeatureTileIndex createIndex() {
+        return new FeatureTileIndex().setTolerance(3.0, 4096, 0);
+    }
+
+    /**
+     * Adds the features of a parsed GeoJSON object to an index. Each feature is added with its index in the
+     * feature collection as id, and a feature with several geometries is added once per geometry with the same id.
+     *
+     * @param index   The index, not built yet.
+     * @param geoJson The FeatureCollection, Feature or geometry.
+     * @return The number of features.
+     */
+    public static int addGeoJson(FeatureTileIndex index, Object geoJson) {
+        String type = JsObject.getString(geoJson, "type");
+        if ("FeatureCollection".equals(type)) {
+            Object[] features = asArray(JsObject.getObject(geoJson, "features"));
+            for (int i = 0; i < features.length; i++) {
+                addGeometry(index, i, JsObject.getObject(features[i], "geometry"));
+            }
+            return features.length;
+        }
+        if ("Feature".equals(type)) {
+            addGeometry(index, 0, JsObject.getObject(geoJson, "geometry"));
+        } else {
+            addGeometry(index, 0, geoJson);
+        }
+        return 1;
+    }
+
+    private static void addGeometry(FeatureTileIndex index, int id, Object geometry) {
+        if (geometry == null) {
+            return;
+        }
+        String type = JsObject.getString(geometry, "type");
+        if ("GeometryCollection".equals(type)) {
+            for (Object child : asArray(JsObject.getObject(geometry, "geometries"))) {
+                addGeometry(index, id, child);
+            }
+            return;
+        }
+        Object coordinates = JsObject.getObject(geometry, "coordinates");
+        if ("Point".equals(type)) {
+            double[] point = asNumbers(coordinates);
+            index.addPoint(id, point[0], point[1]);
+        } else if ("MultiPoint".equals(type)) {
+            for (Object point : asArray(coordinates)) {
+                double[] values = asNumbers(point);
+                index.addPoint(id, values[0], values[1]);
+            }
+        } else if ("LineString".equals(type)) {
+            addLine(index, id, coordinates);
+        } else if ("MultiLineString".equals(type)) {
+            for (Object line : asArray(coordinates)) {
+                addLine(index, id, line);
+            }
+        } else if ("Polygon".equals(type)) {
+            addPolygon(index, id, coordinates);
+        } else if ("MultiPolygon".equals(type)) {
+            for (Object polygon : asArray(coordinates)) {
+                addPolygon(index, id, polygon);
+            }
+        } else {
+            throw new DeveloperError("Unsupported GeoJSON type: " + type);
+        }
+    }
+
+    private static void addLine(FeatureTileIndex index, int id, Object line) {
+        double[] coordinates = flatten(line);
+        index.addLine(id, coordinates, 0, coordinates.length / 2);
+    }
+
+    private static void addPolygon(FeatureTileIndex index, int id, Object polygon) {
+        Object[] rings = asArray(polygon);
+        if (rings.length == 0) {
+            return;
+        }
+        double[][] flattened = new double[rings.length][];
+        int[] holeIndices = new int[rings.length - 1];
+        int length = 0;
+        for (int r = 0; r < rings.length; r++) {
+            flattened[r] = flatten(rings[r]);
+            if (r > 0) {
+                holeIndices[r - 1] = length / 2;
+            }
+            length += flattened[r].length;
+        }
+        double[] coordinates = new double[length];
+        length = 0;
+        for (double[] ring : flattened) {
+            System.arraycopy(ring, 0, coordinates, length, ring.length);
+            length += ring.length;
+        }
+        index.addPolygon(id, coordinates, holeIndices.length == 0 ? null : holeIndices);
+    }
+
+    /**
+     * Sets the maximum number of tiles whose entities are kept, visible or not. The entities of the visible tiles
+     * are always kept.
+     *
+     * @param maximumCachedTiles The number of tiles.
+     * @return This layer.
+     */
+    public GeoJsonTileLayer setMaximumCachedTiles(int maximumCachedTiles) {
+        if (maximumCachedTiles < 0) {
+            throw new DeveloperError("maximumCachedTiles must not be negative.");
+        }
+        this.maximumCachedTiles = maximumCachedTiles;
+        evict();
+        return this;
+    }
+
+    /**
+     * Sets the maximum number of tiles in view. When the view covers more tiles of the level matching its extent,
+     * such as a view of the horizon, a coarser level is used.
+     *
+     * @param maximumVisibleTiles The number of tiles.
+     * @return This layer.
+     */
+    public GeoJsonTileLayer setMaximumVisibleTiles(int maximumVisibleTiles) {
+        if (maximumVisibleTiles < 1) {
+            throw new DeveloperError("maximumVisibleTiles must be at least 1.");
+        }
+        this.maximumVisibleTiles = maximumVisibleTiles;
+        return this;
+    }
+
+    /**
+     * Shows the tiles in view, creating the entities of the tiles not in the cache. Called whenever the camera stops
+     * moving.
+     */
+    public void update() {
+        if (destroyed) {
+            throw new DeveloperError("This object was destroyed, i.e., destroy() was called.");
+        }
+        Rectangle rectangle = scene.camera().computeViewRectangle();
+        if (rectangle == null) {
+            // Looking away from the globe: keep what is shown
+            return;
+        }
+        double west = Math.toDegrees(rectangle.west);
+        double east = Math.toDegrees(rectangle.east);
+        if (east < west) {
+            east += 360.0;
+        }
+        double x0 = FeatureTileIndex.projectX(west);
+        double x1 = FeatureTileIndex.projectX(east);
+        double y0 = FeatureTileIndex.projectY(Math.toDegrees(rectangle.north));
+        double y1 = FeatureTileIndex.projectY(Math.toDegrees(rectangle.south));
+        // About two tiles across the view, fewer if it covers too many
+        int z = (int) Math.floor(Math.log(1.0 / Math.max(x1 - x0, 1e-9)) / Math.log(2.0)) + 1;
+        z = Math.max(0, Math.min(z, index.getMaximumZoom()));
+        while (z > 0 && countTiles(z, x0, x1, y0, y1) > maximumVisibleTiles) {
+            z--;
+        }
+        zoom = z;
+        int n = 1 << z;
+        int minX = (int) Math.floor(x0 * n);
+        int maxX = Math.min((int) Math.floor(x1 * n), minX + n - 1);
+        int minY = Math.max(0, (int) Math.floor(y0 * n));
+        int maxY = Math.min(n - 1, (int) Math.floor(y1 * n));
+
+        Set<Long> previous = new HashSet<>(visible);
+        visible.clear();
+        entities.suspendEvents();
+        try {
+            for (int y = minY; y <= maxY; y++) {
+                for (int x = minX; x <= maxX; x++) {
+                    FeatureTileIndex.Tile tile = index.getTile(z, x, y);
+                    if (tile == null || !visible.add(tile.getKey())) {
+                        continue;
+                    }
+                    Entity[] tileEntities = cache.get(tile.getKey());
+                    if (tileEntities == null) {
+                        misses++;
+                        tileEntities = createEntities(tile);
+                        cache.put(tile.getKey(), tileEntities);
+                    } else {
+                        hits++;
+                        if (!previous.contains(tile.getKey())) {
+                            setShow(tileEntities, true);
+                        }
+                    }
+                }
+            }
+            for (Long key : previous) {
+                if (!visible.contains(key)) {
+                    Entity[] tileEntities = cache.get(key);
+                    if (tileEntities != null) {
+                        setShow(tileEntities, false);
+                    }
+                }
+            }
+            evict();
+        } finally {
+            entities.resumeEvents();
+        }
+        if (scene.requestRenderMode) {
+            scene.requestRender();
+        }
+    }
+
+    private static int countTiles(int z, double x0, double x1, double y0, double y1) {
+        int n = 1 << z;
+        int columns = Math.min((int) Math.floor(x1 * n) - (int) Math.floor(x0 * n) + 1, n);
+        int rows = Math.min(n - 1, (int) Math.floor(y1 * n)) - Math.max(0, (int) Math.floor(y0 * n)) + 1;
+        return columns * rows;
+    }
+
+    private Entity[] createEntities(FeatureTileIndex.Tile tile) {
+        int count = tile.getFeatureCount();
+        if (count == 0) {
+            return NO_ENTITIES;
+        }
+        Entity[] result = new Entity[count];
+        int created = 0;
+        for (int i = 0; i < count; i++) {
+            Entity entity = factory.create(tile, i);
+            if (entity != null) {
+                result[created++] = entities.add(entity);
+            }
+        }
+        entityCount += created;
+        if (created < count) {
+            Entity[] trimmed = new Entity[created];
+            System.arraycopy(result, 0, trimmed, 0, created);
+            result = trimmed;
+        }
+        return result;
+    }
+
+    /**
+     * Removes the entities of the least recently visible tiles until the cache fits, keeping the visible ones.
+     */
+    private void evict() {
+        Iterator<Map.Entry<Long, Entity[]>> iterator = cache.entrySet().iterator();
+        while (cache.size() > maximumCachedTiles && iterator.hasNext()) {
+            Map.Entry<Long, Entity[]> entry = iterator.next();
+            if (visible.contains(entry.getKey())) {
+                continue;
+            }
+            for (Entity entity : entry.getValue()) {
+                entities.remove(entity);
+            }
+            entityCount -= entry.getValue().length;
+            evictionCount++;
+            iterator.remove();
+        }
+    }
+
+    private static void setShow(Entity[] tileEntities, boolean show) {
+        for (Entity entity : tileEntities) {
+            entity.show = show;
+        }
+    }
+
+    /**
+     * Gets the level of the tiles in view.
+     *
+     * @return The level, or -1 before the first update with the globe in view.
+     */
+    public int getZoom() {
+        return zoom;
+    }
+
+    /**
+     * Gets the number of tiles in view.
+     *
+     * @return The number of tiles.
+     */
+    public int getVisibleTileCount() {
+        return visible.size();
+    }
+
+    /**
+     * Gets the number of tiles whose entities are kept, visible or not.
+     *
+     * @return The number of tiles.
+     */
+    public int getCachedTileCount() {
+        return cache.size();
+    }
+
+    /**
+     * Gets the number of entities created by this layer and still in the collection.
+     *
+     * @return The number of entities.
+     */
+    public int getEntityCount() {
+        return entityCount;
+    }
+
+    /**
+     * Gets the number of times a tile in view had its entities in the cache.
+     *
+     * @return The number of hits.
+     */
+    public int getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets the number of times the entities of a tile in view had to be created.
+     *
+     * @return The number of misses.
+     */
+    public int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets the number of tiles whose entities were removed from the cache.
+     *
+     * @return The number of evicted tiles.
+     */
+    public int getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * Returns true if this object was destroyed; otherwise, false.
+     *
+     * @return True if this object was destroyed; otherwise, false.
+     */
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Stops following the camera and removes the entities created by this layer from the collection.
+     */
+    public void destroy() {
+        if (destroyed) {
+            return;
+        }
+        destroyed = true;
+        removeCallback.function();
+        entities.suspendEvents();
+        try {
+            for (Entity[] tileEntities : cache.values()) {
+                for (Entity entity : tileEntities) {
+                    entities.remove(entity);
+                }
+            }
+        } finally {
+            entities.resumeEvents();
+        }
+        cache.clear();
+        visible.clear();
+        entityCount = 0;
+    }
+
+    private static native Object[] asArray(Object value) /*-{
+        return value;
+    }-*/;
+
+    private static native double[] asNumbers(Object value) /*-{
+        return value;
+    }-*/;
+
+    /**
+     * Packs the longitudes and latitudes of an array of GeoJSON positions, dropping any height.
+     */
+    private static native double[] flatten(Object positions) /*-{
+        var result = new Array(2 * positions.length);
+        for (var i = 0; i < positions.length; i++) {
+            result[2 * i] = positions[i][0];
+            result[2 * i + 1] = positions[i][1];
+        }
+        return result;
+    }-*/;
+
+    /**
+     * Creates the entity of a feature of a tile.
+     */
+    public interface EntityFactory {
+        /**
+         * Creates the entity of a feature of a tile.
+         *
+         * @param tile    The tile.
+         * @param feature The index of the feature in the tile.
+         * @return The entity, or null to show nothing for the feature.
+         */
+        Entity create(FeatureTileIndex.Tile tile, int feature);
+    }
+
+    /**
+     * Creates a point, polyline or polygon entity named after the id of the feature.
+     */
+    private static final class DefaultEntityFactory implements EntityFactory {
+        @Override
+        public Entity create(FeatureTileIndex.Tile tile, int feature) {
+            double[][] rings = tile.getRings(feature);
+            Entity entity = new Entity();
+            entity.name = String.valueOf(tile.getFeatureId(feature));
+            int type = tile.getFeatureType(feature);
+            if (type == FeatureTileIndex.POINT) {
+                entity.position = new ConstantPositionProperty(Cartesian3.fromDegrees(rings[0][0], rings[0][1]));
+                entity.point = new PointGraphics();
+            } else if (type == FeatureTileIndex.LINE) {
+                PolylineGraphicsOptions options = new PolylineGraphicsOptions();
+                options.positions = new ConstantProperty<>(Cartesian3.fromDegreesArray(rings[0]));
+                entity.polyline = new PolylineGraphics(options);
+            } else {
+                PolygonHierarchy[] holes = new PolygonHierarchy[rings.length - 1];
+                for (int r = 1; r < rings.length; r++) {
+                    holes[r - 1] = new PolygonHierarchy(Cartesian3.fromDegreesArray(rings[r]));
+                }
+                PolygonGraphicsOptions options = new PolygonGraphicsOptions();
+                options.hierarchy = new ConstantProperty<>(
+                        new PolygonHierarchy(Cartesian3.fromDegreesArray(rings[0]), holes));
+                entity.polygon = new PolygonGraphics(options);
+            }
+            return entity;
+        }
+    }
+}
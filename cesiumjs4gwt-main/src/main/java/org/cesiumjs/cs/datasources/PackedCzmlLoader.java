@@ -0,0 +1,324 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.JulianDate;
+import org.cesiumjs.cs.core.Resource;
+import org.cesiumjs.cs.datasources.properties.Property;
+import org.cesiumjs.cs.datasources.properties.PropertyBag;
+import org.cesiumjs.cs.datasources.properties.SampledNumberProperty;
+import org.cesiumjs.cs.datasources.properties.SampledPositionProperty;
+import org.cesiumjs.cs.js.JsObject;
+import org.cesiumjs.cs.promise.Executor;
+import org.cesiumjs.cs.promise.Fulfill;
+import org.cesiumjs.cs.promise.Promise;
+import org.cesiumjs.cs.promise.Reject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the sampled positions, orientations and custom numbers of CZML written by {@link PackedCzmlWriter} straight
+ * into {@link SampledPositionProperty#addSamplesPackedArray} and {@code SampledProperty.addSamplesPackedArray}. The
+ * packed arrays of the parsed document are handed over as they are, so no {@link JulianDate} or Cartesian3 is
+ * created per sample.
+ * <p>
+ * A sampled value is loaded this way when it has an epoch and a packed array and nothing else, such as
+ * interpolation options or a reference frame. The loaded values are removed from their packets, and the packets
+ * with anything left, including the document packet, are processed by the {@link CzmlDataSource}, so the same
+ * document may also carry graphics and any other CZML. Packets are applied in document order: packed values which
+ * follow packets left to the data source are loaded once it has processed them. Sampled properties of another type
+ * than the packed values are replaced.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see PackedCzmlWriter
+ */
+public final class PackedCzmlLoader {
+    private final CzmlDataSource dataSource;
+    private final Map<String, JulianDate> epochs = new HashMap<>();
+    private int sampleCount;
+    private int packetCount;
+
+    /**
+     * Creates a loader.
+     *
+     * @param dataSource The data source whose entities receive the samples, and which processes everything else.
+     */
+    public PackedCzmlLoader(CzmlDataSource dataSource) {
+        if (dataSource == null) {
+            throw new DeveloperError("dataSource is required.");
+        }
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Loads a CZML document from a URL.
+     *
+     * @param url The URL of the document.
+     * @return A promise that resolves to the data source once the document is processed.
+     */
+    public Promise<CzmlDataSource, Void> load(String url) {
+        final Promise<JsObject, Void> fetching = Resource.fetchJson(url);
+        return new Promise<CzmlDataSource, Void>(new Executor<CzmlDataSource, Void>() {
+            @Override
+            public void function(final Fulfill<CzmlDataSource> fulfill, final Reject<Void> reject) {
+                fetching.then(new Fulfill<JsObject>() {
+                    @Override
+                    public void onFulfilled(JsObject czml) {
+                        process(czml).then(fulfill, reject);
+                    }
+                }, reject);
+            }
+        });
+    }
+
+    /**
+     * Processes a parsed CZML document, or a single packet, without clearing any existing data.
+     *
+     * @param czml The array of packets or the packet.
+     * @return A promise that resolves to the data source once the packets left for it are processed, and is
+     * rejected if a packed value is malformed or the data source fails.
+     */
+    public Promise<CzmlDataSource, Void> process(Object czml) {
+        final Object[] packets = isArray(czml) ? asArray(czml) : new Object[]{czml};
+        return new Promise<CzmlDataSource, Void>(new Executor<CzmlDataSource, Void>() {
+            @Override
+            public void function(Fulfill<CzmlDataSource> fulfill, Reject<Void> reject) {
+                processRun(packets, 0, fulfill, reject);
+            }
+        });
+    }
+    /**
+     * Gets the number of samples loaded through the packed arrays.
+     *
+     * @return The number of samples.
+     */
+    public int getSampleCount() {
+        return sampleCount;
+    }
+
+    /**
+     * Gets the number of packets processed.
+     *
+     * @return The number of packets.
+     */
+    public int getPacketCount() {
+        return packetCount;
+    }
+
+    /**
+     * Processes the packets from an index in document order. Packed values are loaded at once, the other packets
+     * are gathered into a run for the data source, and the packed values after a run are only loaded once the data
+     * source has processed it.
+     */
+    private void processRun(final Object[] packets, int index, final Fulfill<CzmlDataSource> fulfill,
+                            final Reject<Void> reject) {
+        List<Object> run = new ArrayList<>();
+        EntityCollection entities = dataSource.entities;
+        entities.suspendEvents();
+        try {
+            while (index < packets.length) {
+                Object packet = packets[index];
+                boolean packed = hasPackedValues(packet);
+                if (packed && !run.isEmpty()) {
+                    break;
+                }
+                index++;
+                packetCount++;
+                if (!packed || !processPacket(entities, packet)) {
+                    run.add(packet);
+                }
+            }
+        } catch (RuntimeException e) {
+            // A malformed epoch or packed array; thrown in the callback of the data source it would be lost
+            reject.onRejected(null);
+            return;
+        } finally {
+            entities.resumeEvents();
+        }
+        if (run.isEmpty()) {
+            fulfill.onFulfilled(dataSource);
+            return;
+        }
+        final int next = index;
+        dataSource.process(run.toArray()).then(new Fulfill<CzmlDataSource>() {
+            @Override
+            public void onFulfilled(CzmlDataSource value) {
+                processRun(packets, next, fulfill, reject);
+            }
+        }, reject);
+    }
+
+    /**
+     * Determines whether a packet has values loaded through the packed arrays.
+     */
+    private static boolean hasPackedValues(Object packet) {
+        String id = JsObject.getString(packet, "id");
+        if (id == null || "document".equals(id)) {
+            return false;
+        }
+        if (isPacked(JsObject.getObject(packet, "position"), "cartesian")
+                || isPacked(JsObject.getObject(packet, "orientation"), "unitQuaternion")) {
+            return true;
+        }
+        Object properties = JsObject.getObject(packet, "properties");
+        if (properties != null) {
+            for (String name : keys(properties)) {
+                if (isPacked(JsObject.getObject(properties, name), "number")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Loads the packed values of a packet, returning true if nothing is left for the data source.
+     */
+    private boolean processPacket(EntityCollection entities, Object packet) {
+        String id = JsObject.getString(packet, "id");
+        if (id == null || "document".equals(id)) {
+            return false;
+        }
+        Entity entity = null;
+        Object position = JsObject.getObject(packet, "position");
+        if (isPacked(position, "cartesian")) {
+            entity = entities.getOrCreateEntity(id);
+            SampledPositionProperty property;
+            if (entity.position instanceof SampledPositionProperty) {
+                property = (SampledPositionProperty) entity.position;
+            } else {
+                property = new SampledPositionProperty();
+                entity.position = property;
+            }
+            double[] samples = getNumbers(position, "cartesian");
+            property.addSamplesPackedArray(samples, getEpoch(position));
+            sampleCount += samples.length / 4;
+            remove(packet, "position");
+        }
+        Object orientation = JsObject.getObject(packet, "orientation");
+        if (isPacked(orientation, "unitQuaternion")) {
+            if (entity == null) {
+                entity = entities.getOrCreateEntity(id);
+            }
+            Property property = entity.orientation;
+            if (!isSampledQuaternionProperty(property)) {
+                property = createSampledQuaternionProperty();
+                entity.orientation = property;
+            }
+            double[] samples = getNumbers(orientation, "unitQuaternion");
+            addSamplesPackedArray(property, samples, getEpoch(orientation));
+            sampleCount += samples.length / 5;
+            remove(packet, "orientation");
+        }
+        Object properties = JsObject.getObject(packet, "properties");
+        if (properties != null) {
+            String[] names = keys(properties);
+            for (String name : names) {
+                Object value = JsObject.getObject(properties, name);
+                if (!isPacked(value, "number")) {
+                    continue;
+                }
+                if (entity == null) {
+                    entity = entities.getOrCreateEntity(id);
+                }
+                if (entity.properties == null) {
+                    entity.properties = new PropertyBag();
+                }
+                Object property = JsObject.getObject(entity.properties, name);
+                if (!isSampledNumberProperty(property)) {
+                    property = SampledNumberProperty.create();
+                    if (JsObject.hasOwnProperty(entity.properties, name)) {
+                        JsObject.setProperty(entity.properties, name, property);
+                    } else {
+                        entity.properties.addProperty(name, property);
+                    }
+                }
+                double[] samples = getNumbers(value, "number");
+                addSamplesPackedArray(property, samples, getEpoch(value));
+                sampleCount += samples.length / 2;
+                remove(properties, name);
+            }
+            if (keys(properties).length == 0) {
+                remove(packet, "properties");
+            }
+        }
+        // Only the id is left
+        return keys(packet).length == 1;
+    }
+
+    private JulianDate getEpoch(Object value) {
+        String iso8601 = JsObject.getString(value, "epoch");
+        JulianDate epoch = epochs.get(iso8601);
+        if (epoch == null) {
+            epoch = JulianDate.fromIso8601(iso8601);
+            epochs.put(iso8601, epoch);
+        }
+        return epoch;
+    }
+
+    /**
+     * Determines whether a value is exactly an epoch and a packed array of numbers.
+     */
+    private static native boolean isPacked(Object value, String key) /*-{
+        if (value === null || typeof value !== "object" || typeof value.epoch !== "string") {
+            return false;
+        }
+        var keys = Object.keys(value);
+        return keys.length === 2 && Array.isArray(value[key]);
+    }-*/;
+
+    private static native boolean isArray(Object value) /*-{
+        return Array.isArray(value);
+    }-*/;
+
+    private static native Object[] asArray(Object value) /*-{
+        return value;
+    }-*/;
+
+    private static native String[] keys(Object value) /*-{
+        return Object.keys(value);
+    }-*/;
+
+    private static native double[] getNumbers(Object value, String key) /*-{
+        return value[key];
+    }-*/;
+
+    private static native void remove(Object value, String key) /*-{
+        delete value[key];
+    }-*/;
+
+    private static native boolean isSampledNumberProperty(Object property) /*-{
+        return property instanceof $wnd.Cesium.SampledProperty && property.type === $wnd.Number;
+    }-*/;
+
+    private static native boolean isSampledQuaternionProperty(Object property) /*-{
+        return property instanceof $wnd.Cesium.SampledProperty && property.type === $wnd.Cesium.Quaternion;
+    }-*/;
+
+    private static native Property createSampledQuaternionProperty() /*-{
+        return new $wnd.Cesium.SampledProperty($wnd.Cesium.Quaternion);
+    }-*/;
+
+    private static native void addSamplesPackedArray(Object property, double[] samples, JulianDate epoch) /*-{
+        property.addSamplesPackedArray(samples, epoch);
+    }-*/;
+}
@@ -0,0 +1,391 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.time.JulianTime;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes CZML whose time-dynamic values are epoch-relative packed arrays, such as
+ * {@code "position": {"epoch": "2012-08-04T16:00:00Z", "cartesian": [0.0, x, y, z, 60.0, x, y, z]}}. This is the
+ * layout that {@link PackedCzmlLoader} hands straight to {@code addSamplesPackedArray} on the client, without a
+ * date object per sample.
+ * <p>
+ * Packets are encoded as UTF-8 into a fixed buffer which is written to the stream whenever it fills, so a document
+ * of any size is written with constant memory. Samples of one entity may be split across as many packets as
+ * needed; the samples of all packets with the same id are merged by the loader and by {@link CzmlDataSource}.
+ * <pre>
+ * PackedCzmlWriter writer = new PackedCzmlWriter(response.getOutputStream());
+ * writer.writeDocument("Replay");
+ * writer.writePositions("aircraft-1", epoch, samples, 0, sampleCount);
+ * writer.close();
+ * </pre>
+ * The writer is not thread-safe.
+ *
+ * @author Serge Silaev aka iSergio
+ * @see PackedCzmlLoader
+ */
+public final class PackedCzmlWriter implements Closeable {
+    /**
+     * The default size of the buffer, in bytes.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    /**
+     * The number of elements of a position sample: the time in seconds since the epoch followed by x, y and z.
+     */
+    public static final int POSITION_STRIDE = 4;
+    /**
+     * The number of elements of an orientation sample: the time in seconds since the epoch followed by the x, y, z
+     * and w components of a unit quaternion.
+     */
+    public static final int ORIENTATION_STRIDE = 5;
+    /**
+     * The number of elements of a number sample: the time in seconds since the epoch followed by the value.
+     */
+    public static final int NUMBER_STRIDE = 2;
+
+    private static final int STATE_START = 0;
+    private static final int STATE_PACKETS = 1;
+    private static final int STATE_ENDED = 2;
+
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long bytesWritten;
+    private int packetCount;
+    private int state = STATE_START;
+
+    /**
+     * Creates a writer with the default buffer size.
+     *
+     * @param out The stream to which the document is written.
+     */
+    public PackedCzmlWriter(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Creates a writer.
+     *
+     * @param out        The stream to which the document is written.
+     * @param bufferSize The size of the buffer, in bytes, at least 64.
+     */
+    public PackedCzmlWriter(OutputStream out, int bufferSize) {
+        if (out == null) {
+            throw new DeveloperError("out is required.");
+        }
+        if (bufferSize < 64) {
+            throw new DeveloperError("bufferSize must be at least 64.");
+        }
+        this.out = out;
+        buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Writes the document packet, which must be the first packet.
+     *
+     * @param name The name of the document, or null for none.
+     * @throws IOException If the stream fails.
+     */
+    public void writeDocument(String name) throws IOException {
+        writeDocument(name, null, null, 1.0);
+    }
+
+    /**
+     * Writes the document packet with a clock, which must be the first packet.
+     *
+     * @param name       The name of the document, or null for none.
+     * @param start      The start time of the clock, also its current time, or null for no clock.
+     * @param stop       The stop time of the clock, or null for no clock.
+     * @param multiplier The number of seconds of simulation time per second of real time.
+     * @throws IOException If the stream fails.
+     */
+    public void writeDocument(String name, JulianTime start, JulianTime stop, double multiplier) throws IOException {
+        if (state != STATE_START) {
+            throw new DeveloperError("The document packet must be the first packet.");
+        }
+        beginPacket("document");
+        writeAscii(",\"version\":\"1.0\"");
+        if (name != null) {
+            writeAscii(",\"name\":");
+            writeString(name);
+        }
+        if (start != null && stop != null) {
+            writeAscii(",\"clock\":{\"interval\":\"");
+            writeAscii(JulianTime.toIso8601(start));
+            writeByte('/');
+            writeAscii(JulianTime.toIso8601(stop));
+            writeAscii("\",\"currentTime\":\"");
+            writeAscii(JulianTime.toIso8601(start));
+            writeAscii("\",\"multiplier\":");
+            writeNumber(multiplier);
+            writeByte('}');
+        }
+        writeByte('}');
+    }
+
+    /**
+     * Writes a packet with position samples in the Earth-fixed frame.
+     *
+     * @param id      The id of the entity.
+     * @param epoch   The epoch to which the times of the samples are relative.
+     * @param samples The packed samples, {@link #POSITION_STRIDE} elements each.
+     * @param offset  The index of the first sample in the array.
+     * @param count   The number of samples.
+     * @throws IOException If the stream fails.
+     */
+    public void writePositions(String id, JulianTime epoch, double[] samples, int offset, int count)
+            throws IOException {
+        beginPacket(id);
+        writeAscii(",\"position\":");
+        writeSamples(epoch, "cartesian", samples, offset, POSITION_STRIDE, count);
+        writeByte('}');
+    }
+
+    /**
+     * Writes a packet with orientation samples, as unit quaternions rotating from the entity's frame to the
+     * Earth-fixed frame.
+     *
+     * @param id      The id of the entity.
+     * @param epoch   The epoch to which the times of the samples are relative.
+     * @param samples The packed samples, {@link #ORIENTATION_STRIDE} elements each.
+     * @param offset  The index of the first sample in the array.
+     * @param count   The number of samples.
+     * @throws IOException If the stream fails.
+     */
+    public void writeOrientations(String id, JulianTime epoch, double[] samples, int offset, int count)
+            throws IOException {
+        beginPacket(id);
+        writeAscii(",\"orientation\":");
+        writeSamples(epoch, "unitQuaternion", samples, offset, ORIENTATION_STRIDE, count);
+        writeByte('}');
+    }
+
+    /**
+     * Writes a packet with samples of a custom number property of the entity, available on the client as
+     * {@code entity.properties[name]}.
+     *
+     * @param id      The id of the entity.
+     * @param name    The name of the property.
+     * @param epoch   The epoch to which the times of the samples are relative.
+     * @param samples The packed samples, {@link #NUMBER_STRIDE} elements each.
+     * @param offset  The index of the first sample in the array.
+     * @param count   The number of samples.
+     * @throws IOException If the stream fails.
+     */
+    public void writeNumbers(String id, String name, JulianTime epoch, double[] samples, int offset, int count)
+            throws IOException {
+        beginPacket(id);
+        writeAscii(",\"properties\":{");
+        writeString(name);
+        writeByte(':');
+        writeSamples(epoch, "number", samples, offset, NUMBER_STRIDE, count);
+        writeAscii("}}");
+    }
+
+    /**
+     * Ends the document and writes the buffer to the stream. No packet may be written afterwards.
+     *
+     * @throws IOException If the stream fails.
+     */
+    public void end() throws IOException {
+        if (state == STATE_ENDED) {
+            return;
+        }
+        if (state == STATE_START) {
+            writeByte('[');
+        }
+        writeAscii("\n]\n");
+        state = STATE_ENDED;
+        flush();
+    }
+
+    /**
+     * Writes the buffer to the stream and flushes the stream, so that a client reading the document as a stream
+     * receives the packets written so far.
+     *
+     * @throws IOException If the stream fails.
+     */
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Ends the document and closes the stream.
+     *
+     * @throws IOException If the stream fails.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            end();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Gets the number of bytes written to the stream, not counting the bytes still in the buffer.
+     *
+     * @return The number of bytes.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * Gets the number of packets written, including the document packet.
+     *
+     * @return The number of packets.
+     */
+    public int getPacketCount() {
+        return packetCount;
+    }
+
+    private void beginPacket(String id) throws IOException {
+        if (id == null) {
+            throw new DeveloperError("id is required.");
+        }
+        if (state == STATE_ENDED) {
+            throw new DeveloperError("The document has ended.");
+        }
+        if (state == STATE_START) {
+            writeByte('[');
+            if (!"document".equals(id)) {
+                // Every document starts with a document packet
+                writeAscii("\n{\"id\":\"document\",\"version\":\"1.0\"}");
+                packetCount++;
+            }
+        }
+        if (packetCount > 0) {
+            writeByte(',');
+        }
+        state = STATE_PACKETS;
+        packetCount++;
+        writeAscii("\n{\"id\":");
+        writeString(id);
+    }
+
+    private void writeSamples(JulianTime epoch, String key, double[] samples, int offset, int stride, int count)
+            throws IOException {
+        if (epoch == null) {
+            throw new DeveloperError("epoch is required.");
+        }
+        if (offset < 0 || count < 0 || offset + count * stride > samples.length) {
+            throw new DeveloperError("samples is too small for " + count + " samples starting at " + offset + ".");
+        }
+        writeAscii("{\"epoch\":\"");
+        writeAscii(JulianTime.toIso8601(epoch));
+        writeAscii("\",\"");
+        writeAscii(key);
+        writeAscii("\":[");
+        int end = offset + count * stride;
+        for (int i = offset; i < end; i++) {
+            if (i > offset) {
+                writeByte(',');
+            }
+            writeNumber(samples[i]);
+        }
+        writeAscii("]}");
+    }
+
+    private void writeNumber(double value) throws IOException {
+        if (value != value || value == Double.POSITIVE_INFINITY || value == Double.NEGATIVE_INFINITY) {
+            throw new DeveloperError("CZML numbers must be finite.");
+        }
+        if (value == (long) value && value > -1e15 && value < 1e15) {
+            // Whole numbers are common in times and are written without a fraction or an allocation
+            long whole = (long) value;
+            if (whole < 0 || (whole == 0 && 1.0 / value < 0.0)) {
+                writeByte('-');
+                whole = -whole;
+            }
+            writeDigits(whole);
+        } else {
+            writeAscii(Double.toString(value));
+        }
+    }
+
+    private void writeDigits(long value) throws IOException {
+        if (value >= 10) {
+            writeDigits(value / 10);
+        }
+        writeByte((char) ('0' + (int) (value % 10)));
+    }
+
+    private void writeString(String value) throws IOException {
+        writeByte('"');
+        for (int i = 0, length = value.length(); i < length; i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                writeByte('\\');
+                writeByte(c);
+            } else if (c < 0x20) {
+                writeAscii("\\u00");
+                writeByte(Character.forDigit(c >> 4, 16));
+                writeByte(Character.forDigit(c & 0xF, 16));
+            } else if (c < 0x80) {
+                writeByte(c);
+            } else if (c < 0x800) {
+                writeByte((char) (0xC0 | (c >> 6)));
+                writeByte((char) (0x80 | (c & 0x3F)));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                writeByte((char) (0xF0 | (codePoint >> 18)));
+                writeByte((char) (0x80 | ((codePoint >> 12) & 0x3F)));
+                writeByte((char) (0x80 | ((codePoint >> 6) & 0x3F)));
+                writeByte((char) (0x80 | (codePoint & 0x3F)));
+            } else {
+                if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                    // A lone surrogate has no UTF-8 encoding, so it is replaced as String.getBytes does
+                    c = '\uFFFD';
+                }
+                writeByte((char) (0xE0 | (c >> 12)));
+                writeByte((char) (0x80 | ((c >> 6) & 0x3F)));
+                writeByte((char) (0x80 | (c & 0x3F)));
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAscii(String value) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            writeByte(value.charAt(i));
+        }
+    }
+
+    private void writeByte(char value) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            bytesWritten += position;
+            position = 0;
+        }
+    }
+}
@@ -75,6 +75,17 @@ public class SampledNumberProperty<T extends Number> extends JavaScriptObject {
         this.addSamples(times, values, derivativeValues);
     }-*/;
 
+    /**
+     * Adds samples as a single packed array where each new sample is represented as a date, followed by the value.
+     *
+     * @param packedSamples The array of packed samples, with the time in seconds since the epoch followed by the
+     *                      value of each sample.
+     * @param epoch         The epoch to which the times of the samples are relative.
+     */
+    public native final void addSamplesPackedArray(double[] packedSamples, JulianDate epoch) /*-{
+        this.addSamplesPackedArray(packedSamples, epoch);
+    }-*/;
+
     /**
      * Gets the value of the property at the provided time.
      *
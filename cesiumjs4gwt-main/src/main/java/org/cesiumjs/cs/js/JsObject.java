@@ -18,6 +18,7 @@ package org.cesiumjs.cs.js;
 
 import com.google.gwt.core.client.JavaScriptObject;
 import com.google.gwt.core.client.JsArrayString;
+import jsinterop.annotations.JsMethod;
 import jsinterop.annotations.JsPackage;
 import jsinterop.annotations.JsProperty;
 
@@ -127,6 +128,17 @@ public class JsObject extends JavaScriptObject {
     @JsProperty(namespace = JsPackage.GLOBAL, name = "undefined")
     public static native Object undefined();
 
+    /**
+     * Freezes an object with {@code Object.freeze}, so that its properties can no longer be changed, for instances
+     * shared by caches.
+     *
+     * @param value The object.
+     * @param <T>   The type of the object.
+     * @return The object, frozen.
+     */
+    @JsMethod(namespace = "Object", name = "freeze")
+    public static native <T> T freeze(T value);
+
     public final native JsObject setProperty(String name, Number value) /*-{
         this[name] = value;
         return this;
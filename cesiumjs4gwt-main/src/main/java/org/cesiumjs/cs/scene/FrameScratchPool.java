@@ -0,0 +1,285 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.scene;
+
+import org.cesiumjs.cs.core.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A pool of scratch objects for per-frame temporaries: pick rays, window positions, pick results, cartographics
+ * and so on. Objects taken from the pool stay valid until the end of the current frame. All of them are returned
+ * to the pool by the {@link Scene#postRender()} event and handed out again during the next frame, so render
+ * listeners and input handlers stop allocating once the pool has warmed up.
+ * <p>
+ * Objects from the pool must never be retained past the end of the frame, for example stored in a list of
+ * positions or set as the positions of a geometry. Setting them on billboards, points and other primitives which
+ * copy the value is fine. Except for the overloads taking components, the contents of acquired objects are
+ * unspecified, so they are intended to be used as result parameters.
+ * <p>
+ * If the scene does not render, for example in request render mode, the number of outstanding objects of each
+ * type is capped at {@link #MAXIMUM_OUTSTANDING} and new objects are allocated above the cap.
+ *
+ * @author Serge Silaev aka iSergio
+ */
+public final class FrameScratchPool {
+    /**
+     * The maximum number of objects of each type handed out between two frames before the pool falls back to
+     * allocating.
+     */
+    public static final int MAXIMUM_OUTSTANDING = 1024;
+
+    private final Scene scene;
+    private final Event.RemoveCallback removeCallback;
+
+    private final Slot<Cartesian2> cartesian2 = new Slot<Cartesian2>() {
+        @Override
+        Cartesian2 create() {
+            return new Cartesian2();
+        }
+    };
+    private final Slot<Cartesian3> cartesian3 = new Slot<Cartesian3>() {
+        @Override
+        Cartesian3 create() {
+            return new Cartesian3();
+        }
+    };
+    private final Slot<Cartographic> cartographic = new Slot<Cartographic>() {
+        @Override
+        Cartographic create() {
+            return new Cartographic();
+        }
+    };
+    private final Slot<Ray> ray = new Slot<Ray>() {
+        @Override
+        Ray create() {
+            return new Ray();
+        }
+    };
+    private final Slot<Matrix4> matrix4 = new Slot<Matrix4>() {
+        @Override
+        Matrix4 create() {
+            return new Matrix4();
+        }
+    };
+    private final Slot<EllipsoidGeodesic> ellipsoidGeodesic = new Slot<EllipsoidGeodesic>() {
+        @Override
+        EllipsoidGeodesic create() {
+            return new EllipsoidGeodesic();
+        }
+    };
+
+    private boolean destroyed;
+
+    @SuppressWarnings("unchecked")
+    private FrameScratchPool(Scene scene) {
+        this.scene = scene;
+        removeCallback = scene.postRender().addEventListener(new Scene.Listener() {
+            @Override
+            public void function(Scene scene, JulianDate time) {
+                release();
+            }
+        });
+    }
+
+    /**
+     * Gets the pool of the provided scene, creating it on first use. The pool is shared by all users of the scene
+     * and is stored on the scene itself, so it is collected together with the scene.
+     *
+     * @param scene The scene whose {@link Scene#postRender()} event releases the pool.
+     * @return The pool.
+     */
+    public static FrameScratchPool forScene(Scene scene) {
+        if (scene == null) {
+            throw new DeveloperError("scene is required.");
+        }
+        FrameScratchPool pool = getPool(scene);
+        if (pool == null) {
+            pool = new FrameScratchPool(scene);
+            setPool(scene, pool);
+        }
+        return pool;
+    }
+
+    private static native FrameScratchPool getPool(Scene scene) /*-{
+        return scene._frameScratchPool || null;
+    }-*/;
+
+    private static native void setPool(Scene scene, FrameScratchPool pool) /*-{
+        if (pool === null) {
+            delete scene._frameScratchPool;
+        } else {
+            scene._frameScratchPool = pool;
+        }
+    }-*/;
+
+    /**
+     * Gets a scratch {@link Cartesian2}.
+     *
+     * @return A Cartesian2 valid until the end of the frame.
+     */
+    public Cartesian2 cartesian2() {
+        return cartesian2.acquire();
+    }
+
+    /**
+     * Gets a scratch {@link Cartesian2} set to the provided components.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @return A Cartesian2 valid until the end of the frame.
+     */
+    public Cartesian2 cartesian2(double x, double y) {
+        Cartesian2 result = cartesian2.acquire();
+        result.x = x;
+        result.y = y;
+        return result;
+    }
+
+    /**
+     * Gets a scratch {@link Cartesian3}.
+     *
+     * @return A Cartesian3 valid until the end of the frame.
+     */
+    public Cartesian3 cartesian3() {
+        return cartesian3.acquire();
+    }
+
+    /**
+     * Gets a scratch {@link Cartesian3} set to the provided components.
+     *
+     * @param x The X component.
+     * @param y The Y component.
+     * @param z The Z component.
+     * @return A Cartesian3 valid until the end of the frame.
+     */
+    public Cartesian3 cartesian3(double x, double y, double z) {
+        Cartesian3 result = cartesian3.acquire();
+        result.x = x;
+        result.y = y;
+        result.z = z;
+        return result;
+    }
+
+    /**
+     * Gets a scratch {@link Cartographic}.
+     *
+     * @return A Cartographic valid until the end of the frame.
+     */
+    public Cartographic cartographic() {
+        return cartographic.acquire();
+    }
+
+    /**
+     * Gets a scratch {@link Ray}.
+     *
+     * @return A Ray valid until the end of the frame.
+     */
+    public Ray ray() {
+        return ray.acquire();
+    }
+
+    /**
+     * Gets a scratch {@link Matrix4}.
+     *
+     * @return A Matrix4 valid until the end of the frame.
+     */
+    public Matrix4 matrix4() {
+        return matrix4.acquire();
+    }
+
+    /**
+     * Gets a scratch {@link EllipsoidGeodesic} on the WGS84 ellipsoid. Set its end points with
+     * {@link EllipsoidGeodesic#setEndPoints(Cartographic, Cartographic)} before use.
+     *
+     * @return An EllipsoidGeodesic valid until the end of the frame.
+     */
+    public EllipsoidGeodesic ellipsoidGeodesic() {
+        return ellipsoidGeodesic.acquire();
+    }
+
+    /**
+     * Returns all objects to the pool. Called automatically by the {@link Scene#postRender()} event.
+     */
+    public void release() {
+        cartesian2.release();
+        cartesian3.release();
+        cartographic.release();
+        ray.release();
+        matrix4.release();
+        ellipsoidGeodesic.release();
+    }
+
+    /**
+     * Returns true if this object was destroyed; otherwise, false.
+     *
+     * @return True if this object was destroyed; otherwise, false.
+     */
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Removes the pool from its scene and drops all pooled objects. The next call of {@link #forScene(Scene)} for
+     * the same scene creates a new pool.
+     */
+    public void destroy() {
+        if (destroyed) {
+            return;
+        }
+        destroyed = true;
+        removeCallback.function();
+        if (getPool(scene) == this) {
+            setPool(scene, null);
+        }
+        release();
+        cartesian2.clear();
+        cartesian3.clear();
+        cartographic.clear();
+        ray.clear();
+        matrix4.clear();
+        ellipsoidGeodesic.clear();
+    }
+
+    private abstract static class Slot<T> {
+        private final List<T> items = new ArrayList<>();
+        private int used;
+
+        abstract T create();
+
+        T acquire() {
+            if (used < items.size()) {
+                return items.get(used++);
+            }
+            T item = create();
+            if (used < MAXIMUM_OUTSTANDING) {
+                items.add(item);
+                used++;
+            }
+            return item;
+        }
+
+        void release() {
+            used = 0;
+        }
+
+        void clear() {
+            items.clear();
+        }
+    }
+}
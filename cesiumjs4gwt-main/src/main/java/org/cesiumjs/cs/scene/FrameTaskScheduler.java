@@ -0,0 +1,700 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.scene;
+
+import com.google.gwt.core.client.Duration;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.Event;
+import org.cesiumjs.cs.core.JulianDate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Runs Java tasks a slice of each frame, between the {@link Scene#preUpdate()} event and the rendering of the frame,
+ * instead of chains of timeouts which run whenever the browser sees fit and compete with the renderer. A task does
+ * a small unit of work each time it runs and tells whether it has more; tasks run one after the other until the
+ * time slice of the frame is spent, and the remaining ones wait for the next frame.
+ * <p>
+ * Tasks run by priority and, within a priority, in the order they were scheduled; a task which has more work goes
+ * back to the end of its priority. To protect tasks of lower priority from starvation, a task waiting for more
+ * than {@link #setStarvationFrames(int)} frames per level of priority runs before the tasks of the higher priority
+ * scheduled after it. A task with a deadline runs before all others once it would miss its deadline by waiting for
+ * the next frame.
+ * <p>
+ * The {@link Scene#postRender()} event measures the time the scene takes to render; with a target frame time, the
+ * slice shrinks to what is left of the target after rendering. There is one scheduler per scene, shared by all of
+ * its users.
+ * <pre>
+ * FrameTaskScheduler.forScene(viewer.scene()).schedule(new FrameTaskScheduler.Task() {
+ *     public boolean run() {
+ *         return processNextChunk();
+ *     }
+ * }, FrameTaskScheduler.LOW);
+ * </pre>
+ *
+ * @author Serge Silaev aka iSergio
+ * @see FrameScratchPool
+ */
+public final class FrameTaskScheduler {
+    /**
+     * The priority of tasks which affect what the user sees right now.
+     */
+    public static final int HIGH = 0;
+    /**
+     * The default priority.
+     */
+    public static final int NORMAL = 1;
+    /**
+     * The priority of background work.
+     */
+    public static final int LOW = 2;
+    /**
+     * The priority of work which may wait until nothing else is left.
+     */
+    public static final int IDLE = 3;
+    /**
+     * The default time slice per frame, in milliseconds.
+     */
+    public static final double DEFAULT_SLICE_BUDGET = 6.0;
+    /**
+     * The smallest slice with a target frame time, in milliseconds.
+     */
+    public static final double MINIMUM_SLICE_BUDGET = 1.0;
+    /**
+     * The default number of frames per level of priority after which a waiting task is run first.
+     */
+    public static final int DEFAULT_STARVATION_FRAMES = 30;
+
+    private static final List<FrameTaskScheduler> SCHEDULERS = new ArrayList<>();
+
+    private final Scene scene;
+    private final Event.RemoveCallback preUpdateCallback;
+    private final Event.RemoveCallback postRenderCallback;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(64, new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            if (a.key != b.key) {
+                return a.key < b.key ? -1 : 1;
+            }
+            if (a.handle.priority != b.handle.priority) {
+                return a.handle.priority - b.handle.priority;
+            }
+            return a.sequence < b.sequence ? -1 : 1;
+        }
+    });
+    private final PriorityQueue<Entry> deadlines = new PriorityQueue<>(16, new Comparator<Entry>() {
+        @Override
+        public int compare(Entry a, Entry b) {
+            if (a.handle.deadline != b.handle.deadline) {
+                return a.handle.deadline < b.handle.deadline ? -1 : 1;
+            }
+            return a.sequence < b.sequence ? -1 : 1;
+        }
+    });
+    private final int[] pendingCounts = new int[IDLE + 1];
+
+    private double sliceBudget = DEFAULT_SLICE_BUDGET;
+    private double targetFrameTime;
+    private int starvationFrames = DEFAULT_STARVATION_FRAMES;
+
+    private long sequence;
+    private int frameNumber;
+    private boolean running;
+    private boolean destroyed;
+    private double sliceEnd = -1.0;
+    private double lastPreUpdate = -1.0;
+
+    private double frameInterval = -1.0;
+    private double renderTime = -1.0;
+    private double lastSliceBudget;
+    private double lastSliceTime;
+    private double sliceUtilization = -1.0;
+    private int lastRunCount;
+    private int completedCount;
+    private int canceledCount;
+    private int failedCount;
+    private int missedDeadlineCount;
+    private int overrunCount;
+
+    private FrameTaskScheduler(Scene scene) {
+        this.scene = scene;
+        preUpdateCallback = scene.preUpdate().addEventListener(new Scene.Listener() {
+            @Override
+            public void function(Scene scene, JulianDate time) {
+                runSlice();
+            }
+        });
+        postRenderCallback = scene.postRender().addEventListener(new Scene.Listener() {
+            @Override
+            public void function(Scene scene, JulianDate time) {
+                onPostRender();
+            }
+        });
+    }
+
+    /**
+     * Gets the scheduler of the provided scene, creating it on first use.
+     *
+     * @param scene The scene whose frames run the tasks.
+     * @return The scheduler.
+     */
+    public static FrameTaskScheduler forScene(Scene scene) {
+        if (scene == null) {
+            throw new DeveloperError("scene is required.");
+        }
+        for (FrameTaskScheduler scheduler : SCHEDULERS) {
+            if (scheduler.scene == scene) {
+                return scheduler;
+            }
+        }
+        FrameTaskScheduler scheduler = new FrameTaskScheduler(scene);
+        SCHEDULERS.add(scheduler);
+        return scheduler;
+    }
+
+    /**
+     * Sets the time per frame spent running tasks. At least one task runs per frame, so a task should keep each run
+     * well below the slice.
+     *
+     * @param milliseconds The slice, in milliseconds.
+     * @return This scheduler.
+     */
+    public FrameTaskScheduler setSliceBudget(double milliseconds) {
+        if (!(milliseconds > 0.0)) {
+            throw new DeveloperError("milliseconds must be greater than 0.");
+        }
+        sliceBudget = milliseconds;
+        return this;
+    }
+
+    /**
+     * Gets the time per frame spent running tasks.
+     *
+     * @return The slice, in milliseconds.
+     */
+    public double getSliceBudget() {
+        return sliceBudget;
+    }
+
+    /**
+     * Sets the time of a frame to aim for, such as 16.7 milliseconds for 60 frames per second. The slice is then
+     * the time left of the target after rendering, between {@link #MINIMUM_SLICE_BUDGET} and the slice budget.
+     *
+     * @param milliseconds The time of a frame, in milliseconds, or 0 to always use the slice budget.
+     * @return This scheduler.
+     */
+    public FrameTaskScheduler setTargetFrameTime(double milliseconds) {
+        if (!(milliseconds >= 0.0)) {
+            throw new DeveloperError("milliseconds must not be negative.");
+        }
+        targetFrameTime = milliseconds;
+        return this;
+    }
+
+    /**
+     * Sets the number of frames per level of priority after which a waiting task runs before the tasks of higher
+     * priority scheduled after it.
+     *
+     * @param frames The number of frames.
+     * @return This scheduler.
+     */
+    public FrameTaskScheduler setStarvationFrames(int frames) {
+        if (frames < 1) {
+            throw new DeveloperError("frames must be at least 1.");
+        }
+        starvationFrames = frames;
+        return this;
+    }
+
+    /**
+     * Schedules a task with {@link #NORMAL} priority.
+     *
+     * @param task The task.
+     * @return The handle of the task.
+     */
+    public Handle schedule(Task task) {
+        return schedule(task, NORMAL, -1.0);
+    }
+
+    /**
+     * Schedules a task.
+     *
+     * @param task     The task.
+     * @param priority {@link #HIGH}, {@link #NORMAL}, {@link #LOW} or {@link #IDLE}.
+     * @return The handle of the task.
+     */
+    public Handle schedule(Task task, int priority) {
+        return schedule(task, priority, -1.0);
+    }
+
+    /**
+     * Schedules a task with a deadline.
+     *
+     * @param task     The task.
+     * @param priority {@link #HIGH}, {@link #NORMAL}, {@link #LOW} or {@link #IDLE}.
+     * @param deadline The time from now by which the task should be complete, in milliseconds, or a negative value
+     *                 for none.
+     * @return The handle of the task.
+     */
+    public Handle schedule(Task task, int priority, double deadline) {
+        if (destroyed) {
+            throw new DeveloperError("This object was destroyed, i.e., destroy() was called.");
+        }
+        if (task == null) {
+            throw new DeveloperError("task is required.");
+        }
+        if (priority < HIGH || priority > IDLE) {
+            throw new DeveloperError("priority must be between HIGH and IDLE.");
+        }
+        Handle handle = new Handle(this, task, priority,
+                deadline >= 0.0 ? Duration.currentTimeMillis() + deadline : Double.POSITIVE_INFINITY);
+        pendingCounts[priority]++;
+        enqueue(handle);
+        if (scene.requestRenderMode) {
+            scene.requestRender();
+        }
+        return handle;
+    }
+
+    private void enqueue(Handle handle) {
+        Entry entry = new Entry(handle, frameNumber + (long) handle.priority * starvationFrames, sequence++);
+        handle.sequence = entry.sequence;
+        queue.add(entry);
+        if (handle.deadline != Double.POSITIVE_INFINITY) {
+            deadlines.add(entry);
+        }
+    }
+
+    private void runSlice() {
+        double start = Duration.currentTimeMillis();
+        if (lastPreUpdate >= 0.0) {
+            double interval = start - lastPreUpdate;
+            frameInterval = frameInterval < 0.0 ? interval : 0.9 * frameInterval + 0.1 * interval;
+        }
+        lastPreUpdate = start;
+        frameNumber++;
+        if (running || getQueueDepth() == 0) {
+            lastRunCount = 0;
+            sliceEnd = -1.0;
+            return;
+        }
+        double budget = sliceBudget;
+        if (targetFrameTime > 0.0 && renderTime >= 0.0) {
+            budget = Math.max(MINIMUM_SLICE_BUDGET, Math.min(sliceBudget, targetFrameTime - renderTime));
+        }
+        double end = start + budget;
+        running = true;
+        int runCount = 0;
+        try {
+            double now = start;
+            while (now < end || runCount == 0) {
+                Entry entry = next(now);
+                if (entry == null) {
+                    break;
+                }
+                runTask(entry.handle);
+                runCount++;
+                now = Duration.currentTimeMillis();
+            }
+        } finally {
+            running = false;
+        }
+        sliceEnd = Duration.currentTimeMillis();
+        lastRunCount = runCount;
+        lastSliceBudget = budget;
+        lastSliceTime = sliceEnd - start;
+        if (lastSliceTime > budget) {
+            overrunCount++;
+        }
+        double utilization = Math.min(lastSliceTime / budget, 1.0);
+        sliceUtilization = sliceUtilization < 0.0 ? utilization : 0.9 * sliceUtilization + 0.1 * utilization;
+        if (getQueueDepth() > 0 && scene.requestRenderMode) {
+            scene.requestRender();
+        }
+    }
+
+    /**
+     * Takes the next task to run: a task due before the next frame, or else the first of the queue.
+     */
+    private Entry next(double now) {
+        double horizon = now + Math.max(frameInterval, 0.0);
+        while (!deadlines.isEmpty()) {
+            Entry entry = deadlines.peek();
+            if (entry.isStale()) {
+                deadlines.poll();
+            } else if (entry.handle.deadline <= horizon) {
+                deadlines.poll();
+                return entry;
+            } else {
+                break;
+            }
+        }
+        while (!queue.isEmpty()) {
+            Entry entry = queue.poll();
+            if (!entry.isStale()) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private void runTask(Handle handle) {
+        // Any other entry of this run is stale from now on
+        handle.sequence = -1L;
+        handle.runCount++;
+        boolean more;
+        try {
+            more = handle.task.run();
+        } catch (RuntimeException e) {
+            if (handle.state != Handle.PENDING) {
+                // Canceled while running
+                return;
+            }
+            handle.error = e;
+            finish(handle, Handle.FAILED);
+            failedCount++;
+            return;
+        }
+        if (handle.state != Handle.PENDING) {
+            // Canceled while running
+            return;
+        }
+        if (!handle.deadlineMissed && Duration.currentTimeMillis() > handle.deadline) {
+            handle.deadlineMissed = true;
+            missedDeadlineCount++;
+        }
+        if (more) {
+            enqueue(handle);
+        } else {
+            finish(handle, Handle.COMPLETED);
+            completedCount++;
+        }
+    }
+
+    private void finish(Handle handle, int state) {
+        handle.state = state;
+        handle.sequence = -1L;
+        pendingCounts[handle.priority]--;
+    }
+
+    private void onPostRender() {
+        if (sliceEnd < 0.0) {
+            return;
+        }
+        double time = Duration.currentTimeMillis() - sliceEnd;
+        renderTime = renderTime < 0.0 ? time : 0.8 * renderTime + 0.2 * time;
+        sliceEnd = -1.0;
+    }
+
+    /**
+     * Gets the number of tasks waiting to run or to run again.
+     *
+     * @return The number of tasks.
+     */
+    public int getQueueDepth() {
+        int count = 0;
+        for (int pendingCount : pendingCounts) {
+            count += pendingCount;
+        }
+        return count;
+    }
+
+    /**
+     * Gets the number of tasks of a priority waiting to run or to run again.
+     *
+     * @param priority The priority.
+     * @return The number of tasks.
+     */
+    public int getQueueDepth(int priority) {
+        if (priority < HIGH || priority > IDLE) {
+            throw new DeveloperError("priority must be between HIGH and IDLE.");
+        }
+        return pendingCounts[priority];
+    }
+
+    /**
+     * Gets the average fraction of the slice used by the frames which ran tasks. A value close to 1 means tasks
+     * arrive faster than the slices run them.
+     *
+     * @return The fraction, from 0 to 1, or -1 before the first slice.
+     */
+    public double getSliceUtilization() {
+        return sliceUtilization;
+    }
+
+    /**
+     * Gets the slice of the last frame which ran tasks.
+     *
+     * @return The slice, in milliseconds.
+     */
+    public double getLastSliceBudget() {
+        return lastSliceBudget;
+    }
+
+    /**
+     * Gets the time spent running tasks in the last frame which ran tasks.
+     *
+     * @return The time, in milliseconds.
+     */
+    public double getLastSliceTime() {
+        return lastSliceTime;
+    }
+
+    /**
+     * Gets the number of task runs in the last frame.
+     *
+     * @return The number of runs.
+     */
+    public int getLastRunCount() {
+        return lastRunCount;
+    }
+
+    /**
+     * Gets the average time from the end of a slice to the end of the rendering of its frame.
+     *
+     * @return The time, in milliseconds, or -1 before the first frame which ran tasks.
+     */
+    public double getRenderTime() {
+        return renderTime;
+    }
+
+    /**
+     * Gets the average time between two frames.
+     *
+     * @return The time, in milliseconds, or -1 before the second frame.
+     */
+    public double getFrameInterval() {
+        return frameInterval;
+    }
+
+    /**
+     * Gets the number of tasks which completed.
+     *
+     * @return The number of tasks.
+     */
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * Gets the number of tasks canceled before completing.
+     *
+     * @return The number of tasks.
+     */
+    public int getCanceledCount() {
+        return canceledCount;
+    }
+
+    /**
+     * Gets the number of tasks which threw an exception.
+     *
+     * @return The number of tasks.
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * Gets the number of tasks which ran past their deadline.
+     *
+     * @return The number of tasks.
+     */
+    public int getMissedDeadlineCount() {
+        return missedDeadlineCount;
+    }
+
+    /**
+     * Gets the number of slices which ran longer than their budget because of a long task run.
+     *
+     * @return The number of slices.
+     */
+    public int getOverrunCount() {
+        return overrunCount;
+    }
+
+    /**
+     * Returns true if this object was destroyed; otherwise, false.
+     *
+     * @return True if this object was destroyed; otherwise, false.
+     */
+    public boolean isDestroyed() {
+        return destroyed;
+    }
+
+    /**
+     * Cancels all tasks and removes the scheduler from its scene. The next call of {@link #forScene(Scene)} for the
+     * same scene creates a new scheduler.
+     */
+    public void destroy() {
+        if (destroyed) {
+            return;
+        }
+        destroyed = true;
+        preUpdateCallback.function();
+        postRenderCallback.function();
+        SCHEDULERS.remove(this);
+        for (Entry entry : queue) {
+            if (!entry.isStale()) {
+                entry.handle.cancel();
+            }
+        }
+        queue.clear();
+        deadlines.clear();
+    }
+
+    /**
+     * A unit of work run from the frames of a scene.
+     */
+    public interface Task {
+        /**
+         * Does the next piece of work.
+         *
+         * @return true if the task has more work and should run again, false if it is complete.
+         */
+        boolean run();
+    }
+
+    /**
+     * The handle of a scheduled task.
+     */
+    public static final class Handle {
+        /**
+         * The state of a task waiting to run or to run again.
+         */
+        public static final int PENDING = 0;
+        /**
+         * The state of a task which completed.
+         */
+        public static final int COMPLETED = 1;
+        /**
+         * The state of a canceled task.
+         */
+        public static final int CANCELED = 2;
+        /**
+         * The state of a task which threw an exception.
+         */
+        public static final int FAILED = 3;
+
+        private final FrameTaskScheduler scheduler;
+        private final Task task;
+        private final int priority;
+        private final double deadline;
+        private int state = PENDING;
+        // The sequence of the queue entry of the task, or -1 while it runs or once it is done
+        private long sequence = -1L;
+        private int runCount;
+        private boolean deadlineMissed;
+        private RuntimeException error;
+
+        private Handle(FrameTaskScheduler scheduler, Task task, int priority, double deadline) {
+            this.scheduler = scheduler;
+            this.task = task;
+            this.priority = priority;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the task. A task canceled while it runs does not run again.
+         *
+         * @return true if the task was pending, false if it was already done.
+         */
+        public boolean cancel() {
+            if (state != PENDING) {
+                return false;
+            }
+            scheduler.finish(this, CANCELED);
+            scheduler.canceledCount++;
+            return true;
+        }
+
+        /**
+         * Gets the state of the task.
+         *
+         * @return {@link #PENDING}, {@link #COMPLETED}, {@link #CANCELED} or {@link #FAILED}.
+         */
+        public int getState() {
+            return state;
+        }
+
+        /**
+         * Determines whether the task is complete, canceled or failed.
+         *
+         * @return true if the task does not run again.
+         */
+        public boolean isDone() {
+            return state != PENDING;
+        }
+
+        /**
+         * Gets the priority of the task.
+         *
+         * @return The priority.
+         */
+        public int getPriority() {
+            return priority;
+        }
+
+        /**
+         * Gets the number of times the task ran.
+         *
+         * @return The number of runs.
+         */
+        public int getRunCount() {
+            return runCount;
+        }
+
+        /**
+         * Determines whether the task ran past its deadline.
+         *
+         * @return true if the deadline was missed.
+         */
+        public boolean isDeadlineMissed() {
+            return deadlineMissed;
+        }
+
+        /**
+         * Gets the exception thrown by the task.
+         *
+         * @return The exception, or null unless the task failed.
+         */
+        public RuntimeException getError() {
+            return error;
+        }
+    }
+
+    /**
+     * An entry of the queues, stale once the task ran or is done.
+     */
+    private static final class Entry {
+        final Handle handle;
+        final long key;
+        final long sequence;
+
+        Entry(Handle handle, long key, long sequence) {
+            this.handle = handle;
+            this.key = key;
+            this.sequence = sequence;
+        }
+
+        boolean isStale() {
+            return handle.sequence != sequence || handle.state != Handle.PENDING;
+        }
+    }
+}
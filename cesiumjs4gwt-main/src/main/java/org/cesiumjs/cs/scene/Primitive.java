@@ -16,12 +16,18 @@
 
 package org.cesiumjs.cs.scene;
 
+import com.google.gwt.typedarrays.shared.TypedArrays;
+import com.google.gwt.typedarrays.shared.Uint8Array;
 import jsinterop.annotations.JsConstructor;
 import jsinterop.annotations.JsMethod;
+import jsinterop.annotations.JsOverlay;
 import jsinterop.annotations.JsProperty;
 import jsinterop.annotations.JsType;
+import org.cesiumjs.cs.core.ColorGeometryInstanceAttribute;
+import org.cesiumjs.cs.core.DeveloperError;
 import org.cesiumjs.cs.core.Matrix4;
 import org.cesiumjs.cs.core.geometry.GeometryInstance;
+import org.cesiumjs.cs.js.JsObject;
 import org.cesiumjs.cs.promise.Promise;
 import org.cesiumjs.cs.scene.apperances.Appearance;
 import org.cesiumjs.cs.scene.enums.ShadowMode;
@@ -194,4 +200,29 @@ public class Primitive {
      */
     @JsMethod
     public native void update(Object frameState);
+
+    /**
+     * Assigns the color attribute of many geometry instances from packed RGBA values, for example to restyle
+     * instances by category. The geometry instances must have a {@link ColorGeometryInstanceAttribute}. Ids without
+     * an instance are skipped. A single typed array is reused for all instances, since CesiumJS copies the
+     * value into its batch table.
+     *
+     * @param ids    The ids of the GeometryInstances.
+     * @param colors The packed RGBA values, one per id.
+     * @see org.cesiumjs.cs.core.Color#packRgba(double, double, double, double)
+     */
+    @JsOverlay
+    public final void setInstanceColors(Object[] ids, int[] colors) {
+        if (ids.length != colors.length) {
+            throw new DeveloperError("ids and colors must have the same length.");
+        }
+        Uint8Array value = TypedArrays.createUint8Array(4);
+        for (int i = 0; i < ids.length; i++) {
+            Object attributes = getGeometryInstanceAttributes(ids[i]);
+            if (attributes != null) {
+                JsObject.setProperty(attributes, "color",
+                        ColorGeometryInstanceAttribute.packedRgbaToValue(colors[i], value));
+            }
+        }
+    }
 }
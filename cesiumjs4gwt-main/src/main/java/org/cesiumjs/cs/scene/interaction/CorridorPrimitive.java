@@ -21,19 +21,19 @@ import org.cesiumjs.cs.core.*;
 import org.cesiumjs.cs.core.geometry.CorridorGeometry;
 import org.cesiumjs.cs.core.geometry.Geometry;
 import org.cesiumjs.cs.core.geometry.options.CorridorGeometryOptions;
+import org.cesiumjs.cs.core.math.Geodesicd;
 import org.cesiumjs.cs.js.JsObject;
+import org.cesiumjs.cs.scene.FrameScratchPool;
 import org.cesiumjs.cs.scene.Globe;
 import org.cesiumjs.cs.scene.Scene;
 import org.cesiumjs.cs.scene.apperances.PolylineMaterialAppearance;
 import org.cesiumjs.cs.scene.interaction.options.CorridorPrimitiveOptions;
 
-import java.util.Date;
-
 /**
  * @author Serge Silaev aka iSergio
  */
 public class CorridorPrimitive extends AbstractPrimitive {
-    private Date lastUpdate = new Date();
+    private double lastUpdate = System.currentTimeMillis();
 
     public CorridorPrimitive(final Scene scene, final CorridorPrimitiveOptions options) {
         super(options);
@@ -67,6 +67,7 @@ public class CorridorPrimitive extends AbstractPrimitive {
         };
 
         // Need for scale CorridorPrimitive and convert pixel width to metres width
+        final FrameScratchPool scratch = FrameScratchPool.forScene(scene);
         scene.preRender().addEventListener(new Event.Listener() {
             @Override
             public void function(Object... o) {
@@ -74,10 +75,11 @@ public class CorridorPrimitive extends AbstractPrimitive {
                     return;
                 }
 
-                if (new Date().getTime() < lastUpdate.getTime() + 250) {
+                double now = System.currentTimeMillis();
+                if (now < lastUpdate + 250) {
                     return;
                 }
-                lastUpdate = new Date();
+                lastUpdate = now;
 
                 // May be bug, without this not worked access to canvas().getClientWidth/Height
                 scene.canvas().getWidth();
@@ -86,23 +88,24 @@ public class CorridorPrimitive extends AbstractPrimitive {
                 int width = scene.canvas().getClientWidth();
                 int height = scene.canvas().getClientHeight();
 
-                Ray left = scene.camera().getPickRay(new Cartesian2((width / 2), height - 1));
-                Ray right = scene.camera().getPickRay(new Cartesian2(1 + (width / 2), height - 1));
+                Ray left = scene.camera().getPickRay(scratch.cartesian2((width / 2), height - 1), scratch.ray());
+                Ray right = scene.camera().getPickRay(scratch.cartesian2(1 + (width / 2), height - 1), scratch.ray());
 
                 Globe globe = scene.globe;
-                Cartesian3 leftPosition = globe.pick(left, scene);
-                Cartesian3 rightPosition = globe.pick(right, scene);
+                Cartesian3 leftPosition = globe.pick(left, scene, scratch.cartesian3());
+                Cartesian3 rightPosition = globe.pick(right, scene, scratch.cartesian3());
 
                 if (leftPosition == null || rightPosition == null) {
                     return;
                 }
 
-                Cartographic leftCartographic = globe.ellipsoid.cartesianToCartographic(leftPosition);
-                Cartographic rightCartographic = globe.ellipsoid.cartesianToCartographic(rightPosition);
+                Cartographic leftCartographic = globe.ellipsoid.cartesianToCartographic(leftPosition,
+                        scratch.cartographic());
+                Cartographic rightCartographic = globe.ellipsoid.cartesianToCartographic(rightPosition,
+                        scratch.cartographic());
 
-                EllipsoidGeodesic geodesic = new EllipsoidGeodesic();
-                geodesic.setEndPoints(leftCartographic, rightCartographic);
-                double pixelDistance = geodesic.surfaceDistance();
+                double pixelDistance = Geodesicd.WGS84.surfaceDistance(leftCartographic.longitude,
+                        leftCartographic.latitude, rightCartographic.longitude, rightCartographic.latitude);
                 //
                 setWidth(pixelDistance * options.width * 2);
             }
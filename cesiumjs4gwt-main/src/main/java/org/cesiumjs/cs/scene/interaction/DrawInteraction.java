@@ -32,6 +32,7 @@ import org.cesiumjs.cs.core.events.MouseDownEvent;
 import org.cesiumjs.cs.core.events.MouseMoveEvent;
 import org.cesiumjs.cs.js.JsObject;
 import org.cesiumjs.cs.scene.Billboard;
+import org.cesiumjs.cs.scene.FrameScratchPool;
 import org.cesiumjs.cs.scene.Material;
 import org.cesiumjs.cs.scene.PointPrimitive;
 import org.cesiumjs.cs.scene.Scene;
@@ -53,6 +54,10 @@ public class DrawInteraction {
      * {@link Scene} property.
      */
     private final Scene scene;
+    /**
+     * Scratch objects for mouse move handling, released at the end of each frame.
+     */
+    private final FrameScratchPool scratch;
     /**
      * Options for draw. Need optimizations.
      */
@@ -98,6 +103,14 @@ public class DrawInteraction {
      * All draw positions
      */
     private final List<Cartesian3> positions = new ArrayList<>();
+    /**
+     * Reused array of draw positions passed to primitives
+     */
+    private Cartesian3[] positionsArray = new Cartesian3[0];
+    /**
+     * Reused array for updating the circle radius marker
+     */
+    private final Cartesian3[] radiusMarker = new Cartesian3[1];
     /**
      * {@link RectanglePrimitive}
      */
@@ -149,6 +162,7 @@ public class DrawInteraction {
      */
     public DrawInteraction(final Scene scene, final DrawInteractionOptions options) {
         this.scene = scene;
+        this.scratch = FrameScratchPool.forScene(scene);
         this.options = options;
         this.collection = options.collection == null ? scene.groundPrimitives() : options.collection;
         this.type = options.type;
@@ -403,7 +417,8 @@ public class DrawInteraction {
                 }
                 radius.setPositions(positions.toArray(new Cartesian3[positions.size()]));
                 radius.createPrimitive = true;
-                positions.add(cartesian);
+                // Last position is updated in place by mouse move, so it must not be the circle center
+                positions.add(cartesian.clone());
             } else {
                 // Done
                 finishDrawing();
@@ -433,10 +448,11 @@ public class DrawInteraction {
         Cartesian3 cartesian;
 
         if (scene.mode.equals(SceneMode.SCENE3D())) {
-            Ray ray = scene.camera().getPickRay(mouseMoveEvent.endPosition);
-            cartesian = scene.globe.pick(ray, scene);
+            Ray ray = scene.camera().getPickRay(mouseMoveEvent.endPosition, scratch.ray());
+            cartesian = scene.globe.pick(ray, scene, scratch.cartesian3());
         } else {
-            cartesian = scene.camera().pickEllipsoid(mouseMoveEvent.endPosition, scene.globe.ellipsoid);
+            cartesian = scene.camera().pickEllipsoid(mouseMoveEvent.endPosition, scene.globe.ellipsoid,
+                    scratch.cartesian3());
         }
 
         if (cartesian == null) {
@@ -451,7 +467,8 @@ public class DrawInteraction {
 
         if (type == PrimitiveType.RECTANGLE) {
             if (rectangle != null) {
-                Cartographic secondPoint = scene.globe.ellipsoid.cartesianToCartographic(cartesian);
+                Cartographic secondPoint = scene.globe.ellipsoid.cartesianToCartographic(cartesian,
+                        scratch.cartographic());
                 Rectangle value = getExtent(firstPoint, secondPoint);
                 updateExtent(value);
             }
@@ -459,22 +476,20 @@ public class DrawInteraction {
             if (positions.size() == 0) {
                 return;
             }
-            positions.remove(positions.size() - 1);
-            cartesian.y += (1 + Math.random());
-            positions.add(cartesian);
+            cartesian = updateLastPosition(cartesian);
             if (positions.size() >= options.minPoints) {
                 if (type == PrimitiveType.POLYGON) {
-                    polygon.setPositions(positions.toArray(new Cartesian3[positions.size()]));
+                    polygon.setPositions(getPositionsArray());
                     polygon.createPrimitive = true;
                 } else {
-                    corridor.setPositions(positions.toArray(new Cartesian3[positions.size()]));
+                    corridor.setPositions(getPositionsArray());
                     corridor.createPrimitive = true;
                 }
             }
 
             if (isShiftKeyDown && isLeftDown) {
                 // Free hand mode
-                positions.add(cartesian);
+                positions.add(cartesian.clone());
                 // Not need display all markers ?
                 // markers.add(cartesian);
             } else {
@@ -491,16 +506,41 @@ public class DrawInteraction {
             circle.setRadius(Cartesian3.distance(circle.getCenter(), cartesian));
 
             // Update radius
-            positions.remove(positions.size() - 1);
-            cartesian.y += (1 + Math.random());
-            positions.add(cartesian);
+            cartesian = updateLastPosition(cartesian);
             if (positions.size() >= options.minPoints) {
-                radius.setPositions(positions.toArray(new Cartesian3[positions.size()]));
+                radius.setPositions(getPositionsArray());
                 radius.createPrimitive = true;
             }
 
-            markers.update(new Cartesian3[]{cartesian});
+            radiusMarker[0] = cartesian;
+            markers.update(radiusMarker);
+        }
+    }
+
+    /**
+     * Copies the picked position into the last draw position in place, instead of replacing it with a new object.
+     *
+     * @param cartesian picked position, may be a scratch object
+     * @return the updated last draw position
+     */
+    private Cartesian3 updateLastPosition(Cartesian3 cartesian) {
+        Cartesian3 last = positions.get(positions.size() - 1);
+        last.x = cartesian.x;
+        last.y = cartesian.y + (1 + Math.random());
+        last.z = cartesian.z;
+        return last;
+    }
+
+    /**
+     * Get draw positions as array. The array is reused while the number of positions does not change.
+     *
+     * @return draw positions
+     */
+    private Cartesian3[] getPositionsArray() {
+        if (positionsArray.length != positions.size()) {
+            positionsArray = new Cartesian3[positions.size()];
         }
+        return positions.toArray(positionsArray);
     }
 
     private void finishDrawing() {
@@ -540,6 +580,8 @@ public class DrawInteraction {
             markers = null;
         }
         positions.clear();
+        // Finished primitive keeps the array, so next drawing must not reuse it
+        positionsArray = new Cartesian3[0];
 
         for (Listener listener : drawEndListeners) {
             listener.onDraw(event);
@@ -22,11 +22,45 @@ import org.cesiumjs.cs.collections.ClippingPlaneCollectionTest;
 import org.cesiumjs.cs.collections.DataSourceCollectionTest;
 import org.cesiumjs.cs.collections.LabelCollectionTest;
 import org.cesiumjs.cs.core.Cartesian2Test;
+import org.cesiumjs.cs.core.ColorCacheTest;
 import org.cesiumjs.cs.core.ColorTest;
+import org.cesiumjs.cs.core.FixedFrameRotationTableTest;
 import org.cesiumjs.cs.core.IonResourceTest;
+import org.cesiumjs.cs.core.LocalFrameCacheTest;
+import org.cesiumjs.cs.core.TriangulationCacheTest;
 import org.cesiumjs.cs.core.geometry.CoplanarPolygonGeometryTest;
 import org.cesiumjs.cs.core.geometry.GroundPolylineGeometryTest;
+import org.cesiumjs.cs.core.interpolation.MultiTrackInterpolatorTest;
+import org.cesiumjs.cs.core.math.ArcDensifierTest;
+import org.cesiumjs.cs.core.math.BoundingSpheredTest;
+import org.cesiumjs.cs.core.math.Cartesian3BufferTest;
+import org.cesiumjs.cs.core.math.EllipsoidRhumbLinedTest;
+import org.cesiumjs.cs.core.math.EllipsoiddTest;
+import org.cesiumjs.cs.core.math.FeatureTileIndexTest;
+import org.cesiumjs.cs.core.math.GeodesicdTest;
+import org.cesiumjs.cs.core.math.LineSimplifierTest;
+import org.cesiumjs.cs.core.math.Matrix3dTest;
+import org.cesiumjs.cs.core.math.Matrix4dTest;
+import org.cesiumjs.cs.core.math.OrientedBoundingBoxdTest;
+import org.cesiumjs.cs.core.math.PolygonTriangulatorTest;
+import org.cesiumjs.cs.core.math.SphereCullerTest;
+import org.cesiumjs.cs.core.math.TileAvailabilitydTest;
+import org.cesiumjs.cs.core.math.TileKeyTest;
+import org.cesiumjs.cs.core.math.TilingSchemedTest;
+import org.cesiumjs.cs.core.math.TransformsdTest;
+import org.cesiumjs.cs.core.math.TriangleBvhTest;
+import org.cesiumjs.cs.core.time.JulianTimeTest;
+import org.cesiumjs.cs.datasources.CzmlPacketTokenizerTest;
+import org.cesiumjs.cs.datasources.CzmlStreamIngesterTest;
+import org.cesiumjs.cs.datasources.DataSourceSimplifierTest;
+import org.cesiumjs.cs.datasources.EntityBulkLoaderTest;
+import org.cesiumjs.cs.datasources.EntityPoolTest;
+import org.cesiumjs.cs.datasources.GeoJsonTileLayerTest;
+import org.cesiumjs.cs.datasources.PackedCzmlLoaderTest;
+import org.cesiumjs.cs.datasources.PackedCzmlWriterTest;
 import org.cesiumjs.cs.scene.Cesium3DTilesetTest;
+import org.cesiumjs.cs.scene.FrameScratchPoolTest;
+import org.cesiumjs.cs.scene.FrameTaskSchedulerTest;
 import org.cesiumjs.cs.scene.LabelTest;
 
 /**
@@ -46,12 +80,48 @@ public class CesiumTestSuite extends GWTTestSuite {
         suite.addTestSuite(LabelCollectionTest.class);
         suite.addTestSuite(IonResourceTest.class);
         suite.addTestSuite(CoplanarPolygonGeometryTest.class);
+        suite.addTestSuite(Matrix4dTest.class);
+        suite.addTestSuite(EllipsoiddTest.class);
+        suite.addTestSuite(JulianTimeTest.class);
+        suite.addTestSuite(Cartesian3BufferTest.class);
+        suite.addTestSuite(Matrix3dTest.class);
+        suite.addTestSuite(ColorCacheTest.class);
+        suite.addTestSuite(BoundingSpheredTest.class);
+        suite.addTestSuite(OrientedBoundingBoxdTest.class);
+        suite.addTestSuite(GeodesicdTest.class);
+        suite.addTestSuite(EllipsoidRhumbLinedTest.class);
+        suite.addTestSuite(ArcDensifierTest.class);
+        suite.addTestSuite(TriangleBvhTest.class);
+        suite.addTestSuite(TransformsdTest.class);
+        suite.addTestSuite(LocalFrameCacheTest.class);
+        suite.addTestSuite(FixedFrameRotationTableTest.class);
+        suite.addTestSuite(MultiTrackInterpolatorTest.class);
+        suite.addTestSuite(TileKeyTest.class);
+        suite.addTestSuite(TilingSchemedTest.class);
+        suite.addTestSuite(TileAvailabilitydTest.class);
+        suite.addTestSuite(PolygonTriangulatorTest.class);
+        suite.addTestSuite(TriangulationCacheTest.class);
+        suite.addTestSuite(LineSimplifierTest.class);
+        suite.addTestSuite(SphereCullerTest.class);
+        suite.addTestSuite(FeatureTileIndexTest.class);
 
         // Scene
         suite.addTestSuite(LabelTest.class);
         suite.addTestSuite(ClippingPlaneCollectionTest.class);
         suite.addTestSuite(DataSourceCollectionTest.class);
         suite.addTestSuite(Cesium3DTilesetTest.class);
+        suite.addTestSuite(FrameScratchPoolTest.class);
+        suite.addTestSuite(FrameTaskSchedulerTest.class);
+
+        // DataSources
+        suite.addTestSuite(DataSourceSimplifierTest.class);
+        suite.addTestSuite(CzmlPacketTokenizerTest.class);
+        suite.addTestSuite(CzmlStreamIngesterTest.class);
+        suite.addTestSuite(PackedCzmlWriterTest.class);
+        suite.addTestSuite(PackedCzmlLoaderTest.class);
+        suite.addTestSuite(GeoJsonTileLayerTest.class);
+        suite.addTestSuite(EntityBulkLoaderTest.class);
+        suite.addTestSuite(EntityPoolTest.class);
 
         // Widgets
         // Not understand how test widgets, in this moment strange error
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.BaseTestCase;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class ColorCacheTest extends BaseTestCase {
+
+    public void testFromCssColorString() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ColorCache.clear();
+            Color yellow = ColorCache.fromCssColorString("yellow");
+            assertTrue(Color.equals(Color.YELLOW(), yellow));
+            assertSame(yellow, ColorCache.fromCssColorString("yellow"));
+            assertTrue(isFrozen(yellow));
+            assertEquals(1, ColorCache.getHits());
+            assertEquals(1, ColorCache.getMisses());
+
+            assertNull(ColorCache.fromCssColorString("not a color"));
+            assertEquals(1, ColorCache.size());
+            finishTest();
+        });
+    }
+
+    public void testToPackedRgba() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ColorCache.clear();
+            assertEquals(Color.packBytes(0x67, 0xAD, 0xDF, 0xFF), ColorCache.toPackedRgba("#67ADDF"));
+            assertEquals(Color.packBytes(0x67, 0xAD, 0xDF, 0xFF), ColorCache.toPackedRgba("#67ADDF"));
+            assertEquals(1, ColorCache.getHits());
+            try {
+                ColorCache.toPackedRgba("not a color");
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testFromPackedRgba() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ColorCache.clear();
+            int rgba = Color.packBytes(255, 0, 0, 255);
+            Color red = ColorCache.fromPackedRgba(rgba);
+            assertTrue(Color.equals(Color.RED(), red));
+            assertSame(red, ColorCache.fromPackedRgba(rgba));
+            assertTrue(isFrozen(red));
+            finishTest();
+        });
+    }
+
+    public void testEvictsLeastRecentlyUsed() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ColorCache.clear();
+            ColorCache.setMaximumSize(2);
+            Color first = ColorCache.fromPackedRgba(1);
+            Color second = ColorCache.fromPackedRgba(2);
+            assertSame(first, ColorCache.fromPackedRgba(1));
+            ColorCache.fromPackedRgba(3);
+            assertEquals(2, ColorCache.size());
+            assertSame(first, ColorCache.fromPackedRgba(1));
+            assertNotSame(second, ColorCache.fromPackedRgba(2));
+
+            ColorCache.setMaximumSize(1);
+            assertEquals(0, ColorCache.size());
+            assertEquals(0, ColorCache.getHits());
+            ColorCache.setMaximumSize(ColorCache.DEFAULT_MAXIMUM_SIZE);
+            finishTest();
+        });
+    }
+
+    private static native boolean isFrozen(Object value) /*-{
+        return Object.isFrozen(value);
+    }-*/;
+}
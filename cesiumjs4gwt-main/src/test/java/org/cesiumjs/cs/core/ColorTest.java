@@ -33,4 +33,38 @@ public class ColorTest extends BaseTestCase {
             finishTest();
         });
     }
-}
\ No newline at end of file
+
+    public void testPackRgba() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int rgba = Color.packRgba(1.0, 0.0, 0.5, 0.25);
+            assertEquals(255, Color.redByte(rgba));
+            assertEquals(0, Color.greenByte(rgba));
+            assertEquals(128, Color.blueByte(rgba));
+            assertEquals(64, Color.alphaByte(rgba));
+            assertEquals(0x40FFFF00, Color.packBytes(0, 255, 255, 64));
+            assertEquals(0xFF, Color.alphaByte(Color.withPackedAlpha(rgba, 1.0)));
+            assertEquals(128, Color.blueByte(Color.withPackedAlpha(rgba, 1.0)));
+            finishTest();
+        });
+    }
+
+    public void testPackedRgbaMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Color[] colors = {Color.RED(), Color.CORNFLOWERBLUE(), new Color(0.1, 0.2, 0.3, 0.4),
+                    Color.TRANSPARENT()};
+            int[] packed = Color.packRgbaArray(colors, null);
+            for (int i = 0; i < colors.length; i++) {
+                Color expected = Color.fromRgba(packed[i]);
+                Color actual = Color.fromPackedRgba(packed[i], null);
+                assertTrue(Color.equals(expected, actual));
+                assertEquals(colors[i].red, actual.red, 1.0 / 255.0);
+                assertEquals(colors[i].alpha, actual.alpha, 1.0 / 255.0);
+            }
+            finishTest();
+        });
+    }
+}
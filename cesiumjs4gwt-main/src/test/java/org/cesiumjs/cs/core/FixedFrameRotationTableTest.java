@@ -0,0 +1,83 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.math.CesiumMath;
+import org.cesiumjs.cs.core.math.Matrix3d;
+import org.cesiumjs.cs.core.math.Quaterniond;
+import org.cesiumjs.cs.core.time.JulianTime;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class FixedFrameRotationTableTest extends BaseTestCase {
+
+    public void testTemeMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime start = JulianTime.fromIso8601("2023-06-01T00:00:00Z", null);
+            JulianTime stop = JulianTime.addSeconds(start, 3600.0, null);
+            FixedFrameRotationTable table = FixedFrameRotationTable.temeToPseudoFixed(start, stop, 60.0);
+            assertEquals(61, table.getSampleCount());
+
+            JulianTime time = new JulianTime();
+            Matrix3d actual = new Matrix3d();
+            Quaterniond scratch = new Quaterniond();
+            double[] offsets = {0.0, 30.0, 59.9, 60.0, 1234.5, 3600.0};
+            for (double offset : offsets) {
+                JulianTime.addSeconds(start, offset, time);
+                Matrix3 expected = Transforms.computeTemeToPseudoFixedMatrix(JulianTime.toJulianDate(time, null));
+                assertNotNull(table.computeMatrix(time, scratch, actual));
+                assertTrue(Matrix3d.equalsEpsilon(Matrix3d.fromMatrix3(expected, null), actual,
+                        CesiumMath.EPSILON9));
+            }
+            finishTest();
+        });
+    }
+
+    public void testRange() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime start = JulianTime.fromIso8601("2023-06-01T00:00:00Z", null);
+            JulianTime stop = JulianTime.addSeconds(start, 90.0, null);
+            FixedFrameRotationTable table = FixedFrameRotationTable.temeToPseudoFixed(start, stop, 60.0);
+            assertEquals(3, table.getSampleCount());
+            assertTrue(table.contains(stop));
+            assertFalse(table.contains(JulianTime.addSeconds(start, -1.0, null)));
+            assertNull(table.computeQuaternion(90.5, null));
+            assertNull(table.computeMatrix(JulianTime.addSeconds(stop, 1.0, null), null, null));
+
+            Quaterniond quaternion = table.computeQuaternion(75.0, null);
+            assertEquals(1.0, Quaterniond.magnitude(quaternion), CesiumMath.EPSILON14);
+            assertEquals(0.0, JulianTime.secondsDifference(table.getStop(null), stop));
+
+            FixedFrameRotationTable empty = FixedFrameRotationTable.temeToPseudoFixed(start, start, 60.0);
+            assertEquals(2, empty.getSampleCount());
+            assertNotNull(empty.computeQuaternion(0.0, null));
+            try {
+                FixedFrameRotationTable.temeToPseudoFixed(stop, start, 60.0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+}
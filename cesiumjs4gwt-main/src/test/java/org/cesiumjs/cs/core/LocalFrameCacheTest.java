@@ -0,0 +1,109 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.math.CesiumMath;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class LocalFrameCacheTest extends BaseTestCase {
+
+    public void testEastNorthUpMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            LocalFrameCache cache = new LocalFrameCache();
+            Cartesian3 origin = Cartesian3.fromDegrees(-75.59777, 40.03883, 100.0);
+            Matrix4 actual = cache.eastNorthUpToFixedFrame(origin);
+            Matrix4 expected = Transforms.eastNorthUpToFixedFrame(origin);
+            assertTrue(Matrix4.equalsEpsilon(expected, actual, cache.getPositionGranularity()));
+            assertTrue(isFrozen(actual));
+            finishTest();
+        });
+    }
+
+    public void testHeadingPitchRollMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            LocalFrameCache cache = new LocalFrameCache();
+            Cartesian3 origin = Cartesian3.fromDegrees(139.6917, 35.6895, 0.0);
+            HeadingPitchRoll headingPitchRoll = new HeadingPitchRoll(0.3, 0.2, 0.1);
+            Matrix4 matrix = cache.headingPitchRollToFixedFrame(origin, headingPitchRoll);
+            assertTrue(Matrix4.equalsEpsilon(Transforms.headingPitchRollToFixedFrame(origin, headingPitchRoll),
+                    matrix, cache.getPositionGranularity()));
+            Quaternion quaternion = cache.headingPitchRollQuaternion(origin, headingPitchRoll);
+            assertTrue(Quaternion.equalsEpsilon(Transforms.headingPitchRollQuaternion(origin, headingPitchRoll),
+                    quaternion, CesiumMath.EPSILON6));
+            assertEquals(2, cache.size());
+            finishTest();
+        });
+    }
+
+    public void testQuantizedOriginsShareEntries() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            LocalFrameCache cache = new LocalFrameCache(16, 1.0, 0.0);
+            Matrix4 first = cache.eastNorthUpToFixedFrame(new Cartesian3(6378137.1, 0.2, 0.3));
+            Matrix4 second = cache.eastNorthUpToFixedFrame(new Cartesian3(6378136.9, -0.2, 0.1));
+            assertSame(first, second);
+            assertNotSame(first, cache.eastNorthUpToFixedFrame(new Cartesian3(6378139.0, 0.0, 0.0)));
+            assertEquals(1, cache.getHits());
+            assertEquals(2, cache.getMisses());
+
+            HeadingPitchRoll headingPitchRoll = new HeadingPitchRoll(0.1, 0.0, 0.0);
+            Matrix4 frame = cache.headingPitchRollToFixedFrame(new Cartesian3(6378137.0, 0.0, 0.0), headingPitchRoll);
+            assertNotSame(first, frame);
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertEquals(0, cache.getHits());
+            finishTest();
+        });
+    }
+
+    public void testEvictsLeastRecentlyUsed() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            LocalFrameCache cache = new LocalFrameCache(2, 0.0, 0.0);
+            Cartesian3 a = new Cartesian3(6378137.0, 0.0, 0.0);
+            Cartesian3 b = new Cartesian3(0.0, 6378137.0, 0.0);
+            Cartesian3 c = new Cartesian3(0.0, 0.0, 6356752.0);
+            Matrix4 first = cache.eastNorthUpToFixedFrame(a);
+            Matrix4 second = cache.eastNorthUpToFixedFrame(b);
+            assertSame(first, cache.eastNorthUpToFixedFrame(a));
+            cache.eastNorthUpToFixedFrame(c);
+            assertEquals(2, cache.size());
+            assertSame(first, cache.eastNorthUpToFixedFrame(a));
+            assertNotSame(second, cache.eastNorthUpToFixedFrame(b));
+            try {
+                new LocalFrameCache(0, 0.0, 0.0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static native boolean isFrozen(Object value) /*-{
+        return Object.isFrozen(value);
+    }-*/;
+}
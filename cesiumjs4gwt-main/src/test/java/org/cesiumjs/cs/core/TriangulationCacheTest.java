@@ -0,0 +1,158 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.math.Cartesian3d;
+import org.cesiumjs.cs.core.math.Ellipsoidd;
+import org.cesiumjs.cs.core.math.PolygonTriangulator;
+
+import java.util.Arrays;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class TriangulationCacheTest extends BaseTestCase {
+
+    public void testHitsAndMisses() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TriangulationCache cache = new TriangulationCache();
+            double[] square = {0.0, 0.0, 1.0, 0.0, 1.0, 1.0, 0.0, 1.0};
+            int[] first = cache.triangulate2D(square, null);
+            assertEquals(1, cache.getMisses());
+            assertEquals(0, cache.getHits());
+
+            // A copy of the same coordinates is a hit, even after the caller reuses its array
+            double[] copy = Arrays.copyOf(square, square.length);
+            square[0] = -1.0;
+            assertSame(first, cache.triangulate2D(copy, null));
+            assertEquals(1, cache.getHits());
+            assertNotSame(first, cache.triangulate2D(square, null));
+            assertEquals(2, cache.getMisses());
+            assertNotSame(first, cache.triangulate2D(copy, new int[0]));
+            assertEquals(3, cache.size());
+
+            cache.clear();
+            assertEquals(0, cache.size());
+            assertEquals(0, cache.getHits());
+            assertEquals(0, cache.getMisses());
+            finishTest();
+        });
+    }
+
+    public void testEviction() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TriangulationCache cache = new TriangulationCache(2, Ellipsoidd.WGS84);
+            assertEquals(2, cache.getMaximumSize());
+            double[] a = {0.0, 0.0, 1.0, 0.0, 0.0, 1.0};
+            double[] b = {0.0, 0.0, 2.0, 0.0, 0.0, 2.0};
+            double[] c = {0.0, 0.0, 3.0, 0.0, 0.0, 3.0};
+            cache.triangulate2D(a, null);
+            cache.triangulate2D(b, null);
+            // Touch a so that b is the least recently used
+            cache.triangulate2D(a, null);
+            cache.triangulate2D(c, null);
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.getHits());
+
+            cache.triangulate2D(a, null);
+            assertEquals(2, cache.getHits());
+            cache.triangulate2D(b, null);
+            assertEquals(4, cache.getMisses());
+
+            try {
+                new TriangulationCache(0, Ellipsoidd.WGS84);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new TriangulationCache(1, null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testEllipsoidPositions() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TriangulationCache cache = new TriangulationCache();
+            double[] positions = createRing(10.0, 40.0, 1.0);
+            int[] indices = cache.triangulate(positions, null);
+            assertEquals(6, indices.length);
+            assertSame(indices, cache.triangulate(positions, null));
+            // The same numbers as planar coordinates are a different entry
+            assertNotSame(indices, cache.triangulate2D(positions, null));
+            assertEquals(2, cache.getMisses());
+            assertTrue(Arrays.equals(PolygonTriangulator.triangulate(positions, null, Ellipsoidd.WGS84), indices));
+            finishTest();
+        });
+    }
+
+    public void testHierarchy() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TriangulationCache cache = new TriangulationCache();
+            // Outer ring closed with a duplicate, and a clockwise hole holding a nested polygon
+            PolygonHierarchy nested = new PolygonHierarchy(Cartesian3.fromDegreesArray(new double[]{
+                    10.4, 40.4, 10.6, 40.4, 10.6, 40.6, 10.4, 40.6}));
+            PolygonHierarchy hole = new PolygonHierarchy(Cartesian3.fromDegreesArray(new double[]{
+                    10.2, 40.2, 10.2, 40.8, 10.8, 40.8, 10.8, 40.2}), new PolygonHierarchy[]{nested});
+            PolygonHierarchy hierarchy = new PolygonHierarchy(Cartesian3.fromDegreesArray(new double[]{
+                    10.0, 40.0, 11.0, 40.0, 11.0, 41.0, 10.0, 41.0, 10.0, 40.0}), new PolygonHierarchy[]{hole});
+
+            double[] packed = cache.packHierarchy(hierarchy);
+            assertEquals(3 * 12, packed.length);
+            int[] indices = cache.triangulate(hierarchy);
+            // 8 triangles for the square with a hole, 2 for the nested square
+            assertEquals(3 * 10, indices.length);
+            for (int i = 0; i < 24; i++) {
+                assertTrue(indices[i] < 8);
+            }
+            for (int i = 24; i < 30; i++) {
+                assertTrue(indices[i] >= 8 && indices[i] < 12);
+            }
+            assertEquals(2, cache.getMisses());
+            cache.triangulate(hierarchy);
+            assertEquals(2, cache.getHits());
+            assertEquals(0, cache.triangulate(new PolygonHierarchy()).length);
+            finishTest();
+        });
+    }
+
+    private static double[] createRing(double longitude, double latitude, double size) {
+        double[] degrees = {longitude, latitude, longitude + size, latitude, longitude + size, latitude + size,
+                longitude, latitude + size};
+        double[] result = new double[12];
+        Cartesian3d scratch = new Cartesian3d();
+        for (int i = 0; i < 4; i++) {
+            Ellipsoidd.WGS84.cartographicToCartesian(java.lang.Math.toRadians(degrees[2 * i]),
+                    java.lang.Math.toRadians(degrees[2 * i + 1]), 0.0, scratch);
+            Cartesian3d.pack(scratch, result, 3 * i);
+        }
+        return result;
+    }
+}
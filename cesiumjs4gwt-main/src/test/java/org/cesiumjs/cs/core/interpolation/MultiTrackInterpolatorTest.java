@@ -0,0 +1,212 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.interpolation;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class MultiTrackInterpolatorTest extends BaseTestCase {
+
+    public void testLagrangeReproducesPolynomials() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int sampleCount = 20;
+            double[] xTable = createTimes(sampleCount);
+            double[] yTable = new double[sampleCount * 2];
+            for (int i = 0; i < sampleCount; i++) {
+                yTable[i * 2] = quintic(xTable[i]);
+                yTable[i * 2 + 1] = 3.0 - 2.0 * xTable[i];
+            }
+            MultiTrackInterpolator interpolator = MultiTrackInterpolator.lagrange(5);
+            assertEquals(6, interpolator.getRequiredDataPoints());
+
+            double[] result = new double[3];
+            double[] times = {0.0, 0.25, 3.7, 10.0, 18.9, 19.0};
+            for (double x : times) {
+                interpolator.interpolate(x, xTable, sampleCount, yTable, 2, result, 1);
+                assertEquals(quintic(x), result[1], 1e-9 * Math.max(Math.abs(quintic(x)), 1.0));
+                assertEquals(3.0 - 2.0 * x, result[2], 1e-12);
+            }
+            finishTest();
+        });
+    }
+
+    public void testLagrangeMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int sampleCount = 12;
+            double[] xTable = createTimes(sampleCount);
+            double[] yTable = new double[sampleCount * 3];
+            for (int i = 0; i < sampleCount; i++) {
+                yTable[i * 3] = Math.sin(xTable[i]);
+                yTable[i * 3 + 1] = Math.cos(xTable[i]);
+                yTable[i * 3 + 2] = Math.exp(0.1 * xTable[i]);
+            }
+            MultiTrackInterpolator interpolator = MultiTrackInterpolator.lagrange(11);
+            double[] result = new double[3];
+            double[] times = {0.5, 4.2, 10.75};
+            for (double x : times) {
+                interpolator.interpolate(x, xTable, sampleCount, yTable, 3, result, 0);
+                double[] expected = LagrangePolynomialApproximation.interpolateOrderZero(x, xTable, yTable, 3);
+                for (int i = 0; i < 3; i++) {
+                    assertEquals(expected[i], result[i], 1e-12);
+                }
+            }
+            finishTest();
+        });
+    }
+
+    public void testHermiteReproducesPolynomials() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int sampleCount = 10;
+            double[] xTable = createTimes(sampleCount);
+            // One track of a cubic with its first derivative after the values of the row
+            double[] yTable = new double[sampleCount * 2];
+            for (int i = 0; i < sampleCount; i++) {
+                double x = xTable[i];
+                yTable[i * 2] = x * x * x - 2.0 * x + 1.0;
+                yTable[i * 2 + 1] = 3.0 * x * x - 2.0;
+            }
+            MultiTrackInterpolator interpolator = MultiTrackInterpolator.hermite(3, 1);
+            assertEquals(2, interpolator.getRequiredDataPoints());
+            assertEquals(1, interpolator.getInputOrder());
+
+            double[] result = new double[1];
+            double[] times = {0.0, 1.3, 5.5, 8.99};
+            for (double x : times) {
+                interpolator.interpolate(x, xTable, sampleCount, yTable, 1, result, 0);
+                assertEquals(x * x * x - 2.0 * x + 1.0, result[0], 1e-10);
+            }
+
+            // Without derivatives the values of a line are reproduced
+            MultiTrackInterpolator linear = MultiTrackInterpolator.hermite(1, 0);
+            double[] line = new double[sampleCount];
+            for (int i = 0; i < sampleCount; i++) {
+                line[i] = 4.0 * xTable[i] - 1.0;
+            }
+            linear.interpolate(6.25, xTable, sampleCount, line, 1, result, 0);
+            assertEquals(24.0, result[0], 1e-12);
+            finishTest();
+        });
+    }
+
+    public void testApplySharedWeights() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int sampleCount = 8;
+            double[] xTable = createTimes(sampleCount);
+            double[] positions = new double[sampleCount * 3];
+            double[] scales = new double[sampleCount];
+            for (int i = 0; i < sampleCount; i++) {
+                positions[i * 3] = xTable[i];
+                positions[i * 3 + 1] = 2.0 * xTable[i];
+                positions[i * 3 + 2] = -xTable[i];
+                scales[i] = xTable[i] * xTable[i];
+            }
+            MultiTrackInterpolator interpolator = MultiTrackInterpolator.lagrange(2);
+            interpolator.computeWeights(2.5, xTable, sampleCount);
+
+            double[] result = {9.0, 9.0, 9.0};
+            interpolator.apply(positions, 3, 1, 2, result, 0);
+            assertEquals(5.0, result[0], 1e-12);
+            assertEquals(-2.5, result[1], 1e-12);
+            assertEquals(9.0, result[2]);
+
+            interpolator.apply(scales, 1, 0, 1, result, 2);
+            assertEquals(6.25, result[2], 1e-12);
+
+            // Fewer samples than the degree requires
+            interpolator.interpolate(0.5, xTable, 2, scales, 1, result, 0);
+            assertEquals(0.5, result[0], 1e-12);
+            finishTest();
+        });
+    }
+
+    public void testValidation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                MultiTrackInterpolator.lagrange(-1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                MultiTrackInterpolator.hermite(3, 2);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+
+            MultiTrackInterpolator interpolator = MultiTrackInterpolator.lagrange(1);
+            double[] xTable = createTimes(4);
+            try {
+                interpolator.apply(new double[4], 1, 0, 1, new double[1], 0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                interpolator.computeWeights(1.0, xTable, 5);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            interpolator.computeWeights(3.0, xTable, 4);
+            try {
+                interpolator.apply(new double[3], 1, 0, 1, new double[1], 0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                interpolator.apply(new double[8], 2, 1, 2, new double[2], 0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                interpolator.apply(new double[8], 2, 0, 2, new double[2], 1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static double[] createTimes(int count) {
+        double[] times = new double[count];
+        for (int i = 0; i < count; i++) {
+            times[i] = i;
+        }
+        return times;
+    }
+
+    private static double quintic(double x) {
+        return ((((0.01 * x - 0.2) * x + x) * x - 3.0) * x + 0.5) * x - 7.0;
+    }
+}
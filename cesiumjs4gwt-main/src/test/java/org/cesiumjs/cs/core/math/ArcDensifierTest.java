@@ -0,0 +1,150 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class ArcDensifierTest extends BaseTestCase {
+
+    public void testShortSegmentIsNotSplit() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ArcDensifier densifier = new ArcDensifier();
+            Cartesian3Buffer result = new Cartesian3Buffer();
+            densifier.appendPoint(0.1, 0.2, 0.0, result);
+            assertEquals(1, densifier.appendSegment(0.1, 0.2, 0.0, 0.1001, 0.2001, 0.0, result));
+            assertEquals(2, result.size());
+            finishTest();
+        });
+    }
+
+    public void testPointsFollowTheGeodesic() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] path = {-1.29, 0.71, 0.0, 2.43, 0.02, 0.0};
+            double tolerance = 100.0;
+            Cartesian3Buffer result = new ArcDensifier().setChordTolerance(tolerance)
+                    .densifyRadiansArrayHeights(path, 0, 3, 2, null);
+            assertTrue(result.size() > 10);
+
+            double total = Geodesicd.WGS84.surfaceDistance(path[0], path[1], path[3], path[4]);
+            Cartographicd point = new Cartographicd();
+            Cartographicd previous = new Cartographicd();
+            for (int i = 0; i < result.size(); i++) {
+                Ellipsoidd.WGS84.cartesianToCartographic(result.getX(i), result.getY(i), result.getZ(i), point);
+                double fromStart = Geodesicd.WGS84.surfaceDistance(path[0], path[1], point.longitude,
+                        point.latitude);
+                double toEnd = Geodesicd.WGS84.surfaceDistance(point.longitude, point.latitude, path[3], path[4]);
+                assertEquals(total, fromStart + toEnd, 1e-3);
+                if (i > 0) {
+                    assertTrue(chordDeviation(previous, point) <= tolerance * 1.01);
+                }
+                Cartographicd t = previous;
+                previous = point;
+                point = t;
+            }
+            assertEquals(path[3], previous.longitude, CesiumMath.EPSILON12);
+            assertEquals(path[4], previous.latitude, CesiumMath.EPSILON12);
+            finishTest();
+        });
+    }
+
+    public void testToleranceAndMaximumSegmentLength() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] path = {0.0, 0.0, 0.0, 0.5, 0.5, 1000.0};
+            int coarse = new ArcDensifier().setChordTolerance(1000.0).densifyRadiansArrayHeights(path, 0, 3, 2, null)
+                    .size();
+            int fine = new ArcDensifier().setChordTolerance(10.0).densifyRadiansArrayHeights(path, 0, 3, 2, null)
+                    .size();
+            assertTrue(fine > coarse);
+
+            Cartesian3Buffer result = new ArcDensifier().setChordTolerance(1e6).setMaximumSegmentLength(50e3)
+                    .densifyRadiansArrayHeights(path, 0, 3, 2, null);
+            Cartesian3d a = new Cartesian3d();
+            Cartesian3d b = new Cartesian3d();
+            for (int i = 1; i < result.size(); i++) {
+                assertTrue(Cartesian3d.distance(result.get(i - 1, a), result.get(i, b)) <= 50e3);
+            }
+            Cartographicd last = Ellipsoidd.WGS84.cartesianToCartographic(result.getX(result.size() - 1),
+                    result.getY(result.size() - 1), result.getZ(result.size() - 1), null);
+            assertEquals(1000.0, last.height, 1e-6);
+            finishTest();
+        });
+    }
+
+    public void testDensifyKeepsEndPoints() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3Buffer positions = new Cartesian3Buffer();
+            positions.add(Ellipsoidd.WGS84.cartographicToCartesian(0.1, 0.2, 0.0, null));
+            positions.add(Ellipsoidd.WGS84.cartographicToCartesian(0.6, 0.4, 0.0, null));
+            positions.add(Ellipsoidd.WGS84.cartographicToCartesian(0.9, -0.1, 0.0, null));
+            Cartesian3Buffer result = new ArcDensifier().densify(positions, new double[]{500.0}, null);
+            assertTrue(result.size() > 3);
+            Cartographicd first = Ellipsoidd.WGS84.cartesianToCartographic(result.getX(0), result.getY(0),
+                    result.getZ(0), null);
+            assertEquals(0.1, first.longitude, CesiumMath.EPSILON12);
+            assertEquals(500.0, first.height, 1e-6);
+            finishTest();
+        });
+    }
+
+    public void testSettersAndPixelSize() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            assertEquals(2.0 * Math.tan(Math.toRadians(30.0)),
+                    ArcDensifier.computePixelSize(1000.0, Math.toRadians(60.0), 1000.0), CesiumMath.EPSILON12);
+            ArcDensifier densifier = new ArcDensifier().setScreenSpaceTolerance(2.0, 3.0);
+            assertEquals(6.0, densifier.getChordTolerance());
+            try {
+                densifier.setChordTolerance(0.0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                densifier.setMaximumDepth(31);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static double chordDeviation(Cartographicd start, Cartographicd end) {
+        double[] middle = Geodesicd.WGS84.interpolate(start.longitude, start.latitude, end.longitude, end.latitude,
+                3, null, 0, 2);
+        Cartesian3d a = Ellipsoidd.WGS84.cartographicToCartesian(start.longitude, start.latitude, 0.0, null);
+        Cartesian3d b = Ellipsoidd.WGS84.cartographicToCartesian(end.longitude, end.latitude, 0.0, null);
+        Cartesian3d m = Ellipsoidd.WGS84.cartographicToCartesian(middle[2], middle[3], 0.0, null);
+        Cartesian3d chord = Cartesian3d.subtract(b, a, new Cartesian3d());
+        Cartesian3d offset = Cartesian3d.subtract(m, a, new Cartesian3d());
+        Cartesian3d cross = Cartesian3d.cross(offset, chord, new Cartesian3d());
+        return Cartesian3d.magnitude(cross) / Cartesian3d.magnitude(chord);
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.BoundingSphere;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class BoundingSpheredTest extends BaseTestCase {
+
+    public void testContainsAllPoints() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = createPoints(200);
+            BoundingSphered sphere = BoundingSphered.fromPoints(points, null);
+            for (int i = 0; i < points.length; i += 3) {
+                double distance = Cartesian3d.distance(sphere.center.x, sphere.center.y, sphere.center.z,
+                        points[i], points[i + 1], points[i + 2]);
+                assertTrue(distance <= sphere.radius * (1.0 + CesiumMath.EPSILON12));
+            }
+            finishTest();
+        });
+    }
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = createPoints(50);
+            BoundingSphere expected = BoundingSphere.fromPoints(Cartesian3Buffer.fromArray(points).toCartesian3Array(),
+                    new BoundingSphere());
+            BoundingSphered actual = BoundingSphered.fromPoints(points, null);
+            BoundingSphered expectedd = BoundingSphered.fromBoundingSphere(expected, null);
+            assertTrue(Cartesian3d.equalsEpsilon(expectedd.center, actual.center, CesiumMath.EPSILON12));
+            assertEquals(expectedd.radius, actual.radius, expectedd.radius * CesiumMath.EPSILON12);
+            finishTest();
+        });
+    }
+
+    public void testOverloadsAgree() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = createPoints(20);
+            BoundingSphered expected = BoundingSphered.fromPoints(points, null);
+            double[] strided = new double[1 + 20 * 4];
+            for (int i = 0; i < 20; i++) {
+                strided[1 + 4 * i] = points[3 * i];
+                strided[2 + 4 * i] = points[3 * i + 1];
+                strided[3 + 4 * i] = points[3 * i + 2];
+            }
+            assertEquals(expected, BoundingSphered.fromPoints(strided, 1, 4, 20, null));
+            assertEquals(expected, BoundingSphered.fromPoints(Cartesian3Buffer.fromArray(points), null));
+            finishTest();
+        });
+    }
+
+    public void testDegenerateInputs() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            BoundingSphered empty = BoundingSphered.fromPoints(new double[0], null);
+            assertEquals(0.0, empty.radius);
+            assertEquals(0.0, empty.center.x);
+
+            BoundingSphered single = BoundingSphered.fromPoints(new double[]{1.0, 2.0, 3.0}, null);
+            assertEquals(0.0, single.radius);
+            assertEquals(2.0, single.center.y);
+            finishTest();
+        });
+    }
+
+    public void testPackFeatures() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = createPoints(30);
+            int[] offsets = {0, 10, 10, 30};
+            double[] packed = BoundingSphered.packFeatures(points, offsets, null, 0);
+            assertEquals(3 * BoundingSphered.packedLength, packed.length);
+            for (int i = 0; i < 3; i++) {
+                BoundingSphered expected = BoundingSphered.fromPoints(points, offsets[i] * 3, 3,
+                        offsets[i + 1] - offsets[i], null);
+                assertEquals(expected, BoundingSphered.unpack(packed, i * BoundingSphered.packedLength, null));
+            }
+            finishTest();
+        });
+    }
+
+    static double[] createPoints(int count) {
+        double[] points = new double[count * 3];
+        long seed = 42;
+        for (int i = 0; i < points.length; i++) {
+            seed = (seed * 6364136223846793005L + 1442695040888963407L);
+            double value = (seed >>> 11) / (double) (1L << 53);
+            points[i] = (i % 3 == 2 ? 10.0 : 1000.0) * (value - 0.5) + (i % 3 == 0 ? 6378137.0 : 0.0);
+        }
+        return points;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class Cartesian3BufferTest extends BaseTestCase {
+
+    public void testGrowPastInitialCapacity() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3Buffer buffer = new Cartesian3Buffer(2);
+            for (int i = 0; i < 100; i++) {
+                buffer.add(i, i + 0.25, -i);
+            }
+            assertEquals(100, buffer.size());
+            assertTrue(buffer.capacity() >= 100);
+            for (int i = 0; i < 100; i++) {
+                assertEquals((double) i, buffer.getX(i));
+                assertEquals(i + 0.25, buffer.getY(i));
+                assertEquals((double) -i, buffer.getZ(i));
+            }
+            finishTest();
+        });
+    }
+
+    public void testAddAllGrows() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3Buffer buffer = new Cartesian3Buffer(1).add(1.0, 2.0, 3.0);
+            Cartesian3Buffer other = new Cartesian3Buffer(8).add(4.0, 5.0, 6.0).add(7.0, 8.0, 9.0);
+            buffer.addAll(other).addAll(other);
+            assertEquals(5, buffer.size());
+            double[] expected = {1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0};
+            double[] actual = Cartesian3Buffer.packArray(buffer, null);
+            assertEquals(expected.length, actual.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], actual[i]);
+            }
+            finishTest();
+        });
+    }
+
+    public void testArraySharesStorage() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3Buffer buffer = new Cartesian3Buffer(16).add(1.0, 2.0, 3.0).add(4.0, 5.0, 6.0);
+            Float64Array array = buffer.array();
+            assertEquals(6, array.length());
+            assertEquals(5.0, array.get(4));
+            array.set(4, 50.0);
+            assertEquals(50.0, buffer.getY(1));
+            buffer.set(0, 10.0, 20.0, 30.0);
+            assertEquals(20.0, array.get(1));
+            assertSame(array, buffer.array());
+            finishTest();
+        });
+    }
+
+    public void testPackRoundTrip() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3Buffer buffer = Cartesian3Buffer.fromArray(new double[]{1.0, 2.0, 3.0, 4.0, 5.0, 6.0});
+            double[] packed = new double[Cartesian3Buffer.getPackedLength(buffer) + 1];
+            Cartesian3Buffer.pack(buffer, packed, 1);
+            assertEquals(2.0, packed[1]);
+            Cartesian3Buffer unpacked = Cartesian3Buffer.unpack(packed, 1, new Cartesian3Buffer(0));
+            assertEquals(2, unpacked.size());
+            Cartesian3d position = unpacked.get(1, (Cartesian3d) null);
+            assertEquals(4.0, position.x);
+            assertEquals(5.0, position.y);
+            assertEquals(6.0, position.z);
+            finishTest();
+        });
+    }
+
+    public void testIndexOutOfRange() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3Buffer buffer = new Cartesian3Buffer().add(1.0, 2.0, 3.0);
+            try {
+                buffer.getX(1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                Cartesian3Buffer.fromArray(new double[4]);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartographic;
+import org.cesiumjs.cs.core.EllipsoidRhumbLine;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class EllipsoidRhumbLinedTest extends BaseTestCase {
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            EllipsoidRhumbLine expected = new EllipsoidRhumbLine(new Cartographic(0.1, 0.2),
+                    new Cartographic(1.1, 0.9));
+            EllipsoidRhumbLined actual = new EllipsoidRhumbLined(new Cartographicd(0.1, 0.2, 0.0),
+                    new Cartographicd(1.1, 0.9, 0.0));
+            assertEquals(expected.surfaceDistance(), actual.getSurfaceDistance(), 1e-6);
+            assertEquals(expected.heading(), actual.getHeading(), CesiumMath.EPSILON12);
+
+            Cartographic expectedPoint = expected.interpolateUsingSurfaceDistance(1e5);
+            Cartographicd actualPoint = actual.interpolateUsingSurfaceDistance(1e5, null);
+            assertEquals(expectedPoint.longitude, actualPoint.longitude, CesiumMath.EPSILON12);
+            assertEquals(expectedPoint.latitude, actualPoint.latitude, CesiumMath.EPSILON12);
+            finishTest();
+        });
+    }
+
+    public void testEquatorAndMeridian() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            EllipsoidRhumbLined equator = new EllipsoidRhumbLined(new Cartographicd(0.0, 0.0, 0.0),
+                    new Cartographicd(0.5, 0.0, 0.0));
+            assertEquals(Ellipsoidd.WGS84.getMaximumRadius() * 0.5, equator.getSurfaceDistance(), 1e-6);
+            assertEquals(CesiumMath.PI_OVER_TWO, equator.getHeading(), CesiumMath.EPSILON12);
+
+            EllipsoidRhumbLined meridian = new EllipsoidRhumbLined(new Cartographicd(0.3, 0.0, 0.0),
+                    new Cartographicd(0.3, 1.0, 0.0));
+            assertEquals(0.0, meridian.getHeading(), CesiumMath.EPSILON12);
+            assertEquals(Geodesicd.WGS84.surfaceDistance(0.3, 0.0, 0.3, 1.0), meridian.getSurfaceDistance(),
+                    1e-3);
+            finishTest();
+        });
+    }
+
+    public void testFromStartHeadingDistance() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartographicd start = new Cartographicd(-0.4, 0.6, 0.0);
+            EllipsoidRhumbLined line = EllipsoidRhumbLined.fromStartHeadingDistance(start, 2.0, 3e6, null, null);
+            assertEquals(2.0, line.getHeading(), CesiumMath.EPSILON12);
+            assertEquals(3e6, line.getSurfaceDistance(), 1e-6);
+
+            EllipsoidRhumbLined inverse = new EllipsoidRhumbLined(start, line.getEnd());
+            assertEquals(3e6, inverse.getSurfaceDistance(), 1e-6);
+            finishTest();
+        });
+    }
+
+    public void testInterpolateAndIntersections() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            EllipsoidRhumbLined line = new EllipsoidRhumbLined(new Cartographicd(0.1, 0.2, 0.0),
+                    new Cartographicd(1.1, 0.9, 0.0));
+            double[] points = line.interpolate(5, null, 0, 2);
+            assertEquals(0.1, points[0], CesiumMath.EPSILON12);
+            assertEquals(0.9, points[9], CesiumMath.EPSILON12);
+            double[] distances = EllipsoidRhumbLined.surfaceDistances(points, 0, 2, 5, Ellipsoidd.WGS84, null, 0);
+            for (double distance : distances) {
+                assertEquals(line.getSurfaceDistance() / 4.0, distance, 1e-6);
+            }
+            assertEquals(line.getSurfaceDistance(), EllipsoidRhumbLined.pathLength(points, 0, 2, 5, Ellipsoidd.WGS84), 1e-6);
+
+            Cartographicd middle = line.interpolateUsingFraction(0.5, null);
+            Cartographicd atLatitude = line.findIntersectionWithLatitude(middle.latitude, null);
+            assertEquals(middle.longitude, atLatitude.longitude, CesiumMath.EPSILON10);
+            Cartographicd atLongitude = line.findIntersectionWithLongitude(middle.longitude, null);
+            assertEquals(middle.latitude, atLongitude.latitude, CesiumMath.EPSILON10);
+            finishTest();
+        });
+    }
+}
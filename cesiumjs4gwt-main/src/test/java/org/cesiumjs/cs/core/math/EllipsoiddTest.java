@@ -0,0 +1,99 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.Cartographic;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class EllipsoiddTest extends BaseTestCase {
+    private static final double[] DEGREES = {
+            0.0, 0.0, 0.0,
+            -75.59777, 40.03883, 100.0,
+            139.6917, 35.6895, -50.0,
+            -179.9, -89.5, 8848.0,
+            12.5, 89.9, 10000000.0
+    };
+
+    public void testFromDegreesArrayHeightsMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int count = DEGREES.length / 3;
+            double[] actual = Ellipsoidd.WGS84.fromDegreesArrayHeights(DEGREES, 0, new double[3 * count], 0, count);
+            Cartesian3[] expected = Cartesian3.fromDegreesArrayHeights(DEGREES);
+            for (int i = 0; i < count; i++) {
+                assertEquals(expected[i].x, actual[3 * i], 1e-6);
+                assertEquals(expected[i].y, actual[3 * i + 1], 1e-6);
+                assertEquals(expected[i].z, actual[3 * i + 2], 1e-6);
+            }
+            finishTest();
+        });
+    }
+
+    public void testToRadiansArrayHeightsMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int count = DEGREES.length / 3;
+            double[] cartesians = Ellipsoidd.WGS84.fromDegreesArrayHeights(DEGREES, 0, new double[3 * count], 0,
+                    count);
+            double[] actual = Ellipsoidd.WGS84.toRadiansArrayHeights(cartesians, 0, new double[3 * count], 0, count);
+            for (int i = 0; i < count; i++) {
+                Cartographic expected = Cartographic.fromCartesian(new Cartesian3(cartesians[3 * i],
+                        cartesians[3 * i + 1], cartesians[3 * i + 2]));
+                assertEquals(expected.longitude, actual[3 * i], CesiumMath.EPSILON12);
+                assertEquals(expected.latitude, actual[3 * i + 1], CesiumMath.EPSILON12);
+                assertEquals(expected.height, actual[3 * i + 2], 1e-6);
+            }
+            finishTest();
+        });
+    }
+
+    public void testRoundTripInPlaceWithOffsets() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int count = DEGREES.length / 3;
+            double[] values = new double[DEGREES.length + 4];
+            System.arraycopy(DEGREES, 0, values, 2, DEGREES.length);
+            Ellipsoidd.WGS84.fromDegreesArrayHeights(values, 2, values, 2, count);
+            Ellipsoidd.WGS84.toDegreesArrayHeights(values, 2, values, 2, count);
+            assertEquals(0.0, values[0]);
+            assertEquals(0.0, values[values.length - 1]);
+            for (int i = 0; i < DEGREES.length; i++) {
+                assertEquals(DEGREES[i], values[2 + i], i % 3 == 2 ? 1e-6 : 1e-10);
+            }
+            finishTest();
+        });
+    }
+
+    public void testCenterIsNaN() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] result = Ellipsoidd.WGS84.toRadiansArrayHeights(new double[3], 0, new double[3], 0, 1);
+            assertTrue(Double.isNaN(result[0]));
+            assertTrue(Double.isNaN(result[1]));
+            assertTrue(Double.isNaN(result[2]));
+            finishTest();
+        });
+    }
+}
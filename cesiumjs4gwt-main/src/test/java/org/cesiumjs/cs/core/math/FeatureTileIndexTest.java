@@ -0,0 +1,118 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class FeatureTileIndexTest extends BaseTestCase {
+
+    public void testMultiPointSpansTiles() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // The points of one MultiPoint feature, one of them on the corner shared by the four tiles of level 1
+            double[] points = {-90.0, 45.0, 90.0, 45.0, -90.0, -45.0, 90.0, -45.0, 0.0, 0.0, 10.0, 10.0};
+            FeatureTileIndex index = new FeatureTileIndex().setTolerance(3.0, 4096, 0);
+            for (int i = 0; i < points.length; i += 2) {
+                index.addPoint(7, points[i], points[i + 1]);
+            }
+            index.build();
+            assertEquals(1, countPoints(index.getTile(1, 0, 0)));
+            assertEquals(2, countPoints(index.getTile(1, 1, 0)));
+            assertEquals(1, countPoints(index.getTile(1, 0, 1)));
+            assertEquals(2, countPoints(index.getTile(1, 1, 1)));
+
+            // Without a buffer, every point is in exactly one tile of each level
+            for (int z = 0; z <= 6; z++) {
+                int[] found = new int[points.length / 2];
+                int n = 1 << z;
+                for (int y = 0; y < n; y++) {
+                    for (int x = 0; x < n; x++) {
+                        FeatureTileIndex.Tile tile = index.getTile(z, x, y);
+                        if (tile == null) {
+                            continue;
+                        }
+                        for (int feature = 0; feature < tile.getFeatureCount(); feature++) {
+                            assertEquals(FeatureTileIndex.POINT, tile.getFeatureType(feature));
+                            assertEquals(7, tile.getFeatureId(feature));
+                            double[] point = tile.getRings(feature)[0];
+                            found[indexOf(points, point)]++;
+                        }
+                    }
+                }
+                for (int count : found) {
+                    assertEquals(1, count);
+                }
+            }
+            finishTest();
+        });
+    }
+
+    public void testBuffer() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            assertEquals(64, new FeatureTileIndex().getBuffer());
+            // With a buffer, a point near the edge of a tile is also in its neighbour
+            FeatureTileIndex index = new FeatureTileIndex().setTolerance(3.0, 4096, 64);
+            index.addPoint(1, 0.1, 45.0);
+            index.build();
+            assertEquals(1, countPoints(index.getTile(1, 0, 0)));
+            assertEquals(1, countPoints(index.getTile(1, 1, 0)));
+            try {
+                new FeatureTileIndex().getTile(0, 0, 0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new FeatureTileIndex().setTolerance(3.0, 4096, -1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static int countPoints(FeatureTileIndex.Tile tile) {
+        int count = 0;
+        for (int feature = 0; feature < tile.getFeatureCount(); feature++) {
+            if (tile.getFeatureType(feature) == FeatureTileIndex.POINT) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Finds a point by its longitude and latitude in degrees.
+     */
+    private static int indexOf(double[] points, double[] point) {
+        for (int i = 0; i < points.length; i += 2) {
+            if (Math.abs(points[i] - point[0]) < 1e-9 && Math.abs(points[i + 1] - point[1]) < 1e-9) {
+                return i / 2;
+            }
+        }
+        fail("unknown point " + point[0] + ", " + point[1]);
+        return -1;
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class GeodesicdTest extends BaseTestCase {
+
+    public void testInverseReference() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // Wellington, NZ to Salamanca, Spain, from the GeographicLib documentation
+            double distance = Geodesicd.WGS84.surfaceDistance(Math.toRadians(174.81), Math.toRadians(-41.32),
+                    Math.toRadians(-5.50), Math.toRadians(40.96));
+            assertEquals(19959679.267353, distance, 1e-5);
+            finishTest();
+        });
+    }
+
+    public void testDirectReference() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // 20000 km south-west of Perth, Australia, from the GeographicLib documentation
+            double[] result = Geodesicd.WGS84.direct(Math.toRadians(115.74), Math.toRadians(-32.06),
+                    Math.toRadians(225.0), 20000e3, null, 0);
+            assertEquals(-63.95925278, Math.toDegrees(result[0]), 1e-8);
+            assertEquals(32.11195529, Math.toDegrees(result[1]), 1e-8);
+            finishTest();
+        });
+    }
+
+    public void testDirectInverseRoundTrip() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] starts = {
+                    0.1, 0.2, 0.3, 1000.0,
+                    -2.0, -1.2, 4.0, 5e6,
+                    3.0, 0.0, Math.PI / 2.0, 1.9e7,
+                    0.0, 1.5, Math.PI, 2e5
+            };
+            double[] ends = Geodesicd.WGS84.direct(starts, 0, 4, null, 0);
+            for (int i = 0; i < 4; i++) {
+                double[] single = Geodesicd.WGS84.direct(starts[4 * i], starts[4 * i + 1], starts[4 * i + 2],
+                        starts[4 * i + 3], null, 0);
+                assertEquals(single[0], ends[3 * i]);
+                assertEquals(single[1], ends[3 * i + 1]);
+                double distance = Geodesicd.WGS84.surfaceDistance(starts[4 * i], starts[4 * i + 1], ends[3 * i],
+                        ends[3 * i + 1]);
+                assertEquals(starts[4 * i + 3], distance, 1e-6);
+            }
+            finishTest();
+        });
+    }
+
+    public void testBatchInverseAndPathLength() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] path = {
+                    0.0, 0.0, 100.0,
+                    0.01, 0.01, 200.0,
+                    0.02, -0.01, 300.0,
+                    1.0, 0.5, 400.0
+            };
+            double[] distances = Geodesicd.WGS84.surfaceDistances(path, 0, 3, 4, null, 0);
+            assertEquals(3, distances.length);
+            double sum = 0.0;
+            for (int i = 0; i < 3; i++) {
+                double[] inverse = Geodesicd.WGS84.inverse(path[3 * i], path[3 * i + 1], path[3 * i + 3],
+                        path[3 * i + 4], null, 0);
+                assertEquals(inverse[0], distances[i]);
+                sum += inverse[0];
+            }
+            assertEquals(sum, Geodesicd.WGS84.pathLength(path, 0, 3, 4), 1e-6);
+            assertEquals(0.0, Geodesicd.WGS84.pathLength(path, 0, 3, 1));
+            finishTest();
+        });
+    }
+
+    public void testEquatorAndMeridian() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double a = Ellipsoidd.WGS84.getMaximumRadius();
+            assertEquals(a * 0.5, Geodesicd.WGS84.surfaceDistance(0.0, 0.0, 0.5, 0.0), 1e-6);
+            // Quarter meridian of WGS84
+            assertEquals(10001965.729, Geodesicd.WGS84.surfaceDistance(0.0, 0.0, 0.0, Math.PI / 2.0), 1e-3);
+            finishTest();
+        });
+    }
+
+    public void testInterpolate() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = Geodesicd.WGS84.interpolate(0.1, 0.2, 1.1, 0.9, 5, null, 0, 3);
+            assertEquals(15, points.length);
+            assertEquals(0.1, points[0]);
+            assertEquals(0.9, points[13]);
+            double total = Geodesicd.WGS84.surfaceDistance(0.1, 0.2, 1.1, 0.9);
+            for (int i = 1; i < 5; i++) {
+                double step = Geodesicd.WGS84.surfaceDistance(points[3 * i - 3], points[3 * i - 2], points[3 * i],
+                        points[3 * i + 1]);
+                assertEquals(total / 4.0, step, 1e-6);
+            }
+
+            EllipsoidGeodesicd geodesic = new EllipsoidGeodesicd(new Cartographicd(0.1, 0.2, 0.0),
+                    new Cartographicd(1.1, 0.9, 0.0));
+            assertEquals(total, geodesic.getSurfaceDistance(), 1e-6);
+            Cartographicd midpoint = geodesic.interpolateUsingFraction(0.5, null);
+            assertEquals(points[6], midpoint.longitude, 1e-12);
+            assertEquals(points[7], midpoint.latitude, 1e-12);
+            finishTest();
+        });
+    }
+}
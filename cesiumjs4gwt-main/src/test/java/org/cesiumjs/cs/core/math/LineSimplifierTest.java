@@ -0,0 +1,257 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class LineSimplifierTest extends BaseTestCase {
+
+    public void testDouglasPeucker() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            LineSimplifier simplifier = new LineSimplifier().setTolerance(1.0);
+            assertEquals(LineSimplifier.DOUGLAS_PEUCKER, simplifier.getAlgorithm());
+            // A noisy right angle
+            double[] line = {0.0, 0.0, 1.0, 0.1, 2.0, -0.1, 3.0, 0.0, 3.1, 1.0, 2.9, 2.0, 3.0, 3.0};
+            double[] result = simplifier.simplify(line, 2, false);
+            assertEquals(6, result.length);
+            assertEquals(0.0, result[0]);
+            assertEquals(3.0, result[2]);
+            assertEquals(0.0, result[3]);
+            assertEquals(3.0, result[5]);
+
+            // The same line in 3D with a stride of 4, the fourth value being ignored
+            double[] strided = new double[4 * 7 + 1];
+            for (int i = 0; i < 7; i++) {
+                strided[1 + 4 * i] = line[2 * i];
+                strided[1 + 4 * i + 2] = line[2 * i + 1];
+                strided[1 + 4 * i + 3] = 1000.0 * i;
+            }
+            int[] indices = new int[7];
+            assertEquals(3, simplifier.simplify(strided, 1, 4, 3, 7, false, indices));
+            assertEquals(0, indices[0]);
+            assertEquals(3, indices[1]);
+            assertEquals(6, indices[2]);
+
+            simplifier.setTolerance(0.0);
+            assertEquals(14, simplifier.simplify(line, 2, false).length);
+            finishTest();
+        });
+    }
+
+    public void testVisvalingamWhyatt() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            LineSimplifier simplifier = new LineSimplifier(LineSimplifier.VISVALINGAM_WHYATT).setTolerance(1.0);
+            // A noisy line along the x axis with one large feature
+            int count = 101;
+            double[] line = new double[2 * count];
+            for (int i = 0; i < count; i++) {
+                line[2 * i] = i;
+                line[2 * i + 1] = (i % 2 == 0 ? 0.001 : -0.001) + (i == 50 ? 20.0 : 0.0);
+            }
+            double[] result = simplifier.simplify(line, 2, false);
+            assertTrue(result.length <= 2 * 7);
+            assertEquals(0.0, result[0]);
+            assertEquals(100.0, result[result.length - 2]);
+            boolean peak = false;
+            for (int i = 2; i < result.length - 2; i += 2) {
+                // Only the peak and its feet are kept
+                assertTrue(Math.abs(result[i] - 50.0) <= 1.0);
+                peak |= result[i] == 50.0;
+            }
+            assertTrue(peak);
+            finishTest();
+        });
+    }
+
+    public void testSelectLevelsAreNested() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] line = createNoisyRing(200, 7L);
+            int[] algorithms = {LineSimplifier.DOUGLAS_PEUCKER, LineSimplifier.VISVALINGAM_WHYATT};
+            double[] tolerances = {0.5, 2.0, 8.0, 32.0};
+            for (int algorithm : algorithms) {
+                LineSimplifier simplifier = new LineSimplifier(algorithm);
+                double[] significance = simplifier.computeSignificance(line, 0, 2, 2, 200, false, null);
+                int[][] levels = LineSimplifier.selectLevels(significance, 200, tolerances);
+                for (int level = 1; level < levels.length; level++) {
+                    assertTrue(levels[level].length <= levels[level - 1].length);
+                    int j = 0;
+                    for (int index : levels[level]) {
+                        while (j < levels[level - 1].length && levels[level - 1][j] < index) {
+                            j++;
+                        }
+                        assertTrue(j < levels[level - 1].length && levels[level - 1][j] == index);
+                    }
+                }
+                // The end points of a line are always kept
+                assertEquals(0, levels[3][0]);
+                assertEquals(199, levels[3][levels[3].length - 1]);
+
+                int[] indices = new int[200];
+                simplifier.setTolerance(2.0);
+                assertEquals(levels[1].length, simplifier.simplify(line, 0, 2, 2, 200, false, indices));
+            }
+            finishTest();
+        });
+    }
+
+    public void testRings() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // A closed square with its first vertex repeated keeps three distinct vertices, and the repeat only
+            // with the first vertex
+            double[] square = {0.0, 0.0, 1.0, 0.0, 1.0, 1.0, 0.0, 1.0, 0.0, 0.0};
+            LineSimplifier simplifier = new LineSimplifier(LineSimplifier.VISVALINGAM_WHYATT).setTolerance(100.0);
+            double[] significance = simplifier.computeSignificance(square, 0, 2, 2, 5, true, null);
+            assertEquals(significance[0], significance[4]);
+            double[] result = simplifier.simplify(square, 2, true);
+            assertTrue(isRing(result, 3));
+            result = new LineSimplifier().setTolerance(100.0).simplify(square, 2, true);
+            assertEquals(2 * 4, result.length);
+            assertTrue(isRing(result, 3));
+
+            // Visvalingam-Whyatt does not make a simple ring intersect itself
+            for (long seed = 1L; seed <= 20L; seed++) {
+                double[] ring = createNoisyRing(120, seed);
+                for (double tolerance = 1.0; tolerance <= 40.0; tolerance *= 2.0) {
+                    simplifier.setTolerance(tolerance);
+                    double[] simplified = simplifier.simplify(ring, 2, true);
+                    assertTrue(simplified.length >= 6);
+                    assertTrue(isSimple(simplified));
+                }
+            }
+            finishTest();
+        });
+    }
+
+    public void testProjections() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] projected = LineSimplifier.projectDegrees(new double[]{0.0, 0.0, 9.0, 1.0, 1.0, 9.0}, 0, 3, 2,
+                    null);
+            double meters = Ellipsoidd.WGS84.getMaximumRadius() * Math.PI / 180.0;
+            assertEquals(meters, projected[3], 1e-6);
+            assertEquals(meters * Math.cos(Math.toRadians(0.5)), projected[2], 1e-6);
+            assertEquals(156543.03392804097, LineSimplifier.computeWebMercatorPixelSize(0.0, 0.0), 1e-6);
+            assertEquals(2.0, new LineSimplifier().setScreenSpaceTolerance(4.0, 0.5).getTolerance());
+            finishTest();
+        });
+    }
+
+    public void testValidation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                new LineSimplifier(2);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new LineSimplifier().setTolerance(Double.NaN);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new LineSimplifier().computeSignificance(new double[8], 0, 4, 4, 2, false, null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new LineSimplifier().computeSignificance(new double[8], 0, 2, 3, 2, false, null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new LineSimplifier().computeSignificance(new double[8], 0, 2, 2, 4, false, new double[3]);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    /**
+     * Creates a star-shaped ring with random radii, which is always simple.
+     */
+    private static double[] createNoisyRing(int count, long seed) {
+        double[] result = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            double radius = 100.0 + 30.0 * ((seed >>> 11) / 9007199254740992.0);
+            double angle = 2.0 * Math.PI * i / count;
+            result[2 * i] = radius * Math.cos(angle);
+            result[2 * i + 1] = radius * Math.sin(angle);
+        }
+        return result;
+    }
+
+    /**
+     * Determines whether a ring has a number of distinct vertices, repeating its first vertex or not.
+     */
+    private static boolean isRing(double[] ring, int distinct) {
+        int count = ring.length / 2;
+        if (count == distinct + 1) {
+            return ring[0] == ring[2 * distinct] && ring[1] == ring[2 * distinct + 1];
+        }
+        return count == distinct;
+    }
+
+    private static boolean isSimple(double[] ring) {
+        int count = ring.length / 2;
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 2; j < count; j++) {
+                if (i == 0 && j == count - 1) {
+                    continue;
+                }
+                if (crosses(ring, i, (i + 1) % count, j, (j + 1) % count)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean crosses(double[] ring, int a, int b, int c, int d) {
+        double d1 = orientation(ring, c, d, a);
+        double d2 = orientation(ring, c, d, b);
+        double d3 = orientation(ring, a, b, c);
+        double d4 = orientation(ring, a, b, d);
+        return d1 * d2 < 0.0 && d3 * d4 < 0.0;
+    }
+
+    private static double orientation(double[] ring, int a, int b, int c) {
+        return (ring[2 * b] - ring[2 * a]) * (ring[2 * c + 1] - ring[2 * a + 1])
+                - (ring[2 * b + 1] - ring[2 * a + 1]) * (ring[2 * c] - ring[2 * a]);
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import com.google.gwt.typedarrays.shared.TypedArrays;
+import org.cesiumjs.cs.BaseTestCase;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class Matrix3dTest extends BaseTestCase {
+
+    public void testMultiplyByVectorsMatchesSingleVector() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix3d matrix = Matrix3d.fromQuaternion(Quaterniond.fromHeadingPitchRoll(0.5, -0.2, 0.7, null), null);
+            double[] source = {1.0, 0.0, 0.0, 0.0, 2.0, 0.0, 3.0, -4.0, 5.0};
+            double[] result = Matrix3d.multiplyByVectors(matrix, null, source, 0, 3, new double[9], 0, 3, 3);
+            for (int i = 0; i < 3; i++) {
+                Cartesian3d expected = Matrix3d.multiplyByVector(matrix, source[3 * i], source[3 * i + 1],
+                        source[3 * i + 2], new Cartesian3d());
+                assertEquals(expected.x, result[3 * i], CesiumMath.EPSILON12);
+                assertEquals(expected.y, result[3 * i + 1], CesiumMath.EPSILON12);
+                assertEquals(expected.z, result[3 * i + 2], CesiumMath.EPSILON12);
+            }
+            finishTest();
+        });
+    }
+
+    public void testMultiplyByVectorsWithTranslationInPlace() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix3d matrix = Matrix3d.fromRotationZ(CesiumMath.PI_OVER_TWO, null);
+            Float64Array values = TypedArrays.createFloat64Array(6);
+            values.set(new double[]{1.0, 0.0, 0.0, 0.0, 1.0, 2.0});
+            Matrix3d.multiplyByVectors(matrix, new Cartesian3d(10.0, 0.0, 0.0), values, 0, 3, values, 0, 3, 2);
+            assertEquals(10.0, values.get(0), CesiumMath.EPSILON12);
+            assertEquals(1.0, values.get(1), CesiumMath.EPSILON12);
+            assertEquals(0.0, values.get(2), CesiumMath.EPSILON12);
+            assertEquals(9.0, values.get(3), CesiumMath.EPSILON12);
+            assertEquals(0.0, values.get(4), CesiumMath.EPSILON12);
+            assertEquals(2.0, values.get(5), CesiumMath.EPSILON12);
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import com.google.gwt.typedarrays.shared.Float64Array;
+import com.google.gwt.typedarrays.shared.TypedArrays;
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.HeadingPitchRoll;
+import org.cesiumjs.cs.core.Matrix4;
+import org.cesiumjs.cs.core.Quaternion;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class Matrix4dTest extends BaseTestCase {
+
+    public void testInverse() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix4d matrix = Matrix4d.fromTranslationQuaternionRotationScale(new Cartesian3d(1.0, 2.0, 3.0),
+                    Quaterniond.fromHeadingPitchRoll(0.3, 0.2, 0.1, null), new Cartesian3d(2.0, 3.0, 4.0), null);
+            Matrix4d inverse = Matrix4d.inverse(matrix, new Matrix4d());
+            Matrix4d product = Matrix4d.multiply(matrix, inverse, new Matrix4d());
+            assertTrue(Matrix4d.equalsEpsilon(product, Matrix4d.identity(null), CesiumMath.EPSILON12));
+            finishTest();
+        });
+    }
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Quaternion rotation = Quaternion.fromHeadingPitchRoll(new HeadingPitchRoll(0.3, 0.2, 0.1),
+                    new Quaternion());
+            Matrix4 expected = Matrix4.fromTranslationQuaternionRotationScale(new Cartesian3(1.0, 2.0, 3.0),
+                    rotation, new Cartesian3(2.0, 3.0, 4.0));
+            Matrix4d actual = Matrix4d.fromTranslationQuaternionRotationScale(new Cartesian3d(1.0, 2.0, 3.0),
+                    Quaterniond.fromQuaternion(rotation, null), new Cartesian3d(2.0, 3.0, 4.0), null);
+            assertTrue(Matrix4d.equalsEpsilon(Matrix4d.fromMatrix4(expected, null), actual, CesiumMath.EPSILON12));
+
+            Cartesian3 point = Matrix4.multiplyByPoint(expected, new Cartesian3(5.0, 6.0, 7.0), new Cartesian3());
+            Cartesian3d pointd = Matrix4d.multiplyByPoint(actual, 5.0, 6.0, 7.0, new Cartesian3d());
+            assertTrue(Cartesian3d.equalsEpsilon(Cartesian3d.fromCartesian3(point, null), pointd,
+                    CesiumMath.EPSILON12));
+            finishTest();
+        });
+    }
+
+    public void testMultiplyByPointsMatchesSinglePoint() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix4d matrix = createTransform();
+            double[] source = {1.0, 2.0, 3.0, -1.0, -4.0, 5.0, 0.0, 0.0, 0.0};
+            double[] points = Matrix4d.multiplyByPoints(matrix, source, 0, 3, new double[9], 0, 3, 3);
+            double[] vectors = Matrix4d.multiplyByPointsAsVectors(matrix, source, 0, 3, new double[9], 0, 3, 3);
+            for (int i = 0; i < 3; i++) {
+                Cartesian3d point = Matrix4d.multiplyByPoint(matrix, source[3 * i], source[3 * i + 1],
+                        source[3 * i + 2], new Cartesian3d());
+                Cartesian3d vector = Matrix4d.multiplyByPointAsVector(matrix, source[3 * i], source[3 * i + 1],
+                        source[3 * i + 2], new Cartesian3d());
+                assertEquals(point.x, points[3 * i], CesiumMath.EPSILON12);
+                assertEquals(point.y, points[3 * i + 1], CesiumMath.EPSILON12);
+                assertEquals(point.z, points[3 * i + 2], CesiumMath.EPSILON12);
+                assertEquals(vector.x, vectors[3 * i], CesiumMath.EPSILON12);
+                assertEquals(vector.y, vectors[3 * i + 1], CesiumMath.EPSILON12);
+                assertEquals(vector.z, vectors[3 * i + 2], CesiumMath.EPSILON12);
+            }
+            assertEquals(1.0, points[6], CesiumMath.EPSILON12);
+            assertEquals(2.0, points[7], CesiumMath.EPSILON12);
+            assertEquals(3.0, points[8], CesiumMath.EPSILON12);
+            finishTest();
+        });
+    }
+
+    public void testMultiplyByPointsStrided() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix4d matrix = Matrix4d.fromTranslation(new Cartesian3d(10.0, 20.0, 30.0), null);
+            double[] values = {-1.0, 1.0, 2.0, 3.0, 7.0, 4.0, 5.0, 6.0, 7.0};
+            Matrix4d.multiplyByPoints(matrix, values, 1, 4, values, 1, 4, 2);
+            double[] expected = {-1.0, 11.0, 22.0, 33.0, 7.0, 14.0, 25.0, 36.0, 7.0};
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i], values[i]);
+            }
+            finishTest();
+        });
+    }
+
+    public void testMultiplyByPointsFloat64ArrayAndBuffer() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix4d matrix = createTransform();
+            double[] source = {1.0, 2.0, 3.0, -1.0, -4.0, 5.0};
+            double[] expected = Matrix4d.multiplyByPoints(matrix, source, 0, 3, new double[6], 0, 3, 2);
+
+            Float64Array array = TypedArrays.createFloat64Array(6);
+            array.set(source);
+            Matrix4d.multiplyByPoints(matrix, array, 0, 3, array, 0, 3, 2);
+
+            Cartesian3Buffer buffer = Cartesian3Buffer.fromArray(source);
+            Cartesian3Buffer transformed = Matrix4d.multiplyByPoints(matrix, buffer, null);
+            Matrix4d.multiplyByPoints(matrix, buffer);
+            for (int i = 0; i < 6; i++) {
+                assertEquals(expected[i], array.get(i), CesiumMath.EPSILON12);
+            }
+            for (int i = 0; i < 2; i++) {
+                assertEquals(expected[3 * i], buffer.getX(i), CesiumMath.EPSILON12);
+                assertEquals(expected[3 * i + 1], transformed.getY(i), CesiumMath.EPSILON12);
+                assertEquals(expected[3 * i + 2], transformed.getZ(i), CesiumMath.EPSILON12);
+            }
+            finishTest();
+        });
+    }
+
+    public void testMultiplyByPointsChecksRange() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Matrix4d matrix = Matrix4d.identity(null);
+            try {
+                Matrix4d.multiplyByPoints(matrix, new double[6], 1, 3, new double[6], 0, 3, 2);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                Matrix4d.multiplyByPoints(matrix, new double[6], 0, 2, new double[6], 0, 3, 2);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            assertEquals(0, Matrix4d.multiplyByPoints(matrix, new double[0], 0, 3, new double[0], 0, 3, 0).length);
+            finishTest();
+        });
+    }
+
+    private static Matrix4d createTransform() {
+        return Matrix4d.fromTranslationQuaternionRotationScale(new Cartesian3d(1.0, 2.0, 3.0),
+                Quaterniond.fromHeadingPitchRoll(0.3, 0.2, 0.1, null), new Cartesian3d(2.0, 3.0, 4.0), null);
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.OrientedBoundingBox;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class OrientedBoundingBoxdTest extends BaseTestCase {
+
+    public void testContainsAllPoints() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = BoundingSpheredTest.createPoints(200);
+            OrientedBoundingBoxd box = OrientedBoundingBoxd.fromPoints(points, null);
+            Matrix3d inverse = Matrix3d.inverse(box.halfAxes, new Matrix3d());
+            Cartesian3d local = new Cartesian3d();
+            for (int i = 0; i < points.length; i += 3) {
+                Matrix3d.multiplyByVector(inverse, points[i] - box.center.x, points[i + 1] - box.center.y,
+                        points[i + 2] - box.center.z, local);
+                assertTrue(java.lang.Math.abs(local.x) <= 1.0 + CesiumMath.EPSILON6);
+                assertTrue(java.lang.Math.abs(local.y) <= 1.0 + CesiumMath.EPSILON6);
+                assertTrue(java.lang.Math.abs(local.z) <= 1.0 + CesiumMath.EPSILON6);
+            }
+            finishTest();
+        });
+    }
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = BoundingSpheredTest.createPoints(50);
+            OrientedBoundingBoxd expected = OrientedBoundingBoxd.fromOrientedBoundingBox(
+                    OrientedBoundingBox.fromPoints(Cartesian3Buffer.fromArray(points).toCartesian3Array()), null);
+            OrientedBoundingBoxd actual = OrientedBoundingBoxd.fromPoints(points, null);
+            assertTrue(Cartesian3d.equalsEpsilon(expected.center, actual.center, CesiumMath.EPSILON9));
+            assertEquals(java.lang.Math.abs(Matrix3d.determinant(expected.halfAxes)),
+                    java.lang.Math.abs(Matrix3d.determinant(actual.halfAxes)),
+                    java.lang.Math.abs(Matrix3d.determinant(expected.halfAxes)) * CesiumMath.EPSILON6);
+            finishTest();
+        });
+    }
+
+    public void testAxisAlignedBox() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = {
+                    -1.0, -2.0, -3.0,
+                    1.0, -2.0, -3.0,
+                    -1.0, 2.0, -3.0,
+                    1.0, 2.0, -3.0,
+                    -1.0, -2.0, 3.0,
+                    1.0, -2.0, 3.0,
+                    -1.0, 2.0, 3.0,
+                    1.0, 2.0, 3.0
+            };
+            OrientedBoundingBoxd box = OrientedBoundingBoxd.fromPoints(points, null);
+            assertTrue(Cartesian3d.equalsEpsilon(new Cartesian3d(), box.center, 0.0, CesiumMath.EPSILON12));
+            assertEquals(48.0, java.lang.Math.abs(Matrix3d.determinant(box.halfAxes)) * 8.0, CesiumMath.EPSILON9);
+            finishTest();
+        });
+    }
+
+    public void testPackFeatures() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] points = BoundingSpheredTest.createPoints(30);
+            int[] offsets = {0, 12, 30};
+            double[] packed = OrientedBoundingBoxd.packFeatures(points, offsets, new double[1 + 2
+                    * OrientedBoundingBoxd.packedLength], 1);
+            for (int i = 0; i < 2; i++) {
+                OrientedBoundingBoxd expected = OrientedBoundingBoxd.fromPoints(points, offsets[i] * 3, 3,
+                        offsets[i + 1] - offsets[i], null);
+                assertEquals(expected, OrientedBoundingBoxd.unpack(packed, 1 + i * OrientedBoundingBoxd.packedLength,
+                        null));
+            }
+            OrientedBoundingBoxd copy = OrientedBoundingBoxd.unpack(
+                    OrientedBoundingBoxd.pack(OrientedBoundingBoxd.fromPoints(points, null),
+                            new double[OrientedBoundingBoxd.packedLength], 0), 0, null);
+            assertEquals(OrientedBoundingBoxd.fromPoints(points, null), copy);
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class PolygonTriangulatorTest extends BaseTestCase {
+
+    public void testSquare() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] square = {0.0, 0.0, 1.0, 0.0, 1.0, 1.0, 0.0, 1.0};
+            int[] indices = PolygonTriangulator.triangulate(square, null);
+            assertEquals(6, indices.length);
+            assertEquals(1.0, area(square, indices), 1e-14);
+            finishTest();
+        });
+    }
+
+    public void testHoles() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] coordinates = {
+                    0.0, 0.0, 10.0, 0.0, 10.0, 10.0, 0.0, 10.0,
+                    2.0, 2.0, 2.0, 4.0, 4.0, 4.0, 4.0, 2.0,
+                    6.0, 6.0, 6.0, 8.0, 8.0, 8.0, 8.0, 6.0
+            };
+            int[] indices = PolygonTriangulator.triangulate(coordinates, new int[]{4, 8});
+            // n + 2h - 2 triangles for a polygon with n vertices and h holes
+            assertEquals(3 * (12 + 2 * 2 - 2), indices.length);
+            assertEquals(100.0 - 4.0 - 4.0, area(coordinates, indices), 1e-12);
+            try {
+                PolygonTriangulator.triangulate(coordinates, new int[]{8, 4});
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testLargeConcaveRing() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // A star with enough vertices for the Z-order hashing
+            int count = 400;
+            double[] coordinates = new double[2 * count];
+            double expectedArea = 0.0;
+            for (int i = 0; i < count; i++) {
+                double angle = 2.0 * Math.PI * i / count;
+                double radius = i % 2 == 0 ? 100.0 : 60.0;
+                coordinates[2 * i] = radius * Math.cos(angle);
+                coordinates[2 * i + 1] = radius * Math.sin(angle);
+            }
+            for (int i = 0; i < count; i++) {
+                int j = (i + 1) % count;
+                expectedArea += 0.5 * (coordinates[2 * i] * coordinates[2 * j + 1]
+                        - coordinates[2 * j] * coordinates[2 * i + 1]);
+            }
+            int[] indices = PolygonTriangulator.triangulate(coordinates, null);
+            assertEquals(3 * (count - 2), indices.length);
+            assertEquals(expectedArea, area(coordinates, indices), 1e-9 * expectedArea);
+            finishTest();
+        });
+    }
+
+    public void testDegenerate() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            assertEquals(0, PolygonTriangulator.triangulate(new double[0], null).length);
+            assertEquals(0, PolygonTriangulator.triangulate(new double[]{0.0, 0.0, 1.0, 1.0}, null).length);
+            try {
+                PolygonTriangulator.triangulate(new double[]{0.0, 0.0, 1.0}, null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testEllipsoid() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Ellipsoidd ellipsoid = Ellipsoidd.WGS84;
+            double[] degrees = {10.0, 40.0, 11.0, 40.0, 11.0, 41.0, 10.5, 40.5, 10.0, 41.0};
+            double[] positions = new double[degrees.length / 2 * 3];
+            Cartesian3d scratch = new Cartesian3d();
+            for (int i = 0; i < degrees.length / 2; i++) {
+                ellipsoid.cartographicToCartesian(Math.toRadians(degrees[2 * i]), Math.toRadians(degrees[2 * i + 1]),
+                        0.0, scratch);
+                positions[3 * i] = scratch.x;
+                positions[3 * i + 1] = scratch.y;
+                positions[3 * i + 2] = scratch.z;
+            }
+            int[] indices = PolygonTriangulator.triangulate(positions, null, ellipsoid);
+            assertEquals(9, indices.length);
+            double[] plane = PolygonTriangulator.projectToTangentPlane(positions, ellipsoid, null);
+            assertEquals(10, plane.length);
+            // The triangles cover the concave ring in the tangent plane
+            double expectedArea = area(plane, new int[]{0, 1, 2, 0, 2, 4}) - area(plane, new int[]{2, 3, 4});
+            assertEquals(expectedArea, area(plane, indices), 1e-9 * expectedArea);
+            try {
+                PolygonTriangulator.triangulate(new double[]{1.0, 2.0}, null, ellipsoid);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                PolygonTriangulator.projectToTangentPlane(positions, ellipsoid, new double[4]);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    static double area(double[] coordinates, int[] indices) {
+        double area = 0.0;
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = 2 * indices[i];
+            int b = 2 * indices[i + 1];
+            int c = 2 * indices[i + 2];
+            area += 0.5 * Math.abs((coordinates[b] - coordinates[a]) * (coordinates[c + 1] - coordinates[a + 1])
+                    - (coordinates[c] - coordinates[a]) * (coordinates[b + 1] - coordinates[a + 1]));
+        }
+        return area;
+    }
+}
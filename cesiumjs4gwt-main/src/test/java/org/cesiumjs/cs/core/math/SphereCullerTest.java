@@ -0,0 +1,215 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.BoundingSphere;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.CullingVolume;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.PerspectiveFrustum;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class SphereCullerTest extends BaseTestCase {
+
+    public void testPlanes() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            SphereCuller culler = new SphereCuller();
+            assertEquals(0, culler.getPlaneCount());
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(1e9, 0.0, 0.0, 1.0));
+
+            // The box from -10 to 10 along x and y, at an offset in the array
+            culler.setPlanes(new double[]{9.0, 1.0, 0.0, 0.0, 10.0, -1.0, 0.0, 0.0, 10.0, 0.0, 1.0, 0.0, 10.0,
+                    0.0, -1.0, 0.0, 10.0}, 1, 4);
+            assertEquals(4, culler.getPlaneCount());
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(0.0, 0.0, 100.0, 5.0));
+            assertEquals(SphereCuller.INTERSECTING, culler.computeVisibility(8.0, 0.0, 0.0, 5.0));
+            assertEquals(SphereCuller.OUTSIDE, culler.computeVisibility(16.0, 0.0, 0.0, 5.0));
+
+            // Spheres with an extra value each
+            double[] spheres = {
+                    0.0, 0.0, 0.0, 1.0, -1.0,
+                    -20.0, 0.0, 0.0, 1.0, -1.0,
+                    0.0, 12.0, 0.0, 3.0, -1.0,
+                    0.0, -12.0, 0.0, 1.0, -1.0
+            };
+            byte[] classes = culler.classify(spheres, 0, 5, 4, null, 1);
+            assertEquals(5, classes.length);
+            assertEquals(SphereCuller.INSIDE, classes[1]);
+            assertEquals(SphereCuller.OUTSIDE, classes[2]);
+            assertEquals(SphereCuller.INTERSECTING, classes[3]);
+            assertEquals(SphereCuller.OUTSIDE, classes[4]);
+
+            int[] visible = new int[4];
+            assertEquals(2, culler.cull(spheres, 0, 5, 4, visible));
+            assertEquals(0, visible[0]);
+            assertEquals(2, visible[1]);
+            assertEquals(1, culler.cull(new double[]{-20.0, 0.0, 0.0, 1.0, 1.0, 2.0, 3.0, 4.0}, 0, 2, visible));
+            assertEquals(1, visible[0]);
+            finishTest();
+        });
+    }
+
+    public void testPerspectiveFrustum() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            SphereCuller culler = new SphereCuller();
+            Cartesian3d position = new Cartesian3d(0.0, 0.0, 0.0);
+            Cartesian3d direction = new Cartesian3d(0.0, 0.0, -1.0);
+            Cartesian3d up = new Cartesian3d(0.0, 1.0, 0.0);
+            culler.setPerspectiveFrustum(position, direction, up, Math.PI / 3.0, 2.0, 1.0, 100.0);
+            assertEquals(6, culler.getPlaneCount());
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(0.0, 0.0, -10.0, 1.0));
+            assertEquals(SphereCuller.OUTSIDE, culler.computeVisibility(0.0, 0.0, 10.0, 1.0));
+            assertEquals(SphereCuller.OUTSIDE, culler.computeVisibility(0.0, 0.0, -200.0, 1.0));
+            assertEquals(SphereCuller.INTERSECTING, culler.computeVisibility(0.0, 0.0, -100.0, 1.0));
+            // The field of view is horizontal for a wide frustum: 30 degrees either side along x
+            double edge = 10.0 * Math.tan(Math.PI / 6.0);
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(edge - 1.0, 0.0, -10.0, 0.5));
+            assertEquals(SphereCuller.OUTSIDE, culler.computeVisibility(edge + 1.0, 0.0, -10.0, 0.5));
+            assertEquals(SphereCuller.OUTSIDE, culler.computeVisibility(0.0, edge - 1.0, -10.0, 0.5));
+
+            culler.setPerspectiveFrustum(position, direction, up, Math.PI / 3.0, 2.0, 1.0, Double.POSITIVE_INFINITY);
+            assertEquals(5, culler.getPlaneCount());
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(0.0, 0.0, -1e12, 1.0));
+            try {
+                culler.setPerspectiveFrustum(position, direction, up, Math.PI, 1.0, 1.0, 100.0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                culler.setPerspectiveFrustum(position, direction, up, 1.0, 1.0, 100.0, 1.0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                culler.cull(new double[8], 0, 3, 2, new int[2]);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testHorizonNeverCullsVisibleSpheres() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            SphereCuller culler = new SphereCuller();
+            Ellipsoidd ellipsoid = Ellipsoidd.UNIT_SPHERE;
+            Cartesian3d camera = new Cartesian3d(0.0, 0.0, 3.0);
+            culler.setHorizon(camera, ellipsoid);
+            assertTrue(culler.hasHorizon());
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(0.0, 0.0, 1.5, 0.1));
+            assertEquals(SphereCuller.OUTSIDE, culler.computeVisibility(0.0, 0.0, -1.5, 0.1));
+            // Large enough to rise above the horizon
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(0.0, 0.0, -1.5, 2.0));
+
+            long seed = 99L;
+            int culled = 0;
+            for (int i = 0; i < 10_000; i++) {
+                double[] p = new double[3];
+                for (int j = 0; j < 3; j++) {
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    p[j] = ((seed >>> 11) / 9007199254740992.0 * 2.0 - 1.0) * 2.5;
+                }
+                double magnitude = Math.sqrt(p[0] * p[0] + p[1] * p[1] + p[2] * p[2]);
+                if (magnitude < 1.0 + 1e-3) {
+                    continue;
+                }
+                if (culler.computeVisibility(p[0], p[1], p[2], 1e-3) == SphereCuller.OUTSIDE) {
+                    culled++;
+                    assertTrue(isOccluded(camera, p));
+                }
+            }
+            assertTrue(culled > 1000);
+
+            culler.setHorizon(new Cartesian3d(0.0, 0.0, 0.5), ellipsoid);
+            assertFalse(culler.hasHorizon());
+            culler.setHorizon(camera, ellipsoid).clearHorizon();
+            assertEquals(SphereCuller.INSIDE, culler.computeVisibility(0.0, 0.0, -1.5, 0.1));
+            finishTest();
+        });
+    }
+
+    public void testMatchesCullingVolume() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3d position = new Cartesian3d(7000000.0, 100000.0, -200000.0);
+            Cartesian3d direction = Cartesian3d.normalize(new Cartesian3d(-1.0, 0.1, 0.05), new Cartesian3d());
+            Cartesian3d up = Cartesian3d.normalize(Cartesian3d.cross(Cartesian3d.cross(direction,
+                    new Cartesian3d(0.0, 0.0, 1.0), new Cartesian3d()), direction, new Cartesian3d()),
+                    new Cartesian3d());
+            PerspectiveFrustum frustum = new PerspectiveFrustum();
+            frustum.fov = Math.PI / 3.0;
+            frustum.aspectRatio = 1.5;
+            frustum.near = 1.0;
+            frustum.far = 1e7;
+            CullingVolume cullingVolume = frustum.computeCullingVolume(Cartesian3d.toCartesian3(position, null),
+                    Cartesian3d.toCartesian3(direction, null), Cartesian3d.toCartesian3(up, null));
+
+            SphereCuller fromVolume = new SphereCuller().setCullingVolume(cullingVolume);
+            SphereCuller fromFrustum = new SphereCuller().setPerspectiveFrustum(position, direction, up,
+                    frustum.fov, frustum.aspectRatio, frustum.near, frustum.far);
+            assertEquals(6, fromVolume.getPlaneCount());
+
+            long seed = 7L;
+            double[] values = new double[4];
+            for (int i = 0; i < 1000; i++) {
+                for (int j = 0; j < 4; j++) {
+                    seed = seed * 6364136223846793005L + 1442695040888963407L;
+                    values[j] = (seed >>> 11) / 9007199254740992.0;
+                }
+                double x = 6000000.0 + 2000000.0 * values[0];
+                double y = 2000000.0 * (values[1] - 0.5);
+                double z = 2000000.0 * (values[2] - 0.5);
+                double radius = 100000.0 * values[3];
+                int expected = cullingVolume.computeVisibility(new BoundingSphere(new Cartesian3(x, y, z), radius));
+                assertEquals(expected, fromVolume.computeVisibility(x, y, z, radius));
+                assertEquals(expected, fromFrustum.computeVisibility(x, y, z, radius));
+            }
+            finishTest();
+        });
+    }
+
+    /**
+     * Determines whether the segment from the camera to a point crosses the unit sphere.
+     */
+    private static boolean isOccluded(Cartesian3d camera, double[] p) {
+        double dx = p[0] - camera.x;
+        double dy = p[1] - camera.y;
+        double dz = p[2] - camera.z;
+        double a = dx * dx + dy * dy + dz * dz;
+        double b = 2.0 * (camera.x * dx + camera.y * dy + camera.z * dz);
+        double c = camera.x * camera.x + camera.y * camera.y + camera.z * camera.z - 1.0;
+        double discriminant = b * b - 4.0 * a * c;
+        if (discriminant < 0.0) {
+            return false;
+        }
+        double t = (-b - Math.sqrt(discriminant)) / (2.0 * a);
+        return t > 0.0 && t < 1.0;
+    }
+}
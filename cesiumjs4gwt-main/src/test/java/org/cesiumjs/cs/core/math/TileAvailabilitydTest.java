@@ -0,0 +1,191 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartographic;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.GeographicTilingScheme;
+import org.cesiumjs.cs.core.Rectangle;
+import org.cesiumjs.cs.core.TileAvailability;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class TileAvailabilitydTest extends BaseTestCase {
+
+    public void testIsTileAvailable() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TileAvailabilityd availability = createAvailability();
+            assertTrue(availability.isTileAvailable(0, 0, 0));
+            assertTrue(availability.isTileAvailable(0, 1, 0));
+            assertTrue(availability.isTileAvailable(5, 20, 10));
+            assertFalse(availability.isTileAvailable(6, 0, 0));
+            assertTrue(availability.isTileAvailable(6, 40, 20));
+            assertTrue(availability.isTileAvailable(TileKey.fromTileXY(43, 23, 6)));
+            assertFalse(availability.isTileAvailable(TileKey.fromTileXY(44, 23, 6)));
+            assertFalse(availability.isTileAvailable(7, 80, 40));
+            assertFalse(availability.isTileAvailable(-1, 0, 0));
+
+            long[] keys = {TileKey.fromTileXY(0, 0, 6), TileKey.fromTileXY(41, 21, 6)};
+            boolean[] result = availability.isTileAvailable(keys, 0, 2, new boolean[3], 1);
+            assertFalse(result[1]);
+            assertTrue(result[2]);
+
+            assertEquals(15, availability.computeChildMaskForTile(5, 20, 10));
+            assertEquals(0, availability.computeChildMaskForTile(5, 0, 0));
+            int[] masks = availability.computeChildMaskForTile(new long[]{TileKey.fromTileXY(20, 10, 5)}, 0, 1,
+                    new int[1], 0);
+            assertEquals(15, masks[0]);
+            finishTest();
+        });
+    }
+
+    public void testMaximumLevelAtPosition() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TileAvailabilityd availability = createAvailability();
+            double[] rectangle = availability.getTilingScheme().tileXYToRectangle(41, 21, 6, new double[4], 0);
+            double longitude = 0.5 * (rectangle[0] + rectangle[2]);
+            double latitude = 0.5 * (rectangle[1] + rectangle[3]);
+            assertEquals(6, availability.computeMaximumLevelAtPosition(longitude, latitude));
+            assertEquals(5, availability.computeMaximumLevelAtPosition(new Cartographicd(-3.0, -1.0, 0.0)));
+            assertEquals(-1, availability.computeMaximumLevelAtPosition(0.0, 2.0));
+
+            int[] levels = availability.computeMaximumLevelAtPosition(new double[]{longitude, latitude, 0.0,
+                    -3.0, -1.0, 0.0}, 0, 3, 2, new int[2], 0);
+            assertEquals(6, levels[0]);
+            assertEquals(5, levels[1]);
+            finishTest();
+        });
+    }
+
+    public void testBestAvailableLevelOverRectangle() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TileAvailabilityd availability = createAvailability();
+            double[] rectangle = availability.getTilingScheme().tileXYToRectangle(41, 21, 6, new double[4], 0);
+            assertEquals(6, availability.computeBestAvailableLevelOverRectangle(rectangle[0] + 1e-6,
+                    rectangle[1] + 1e-6, rectangle[2] - 1e-6, rectangle[3] - 1e-6));
+            assertEquals(5, availability.computeBestAvailableLevelOverRectangle(-CesiumMath.PI,
+                    -CesiumMath.PI_OVER_TWO, CesiumMath.PI, CesiumMath.PI_OVER_TWO));
+            // Crosses the antimeridian
+            assertEquals(5, availability.computeBestAvailableLevelOverRectangle(3.0, -0.1, -3.0, 0.1));
+
+            int[] levels = availability.computeBestAvailableLevelOverRectangle(new double[]{rectangle[0] + 1e-6,
+                    rectangle[1] + 1e-6, rectangle[2] - 1e-6, rectangle[3] - 1e-6, -1.0, -1.0, 1.0, 1.0}, 0, 2,
+                    new int[2], 0);
+            assertEquals(6, levels[0]);
+            assertEquals(5, levels[1]);
+            finishTest();
+        });
+    }
+
+    public void testBestAvailableLevelIsZeroWhenNotCovered() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TileAvailabilityd availability = new TileAvailabilityd(new GeographicTilingSchemed(), 10);
+            assertEquals(0, availability.computeBestAvailableLevelOverRectangle(-1.0, -1.0, 1.0, 1.0));
+
+            availability.addAvailableTileRange(3, 0, 0, 3, 7);
+            // Only the western quarter is covered
+            assertEquals(0, availability.computeBestAvailableLevelOverRectangle(-1.0, -1.0, 1.0, 1.0));
+            assertEquals(3, availability.computeBestAvailableLevelOverRectangle(-3.0, -1.0, -2.0, 1.0));
+            // Beyond the poles and outside a regional tiling scheme
+            assertEquals(0, availability.computeBestAvailableLevelOverRectangle(-1.0, 1.6, 1.0, 1.7));
+            TileAvailabilityd regional = new TileAvailabilityd(
+                    new GeographicTilingSchemed(Ellipsoidd.WGS84, 0.0, 0.0, 1.0, 1.0, 1, 1), 10);
+            regional.addAvailableTileRange(0, 0, 0, 0, 0);
+            assertEquals(0, regional.computeBestAvailableLevelOverRectangle(-1.0, 0.2, -0.5, 0.4));
+            assertEquals(0, regional.computeBestAvailableLevelOverRectangle(0.2, 0.2, 0.4, 0.4));
+            finishTest();
+        });
+    }
+
+    public void testBytes() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TileAvailabilityd availability = createAvailability();
+            byte[] bytes = availability.toBytes();
+            assertEquals(2, bytes[2]);
+            TileAvailabilityd restored = TileAvailabilityd.fromBytes(availability.getTilingScheme(), bytes);
+            assertEquals(availability.getMaximumLevel(), restored.getMaximumLevel());
+            for (int y = 0; y < 64; y++) {
+                for (int x = 0; x < 128; x++) {
+                    assertEquals(availability.isTileAvailable(6, x, y), restored.isTileAvailable(6, x, y));
+                }
+            }
+            assertTrue(restored.getNodeCount() <= availability.getNodeCount());
+
+            try {
+                TileAvailabilityd.fromBytes(new WebMercatorTilingSchemed(), bytes);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                TileAvailabilityd.fromBytes(availability.getTilingScheme(), new byte[]{1, 10, 2, (byte) 0x80});
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TileAvailabilityd availability = createAvailability();
+            TileAvailability expected = new TileAvailability(new GeographicTilingScheme(), 10);
+            expected.addAvailableTileRange(0, 0, 0, 1, 0);
+            expected.addAvailableTileRange(5, 0, 0, 63, 31);
+            expected.addAvailableTileRange(6, 40, 20, 43, 23);
+
+            for (int y = 16; y < 28; y++) {
+                for (int x = 36; x < 48; x++) {
+                    assertEquals(expected.isTileAvailable(6, x, y), availability.isTileAvailable(6, x, y));
+                    assertEquals(expected.computeChildMaskForTile(6, x, y),
+                            availability.computeChildMaskForTile(6, x, y));
+                }
+            }
+            double[] rectangle = availability.getTilingScheme().tileXYToRectangle(41, 21, 6, new double[4], 0);
+            double longitude = 0.5 * (rectangle[0] + rectangle[2]);
+            double latitude = 0.5 * (rectangle[1] + rectangle[3]);
+            assertEquals(expected.computeMaximumLevelAtPosition(new Cartographic(longitude, latitude)),
+                    availability.computeMaximumLevelAtPosition(longitude, latitude));
+            assertEquals(expected.computeBestAvailableLevelOverRectangle(new Rectangle(0.1, 0.1, 0.2, 0.2)),
+                    availability.computeBestAvailableLevelOverRectangle(0.1, 0.1, 0.2, 0.2));
+            finishTest();
+        });
+    }
+
+    private static TileAvailabilityd createAvailability() {
+        TileAvailabilityd availability = new TileAvailabilityd(new GeographicTilingSchemed(), 10);
+        availability.addAvailableTileRange(0, 0, 0, 1, 0);
+        availability.addAvailableTileRange(5, 0, 0, 63, 31);
+        availability.addAvailableTileRange(6, 40, 20, 43, 23);
+        return availability;
+    }
+}
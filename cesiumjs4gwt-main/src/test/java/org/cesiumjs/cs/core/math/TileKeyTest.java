@@ -0,0 +1,153 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class TileKeyTest extends BaseTestCase {
+
+    public void testRoundTrip() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            long seed = 12345L;
+            for (int i = 0; i < 10_000; i++) {
+                seed = seed * 6364136223846793005L + 1442695040888963407L;
+                int level = (int) ((seed >>> 33) % (TileKey.MAXIMUM_LEVEL + 1));
+                int size = 2 << level;
+                int x = (int) ((seed >>> 8) & 0x7FFFFFFFL) % size;
+                int y = (int) ((seed >>> 20) & 0x7FFFFFFFL) % (1 << level);
+                long key = TileKey.fromTileXY(x, y, level);
+                assertEquals(x, TileKey.getX(key));
+                assertEquals(y, TileKey.getY(key));
+                assertEquals(level, TileKey.getLevel(key));
+                if (level > 0) {
+                    long parent = TileKey.parent(key);
+                    assertEquals(TileKey.fromTileXY(x >> 1, y >> 1, level - 1), parent);
+                    assertTrue(TileKey.contains(parent, key));
+                    assertEquals(key, TileKey.child(parent, (x & 1) | ((y & 1) << 1)));
+                    assertEquals(TileKey.fromTileXY(x >> level, y >> level, 0), TileKey.ancestor(key, 0));
+                }
+            }
+            assertEquals(TileKey.NONE, TileKey.parent(TileKey.fromTileXY(1, 0, 0)));
+            finishTest();
+        });
+    }
+
+    public void testMaximumLevel() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            int max = (2 << TileKey.MAXIMUM_LEVEL) - 1;
+            long key = TileKey.fromTileXY(max, max >>> 1, TileKey.MAXIMUM_LEVEL);
+            assertEquals(max, TileKey.getX(key));
+            assertEquals(max >>> 1, TileKey.getY(key));
+            assertEquals(TileKey.MAXIMUM_LEVEL, TileKey.getLevel(key));
+            try {
+                TileKey.child(key, 0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                TileKey.fromTileXY(0, 0, TileKey.MAXIMUM_LEVEL + 1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                TileKey.fromTileXY(-1, 0, 3);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testChildren() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            long key = TileKey.fromTileXY(3, 1, 2);
+            assertEquals(TileKey.fromTileXY(6, 2, 3), TileKey.child(key, 0));
+            assertEquals(TileKey.fromTileXY(7, 2, 3), TileKey.child(key, 1));
+            assertEquals(TileKey.fromTileXY(6, 3, 3), TileKey.child(key, 2));
+            assertEquals(TileKey.fromTileXY(7, 3, 3), TileKey.child(key, 3));
+            assertTrue(TileKey.contains(key, key));
+            assertFalse(TileKey.contains(TileKey.child(key, 0), key));
+            assertFalse(TileKey.contains(TileKey.fromTileXY(2, 1, 2), TileKey.child(key, 3)));
+            try {
+                TileKey.child(key, 4);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                TileKey.ancestor(key, 3);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testNeighbor() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            long key = TileKey.fromTileXY(0, 0, 1);
+            assertEquals(TileKey.fromTileXY(3, 0, 1), TileKey.neighbor(key, -1, 0, 4, 2));
+            assertEquals(TileKey.fromTileXY(1, 1, 1), TileKey.neighbor(key, 1, 1, 4, 2));
+            assertEquals(TileKey.fromTileXY(0, 0, 1), TileKey.neighbor(key, 4, 0, 4, 2));
+            assertEquals(TileKey.NONE, TileKey.neighbor(key, 0, -1, 4, 2));
+            assertEquals(TileKey.NONE, TileKey.neighbor(key, 0, 2, 4, 2));
+            finishTest();
+        });
+    }
+
+    public void testQuadkey() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // Example of the Bing Maps Tile System documentation
+            long key = TileKey.fromTileXY(3, 5, 3);
+            assertEquals("213", TileKey.toQuadkey(key));
+            assertEquals(key, TileKey.fromQuadkey("213"));
+            assertEquals("", TileKey.toQuadkey(TileKey.fromTileXY(0, 0, 0)));
+            assertEquals("3/5/3", TileKey.toString(key));
+            try {
+                TileKey.toQuadkey(TileKey.fromTileXY(1, 0, 0));
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                TileKey.fromQuadkey("124");
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian2;
+import org.cesiumjs.cs.core.Cartographic;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.GeographicTilingScheme;
+import org.cesiumjs.cs.core.Rectangle;
+import org.cesiumjs.cs.core.TilingScheme;
+import org.cesiumjs.cs.core.WebMercatorTilingScheme;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class TilingSchemedTest extends BaseTestCase {
+
+    public void testGeographic() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            GeographicTilingSchemed scheme = new GeographicTilingSchemed();
+            assertEquals(4, scheme.getNumberOfXTilesAtLevel(1));
+            assertEquals(2, scheme.getNumberOfYTilesAtLevel(1));
+            long[] levelZero = scheme.getLevelZeroTiles();
+            assertEquals(2, levelZero.length);
+            assertEquals(TileKey.fromTileXY(1, 0, 0), levelZero[1]);
+
+            double[] rectangle = scheme.tileXYToRectangle(1, 0, 0, new double[5], 1);
+            assertEquals(0.0, rectangle[1], CesiumMath.EPSILON14);
+            assertEquals(-CesiumMath.PI_OVER_TWO, rectangle[2], CesiumMath.EPSILON14);
+            assertEquals(CesiumMath.PI, rectangle[3], CesiumMath.EPSILON14);
+            assertEquals(CesiumMath.PI_OVER_TWO, rectangle[4], CesiumMath.EPSILON14);
+            double[] degrees = scheme.tileXYToNativeRectangle(1, 0, 0, new double[4], 0);
+            assertEquals(180.0, degrees[2], 1e-12);
+
+            assertEquals(TileKey.fromTileXY(0, 0, 0), scheme.positionToTileKey(-CesiumMath.PI, CesiumMath.PI_OVER_TWO, 0));
+            assertEquals(TileKey.fromTileXY(3, 1, 1), scheme.positionToTileKey(CesiumMath.PI, -CesiumMath.PI_OVER_TWO, 1));
+            assertEquals(TileKey.NONE, scheme.positionToTileKey(0.0, 2.0, 1));
+            finishTest();
+        });
+    }
+
+    public void testPositionsFallInTheirTiles() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TilingSchemed[] schemes = {new GeographicTilingSchemed(), new WebMercatorTilingSchemed()};
+            int count = 1000;
+            double[] positions = new double[count * 3];
+            long seed = 42L;
+            for (int i = 0; i < count; i++) {
+                seed = seed * 6364136223846793005L + 1442695040888963407L;
+                positions[i * 3] = ((seed >>> 11) / 9007199254740992.0 * 2.0 - 1.0) * CesiumMath.PI;
+                seed = seed * 6364136223846793005L + 1442695040888963407L;
+                positions[i * 3 + 1] = ((seed >>> 11) / 9007199254740992.0 * 2.0 - 1.0) * 1.4;
+                positions[i * 3 + 2] = 100.0;
+            }
+            long[] keys = new long[count + 1];
+            double[] rectangle = new double[4];
+            for (TilingSchemed scheme : schemes) {
+                scheme.positionsToTileKeys(positions, 0, 3, count, 12, keys, 1);
+                for (int i = 0; i < count; i++) {
+                    double longitude = positions[i * 3];
+                    double latitude = positions[i * 3 + 1];
+                    long key = keys[i + 1];
+                    assertEquals(12, TileKey.getLevel(key));
+                    assertEquals(key, scheme.positionToTileKey(new Cartographicd(longitude, latitude, 0.0), 12));
+                    scheme.tileKeyToRectangle(key, rectangle, 0);
+                    assertTrue(longitude >= rectangle[0] - CesiumMath.EPSILON12);
+                    assertTrue(longitude <= rectangle[2] + CesiumMath.EPSILON12);
+                    assertTrue(latitude >= rectangle[1] - CesiumMath.EPSILON12);
+                    assertTrue(latitude <= rectangle[3] + CesiumMath.EPSILON12);
+                }
+            }
+            try {
+                schemes[0].positionsToTileKeys(positions, 0, 3, count, 12, keys, 2);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testWebMercator() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            WebMercatorTilingSchemed scheme = new WebMercatorTilingSchemed();
+            assertEquals(1, scheme.getLevelZeroTiles().length);
+            double[] rectangle = scheme.tileXYToRectangle(0, 0, 0, new double[4], 0);
+            assertEquals(-CesiumMath.PI, rectangle[0], CesiumMath.EPSILON14);
+            assertEquals(-WebMercatorTilingSchemed.MAXIMUM_LATITUDE, rectangle[1], CesiumMath.EPSILON14);
+            assertEquals(WebMercatorTilingSchemed.MAXIMUM_LATITUDE, rectangle[3], CesiumMath.EPSILON14);
+            assertEquals(85.0511287798, Math.toDegrees(WebMercatorTilingSchemed.MAXIMUM_LATITUDE), 1e-9);
+
+            double angle = WebMercatorTilingSchemed.geodeticLatitudeToMercatorAngle(0.7);
+            assertEquals(0.7, WebMercatorTilingSchemed.mercatorAngleToGeodeticLatitude(angle), CesiumMath.EPSILON14);
+            assertEquals(CesiumMath.PI, WebMercatorTilingSchemed.geodeticLatitudeToMercatorAngle(1.5),
+                    CesiumMath.EPSILON12);
+
+            assertEquals(TileKey.NONE, scheme.positionToTileKey(0.0, 1.5, 3));
+            // Neighbours wrap around the antimeridian but not over the poles
+            long key = TileKey.fromTileXY(0, 0, 2);
+            assertEquals(TileKey.fromTileXY(3, 0, 2), scheme.neighbor(key, -1, 0));
+            assertEquals(TileKey.NONE, scheme.neighbor(key, 0, -1));
+
+            GeographicTilingSchemed regional = new GeographicTilingSchemed(Ellipsoidd.WGS84, 0.0, 0.0, 1.0, 1.0, 1, 1);
+            assertEquals(TileKey.NONE, regional.neighbor(TileKey.fromTileXY(0, 0, 1), -1, 0));
+            assertEquals(TileKey.fromTileXY(1, 0, 1), regional.neighbor(TileKey.fromTileXY(0, 0, 1), 1, 0));
+            try {
+                new GeographicTilingSchemed(Ellipsoidd.WGS84, 0.0, 0.0, 1.0, 1.0, 3, 1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TilingSchemed[] schemes = {new GeographicTilingSchemed(), new WebMercatorTilingSchemed()};
+            TilingScheme[] natives = {new GeographicTilingScheme(), new WebMercatorTilingScheme()};
+            double[] rectangle = new double[4];
+            for (int s = 0; s < schemes.length; s++) {
+                for (int level = 0; level < 6; level++) {
+                    int x = schemes[s].getNumberOfXTilesAtLevel(level) - 1;
+                    int y = schemes[s].getNumberOfYTilesAtLevel(level) / 2;
+                    Rectangle expected = natives[s].tileXYToRectangle(x, y, level);
+                    schemes[s].tileXYToRectangle(x, y, level, rectangle, 0);
+                    assertEquals(expected.west, rectangle[0], CesiumMath.EPSILON14);
+                    assertEquals(expected.south, rectangle[1], CesiumMath.EPSILON14);
+                    assertEquals(expected.east, rectangle[2], CesiumMath.EPSILON14);
+                    assertEquals(expected.north, rectangle[3], CesiumMath.EPSILON14);
+
+                    Cartesian2 tile = natives[s].positionToTileXY(new Cartographic(0.3, 0.4), level);
+                    long key = schemes[s].positionToTileKey(0.3, 0.4, level);
+                    assertEquals((int) tile.x, TileKey.getX(key));
+                    assertEquals((int) tile.y, TileKey.getY(key));
+                }
+            }
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.HeadingPitchRoll;
+import org.cesiumjs.cs.core.Matrix4;
+import org.cesiumjs.cs.core.Transforms;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class TransformsdTest extends BaseTestCase {
+
+    public void testEastNorthUpOnTheEquator() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double a = Ellipsoidd.WGS84.getMaximumRadius();
+            Matrix4d frame = Transformsd.eastNorthUpToFixedFrame(a, 0.0, 0.0, Ellipsoidd.WGS84, null);
+            Matrix4d expected = Matrix4d.fromColumnMajorArray(new double[]{
+                    0.0, 1.0, 0.0, 0.0,
+                    0.0, 0.0, 1.0, 0.0,
+                    1.0, 0.0, 0.0, 0.0,
+                    a, 0.0, 0.0, 1.0}, null);
+            assertTrue(Matrix4d.equalsEpsilon(expected, frame, CesiumMath.EPSILON14));
+            finishTest();
+        });
+    }
+
+    public void testEastNorthUpIsOrthonormal() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3d origin = Ellipsoidd.WGS84.cartographicToCartesian(0.7, -0.4, 250.0, null);
+            Matrix4d frame = Transformsd.eastNorthUpToFixedFrame(origin, Ellipsoidd.WGS84, null);
+            Matrix3d rotation = Matrix4d.getMatrix3(frame, new Matrix3d());
+            assertEquals(1.0, Matrix3d.determinant(rotation), CesiumMath.EPSILON14);
+            Cartesian3d up = Matrix3d.getColumn(rotation, 2, new Cartesian3d());
+            Cartesian3d normal = Ellipsoidd.WGS84.geodeticSurfaceNormal(origin, null);
+            assertTrue(Cartesian3d.equalsEpsilon(normal, up, CesiumMath.EPSILON14));
+            Cartesian3d translation = Matrix4d.multiplyByPoint(frame, 0.0, 0.0, 0.0, new Cartesian3d());
+            assertTrue(Cartesian3d.equalsEpsilon(origin, translation, CesiumMath.EPSILON14));
+            finishTest();
+        });
+    }
+
+    public void testHeadingPitchRoll() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3d origin = Ellipsoidd.WGS84.cartographicToCartesian(2.1, 0.8, 0.0, null);
+            Matrix4d enu = Transformsd.eastNorthUpToFixedFrame(origin, Ellipsoidd.WGS84, null);
+            Matrix4d level = Transformsd.headingPitchRollToFixedFrame(origin, 0.0, 0.0, 0.0, Ellipsoidd.WGS84,
+                    null);
+            assertTrue(Matrix4d.equalsEpsilon(enu, level, CesiumMath.EPSILON14));
+
+            Matrix4d frame = Transformsd.headingPitchRollToFixedFrame(origin, 0.3, -0.2, 0.1, Ellipsoidd.WGS84,
+                    null);
+            Matrix4d local = Matrix4d.fromTranslationQuaternionRotationScale(new Cartesian3d(),
+                    Quaterniond.fromHeadingPitchRoll(0.3, -0.2, 0.1, null), new Cartesian3d(1.0, 1.0, 1.0), null);
+            Matrix4d expected = Matrix4d.multiply(enu, local, new Matrix4d());
+            assertTrue(Matrix4d.equalsEpsilon(expected, frame, CesiumMath.EPSILON14));
+
+            Quaterniond quaternion = Transformsd.headingPitchRollQuaternion(origin, 0.3, -0.2, 0.1,
+                    Ellipsoidd.WGS84, null, null);
+            Matrix3d rotation = Matrix3d.fromQuaternion(quaternion, null);
+            assertTrue(Matrix3d.equalsEpsilon(Matrix4d.getMatrix3(frame, new Matrix3d()), rotation,
+                    CesiumMath.EPSILON14));
+            finishTest();
+        });
+    }
+
+    public void testMatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Cartesian3 origin = Cartesian3.fromDegrees(-75.59777, 40.03883, 100.0);
+            Matrix4 expected = Transforms.headingPitchRollToFixedFrame(origin, new HeadingPitchRoll(0.3, 0.2, 0.1));
+            Matrix4d actual = Transformsd.headingPitchRollToFixedFrame(Cartesian3d.fromCartesian3(origin, null), 0.3,
+                    0.2, 0.1, Ellipsoidd.WGS84, null);
+            assertTrue(Matrix4d.equalsEpsilon(Matrix4d.fromMatrix4(expected, null), actual, CesiumMath.EPSILON12));
+            finishTest();
+        });
+    }
+}
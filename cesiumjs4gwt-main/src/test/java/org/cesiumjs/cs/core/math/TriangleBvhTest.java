@@ -0,0 +1,269 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.math;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class TriangleBvhTest extends BaseTestCase {
+    private static final int GRID = 24;
+
+    public void testRayTrianglesMatchesBruteForce() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] soup = createTerrain();
+            TriangleBvh bvh = TriangleBvh.fromTriangles(soup);
+            assertEquals(2 * GRID * GRID, bvh.getTriangleCount());
+            double[] random = createRandom(600);
+            for (int i = 0; i < 100; i++) {
+                Cartesian3d origin = new Cartesian3d(GRID * random[6 * i], GRID * random[6 * i + 1],
+                        10.0 + 5.0 * random[6 * i + 2]);
+                Cartesian3d direction = new Cartesian3d(random[6 * i + 3] - 0.5, random[6 * i + 4] - 0.5,
+                        -random[6 * i + 5]);
+                for (int cull = 0; cull < 2; cull++) {
+                    double[] expected = bruteForce(soup, origin, direction, cull == 1, Double.MAX_VALUE);
+                    TriangleBvh.Intersection actual = bvh.rayTriangles(origin, direction, cull == 1, null);
+                    if (expected == null) {
+                        assertNull(actual);
+                    } else {
+                        assertNotNull(actual);
+                        assertEquals(expected[1], actual.t, 1e-9);
+                        assertEquals(origin.z + expected[1] * direction.z, actual.position.z, 1e-9);
+                    }
+                }
+            }
+            finishTest();
+        });
+    }
+
+    public void testBackFaces() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            TriangleBvh bvh = TriangleBvh.fromIndexedTriangles(new double[]{0.0, 0.0, 0.0, 1.0, 0.0, 0.0, 0.0, 1.0,
+                    0.0}, new int[]{0, 1, 2});
+            Cartesian3d up = new Cartesian3d(0.0, 0.0, 1.0);
+            Cartesian3d down = new Cartesian3d(0.0, 0.0, -1.0);
+            TriangleBvh.Intersection hit = bvh.rayTriangles(new Cartesian3d(0.25, 0.25, 2.0), down, true, null);
+            assertNotNull(hit);
+            assertEquals(0, hit.triangle);
+            assertEquals(2.0, hit.t, CesiumMath.EPSILON12);
+            assertNull(bvh.rayTriangles(new Cartesian3d(0.25, 0.25, -2.0), up, true, null));
+            assertNotNull(bvh.rayTriangles(new Cartesian3d(0.25, 0.25, -2.0), up, false, null));
+            assertNull(bvh.rayTriangles(new Cartesian3d(0.25, 0.25, 2.0), up, false, null));
+            finishTest();
+        });
+    }
+
+    public void testLineSegments() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] soup = createTerrain();
+            TriangleBvh bvh = TriangleBvh.fromTriangles(soup);
+            double[] random = createRandom(600);
+            double[] segments = new double[6 * 100];
+            for (int i = 0; i < 100; i++) {
+                segments[6 * i] = GRID * random[6 * i];
+                segments[6 * i + 1] = GRID * random[6 * i + 1];
+                segments[6 * i + 2] = 4.0 * random[6 * i + 2];
+                segments[6 * i + 3] = GRID * random[6 * i + 3];
+                segments[6 * i + 4] = GRID * random[6 * i + 4];
+                segments[6 * i + 5] = 4.0 * random[6 * i + 5];
+            }
+            boolean[] intersects = new boolean[100];
+            int hits = bvh.lineSegmentsIntersect(segments, 0, 100, false, intersects);
+            int expectedHits = 0;
+            for (int i = 0; i < 100; i++) {
+                Cartesian3d v0 = new Cartesian3d(segments[6 * i], segments[6 * i + 1], segments[6 * i + 2]);
+                Cartesian3d v1 = new Cartesian3d(segments[6 * i + 3], segments[6 * i + 4], segments[6 * i + 5]);
+                Cartesian3d direction = Cartesian3d.subtract(v1, v0, new Cartesian3d());
+                double length = Cartesian3d.magnitude(direction);
+                Cartesian3d.normalize(direction, direction);
+                double[] expected = bruteForce(soup, v0, direction, false, length);
+                assertEquals(expected != null, intersects[i]);
+                assertEquals(expected != null, bvh.lineSegmentIntersects(v0, v1, false));
+                TriangleBvh.Intersection nearest = bvh.lineSegmentTriangles(v0, v1, false, null);
+                if (expected != null) {
+                    expectedHits++;
+                    assertEquals(expected[1], nearest.t, 1e-9);
+                } else {
+                    assertNull(nearest);
+                }
+            }
+            assertEquals(expectedHits, hits);
+            finishTest();
+        });
+    }
+
+    public void testBatchRays() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] soup = createTerrain();
+            TriangleBvh bvh = TriangleBvh.fromTriangles(soup);
+            double[] rays = {
+                    1.5, 1.5, 20.0, 0.0, 0.0, -1.0,
+                    1.5, 1.5, 20.0, 0.0, 0.0, 1.0,
+                    -5.0, -5.0, 1.0, 1.0, 1.0, 0.0
+            };
+            int[] triangles = new int[3];
+            double[] t = new double[3];
+            int hits = bvh.rayTriangles(rays, 0, 3, false, triangles, t);
+            TriangleBvh.Intersection first = bvh.rayTriangles(new Cartesian3d(1.5, 1.5, 20.0),
+                    new Cartesian3d(0.0, 0.0, -1.0), false, null);
+            assertEquals(first.triangle, triangles[0]);
+            assertEquals(first.t, t[0]);
+            assertEquals(-1, triangles[1]);
+            assertTrue(Double.isNaN(t[1]));
+            assertEquals(hits, triangles[2] < 0 ? 1 : 2);
+            finishTest();
+        });
+    }
+
+    public void testSphereTriangles() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            double[] soup = createTerrain();
+            TriangleBvh bvh = TriangleBvh.fromTriangles(soup);
+            Cartesian3d center = new Cartesian3d(10.0, 12.0, 0.5);
+            double radius = 3.0;
+            int[] result = new int[soup.length / 9];
+            int count = bvh.sphereTriangles(center, radius, result);
+            boolean[] found = new boolean[soup.length / 9];
+            for (int i = 0; i < count; i++) {
+                found[result[i]] = true;
+            }
+            for (int i = 0; i < soup.length / 9; i++) {
+                boolean inside = true;
+                double minimum = Double.MAX_VALUE;
+                for (int v = 0; v < 3; v++) {
+                    double distance = Cartesian3d.distance(center.x, center.y, center.z, soup[9 * i + 3 * v],
+                            soup[9 * i + 3 * v + 1], soup[9 * i + 3 * v + 2]);
+                    inside &= distance <= radius;
+                    minimum = Math.min(minimum, distance);
+                }
+                if (inside) {
+                    assertTrue(found[i]);
+                }
+                if (minimum > radius + 2.0) {
+                    assertFalse(found[i]);
+                }
+            }
+            assertEquals(count, bvh.sphereTriangles(center, radius, new int[0]));
+            finishTest();
+        });
+    }
+
+    public void testInvalidInput() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                TriangleBvh.fromTriangles(new double[8]);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                TriangleBvh.fromIndexedTriangles(new double[9], new int[]{0, 1, 3});
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            assertNull(TriangleBvh.fromTriangles(new double[0]).rayTriangles(new Cartesian3d(),
+                    new Cartesian3d(1.0, 0.0, 0.0), false, null));
+            finishTest();
+        });
+    }
+
+    private static double[] createTerrain() {
+        double[] heights = createRandom((GRID + 1) * (GRID + 1));
+        double[] soup = new double[GRID * GRID * 18];
+        int k = 0;
+        for (int y = 0; y < GRID; y++) {
+            for (int x = 0; x < GRID; x++) {
+                int[][] corners = {{x, y}, {x + 1, y}, {x + 1, y + 1}, {x, y}, {x + 1, y + 1}, {x, y + 1}};
+                for (int[] corner : corners) {
+                    soup[k++] = corner[0];
+                    soup[k++] = corner[1];
+                    soup[k++] = heights[corner[1] * (GRID + 1) + corner[0]];
+                }
+            }
+        }
+        return soup;
+    }
+
+    private static double[] createRandom(int count) {
+        double[] values = new double[count];
+        long seed = 7;
+        for (int i = 0; i < count; i++) {
+            seed = seed * 6364136223846793005L + 1442695040888963407L;
+            values[i] = (seed >>> 11) / (double) (1L << 53);
+        }
+        return values;
+    }
+
+    /**
+     * Tests every triangle with the Moller-Trumbore algorithm, like IntersectionTests.rayTriangleParametric.
+     *
+     * @return The index and parameter of the nearest intersection, or null.
+     */
+    private static double[] bruteForce(double[] soup, Cartesian3d origin, Cartesian3d direction,
+                                       boolean cullBackFaces, double maximumT) {
+        double[] nearest = null;
+        for (int i = 0; i < soup.length; i += 9) {
+            double e1x = soup[i + 3] - soup[i];
+            double e1y = soup[i + 4] - soup[i + 1];
+            double e1z = soup[i + 5] - soup[i + 2];
+            double e2x = soup[i + 6] - soup[i];
+            double e2y = soup[i + 7] - soup[i + 1];
+            double e2z = soup[i + 8] - soup[i + 2];
+            double px = direction.y * e2z - direction.z * e2y;
+            double py = direction.z * e2x - direction.x * e2z;
+            double pz = direction.x * e2y - direction.y * e2x;
+            double det = e1x * px + e1y * py + e1z * pz;
+            if (cullBackFaces ? det < CesiumMath.EPSILON6 : Math.abs(det) < CesiumMath.EPSILON6) {
+                continue;
+            }
+            double tx = origin.x - soup[i];
+            double ty = origin.y - soup[i + 1];
+            double tz = origin.z - soup[i + 2];
+            double u = (tx * px + ty * py + tz * pz) / det;
+            if (u < 0.0 || u > 1.0) {
+                continue;
+            }
+            double qx = ty * e1z - tz * e1y;
+            double qy = tz * e1x - tx * e1z;
+            double qz = tx * e1y - ty * e1x;
+            double v = (direction.x * qx + direction.y * qy + direction.z * qz) / det;
+            if (v < 0.0 || u + v > 1.0) {
+                continue;
+            }
+            double t = (e2x * qx + e2y * qy + e2z * qz) / det;
+            if (t >= 0.0 && t <= maximumT && (nearest == null || t < nearest[1])) {
+                nearest = new double[]{i / 9, t};
+            }
+        }
+        return nearest;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.core.time;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.JulianDate;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class JulianTimeTest extends BaseTestCase {
+
+    public void testLeapSecond() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime before = JulianTime.fromIso8601("2008-12-31T23:59:59Z", null);
+            JulianTime leap = JulianTime.fromIso8601("2008-12-31T23:59:60Z", null);
+            JulianTime after = JulianTime.fromIso8601("2009-01-01T00:00:00Z", null);
+            assertEquals(1.0, JulianTime.secondsDifference(leap, before));
+            assertEquals(1.0, JulianTime.secondsDifference(after, leap));
+            assertEquals(33, JulianTime.computeTaiMinusUtc(before));
+            assertEquals(34, JulianTime.computeTaiMinusUtc(after));
+
+            JulianTime utc = new JulianTime();
+            assertFalse(JulianTime.convertTaiToUtc(leap, utc));
+            assertTrue(JulianTime.convertTaiToUtc(after, utc));
+            assertEquals(2454832, utc.dayNumber);
+            assertEquals(43200.0, utc.secondsOfDay);
+            assertEquals("2008-12-31T23:59:60Z", JulianTime.toIso8601(leap, 0));
+            finishTest();
+        });
+    }
+
+    public void testFromIso8601MatchesNative() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            String[] dates = {"2012-03-05T10:30:15.5Z", "2012-03-05", "20120305T103015Z", "2012-065T10:30Z",
+                    "2012-W10-1T10:30:15Z", "2012-03-05T12:30:15+02:00", "2012-03-05T10:30:15,25Z",
+                    "2016-12-31T23:59:60.5Z"};
+            for (String date : dates) {
+                JulianDate expected = JulianDate.fromIso8601(date);
+                JulianTime actual = JulianTime.fromIso8601(date, null);
+                assertEquals(date, expected.dayNumber, actual.dayNumber);
+                assertEquals(date, expected.secondsOfDay, actual.secondsOfDay, 1e-9);
+            }
+            finishTest();
+        });
+    }
+
+    public void testFromIso8601KeepsSubMilliseconds() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime time = JulianTime.fromIso8601("2020-06-15T00:00:00.123456789Z", null);
+            JulianTime midnight = JulianTime.fromIso8601("2020-06-15T00:00:00Z", null);
+            assertEquals(0.123456789, JulianTime.secondsDifference(time, midnight), 1e-9);
+            finishTest();
+        });
+    }
+
+    public void testFromIso8601RejectsInvalid() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            String[] dates = {"", "2012-13-01", "2012-02-30T00:00Z", "2012-03-05T25:00Z", "2012-03-05T10:30:15X"};
+            for (String date : dates) {
+                try {
+                    JulianTime.fromIso8601(date, null);
+                    fail(date);
+                } catch (RuntimeException e) {
+                    // Expected
+                }
+            }
+            finishTest();
+        });
+    }
+
+    public void testSecondsDifferencePrecision() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime left = new JulianTime(2459000.0, 43200.000001);
+            JulianTime right = new JulianTime(2459000.0, 43200.0);
+            assertEquals(1e-6, JulianTime.secondsDifference(left, right), 1e-12);
+
+            assertEquals(-1e-6, JulianTime.secondsDifference(right, left), 1e-12);
+
+            // Across a day boundary
+            JulianTime evening = new JulianTime(2459000.0, 86399.9999995);
+            JulianTime morning = JulianTime.addSeconds(evening, 1e-6, null);
+            assertEquals(2459001, morning.dayNumber);
+            assertEquals(1e-6, JulianTime.secondsDifference(morning, evening), 1e-10);
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class CzmlPacketTokenizerTest extends BaseTestCase {
+
+    public void testDocument() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            String document = "[{\"id\":\"document\",\"version\":\"1.0\"},\n"
+                    + "{\"id\":\"a\",\"name\":\"{[\\\"}\",\"position\":{\"cartesian\":[1,2,3]}},\n"
+                    + "{\"id\":\"b\"}]";
+            String[] expected = {
+                    "{\"id\":\"document\",\"version\":\"1.0\"}",
+                    "{\"id\":\"a\",\"name\":\"{[\\\"}\",\"position\":{\"cartesian\":[1,2,3]}}",
+                    "{\"id\":\"b\"}"
+            };
+            // Every split, including inside strings and escapes
+            for (int split = 0; split <= document.length(); split++) {
+                CzmlPacketTokenizer tokenizer = new CzmlPacketTokenizer();
+                tokenizer.append(document.substring(0, split));
+                int count = 0;
+                String packet;
+                while ((packet = tokenizer.next()) != null) {
+                    assertEquals(expected[count++], packet);
+                }
+                tokenizer.append(document.substring(split));
+                while ((packet = tokenizer.next()) != null) {
+                    assertEquals(expected[count++], packet);
+                }
+                assertEquals(3, count);
+                assertEquals(3, tokenizer.getPacketCount());
+                assertFalse(tokenizer.hasPartialPacket());
+            }
+            finishTest();
+        });
+    }
+
+    public void testPacketStream() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CzmlPacketTokenizer tokenizer = new CzmlPacketTokenizer();
+            tokenizer.append("\uFEFF{\"id\":\"a\"}\r\n{\"id\":\"b\",");
+            assertEquals("{\"id\":\"a\"}", tokenizer.next());
+            assertNull(tokenizer.next());
+            assertTrue(tokenizer.hasPartialPacket());
+            tokenizer.append("\"show\":true}\n\t{\"id\":\"c\"}");
+            assertEquals("{\"id\":\"b\",\"show\":true}", tokenizer.next());
+            assertEquals("{\"id\":\"c\"}", tokenizer.next());
+            assertNull(tokenizer.next());
+            assertFalse(tokenizer.hasPartialPacket());
+
+            tokenizer.append("{\"id\":");
+            assertNull(tokenizer.next());
+            tokenizer.reset();
+            assertEquals(0, tokenizer.getPacketCount());
+            assertFalse(tokenizer.hasPartialPacket());
+            tokenizer.append("{\"id\":\"d\"}");
+            assertEquals("{\"id\":\"d\"}", tokenizer.next());
+            finishTest();
+        });
+    }
+
+    public void testUnexpectedCharacter() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CzmlPacketTokenizer tokenizer = new CzmlPacketTokenizer();
+            tokenizer.append("[{\"id\":\"a\"}, x {\"id\":\"b\"}]");
+            assertEquals("{\"id\":\"a\"}", tokenizer.next());
+            try {
+                tokenizer.next();
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            // The character is skipped
+            assertEquals("{\"id\":\"b\"}", tokenizer.next());
+            assertNull(tokenizer.next());
+            assertEquals(2, tokenizer.getPacketCount());
+            finishTest();
+        });
+    }
+}
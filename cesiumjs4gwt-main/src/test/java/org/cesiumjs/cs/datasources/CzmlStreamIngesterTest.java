@@ -0,0 +1,148 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.scene.Scene;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class CzmlStreamIngesterTest extends BaseTestCase {
+
+    public void testIngest() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            CzmlDataSource dataSource = new CzmlDataSource();
+            CzmlStreamIngester ingester = new CzmlStreamIngester(dataSource, scene);
+            assertTrue(ingester.append("[{\"id\":\"document\",\"version\":\"1.0\"},{\"id\":\"a\"},"));
+            assertTrue(ingester.append("{\"id\":\"b\",\"name\":\"B"));
+            assertEquals(2, ingester.getQueuedPacketCount());
+            assertTrue(ingester.append("\"}]"));
+            assertEquals(3, ingester.getQueuedPacketCount());
+            ingester.end().then(value -> {
+                assertSame(dataSource, value);
+                assertEquals(3, ingester.getProcessedPacketCount());
+                assertEquals(0, ingester.getQueuedPacketCount());
+                assertEquals(1, ingester.getBatchCount());
+                assertTrue(ingester.getMillisecondsPerPacket() > 0.0);
+                assertNotNull(dataSource.entities.getById("a"));
+                assertEquals("B", dataSource.entities.getById("b").name);
+                finishTest();
+            }, error -> fail(String.valueOf(error)));
+            raisePreUpdate(scene);
+        });
+    }
+
+    public void testAppendMalformed() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            CzmlDataSource dataSource = new CzmlDataSource();
+            CzmlStreamIngester ingester = new CzmlStreamIngester(dataSource, scene);
+            try {
+                ingester.append("[{\"id\":\"document\",\"version\":\"1.0\"},{\"id\":\"a\"} x {\"id\":\"b\"}]");
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            // The packets before the error are queued and processed
+            assertEquals(2, ingester.getQueuedPacketCount());
+            assertTrue(ingester.append(""));
+            assertEquals(3, ingester.getQueuedPacketCount());
+            ingester.end().then(value -> {
+                assertEquals(3, ingester.getProcessedPacketCount());
+                assertNotNull(dataSource.entities.getById("a"));
+                assertNotNull(dataSource.entities.getById("b"));
+                finishTest();
+            }, error -> fail(String.valueOf(error)));
+            raisePreUpdate(scene);
+        });
+    }
+
+    public void testBackpressure() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            CzmlStreamIngester ingester = new CzmlStreamIngester(new CzmlDataSource(), scene).setHighWaterMark(4);
+            int[] notifications = new int[2];
+            ingester.addBackpressureListener((source, backpressured) -> notifications[backpressured ? 0 : 1]++);
+            assertTrue(ingester.append("{\"id\":\"document\",\"version\":\"1.0\"}{\"id\":\"a\"}{\"id\":\"b\"}"));
+            assertFalse(ingester.append("{\"id\":\"c\"}"));
+            assertTrue(ingester.isBackpressured());
+            assertEquals(1, notifications[0]);
+            ingester.addProgressListener(source -> {
+                assertFalse(source.isBackpressured());
+                assertEquals(1, notifications[1]);
+                finishTest();
+            });
+            raisePreUpdate(scene);
+        });
+    }
+
+    public void testEndInsidePacket() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CzmlStreamIngester ingester = new CzmlStreamIngester(new CzmlDataSource(), createScene());
+            ingester.append("[{\"id\":\"document\",\"version\":\"1.0\"},{\"id\":");
+            ingester.end().then(value -> fail("expected rejection"), error -> {
+                assertEquals("The CZML ends inside a packet.", error);
+                try {
+                    ingester.append("{}");
+                    fail("expected DeveloperError");
+                } catch (DeveloperError expected) {
+                    // expected
+                }
+                finishTest();
+            });
+        });
+    }
+
+    public void testLoadMalformed() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CzmlStreamIngester ingester = new CzmlStreamIngester(new CzmlDataSource(), createScene());
+            // The error is thrown while a chunk read by the streaming load is split into packets
+            ingester.load("data:application/json,%5B%7B%22id%22%3A%22document%22%7D%20x%5D").then(
+                    value -> fail("expected rejection"), error -> {
+                        assertEquals("Unexpected character 'x' between CZML packets.", error);
+                        finishTest();
+                    });
+        });
+    }
+
+    /**
+     * Creates a scene without a WebGL context. Only its pre-update event is usable.
+     */
+    private static native Scene createScene() /*-{
+        var scene = Object.create($wnd.Cesium.Scene.prototype);
+        scene._preUpdate = new $wnd.Cesium.Event();
+        scene.requestRenderMode = false;
+        return scene;
+    }-*/;
+
+    private static native void raisePreUpdate(Scene scene) /*-{
+        scene.preUpdate.raiseEvent(scene);
+    }-*/;
+}
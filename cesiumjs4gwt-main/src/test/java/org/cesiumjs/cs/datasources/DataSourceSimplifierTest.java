@@ -0,0 +1,163 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import junit.framework.TestCase;
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.PolygonHierarchy;
+import org.cesiumjs.cs.core.math.Ellipsoidd;
+import org.cesiumjs.cs.core.math.LineSimplifier;
+import org.cesiumjs.cs.datasources.graphics.PolygonGraphics;
+import org.cesiumjs.cs.datasources.graphics.PolylineGraphics;
+import org.cesiumjs.cs.datasources.graphics.options.PolygonGraphicsOptions;
+import org.cesiumjs.cs.datasources.graphics.options.PolylineGraphicsOptions;
+import org.cesiumjs.cs.datasources.options.EntityOptions;
+import org.cesiumjs.cs.datasources.properties.ConstantProperty;
+import org.cesiumjs.cs.datasources.properties.Property;
+import org.cesiumjs.cs.promise.Promise;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class DataSourceSimplifierTest extends BaseTestCase {
+
+    public void testPolyline() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CustomDataSource dataSource = new CustomDataSource();
+            Cartesian3[] positions = createNoisyLine(100);
+            Entity entity = dataSource.entities.add(createPolyline(positions));
+            Entity straight = dataSource.entities.add(createPolyline(Cartesian3.fromDegreesArray(new double[]{
+                    10.0, 40.0, 10.0, 41.0})));
+            Property unchanged = straight.polyline.positions;
+
+            DataSourceSimplifier simplifier = new DataSourceSimplifier(new LineSimplifier().setTolerance(5.0));
+            assertEquals(98, simplifier.simplify(dataSource.entities));
+            Cartesian3[] simplified = (Cartesian3[]) entity.polyline.positions.getValue(null);
+            assertEquals(2, simplified.length);
+            assertSame(positions[0], simplified[0]);
+            assertSame(positions[99], simplified[1]);
+            assertSame(unchanged, straight.polyline.positions);
+            assertEquals(100, simplifier.getInputVertexCount());
+            assertEquals(2, simplifier.getOutputVertexCount());
+
+            // A second pass has nothing left to remove
+            assertEquals(0, simplifier.simplify(entity));
+            finishTest();
+        });
+    }
+
+    public void testPolygon() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            // A square with many vertices along its edges, and a small hole close to an edge
+            PolygonHierarchy hole = new PolygonHierarchy(Cartesian3.fromDegreesArray(new double[]{
+                    10.01, 40.01, 10.02, 40.01, 10.02, 40.02, 10.01, 40.02}));
+            PolygonHierarchy hierarchy = new PolygonHierarchy(createDenseSquare(10.0, 40.0, 1.0, 48),
+                    new PolygonHierarchy[]{hole});
+            PolygonGraphicsOptions options = new PolygonGraphicsOptions();
+            options.hierarchy = new ConstantProperty<>(hierarchy);
+            EntityOptions entityOptions = new EntityOptions();
+            entityOptions.polygon = new PolygonGraphics(options);
+            Entity entity = new Entity(entityOptions);
+
+            DataSourceSimplifier simplifier = new DataSourceSimplifier(
+                    new LineSimplifier(LineSimplifier.VISVALINGAM_WHYATT).setTolerance(5000.0), Ellipsoidd.WGS84);
+            assertTrue(simplifier.simplify(entity) > 0);
+            PolygonHierarchy simplified = (PolygonHierarchy) entity.polygon.hierarchy.getValue(null);
+            assertTrue(simplified.positions.length >= 3);
+            assertTrue(simplified.positions.length < 48);
+            assertEquals(1, simplified.holes.length);
+            assertTrue(simplified.holes[0].positions.length >= 3);
+            finishTest();
+        });
+    }
+
+    public void testLoadingPromise() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CustomDataSource dataSource = new CustomDataSource();
+            Entity entity = dataSource.entities.add(createPolyline(createNoisyLine(100)));
+            Promise<CustomDataSource, String> loading = new Promise<>((fulfill, reject) -> fulfill.onFulfilled(
+                    dataSource));
+            DataSourceSimplifier simplifier = new DataSourceSimplifier(new LineSimplifier().setTolerance(5.0));
+            simplifier.simplify(loading).then(loaded -> {
+                assertSame(dataSource, loaded);
+                assertEquals(2, ((Cartesian3[]) entity.polyline.positions.getValue(null)).length);
+                finishTest();
+            }, TestCase::fail);
+        });
+    }
+
+    public void testValidation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                new DataSourceSimplifier(new LineSimplifier(), null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new DataSourceSimplifier(null, Ellipsoidd.WGS84);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static EntityOptions createPolyline(Cartesian3[] positions) {
+        PolylineGraphicsOptions options = new PolylineGraphicsOptions();
+        options.positions = new ConstantProperty<>(positions);
+        EntityOptions entityOptions = new EntityOptions();
+        entityOptions.polyline = new PolylineGraphics(options);
+        return entityOptions;
+    }
+
+    /**
+     * Creates a line about 1 km long along a meridian with about 1 meter of noise across it.
+     */
+    private static Cartesian3[] createNoisyLine(int count) {
+        double[] degrees = new double[2 * count];
+        for (int i = 0; i < count; i++) {
+            degrees[2 * i] = 10.0 + (i % 2 == 0 ? 1e-5 : -1e-5);
+            degrees[2 * i + 1] = 40.0 + 1e-4 * i;
+        }
+        return Cartesian3.fromDegreesArray(degrees);
+    }
+
+    private static Cartesian3[] createDenseSquare(double west, double south, double size, int count) {
+        double[] degrees = new double[2 * count];
+        int side = count / 4;
+        for (int i = 0; i < count; i++) {
+            double t = (double) (i % side) / side * size;
+            int edge = i / side;
+            degrees[2 * i] = edge == 0 ? west + t : edge == 1 ? west + size : edge == 2 ? west + size - t : west;
+            degrees[2 * i + 1] = edge == 0 ? south : edge == 1 ? south + t : edge == 2 ? south + size
+                    : south + size - t;
+        }
+        return Cartesian3.fromDegreesArray(degrees);
+    }
+}
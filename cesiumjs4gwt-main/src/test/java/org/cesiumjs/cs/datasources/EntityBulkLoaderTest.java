@@ -0,0 +1,189 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.datasources.options.EntityOptions;
+import org.cesiumjs.cs.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class EntityBulkLoaderTest extends BaseTestCase {
+
+    public void testLoad() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            EntityCollection entities = new EntityCollection();
+            // A large budget, so that chunks are only limited by their size
+            EntityBulkLoader loader = new EntityBulkLoader(entities, scene).setFrameBudget(1000.0);
+            int[] notifications = new int[1];
+            loader.addProgressListener(source -> notifications[0]++);
+            loader.load(createOptions(0, 100)).then(value -> {
+                assertSame(entities, value);
+                assertTrue(loader.isDone());
+                assertEquals(100, loader.getLoadedCount());
+                assertEquals(100, entities.values().length);
+                assertNotNull(entities.getById("entity-99"));
+                assertEquals(1.0, loader.getProgress());
+                assertEquals(loader.getFrameCount(), notifications[0]);
+                assertEquals(loader.getChunkCount(), loader.getFrameCount());
+                assertTrue(loader.getMillisecondsPerEntity() > 0.0);
+                assertTrue(loader.getLoadingTime() <= loader.getElapsedTime());
+                finishTest();
+            }, error -> fail(String.valueOf(error)));
+            assertEquals(0.0, loader.getProgress());
+            raisePreRender(scene);
+            // The first chunk measures the time per entity
+            assertEquals(32, loader.getLoadedCount());
+            assertEquals(0.32, loader.getProgress(), 1e-12);
+            for (int i = 0; i < 1000 && !loader.isDone(); i++) {
+                raisePreRender(scene);
+            }
+        });
+    }
+
+    public void testUnknownTotal() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            EntityCollection entities = new EntityCollection();
+            EntityBulkLoader loader = new EntityBulkLoader(entities, scene);
+            loader.load(createOptions(0, 10).iterator(), -1).then(value -> {
+                assertEquals(1.0, loader.getProgress());
+                assertEquals(10, entities.values().length);
+                finishTest();
+            }, error -> fail(String.valueOf(error)));
+            assertEquals(-1, loader.getTotalCount());
+            assertEquals(-1.0, loader.getProgress());
+            try {
+                loader.load(createOptions(10, 10));
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            raisePreRender(scene);
+        });
+    }
+
+    public void testFailure() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            EntityCollection entities = new EntityCollection();
+            EntityBulkLoader loader = new EntityBulkLoader(entities, scene);
+            Iterator<EntityOptions> options = createOptions(0, 10).iterator();
+            Iterator<EntityOptions> failing = new Iterator<EntityOptions>() {
+                private int count;
+
+                @Override
+                public boolean hasNext() {
+                    return true;
+                }
+
+                @Override
+                public EntityOptions next() {
+                    if (count++ == 4) {
+                        throw new IllegalStateException("No more options.");
+                    }
+                    return options.next();
+                }
+            };
+            loader.load(failing, 10).then(value -> fail("expected rejection"), error -> {
+                assertTrue(loader.isDone());
+                assertEquals(4, loader.getLoadedCount());
+                // The entities added before the failure stay in the collection
+                assertEquals(4, entities.values().length);
+                finishTest();
+            });
+            raisePreRender(scene);
+        });
+    }
+
+    public void testCancel() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            EntityCollection entities = new EntityCollection();
+            EntityBulkLoader loader = new EntityBulkLoader(entities, scene);
+            loader.addProgressListener(EntityBulkLoader::cancel);
+            loader.load(createOptions(0, 100)).then(value -> fail("expected rejection"), error -> {
+                assertEquals("Canceled.", error);
+                assertEquals(32, loader.getLoadedCount());
+                raisePreRender(scene);
+                assertEquals(32, entities.values().length);
+                finishTest();
+            });
+            raisePreRender(scene);
+        });
+    }
+
+    public void testValidation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                new EntityBulkLoader(new EntityCollection(), null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                new EntityBulkLoader(new EntityCollection(), createScene()).setFrameBudget(0.0);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static List<EntityOptions> createOptions(int first, int count) {
+        List<EntityOptions> result = new ArrayList<>();
+        for (int i = first; i < first + count; i++) {
+            EntityOptions options = new EntityOptions();
+            options.id = "entity-" + i;
+            result.add(options);
+        }
+        return result;
+    }
+
+    /**
+     * Creates a scene without a WebGL context. Only its pre-render event is usable.
+     */
+    private static native Scene createScene() /*-{
+        var scene = Object.create($wnd.Cesium.Scene.prototype);
+        scene._preRender = new $wnd.Cesium.Event();
+        scene.requestRenderMode = false;
+        return scene;
+    }-*/;
+
+    private static native void raisePreRender(Scene scene) /*-{
+        scene.preRender.raiseEvent(scene);
+    }-*/;
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.collections.EntityCollection;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.JulianDate;
+import org.cesiumjs.cs.datasources.graphics.LabelGraphics;
+import org.cesiumjs.cs.datasources.graphics.options.LabelGraphicsOptions;
+import org.cesiumjs.cs.datasources.properties.ConstantPositionProperty;
+import org.cesiumjs.cs.datasources.properties.ConstantProperty;
+import org.cesiumjs.cs.datasources.properties.Property;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class EntityPoolTest extends BaseTestCase {
+    public void testAcquireRelease() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            EntityCollection entities = new EntityCollection();
+            EntityPool pool = new EntityPool(entities, EntityPoolTest::createEntity);
+            Entity first = pool.acquire("track");
+            Entity second = pool.acquire("track");
+            assertNotSame(first, second);
+            assertTrue(first.show);
+            assertEquals(2, pool.getCreatedCount());
+            assertEquals(2, pool.getActiveCount());
+            assertEquals(2, entities.values().length);
+
+            Property text = first.label.text;
+            first.name = "Track 1";
+            first.label.text = EntityPool.setConstant(first.label.text, "Track 1");
+            EntityPool.setPosition(first, Cartesian3.fromDegrees(10.0, 20.0));
+            assertSame(text, first.label.text);
+
+            assertTrue(pool.release(first));
+            assertFalse(pool.release(first));
+            assertFalse(pool.release(null));
+            assertFalse(pool.release(new Entity()));
+            // Hidden and reset in place, but kept in the collection
+            assertFalse(first.show);
+            assertNull(first.name);
+            assertSame(text, first.label.text);
+            assertEquals("label", first.label.text.getValue(new JulianDate()));
+            assertTrue(Cartesian3.equals(origin(), first.position.getValue(new JulianDate())));
+            assertTrue(entities.contains(first));
+            assertEquals(1, pool.getActiveCount());
+            assertEquals(1, pool.getIdleCount());
+            assertEquals(1, pool.getIdleCount("track"));
+            assertEquals(0, pool.getIdleCount("other"));
+
+            // Only entities of the same shape are reused
+            Entity other = pool.acquire("other");
+            assertNotSame(first, other);
+            assertSame(first, pool.acquire("track"));
+            assertTrue(first.show);
+            assertEquals(3, pool.getCreatedCount());
+            assertEquals(1, pool.getReusedCount());
+            assertEquals(0.25, pool.getReuseRate(), 1e-12);
+            assertEquals(0, pool.getIdleCount());
+            assertEquals(3, entities.values().length);
+            finishTest();
+        });
+    }
+
+    public void testEviction() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            EntityCollection entities = new EntityCollection();
+            EntityPool pool = new EntityPool(entities, EntityPoolTest::createEntity).setMaximumIdleCount(2);
+            Entity[] acquired = {pool.acquire("a"), pool.acquire("b"), pool.acquire("a"), pool.acquire("a")};
+            for (Entity entity : acquired) {
+                pool.release(entity);
+            }
+            // The entity released first is removed from the collection
+            assertEquals(2, pool.getEvictedCount());
+            assertEquals(2, pool.getIdleCount());
+            assertEquals(0, pool.getIdleCount("b"));
+            assertFalse(entities.contains(acquired[0]));
+            assertFalse(entities.contains(acquired[1]));
+            assertSame(acquired[2], pool.acquire("a"));
+
+            pool.setMaximumIdleCount(0);
+            assertEquals(3, pool.getEvictedCount());
+            assertEquals(0, pool.getIdleCount());
+            assertEquals(1, entities.values().length);
+
+            pool.setMaximumIdleCount(10);
+            pool.release(pool.acquire("b"));
+            assertEquals(1, pool.getIdleCount());
+            pool.clear();
+            assertEquals(0, pool.getIdleCount());
+            assertEquals(1, entities.values().length);
+            assertEquals(1, pool.getActiveCount());
+            finishTest();
+        });
+    }
+
+    public void testResetter() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            List<String> resets = new ArrayList<>();
+            EntityPool pool = new EntityPool(new EntityCollection(), EntityPoolTest::createEntity)
+                    .setResetter((entity, shape) -> resets.add(shape));
+            Entity entity = pool.acquire("track");
+            entity.name = "Track";
+            pool.release(entity);
+            assertEquals(1, resets.size());
+            assertEquals("track", resets.get(0));
+            assertEquals("Track", entity.name);
+            finishTest();
+        });
+    }
+
+    public void testSetters() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Entity entity = new Entity();
+            EntityPool.setPosition(entity, origin());
+            Property position = entity.position;
+            assertTrue(position instanceof ConstantPositionProperty);
+            EntityPool.setPosition(entity, Cartesian3.fromDegrees(1.0, 2.0));
+            assertSame(position, entity.position);
+
+            Property text = EntityPool.setConstant(null, "a");
+            assertTrue(text instanceof ConstantProperty);
+            assertSame(text, EntityPool.setConstant(text, "b"));
+            assertEquals("b", text.getValue(new JulianDate()));
+            finishTest();
+        });
+    }
+
+    public void testValidation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                new EntityPool(new EntityCollection(), null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            EntityPool pool = new EntityPool(new EntityCollection(), shape -> null);
+            try {
+                pool.acquire("track");
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                pool.setMaximumIdleCount(-1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    private static Cartesian3 origin() {
+        return Cartesian3.fromDegrees(0.0, 0.0);
+    }
+
+    private static Entity createEntity(String shape) {
+        LabelGraphicsOptions options = new LabelGraphicsOptions();
+        options.text = new ConstantProperty<>("label");
+        Entity entity = new Entity();
+        entity.label = new LabelGraphics(options);
+        entity.position = new ConstantPositionProperty(origin());
+        return entity;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.math.FeatureTileIndex;
+import org.cesiumjs.cs.js.JsJSON;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class GeoJsonTileLayerTest extends BaseTestCase {
+
+    public void testMultiPointSpansTiles() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            FeatureTileIndex index = GeoJsonTileLayer.createIndex();
+            assertEquals(0, index.getBuffer());
+            assertEquals(2, GeoJsonTileLayer.addGeoJson(index, JsJSON.parse("{\"type\":\"FeatureCollection\","
+                    + "\"features\":[{\"type\":\"Feature\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[10,10]}},"
+                    + "{\"type\":\"Feature\",\"geometry\":{\"type\":\"MultiPoint\",\"coordinates\":"
+                    + "[[-90,45],[90,45],[-90,-45],[90,-45]]}}]}")));
+            index.build();
+            // Each point of the MultiPoint is in exactly one tile, so every one of them is shown
+            int[] counts = new int[2];
+            for (int y = 0; y < 2; y++) {
+                for (int x = 0; x < 2; x++) {
+                    FeatureTileIndex.Tile tile = index.getTile(1, x, y);
+                    int multiPoints = 0;
+                    for (int feature = 0; feature < tile.getFeatureCount(); feature++) {
+                        counts[tile.getFeatureId(feature)]++;
+                        if (tile.getFeatureId(feature) == 1) {
+                            multiPoints++;
+                        }
+                    }
+                    assertEquals(1, multiPoints);
+                }
+            }
+            assertEquals(1, counts[0]);
+            assertEquals(4, counts[1]);
+            finishTest();
+        });
+    }
+
+    public void testBufferedIndex() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            try {
+                new GeoJsonTileLayer(new FeatureTileIndex().build(), null, null, null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.JulianDate;
+import org.cesiumjs.cs.core.time.JulianTime;
+import org.cesiumjs.cs.datasources.properties.SampledPositionProperty;
+import org.cesiumjs.cs.js.JsJSON;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class PackedCzmlLoaderTest extends BaseTestCase {
+
+    public void testProcessWriterOutput() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime epoch = JulianTime.fromIso8601("2012-08-04T16:00:00Z", null);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PackedCzmlWriter writer = new PackedCzmlWriter(out);
+            try {
+                writer.writeDocument("Replay");
+                writer.writePositions("a", epoch, new double[]{0.0, 1.0, 2.0, 3.0, 60.0, 4.0, 5.0, 6.0}, 0, 2);
+                writer.writeNumbers("a", "speed", epoch, new double[]{0.0, 250.0}, 0, 1);
+                writer.close();
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            CzmlDataSource dataSource = new CzmlDataSource();
+            PackedCzmlLoader loader = new PackedCzmlLoader(dataSource);
+            loader.process(JsJSON.parse(new String(out.toByteArray()))).then(value -> {
+                assertSame(dataSource, value);
+                assertEquals(3, loader.getPacketCount());
+                assertEquals(3, loader.getSampleCount());
+                assertEquals("Replay", dataSource.name);
+                Entity entity = dataSource.entities.getById("a");
+                assertTrue(entity.position instanceof SampledPositionProperty);
+                JulianDate time = JulianDate.addSeconds(JulianTime.toJulianDate(epoch, null), 60.0, new JulianDate());
+                assertTrue(Cartesian3.equals(new Cartesian3(4.0, 5.0, 6.0), entity.position.getValue(time)));
+                finishTest();
+            }, error -> fail("rejected"));
+        });
+    }
+
+    public void testMalformedEpoch() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            CzmlDataSource dataSource = new CzmlDataSource();
+            PackedCzmlLoader loader = new PackedCzmlLoader(dataSource);
+            // The packed value follows a packet left to the data source, so it is loaded in its callback
+            Object czml = JsJSON.parse("[{\"id\":\"document\",\"version\":\"1.0\"},{\"id\":\"a\",\"name\":\"A\"},"
+                    + "{\"id\":\"a\",\"position\":{\"epoch\":\"not a date\",\"cartesian\":[0,1,2,3]}}]");
+            loader.process(czml).then(value -> fail("expected rejection"), error -> {
+                assertEquals("A", dataSource.entities.getById("a").name);
+                finishTest();
+            });
+        });
+    }
+}
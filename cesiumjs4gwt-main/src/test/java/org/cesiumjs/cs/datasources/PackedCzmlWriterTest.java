@@ -0,0 +1,183 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.datasources;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+import org.cesiumjs.cs.core.time.JulianTime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class PackedCzmlWriterTest extends BaseTestCase {
+
+    public void testDocument() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime start = JulianTime.fromIso8601("2012-08-04T16:00:00Z", null);
+            JulianTime stop = JulianTime.fromIso8601("2012-08-04T17:00:00Z", null);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            // A small buffer is written to the stream many times
+            PackedCzmlWriter writer = new PackedCzmlWriter(out, 64);
+            try {
+                writer.writeDocument("Replay", start, stop, 10.0);
+                writer.writePositions("a", start, new double[]{-1.0, 0.0, 1.5, -2.0, 3.0, 60.0, 1e20, 0.25, -0.0, 0.0},
+                        1, 2);
+                writer.writeOrientations("a", start, new double[]{0.0, 0.0, 0.0, 0.0, 1.0}, 0, 1);
+                writer.writeNumbers("a", "speed", start, new double[]{0.0, 250.5, 30.0, 251.0}, 0, 2);
+                assertTrue(writer.getBytesWritten() > 0);
+                assertEquals(4, writer.getPacketCount());
+                writer.close();
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            String expected = "[\n"
+                    + "{\"id\":\"document\",\"version\":\"1.0\",\"name\":\"Replay\",\"clock\":{\"interval\":\""
+                    + JulianTime.toIso8601(start) + "/" + JulianTime.toIso8601(stop) + "\",\"currentTime\":\""
+                    + JulianTime.toIso8601(start) + "\",\"multiplier\":10}},\n"
+                    + "{\"id\":\"a\",\"position\":{\"epoch\":\"" + JulianTime.toIso8601(start)
+                    + "\",\"cartesian\":[0,1.5,-2,3,60,1.0E20,0.25,-0]}},\n"
+                    + "{\"id\":\"a\",\"orientation\":{\"epoch\":\"" + JulianTime.toIso8601(start)
+                    + "\",\"unitQuaternion\":[0,0,0,0,1]}},\n"
+                    + "{\"id\":\"a\",\"properties\":{\"speed\":{\"epoch\":\"" + JulianTime.toIso8601(start)
+                    + "\",\"number\":[0,250.5,30,251]}}}\n"
+                    + "]\n";
+            assertEquals(expected, new String(out.toByteArray()));
+            assertEquals(out.size(), writer.getBytesWritten());
+            finishTest();
+        });
+    }
+
+    public void testImplicitDocument() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PackedCzmlWriter writer = new PackedCzmlWriter(out);
+            try {
+                writer.writeNumbers("a", "n", JulianTime.fromIso8601("2012-08-04T16:00:00Z", null),
+                        new double[0], 0, 0);
+                assertEquals(2, writer.getPacketCount());
+                assertEquals(0, writer.getBytesWritten());
+                writer.flush();
+                assertEquals(out.size(), writer.getBytesWritten());
+                try {
+                    writer.writeDocument(null);
+                    fail("expected DeveloperError");
+                } catch (DeveloperError expected) {
+                    // expected
+                }
+                writer.end();
+                writer.end();
+                try {
+                    writer.writePositions("b", JulianTime.fromIso8601("2012-08-04T16:00:00Z", null),
+                            new double[4], 0, 1);
+                    fail("expected DeveloperError");
+                } catch (DeveloperError expected) {
+                    // expected
+                }
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            assertTrue(new String(out.toByteArray()).startsWith("[\n{\"id\":\"document\",\"version\":\"1.0\"},\n"
+                    + "{\"id\":\"a\",\"properties\":{\"n\":{"));
+            assertTrue(new String(out.toByteArray()).endsWith("\"number\":[]}}}\n]\n"));
+
+            // An empty document
+            out.reset();
+            try {
+                new PackedCzmlWriter(out).close();
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            assertEquals("[\n]\n", new String(out.toByteArray()));
+            finishTest();
+        });
+    }
+
+    public void testStrings() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            PackedCzmlWriter writer = new PackedCzmlWriter(out);
+            try {
+                writer.writeDocument("q\"b\\c\n\u00e9\u20ac\ud83d\ude00|\ud83d|\ude00|\ud83d");
+                writer.end();
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            byte[] bytes = out.toByteArray();
+            byte[] expected = {'q', '\\', '"', 'b', '\\', '\\', 'c', '\\', 'u', '0', '0', '0', 'a',
+                    (byte) 0xC3, (byte) 0xA9,
+                    (byte) 0xE2, (byte) 0x82, (byte) 0xAC,
+                    (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80, '|',
+                    // Lone surrogates are replaced by U+FFFD
+                    (byte) 0xEF, (byte) 0xBF, (byte) 0xBD, '|',
+                    (byte) 0xEF, (byte) 0xBF, (byte) 0xBD, '|',
+                    (byte) 0xEF, (byte) 0xBF, (byte) 0xBD, '"'};
+            int start = "[\n{\"id\":\"document\",\"version\":\"1.0\",\"name\":\"".length();
+            assertTrue(Arrays.equals(expected, Arrays.copyOfRange(bytes, start, start + expected.length)));
+            finishTest();
+        });
+    }
+
+    public void testValidation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            JulianTime epoch = JulianTime.fromIso8601("2012-08-04T16:00:00Z", null);
+            PackedCzmlWriter writer = new PackedCzmlWriter(new ByteArrayOutputStream());
+            try {
+                new PackedCzmlWriter(new ByteArrayOutputStream(), 63);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            try {
+                writer.writePositions(null, epoch, new double[4], 0, 1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            try {
+                writer.writePositions("a", epoch, new double[7], 0, 2);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            try {
+                writer.writeNumbers("a", "n", epoch, new double[]{0.0, Double.NaN}, 0, 1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            } catch (IOException e) {
+                fail(e.getMessage());
+            }
+            finishTest();
+        });
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.scene;
+
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.Cartesian3;
+import org.cesiumjs.cs.core.DeveloperError;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class FrameScratchPoolTest extends BaseTestCase {
+
+    public void testForScene() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameScratchPool pool = FrameScratchPool.forScene(scene);
+            assertSame(pool, FrameScratchPool.forScene(scene));
+            assertNotSame(pool, FrameScratchPool.forScene(createScene()));
+            assertEquals(1, scene.postRender().numberOfListeners());
+            try {
+                FrameScratchPool.forScene(null);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            finishTest();
+        });
+    }
+
+    public void testReleasedOnPostRender() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameScratchPool pool = FrameScratchPool.forScene(scene);
+            Cartesian3 first = pool.cartesian3(1.0, 2.0, 3.0);
+            Cartesian3 second = pool.cartesian3();
+            assertNotSame(first, second);
+            assertEquals(2.0, first.y);
+
+            raisePostRender(scene);
+            assertSame(first, pool.cartesian3());
+            assertSame(second, pool.cartesian3());
+            finishTest();
+        });
+    }
+
+    public void testDestroy() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameScratchPool pool = FrameScratchPool.forScene(scene);
+            pool.destroy();
+            assertTrue(pool.isDestroyed());
+            assertEquals(0, scene.postRender().numberOfListeners());
+
+            FrameScratchPool next = FrameScratchPool.forScene(scene);
+            assertNotSame(pool, next);
+            assertFalse(next.isDestroyed());
+            pool.destroy();
+            assertSame(next, FrameScratchPool.forScene(scene));
+            finishTest();
+        });
+    }
+
+    /**
+     * Creates a scene without a WebGL context. Only its post-render event is usable.
+     */
+    private static native Scene createScene() /*-{
+        var scene = Object.create($wnd.Cesium.Scene.prototype);
+        scene._postRender = new $wnd.Cesium.Event();
+        return scene;
+    }-*/;
+
+    private static native void raisePostRender(Scene scene) /*-{
+        scene.postRender.raiseEvent(scene);
+    }-*/;
+}
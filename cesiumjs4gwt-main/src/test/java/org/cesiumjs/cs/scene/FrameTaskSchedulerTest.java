@@ -0,0 +1,225 @@
+/*
+ * Copyright 2023 iSergio, Gis4Fun.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.cesiumjs.cs.scene;
+
+import com.google.gwt.core.client.Duration;
+import org.cesiumjs.cs.BaseTestCase;
+import org.cesiumjs.cs.core.DeveloperError;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Serge Silaev aka iSergio
+ */
+public class FrameTaskSchedulerTest extends BaseTestCase {
+
+    public void testPriorities() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameTaskScheduler scheduler = FrameTaskScheduler.forScene(scene).setSliceBudget(1000.0);
+            assertSame(scheduler, FrameTaskScheduler.forScene(scene));
+            List<String> runs = new ArrayList<>();
+            FrameTaskScheduler.Handle idle = scheduler.schedule(record(runs, "idle", 0), FrameTaskScheduler.IDLE);
+            scheduler.schedule(record(runs, "low", 0), FrameTaskScheduler.LOW);
+            FrameTaskScheduler.Handle normal = scheduler.schedule(record(runs, "normal", 2));
+            scheduler.schedule(record(runs, "other", 0));
+            scheduler.schedule(record(runs, "high", 0), FrameTaskScheduler.HIGH);
+            assertEquals(5, scheduler.getQueueDepth());
+            assertEquals(2, scheduler.getQueueDepth(FrameTaskScheduler.NORMAL));
+
+            raisePreUpdate(scene);
+            // A task with more work goes back to the end of its priority
+            assertEquals(Arrays.asList("high", "normal", "other", "normal", "normal", "low", "idle"), runs);
+            assertEquals(7, scheduler.getLastRunCount());
+            assertEquals(0, scheduler.getQueueDepth());
+            assertEquals(5, scheduler.getCompletedCount());
+            assertEquals(3, normal.getRunCount());
+            assertEquals(FrameTaskScheduler.Handle.COMPLETED, idle.getState());
+            assertTrue(idle.isDone());
+            assertFalse(idle.cancel());
+            scheduler.destroy();
+            finishTest();
+        });
+    }
+
+    public void testCancel() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameTaskScheduler scheduler = FrameTaskScheduler.forScene(scene);
+            List<String> runs = new ArrayList<>();
+            FrameTaskScheduler.Handle canceled = scheduler.schedule(record(runs, "canceled", 0));
+            scheduler.schedule(record(runs, "kept", 0));
+            assertTrue(canceled.cancel());
+            assertFalse(canceled.cancel());
+            assertEquals(1, scheduler.getQueueDepth());
+
+            // A task which cancels itself and then throws stays canceled
+            FrameTaskScheduler.Handle[] self = new FrameTaskScheduler.Handle[1];
+            self[0] = scheduler.schedule(() -> {
+                self[0].cancel();
+                throw new IllegalStateException("Failed after cancel.");
+            });
+            // A task which cancels itself and has more work does not run again
+            FrameTaskScheduler.Handle[] other = new FrameTaskScheduler.Handle[1];
+            other[0] = scheduler.schedule(() -> {
+                runs.add("other");
+                other[0].cancel();
+                return true;
+            });
+            raisePreUpdate(scene);
+            raisePreUpdate(scene);
+            assertEquals(Arrays.asList("kept", "other"), runs);
+            assertEquals(FrameTaskScheduler.Handle.CANCELED, canceled.getState());
+            assertEquals(FrameTaskScheduler.Handle.CANCELED, self[0].getState());
+            assertNull(self[0].getError());
+            assertEquals(FrameTaskScheduler.Handle.CANCELED, other[0].getState());
+            assertEquals(3, scheduler.getCanceledCount());
+            assertEquals(0, scheduler.getFailedCount());
+            assertEquals(0, scheduler.getQueueDepth(FrameTaskScheduler.NORMAL));
+            scheduler.destroy();
+            finishTest();
+        });
+    }
+
+    public void testFailure() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameTaskScheduler scheduler = FrameTaskScheduler.forScene(scene);
+            List<String> runs = new ArrayList<>();
+            IllegalStateException error = new IllegalStateException("Failed.");
+            FrameTaskScheduler.Handle failed = scheduler.schedule(() -> {
+                throw error;
+            }, FrameTaskScheduler.HIGH);
+            scheduler.schedule(record(runs, "next", 0));
+            raisePreUpdate(scene);
+            assertEquals(FrameTaskScheduler.Handle.FAILED, failed.getState());
+            assertSame(error, failed.getError());
+            assertEquals(1, scheduler.getFailedCount());
+            assertEquals(Arrays.asList("next"), runs);
+            assertEquals(0, scheduler.getQueueDepth());
+            scheduler.destroy();
+            finishTest();
+        });
+    }
+
+    public void testStarvation() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            // A slice so small that one task runs per frame
+            FrameTaskScheduler scheduler = FrameTaskScheduler.forScene(scene).setSliceBudget(0.001)
+                    .setStarvationFrames(1);
+            FrameTaskScheduler.Handle idle = scheduler.schedule(() -> {
+                spin();
+                return false;
+            }, FrameTaskScheduler.IDLE);
+            // Always has more work
+            FrameTaskScheduler.Handle busy = scheduler.schedule(() -> {
+                spin();
+                return true;
+            }, FrameTaskScheduler.HIGH);
+            int frames = 0;
+            while (!idle.isDone() && frames < 10) {
+                raisePreUpdate(scene);
+                assertEquals(1, scheduler.getLastRunCount());
+                frames++;
+            }
+            assertTrue(idle.isDone());
+            assertEquals(5, frames);
+            assertEquals(4, busy.getRunCount());
+            scheduler.destroy();
+            finishTest();
+        });
+    }
+
+    public void testDestroy() {
+        delayTestFinish(10_000);
+
+        super.beginTest(() -> {
+            Scene scene = createScene();
+            FrameTaskScheduler scheduler = FrameTaskScheduler.forScene(scene);
+            List<String> runs = new ArrayList<>();
+            FrameTaskScheduler.Handle handle = scheduler.schedule(record(runs, "task", 0));
+            scheduler.destroy();
+            assertTrue(scheduler.isDestroyed());
+            assertEquals(FrameTaskScheduler.Handle.CANCELED, handle.getState());
+            raisePreUpdate(scene);
+            assertTrue(runs.isEmpty());
+            try {
+                scheduler.schedule(record(runs, "task", 0));
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            FrameTaskScheduler next = FrameTaskScheduler.forScene(scene);
+            assertNotSame(scheduler, next);
+            try {
+                next.schedule(record(runs, "task", 0), FrameTaskScheduler.IDLE + 1);
+                fail("expected DeveloperError");
+            } catch (DeveloperError expected) {
+                // expected
+            }
+            next.destroy();
+            finishTest();
+        });
+    }
+
+    /**
+     * Creates a task which adds its name to a list each time it runs, and has more work for a number of runs.
+     */
+    private static FrameTaskScheduler.Task record(List<String> runs, String name, int moreRuns) {
+        int[] remaining = {moreRuns};
+        return () -> {
+            runs.add(name);
+            return remaining[0]-- > 0;
+        };
+    }
+
+    /**
+     * Waits until the clock moves on, so that every run takes longer than a tiny slice.
+     */
+    private static void spin() {
+        double start = Duration.currentTimeMillis();
+        while (Duration.currentTimeMillis() <= start + 0.01) {
+            // Wait
+        }
+    }
+
+    /**
+     * Creates a scene without a WebGL context. Only its pre-update and post-render events are usable.
+     */
+    private static native Scene createScene() /*-{
+        var scene = Object.create($wnd.Cesium.Scene.prototype);
+        scene._preUpdate = new $wnd.Cesium.Event();
+        scene._postRender = new $wnd.Cesium.Event();
+        scene.requestRenderMode = false;
+        return scene;
+    }-*/;
+
+    private static native void raisePreUpdate(Scene scene) /*-{
+        scene.preUpdate.raiseEvent(scene);
+    }-*/;
+}